@@ -20,6 +20,7 @@ import com.wansenai.utils.response.Response;
 import com.wansenai.utils.constants.ApiVersionConstants;
 import com.wansenai.utils.enums.BaseCodeEnum;
 import com.wansenai.vo.CaptchaVO;
+import com.wansenai.vo.job.BackgroundJobVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -71,6 +72,11 @@ public class CommonController {
         return commonService.uploadExclsData(file);
     }
 
+    @PostMapping("upload/excel/async")
+    public Response<BackgroundJobVO> uploadExclsDataAsync(@RequestParam("file") MultipartFile file) {
+        return commonService.uploadExclsDataAsync(file);
+    }
+
 
     @PostMapping("upload/productCoverUpload")
     public Response<String> productCoverUpload(@RequestParam("file") MultipartFile file, @RequestParam("type") Integer type) {
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.api.config;
+
+import com.wansenai.service.job.BackgroundJobService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 导出接口的异步模式: 请求带 async=true 时不在请求线程中导出, 而是提交为后台任务,
+ * 立即返回任务信息, 之后通过 /sys/job/{jobId}/download 下载结果
+ */
+@Component
+@Aspect
+@Slf4j
+public class AsyncExportAspect {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BackgroundJobService backgroundJobService;
+
+    public AsyncExportAspect(BackgroundJobService backgroundJobService) {
+        this.backgroundJobService = backgroundJobService;
+    }
+
+    @Around("execution(public void com.wansenai.api..*Controller.export*(..))")
+    public Object doAround(ProceedingJoinPoint point) throws Throwable {
+        var attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null || !"true".equalsIgnoreCase(attributes.getRequest().getParameter("async"))) {
+            return point.proceed();
+        }
+        var args = point.getArgs();
+        var responseIndex = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof HttpServletResponse) {
+                responseIndex = i;
+            }
+        }
+        if (responseIndex < 0) {
+            return point.proceed();
+        }
+
+        var index = responseIndex;
+        var result = backgroundJobService.submitJob(point.getSignature().getName(), response -> {
+            var jobArgs = args.clone();
+            jobArgs[index] = response;
+            try {
+                point.proceed(jobArgs);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        });
+
+        var response = (HttpServletResponse) args[responseIndex];
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().println(OBJECT_MAPPER.writeValueAsString(result));
+        return null;
+    }
+}
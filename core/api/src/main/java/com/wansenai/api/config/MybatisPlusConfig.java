@@ -17,7 +17,8 @@ import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
-import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.redis.TokenSessionCache;
+import com.wansenai.utils.tenant.TenantContextHolder;
 import jakarta.servlet.http.HttpServletRequest;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.LongValue;
@@ -30,10 +31,10 @@ import org.springframework.util.StringUtils;
 @MapperScan("com.wansenai.mappers")
 public class MybatisPlusConfig {
 
-    public final RedisUtil redisUtil;
+    public final TokenSessionCache tokenSessionCache;
 
-    public MybatisPlusConfig(RedisUtil redisUtil) {
-        this.redisUtil = redisUtil;
+    public MybatisPlusConfig(TokenSessionCache tokenSessionCache) {
+        this.tokenSessionCache = tokenSessionCache;
     }
 
 
@@ -45,7 +46,11 @@ public class MybatisPlusConfig {
     public Long getTenantIdByToken(String token) {
         long tenantId = -1L;
         if(StringUtils.hasText(token)) {
-            tenantId = Long.parseLong(redisUtil.getString(token + ":tenantId"));
+            // 每条sql都会调用, 从请求内/本地缓存的会话中读取
+            var session = tokenSessionCache.getSession(token);
+            if (session != null && session.getTenantId() != null) {
+                tenantId = session.getTenantId();
+            }
         }
         return tenantId;
     }
@@ -56,8 +61,14 @@ public class MybatisPlusConfig {
         interceptor.addInnerInterceptor(new TenantLineInnerInterceptor(new TenantLineHandler() {
             @Override
             public Expression getTenantId() {
-                String token = request.getHeader("Authorization");
-                Long tenantId = getTenantIdByToken(token);
+                Long tenantId = TenantContextHolder.getTenantId();
+                if (tenantId != null) {
+                    TenantContextHolder.recordHit();
+                } else {
+                    // 未经过JWTInterceptor的请求(登录等)或者未传递租户的线程
+                    TenantContextHolder.recordMiss();
+                    tenantId = getTenantIdByToken(request.getHeader("Authorization"));
+                }
                 if (tenantId!=0L) {
                     return new LongValue(tenantId);
                 } else {
@@ -72,7 +83,7 @@ public class MybatisPlusConfig {
                 return "sys_user".equalsIgnoreCase(tableName) || "sys_menu".equalsIgnoreCase(tableName)
                         || "sys_user_role_rel".equalsIgnoreCase(tableName) || "sys_user_dept_rel".equalsIgnoreCase(tableName)
                         || "sys_role_menu_rel".equalsIgnoreCase(tableName) || "sys_platform_config".equalsIgnoreCase(tableName)
-                        || "sys_tenant".equalsIgnoreCase(tableName);
+                        || "sys_tenant".equalsIgnoreCase(tableName) || "sys_sequence".equalsIgnoreCase(tableName);
             }
         }));
 
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.api.config;
+
+import com.wansenai.service.product.InsufficientStockException;
+import com.wansenai.service.user.ISysUserService;
+import com.wansenai.utils.enums.BaseCodeEnum;
+import com.wansenai.utils.response.Response;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * 单据会使库存变为负数时(eairp.stock.reject-negative)，事务已回滚，返回错误码而不是500
+ */
+@RestControllerAdvice
+public class StockExceptionHandler {
+
+    private final ISysUserService userService;
+
+    public StockExceptionHandler(ISysUserService userService) {
+        this.userService = userService;
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public Response<String> handleInsufficientStock(InsufficientStockException ex) {
+        var barCodes = String.join(",", ex.getBarCodes());
+        if ("zh_CN".equals(userService.getUserSystemLanguage(userService.getCurrentUserId()))) {
+            return Response.responseMsg(BaseCodeEnum.STOCK_INSUFFICIENT.getCode(), BaseCodeEnum.STOCK_INSUFFICIENT.getMsg() + ": " + barCodes);
+        }
+        return Response.responseMsg(BaseCodeEnum.STOCK_INSUFFICIENT_EN.getCode(), BaseCodeEnum.STOCK_INSUFFICIENT_EN.getMsg() + ": " + barCodes);
+    }
+}
@@ -55,6 +55,11 @@ public class RetailController {
         return receiptRetailService.addOrUpdateRetailShipments(retailShipmentsDTO);
     }
 
+    @PostMapping("/shipments/checkout")
+    public Response<String> checkout(@RequestBody RetailShipmentsDTO retailShipmentsDTO) {
+        return receiptRetailService.checkoutRetailShipments(retailShipmentsDTO);
+    }
+
     @PostMapping("/shipments/deleteByIds")
     public Response<String> deleteByIds(@RequestParam("ids") List<Long> ids) {
         return receiptRetailService.deleteRetailShipments(ids);
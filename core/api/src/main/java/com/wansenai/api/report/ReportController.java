@@ -15,7 +15,12 @@ package com.wansenai.api.report;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.wansenai.dto.report.*;
+import com.wansenai.service.product.ProductStockLedgerService;
+import com.wansenai.service.product.ProductStockSnapshotService;
 import com.wansenai.service.receipt.ReceiptService;
+import com.wansenai.service.receipt.ReceiptStatisticsService;
+import com.wansenai.service.user.ISysUserService;
+import com.wansenai.utils.enums.UserCodeEnum;
 import com.wansenai.utils.response.Response;
 import com.wansenai.vo.receipt.retail.StatisticalDataVO;
 import com.wansenai.vo.report.*;
@@ -23,6 +28,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -31,8 +37,31 @@ public class ReportController {
 
     private final ReceiptService receiptService;
 
-    public ReportController(ReceiptService receiptService) {
+    private final ReceiptStatisticsService receiptStatisticsService;
+
+    private final ProductStockLedgerService productStockLedgerService;
+
+    private final ProductStockSnapshotService productStockSnapshotService;
+
+    private final ISysUserService userService;
+
+    public ReportController(ReceiptService receiptService, ReceiptStatisticsService receiptStatisticsService, ProductStockLedgerService productStockLedgerService, ProductStockSnapshotService productStockSnapshotService, ISysUserService userService) {
         this.receiptService = receiptService;
+        this.receiptStatisticsService = receiptStatisticsService;
+        this.productStockLedgerService = productStockLedgerService;
+        this.productStockSnapshotService = productStockSnapshotService;
+        this.userService = userService;
+    }
+
+    // 重建和快照会重写整个租户的数据, 只允许管理员调用
+    private <T> Response<T> denyUnlessAdmin() {
+        if (userService.isCurrentUserAdmin()) {
+            return null;
+        }
+        if ("zh_CN".equals(userService.getUserSystemLanguage(userService.getCurrentUserId()))) {
+            return Response.responseMsg(UserCodeEnum.USER_NOT_PERMISSION);
+        }
+        return Response.responseMsg(UserCodeEnum.USER_NOT_PERMISSION_EN);
     }
 
     @GetMapping("homePage/statistics")
@@ -40,6 +69,15 @@ public class ReportController {
         return receiptService.getStatisticalData();
     }
 
+    @PostMapping("homePage/statistics/rebuild")
+    public Response<String> rebuildStatisticalData() {
+        Response<String> denied = denyUnlessAdmin();
+        if (denied != null) {
+            return denied;
+        }
+        return receiptStatisticsService.rebuildStatistics();
+    }
+
     @PostMapping("productStock")
     public Response<IPage<ProductStockSkuVO>> getProductStock(@RequestBody QueryProductStockDTO queryProductStockDTO) {
         return receiptService.getProductStock(queryProductStockDTO);
@@ -50,6 +88,24 @@ public class ReportController {
         return receiptService.getStockFlow(stockFlowDTO);
     }
 
+    @PostMapping("productStock/rebuild")
+    public Response<Integer> rebuildProductStock(@RequestParam(value = "warehouseId", required = false) Long warehouseId) {
+        Response<Integer> denied = denyUnlessAdmin();
+        if (denied != null) {
+            return denied;
+        }
+        return Response.responseData(productStockLedgerService.rebuildStock(warehouseId));
+    }
+
+    @PostMapping("productStock/snapshot")
+    public Response<Integer> createProductStockSnapshot(@RequestParam("snapshotDate") String snapshotDate) {
+        Response<Integer> denied = denyUnlessAdmin();
+        if (denied != null) {
+            return denied;
+        }
+        return Response.responseData(productStockSnapshotService.createSnapshot(LocalDate.parse(snapshotDate)));
+    }
+
     @PostMapping("accountStatistics")
     public Response<Page<AccountStatisticsVO>> getAccountStatistics(@RequestBody QueryAccountStatisticsDTO accountStatisticsDTO) {
         return receiptService.getAccountStatistics(accountStatisticsDTO);
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.api.system;
+
+import com.wansenai.service.job.BackgroundJobService;
+import com.wansenai.utils.response.Response;
+import com.wansenai.vo.job.BackgroundJobMetricsVO;
+import com.wansenai.vo.job.BackgroundJobVO;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * <p>
+ * 后台任务 前端控制器, 导出接口加上 async=true 参数后提交为后台任务
+ * </p>
+ */
+@RestController
+@RequestMapping("/sys/job")
+public class BackgroundJobController {
+
+    private final BackgroundJobService backgroundJobService;
+
+    public BackgroundJobController(BackgroundJobService backgroundJobService) {
+        this.backgroundJobService = backgroundJobService;
+    }
+
+    @GetMapping("list")
+    public Response<List<BackgroundJobVO>> getJobList() {
+        return backgroundJobService.getJobList();
+    }
+
+    @GetMapping("metrics")
+    public Response<BackgroundJobMetricsVO> getJobMetrics() {
+        return backgroundJobService.getJobMetrics();
+    }
+
+    @GetMapping("{jobId}")
+    public Response<BackgroundJobVO> getJob(@PathVariable("jobId") String jobId) {
+        return backgroundJobService.getJob(jobId);
+    }
+
+    @GetMapping("{jobId}/download")
+    public void downloadJobResult(@PathVariable("jobId") String jobId, HttpServletResponse response) throws IOException {
+        backgroundJobService.downloadJobResult(jobId, response);
+    }
+
+    @PostMapping("{jobId}/cancel")
+    public Response<String> cancelJob(@PathVariable("jobId") String jobId) {
+        return backgroundJobService.cancelJob(jobId);
+    }
+}
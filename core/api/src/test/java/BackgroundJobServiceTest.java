@@ -0,0 +1,147 @@
+import com.wansenai.service.BaseService;
+import com.wansenai.service.job.BackgroundJob;
+import com.wansenai.service.job.SpoolHttpServletResponse;
+import com.wansenai.service.job.impl.BackgroundJobServiceImpl;
+import com.wansenai.utils.response.Response;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BackgroundJobServiceTest {
+
+    private final BaseService baseService = new BaseService(null, null, null) {
+        @Override
+        public Long getCurrentUserId() {
+            return 1L;
+        }
+
+        @Override
+        public String getCurrentUserSystemLanguage() {
+            return "zh_CN";
+        }
+    };
+
+    private Path spoolDir;
+
+    private BackgroundJobServiceImpl jobService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        spoolDir = Files.createTempDirectory("job-test-");
+        jobService = new BackgroundJobServiceImpl(baseService, 4, 2, 10, 60, spoolDir.toString());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        jobService.shutdown();
+        TenantContextHolder.clear();
+        try (var files = Files.list(spoolDir)) {
+            for (var file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(spoolDir);
+    }
+
+    private String await(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            var status = jobService.getJob(jobId).getData().getStatus();
+            if (BackgroundJob.Status.valueOf(status).isFinished()) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        Assertions.fail("job " + jobId + " did not finish");
+        return null;
+    }
+
+    @Test
+    public void testTenantConcurrencyLimit() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(3);
+        TenantContextHolder.setTenantId(1L);
+        var jobIds = new String[4];
+        for (int i = 0; i < 3; i++) {
+            jobIds[i] = jobService.submitJob("export", response -> {
+                started.countDown();
+                release.await();
+                return null;
+            }).getData().getJobId();
+        }
+        TenantContextHolder.setTenantId(2L);
+        jobIds[3] = jobService.submitJob("export", response -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).getData().getJobId();
+
+        // 租户1最多同时运行2个, 第3个排队, 不影响租户2
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        var metrics = jobService.getJobMetrics().getData();
+        Assertions.assertEquals(3, metrics.getRunningJobs());
+        Assertions.assertEquals(1, metrics.getQueuedJobs());
+
+        release.countDown();
+        Assertions.assertEquals("SUCCEEDED", await(jobIds[3]));
+        TenantContextHolder.setTenantId(1L);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("SUCCEEDED", await(jobIds[i]));
+        }
+        Assertions.assertEquals(4, jobService.getJobMetrics().getData().getSucceededJobs());
+        // 其他租户看不到该任务
+        TenantContextHolder.setTenantId(2L);
+        Assertions.assertNull(jobService.getJob(jobIds[0]).getData());
+    }
+
+    @Test
+    public void testResultIsSpooledAndDownloaded() throws Exception {
+        var content = "单据编号,金额\n".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        var jobId = jobService.submitJob("exportShipmentsDetailExcel", response -> {
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            response.addHeader("Content-Disposition", "attachment;filename=detail.xlsx");
+            response.getOutputStream().write(content);
+            return Response.responseMsg("00000", "ok");
+        }).getData().getJobId();
+        Assertions.assertEquals("SUCCEEDED", await(jobId));
+
+        var job = jobService.getJob(jobId).getData();
+        Assertions.assertEquals("detail.xlsx", job.getFileName());
+        Assertions.assertEquals(content.length, job.getFileSize());
+        Assertions.assertEquals("ok", job.getMessage());
+
+        var downloaded = spoolDir.resolve("download.tmp");
+        try (var response = new SpoolHttpServletResponse(downloaded)) {
+            jobService.downloadJobResult(jobId, response);
+            Assertions.assertEquals("attachment;filename=detail.xlsx", response.getHeader("Content-Disposition"));
+        }
+        Assertions.assertArrayEquals(content, Files.readAllBytes(downloaded));
+    }
+
+    @Test
+    public void testCancelRunningJob() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var jobId = jobService.submitJob("export", response -> {
+            var out = response.getOutputStream();
+            started.countDown();
+            // 一直写入, 直到任务被取消
+            while (true) {
+                out.write(new byte[1024]);
+            }
+        }).getData().getJobId();
+
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("J0002", jobService.cancelJob(jobId).getCode());
+        Assertions.assertEquals("CANCELLED", await(jobId));
+        Assertions.assertFalse(Files.exists(spoolDir.resolve(jobId + ".job")));
+        Assertions.assertEquals("J0501", jobService.cancelJob(jobId).getCode());
+    }
+}
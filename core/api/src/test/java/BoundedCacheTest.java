@@ -0,0 +1,63 @@
+import com.wansenai.service.common.BoundedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class BoundedCacheTest {
+
+    @Test
+    public void testLoadOnceAndInvalidate() {
+        var cache = new BoundedCache<Long, List<Integer>>(10, 100, 60_000, List::size);
+        var loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            cache.get(1L, key -> {
+                loads.incrementAndGet();
+                return List.of(1, 2, 3);
+            });
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(4, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+
+        // 修改单据后失效, 下次重新加载
+        cache.invalidateAfterCommit(List.of(1L));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.weight());
+        Assertions.assertEquals(List.of(4), cache.get(1L, key -> List.of(4)));
+    }
+
+    @Test
+    public void testExpiredEntryIsReloaded() throws InterruptedException {
+        var cache = new BoundedCache<Long, List<Integer>>(10, 100, 20, List::size);
+        cache.get(1L, key -> List.of(1));
+        Thread.sleep(50);
+        Assertions.assertEquals(List.of(2), cache.get(1L, key -> List.of(2)));
+        Assertions.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testBoundsHoldUnderSoak() {
+        var cache = new BoundedCache<Long, List<Integer>>(500, 2_000, 60_000, List::size);
+        var maxSize = 0;
+        var maxWeight = 0L;
+        for (long id = 0; id < 200_000; id++) {
+            var lines = (int) (id % 10) + 1;
+            cache.get(id, key -> new ArrayList<>(Collections.nCopies(lines, 0)));
+            // 反复读取最近的单据, 模拟列表分页
+            cache.get(id / 2, key -> List.of(0));
+            maxSize = Math.max(maxSize, cache.size());
+            maxWeight = Math.max(maxWeight, cache.weight());
+        }
+        Assertions.assertTrue(maxSize <= 500, "size " + maxSize);
+        Assertions.assertTrue(maxWeight <= 2_000, "weight " + maxWeight);
+        Assertions.assertTrue(cache.getEvictionCount() > 0);
+        log.info("{}", cache.stats());
+    }
+}
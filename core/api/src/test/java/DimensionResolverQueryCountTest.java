@@ -0,0 +1,241 @@
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.wansenai.dto.warehouse.QueryOtherStorageDTO;
+import com.wansenai.entities.basic.Supplier;
+import com.wansenai.entities.product.Product;
+import com.wansenai.entities.user.SysUser;
+import com.wansenai.entities.warehouse.Warehouse;
+import com.wansenai.entities.warehouse.WarehouseReceiptMain;
+import com.wansenai.entities.warehouse.WarehouseReceiptSub;
+import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.mappers.user.SysUserMapper;
+import com.wansenai.mappers.warehouse.WarehouseReceiptMainMapper;
+import com.wansenai.mappers.warehouse.WarehouseReceiptSubMapper;
+import com.wansenai.service.basic.SupplierService;
+import com.wansenai.service.common.CommonServiceImpl;
+import com.wansenai.service.product.ProductService;
+import com.wansenai.service.warehouse.WarehouseReceiptSubService;
+import com.wansenai.service.warehouse.WarehouseService;
+import com.wansenai.service.warehouse.impl.OtherStorageServiceImpl;
+import com.wansenai.utils.constants.CommonConstants;
+import com.wansenai.vo.product.ProductStockKeepUnitVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+/**
+ * 通过真实的 OtherStorageServiceImpl 和 CommonServiceImpl 统计查询语句数, 维度数据按页批量查询, 语句数与行数无关
+ */
+@Slf4j
+public class DimensionResolverQueryCountTest {
+
+    private final List<String> statements = new ArrayList<>();
+
+    private int rowCount;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        var assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, WarehouseReceiptMain.class);
+        TableInfoHelper.initTableInfo(assistant, WarehouseReceiptSub.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, handler);
+    }
+
+    // 维度表: getById/listByIds/selectBatchIds 按id返回数据, 其余方法不应被调用
+    private <T> T dimension(Class<T> type, String table, Function<Long, Object> rowFactory) {
+        return proxy(type, (proxy, method, args) -> {
+            statements.add(table + "." + method.getName());
+            return switch (method.getName()) {
+                case "getById" -> rowFactory.apply((Long) args[0]);
+                case "listByIds", "selectBatchIds", "selectByIds" -> ((Collection<?>) args[0]).stream()
+                        .map(id -> rowFactory.apply((Long) id))
+                        .toList();
+                default -> throw new UnsupportedOperationException(table + "." + method.getName());
+            };
+        });
+    }
+
+    private WarehouseReceiptMain main(long id) {
+        return WarehouseReceiptMain.builder()
+                .id(id)
+                .receiptNumber("QTRK" + id)
+                .productId(id)
+                .relatedPersonId(id)
+                .createBy(id)
+                .type("其他入库")
+                .deleteFlag(CommonConstants.NOT_DELETED)
+                .build();
+    }
+
+    private WarehouseReceiptMainMapper mainMapper() {
+        return proxy(WarehouseReceiptMainMapper.class, (proxy, method, args) -> {
+            statements.add("warehouse_receipt_main." + method.getName());
+            switch (method.getName()) {
+                case "selectPage" -> {
+                    @SuppressWarnings("unchecked")
+                    var page = (IPage<WarehouseReceiptMain>) args[0];
+                    page.setRecords(LongStream.rangeClosed(1, rowCount).mapToObj(this::main).toList());
+                    page.setTotal(rowCount);
+                    return page;
+                }
+                case "selectOne" -> {
+                    return main(1L);
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private WarehouseReceiptSubService subService() {
+        var subMapper = proxy(WarehouseReceiptSubMapper.class, (proxy, method, args) -> {
+            statements.add("warehouse_receipt_sub." + method.getName());
+            if (!method.getName().equals("selectList")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return LongStream.rangeClosed(1, rowCount)
+                    .mapToObj(id -> WarehouseReceiptSub.builder()
+                            .id(id)
+                            .warehouseReceiptMainId(1L)
+                            .productId(id)
+                            .productBarcode("690" + id)
+                            .warehouseId(id % 3 + 1)
+                            .productNumber(1)
+                            .deleteFlag(CommonConstants.NOT_DELETED)
+                            .build())
+                    .toList();
+        });
+        return proxy(WarehouseReceiptSubService.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getBaseMapper" -> subMapper;
+            case "getEntityClass" -> WarehouseReceiptSub.class;
+            default -> {
+                if (!method.isDefault()) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                yield InvocationHandler.invokeDefault(proxy, method, args);
+            }
+        });
+    }
+
+    private ProductStockMapper productStockMapper() {
+        return proxy(ProductStockMapper.class, (proxy, method, args) -> {
+            statements.add("product_stock." + method.getName());
+            if (!method.getName().equals("getProductSkuByBarCodes")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            @SuppressWarnings("unchecked")
+            var barCodes = (Collection<String>) args[0];
+            @SuppressWarnings("unchecked")
+            var warehouseIds = (Collection<Long>) args[1];
+            var stocks = new ArrayList<ProductStockKeepUnitVO>();
+            for (String barCode : barCodes) {
+                for (Long warehouseId : warehouseIds) {
+                    var stock = new ProductStockKeepUnitVO();
+                    stock.setBarCode(barCode);
+                    stock.setWarehouseId(warehouseId);
+                    stock.setProductName("商品" + barCode.substring(3));
+                    stock.setStock(warehouseId.intValue());
+                    stocks.add(stock);
+                }
+            }
+            return stocks;
+        });
+    }
+
+    private OtherStorageServiceImpl otherStorageService() throws ReflectiveOperationException {
+        var commonService = new CommonServiceImpl(null, null,
+                dimension(SupplierService.class, "supplier", id -> Supplier.builder().id(id).supplierName("供应商" + id).build()),
+                null, null, null, null,
+                dimension(ProductService.class, "product", id -> Product.builder().id(id).productName("商品" + id).build()),
+                null, null, null,
+                dimension(WarehouseService.class, "warehouse", id -> Warehouse.builder().id(id).warehouseName("仓库" + id).build()),
+                null, null, null,
+                dimension(SysUserMapper.class, "sys_user", id -> SysUser.builder().id(id).name("用户" + id).build()),
+                null, null, null, null, null, null, null,
+                productStockMapper());
+        var service = new OtherStorageServiceImpl(subService(), null, commonService, null, null, null, null);
+        setBaseMapper(service, mainMapper());
+        return service;
+    }
+
+    private static void setBaseMapper(Object service, Object mapper) throws ReflectiveOperationException {
+        for (Class<?> type = service.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                var field = type.getDeclaredField("baseMapper");
+                field.setAccessible(true);
+                field.set(service, mapper);
+                return;
+            } catch (NoSuchFieldException ignored) {
+                // 字段在父类中
+            }
+        }
+        throw new NoSuchFieldException("baseMapper");
+    }
+
+    private List<String> queryPage(int rows) throws ReflectiveOperationException {
+        rowCount = rows;
+        statements.clear();
+        var query = new QueryOtherStorageDTO();
+        query.setPage(1L);
+        query.setPageSize((long) rows);
+
+        var page = otherStorageService().getOtherStoragePageList(query).getData();
+        Assertions.assertEquals(rows, page.getRecords().size());
+        var last = page.getRecords().get(rows - 1);
+        Assertions.assertEquals("供应商" + rows, last.getSupplierName());
+        Assertions.assertEquals("用户" + rows, last.getOperator());
+        Assertions.assertTrue(last.getProductInfo().startsWith("商品" + rows + "|"));
+        return List.copyOf(statements);
+    }
+
+    private List<String> queryDetail(int rows) throws ReflectiveOperationException {
+        rowCount = rows;
+        statements.clear();
+        var detail = otherStorageService().getOtherStorageDetail(1L).getData();
+        Assertions.assertEquals("供应商1", detail.getSupplierName());
+        Assertions.assertEquals(rows, detail.getTableData().size());
+        var last = detail.getTableData().get(rows - 1);
+        Assertions.assertEquals("商品" + rows, last.getProductName());
+        Assertions.assertEquals("仓库" + (rows % 3 + 1), last.getWarehouseName());
+        Assertions.assertEquals(rows % 3 + 1, last.getStock());
+        return List.copyOf(statements);
+    }
+
+    @Test
+    public void testPageStatementsDoNotGrowWithRows() throws ReflectiveOperationException {
+        var small = queryPage(10);
+        var large = queryPage(500);
+        log.info("other storage page statements, 10 rows: {}, 500 rows: {}", small, large);
+
+        // 分页查询 + 商品/用户/供应商各一次批量查询
+        Assertions.assertEquals(List.of("warehouse_receipt_main.selectPage", "product.listByIds",
+                "sys_user.selectBatchIds", "supplier.listByIds"), small);
+        Assertions.assertEquals(small, large);
+    }
+
+    @Test
+    public void testDetailStatementsDoNotGrowWithRows() throws ReflectiveOperationException {
+        var small = queryDetail(10);
+        var large = queryDetail(500);
+        log.info("other storage detail statements, 10 rows: {}, 500 rows: {}", small, large);
+
+        // 明细行的库存和仓库名称各一次批量查询, 不再逐行 getProductSkuByBarCode
+        Assertions.assertEquals(List.of("warehouse_receipt_main.selectOne", "supplier.getById",
+                "warehouse_receipt_sub.selectList", "product_stock.getProductSkuByBarCodes", "warehouse.listByIds"), small);
+        Assertions.assertEquals(small, large);
+    }
+}
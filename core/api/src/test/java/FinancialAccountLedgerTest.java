@@ -0,0 +1,136 @@
+import com.wansenai.bo.financial.AccountChangeBO;
+import com.wansenai.entities.financial.FinancialAccount;
+import com.wansenai.entities.financial.FinancialAccountJournal;
+import com.wansenai.mappers.financial.FinancialAccountJournalMapper;
+import com.wansenai.mappers.financial.FinancialAccountMapper;
+import com.wansenai.service.financial.impl.FinancialAccountLedgerServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class FinancialAccountLedgerTest {
+
+    private static final Long CASH_ACCOUNT = 1L;
+
+    private static final Long BANK_ACCOUNT = 2L;
+
+    // 模拟 financial_account 的 current_amount, 用 synchronized 代替数据库行锁, 并发正确性由这里保证而不是被测代码
+    private final Map<Long, BigDecimal> balances = new ConcurrentHashMap<>(Map.of(CASH_ACCOUNT, BigDecimal.ZERO, BANK_ACCOUNT, BigDecimal.ZERO));
+
+    private final ConcurrentLinkedQueue<FinancialAccountJournal> journal = new ConcurrentLinkedQueue<>();
+
+    private FinancialAccountLedgerServiceImpl createLedger() {
+        var accountMapper = (FinancialAccountMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{FinancialAccountMapper.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "selectList" -> {
+                    return balances.keySet().stream()
+                            .map(id -> new FinancialAccount().setId(id).setTenantId(0L))
+                            .toList();
+                }
+                case "increaseCurrentAmount" -> {
+                    @SuppressWarnings("unchecked")
+                    var changes = (List<AccountChangeBO>) args[0];
+                    synchronized (this) {
+                        changes.forEach(change -> balances.merge(change.getAccountId(), change.getAmount(), BigDecimal::add));
+                        return changes.size();
+                    }
+                }
+                case "rebuildCurrentAmount" -> {
+                    var accountId = (Long) args[0];
+                    balances.put(accountId, journal.stream()
+                            .filter(row -> row.getAccountId().equals(accountId))
+                            .map(FinancialAccountJournal::getChangeAmount)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add));
+                    return 1;
+                }
+                case "selectById" -> {
+                    return new FinancialAccount().setId((Long) args[0]).setCurrentAmount(balances.get((Long) args[0]));
+                }
+                case "toString" -> {
+                    return "FinancialAccountMapper";
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        var journalMapper = (FinancialAccountJournalMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{FinancialAccountJournalMapper.class}, (proxy, method, args) -> {
+            if ("insertBatch".equals(method.getName())) {
+                @SuppressWarnings("unchecked")
+                var rows = (List<FinancialAccountJournal>) args[0];
+                journal.addAll(rows);
+                return rows.size();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        return new FinancialAccountLedgerServiceImpl(accountMapper, journalMapper);
+    }
+
+    private AccountChangeBO change(Long accountId, String amount) {
+        return AccountChangeBO.builder()
+                .accountId(accountId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    /**
+     * 只校验并发调用时服务的合并和记账流水, 不能证明 current_amount 的相对更新不丢失,
+     * 那部分依赖数据库行锁, 需要连接真实数据库验证
+     */
+    @Test
+    public void testConcurrentPostingsOnOneAccount() throws InterruptedException {
+        var ledger = createLedger();
+        ledger.recordOpeningBalance(CASH_ACCOUNT, new BigDecimal("1000.00"));
+        balances.put(CASH_ACCOUNT, new BigDecimal("1000.00"));
+
+        var threads = 16;
+        var receiptsPerThread = 500;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            var till = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < receiptsPerThread; i++) {
+                    if (till % 4 == 0) {
+                        // 转账单: 现金转入银行, 一次批量记账
+                        ledger.applyAccountChanges(List.of(change(CASH_ACCOUNT, "-1.50"), change(BANK_ACCOUNT, "1.50")));
+                    } else {
+                        // 零售收款, 同一账户两行合并为一次更新
+                        ledger.applyAccountChanges(List.of(change(CASH_ACCOUNT, "2.25"), change(CASH_ACCOUNT, "0.75")));
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // 4个线程转账 500 * 1.50, 12个线程收款 500 * 3.00
+        var expectedCash = new BigDecimal("1000.00").add(new BigDecimal("18000.00")).subtract(new BigDecimal("3000.00"));
+        Assertions.assertEquals(0, expectedCash.compareTo(balances.get(CASH_ACCOUNT)));
+        Assertions.assertEquals(0, new BigDecimal("3000.00").compareTo(balances.get(BANK_ACCOUNT)));
+        Assertions.assertEquals(1 + 4 * 500 * 2 + 12 * 500, journal.size());
+
+        // 回放流水得到相同的余额
+        Assertions.assertEquals(0, expectedCash.compareTo(ledger.rebuildBalance(CASH_ACCOUNT)));
+        Assertions.assertEquals(0, new BigDecimal("3000.00").compareTo(ledger.rebuildBalance(BANK_ACCOUNT)));
+    }
+
+    @Test
+    public void testZeroAndUnknownChangesAreSkipped() {
+        var ledger = createLedger();
+        ledger.applyAccountChanges(List.of(change(CASH_ACCOUNT, "5.00"), change(CASH_ACCOUNT, "-5.00"), change(99L, "10.00")));
+        ledger.applyAccountChange(CASH_ACCOUNT, null, 1L);
+        Assertions.assertTrue(journal.isEmpty());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(balances.get(CASH_ACCOUNT)));
+    }
+}
@@ -0,0 +1,108 @@
+import com.wansenai.middleware.security.JWTInterceptor;
+import com.wansenai.middleware.security.JWTUtil;
+import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.redis.TokenSessionCache;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JWTClaimsCacheTest {
+
+    private final Map<String, Object> store = new ConcurrentHashMap<>();
+
+    private final RedisUtil redisUtil = new RedisUtil() {
+        @Override
+        public List<Object> multiGet(Collection<String> keys) {
+            return keys.stream().map(store::get).toList();
+        }
+
+        @Override
+        public void convertAndSend(String channel, Object message) {
+        }
+    };
+
+    @AfterEach
+    public void clear() {
+        TenantContextHolder.clear();
+    }
+
+    private void login(String userName, String token) {
+        store.put(userName + ":token", token);
+        store.put(token + ":userName", userName);
+        store.put(token + ":userId", "1");
+        store.put(token + ":tenantId", "10");
+    }
+
+    private boolean preHandle(JWTInterceptor interceptor, String token) throws Exception {
+        var request = new MockHttpServletRequest();
+        request.addHeader("Authorization", token);
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    @Test
+    public void testTokenIsVerifiedOnce() {
+        var jwtUtil = new JWTUtil();
+        var token = jwtUtil.createToken("admin");
+
+        var claims = jwtUtil.checkToken(token);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertSame(claims, jwtUtil.checkToken(token));
+        }
+        Assertions.assertEquals("admin", jwtUtil.getUsernameFromToken(token));
+        Assertions.assertEquals(1, jwtUtil.cachedTokenCount());
+
+        // 篡改签名的token哈希不同, 不会命中缓存
+        Assertions.assertNull(jwtUtil.checkToken(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    public void testExpiredTokenIsNotServed() throws InterruptedException {
+        var jwtUtil = new JWTUtil();
+        var token = jwtUtil.createToken("admin", 1);
+        var claims = jwtUtil.checkToken(token);
+        Assertions.assertNotNull(claims);
+
+        Thread.sleep(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()) + 50);
+        Assertions.assertNull(jwtUtil.checkToken(token));
+        Assertions.assertNull(jwtUtil.getUsernameFromToken(token));
+        Assertions.assertEquals(0, jwtUtil.cachedTokenCount());
+    }
+
+    @Test
+    public void testRevokedTokenIsNotServed() throws Exception {
+        var jwtUtil = new JWTUtil();
+        var tokenSessionCache = new TokenSessionCache(redisUtil);
+        var interceptor = new JWTInterceptor(tokenSessionCache, jwtUtil);
+        var token = jwtUtil.createToken("rose");
+        login("rose", token);
+
+        Assertions.assertTrue(preHandle(interceptor, token));
+        Assertions.assertEquals(1, jwtUtil.cachedTokenCount());
+
+        // 退出登录: 删除redis会话并通知失效
+        store.remove("rose:token");
+        tokenSessionCache.invalidate(token);
+        Assertions.assertFalse(preHandle(interceptor, token));
+        Assertions.assertEquals(0, jwtUtil.cachedTokenCount());
+
+        // 重新登录后旧token被挤下线
+        var newToken = jwtUtil.createToken("rose", 3600);
+        login("rose", newToken);
+        tokenSessionCache.invalidate("rose");
+        Assertions.assertTrue(preHandle(interceptor, newToken));
+        Assertions.assertFalse(preHandle(interceptor, token));
+        Assertions.assertEquals(1, jwtUtil.cachedTokenCount());
+
+        var claims = jwtUtil.checkToken(newToken);
+        jwtUtil.evict(newToken);
+        Assertions.assertNotSame(claims, jwtUtil.checkToken(newToken));
+    }
+}
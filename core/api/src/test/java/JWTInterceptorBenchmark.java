@@ -0,0 +1,105 @@
+import com.wansenai.middleware.security.JWTInterceptor;
+import com.wansenai.middleware.security.JWTUtil;
+import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.redis.TokenSessionCache;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of JWTInterceptor.preHandle with the verified-claims cache against verifying the signature on every request, at 1/8/32 threads.
+ * <pre>
+ * mvn -pl core/api test -Dtest=JWTInterceptorBenchmark -Deairp.benchmark=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTInterceptorBenchmark {
+
+    private final Map<String, Object> store = new ConcurrentHashMap<>();
+
+    private final JWTUtil jwtUtil = new JWTUtil();
+
+    private JWTInterceptor interceptor;
+
+    private MockHttpServletRequest request;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        var redisUtil = new RedisUtil() {
+            @Override
+            public List<Object> multiGet(Collection<String> keys) {
+                return keys.stream().map(store::get).toList();
+            }
+
+            @Override
+            public void convertAndSend(String channel, Object message) {
+            }
+        };
+        interceptor = new JWTInterceptor(new TokenSessionCache(redisUtil), jwtUtil);
+        token = jwtUtil.createToken("admin");
+        store.put("admin:token", token);
+        store.put(token + ":userName", "admin");
+        store.put(token + ":userId", "1");
+        store.put(token + ":tenantId", "0");
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", token);
+    }
+
+    @Benchmark
+    public boolean cachedPreHandle() throws Exception {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    @Benchmark
+    public Claims cachedCheckToken() {
+        return jwtUtil.checkToken(token);
+    }
+
+    /**
+     * 旧实现: 每个请求都重新验签
+     */
+    @Benchmark
+    public Claims verifyEveryRequest() {
+        jwtUtil.evict(token);
+        return jwtUtil.checkToken(token);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "eairp.benchmark", matches = "true")
+    public void runBenchmark() throws RunnerException {
+        for (int threads : new int[]{1, 8, 32}) {
+            new Runner(new OptionsBuilder()
+                    .include(JWTInterceptorBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
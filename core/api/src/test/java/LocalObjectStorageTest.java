@@ -0,0 +1,72 @@
+import com.wansenai.middleware.oss.LocalObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Slf4j
+public class LocalObjectStorageTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void testUploadAndUrl() throws Exception {
+        var storage = new LocalObjectStorage(root, "/erp-api/files/");
+        var content = "商品图片".getBytes(StandardCharsets.UTF_8);
+        var url = storage.upload("temp_1_商品 图片.png", new ByteArrayInputStream(content), content.length, "image/png");
+
+        Assertions.assertEquals("/erp-api/files/temp_1_%E5%95%86%E5%93%81%20%E5%9B%BE%E7%89%87.png", url);
+        Assertions.assertArrayEquals(content, Files.readAllBytes(root.resolve("temp_1_商品 图片.png")));
+        // 不留下临时文件
+        try (var files = Files.list(root)) {
+            Assertions.assertEquals(1, files.count());
+        }
+        Assertions.assertTrue(storage.delete("temp_1_商品 图片.png"));
+        Assertions.assertFalse(storage.delete("temp_1_商品 图片.png"));
+    }
+
+    @Test
+    public void testKeyCannotLeaveRoot() {
+        var storage = new LocalObjectStorage(root.resolve("files"), "/files");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> storage.upload("../secret.txt", new ByteArrayInputStream(new byte[1]), 1, null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> storage.upload("a/../../secret.txt", new ByteArrayInputStream(new byte[1]), 1, null));
+        Assertions.assertFalse(Files.exists(root.resolve("secret.txt")));
+    }
+
+    @Test
+    public void testConcurrentUploads() throws Exception {
+        var storage = new LocalObjectStorage(root, "/files");
+        var content = new byte[256 * 1024];
+        var start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var uploads = new ArrayList<Future<String>>();
+            for (int i = 0; i < 200; i++) {
+                var key = "bench/" + i + ".bin";
+                uploads.add(executor.submit(() -> storage.upload(key, new ByteArrayInputStream(content), content.length, null)));
+            }
+            for (Future<String> upload : uploads) {
+                Assertions.assertTrue(upload.get().startsWith("/files/bench/"));
+            }
+        }
+        var millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("200 uploads of 256KB in {} ms", millis);
+        try (var files = Files.list(root.resolve("bench"))) {
+            var sizes = files.mapToLong(file -> file.toFile().length()).toArray();
+            Assertions.assertEquals(200, sizes.length);
+            // 每个文件都完整写入
+            Assertions.assertTrue(Arrays.stream(sizes).allMatch(size -> size == content.length));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.wansenai.entities.product.ProductStockKeepUnit;
+import com.wansenai.entities.system.SysSequence;
+import com.wansenai.mappers.product.ProductStockKeepUnitMapper;
+import com.wansenai.mappers.system.SysSequenceMapper;
+import com.wansenai.service.product.impl.ProductStockKeepUnitServiceImpl;
+import com.wansenai.service.system.impl.SysSequenceServiceImpl;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * 条码序列与序列外录入的条码冲突时, 序列推进到当前最大条码之后再发号
+ */
+public class ProductCodeSequenceTest {
+
+    // sys_sequence 表, 按序列名称
+    private final Map<String, Long> sequences = new HashMap<>();
+
+    // product_sku 表中的条码
+    private final Set<String> barCodes = new HashSet<>();
+
+    @BeforeAll
+    public static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ProductStockKeepUnit.class);
+    }
+
+    @BeforeEach
+    public void bindTenant() {
+        TenantContextHolder.setTenantId(0L);
+    }
+
+    @AfterEach
+    public void clearTenant() {
+        TenantContextHolder.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, handler);
+    }
+
+    private ProductStockKeepUnitServiceImpl skuService() throws ReflectiveOperationException {
+        var sequenceMapper = proxy(SysSequenceMapper.class, (proxy, method, args) -> switch (method.getName()) {
+            case "insertIgnore" -> {
+                var sequence = (SysSequence) args[0];
+                yield sequences.putIfAbsent(sequence.getSequenceName(), sequence.getCurrentValue()) == null ? 1 : 0;
+            }
+            case "increaseCurrentValue" -> sequences.computeIfPresent((String) args[1], (name, value) -> value + (Long) args[2]) == null ? 0 : 1;
+            case "raiseCurrentValue" -> sequences.computeIfPresent((String) args[1], (name, value) -> Math.max(value, (Long) args[2])) == null ? 0 : 1;
+            case "getCurrentValue" -> sequences.get((String) args[1]);
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        var transactionManager = proxy(PlatformTransactionManager.class, (proxy, method, args) ->
+                method.getName().equals("getTransaction") ? new SimpleTransactionStatus() : null);
+        var skuMapper = proxy(ProductStockKeepUnitMapper.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getMaxNumericBarCode" -> barCodes.stream().mapToLong(Long::parseLong).boxed().max(Long::compare).orElse(null);
+            case "exists" -> ((AbstractWrapper<?, ?, ?>) args[0]).getParamNameValuePairs().values().stream()
+                    .anyMatch(barCodes::contains);
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        var service = new ProductStockKeepUnitServiceImpl(skuMapper, new SysSequenceServiceImpl(sequenceMapper, transactionManager, 50));
+        for (Class<?> type = service.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                var field = type.getDeclaredField("baseMapper");
+                field.setAccessible(true);
+                field.set(service, skuMapper);
+                return service;
+            } catch (NoSuchFieldException ignored) {
+                // 字段在父类中
+            }
+        }
+        throw new NoSuchFieldException("baseMapper");
+    }
+
+    @Test
+    public void testSkipsBarCodesEnteredOutsideSequence() throws ReflectiveOperationException {
+        var service = skuService();
+        Assertions.assertEquals("1000", service.getProductCode().getData());
+        barCodes.add("1000");
+
+        // 手工录入 1001-1080, 已超出本节点当前号段
+        IntStream.rangeClosed(1001, 1080).mapToObj(String::valueOf).forEach(barCodes::add);
+        Assertions.assertEquals("1081", service.getProductCode().getData());
+        Assertions.assertEquals("1082", service.getProductCode().getData());
+        Assertions.assertEquals(1080L + 50, sequences.get("product_bar_code"));
+    }
+
+    @Test
+    public void testOtherNodeAdvancesAfterConflict() throws ReflectiveOperationException {
+        var node1 = skuService();
+        var node2 = skuService();
+        Assertions.assertEquals("1000", node1.getProductCode().getData());
+        Assertions.assertEquals("1050", node2.getProductCode().getData());
+
+        // 导入的条码占用了两个节点号段中的值, 推进时不回退另一个节点已预留的号段
+        IntStream.rangeClosed(1001, 1049).mapToObj(String::valueOf).forEach(barCodes::add);
+        barCodes.add("1051");
+        Assertions.assertEquals("1100", node1.getProductCode().getData());
+        Assertions.assertEquals("1150", node2.getProductCode().getData());
+        Assertions.assertEquals(1199L, sequences.get("product_bar_code"));
+    }
+}
@@ -0,0 +1,76 @@
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.wansenai.bo.product.ProductSummaryBO;
+import com.wansenai.dto.product.QueryProductDTO;
+import com.wansenai.entities.product.Product;
+import com.wansenai.mappers.product.ProductMapper;
+import com.wansenai.service.product.impl.ProductServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+public class ProductListQueryCountTest {
+
+    private final List<String> statements = new ArrayList<>();
+
+    private ProductMapper productMapper(int productCount) {
+        return (ProductMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ProductMapper.class}, (proxy, method, args) -> {
+            statements.add(method.getName());
+            switch (method.getName()) {
+                case "selectPage" -> {
+                    @SuppressWarnings("unchecked")
+                    var page = (IPage<Product>) args[0];
+                    page.setRecords(LongStream.rangeClosed(1, productCount)
+                            .mapToObj(id -> Product.builder().id(id).productName("商品" + id).productCategoryId(1L).build())
+                            .toList());
+                    page.setTotal(productCount);
+                    return page;
+                }
+                case "getProductSummaries" -> {
+                    @SuppressWarnings("unchecked")
+                    var productIds = (Collection<Long>) args[0];
+                    return productIds.stream()
+                            .map(id -> ProductSummaryBO.builder()
+                                    .productId(id)
+                                    .productCategoryName("饮料")
+                                    .productSkuId(id + 1000)
+                                    .productBarcode("690" + id)
+                                    .retailPrice(BigDecimal.TEN)
+                                    .productStock(BigDecimal.valueOf(id))
+                                    .build())
+                            .toList();
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private void queryPage(int pageSize) {
+        statements.clear();
+        var productService = new ProductServiceImpl(productMapper(pageSize), null, null, null, null, null, null, null, null);
+        var query = new QueryProductDTO();
+        query.setPage(1L);
+        query.setPageSize((long) pageSize);
+
+        var page = productService.getProductInfo(query).getData();
+        Assertions.assertEquals(pageSize, page.getRecords().size());
+        var last = page.getRecords().get(pageSize - 1);
+        Assertions.assertEquals("饮料", last.getProductCategoryName());
+        Assertions.assertEquals("690" + pageSize, last.getProductBarcode());
+        Assertions.assertEquals(BigDecimal.valueOf(pageSize), last.getProductStock());
+    }
+
+    @Test
+    public void testStatementCountDoesNotGrowWithPageSize() {
+        // 分页查询 + 一次汇总查询, 与每页条数无关
+        queryPage(10);
+        Assertions.assertEquals(List.of("selectPage", "getProductSummaries"), statements);
+        queryPage(500);
+        Assertions.assertEquals(List.of("selectPage", "getProductSummaries"), statements);
+    }
+}
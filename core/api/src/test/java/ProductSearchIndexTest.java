@@ -0,0 +1,95 @@
+import com.wansenai.service.product.ProductSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex createIndex() {
+        var index = new ProductSearchIndex();
+        index.put(1L, Arrays.asList("可口可乐", "330ml", "罐装", "红色"), Map.of(11L, "6901234567890", 12L, "6901234567906"));
+        index.put(2L, Arrays.asList("百事可乐", "500ml", null, "蓝色"), Map.of(21L, "6909876543210"));
+        index.put(3L, Arrays.asList("Apple iPhone", "128G", "A2890", "Black"), Map.of(31L, "0194253401234"));
+        return index;
+    }
+
+    @Test
+    public void testMatchesLikeSubstring() {
+        var index = createIndex();
+        Assertions.assertEquals(Set.of(1L, 2L), index.search("可乐", 100).getProductIds());
+        Assertions.assertEquals(Set.of(1L), index.search("口", 100).getProductIds());
+        Assertions.assertEquals(Set.of(2L), index.search("蓝色", 100).getProductIds());
+        // 不区分大小写, 和 LIKE 一样匹配子串
+        Assertions.assertEquals(Set.of(3L), index.search("IPHONE", 100).getProductIds());
+        Assertions.assertEquals(Set.of(3L), index.search("a28", 100).getProductIds());
+        Assertions.assertEquals(Set.of(1L, 2L), index.search("ml", 100).getProductIds());
+        // 二元片段都命中但不是连续子串
+        Assertions.assertTrue(index.search("可乐可口", 100).isEmpty());
+        // 不会跨字段命中
+        Assertions.assertTrue(index.search("330ml罐装", 100).isEmpty());
+    }
+
+    @Test
+    public void testBarcodePrefix() {
+        var index = createIndex();
+        var result = index.search("690123", 100);
+        Assertions.assertEquals(Set.of(11L, 12L), result.getSkuIds());
+        Assertions.assertEquals(Set.of(1L), result.getAllProductIds());
+        Assertions.assertTrue(result.getProductIds().isEmpty());
+        // 条码只按前缀匹配
+        Assertions.assertTrue(index.search("4567890", 100).isEmpty());
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        var index = createIndex();
+        index.put(2L, List.of("百事可乐无糖", "330ml"), Map.of(22L, "6900000000001"));
+        Assertions.assertEquals(Set.of(2L), index.search("无糖", 100).getProductIds());
+        Assertions.assertTrue(index.search("蓝色", 100).isEmpty());
+        Assertions.assertTrue(index.search("6909876", 100).isEmpty());
+        Assertions.assertEquals(Set.of(22L), index.search("69000", 100).getSkuIds());
+
+        index.remove(1L);
+        Assertions.assertEquals(Set.of(2L), index.search("可乐", 100).getProductIds());
+        Assertions.assertTrue(index.search("6901234", 100).isEmpty());
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testLimitAndCompaction() {
+        var index = new ProductSearchIndex();
+        for (long id = 0; id < 20_000; id++) {
+            index.put(id, List.of("商品" + id, "规格" + (id % 10)), Map.of(id + 100_000, String.valueOf(6_900_000_000_000L + id)));
+        }
+        Assertions.assertTrue(index.search("商品", 2000).isTruncated());
+        Assertions.assertFalse(index.search("商品1999", 2000).isTruncated());
+
+        // 反复修改同一批商品, 删除的文档被压缩回收
+        for (int round = 0; round < 5; round++) {
+            for (long id = 0; id < 20_000; id += 2) {
+                index.put(id, List.of("新品" + id + "-" + round), Map.of());
+            }
+        }
+        Assertions.assertEquals(20_000, index.size());
+        Assertions.assertEquals(Set.of(10L), index.search("新品10-4", 100).getProductIds());
+        Assertions.assertEquals(Set.of(19999L), index.search("商品19999", 100).getProductIds());
+        Assertions.assertTrue(index.search("商品19998", 100).isEmpty());
+
+        var hits = 0;
+        var start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            hits += index.search("商品1234" + (i % 10), 2000).size();
+        }
+        var nanosPerSearch = (System.nanoTime() - start) / 1000;
+        log.info("search {} ns/op, {} hits", nanosPerSearch, hits);
+        // 商品1234x 只剩奇数id: 12341, 12343, 12345, 12347, 12349
+        Assertions.assertEquals(500, hits);
+        Assertions.assertTrue(nanosPerSearch > 0);
+    }
+}
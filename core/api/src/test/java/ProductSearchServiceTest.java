@@ -0,0 +1,150 @@
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.wansenai.entities.product.Product;
+import com.wansenai.entities.product.ProductStockKeepUnit;
+import com.wansenai.mappers.product.ProductMapper;
+import com.wansenai.mappers.product.ProductStockKeepUnitMapper;
+import com.wansenai.service.common.AfterCommitExecutor;
+import com.wansenai.service.product.impl.ProductSearchServiceImpl;
+import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一个实例修改商品后, 其他实例收到通知按商品id重新加载索引
+ */
+public class ProductSearchServiceTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    // product 表
+    private final Map<Long, String> productNames = new HashMap<>(Map.of(1L, "可口可乐", 2L, "百事可乐"));
+
+    private final List<Object> published = new ArrayList<>();
+
+    private final List<String> statements = new ArrayList<>();
+
+    private final RedisUtil redisUtil = new RedisUtil() {
+        @Override
+        public void convertAndSend(String channel, Object message) {
+            published.add(message);
+        }
+
+        @Override
+        public Object deserializeValue(byte[] body) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    };
+
+    // 提交后的任务直接在当前线程执行
+    private final AfterCommitExecutor afterCommitExecutor = new AfterCommitExecutor(1, 10) {
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    };
+
+    @BeforeAll
+    public static void initTableInfo() {
+        var assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Product.class);
+        TableInfoHelper.initTableInfo(assistant, ProductStockKeepUnit.class);
+    }
+
+    @BeforeEach
+    public void bindTenant() {
+        TenantContextHolder.setTenantId(TENANT_ID);
+    }
+
+    @AfterEach
+    public void clearTenant() {
+        TenantContextHolder.clear();
+        afterCommitExecutor.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, handler);
+    }
+
+    private ProductSearchServiceImpl searchService() {
+        var productMapper = proxy(ProductMapper.class, (proxy, method, args) -> {
+            statements.add("product." + method.getName());
+            // 按id查询时条件中有Long类型的参数, 全量加载时只有删除标记
+            var ids = ((AbstractWrapper<?, ?, ?>) args[0]).getParamNameValuePairs().values().stream()
+                    .filter(Long.class::isInstance)
+                    .toList();
+            return productNames.entrySet().stream()
+                    .filter(entry -> ids.isEmpty() || ids.contains(entry.getKey()))
+                    .map(entry -> Product.builder().id(entry.getKey()).productName(entry.getValue()).build())
+                    .toList();
+        });
+        var skuMapper = proxy(ProductStockKeepUnitMapper.class, (proxy, method, args) -> List.of());
+        var service = new ProductSearchServiceImpl(productMapper, skuMapper, afterCommitExecutor, true, 2000,
+                redisUtil, new RedisMessageListenerContainer());
+        service.rebuildIndex(TENANT_ID);
+        return service;
+    }
+
+    private void receive(ProductSearchServiceImpl service, Object message) {
+        service.onMessage(new DefaultMessage(ProductSearchServiceImpl.INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                message.toString().getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    public void testRefreshPublishesProductIds() {
+        var node1 = searchService();
+        var node2 = searchService();
+        Assertions.assertEquals(Set.of(1L, 2L), node2.search("可乐").getProductIds());
+
+        // 节点1修改商品, 提交后重新加载并通知其他实例
+        productNames.put(1L, "雪碧");
+        productNames.remove(2L);
+        statements.clear();
+        node1.refreshProducts(List.of(1L, 2L));
+        Assertions.assertEquals(1, published.size());
+        Assertions.assertEquals(Set.of(1L), node1.search("雪碧").getProductIds());
+        Assertions.assertTrue(node1.search("可乐").isEmpty());
+        Assertions.assertTrue(node2.search("雪碧").isEmpty());
+
+        // 本实例发出的通知不再重复加载
+        receive(node1, published.getFirst());
+        Assertions.assertEquals(List.of("product.selectList"), statements);
+
+        receive(node2, published.getFirst());
+        Assertions.assertEquals(List.of("product.selectList", "product.selectList"), statements);
+        Assertions.assertEquals(Set.of(1L), node2.search("雪碧").getProductIds());
+        Assertions.assertTrue(node2.search("可乐").isEmpty());
+    }
+
+    @Test
+    public void testIgnoresInvalidMessage() {
+        var service = searchService();
+        statements.clear();
+
+        receive(service, "other:" + TENANT_ID);
+        receive(service, "other:x:1");
+        receive(service, "other:" + TENANT_ID + ":x");
+        // 没有加载过索引的租户, 首次检索时全量加载
+        receive(service, "other:2:1");
+        Assertions.assertTrue(statements.isEmpty());
+        Assertions.assertTrue(published.isEmpty());
+    }
+}
@@ -0,0 +1,269 @@
+import com.wansenai.bo.product.StockChangeBO;
+import com.wansenai.entities.product.ProductStockMovement;
+import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.mappers.product.ProductStockMovementMapper;
+import com.wansenai.service.product.InsufficientStockException;
+import com.wansenai.service.product.impl.ProductStockLedgerServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ProductStockLedgerTest {
+
+    private static final String BAR_CODE = "6901234567892";
+
+    private static final Long WAREHOUSE_ID = 1L;
+
+    private static final Long STOCK_ID = 100L;
+
+    private static final Long RECEIPT_ID = 7L;
+
+    private static final LocalDateTime RECEIPT_DATE = LocalDateTime.of(2026, 3, 28, 10, 0);
+
+    // 模拟 product_stock 中的一行, 用 AtomicReference 代替数据库的相对更新, 并发正确性由这里保证而不是被测代码
+    private final AtomicReference<BigDecimal> currentStock = new AtomicReference<>(BigDecimal.valueOf(1000));
+
+    private final ConcurrentLinkedQueue<ProductStockMovement> movements = new ConcurrentLinkedQueue<>();
+
+    private ProductStockLedgerServiceImpl createLedger() {
+        return createLedger(false);
+    }
+
+    private ProductStockLedgerServiceImpl createLedger(boolean rejectNegative) {
+        var stockMapper = (ProductStockMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ProductStockMapper.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getStockByBarCodes" -> {
+                    @SuppressWarnings("unchecked")
+                    var changes = (List<StockChangeBO>) args[0];
+                    // 只有 BAR_CODE 在 WAREHOUSE_ID 中有库存行
+                    return changes.stream()
+                            .filter(change -> BAR_CODE.equals(change.getBarCode()) && WAREHOUSE_ID.equals(change.getWarehouseId()))
+                            .map(change -> StockChangeBO.builder()
+                                    .stockId(STOCK_ID)
+                                    .productSkuId(10L)
+                                    .tenantId(0L)
+                                    .barCode(BAR_CODE)
+                                    .warehouseId(WAREHOUSE_ID)
+                                    .build())
+                            .toList();
+                }
+                case "increaseStockQuantity" -> {
+                    @SuppressWarnings("unchecked")
+                    var changes = (List<StockChangeBO>) args[0];
+                    changes.forEach(change -> currentStock.accumulateAndGet(change.getQuantity(), BigDecimal::add));
+                    return changes.size();
+                }
+                case "getStockBalances" -> {
+                    return List.of(StockChangeBO.builder().stockId(STOCK_ID).balanceQuantity(currentStock.get()).build());
+                }
+                case "getUnrecordedStockChanges" -> {
+                    var recorded = movements.stream()
+                            .map(ProductStockMovement::getChangeQuantity)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    var difference = currentStock.get().subtract(recorded);
+                    return difference.signum() == 0 ? List.of() : List.of(StockChangeBO.builder()
+                            .stockId(STOCK_ID)
+                            .productSkuId(10L)
+                            .tenantId(0L)
+                            .warehouseId(WAREHOUSE_ID)
+                            .quantity(difference)
+                            .balanceQuantity(currentStock.get())
+                            .build());
+                }
+                case "rebuildStockQuantity" -> {
+                    var replayed = movements.stream()
+                            .map(ProductStockMovement::getChangeQuantity)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    var corrected = replayed.compareTo(currentStock.get()) == 0 ? 0 : 1;
+                    currentStock.set(replayed);
+                    return corrected;
+                }
+                case "toString" -> {
+                    return "ProductStockMapper";
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        var movementMapper = (ProductStockMovementMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ProductStockMovementMapper.class}, (proxy, method, args) -> {
+            if ("insertBatch".equals(method.getName())) {
+                @SuppressWarnings("unchecked")
+                var rows = (List<ProductStockMovement>) args[0];
+                movements.addAll(rows);
+                return rows.size();
+            }
+            if ("getReceiptDates".equals(method.getName())) {
+                // 只有 RECEIPT_ID 是已保存的单据
+                return ((Collection<?>) args[0]).contains(RECEIPT_ID)
+                        ? List.of(ProductStockMovement.builder().receiptMainId(RECEIPT_ID).receiptDate(RECEIPT_DATE).build())
+                        : List.of();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        return new ProductStockLedgerServiceImpl(stockMapper, movementMapper, rejectNegative);
+    }
+
+    private StockChangeBO change(int quantity) {
+        return change(BAR_CODE, quantity);
+    }
+
+    private StockChangeBO change(String barCode, int quantity) {
+        return StockChangeBO.builder()
+                .barCode(barCode)
+                .warehouseId(WAREHOUSE_ID)
+                .quantity(BigDecimal.valueOf(quantity))
+                .build();
+    }
+
+    /**
+     * 只校验并发调用时服务的合并(同一单据同一库存一次更新)和每张单据一条流水, 不能证明 SQL 相对更新不丢失,
+     * 那部分依赖数据库行锁, 需要连接真实数据库验证
+     */
+    @Test
+    public void testConcurrentChangesOnOneSku() throws InterruptedException {
+        var ledger = createLedger();
+        var threads = 16;
+        var receiptsPerThread = 500;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            var storage = t % 2 == 0;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < receiptsPerThread; i++) {
+                    // 每张单据同一个条码两行, 应合并为一次更新
+                    ledger.applyStockChanges(storage ? List.of(change(2), change(1)) : List.of(change(-1), change(-1)));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // 8个线程各入库 500 * 3, 8个线程各出库 500 * 2
+        var expected = BigDecimal.valueOf(1000 + 8 * 500 * 3 - 8 * 500 * 2);
+        Assertions.assertEquals(0, expected.compareTo(currentStock.get()));
+        Assertions.assertEquals(threads * receiptsPerThread, movements.size());
+        var journalTotal = movements.stream()
+                .map(ProductStockMovement::getChangeQuantity)
+                .reduce(BigDecimal.valueOf(1000), BigDecimal::add);
+        Assertions.assertEquals(0, journalTotal.compareTo(currentStock.get()));
+    }
+
+    @Test
+    public void testJournalReplaysToCurrentStock() {
+        var ledger = createLedger();
+        // 期初库存 1000 记为第一条流水
+        ledger.recordStockAdjustments(List.of(STOCK_ID));
+        ledger.recordStockAdjustments(List.of(STOCK_ID));
+        Assertions.assertEquals(1, movements.size());
+
+        ledger.applyStockChanges(List.of(change(20)));
+        ledger.applyStockChanges(List.of(change(-5), change(-3)));
+        var balances = movements.stream().map(ProductStockMovement::getBalanceQuantity).toList();
+        Assertions.assertEquals(List.of(BigDecimal.valueOf(1000), BigDecimal.valueOf(1020), BigDecimal.valueOf(1012)), balances);
+
+        // 库存被直接改写后, 回放流水恢复
+        currentStock.set(BigDecimal.valueOf(7));
+        Assertions.assertEquals(1, ledger.rebuildStock(WAREHOUSE_ID));
+        Assertions.assertEquals(0, BigDecimal.valueOf(1012).compareTo(currentStock.get()));
+        Assertions.assertEquals(0, ledger.rebuildStock(WAREHOUSE_ID));
+    }
+
+    @Test
+    public void testRejectMissingStockRow() {
+        var ledger = createLedger();
+        // 第二个条码在仓库中没有库存行, 整张单据被拒绝, 已有库存行也不变
+        var error = Assertions.assertThrows(IllegalStateException.class,
+                () -> ledger.applyStockChanges(List.of(change(-5), change("6909999999999", 3))));
+        Assertions.assertTrue(error.getMessage().contains("6909999999999-" + WAREHOUSE_ID));
+        Assertions.assertEquals(0, BigDecimal.valueOf(1000).compareTo(currentStock.get()));
+        Assertions.assertTrue(movements.isEmpty());
+    }
+
+    @Test
+    public void testFindMissingStockBarCodes() {
+        var ledger = createLedger();
+        // 单据保存前一次查询找出没有库存行的条码, 没有仓库的明细忽略
+        var missing = ledger.getMissingStockBarCodes(List.of(change(1), change("6909999999999", 1), change("6909999999999", 2),
+                StockChangeBO.builder().barCode("6908888888888").build()));
+        Assertions.assertEquals(List.of("6909999999999"), missing);
+        Assertions.assertTrue(ledger.getMissingStockBarCodes(List.of(change(1))).isEmpty());
+        Assertions.assertTrue(ledger.getMissingStockBarCodes(null).isEmpty());
+    }
+
+    @Test
+    public void testRejectNegativeStock() {
+        var ledger = createLedger(true);
+        // 没有事务时立即校验, 实际运行时异常使事务回滚
+        var error = Assertions.assertThrows(InsufficientStockException.class, () -> ledger.applyStockChanges(List.of(change(-1001))));
+        Assertions.assertEquals(List.of(BAR_CODE), error.getBarCodes());
+
+        // 入库不会因为原本就是负库存被拒绝
+        currentStock.set(BigDecimal.valueOf(-10));
+        ledger.applyStockChanges(List.of(change(3)));
+        Assertions.assertEquals(0, BigDecimal.valueOf(-7).compareTo(currentStock.get()));
+
+        // 配置关闭时允许负库存
+        Assertions.assertDoesNotThrow(() -> createLedger().applyStockChanges(List.of(change(-1))));
+    }
+
+    @Test
+    public void testRejectNegativeUsesNetChangeOfTransaction() {
+        var ledger = createLedger(true);
+        currentStock.set(BigDecimal.valueOf(2));
+        // 修改入库单: 冲回原来的 10, 新明细入库 9, 库存只剩 2 时净减少 1 不会变为负数
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.applyStockChanges(List.of(change(-10)));
+            ledger.applyStockChanges(List.of(change(9)));
+            Assertions.assertDoesNotThrow(() -> TransactionSynchronizationUtils.triggerBeforeCommit(false));
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertEquals(0, BigDecimal.ONE.compareTo(currentStock.get()));
+
+        // 再改为入库 7 时净减少 2, 提交前被拒绝
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.applyStockChanges(List.of(change(-9)));
+            ledger.applyStockChanges(List.of(change(7)));
+            var error = Assertions.assertThrows(InsufficientStockException.class, () -> TransactionSynchronizationUtils.triggerBeforeCommit(false));
+            Assertions.assertEquals(List.of(BAR_CODE), error.getBarCodes());
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertNull(TransactionSynchronizationManager.getResource(ledger));
+    }
+
+    @Test
+    public void testMovementTakesReceiptDate() {
+        var ledger = createLedger();
+        // 补录的单据按单据日期记流水, 没有单据的调整按创建时间
+        var backdated = change(5);
+        backdated.setReceiptMainId(RECEIPT_ID);
+        ledger.applyStockChanges(List.of(backdated));
+        ledger.recordStockAdjustments(List.of(STOCK_ID));
+
+        var rows = List.copyOf(movements);
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertEquals(RECEIPT_DATE, rows.get(0).getReceiptDate());
+        Assertions.assertNotNull(rows.get(0).getCreateTime());
+        Assertions.assertEquals(rows.get(1).getCreateTime(), rows.get(1).getReceiptDate());
+    }
+}
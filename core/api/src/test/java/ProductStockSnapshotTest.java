@@ -0,0 +1,66 @@
+import com.wansenai.dto.report.QueryProductStockDTO;
+import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.mappers.product.ProductStockSnapshotMapper;
+import com.wansenai.service.product.impl.ProductStockSnapshotServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductStockSnapshotTest {
+
+    private static final LocalDate MONTH_END = LocalDate.of(2026, 3, 31);
+
+    // 记录 getProductStockAt 的参数: snapshotDate, startTime, endTime
+    private final List<Object> window = new ArrayList<>();
+
+    private ProductStockSnapshotServiceImpl createService(LocalDate nearestSnapshot) {
+        var snapshotMapper = (ProductStockSnapshotMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ProductStockSnapshotMapper.class}, (proxy, method, args) -> {
+            if ("getNearestSnapshotDate".equals(method.getName())) {
+                var stockDate = (LocalDate) args[0];
+                return nearestSnapshot != null && !nearestSnapshot.isAfter(stockDate) ? nearestSnapshot : null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        var stockMapper = (ProductStockMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ProductStockMapper.class}, (proxy, method, args) -> {
+            if ("getProductStockAt".equals(method.getName())) {
+                window.clear();
+                window.add(args[2]);
+                window.add(args[3]);
+                window.add(args[4]);
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        return new ProductStockSnapshotServiceImpl(snapshotMapper, stockMapper);
+    }
+
+    @Test
+    public void testMonthEndAddsOnlyLateReceipts() {
+        createService(MONTH_END).getProductStockAt(null, new QueryProductStockDTO(), MONTH_END);
+        // 月末报表命中快照, 单据日期区间为空, 只累加快照生成后补录的当月单据
+        Assertions.assertEquals(MONTH_END, window.get(0));
+        Assertions.assertEquals(LocalDateTime.of(2026, 4, 1, 0, 0), window.get(1));
+        Assertions.assertEquals(window.get(1), window.get(2));
+    }
+
+    @Test
+    public void testDateAfterSnapshotAddsJournalSinceSnapshot() {
+        createService(MONTH_END).getProductStockAt(null, new QueryProductStockDTO(), LocalDate.of(2026, 4, 15));
+        Assertions.assertEquals(MONTH_END, window.get(0));
+        Assertions.assertEquals(LocalDateTime.of(2026, 4, 1, 0, 0), window.get(1));
+        Assertions.assertEquals(LocalDateTime.of(2026, 4, 16, 0, 0), window.get(2));
+    }
+
+    @Test
+    public void testDateBeforeFirstSnapshotReplaysJournal() {
+        createService(MONTH_END).getProductStockAt(null, new QueryProductStockDTO(), LocalDate.of(2026, 2, 10));
+        Assertions.assertNull(window.get(0));
+        Assertions.assertNull(window.get(1));
+        Assertions.assertEquals(LocalDateTime.of(2026, 2, 11, 0, 0), window.get(2));
+    }
+}
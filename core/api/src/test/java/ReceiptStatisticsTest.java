@@ -0,0 +1,285 @@
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.wansenai.entities.receipt.ReceiptRetailMain;
+import com.wansenai.entities.receipt.ReceiptStatisticsDaily;
+import com.wansenai.mappers.receipt.ReceiptPurchaseMainMapper;
+import com.wansenai.mappers.receipt.ReceiptRetailMainMapper;
+import com.wansenai.mappers.receipt.ReceiptSaleMainMapper;
+import com.wansenai.mappers.receipt.ReceiptStatisticsDailyMapper;
+import com.wansenai.service.receipt.impl.ReceiptServiceImpl;
+import com.wansenai.service.receipt.impl.ReceiptStatisticsServiceImpl;
+import com.wansenai.utils.constants.ReceiptConstants;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class ReceiptStatisticsTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    private final List<ReceiptRetailMain> receipts = new ArrayList<>();
+
+    private final Map<String, ReceiptStatisticsDaily> buckets = new LinkedHashMap<>();
+
+    private final List<String> statements = new ArrayList<>();
+
+    private int pendingConflicts;
+
+    private final StubTransactionManager transactionManager = new StubTransactionManager();
+
+    private final ReceiptStatisticsServiceImpl statisticsService = new ReceiptStatisticsServiceImpl(
+            statisticsMapper(), retailMapper(), emptyMapper(ReceiptSaleMainMapper.class), emptyMapper(ReceiptPurchaseMainMapper.class), transactionManager);
+
+    @BeforeAll
+    public static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ReceiptRetailMain.class);
+    }
+
+    private class StubTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            statements.add("begin");
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            statements.add("commit");
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            statements.add("rollback");
+        }
+    }
+
+    private static String bucketKey(ReceiptStatisticsDaily item) {
+        return item.getTenantId() + "|" + item.getReceiptCategory() + "|" + item.getType() + "|" + item.getSubType() + "|" + item.getStatisticsDate();
+    }
+
+    private ReceiptStatisticsDailyMapper statisticsMapper() {
+        return (ReceiptStatisticsDailyMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ReceiptStatisticsDailyMapper.class}, (proxy, method, args) -> {
+            statements.add(method.getName());
+            switch (method.getName()) {
+                case "resetDaily" -> {
+                    if (pendingConflicts > 0) {
+                        pendingConflicts--;
+                        throw new PessimisticLockingFailureException("Deadlock found when trying to get lock");
+                    }
+                    var start = (LocalDate) args[1];
+                    var end = (LocalDate) args[2];
+                    var reset = buckets.values().stream()
+                            .filter(item -> item.getReceiptCategory().equals(args[0])
+                                    && !item.getStatisticsDate().isBefore(start) && item.getStatisticsDate().isBefore(end))
+                            .toList();
+                    reset.forEach(item -> item.setTotalAmount(BigDecimal.ZERO).setReceiptCount(0));
+                    return reset.size();
+                }
+                case "aggregateRetailDaily" -> {
+                    var start = (LocalDateTime) args[0];
+                    var end = (LocalDateTime) args[1];
+                    return receipts.stream()
+                            .filter(item -> item.getDeleteFlag() == 0
+                                    && !item.getCreateTime().isBefore(start) && item.getCreateTime().isBefore(end))
+                            .collect(Collectors.groupingBy(item -> List.of(item.getSubType(), item.getCreateTime().toLocalDate()),
+                                    LinkedHashMap::new, Collectors.toList()))
+                            .values().stream()
+                            .map(group -> ReceiptStatisticsDaily.builder()
+                                    .tenantId(TENANT_ID)
+                                    .type(group.getFirst().getType())
+                                    .subType(group.getFirst().getSubType())
+                                    .statisticsDate(group.getFirst().getCreateTime().toLocalDate())
+                                    .totalAmount(group.stream().map(ReceiptRetailMain::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                                    .receiptCount(group.size())
+                                    .build())
+                            .toList();
+                }
+                case "aggregateSaleDaily", "aggregatePurchaseDaily" -> {
+                    return List.of();
+                }
+                case "upsertBatch" -> {
+                    @SuppressWarnings("unchecked")
+                    var statisticsList = (List<ReceiptStatisticsDaily>) args[0];
+                    statisticsList.forEach(item -> buckets.merge(bucketKey(item), item, (existing, update) -> existing
+                            .setTotalAmount(update.getTotalAmount())
+                            .setReceiptCount(update.getReceiptCount())));
+                    return statisticsList.size();
+                }
+                case "deleteBefore" -> {
+                    var start = (LocalDate) args[0];
+                    var removed = buckets.values().removeIf(item -> item.getStatisticsDate().isBefore(start));
+                    return removed ? 1 : 0;
+                }
+                case "getDailyStatistics" -> {
+                    var start = (LocalDate) args[0];
+                    var end = (LocalDate) args[1];
+                    return buckets.values().stream()
+                            .filter(item -> !item.getStatisticsDate().isBefore(start) && !item.getStatisticsDate().isAfter(end))
+                            .toList();
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private ReceiptRetailMainMapper retailMapper() {
+        return (ReceiptRetailMainMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ReceiptRetailMainMapper.class}, (proxy, method, args) -> {
+            statements.add(method.getName());
+            return switch (method.getName()) {
+                case "selectList" -> List.copyOf(receipts);
+                case "selectOne" -> receipts.stream()
+                        .map(ReceiptRetailMain::getCreateTime)
+                        .min(LocalDateTime::compareTo)
+                        .map(createTime -> ReceiptRetailMain.builder().createTime(createTime).build())
+                        .orElse(null);
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        });
+    }
+
+    private <T> T emptyMapper(Class<T> mapperClass) {
+        return mapperClass.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{mapperClass}, (proxy, method, args) -> {
+            if ("selectOne".equals(method.getName())) {
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+
+    private ReceiptRetailMain addReceipt(long id, String subType, LocalDateTime createTime, String totalAmount) {
+        var receipt = ReceiptRetailMain.builder()
+                .id(id)
+                .type(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_REFUND.equals(subType) ? ReceiptConstants.RECEIPT_TYPE_STORAGE : ReceiptConstants.RECEIPT_TYPE_SHIPMENT)
+                .subType(subType)
+                .totalAmount(new BigDecimal(totalAmount))
+                .createTime(createTime)
+                .deleteFlag(0)
+                .build();
+        receipts.add(receipt);
+        return receipt;
+    }
+
+    private ReceiptStatisticsDaily bucket(String subType, LocalDate day) {
+        return buckets.values().stream()
+                .filter(item -> Objects.equals(item.getSubType(), subType) && item.getStatisticsDate().equals(day))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Test
+    public void testRefreshInsideTransactionRunsAfterCommitAndLocksFirst() {
+        var now = LocalDateTime.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            addReceipt(1L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, now, "12.50");
+            statisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(1L));
+            // 事务提交前不汇总, 避免用调用方事务的旧快照覆盖统计
+            Assertions.assertFalse(statements.contains("resetDaily"));
+        });
+
+        var bucket = bucket(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, now.toLocalDate());
+        Assertions.assertEquals(new BigDecimal("12.50"), bucket.getTotalAmount());
+        Assertions.assertEquals(1, bucket.getReceiptCount());
+        // 调用方事务提交后, 新事务中先锁统计行, 再汇总, 最后写回
+        var refresh = statements.subList(statements.lastIndexOf("begin"), statements.size());
+        Assertions.assertEquals(List.of("begin", "resetDaily", "aggregateRetailDaily", "upsertBatch", "commit"), refresh);
+    }
+
+    @Test
+    public void testRefreshRecalculatesDeletedReceipts() {
+        var now = LocalDateTime.now();
+        addReceipt(1L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, now, "10.00");
+        var second = addReceipt(2L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, now, "5.00");
+        statisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(1L, 2L));
+        Assertions.assertEquals(new BigDecimal("15.00"), bucket(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, now.toLocalDate()).getTotalAmount());
+
+        second.setDeleteFlag(1);
+        statisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(2L));
+        var bucket = bucket(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, now.toLocalDate());
+        Assertions.assertEquals(new BigDecimal("10.00"), bucket.getTotalAmount());
+        Assertions.assertEquals(1, bucket.getReceiptCount());
+
+        receipts.getFirst().setDeleteFlag(1);
+        statisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(1L));
+        Assertions.assertEquals(0, bucket.getTotalAmount().signum());
+        Assertions.assertEquals(0, bucket.getReceiptCount());
+    }
+
+    @Test
+    public void testRefreshRetriesWhenLockConflicts() {
+        var now = LocalDateTime.now();
+        addReceipt(1L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, now, "8.00");
+        pendingConflicts = 1;
+        statisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(1L));
+
+        Assertions.assertEquals(2, statements.stream().filter("resetDaily"::equals).count());
+        Assertions.assertTrue(statements.contains("rollback"));
+        Assertions.assertEquals(new BigDecimal("8.00"), bucket(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, now.toLocalDate()).getTotalAmount());
+    }
+
+    @Test
+    public void testRebuildAndDashboardReads() {
+        var today = LocalDate.now();
+        var yesterday = today.minusDays(1);
+        var lastYear = today.minusYears(1);
+        addReceipt(1L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, today.atTime(9, 0), "20.00");
+        addReceipt(2L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, today.atTime(10, 0), "30.00");
+        addReceipt(3L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_REFUND, today.atTime(11, 0), "4.00");
+        addReceipt(4L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, yesterday.atTime(9, 0), "7.00");
+        addReceipt(5L, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, lastYear.atTime(9, 0), "100.00");
+        // 早于最早单据的残留统计和与单据不符的统计都会被重建覆盖
+        buckets.put("stale", ReceiptStatisticsDaily.builder()
+                .tenantId(TENANT_ID)
+                .receiptCategory(ReceiptConstants.RECEIPT_CATEGORY_RETAIL)
+                .subType(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS)
+                .statisticsDate(lastYear.minusMonths(2))
+                .totalAmount(new BigDecimal("999.00"))
+                .receiptCount(9)
+                .build());
+
+        statisticsService.rebuildStatistics();
+
+        Assertions.assertNull(bucket(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, lastYear.minusMonths(2)));
+        Assertions.assertEquals(new BigDecimal("50.00"), bucket(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, today).getTotalAmount());
+        Assertions.assertEquals(2, bucket(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, today).getReceiptCount());
+        Assertions.assertEquals(new BigDecimal("100.00"), bucket(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, lastYear).getTotalAmount());
+        // 每个月每个单据类别一个事务
+        var months = ChronoUnit.MONTHS.between(lastYear.withDayOfMonth(1), today.withDayOfMonth(1)) + 1;
+        Assertions.assertEquals(1 + months * 3, statements.stream().filter("begin"::equals).count());
+
+        var receiptService = new ReceiptServiceImpl(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, statisticsService, null, null);
+        var data = receiptService.getStatisticalData().getData();
+        // 退货金额与之前一样计入合计
+        Assertions.assertEquals(new BigDecimal("54.00"), data.getTodayRetailSales());
+        Assertions.assertEquals(new BigDecimal("7.00"), data.getYesterdayRetailSales());
+        var expectedMonth = yesterday.getMonth() == today.getMonth() ? "61.00" : "54.00";
+        Assertions.assertEquals(new BigDecimal(expectedMonth), data.getMonthRetailSales());
+        var expectedYear = yesterday.getYear() == today.getYear() ? "61.00" : "54.00";
+        Assertions.assertEquals(new BigDecimal(expectedYear), data.getYearRetailSales());
+        Assertions.assertEquals(0, data.getTodaySales().signum());
+        Assertions.assertEquals(6, data.getRetailAxisStatisticalDataVO().size());
+        Assertions.assertEquals(new BigDecimal(expectedMonth), data.getRetailAxisStatisticalDataVO().getLast().getYAxisData());
+    }
+}
@@ -0,0 +1,93 @@
+import com.wansenai.entities.receipt.ReceiptRetailSub;
+import com.wansenai.entities.receipt.ReceiptSaleSub;
+import com.wansenai.service.receipt.ReceiptSubCache;
+import com.wansenai.utils.redis.RedisUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReceiptSubCacheTest {
+
+    private final List<Object> published = new ArrayList<>();
+
+    private final RedisUtil redisUtil = new RedisUtil() {
+        @Override
+        public void convertAndSend(String channel, Object message) {
+            published.add(message);
+        }
+
+        @Override
+        public Object deserializeValue(byte[] body) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    };
+
+    private final Map<Long, Integer> loads = new HashMap<>();
+
+    private List<ReceiptRetailSub> loadRetail(Long receiptMainId) {
+        loads.merge(receiptMainId, 1, Integer::sum);
+        return List.of(ReceiptRetailSub.builder().id(receiptMainId * 10).receiptMainId(receiptMainId).build());
+    }
+
+    private List<ReceiptSaleSub> loadSale(Long receiptMainId) {
+        loads.merge(-receiptMainId, 1, Integer::sum);
+        return List.of(ReceiptSaleSub.builder().id(receiptMainId * 10).receiptSaleMainId(receiptMainId).build());
+    }
+
+    private void receive(ReceiptSubCache cache, String message) {
+        cache.onMessage(new DefaultMessage(ReceiptSubCache.INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8), message.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    public void testInvalidatePublishesReceiptIds() {
+        var cache = new ReceiptSubCache(redisUtil, new RedisMessageListenerContainer());
+        cache.retail().get(1L, this::loadRetail);
+        cache.retail().get(2L, this::loadRetail);
+        cache.retail().get(1L, this::loadRetail);
+        Assertions.assertEquals(Map.of(1L, 1, 2L, 1), loads);
+
+        // 修改单据只重新加载该单据的明细, 并通知其他实例
+        cache.invalidateRetail(List.of(1L));
+        cache.retail().get(1L, this::loadRetail);
+        cache.retail().get(2L, this::loadRetail);
+        Assertions.assertEquals(Map.of(1L, 2, 2L, 1), loads);
+        Assertions.assertEquals(List.of("retail:1"), published);
+
+        cache.invalidateSale(List.of(3L, 4L));
+        cache.invalidatePurchase(List.of());
+        Assertions.assertEquals(List.of("retail:1", "sale:3,4"), published);
+    }
+
+    @Test
+    public void testInvalidationFromOtherInstance() {
+        var cache = new ReceiptSubCache(redisUtil, new RedisMessageListenerContainer());
+        cache.retail().get(1L, this::loadRetail);
+        cache.retail().get(2L, this::loadRetail);
+        cache.sale().get(1L, this::loadSale);
+
+        // 只失效消息中类别的单据
+        receive(cache, "retail:1,2");
+        cache.retail().get(1L, this::loadRetail);
+        cache.retail().get(2L, this::loadRetail);
+        cache.sale().get(1L, this::loadSale);
+        Assertions.assertEquals(Map.of(1L, 2, 2L, 2, -1L, 1), loads);
+
+        receive(cache, "sale:1");
+        cache.sale().get(1L, this::loadSale);
+        Assertions.assertEquals(Map.of(1L, 2, 2L, 2, -1L, 2), loads);
+
+        // 无效消息被忽略
+        receive(cache, "unknown:1");
+        receive(cache, "retail:x");
+        cache.retail().get(1L, this::loadRetail);
+        Assertions.assertEquals(Map.of(1L, 2, 2L, 2, -1L, 2), loads);
+        Assertions.assertTrue(published.isEmpty());
+    }
+}
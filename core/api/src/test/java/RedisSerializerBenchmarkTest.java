@@ -0,0 +1,140 @@
+import com.alibaba.fastjson.JSONObject;
+import com.wansenai.entities.system.SysMsg;
+import com.wansenai.utils.redis.CompactRedisSerializer;
+import com.wansenai.utils.redis.RedisSerializationFormat;
+import com.wansenai.utils.redis.TokenSession;
+import com.wansenai.vo.report.StockFlowVO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares payload size and ser/de time of the old indented JSON against the compact modes.
+ */
+@Slf4j
+public class RedisSerializerBenchmarkTest {
+
+    private static final int ROUNDS = 2000;
+
+    private final ObjectMapper indentedMapper = JsonMapper.builder()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper jsonMapper = JsonMapper.builder()
+            .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final ObjectMapper smileMapper = SmileMapper.builder()
+            .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private CompactRedisSerializer serializer(RedisSerializationFormat format, int compressThreshold) {
+        return new CompactRedisSerializer(format, jsonMapper, smileMapper, compressThreshold);
+    }
+
+    private SysMsg createMessage() {
+        var sysMsg = new SysMsg();
+        sysMsg.setId(1801234567890123456L);
+        sysMsg.setUserId(1L);
+        sysMsg.setMsgTitle("库存预警");
+        sysMsg.setMsgContent("商品 6901234567890 在默认仓库的库存低于下限, 请及时补货");
+        sysMsg.setDescription("库存低于下限");
+        sysMsg.setType("notice");
+        sysMsg.setStatus(0);
+        sysMsg.setCreateTime(LocalDateTime.of(2026, 10, 18, 9, 30));
+        return sysMsg;
+    }
+
+    private List<StockFlowVO> createReport(int size) {
+        var report = new ArrayList<StockFlowVO>(size);
+        for (int i = 0; i < size; i++) {
+            report.add(new StockFlowVO(1801234567890000000L + i, "XSCK" + (20261018000L + i), "销售出库", "690123456" + (i % 1000),
+                    "商品" + (i % 200), "默认仓库", -(i % 50), BigDecimal.valueOf(1000 - i), LocalDateTime.of(2026, 10, 18, 9, 30).plusMinutes(i)));
+        }
+        return report;
+    }
+
+    private long measure(Runnable task) {
+        var start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+
+    private Map<String, Integer> compare(String name, Object value) {
+        var sizes = new LinkedHashMap<String, Integer>();
+        var indented = indentedMapper.writeValueAsBytes(value);
+        sizes.put("indented-json", indented.length);
+        var indentedNanos = measure(() -> indentedMapper.readValue(indentedMapper.writeValueAsBytes(value), Object.class));
+        log.info("{} indented-json: {} bytes, {} ns/op", name, indented.length, indentedNanos);
+        Assertions.assertTrue(indentedNanos > 0);
+
+        var modes = Map.of(
+                "json", serializer(RedisSerializationFormat.JSON, 0),
+                "smile", serializer(RedisSerializationFormat.SMILE, 0),
+                "smile+deflate", serializer(RedisSerializationFormat.SMILE, 1024));
+        for (String mode : List.of("json", "smile", "smile+deflate")) {
+            var serializer = modes.get(mode);
+            var bytes = serializer.serialize(value);
+            sizes.put(mode, bytes.length);
+            // 读取结果与紧凑JSON一致
+            Assertions.assertEquals(jsonMapper.readValue(jsonMapper.writeValueAsBytes(value), Object.class), serializer.deserialize(bytes));
+            var nanos = measure(() -> serializer.deserialize(serializer.serialize(value)));
+            log.info("{} {}: {} bytes, {} ns/op", name, mode, bytes.length, nanos);
+            Assertions.assertTrue(nanos > 0);
+        }
+        return sizes;
+    }
+
+    @Test
+    public void testPayloadSizes() {
+        var sysMsg = createMessage();
+        var messageSizes = compare("SysMsg", sysMsg);
+        // 旧实现: fastjson字符串再被JSON序列化一次
+        var doubleEncoded = indentedMapper.writeValueAsBytes(JSONObject.toJSONString(sysMsg));
+        log.info("SysMsg double-encoded: {} bytes", doubleEncoded.length);
+        Assertions.assertTrue(messageSizes.get("smile") < doubleEncoded.length);
+
+        var session = TokenSession.builder().token("eyJhbGciOiJIUzI1NiJ9.token").userId(1L).tenantId(0L).userName("admin").build();
+        var sessionSizes = compare("session", session);
+        Assertions.assertTrue(sessionSizes.get("json") < sessionSizes.get("indented-json"));
+
+        var reportSizes = compare("report", createReport(500));
+        Assertions.assertTrue(reportSizes.get("smile") < reportSizes.get("indented-json"));
+        Assertions.assertTrue(reportSizes.get("smile+deflate") < reportSizes.get("smile") / 3);
+    }
+
+    @Test
+    public void testReadsEveryFormat() {
+        var report = createReport(100);
+        var expected = jsonMapper.readValue(jsonMapper.writeValueAsBytes(report), Object.class);
+        var reader = serializer(RedisSerializationFormat.JSON, 0);
+
+        // 切换格式后, 之前写入的数据仍可读取
+        Assertions.assertEquals(expected, reader.deserialize(indentedMapper.writeValueAsBytes(report)));
+        Assertions.assertEquals(expected, reader.deserialize(serializer(RedisSerializationFormat.SMILE, 0).serialize(report)));
+        Assertions.assertEquals(expected, reader.deserialize(serializer(RedisSerializationFormat.SMILE, 64).serialize(report)));
+        Assertions.assertEquals(expected, reader.deserialize(serializer(RedisSerializationFormat.JSON, 64).serialize(report)));
+
+        var sysMsg = createMessage();
+        var stored = serializer(RedisSerializationFormat.SMILE, 1024).deserialize(serializer(RedisSerializationFormat.SMILE, 1024).serialize(sysMsg));
+        Assertions.assertEquals(sysMsg, reader.convertValue(stored, SysMsg.class));
+    }
+}
@@ -0,0 +1,108 @@
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of the POS checkout against a locally running server, reports p50/p95/p99 latency.
+ * <pre>
+ * mvn -pl core/api test -Dtest=RetailCheckoutLoadTest \
+ *     -Deairp.loadtest.baseUrl=http://localhost:8088/erp-api -Deairp.loadtest.token=... \
+ *     -Deairp.loadtest.barCode=... -Deairp.loadtest.warehouseId=... -Deairp.loadtest.accountId=...
+ * </pre>
+ * Set -Deairp.loadtest.path=/retail/shipments/addOrUpdate to measure the old path for comparison.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "eairp.loadtest.baseUrl", matches = ".+")
+public class RetailCheckoutLoadTest {
+
+    private final String baseUrl = System.getProperty("eairp.loadtest.baseUrl");
+
+    private final String path = System.getProperty("eairp.loadtest.path", "/retail/shipments/checkout");
+
+    private final String token = System.getProperty("eairp.loadtest.token", "");
+
+    private final String barCode = System.getProperty("eairp.loadtest.barCode", "");
+
+    private final String warehouseId = System.getProperty("eairp.loadtest.warehouseId", "");
+
+    private final String accountId = System.getProperty("eairp.loadtest.accountId", "");
+
+    private final int tills = Integer.getInteger("eairp.loadtest.tills", 16);
+
+    private final int checkoutsPerTill = Integer.getInteger("eairp.loadtest.checkouts", 200);
+
+    private String createBody(String receiptNumber) {
+        return """
+                {"receiptNumber":"%s","accountId":"%s","paymentType":"现金","status":1,
+                 "receiptAmount":10.00,"collectAmount":10.00,"backAmount":0,
+                 "tableData":[{"barCode":"%s","warehouseId":"%s","productNumber":1,"unitPrice":5.00,"amount":5.00},
+                              {"barCode":"%s","warehouseId":"%s","productNumber":1,"unitPrice":5.00,"amount":5.00}]}
+                """.formatted(receiptNumber, accountId, barCode, warehouseId, barCode, warehouseId);
+    }
+
+    private long percentile(List<Long> sorted, double percentile) {
+        var index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+
+    @Test
+    public void testCheckoutLatency() throws InterruptedException {
+        var client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        var latencies = Collections.synchronizedList(new ArrayList<Long>());
+        var failures = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(tills);
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int t = 0; t < tills; t++) {
+            var till = t;
+            tasks.add(() -> {
+                for (int i = 0; i < checkoutsPerTill; i++) {
+                    var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .header("Content-Type", "application/json")
+                            .header("Authorization", token)
+                            .POST(HttpRequest.BodyPublishers.ofString(createBody("LSCK-LT-" + till + "-" + i + "-" + System.nanoTime())))
+                            .build();
+                    var start = System.nanoTime();
+                    try {
+                        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200 || !response.body().contains("\"code\":\"R0001\"")) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies.add((System.nanoTime() - start) / 1_000);
+                }
+                return null;
+            });
+        }
+        var wallStart = System.nanoTime();
+        executor.invokeAll(tasks);
+        var wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+        executor.shutdown();
+
+        var sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        var p50 = percentile(sorted, 50);
+        var p95 = percentile(sorted, 95);
+        var p99 = percentile(sorted, 99);
+        log.info("{}: {} checkouts by {} tills in {} ms, {}/s, failures {}", path, sorted.size(), tills,
+                wallMillis, String.format("%.1f", sorted.size() * 1000.0 / Math.max(wallMillis, 1)), failures.get());
+        log.info("p50 {} ms, p95 {} ms, p99 {} ms, max {} ms", p50 / 1000.0, p95 / 1000.0, p99 / 1000.0, sorted.getLast() / 1000.0);
+        Assertions.assertEquals(tills * checkoutsPerTill, sorted.size());
+        Assertions.assertTrue(p50 > 0 && p50 <= p95 && p95 <= p99 && p99 <= sorted.getLast());
+        Assertions.assertEquals(0, failures.get());
+    }
+}
@@ -0,0 +1,122 @@
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.wansenai.bo.ShipmentsDataBO;
+import com.wansenai.bo.product.StockChangeBO;
+import com.wansenai.dto.receipt.retail.RetailShipmentsDTO;
+import com.wansenai.entities.product.ProductStockKeepUnit;
+import com.wansenai.entities.receipt.ReceiptRetailMain;
+import com.wansenai.mappers.product.ProductStockKeepUnitMapper;
+import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.mappers.receipt.ReceiptRetailMainMapper;
+import com.wansenai.service.receipt.impl.ReceiptRetailServiceImpl;
+import com.wansenai.service.user.ISysUserService;
+import com.wansenai.utils.enums.BaseCodeEnum;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 收银结算在写入单据前一次校验全部条码: 商品未删除, 且在所选仓库有库存行
+ */
+public class RetailCheckoutValidationTest {
+
+    private final List<String> statements = new ArrayList<>();
+
+    private final List<String> skuConditions = new ArrayList<>();
+
+    @BeforeAll
+    public static void initTableInfo() {
+        var assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, ReceiptRetailMain.class);
+        TableInfoHelper.initTableInfo(assistant, ProductStockKeepUnit.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, handler);
+    }
+
+    // 条码 6901 和 6902 未删除, 库存行只有 6901 在仓库 1
+    private ReceiptRetailServiceImpl retailService() throws ReflectiveOperationException {
+        var mainMapper = proxy(ReceiptRetailMainMapper.class, (proxy, method, args) -> {
+            statements.add("receipt_retail_main." + method.getName());
+            return 1;
+        });
+        var skuMapper = proxy(ProductStockKeepUnitMapper.class, (proxy, method, args) -> {
+            statements.add("product_sku." + method.getName());
+            skuConditions.add(((Wrapper<?>) args[0]).getSqlSegment());
+            return List.of(ProductStockKeepUnit.builder().productBarCode("6901").productId(1L).build(),
+                    ProductStockKeepUnit.builder().productBarCode("6902").productId(2L).build());
+        });
+        var stockMapper = proxy(ProductStockMapper.class, (proxy, method, args) -> {
+            statements.add("product_stock." + method.getName());
+            @SuppressWarnings("unchecked")
+            var keys = (Collection<StockChangeBO>) args[0];
+            return keys.stream()
+                    .filter(key -> key.getBarCode().equals("6901") && Long.valueOf(1L).equals(key.getWarehouseId()))
+                    .map(key -> StockChangeBO.builder().stockId(11L).barCode(key.getBarCode()).warehouseId(key.getWarehouseId()).build())
+                    .toList();
+        });
+        var userService = proxy(ISysUserService.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getCurrentUserId" -> 1L;
+            case "getUserSystemLanguage" -> "en_US";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        var service = new ReceiptRetailServiceImpl(mainMapper, null, null, userService, null, stockMapper, skuMapper,
+                null, null, null, null, null, null, null, null, null);
+        for (Class<?> type = service.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                var field = type.getDeclaredField("baseMapper");
+                field.setAccessible(true);
+                field.set(service, mainMapper);
+                return service;
+            } catch (NoSuchFieldException ignored) {
+                // 字段在父类中
+            }
+        }
+        throw new NoSuchFieldException("baseMapper");
+    }
+
+    private RetailShipmentsDTO checkout(ShipmentsDataBO... items) {
+        return RetailShipmentsDTO.builder()
+                .receiptNumber("LSCK2026101800001")
+                .receiptAmount(BigDecimal.TEN)
+                .tableData(List.of(items))
+                .build();
+    }
+
+    private ShipmentsDataBO item(String barCode, Long warehouseId) {
+        return ShipmentsDataBO.builder().barCode(barCode).warehouseId(warehouseId).productNumber(1).amount(BigDecimal.ONE).build();
+    }
+
+    @Test
+    public void testRejectsDeletedOrUnknownBarCode() throws ReflectiveOperationException {
+        var response = retailService().checkoutRetailShipments(checkout(item("6901", 1L), item("6903", 1L)));
+
+        Assertions.assertEquals(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), response.getCode());
+        Assertions.assertTrue(response.getMsg().endsWith("6903"));
+        // 删除的商品不参与条码匹配
+        Assertions.assertTrue(skuConditions.getFirst().contains("delete_flag"), skuConditions.getFirst());
+        Assertions.assertEquals(List.of("product_sku.selectList"), statements);
+    }
+
+    @Test
+    public void testRejectsBarCodeWithoutStockRow() throws ReflectiveOperationException {
+        var response = retailService().checkoutRetailShipments(checkout(item("6901", 1L), item("6901", 1L),
+                item("6901", 2L), item("6902", 1L), item("6902", null)));
+
+        // 条码和仓库去重后一次查询库存行, 校验失败时不写入单据
+        Assertions.assertEquals(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), response.getCode());
+        Assertions.assertTrue(response.getMsg().endsWith("6901,6902"), response.getMsg());
+        Assertions.assertEquals(List.of("product_sku.selectList", "product_stock.getStockByBarCodes"), statements);
+    }
+}
@@ -0,0 +1,92 @@
+import com.wansenai.service.system.RoleMenuCache;
+import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.vo.MenuVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RoleMenuCacheTest {
+
+    private final List<Object> published = new ArrayList<>();
+
+    private final RedisUtil redisUtil = new RedisUtil() {
+        @Override
+        public void convertAndSend(String channel, Object message) {
+            published.add(message);
+        }
+
+        @Override
+        public Object deserializeValue(byte[] body) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    };
+
+    private final Map<Long, Integer> loads = new HashMap<>();
+
+    private final Map<Long, List<Integer>> roleMenus = new HashMap<>(Map.of(
+            1L, List.of(1, 3, 5),
+            2L, List.of(5, 2, 4)));
+
+    private List<MenuVO> load(Long roleId) {
+        loads.merge(roleId, 1, Integer::sum);
+        return roleMenus.getOrDefault(roleId, List.of()).stream()
+                .map(id -> MenuVO.builder().id(id).sort(id * 10).title("menu" + id).build())
+                .toList();
+    }
+
+    private List<Integer> menuIds(List<MenuVO> menus) {
+        return menus.stream().map(MenuVO::getId).toList();
+    }
+
+    @Test
+    public void testMergeRolesFromCache() {
+        var cache = new RoleMenuCache(redisUtil, new RedisMessageListenerContainer());
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(List.of(1, 2, 3, 4, 5), menuIds(cache.getMenus(List.of(1L, 2L), this::load)));
+        }
+        Assertions.assertEquals(List.of(2, 4, 5), menuIds(cache.getMenus(List.of(2L), this::load)));
+        Assertions.assertEquals(Map.of(1L, 1, 2L, 1), loads);
+    }
+
+    @Test
+    public void testRoleMenuEditInvalidatesRole() {
+        var cache = new RoleMenuCache(redisUtil, new RedisMessageListenerContainer());
+        cache.getMenus(List.of(1L, 2L), this::load);
+
+        // 角色授权变更只重新加载该角色, 并通知其他实例
+        roleMenus.put(1L, List.of(1, 6));
+        cache.invalidate(1L);
+        Assertions.assertEquals(List.of(1, 2, 4, 5, 6), menuIds(cache.getMenus(List.of(1L, 2L), this::load)));
+        Assertions.assertEquals(Map.of(1L, 2, 2L, 1), loads);
+        Assertions.assertEquals(List.of("1"), published);
+
+        // 菜单修改或删除影响所有角色
+        cache.invalidateAll();
+        cache.getMenus(List.of(1L, 2L), this::load);
+        Assertions.assertEquals(Map.of(1L, 3, 2L, 2), loads);
+        Assertions.assertEquals(List.of("1", "*"), published);
+    }
+
+    @Test
+    public void testInvalidationFromOtherInstance() {
+        var cache = new RoleMenuCache(redisUtil, new RedisMessageListenerContainer());
+        cache.getMenus(List.of(1L, 2L), this::load);
+
+        cache.onMessage(new DefaultMessage(RoleMenuCache.INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8), "2".getBytes(StandardCharsets.UTF_8)), null);
+        cache.getMenus(List.of(1L, 2L), this::load);
+        Assertions.assertEquals(Map.of(1L, 1, 2L, 2), loads);
+
+        cache.onMessage(new DefaultMessage(RoleMenuCache.INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8), "*".getBytes(StandardCharsets.UTF_8)), null);
+        cache.getMenus(List.of(1L, 2L), this::load);
+        Assertions.assertEquals(Map.of(1L, 2, 2L, 3), loads);
+        Assertions.assertTrue(published.isEmpty());
+    }
+}
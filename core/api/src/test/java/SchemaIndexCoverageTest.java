@@ -0,0 +1,198 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Checks that the hot report and page queries can be served by an index declared in eairp.sql.
+ * Every statement carries tenant_id from the tenant interceptor, an index is usable when its
+ * leading columns are all bound by equality predicates of the query (a range column may follow).
+ */
+public class SchemaIndexCoverageTest {
+
+    private static final Pattern TABLE_PATTERN = Pattern.compile("CREATE TABLE `(\\w+)`\\s*\\((.*?)\\n\\) ENGINE", Pattern.DOTALL);
+
+    private static final Pattern INDEX_PATTERN = Pattern.compile("(?:PRIMARY KEY|INDEX `(\\w+)`)\\s*\\(([^)]*)\\)");
+
+    private static final Pattern UPGRADE_INDEX_PATTERN = Pattern.compile("ADD INDEX `(\\w+)`");
+
+    private static final Pattern CONDITION_PATTERN = Pattern.compile("<sql id=\"(\\w+Condition)\">(.*?)</sql>", Pattern.DOTALL);
+
+    private static final Pattern MAIN_TABLE_PATTERN = Pattern.compile("INNER JOIN (\\w+_main) AS m ON");
+
+    private static final Pattern MAIN_EQUAL_PATTERN = Pattern.compile("\\bm\\.(\\w+) = ");
+
+    private static final Pattern MAIN_RANGE_PATTERN = Pattern.compile("\\bm\\.(\\w+) &(?:gt|lt);=");
+
+    private record Predicate(String table, List<String> equalColumns, String rangeColumn) {
+    }
+
+    // 报表和分页查询的条件列, 与 lambdaQuery 和 mapper xml 保持一致
+    private static final List<Predicate> HOT_PREDICATES = List.of(
+            new Predicate("receipt_retail_main", List.of("tenant_id", "type", "sub_type", "delete_flag"), "create_time"),
+            new Predicate("receipt_sale_main", List.of("tenant_id", "type", "sub_type", "delete_flag"), "create_time"),
+            new Predicate("receipt_purchase_main", List.of("tenant_id", "type", "sub_type", "delete_flag"), "create_time"),
+            new Predicate("receipt_retail_main", List.of("tenant_id", "receipt_number"), null),
+            new Predicate("receipt_sale_main", List.of("tenant_id", "receipt_number"), null),
+            new Predicate("receipt_purchase_main", List.of("tenant_id", "receipt_number"), null),
+            new Predicate("receipt_retail_main", List.of("account_id", "delete_flag"), null),
+            new Predicate("receipt_sale_main", List.of("account_id", "delete_flag"), null),
+            new Predicate("receipt_purchase_main", List.of("account_id", "delete_flag"), null),
+            new Predicate("receipt_account_allocation", List.of("account_id"), null),
+            new Predicate("receipt_retail_sub", List.of("receipt_main_id", "delete_flag"), null),
+            new Predicate("receipt_sale_sub", List.of("receipt_sale_main_id", "delete_flag"), null),
+            new Predicate("receipt_purchase_sub", List.of("receipt_purchase_main_id", "delete_flag"), null),
+            new Predicate("receipt_retail_sub", List.of("tenant_id", "product_barcode", "warehouse_id", "delete_flag"), "create_time"),
+            new Predicate("receipt_sale_sub", List.of("tenant_id", "product_barcode", "warehouse_id", "delete_flag"), "create_time"),
+            new Predicate("receipt_purchase_sub", List.of("tenant_id", "product_barcode", "warehouse_id", "delete_flag"), "create_time"),
+            new Predicate("product_sku", List.of("tenant_id", "product_bar_code"), null),
+            new Predicate("product_sku", List.of("product_id"), null),
+            new Predicate("product_stock", List.of("tenant_id", "product_sku_id", "warehouse_id"), null),
+            new Predicate("financial_main", List.of("tenant_id", "type", "delete_flag"), "create_time"),
+            new Predicate("financial_sub", List.of("financial_main_id"), null),
+            new Predicate("product_stock_movement", List.of("product_stock_id"), "create_time"),
+            new Predicate("product_stock_movement", List.of("tenant_id"), "create_time"),
+            new Predicate("product_stock_snapshot", List.of("tenant_id", "snapshot_date", "product_stock_id"), null),
+            new Predicate("financial_account_journal", List.of("account_id"), "create_time")
+    );
+
+    private static Path locate(String relative) {
+        var dir = Path.of("").toAbsolutePath();
+        while (dir != null) {
+            var candidate = dir.resolve(relative);
+            if (Files.exists(candidate)) {
+                return candidate;
+            }
+            dir = dir.getParent();
+        }
+        throw new IllegalStateException("Cannot find " + relative);
+    }
+
+    private static Map<String, List<List<String>>> parseIndexes(String sql) {
+        var indexes = new HashMap<String, List<List<String>>>();
+        var tableMatcher = TABLE_PATTERN.matcher(sql);
+        while (tableMatcher.find()) {
+            var tableIndexes = new ArrayList<List<String>>();
+            var indexMatcher = INDEX_PATTERN.matcher(tableMatcher.group(2));
+            while (indexMatcher.find()) {
+                tableIndexes.add(Arrays.stream(indexMatcher.group(2).split(","))
+                        .map(column -> column.trim().split("\\s+")[0].replace("`", ""))
+                        .toList());
+            }
+            indexes.put(tableMatcher.group(1), tableIndexes);
+        }
+        return indexes;
+    }
+
+    // 索引前缀中被条件绑定的列数, 等值列之后可以再接一个范围列
+    private static int boundColumns(List<String> index, Predicate predicate) {
+        var bound = 0;
+        for (String column : index) {
+            if (predicate.equalColumns().contains(column)) {
+                bound++;
+            } else {
+                if (column.equals(predicate.rangeColumn())) {
+                    bound++;
+                }
+                break;
+            }
+        }
+        return bound;
+    }
+
+    // 索引的前缀列全部被等值条件覆盖, 且不只是 tenant_id
+    private static boolean usable(List<String> index, Predicate predicate) {
+        var bound = boundColumns(index, predicate);
+        return bound > 0 && !(bound == 1 && "tenant_id".equals(index.get(0)));
+    }
+
+    // 报表 mapper 中每个查询条件片段对主表 m 始终绑定的等值列 (第一个 <if> 之前) 和可选的范围列
+    private static List<Predicate> parseReportPredicates(String xml) {
+        var mainTables = new ArrayList<String>();
+        var tableMatcher = MAIN_TABLE_PATTERN.matcher(xml);
+        while (tableMatcher.find()) {
+            if (!mainTables.contains(tableMatcher.group(1))) {
+                mainTables.add(tableMatcher.group(1));
+            }
+        }
+        var predicates = new ArrayList<Predicate>();
+        var conditionMatcher = CONDITION_PATTERN.matcher(xml);
+        while (conditionMatcher.find()) {
+            var condition = conditionMatcher.group(2);
+            var always = condition.contains("<if") ? condition.substring(0, condition.indexOf("<if")) : condition;
+            var equalColumns = new ArrayList<>(List.of("tenant_id"));
+            var equalMatcher = MAIN_EQUAL_PATTERN.matcher(always);
+            while (equalMatcher.find()) {
+                equalColumns.add(equalMatcher.group(1));
+            }
+            var rangeMatcher = MAIN_RANGE_PATTERN.matcher(condition);
+            var rangeColumn = rangeMatcher.find() ? rangeMatcher.group(1) : null;
+            for (String table : mainTables) {
+                predicates.add(new Predicate(table, equalColumns, rangeColumn));
+            }
+        }
+        return predicates;
+    }
+
+    @Test
+    public void testHotQueriesHaveIndex() throws IOException {
+        var sql = Files.readString(locate("mysql-scripts/eairp.sql"), StandardCharsets.UTF_8);
+        var indexes = parseIndexes(sql);
+
+        var missing = new ArrayList<String>();
+        for (Predicate predicate : HOT_PREDICATES) {
+            var tableIndexes = indexes.get(predicate.table());
+            Assertions.assertNotNull(tableIndexes, "table not found: " + predicate.table());
+            if (tableIndexes.stream().noneMatch(index -> usable(index, predicate))) {
+                missing.add(predicate.table() + " " + predicate.equalColumns());
+            }
+        }
+        Assertions.assertTrue(missing.isEmpty(), "full scan for: " + missing);
+    }
+
+    @Test
+    public void testReportConditionsHaveIndex() throws IOException {
+        var sql = Files.readString(locate("mysql-scripts/eairp.sql"), StandardCharsets.UTF_8);
+        var xml = Files.readString(locate("core/dao/src/main/resources/mapper_xml/receipt/ReceiptReportMapper.xml"), StandardCharsets.UTF_8);
+        var indexes = parseIndexes(sql);
+        var predicates = parseReportPredicates(xml);
+        Assertions.assertFalse(predicates.isEmpty());
+
+        // 报表条件绑定的等值列和范围列都要落在同一个索引的前缀上
+        var missing = new ArrayList<String>();
+        for (Predicate predicate : predicates) {
+            var expected = predicate.equalColumns().size() + (predicate.rangeColumn() == null ? 0 : 1);
+            if (indexes.get(predicate.table()).stream().noneMatch(index -> boundColumns(index, predicate) == expected)) {
+                missing.add(predicate.table() + " " + predicate.equalColumns() + " " + predicate.rangeColumn());
+            }
+        }
+        Assertions.assertTrue(missing.isEmpty(), "no index for report condition: " + missing);
+    }
+
+    @Test
+    public void testUpgradeScriptMatchesSchema() throws IOException {
+        var sql = Files.readString(locate("mysql-scripts/eairp.sql"), StandardCharsets.UTF_8);
+        var upgrade = Files.readString(locate("mysql-scripts/upgrade/V3__secondary_indexes.sql"), StandardCharsets.UTF_8);
+
+        var matcher = UPGRADE_INDEX_PATTERN.matcher(upgrade);
+        var names = new ArrayList<String>();
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        Assertions.assertFalse(names.isEmpty());
+        Assertions.assertEquals(names.size(), Set.copyOf(names).size());
+        for (String name : names) {
+            Assertions.assertTrue(sql.contains("INDEX `" + name + "`("), "index missing in eairp.sql: " + name);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import com.wansenai.service.common.SequenceBlockAllocator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SequenceBlockAllocatorTest {
+
+    // 模拟 sys_sequence 表, 每个序列一行
+    private final Map<String, Long> table = new ConcurrentHashMap<>();
+
+    private final AtomicInteger roundTrips = new AtomicInteger();
+
+    private long reserve(String key, long blockSize) {
+        roundTrips.incrementAndGet();
+        return table.merge(key, 999L + blockSize, (current, ignored) -> current + blockSize);
+    }
+
+    @Test
+    public void testNodesNeverIssueTheSameValue() throws InterruptedException {
+        // 两个节点共享同一张表
+        var nodes = List.of(new SequenceBlockAllocator<String>(50), new SequenceBlockAllocator<String>(50));
+        var issued = ConcurrentHashMap.<Long>newKeySet();
+        var duplicates = new AtomicInteger();
+
+        var threads = 16;
+        var valuesPerThread = 5_000;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            var node = nodes.get(t % 2);
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < valuesPerThread; i++) {
+                    if (!issued.add(node.next("0:product_bar_code", this::reserve))) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        Assertions.assertEquals(0, duplicates.get());
+        Assertions.assertEquals(threads * valuesPerThread, issued.size());
+        Assertions.assertTrue(issued.stream().allMatch(value -> value >= 1000L));
+        // 每50个号只访问一次数据库
+        Assertions.assertTrue(roundTrips.get() <= threads * valuesPerThread / 50 + 2, "round trips " + roundTrips.get());
+    }
+
+    @Test
+    public void testSequencesAreIndependent() {
+        var allocator = new SequenceBlockAllocator<String>(10);
+        Assertions.assertEquals(1000L, allocator.next("0:product_bar_code", this::reserve));
+        Assertions.assertEquals(1000L, allocator.next("1:product_bar_code", this::reserve));
+        Assertions.assertEquals(1001L, allocator.next("0:product_bar_code", this::reserve));
+
+        // 重启后丢弃未用完的号段, 跳号但不重复
+        var restarted = new SequenceBlockAllocator<String>(10);
+        Assertions.assertEquals(1010L, restarted.next("0:product_bar_code", this::reserve));
+        Assertions.assertEquals(3, restarted.getReservationCount() + allocator.getReservationCount());
+    }
+}
@@ -0,0 +1,81 @@
+import com.wansenai.middleware.oss.ObjectStorage;
+import com.wansenai.middleware.oss.ObjectStorageProvider;
+import com.wansenai.middleware.oss.SharedObjectStorage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 存储客户端替换后, 旧客户端在使用中的上传结束后才关闭
+ */
+public class SharedObjectStorageTest {
+
+    @TempDir
+    Path root;
+
+    private static class CountingStorage implements ObjectStorage {
+
+        private int closes;
+
+        @Override
+        public String upload(String key, InputStream in, long size, String contentType) {
+            if (closes > 0) {
+                throw new IllegalStateException("closed");
+            }
+            return "/files/" + key;
+        }
+
+        @Override
+        public String getUrl(String key) {
+            return "/files/" + key;
+        }
+
+        @Override
+        public boolean delete(String key) {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closes++;
+        }
+    }
+
+    @Test
+    public void testClosesAfterLastLease() throws IOException {
+        var client = new CountingStorage();
+        var shared = new SharedObjectStorage(client);
+        var first = shared.acquire();
+        var second = shared.acquire();
+        Assertions.assertEquals(3, shared.getReferenceCount());
+
+        // 提供者换用新客户端, 上传中的请求继续使用旧客户端
+        shared.release();
+        Assertions.assertEquals("/files/a.png", first.upload("a.png", new ByteArrayInputStream(new byte[1]), 1, null));
+        first.close();
+        first.close();
+        Assertions.assertEquals(0, client.closes);
+        Assertions.assertEquals("/files/b.png", second.upload("b.png", new ByteArrayInputStream(new byte[1]), 1, null));
+
+        second.close();
+        Assertions.assertEquals(1, client.closes);
+        Assertions.assertEquals(0, shared.getReferenceCount());
+        Assertions.assertThrows(IllegalStateException.class, shared::acquire);
+    }
+
+    @Test
+    public void testProviderLeaseOutlivesShutdown() throws Exception {
+        var provider = new ObjectStorageProvider(null, "local", 1, root.toString(), "/files");
+        try (var storage = provider.getStorage()) {
+            provider.shutdown();
+            Assertions.assertEquals("/files/a.txt", storage.upload("a.txt", new ByteArrayInputStream(new byte[3]), 3, null));
+        }
+        Assertions.assertEquals(3, Files.size(root.resolve("a.txt")));
+    }
+}
@@ -0,0 +1,110 @@
+import com.wansenai.dto.report.QueryRetailReportDTO;
+import com.wansenai.entities.receipt.ReceiptRetailSub;
+import com.wansenai.service.receipt.impl.ReceiptServiceImpl;
+import com.wansenai.vo.report.RetailReportVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of ReceiptServiceImpl.getRetailStatistics, grouping sub rows by barcode and warehouse through the
+ * production code path, against the previous noneMatch scan over the already grouped rows.
+ * <p>
+ * Lives in the api test sources like JWTInterceptorBenchmark, using the test scoped JMH dependency of core/api,
+ * so it can reuse the fixtures of SummaryAggregationTest. It is skipped by a normal build and only runs with
+ * the eairp.benchmark property:
+ * <pre>
+ * mvn -pl core/api test -Dtest=SummaryAggregationBenchmark -Deairp.benchmark=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryAggregationBenchmark {
+
+    // 明细行数, 每张单据 10 行
+    @Param({"2000", "20000"})
+    public int rows;
+
+    private List<ReceiptRetailSub> subs;
+
+    private ReceiptServiceImpl receiptService;
+
+    private QueryRetailReportDTO query;
+
+    @Setup
+    public void setup() {
+        var data = SummaryAggregationTest.createRetailData(rows / 10, 10, rows / 10);
+        subs = data.subs();
+        // 查询语句只在测试中检查, 基准测试中丢弃
+        receiptService = SummaryAggregationTest.createReceiptService(data, new ArrayList<>() {
+            @Override
+            public boolean add(String statement) {
+                return true;
+            }
+        });
+        query = SummaryAggregationTest.query(data.mains().size());
+    }
+
+    @Benchmark
+    public List<RetailReportVO> keyedRetailStatistics() {
+        return receiptService.getRetailStatistics(query).getData().getRecords();
+    }
+
+    /**
+     * 旧实现: 每行明细都扫描一遍已有的汇总结果
+     */
+    @Benchmark
+    public List<RetailReportVO> scanRetailStatistics() {
+        var retailVos = new ArrayList<RetailReportVO>();
+        for (ReceiptRetailSub sub : subs) {
+            var warehouseName = "仓库" + sub.getWarehouseId();
+            if (retailVos.stream().noneMatch(vo -> sub.getProductBarcode().equals(vo.getProductBarcode()) && warehouseName.equals(vo.getWarehouseName()))) {
+                retailVos.add(RetailReportVO.builder()
+                        .productBarcode(sub.getProductBarcode())
+                        .warehouseName(warehouseName)
+                        .retailAmount(sub.getTotalAmount())
+                        .retailNumber(sub.getProductNumber())
+                        .build());
+            } else {
+                retailVos.forEach(vo -> {
+                    if (sub.getProductBarcode().equals(vo.getProductBarcode()) && warehouseName.equals(vo.getWarehouseName())) {
+                        vo.setRetailAmount(Optional.ofNullable(vo.getRetailAmount()).orElse(BigDecimal.ZERO).add(sub.getTotalAmount()));
+                        vo.setRetailNumber(Optional.ofNullable(vo.getRetailNumber()).orElse(0) + sub.getProductNumber());
+                    }
+                });
+            }
+        }
+        return retailVos;
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "eairp.benchmark", matches = "true")
+    public void runBenchmark() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SummaryAggregationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
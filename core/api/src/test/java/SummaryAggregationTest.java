@@ -0,0 +1,181 @@
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.wansenai.dto.report.QueryRetailReportDTO;
+import com.wansenai.entities.basic.Member;
+import com.wansenai.entities.product.Product;
+import com.wansenai.entities.receipt.ReceiptRetailMain;
+import com.wansenai.entities.receipt.ReceiptRetailSub;
+import com.wansenai.entities.warehouse.Warehouse;
+import com.wansenai.mappers.receipt.ReceiptRetailMainMapper;
+import com.wansenai.mappers.receipt.ReceiptRetailSubMapper;
+import com.wansenai.service.basic.MemberService;
+import com.wansenai.service.common.CommonServiceImpl;
+import com.wansenai.service.product.ProductService;
+import com.wansenai.service.receipt.ReceiptRetailService;
+import com.wansenai.service.receipt.ReceiptRetailSubService;
+import com.wansenai.service.receipt.impl.ReceiptServiceImpl;
+import com.wansenai.service.warehouse.WarehouseService;
+import com.wansenai.vo.report.RetailReportVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * 通过 ReceiptServiceImpl.getRetailStatistics 驱动零售统计的按条码和仓库汇总, 单据和明细来自内存中的 mapper
+ */
+@Slf4j
+public class SummaryAggregationTest {
+
+    static {
+        var assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, ReceiptRetailMain.class);
+        TableInfoHelper.initTableInfo(assistant, ReceiptRetailSub.class);
+    }
+
+    record RetailData(List<ReceiptRetailMain> mains, List<ReceiptRetailSub> subs) {
+    }
+
+    // 每张单据 subsPerReceipt 行明细, 条码在 products 个商品中随机, 仓库在 3 个中随机, 每 5 张单据一张退货
+    static RetailData createRetailData(int receipts, int subsPerReceipt, int products) {
+        var random = new Random(42);
+        var mains = new ArrayList<ReceiptRetailMain>();
+        var subs = new ArrayList<ReceiptRetailSub>();
+        for (long mainId = 1; mainId <= receipts; mainId++) {
+            mains.add(ReceiptRetailMain.builder()
+                    .id(mainId)
+                    .memberId(mainId % 10 + 1)
+                    .type(mainId % 5 == 0 ? "入库" : "出库")
+                    .subType(mainId % 5 == 0 ? "零售退货" : "零售出库")
+                    .build());
+            for (int i = 0; i < subsPerReceipt; i++) {
+                var productId = (long) random.nextInt(products) + 1;
+                subs.add(ReceiptRetailSub.builder()
+                        .id(mainId * 1000 + i)
+                        .receiptMainId(mainId)
+                        .productId(productId)
+                        .productBarcode("690" + productId)
+                        .warehouseId((long) random.nextInt(3) + 1)
+                        .productNumber(random.nextInt(10) + 1)
+                        .totalAmount(BigDecimal.valueOf(random.nextInt(10000), 2))
+                        .build());
+            }
+        }
+        return new RetailData(mains, subs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SummaryAggregationTest.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    // IService 的 lambdaQuery 等默认方法走真实实现, 最终调用到 mapper
+    private static <S> S service(Class<S> type, Class<?> entityClass, Object mapper) {
+        return proxy(type, (proxy, method, args) -> switch (method.getName()) {
+            case "getBaseMapper" -> mapper;
+            case "getEntityClass" -> entityClass;
+            default -> {
+                if (!method.isDefault()) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                yield InvocationHandler.invokeDefault(proxy, method, args);
+            }
+        });
+    }
+
+    private static <S> S dimension(Class<S> type, String table, List<String> statements, Function<Long, Object> rowFactory) {
+        return proxy(type, (proxy, method, args) -> {
+            statements.add(table + "." + method.getName());
+            if (!method.getName().equals("listByIds")) {
+                throw new UnsupportedOperationException(table + "." + method.getName());
+            }
+            return ((Collection<?>) args[0]).stream().map(id -> rowFactory.apply((Long) id)).toList();
+        });
+    }
+
+    static ReceiptServiceImpl createReceiptService(RetailData data, List<String> statements) {
+        var mainMapper = proxy(ReceiptRetailMainMapper.class, (proxy, method, args) -> {
+            statements.add("receipt_retail_main." + method.getName());
+            if (!method.getName().equals("selectPage")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            @SuppressWarnings("unchecked")
+            var page = (IPage<ReceiptRetailMain>) args[0];
+            page.setRecords(data.mains());
+            page.setTotal(data.mains().size());
+            return page;
+        });
+        var subMapper = proxy(ReceiptRetailSubMapper.class, (proxy, method, args) -> {
+            statements.add("receipt_retail_sub." + method.getName());
+            if (!method.getName().equals("selectList")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return data.subs();
+        });
+        var commonService = new CommonServiceImpl(null, null, null, null,
+                dimension(MemberService.class, "member", statements, id -> Member.builder().id(id).memberName("会员" + id).build()),
+                null, null,
+                dimension(ProductService.class, "product", statements, id -> Product.builder().id(id).productName("商品" + id).build()),
+                null, null, null,
+                dimension(WarehouseService.class, "warehouse", statements, id -> Warehouse.builder().id(id).warehouseName("仓库" + id).build()),
+                null, null, null, null, null, null, null, null, null, null, null, null);
+        return new ReceiptServiceImpl(service(ReceiptRetailService.class, ReceiptRetailMain.class, mainMapper),
+                service(ReceiptRetailSubService.class, ReceiptRetailSub.class, subMapper),
+                null, null, null, null, null, null, null, null, null, null, null, commonService, null, null, null, null, null);
+    }
+
+    static QueryRetailReportDTO query(int pageSize) {
+        var query = new QueryRetailReportDTO();
+        query.setPage(1);
+        query.setPageSize(pageSize);
+        return query;
+    }
+
+    @Test
+    public void testRetailStatisticsGroupsByBarcodeAndWarehouse() {
+        var data = createRetailData(2000, 10, 500);
+        var statements = new ArrayList<String>();
+        var receiptService = createReceiptService(data, statements);
+
+        var start = System.nanoTime();
+        var records = receiptService.getRetailStatistics(query(data.mains().size())).getData().getRecords();
+        var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("retail statistics: {} sub rows into {} groups in {} ms, statements {}", data.subs().size(), records.size(), elapsedMillis, statements);
+
+        // 一次分页查询, 一次明细查询, 仓库/商品/会员各一次批量查询
+        Assertions.assertEquals(List.of("receipt_retail_main.selectPage", "receipt_retail_sub.selectList",
+                "warehouse.listByIds", "product.listByIds", "member.listByIds"), statements);
+
+        // 分组顺序为条码和仓库第一次出现的顺序
+        var expectedKeys = data.subs().stream().map(sub -> sub.getProductBarcode() + "|仓库" + sub.getWarehouseId()).distinct().toList();
+        Assertions.assertEquals(expectedKeys, records.stream().map(vo -> vo.getProductBarcode() + "|" + vo.getWarehouseName()).toList());
+
+        var refundMainIds = data.mains().stream().filter(main -> main.getSubType().equals("零售退货")).map(ReceiptRetailMain::getId).toList();
+        for (RetailReportVO vo : records) {
+            var groupSubs = data.subs().stream()
+                    .filter(sub -> vo.getProductBarcode().equals(sub.getProductBarcode()) && vo.getWarehouseName().equals("仓库" + sub.getWarehouseId()))
+                    .toList();
+            var retailSubs = groupSubs.stream().filter(sub -> !refundMainIds.contains(sub.getReceiptMainId())).toList();
+            var refundSubs = groupSubs.stream().filter(sub -> refundMainIds.contains(sub.getReceiptMainId())).toList();
+            var retailAmount = retailSubs.stream().map(ReceiptRetailSub::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            var refundAmount = refundSubs.stream().map(ReceiptRetailSub::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            Assertions.assertEquals(0, retailAmount.compareTo(vo.getRetailAmount()));
+            Assertions.assertEquals(0, refundAmount.compareTo(vo.getRetailRefundAmount()));
+            Assertions.assertEquals(0, retailAmount.subtract(refundAmount).compareTo(vo.getRetailLastAmount()));
+            Assertions.assertEquals(retailSubs.stream().mapToInt(ReceiptRetailSub::getProductNumber).sum(), vo.getRetailNumber());
+            Assertions.assertEquals(refundSubs.stream().mapToInt(ReceiptRetailSub::getProductNumber).sum(), vo.getRetailRefundNumber());
+            Assertions.assertEquals("商品" + vo.getProductBarcode().substring(3), vo.getProductName());
+        }
+        Assertions.assertTrue(records.size() <= 500 * 3);
+    }
+}
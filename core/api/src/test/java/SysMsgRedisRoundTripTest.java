@@ -0,0 +1,215 @@
+import com.alibaba.fastjson.JSONObject;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.wansenai.dto.system.SystemMessageDTO;
+import com.wansenai.entities.receipt.ReceiptRetailMain;
+import com.wansenai.entities.system.SysMsg;
+import com.wansenai.mappers.receipt.ReceiptRetailMainMapper;
+import com.wansenai.service.receipt.ReceiptStatisticsService;
+import com.wansenai.service.receipt.ReceiptSubCache;
+import com.wansenai.service.receipt.impl.ReceiptRetailServiceImpl;
+import com.wansenai.service.system.impl.SysMsgServiceImpl;
+import com.wansenai.service.user.ISysUserService;
+import com.wansenai.utils.MessageUtil;
+import com.wansenai.utils.constants.CommonConstants;
+import com.wansenai.utils.constants.MessageConstants;
+import com.wansenai.utils.redis.CompactRedisSerializer;
+import com.wansenai.utils.redis.RedisSerializationFormat;
+import com.wansenai.utils.redis.RedisUtil;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 消息经 SysMsgServiceImpl 写入redis列表, 读取后是未带类型信息的Map, 再由零售出库审核按单据编号找到并删除
+ */
+public class SysMsgRedisRoundTripTest {
+
+    private static final Long USER_ID = 7L;
+
+    private static final Long RECEIPT_ID = 100L;
+
+    private static final String RECEIPT_NUMBER = "LSCK2026101800001";
+
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(RedisSerializationFormat.SMILE,
+            JsonMapper.builder()
+                    .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .build(),
+            SmileMapper.builder()
+                    .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .build(),
+            1024);
+
+    // redis列表按序列化后的字节存储, LREM 也按字节比较
+    private final Map<String, List<byte[]>> lists = new HashMap<>();
+
+    private final RedisUtil redisUtil = new RedisUtil() {
+        @Override
+        public boolean lSet(String key, Object value, long time) {
+            lists.computeIfAbsent(key, k -> new ArrayList<>()).add(serializer.serialize(value));
+            return true;
+        }
+
+        @Override
+        public List<Object> lGet(String key, long start, long end) {
+            return lists.getOrDefault(key, List.of()).stream().map(serializer::deserialize).toList();
+        }
+
+        @Override
+        public long lRemove(String key, long count, Object value) {
+            var bytes = serializer.serialize(value);
+            var list = lists.getOrDefault(key, new ArrayList<>());
+            for (int i = 0; i < list.size(); i++) {
+                if (Arrays.equals(bytes, list.get(i))) {
+                    list.remove(i);
+                    return 1;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public <T> T convertValue(Object value, Class<T> type) {
+            return serializer.convertValue(value, type);
+        }
+
+        @Override
+        public void convertAndSend(String channel, Object message) {
+        }
+    };
+
+    // sys_msg 表
+    private final Map<Long, SysMsg> messages = new HashMap<>();
+
+    private final SysMsgServiceImpl messageService = new SysMsgServiceImpl(redisUtil, null, null) {
+        @Override
+        public boolean save(SysMsg entity) {
+            messages.put(entity.getId(), entity);
+            return true;
+        }
+
+        @Override
+        public boolean saveBatch(Collection<SysMsg> entityList, int batchSize) {
+            entityList.forEach(this::save);
+            return true;
+        }
+
+        @Override
+        public boolean removeByIds(Collection<?> list) {
+            list.forEach(messages::remove);
+            return true;
+        }
+    };
+
+    @BeforeAll
+    public static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ReceiptRetailMain.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, handler);
+    }
+
+    private ReceiptRetailServiceImpl retailService() throws ReflectiveOperationException {
+        var mainMapper = proxy(ReceiptRetailMainMapper.class, (proxy, method, args) -> switch (method.getName()) {
+            case "selectList" -> List.of(ReceiptRetailMain.builder()
+                    .id(RECEIPT_ID)
+                    .receiptNumber(RECEIPT_NUMBER)
+                    .createBy(USER_ID)
+                    .deleteFlag(CommonConstants.NOT_DELETED)
+                    .build());
+            case "update" -> 1;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        var userService = proxy(ISysUserService.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getUserSystemLanguage" -> "zh_CN";
+            case "getCurrentUserId" -> 1L;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        var statisticsService = proxy(ReceiptStatisticsService.class, (proxy, method, args) -> null);
+        var service = new ReceiptRetailServiceImpl(mainMapper, null, null, userService, null, null, null, null, null,
+                messageService, redisUtil, statisticsService, null, new ReceiptSubCache(redisUtil, new RedisMessageListenerContainer()), null, null);
+        for (Class<?> type = service.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                var field = type.getDeclaredField("baseMapper");
+                field.setAccessible(true);
+                field.set(service, mainMapper);
+                return service;
+            } catch (NoSuchFieldException ignored) {
+                // 字段在父类中
+            }
+        }
+        throw new NoSuchFieldException("baseMapper");
+    }
+
+    private SystemMessageDTO message(String description) {
+        return SystemMessageDTO.builder()
+                .userId(USER_ID)
+                .type("notice")
+                .msgTitle("零售出库")
+                .msgContent(description)
+                .description(description)
+                .build();
+    }
+
+    private List<SysMsg> cachedMessages() {
+        return redisUtil.lGet(MessageConstants.SYSTEM_MESSAGE_PREFIX + USER_ID, 0, -1).stream()
+                .map(messageService::toSysMsg)
+                .toList();
+    }
+
+    @Test
+    public void testStoredMessageIsReadAsMap() {
+        messageService.insertMessage(message(MessageUtil.RetailShipmentsZhCnDescription(RECEIPT_NUMBER)));
+
+        var stored = redisUtil.lGet(MessageConstants.SYSTEM_MESSAGE_PREFIX + USER_ID, 0, -1);
+        Assertions.assertEquals(1, stored.size());
+        Assertions.assertInstanceOf(Map.class, stored.getFirst());
+        // 旧的解析方式把Map的toString当作JSON, 取不到消息
+        Assertions.assertThrows(RuntimeException.class, () -> JSONObject.parseObject(stored.getFirst().toString(), SysMsg.class));
+
+        var msg = messageService.toSysMsg(stored.getFirst());
+        Assertions.assertEquals(messages.values().iterator().next(), msg);
+    }
+
+    @Test
+    public void testAuditRemovesPendingMessage() throws ReflectiveOperationException {
+        messageService.insertMessage(message(MessageUtil.RetailShipmentsZhCnDescription(RECEIPT_NUMBER)));
+        messageService.insertMessage(message(MessageUtil.RetailShipmentsZhCnDescription("LSCK2026101800002")));
+        var pendingId = cachedMessages().getFirst().getId();
+        var otherId = cachedMessages().getLast().getId();
+        // 旧版本以fastjson字符串写入的消息
+        var legacy = new SysMsg().setId(1L).setUserId(USER_ID).setDescription("零售出库单据编号：LSCK2026101800003");
+        lists.get(MessageConstants.SYSTEM_MESSAGE_PREFIX + USER_ID).add(serializer.serialize(JSONObject.toJSONString(legacy)));
+
+        retailService().updateRetailShipmentsStatus(List.of(RECEIPT_ID), CommonConstants.REVIEWED);
+
+        // 待审核消息从redis和数据库中删除, 其他消息保留, 并写入审核通过的消息
+        var cached = cachedMessages();
+        Assertions.assertEquals(3, cached.size());
+        Assertions.assertFalse(messages.containsKey(pendingId));
+        Assertions.assertTrue(cached.stream().noneMatch(msg -> msg.getId().equals(pendingId)));
+        Assertions.assertEquals(otherId, cached.get(0).getId());
+        Assertions.assertEquals(legacy.getDescription(), cached.get(1).getDescription());
+        Assertions.assertEquals(MessageUtil.RetailShipmentsAuditedZhCnTemplate(RECEIPT_NUMBER), cached.get(2).getMsgContent());
+        Assertions.assertTrue(messages.containsKey(cached.get(2).getId()));
+    }
+}
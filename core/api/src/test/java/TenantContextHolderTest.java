@@ -0,0 +1,58 @@
+import com.wansenai.utils.tenant.TenantContextHolder;
+import com.wansenai.utils.tenant.TenantTaskDecorator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TenantContextHolderTest {
+
+    @AfterEach
+    public void clear() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testTenantIsCarriedToAsyncTask() {
+        TenantContextHolder.setTenantId(1001L);
+        var tenantId = CompletableFuture.supplyAsync(TenantContextHolder.wrap(TenantContextHolder::getTenantId)).join();
+        Assertions.assertEquals(1001L, tenantId);
+
+        // 未包装的任务拿不到租户
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            Assertions.assertNull(CompletableFuture.supplyAsync(TenantContextHolder::getTenantId, executor).join());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTaskDecoratorRestoresWorkerThread() throws InterruptedException {
+        var executor = Executors.newSingleThreadExecutor();
+        var decorator = new TenantTaskDecorator();
+        var seen = new AtomicLong();
+        var after = new AtomicLong(-1L);
+
+        TenantContextHolder.setTenantId(2002L);
+        executor.execute(decorator.decorate(() -> seen.set(TenantContextHolder.getTenantId())));
+        executor.execute(() -> after.set(TenantContextHolder.getTenantId() == null ? 0L : TenantContextHolder.getTenantId()));
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(2002L, seen.get());
+        Assertions.assertEquals(0L, after.get());
+    }
+
+    @Test
+    public void testCallWithTenantRestoresPrevious() {
+        TenantContextHolder.setTenantId(1L);
+        var inner = TenantContextHolder.callWithTenant(2L, TenantContextHolder::getTenantId);
+        Assertions.assertEquals(2L, inner);
+        Assertions.assertEquals(1L, TenantContextHolder.getTenantId());
+    }
+}
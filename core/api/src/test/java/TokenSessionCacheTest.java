@@ -0,0 +1,80 @@
+import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.redis.TokenSessionCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TokenSessionCacheTest {
+
+    private final Map<String, Object> store = new HashMap<>();
+
+    private final AtomicInteger redisCalls = new AtomicInteger();
+
+    private final RedisUtil redisUtil = new RedisUtil() {
+        @Override
+        public List<Object> multiGet(Collection<String> keys) {
+            redisCalls.incrementAndGet();
+            return keys.stream().map(store::get).toList();
+        }
+
+        @Override
+        public void convertAndSend(String channel, Object message) {
+        }
+    };
+
+    private void login(String userName, String token, long userId, long tenantId) {
+        store.put(userName + ":token", token);
+        store.put(token + ":userName", userName);
+        store.put(token + ":userId", String.valueOf(userId));
+        store.put(token + ":tenantId", String.valueOf(tenantId));
+    }
+
+    @Test
+    public void testSessionIsLoadedOnce() {
+        var cache = new TokenSessionCache(redisUtil);
+        login("admin", "token-a", 1L, 0L);
+
+        for (int i = 0; i < 100; i++) {
+            var session = cache.getActiveSession("token-a", "admin");
+            Assertions.assertTrue(session.isActive());
+            Assertions.assertEquals(1L, cache.getSession("token-a").getUserId());
+            Assertions.assertEquals(0L, cache.getSession("token-a").getTenantId());
+        }
+        Assertions.assertEquals(1, redisCalls.get());
+    }
+
+    @Test
+    public void testReLoginInvalidatesOldToken() {
+        var cache = new TokenSessionCache(redisUtil);
+        login("jack", "token-a", 2L, 10L);
+        Assertions.assertTrue(cache.getActiveSession("token-a", "jack").isActive());
+
+        // 重新登录生成新token, 旧token被挤下线
+        login("jack", "token-b", 2L, 10L);
+        cache.invalidate("jack");
+
+        var oldSession = cache.getActiveSession("token-a", "jack");
+        Assertions.assertFalse(oldSession.isActive());
+        Assertions.assertEquals("token-b", oldSession.getActiveToken());
+        Assertions.assertTrue(cache.getActiveSession("token-b", "jack").isActive());
+    }
+
+    @Test
+    public void testLogoutInvalidatesToken() {
+        var cache = new TokenSessionCache(redisUtil);
+        login("rose", "token-c", 3L, 10L);
+        Assertions.assertTrue(cache.getActiveSession("token-c", "rose").isActive());
+
+        store.remove("rose:token");
+        cache.invalidate("token-c");
+
+        var session = cache.getActiveSession("token-c", "rose");
+        Assertions.assertNull(session.getActiveToken());
+        Assertions.assertFalse(session.isActive());
+    }
+}
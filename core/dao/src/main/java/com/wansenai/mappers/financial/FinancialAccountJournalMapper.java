@@ -0,0 +1,28 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.mappers.financial;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.wansenai.entities.financial.FinancialAccountJournal;
+
+import java.util.List;
+
+/**
+ * <p>
+ * 账户余额流水 Mapper 接口
+ * </p>
+ */
+public interface FinancialAccountJournalMapper extends BaseMapper<FinancialAccountJournal> {
+
+    int insertBatch(List<FinancialAccountJournal> journalList);
+}
@@ -12,9 +12,12 @@
  */
 package com.wansenai.mappers.financial;
 
+import com.wansenai.bo.financial.AccountChangeBO;
 import com.wansenai.entities.financial.FinancialAccount;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
+import java.util.List;
+
 /**
  * <p>
  * 账户信息 Mapper 接口
@@ -22,4 +25,9 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface FinancialAccountMapper extends BaseMapper<FinancialAccount> {
 
+    // 相对增减余额(current_amount + amount)，每个账户一条变动
+    int increaseCurrentAmount(List<AccountChangeBO> changes);
+
+    // 按余额流水重算账户余额
+    int rebuildCurrentAmount(Long accountId);
 }
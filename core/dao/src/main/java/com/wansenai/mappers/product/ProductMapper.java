@@ -12,9 +12,14 @@
  */
 package com.wansenai.mappers.product;
 
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import com.wansenai.bo.product.ProductSummaryBO;
 import com.wansenai.entities.product.Product;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * <p>
  * 产品表 Mapper 接口
@@ -22,4 +27,10 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface ProductMapper extends BaseMapper<Product> {
 
+    // 所有有商品的租户, 启动时按租户重建检索索引, 不拼租户条件
+    @InterceptorIgnore(tenantLine = "true")
+    List<Long> getProductTenantIds();
+
+    // 一次查出这些商品的分类名称, 第一个SKU(id最小)的条码价格和该SKU的库存合计
+    List<ProductSummaryBO> getProductSummaries(Collection<Long> productIds);
 }
@@ -21,4 +21,5 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface ProductStockKeepUnitMapper extends BaseMapper<ProductStockKeepUnit> {
 
+    Long getMaxNumericBarCode();
 }
@@ -14,13 +14,18 @@ package com.wansenai.mappers.product;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.wansenai.bo.product.StockChangeBO;
 import com.wansenai.dto.product.QueryProductStockKeepUnitDTO;
 import com.wansenai.dto.report.QueryProductStockDTO;
 import com.wansenai.entities.product.ProductStock;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.wansenai.vo.product.ProductStockKeepUnitVO;
 import com.wansenai.vo.report.ProductStockSkuVO;
+import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,14 +35,26 @@ import java.util.List;
  */
 public interface ProductStockMapper extends BaseMapper<ProductStock> {
 
-    IPage<ProductStockKeepUnitVO> getProductSkuList(IPage<QueryProductStockKeepUnitDTO> pageObject, QueryProductStockKeepUnitDTO queryProductStockKeepUnitDTO);
+    // searchProductIds/searchSkuIds为关键字检索索引的命中结果, 都为null时按关键字 LIKE 查询
+    IPage<ProductStockKeepUnitVO> getProductSkuList(IPage<QueryProductStockKeepUnitDTO> pageObject, QueryProductStockKeepUnitDTO queryProductStockKeepUnitDTO,
+                                                    Collection<Long> searchProductIds, Collection<Long> searchSkuIds);
 
     ProductStockKeepUnitVO getProductSkuByBarCode(String barCode, Long warehouseId);
 
+    // 按条码和仓库批量查询, 返回条码集合与仓库集合的全部组合中存在的库存行
+    List<ProductStockKeepUnitVO> getProductSkuByBarCodes(@Param("barCodes") Collection<String> barCodes, @Param("warehouseIds") Collection<Long> warehouseIds);
+
     ProductStockKeepUnitVO getProductSkuDetail(Long productId, Long warehouseId, String barCode);
 
     Page<ProductStockSkuVO> getProductStock(IPage<QueryProductStockDTO> pageObject, QueryProductStockDTO queryProductStockDTO);
 
+    // 历史库存: snapshotDate 的快照加上单据日期在 [startTime, endTime) 之间以及快照生成后补录的库存流水, snapshotDate 为空时从头累加流水, endTime 为空时只读快照
+    Page<ProductStockSkuVO> getProductStockAt(IPage<QueryProductStockDTO> pageObject,
+                                              @Param("queryProductStockDTO") QueryProductStockDTO queryProductStockDTO,
+                                              @Param("snapshotDate") LocalDate snapshotDate,
+                                              @Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime);
+
     List<ProductStockSkuVO> getProductStockListByTerms(QueryProductStockDTO queryProductStockDTO);
 
     List<ProductStockSkuVO> getProductStockList();
@@ -46,4 +63,19 @@ public interface ProductStockMapper extends BaseMapper<ProductStock> {
     Boolean productStockExist(Long productSkuId, Long warehouseId);
 
     Boolean saveBatch(List<ProductStock> productStockList);
+
+    // 按条码和仓库批量查询库存行
+    List<StockChangeBO> getStockByBarCodes(List<StockChangeBO> changes);
+
+    // 相对增减库存(current_stock_quantity + quantity)
+    int increaseStockQuantity(@Param("changes") List<StockChangeBO> changes);
+
+    // 查询库存行的当前数量, 作为流水的结存数量
+    List<StockChangeBO> getStockBalances(@Param("stockIds") Collection<Long> stockIds);
+
+    // 当前库存与流水合计不一致的库存行, quantity 为差额
+    List<StockChangeBO> getUnrecordedStockChanges(@Param("stockIds") Collection<Long> stockIds);
+
+    // 回放库存流水重算当前库存, warehouseId 为空时重算全部仓库, 返回被修正的库存行数
+    int rebuildStockQuantity(@Param("warehouseId") Long warehouseId);
 }
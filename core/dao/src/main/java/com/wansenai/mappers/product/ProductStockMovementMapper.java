@@ -0,0 +1,33 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.mappers.product;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.wansenai.entities.product.ProductStockMovement;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * 库存变动流水 Mapper 接口
+ * </p>
+ */
+public interface ProductStockMovementMapper extends BaseMapper<ProductStockMovement> {
+
+    int insertBatch(List<ProductStockMovement> movementList);
+
+    // 按单据主表id查询单据日期(零售, 销售, 采购, 仓库单据), 只返回 receiptMainId 和 receiptDate
+    List<ProductStockMovement> getReceiptDates(@Param("receiptMainIds") Collection<Long> receiptMainIds);
+}
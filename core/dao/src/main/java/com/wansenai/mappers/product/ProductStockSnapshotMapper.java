@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.mappers.product;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.wansenai.entities.product.ProductStockSnapshot;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>
+ * 库存快照 Mapper 接口
+ * </p>
+ */
+public interface ProductStockSnapshotMapper extends BaseMapper<ProductStockSnapshot> {
+
+    // endTime 时刻的库存数量: 当前库存减去之后的库存流水, 不返回数量为0的行
+    List<ProductStockSnapshot> getStockQuantitiesAt(@Param("endTime") LocalDateTime endTime);
+
+    // 不晚于 stockDate 的最近快照日期
+    LocalDate getNearestSnapshotDate(@Param("stockDate") LocalDate stockDate);
+
+    int insertBatch(List<ProductStockSnapshot> snapshotList);
+}
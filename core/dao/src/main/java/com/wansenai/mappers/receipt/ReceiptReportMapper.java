@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.mappers.receipt;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.wansenai.bo.financial.AccountChangeBO;
+import com.wansenai.dto.report.QueryRetailReportDTO;
+import com.wansenai.dto.report.QueryShipmentsDetailDTO;
+import com.wansenai.dto.report.QueryShipmentsSummaryDTO;
+import com.wansenai.dto.report.QueryStockFlowDTO;
+import com.wansenai.dto.report.QueryStorageDetailDTO;
+import com.wansenai.dto.report.QueryStorageSummaryDTO;
+import com.wansenai.vo.report.AccountFlowVO;
+import com.wansenai.vo.report.RetailReportVO;
+import com.wansenai.vo.report.ShipmentsDetailVO;
+import com.wansenai.vo.report.ShipmentsSummaryVO;
+import com.wansenai.vo.report.StockFlowVO;
+import com.wansenai.vo.report.StorageDetailVO;
+import com.wansenai.vo.report.StorageSummaryVO;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * 单据报表 Mapper 接口, 零售/销售/采购单据 UNION 后在数据库分页
+ * stream 开头的方法用于导出, 不分页, 结果集逐行回调 handler
+ * </p>
+ */
+public interface ReceiptReportMapper {
+
+    // 商品库存流水
+    Page<StockFlowVO> getStockFlow(Page<StockFlowVO> page, QueryStockFlowDTO queryStockFlowDTO);
+
+    // 账户流水, 余额按单据日期倒序累加初始金额
+    Page<AccountFlowVO> getAccountFlow(Page<AccountFlowVO> page, Long accountId, BigDecimal initialAmount);
+
+    // 账户在单据日期区间内的变动金额, 按账户分组, 多账户结算按分摊金额计入
+    List<AccountChangeBO> getAccountChangeAmounts(@Param("accountIds") Collection<Long> accountIds,
+                                                  @Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
+
+    // 出库明细: 零售出库 销售出库 采购退货
+    Page<ShipmentsDetailVO> getShipmentsDetail(Page<ShipmentsDetailVO> page, QueryShipmentsDetailDTO queryDetailDTO);
+
+    // 入库明细: 零售退货 销售退货 采购入库
+    Page<StorageDetailVO> getStorageDetail(Page<StorageDetailVO> page, QueryStorageDetailDTO queryDetailDTO);
+
+    // 出库汇总, 按商品条码和仓库分组
+    Page<ShipmentsSummaryVO> getShipmentsSummary(Page<ShipmentsSummaryVO> page, QueryShipmentsSummaryDTO querySummaryDTO);
+
+    // 入库汇总, 按商品条码和仓库分组
+    Page<StorageSummaryVO> getStorageSummary(Page<StorageSummaryVO> page, QueryStorageSummaryDTO querySummaryDTO);
+
+    void streamStockFlow(@Param("queryStockFlowDTO") QueryStockFlowDTO queryStockFlowDTO, ResultHandler<StockFlowVO> handler);
+
+    void streamShipmentsDetail(@Param("queryDetailDTO") QueryShipmentsDetailDTO queryDetailDTO, ResultHandler<ShipmentsDetailVO> handler);
+
+    void streamStorageDetail(@Param("queryDetailDTO") QueryStorageDetailDTO queryDetailDTO, ResultHandler<StorageDetailVO> handler);
+
+    void streamShipmentsSummary(@Param("querySummaryDTO") QueryShipmentsSummaryDTO querySummaryDTO, ResultHandler<ShipmentsSummaryVO> handler);
+
+    void streamStorageSummary(@Param("querySummaryDTO") QueryStorageSummaryDTO querySummaryDTO, ResultHandler<StorageSummaryVO> handler);
+
+    // 零售统计, 按商品条码和仓库分组
+    void streamRetailStatistics(@Param("queryRetailReportDTO") QueryRetailReportDTO queryRetailReportDTO, ResultHandler<RetailReportVO> handler);
+}
@@ -13,7 +13,24 @@
 package com.wansenai.mappers.receipt;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.wansenai.bo.sale.SaleShipmentsExportBO;
+import com.wansenai.bo.sale.SaleShipmentsExportEnBO;
+import com.wansenai.bo.sale.SalesDataExportBO;
+import com.wansenai.bo.sale.SalesDataExportEnBO;
+import com.wansenai.dto.receipt.sale.QuerySaleShipmentsDTO;
 import com.wansenai.entities.receipt.ReceiptSaleMain;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 public interface ReceiptSaleMainMapper extends BaseMapper<ReceiptSaleMain> {
+
+    // 销售出库导出, 结果集逐行回调 handler
+    void streamShipmentsExport(@Param("shipmentsDTO") QuerySaleShipmentsDTO shipmentsDTO, ResultHandler<SaleShipmentsExportBO> handler);
+
+    void streamShipmentsEnExport(@Param("shipmentsDTO") QuerySaleShipmentsDTO shipmentsDTO, ResultHandler<SaleShipmentsExportEnBO> handler);
+
+    // 销售出库明细导出
+    void streamShipmentsDetailExport(@Param("shipmentsDTO") QuerySaleShipmentsDTO shipmentsDTO, ResultHandler<SalesDataExportBO> handler);
+
+    void streamShipmentsDetailEnExport(@Param("shipmentsDTO") QuerySaleShipmentsDTO shipmentsDTO, ResultHandler<SalesDataExportEnBO> handler);
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.mappers.receipt;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.wansenai.entities.receipt.ReceiptStatisticsDaily;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>
+ * 单据日统计 Mapper 接口
+ * </p>
+ */
+public interface ReceiptStatisticsDailyMapper extends BaseMapper<ReceiptStatisticsDaily> {
+
+    // 按天汇总零售单据金额(total_amount)
+    List<ReceiptStatisticsDaily> aggregateRetailDaily(LocalDateTime startTime, LocalDateTime endTime);
+
+    // 按天汇总销售单据金额(discount_last_amount)
+    List<ReceiptStatisticsDaily> aggregateSaleDaily(LocalDateTime startTime, LocalDateTime endTime);
+
+    // 按天汇总采购单据金额(discount_last_amount)
+    List<ReceiptStatisticsDaily> aggregatePurchaseDaily(LocalDateTime startTime, LocalDateTime endTime);
+
+    int upsertBatch(List<ReceiptStatisticsDaily> statisticsList);
+
+    // 将 [startDate, endDate) 区间内的统计行清零, 同时锁住这些行及其间隙, 用于串行化同一区间的重新汇总
+    int resetDaily(String receiptCategory, LocalDate startDate, LocalDate endDate);
+
+    int deleteBefore(LocalDate startDate);
+
+    List<ReceiptStatisticsDaily> getDailyStatistics(LocalDate startDate, LocalDate endDate);
+}
@@ -16,6 +16,7 @@ import com.wansenai.entities.role.SysRoleMenuRel;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,5 +26,7 @@ import java.util.List;
  */
 public interface SysRoleMenuRelMapper extends BaseMapper<SysRoleMenuRel> {
 
-    List<SysRoleMenuRel> listByRoleId(@Param("roleIds") List<Long> roleIds);
+    List<SysRoleMenuRel> listByRoleId(@Param("roleIds") Collection<Long> roleIds);
+
+    int insertBatch(List<SysRoleMenuRel> roleMenuRelList);
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.mappers.system;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.wansenai.entities.system.SysSequence;
+
+/**
+ * <p>
+ * 序列表 Mapper 接口
+ * </p>
+ */
+public interface SysSequenceMapper extends BaseMapper<SysSequence> {
+
+    int insertIgnore(SysSequence sequence);
+
+    int increaseCurrentValue(Long tenantId, String sequenceName, Long blockSize);
+
+    Long getCurrentValue(Long tenantId, String sequenceName);
+
+    int raiseCurrentValue(Long tenantId, String sequenceName, Long currentValue);
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.bo.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 商品列表每行展示的分类名称, 第一个SKU的条码价格和该SKU在各仓库的库存合计,
+ * 一页商品一次查询得到。商品没有SKU时SKU相关字段为空。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryBO {
+
+    private Long productId;
+
+    private String productCategoryName;
+
+    private Long productSkuId;
+
+    private String productBarcode;
+
+    private String multiAttribute;
+
+    private BigDecimal purchasePrice;
+
+    private BigDecimal retailPrice;
+
+    private BigDecimal salePrice;
+
+    private BigDecimal lowPrice;
+
+    private BigDecimal productStock;
+}
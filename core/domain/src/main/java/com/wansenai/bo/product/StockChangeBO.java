@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.bo.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 单据对某个仓库条码库存的相对变动，quantity 入库为正数，出库为负数。
+ * stockId / productSkuId / tenantId / balanceQuantity 由库存台账查询后回填。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangeBO {
+
+    private String barCode;
+
+    private Long warehouseId;
+
+    private BigDecimal quantity;
+
+    private Long receiptMainId;
+
+    private Long stockId;
+
+    private Long productSkuId;
+
+    private Long tenantId;
+
+    private BigDecimal balanceQuantity;
+}
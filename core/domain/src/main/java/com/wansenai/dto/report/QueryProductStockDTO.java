@@ -31,4 +31,9 @@ public class QueryProductStockDTO {
     private Long pageSize;
 
     private Boolean isExportDetail;
+
+    /**
+     * 历史库存日期 yyyy-MM-dd, 为空时查询当前库存
+     */
+    private String stockDate;
 }
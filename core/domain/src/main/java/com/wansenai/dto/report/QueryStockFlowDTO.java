@@ -29,6 +29,11 @@ public class QueryStockFlowDTO {
 
     private String endDate;
 
+    /**
+     * 上一页最后一条流水id, 不为空时按游标翻页
+     */
+    private Long lastId;
+
     private Integer page;
 
     private Integer pageSize;
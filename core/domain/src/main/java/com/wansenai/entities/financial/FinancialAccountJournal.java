@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.entities.financial;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 账户余额流水（只追加，不修改），所有流水之和即账户当前余额
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("financial_account_journal")
+public class FinancialAccountJournal implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 5619027734812L;
+
+    @TableId(value = "id", type = IdType.NONE)
+    private Long id;
+
+    private Long tenantId;
+
+    /**
+     * 账户id
+     */
+    private Long accountId;
+
+    /**
+     * 变动金额，收款为正数，付款为负数
+     */
+    private BigDecimal changeAmount;
+
+    /**
+     * 来源单据主表id，期初余额和手工调整为空
+     */
+    private Long receiptMainId;
+
+    private LocalDateTime createTime;
+}
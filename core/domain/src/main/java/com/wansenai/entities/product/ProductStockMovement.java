@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.entities.product;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 库存变动流水（只追加，不修改）
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("product_stock_movement")
+public class ProductStockMovement implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2837461290553L;
+
+    @TableId(value = "id", type = IdType.NONE)
+    private Long id;
+
+    private Long tenantId;
+
+    /**
+     * 产品库存id
+     */
+    private Long productStockId;
+
+    private Long productSkuId;
+
+    private Long warehouseId;
+
+    /**
+     * 变动数量，入库为正数，出库为负数
+     */
+    private BigDecimal changeQuantity;
+
+    /**
+     * 变动后结存数量
+     */
+    private BigDecimal balanceQuantity;
+
+    /**
+     * 来源单据主表id，期初库存和手工调整为空
+     */
+    private Long receiptMainId;
+
+    /**
+     * 业务日期，来源单据的单据日期，没有单据时为创建时间
+     */
+    private LocalDateTime receiptDate;
+
+    private LocalDateTime createTime;
+}
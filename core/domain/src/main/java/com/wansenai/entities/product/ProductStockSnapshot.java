@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.entities.product;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 库存快照（按租户、日期记录每个库存行当天结束时的数量和金额，数量为0的行不记录）
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("product_stock_snapshot")
+public class ProductStockSnapshot implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 6138274095521L;
+
+    @TableId(value = "id", type = IdType.NONE)
+    private Long id;
+
+    private Long tenantId;
+
+    /**
+     * 产品库存id
+     */
+    private Long productStockId;
+
+    private Long productSkuId;
+
+    private Long warehouseId;
+
+    /**
+     * 快照日期，记录当天结束时的库存
+     */
+    private LocalDate snapshotDate;
+
+    private BigDecimal stockQuantity;
+
+    /**
+     * 估值单价（零售价）
+     */
+    private BigDecimal unitPrice;
+
+    private BigDecimal stockAmount;
+
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.entities.receipt;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 单据多账户结算分摊表（销售/采购单据每个结算账户一行）
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("receipt_account_allocation")
+public class ReceiptAccountAllocation implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1481290357625L;
+
+    @TableId(value = "id", type = IdType.NONE)
+    private Long id;
+
+    private Long tenantId;
+
+    /**
+     * 单据类别（销售/采购）
+     */
+    private String receiptCategory;
+
+    private Long receiptMainId;
+
+    private Long accountId;
+
+    /**
+     * 分摊金额, 与单据上填写的多账户金额一致, 不带方向
+     */
+    private BigDecimal amount;
+
+    private LocalDateTime createTime;
+}
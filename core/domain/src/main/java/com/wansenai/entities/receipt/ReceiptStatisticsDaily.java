@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.entities.receipt;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 单据日统计表（按租户、单据类别、类型、子类型、日期汇总）
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("receipt_statistics_daily")
+public class ReceiptStatisticsDaily implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1481290357624L;
+
+    @TableId(value = "id", type = IdType.NONE)
+    private Long id;
+
+    private Long tenantId;
+
+    /**
+     * 单据类别（零售/销售/采购）
+     */
+    private String receiptCategory;
+
+    private String type;
+
+    private String subType;
+
+    private LocalDate statisticsDate;
+
+    private BigDecimal totalAmount;
+
+    private Integer receiptCount;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+}
@@ -57,9 +57,9 @@ public class SysRoleMenuRel implements Serializable {
     private Long roleId;
 
     /**
-     * 菜单资源id 多个菜单ID合并到字符串
+     * 菜单id, 每个角色的每个菜单一行
      */
-    private String menuId;
+    private Integer menuId;
 
     /**
      * 创建时间
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.vo.job;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BackgroundJobMetricsVO {
+
+    private Integer queuedJobs;
+
+    private Integer runningJobs;
+
+    private Integer maxRunningJobs;
+
+    private Integer maxRunningJobsPerTenant;
+
+    private Long submittedJobs;
+
+    private Long succeededJobs;
+
+    private Long failedJobs;
+
+    private Long cancelledJobs;
+
+    /**
+     * 队列已满被拒绝的任务数
+     */
+    private Long rejectedJobs;
+
+    private Long averageQueueMillis;
+
+    private Long averageRunMillis;
+
+    private Long maxRunMillis;
+
+    /**
+     * 本地结果文件占用的字节数
+     */
+    private Long spoolBytes;
+}
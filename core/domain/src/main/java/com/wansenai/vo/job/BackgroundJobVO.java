@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.vo.job;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BackgroundJobVO {
+
+    private String jobId;
+
+    private String jobType;
+
+    /**
+     * QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+     */
+    private String status;
+
+    /**
+     * 导入任务已读取的行数
+     */
+    private Long progress;
+
+    /**
+     * 任务完成后的响应码和提示, 与同步调用时返回的一致
+     */
+    private String resultCode;
+
+    private String message;
+
+    private String fileName;
+
+    private Long fileSize;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime finishTime;
+
+    /**
+     * 结果文件过期时间, 过期后任务和文件一起删除
+     */
+    private LocalDateTime expireTime;
+}
@@ -16,13 +16,17 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import tools.jackson.databind.annotation.JsonSerialize;
 import com.wansenai.bo.BigDecimalSerializerBO;
 import com.wansenai.utils.excel.ExcelExport;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class RetailReportVO {
 
     @ExcelExport(value = "商品条码")
@@ -16,14 +16,18 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import tools.jackson.databind.annotation.JsonSerialize;
 import com.wansenai.bo.BigDecimalSerializerBO;
 import com.wansenai.utils.excel.ExcelExport;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ShipmentsDetailVO {
 
     @ExcelExport(value = "单据编号")
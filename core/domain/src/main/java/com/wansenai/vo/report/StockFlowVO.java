@@ -14,15 +14,23 @@ package com.wansenai.vo.report;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.wansenai.utils.excel.ExcelExport;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class StockFlowVO {
 
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
     @ExcelExport(value = "单据编号")
     private String receiptNumber;
 
@@ -41,6 +49,9 @@ public class StockFlowVO {
     @ExcelExport(value = "数量")
     private Integer productNumber;
 
+    @ExcelExport(value = "结存数量")
+    private BigDecimal balanceQuantity;
+
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
     @ExcelExport(value = "单据日期")
     private LocalDateTime receiptDate;
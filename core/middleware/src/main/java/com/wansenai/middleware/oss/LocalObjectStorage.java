@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.middleware.oss;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.StringJoiner;
+
+/**
+ * 本地磁盘存储, 用于没有云账号时的开发, 测试和上传压测。
+ * 先写入同目录的临时文件再重命名, 读取方不会看到写了一半的文件
+ */
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path root;
+
+    private final String baseUrl;
+
+    public LocalObjectStorage(Path root, String baseUrl) {
+        try {
+            this.root = Files.createDirectories(root).toAbsolutePath().normalize();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create storage directory " + root, e);
+        }
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public String upload(String key, InputStream in, long size, String contentType) throws IOException {
+        var target = resolve(key);
+        Files.createDirectories(target.getParent());
+        var temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return getUrl(key);
+    }
+
+    @Override
+    public String getUrl(String key) {
+        var url = new StringJoiner("/", baseUrl + "/", "");
+        for (String segment : key.split("/")) {
+            url.add(URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return url.toString();
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    // key来自用户上传的文件名, 不允许跳出存储目录
+    private Path resolve(String key) {
+        var path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return path;
+    }
+}
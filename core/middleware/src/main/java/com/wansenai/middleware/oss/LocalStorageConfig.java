@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.middleware.oss;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Path;
+
+/**
+ * 使用本地磁盘存储时, 由应用直接提供 /files/** 下的文件
+ */
+@Configuration
+public class LocalStorageConfig implements WebMvcConfigurer {
+
+    private final String storageType;
+
+    private final String localRoot;
+
+    public LocalStorageConfig(@Value("${eairp.storage.type:tencent}") String storageType,
+                              @Value("${eairp.storage.local.root:${user.home}/eairp-files}") String localRoot) {
+        this.storageType = storageType;
+        this.localRoot = localRoot;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        if (!"local".equalsIgnoreCase(storageType)) {
+            return;
+        }
+        registry.addResourceHandler("/files/**")
+                .addResourceLocations(Path.of(localRoot).toAbsolutePath().toUri().toString());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.middleware.oss;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Object storage backend. Implementations hold one long-lived client and are safe to
+ * share between threads.
+ * <p>
+ * 对象存储后端, 实现类持有一个长期复用的客户端, 线程安全。
+ */
+public interface ObjectStorage extends Closeable {
+
+    /**
+     * Stream the content to the given key and return its URL.
+     * 将输入流直接写入指定key, 返回访问地址
+     *
+     * @param key         Object key
+     *                    对象key
+     * @param in          Content, not closed by this method
+     *                    内容, 本方法不会关闭
+     * @param size        Content length in bytes, or -1 when unknown
+     *                    内容字节数, 未知时为-1
+     * @param contentType Content type, may be null
+     *                    内容类型, 可以为空
+     * @return Returns the URL of the object
+     *         返回对象的访问地址
+     */
+    String upload(String key, InputStream in, long size, String contentType) throws IOException;
+
+    /**
+     * Build the URL of an object locally, without a request to the backend.
+     * 在本地拼接对象的访问地址, 不请求存储服务
+     */
+    String getUrl(String key);
+
+    boolean delete(String key) throws IOException;
+
+    @Override
+    void close();
+}
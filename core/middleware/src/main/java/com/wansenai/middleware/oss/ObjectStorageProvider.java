@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.middleware.oss;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.wansenai.entities.system.SysPlatformConfig;
+import com.wansenai.mappers.system.SysPlatformConfigMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 按配置提供对象存储。local 使用本地磁盘; tencent 读取 sys_platform_config 中的 tencent_oss_* 参数,
+ * 参数不变时一直复用同一个客户端, 参数修改后下次上传时重新创建, 旧客户端在使用中的上传结束后关闭
+ */
+@Slf4j
+@Component
+public class ObjectStorageProvider {
+
+    private final SysPlatformConfigMapper platformConfigMapper;
+
+    private final String storageType;
+
+    private final int maxConnections;
+
+    private final Path localRoot;
+
+    private final String localBaseUrl;
+
+    // 以下两个字段由 this 加锁保护
+    private SharedObjectStorage storage;
+
+    private String storageConfig;
+
+    public ObjectStorageProvider(SysPlatformConfigMapper platformConfigMapper,
+                                 @Value("${eairp.storage.type:tencent}") String storageType,
+                                 @Value("${eairp.storage.max-connections:64}") int maxConnections,
+                                 @Value("${eairp.storage.local.root:${user.home}/eairp-files}") String localRoot,
+                                 @Value("${eairp.storage.local.base-url:/erp-api/files}") String localBaseUrl) {
+        this.platformConfigMapper = platformConfigMapper;
+        this.storageType = storageType;
+        this.maxConnections = maxConnections;
+        this.localRoot = Path.of(localRoot);
+        this.localBaseUrl = localBaseUrl;
+    }
+
+    /**
+     * 当前配置的存储, tencent 参数不完整时返回null。使用完后关闭返回的对象, 通常用 try-with-resources
+     */
+    public ObjectStorage getStorage() {
+        if ("local".equalsIgnoreCase(storageType)) {
+            synchronized (this) {
+                if (storage == null) {
+                    storage = new SharedObjectStorage(new LocalObjectStorage(localRoot, localBaseUrl));
+                    storageConfig = "local";
+                }
+                return storage.acquire();
+            }
+        }
+
+        var ossInfoMap = platformConfigMapper.selectList(new LambdaQueryWrapper<SysPlatformConfig>()
+                        .likeRight(SysPlatformConfig::getPlatformKey, "tencent_oss"))
+                .stream()
+                .filter(item -> item.getPlatformValue() != null)
+                .collect(Collectors.toMap(SysPlatformConfig::getPlatformKey, SysPlatformConfig::getPlatformValue, (a, b) -> a));
+        var secretId = ossInfoMap.get("tencent_oss_secret_id");
+        var secretKey = ossInfoMap.get("tencent_oss_secret_key");
+        var region = ossInfoMap.get("tencent_oss_region");
+        var bucket = ossInfoMap.get("tencent_oss_bucket");
+        if (secretId == null || secretKey == null || region == null || bucket == null) {
+            return null;
+        }
+
+        var config = String.join("\n", secretId, secretKey, region, bucket);
+        ObjectStorage lease;
+        SharedObjectStorage previous = null;
+        var created = false;
+        synchronized (this) {
+            if (storage == null || !Objects.equals(config, storageConfig)) {
+                previous = storage;
+                storage = new SharedObjectStorage(new TencentObjectStorage(secretId, secretKey, region, bucket, maxConnections));
+                storageConfig = config;
+                created = true;
+            }
+            // 在锁内取得引用, 返回的一定是这次读到的客户端
+            lease = storage.acquire();
+        }
+        if (created) {
+            log.info("Tencent COS client created for bucket {} in {}", bucket, region);
+        }
+        if (previous != null) {
+            // 还在上传的请求释放引用后才真正关闭
+            previous.release();
+        }
+        return lease;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (storage != null) {
+            storage.release();
+            storage = null;
+        }
+    }
+}
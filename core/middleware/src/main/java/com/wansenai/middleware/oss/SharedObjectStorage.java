@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.middleware.oss;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reference counted owner of one storage client. The provider holds one reference and every
+ * caller holds one through the lease returned by {@link #acquire()}; the client is closed when
+ * the last reference is released, so replacing the client never closes it under an upload.
+ * <p>
+ * 带引用计数的存储客户端, 提供者和每个使用方各持有一个引用, 最后一个引用释放时才关闭客户端,
+ * 配置修改后旧客户端在进行中的上传结束后关闭。
+ */
+public final class SharedObjectStorage {
+
+    private final ObjectStorage delegate;
+
+    // 提供者持有的引用
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    public SharedObjectStorage(ObjectStorage delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Take a reference for the caller, released by closing the returned lease.
+     * 为调用方增加一个引用, 关闭返回的对象时释放
+     *
+     * @throws IllegalStateException if the client is already closed
+     */
+    public ObjectStorage acquire() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                throw new IllegalStateException("Object storage is already closed");
+            }
+        } while (!references.compareAndSet(count, count + 1));
+        return new Lease();
+    }
+
+    /**
+     * Drop a reference, closing the client when none is left.
+     * 释放一个引用, 没有引用时关闭客户端
+     */
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            delegate.close();
+        }
+    }
+
+    public int getReferenceCount() {
+        return references.get();
+    }
+
+    private final class Lease implements ObjectStorage {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        @Override
+        public String upload(String key, InputStream in, long size, String contentType) throws IOException {
+            return delegate.upload(key, in, size, contentType);
+        }
+
+        @Override
+        public String getUrl(String key) {
+            return delegate.getUrl(key);
+        }
+
+        @Override
+        public boolean delete(String key) throws IOException {
+            return delegate.delete(key);
+        }
+
+        // 重复关闭只释放一次
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
@@ -36,6 +36,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Executors;
 
+/**
+ * 每次调用都新建COSClient, 上传通过 {@link ObjectStorageProvider} 获取复用的 {@link ObjectStorage}
+ */
+@Deprecated
 @Slf4j
 @Data
 @Builder
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.middleware.oss;
+
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.ClientConfig;
+import com.qcloud.cos.auth.BasicCOSCredentials;
+import com.qcloud.cos.http.HttpProtocol;
+import com.qcloud.cos.model.ObjectMetadata;
+import com.qcloud.cos.model.PutObjectRequest;
+import com.qcloud.cos.region.Region;
+
+import java.io.InputStream;
+
+/**
+ * 腾讯云COS存储, 一个存储桶一个COSClient, 连接池在上传之间复用
+ */
+public class TencentObjectStorage implements ObjectStorage {
+
+    private final COSClient cosClient;
+
+    private final String bucket;
+
+    public TencentObjectStorage(String secretId, String secretKey, String region, String bucket, int maxConnections) {
+        var clientConfig = new ClientConfig(new Region(region));
+        clientConfig.setHttpProtocol(HttpProtocol.https);
+        clientConfig.setMaxConnectionsCount(maxConnections);
+        this.cosClient = new COSClient(new BasicCOSCredentials(secretId, secretKey), clientConfig);
+        this.bucket = bucket;
+    }
+
+    @Override
+    public String upload(String key, InputStream in, long size, String contentType) {
+        var metadata = new ObjectMetadata();
+        // 指定长度后SDK直接转发输入流, 不会先缓存到内存
+        if (size >= 0) {
+            metadata.setContentLength(size);
+        }
+        if (contentType != null) {
+            metadata.setContentType(contentType);
+        }
+        cosClient.putObject(new PutObjectRequest(bucket, key, in, metadata));
+        return getUrl(key);
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return cosClient.getObjectUrl(bucket, key).toString();
+    }
+
+    @Override
+    public boolean delete(String key) {
+        cosClient.deleteObject(bucket, key);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        cosClient.shutdown();
+    }
+}
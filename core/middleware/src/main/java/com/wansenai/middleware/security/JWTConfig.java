@@ -40,6 +40,8 @@ public class JWTConfig implements WebMvcConfigurer {
                 .excludePathPatterns("/v2/common/sms/{type}/{phoneNumber}")
                 .excludePathPatterns("/v2/common/email/{type}/{email}")
                 .excludePathPatterns("/v2/common/nextId/{type}")
-                .excludePathPatterns("/sys/config/getCompanyInfo");
+                .excludePathPatterns("/sys/config/getCompanyInfo")
+                // 本地磁盘存储的文件, 图片标签请求不带token
+                .excludePathPatterns("/files/**");
     }
 }
\ No newline at end of file
@@ -13,7 +13,8 @@
 package com.wansenai.middleware.security;
 
 import tools.jackson.databind.ObjectMapper;
-import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.redis.TokenSessionCache;
+import com.wansenai.utils.tenant.TenantContextHolder;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -29,12 +30,12 @@ import java.util.Map;
 @Component
 public class JWTInterceptor implements HandlerInterceptor { //校验类
 
-    private final RedisUtil redisUtil;
+    private final TokenSessionCache tokenSessionCache;
 
     private final JWTUtil jwtUtil;
 
-    public JWTInterceptor(RedisUtil redisUtil, JWTUtil jwtUtil) {
-        this.redisUtil = redisUtil;
+    public JWTInterceptor(TokenSessionCache tokenSessionCache, JWTUtil jwtUtil) {
+        this.tokenSessionCache = tokenSessionCache;
         this.jwtUtil = jwtUtil;
     }
 
@@ -43,14 +44,17 @@ public class JWTInterceptor implements HandlerInterceptor { //校验类
         Map<Object, Object> map = new HashMap<>();
         String requestToken = request.getHeader("Authorization");
         if(StringUtils.hasText(requestToken)){
-            Claims claims = jwtUtil.checkToken(request.getHeader("Authorization"));
+            Claims claims = jwtUtil.checkToken(requestToken);
             if (claims != null) {
-                String token = redisUtil.getString(claims.get("userName") + ":token");
-                if(redisUtil.hasKey(claims.get("userName") + ":token")){
-                    if(requestToken.equals(token)){
-                        // token正确
+                // 本地缓存未命中时一次读取会话, 后续在同一请求中复用
+                var session = tokenSessionCache.getActiveSession(requestToken, String.valueOf(claims.get("userName")));
+                if(session.getActiveToken() != null){
+                    if(session.isActive()){
+                        // token正确, 租户id放入请求上下文, 多租户插件不再读取redis
+                        TenantContextHolder.setTenantId(session.getTenantId());
                         return true;
                     }else {
+                        jwtUtil.evict(requestToken);
                         // token错误，判为并发登录，挤下线
                         // 对应的修改响应头的状态，用于前端判断做出相应的策略
                         map.put("msg", "token无效签名");
@@ -58,6 +62,8 @@ public class JWTInterceptor implements HandlerInterceptor { //校验类
                         log.error("用户token验证失败======>" + "无效签名");
                     }
                 }else {
+                    // 会话已失效, 同时移除本地验签缓存
+                    jwtUtil.evict(requestToken);
                     // token不存在于redis中，已过期
                     map.put("msg", "token过期");
                     map.put("code", "A0312");
@@ -102,4 +108,9 @@ public class JWTInterceptor implements HandlerInterceptor { //校验类
 //        return false;
     }
 
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TenantContextHolder.clear();
+    }
+
 }
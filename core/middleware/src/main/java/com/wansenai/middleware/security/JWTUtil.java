@@ -6,11 +6,18 @@ import io.jsonwebtoken.security.SignatureException;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <P>
  *  JWT工具类
+ *  解析器只构建一次, 验签通过的Claims按token哈希缓存在本地, 每个token在每个节点只验签一次,
+ *  缓存最晚在token过期时失效
  * </P>
  */
 @Component
@@ -25,6 +32,19 @@ public class JWTUtil {
     /** 使用更安全的密钥生成方式 */
     private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor(SECRET_STRING.getBytes());
 
+    /** 解析器不可变且线程安全, 全局复用 */
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(SECRET_KEY).build();
+
+    /** 已验签Claims的本地缓存有效期, 不超过token本身的过期时间 */
+    private static final long CACHE_TTL_MILLIS = 5 * 60 * 1000;
+
+    private static final int CACHE_MAX_SIZE = 10_000;
+
+    private final ConcurrentHashMap<String, CacheEntry> verifiedClaims = new ConcurrentHashMap<>();
+
+    private record CacheEntry(Claims claims, long expireAt) {
+    }
+
     /**
      * 生成token
      * @param userName 用户名
@@ -67,12 +87,19 @@ public class JWTUtil {
             return null;
         }
 
+        var key = hash(token);
+        var entry = verifiedClaims.get(key);
+        if (entry != null) {
+            if (entry.expireAt() > System.currentTimeMillis()) {
+                return entry.claims();
+            }
+            verifiedClaims.remove(key, entry);
+        }
+
         try {
-            return Jwts.parser()
-                    .verifyWith(SECRET_KEY)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            var claims = PARSER.parseSignedClaims(token).getPayload();
+            cache(key, claims);
+            return claims;
         } catch (ExpiredJwtException e) {
             // token过期
             System.err.println("Token expired: " + e.getMessage());
@@ -92,6 +119,52 @@ public class JWTUtil {
         }
     }
 
+    /**
+     * 从本地缓存移除token的Claims, 退出登录或会话失效时调用
+     * @param token token字符串
+     */
+    public void evict(String token) {
+        if (token != null && !token.trim().isEmpty()) {
+            verifiedClaims.remove(hash(token));
+        }
+    }
+
+    /**
+     * 本地缓存的token数量
+     * @return 缓存条数
+     */
+    public int cachedTokenCount() {
+        return verifiedClaims.size();
+    }
+
+    private void cache(String key, Claims claims) {
+        var now = System.currentTimeMillis();
+        var expireAt = now + CACHE_TTL_MILLIS;
+        if (claims.getExpiration() != null) {
+            expireAt = Math.min(expireAt, claims.getExpiration().getTime());
+        }
+        if (expireAt <= now) {
+            return;
+        }
+        if (verifiedClaims.size() >= CACHE_MAX_SIZE) {
+            verifiedClaims.values().removeIf(entry -> entry.expireAt() <= now);
+            if (verifiedClaims.size() >= CACHE_MAX_SIZE) {
+                verifiedClaims.clear();
+            }
+        }
+        verifiedClaims.put(key, new CacheEntry(claims, expireAt));
+    }
+
+    /** 缓存键使用token的SHA-256, 不在内存中保留原始token */
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * 从token中获取用户ID
      * @param token token字符串
@@ -2,6 +2,7 @@ package com.wansenai.service;
 
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.redis.TokenSessionCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -17,24 +18,27 @@ public class BaseService {
 
     private final ISysUserService userService;
 
-    public BaseService(RedisUtil redisUtil, ISysUserService userService) {
+    private final TokenSessionCache tokenSessionCache;
+
+    public BaseService(RedisUtil redisUtil, ISysUserService userService, TokenSessionCache tokenSessionCache) {
         this.redisUtil = redisUtil;
         this.userService = userService;
+        this.tokenSessionCache = tokenSessionCache;
     }
 
     public Long getCurrentUserId() {
         var token = httpServletRequestContextToken();
-        return Long.parseLong(redisUtil.getString(token + ":userId"));
+        return tokenSessionCache.getSession(token).getUserId();
     }
 
     public Long getCurrentTenantId() {
         var token = httpServletRequestContextToken();
-        return Long.parseLong(redisUtil.getString(token + ":tenantId"));
+        return tokenSessionCache.getSession(token).getTenantId();
     }
 
     public String getCurrentUserName() {
         var token = httpServletRequestContextToken();
-        return redisUtil.getString(token + ":userName");
+        return tokenSessionCache.getSession(token).getUserName();
     }
 
     public String getCurrentUserAccount() {
@@ -307,42 +307,37 @@ public class CustomerServiceImpl extends ServiceImpl<CustomerMapper, Customer> i
         var customerEntities = new ArrayList<Customer>();
         var existingCustomers = new HashSet<String>(); // 使用字符串组合作为键
 
-        if (customers != null) {
+        if (customers != null && !customers.isEmpty()) {
+            // 一次查出本批同名的客户, 不再逐行查询
+            var customerNames = customers.stream().map(Customer::getCustomerName).filter(Objects::nonNull).distinct().toList();
+            if (!customerNames.isEmpty()) {
+                customerMapper.selectList(new LambdaQueryWrapper<Customer>()
+                                .select(Customer::getCustomerName, Customer::getContact)
+                                .in(Customer::getCustomerName, customerNames))
+                        .forEach(item -> existingCustomers.add(item.getCustomerName() + "|" + item.getContact()));
+            }
+            var userId = baseService.getCurrentUserId();
             for (var customer : customers) {
                 var customerKey = customer.getCustomerName() + "|" + customer.getContact();
-                if (!existingCustomers.contains(customerKey)) {
-                    var customerEntity = customerMapper.selectOne(
-                            new LambdaQueryWrapper<Customer>()
-                                    .eq(Customer::getCustomerName, customer.getCustomerName())
-                                    .eq(Customer::getContact, customer.getContact())
-                    );
-                    if (customerEntity == null) {
-                        var newCustomerEntity = new Customer();
-                        BeanUtils.copyProperties(customer, newCustomerEntity);
-                        newCustomerEntity.setFirstQuarterAccountReceivable(customer.getFirstQuarterAccountReceivable());
-                        newCustomerEntity.setSecondQuarterAccountReceivable(customer.getSecondQuarterAccountReceivable());
-                        newCustomerEntity.setThirdQuarterAccountReceivable(customer.getThirdQuarterAccountReceivable());
-                        newCustomerEntity.setFourthQuarterAccountReceivable(customer.getFourthQuarterAccountReceivable());
-                        newCustomerEntity.setTaxRate(customer.getTaxRate());
-
-                        var total = calculateTotalAccount(List.of(
-                                customer.getFirstQuarterAccountReceivable(),
-                                customer.getSecondQuarterAccountReceivable(),
-                                customer.getThirdQuarterAccountReceivable(),
-                                customer.getFourthQuarterAccountReceivable()
-                        ));
-                        newCustomerEntity.setTotalAccountReceivable(total);
-
-                        newCustomerEntity.setCreateTime(LocalDateTime.now());
-                        newCustomerEntity.setCreateBy(baseService.getCurrentUserId());
-
-                        customerEntities.add(newCustomerEntity);
-                        existingCustomers.add(customerKey);
-                    }
+                if (existingCustomers.add(customerKey)) {
+                    var newCustomerEntity = new Customer();
+                    BeanUtils.copyProperties(customer, newCustomerEntity);
+                    var total = calculateTotalAccount(List.of(
+                            customer.getFirstQuarterAccountReceivable(),
+                            customer.getSecondQuarterAccountReceivable(),
+                            customer.getThirdQuarterAccountReceivable(),
+                            customer.getFourthQuarterAccountReceivable()
+                    ));
+                    newCustomerEntity.setTotalAccountReceivable(total);
+
+                    newCustomerEntity.setCreateTime(LocalDateTime.now());
+                    newCustomerEntity.setCreateBy(userId);
+
+                    customerEntities.add(newCustomerEntity);
                 }
             }
         }
-        return saveBatch(customerEntities);
+        return customerEntities.isEmpty() || saveBatch(customerEntities);
     }
 
     @Override
@@ -28,6 +28,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Slf4j
@@ -204,28 +205,29 @@ public class MemberServiceImpl extends ServiceImpl<MemberMapper, Member> impleme
         var memberEntities = new ArrayList<Member>();
         var existingMembers = new HashSet<String>(); // 使用字符串组合作为键
 
-        if (members != null) {
+        if (members != null && !members.isEmpty()) {
+            // 一次查出本批编号相同的会员, 不再逐行查询
+            var memberNumbers = members.stream().map(Member::getMemberNumber).filter(Objects::nonNull).distinct().toList();
+            if (!memberNumbers.isEmpty()) {
+                memberMapper.selectList(new LambdaQueryWrapper<Member>()
+                                .select(Member::getMemberNumber, Member::getMemberName)
+                                .in(Member::getMemberNumber, memberNumbers))
+                        .forEach(item -> existingMembers.add(item.getMemberNumber() + "|" + item.getMemberName()));
+            }
+            var userId = baseService.getCurrentUserId();
             for (var member : members) {
                 var memberKey = member.getMemberNumber() + "|" + member.getMemberName();
-                if (!existingMembers.contains(memberKey)) {
-                    var memberEntity = memberMapper.selectOne(
-                            new LambdaQueryWrapper<Member>()
-                                    .eq(Member::getMemberName, member.getMemberName())
-                                    .eq(Member::getMemberNumber, member.getMemberNumber())
-                    );
-                    if (memberEntity == null) {
-                        var newMemberEntity = new Member();
-                        BeanUtils.copyProperties(member, newMemberEntity);
-                        newMemberEntity.setCreateTime(LocalDateTime.now());
-                        newMemberEntity.setCreateBy(baseService.getCurrentUserId());
-
-                        memberEntities.add(newMemberEntity);
-                        existingMembers.add(memberKey);
-                    }
+                if (existingMembers.add(memberKey)) {
+                    var newMemberEntity = new Member();
+                    BeanUtils.copyProperties(member, newMemberEntity);
+                    newMemberEntity.setCreateTime(LocalDateTime.now());
+                    newMemberEntity.setCreateBy(userId);
+
+                    memberEntities.add(newMemberEntity);
                 }
             }
         }
-        return saveBatch(memberEntities);
+        return memberEntities.isEmpty() || saveBatch(memberEntities);
     }
 
     @Override
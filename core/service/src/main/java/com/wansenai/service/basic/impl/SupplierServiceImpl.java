@@ -41,6 +41,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -242,42 +243,37 @@ public class SupplierServiceImpl extends ServiceImpl<SystemSupplierMapper, Suppl
         var supplierEntities = new ArrayList<Supplier>();
         var existingSuppliers = new HashSet<String>(); // 使用字符串组合作为键
 
-        if (suppliers != null) {
+        if (suppliers != null && !suppliers.isEmpty()) {
+            // 一次查出本批同名的供应商, 不再逐行查询
+            var supplierNames = suppliers.stream().map(Supplier::getSupplierName).filter(Objects::nonNull).distinct().toList();
+            if (!supplierNames.isEmpty()) {
+                supplierMapper.selectList(new LambdaQueryWrapper<Supplier>()
+                                .select(Supplier::getSupplierName, Supplier::getContact)
+                                .in(Supplier::getSupplierName, supplierNames))
+                        .forEach(item -> existingSuppliers.add(item.getSupplierName() + "|" + item.getContact()));
+            }
+            var userId = baseService.getCurrentUserId();
             for (var supplier : suppliers) {
                 var supplierKey = supplier.getSupplierName() + "|" + supplier.getContact();
-                if (!existingSuppliers.contains(supplierKey)) {
-                    var supplierEntity = supplierMapper.selectOne(
-                            new LambdaQueryWrapper<Supplier>()
-                                    .eq(Supplier::getSupplierName, supplier.getSupplierName())
-                                    .eq(Supplier::getContact, supplier.getContact())
-                    );
-                    if (supplierEntity == null) {
-                        var newSupplierEntity = new Supplier();
-                        BeanUtils.copyProperties(supplier, newSupplierEntity);
-                        newSupplierEntity.setFirstQuarterAccountPayment(supplier.getFirstQuarterAccountPayment());
-                        newSupplierEntity.setSecondQuarterAccountPayment(supplier.getSecondQuarterAccountPayment());
-                        newSupplierEntity.setThirdQuarterAccountPayment(supplier.getThirdQuarterAccountPayment());
-                        newSupplierEntity.setFourthQuarterAccountPayment(supplier.getFourthQuarterAccountPayment());
-                        newSupplierEntity.setTaxRate(supplier.getTaxRate());
-
-                        var total = calculateTotalAccount(List.of(
-                                supplier.getFirstQuarterAccountPayment(),
-                                supplier.getSecondQuarterAccountPayment(),
-                                supplier.getThirdQuarterAccountPayment(),
-                                supplier.getFourthQuarterAccountPayment()
-                        ));
-                        newSupplierEntity.setTotalAccountPayment(total);
-
-                        newSupplierEntity.setCreateTime(LocalDateTime.now());
-                        newSupplierEntity.setCreateBy(baseService.getCurrentUserId());
-
-                        supplierEntities.add(newSupplierEntity);
-                        existingSuppliers.add(supplierKey);
-                    }
+                if (existingSuppliers.add(supplierKey)) {
+                    var newSupplierEntity = new Supplier();
+                    BeanUtils.copyProperties(supplier, newSupplierEntity);
+                    var total = calculateTotalAccount(List.of(
+                            supplier.getFirstQuarterAccountPayment(),
+                            supplier.getSecondQuarterAccountPayment(),
+                            supplier.getThirdQuarterAccountPayment(),
+                            supplier.getFourthQuarterAccountPayment()
+                    ));
+                    newSupplierEntity.setTotalAccountPayment(total);
+
+                    newSupplierEntity.setCreateTime(LocalDateTime.now());
+                    newSupplierEntity.setCreateBy(userId);
+
+                    supplierEntities.add(newSupplierEntity);
                 }
             }
         }
-        return saveBatch(supplierEntities);
+        return supplierEntities.isEmpty() || saveBatch(supplierEntities);
     }
 
     @Override
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.common;
+
+import com.wansenai.utils.tenant.TenantTaskDecorator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs side work (messages, statistics) on a small pool once the current transaction has committed,
+ * so it stays off the request thread and never sees rolled back data. Tasks are dropped when the
+ * transaction rolls back. The submitting tenant is carried to the worker thread; tasks must not read
+ * the HTTP request since it may already be finished. When the queue is full the caller runs the task.
+ * <p>
+ * 事务提交后在线程池中执行附属任务(消息, 统计), 回滚时丢弃。租户会传递到执行线程, 任务中不要读取请求。
+ */
+@Slf4j
+@Component
+public class AfterCommitExecutor {
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public AfterCommitExecutor(@Value("${eairp.after-commit.pool-size:4}") int poolSize,
+                               @Value("${eairp.after-commit.queue-capacity:2000}") int queueCapacity) {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("after-commit-");
+        executor.setTaskDecorator(new TenantTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+    }
+
+    public void execute(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(task);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(task);
+            }
+        });
+    }
+
+    private void submit(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("After commit task failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
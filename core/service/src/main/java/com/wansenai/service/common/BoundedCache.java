@@ -0,0 +1,169 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Shared in-process cache bounded by entry count, total weight and time to live.
+ * Entries are kept in LRU order, the least recently used ones are dropped first
+ * when either bound is exceeded. Hit, miss and eviction counts are recorded.
+ * <p>
+ * 有界缓存, 同时限制条目数, 总权重和有效期, 超出时按最近最少使用淘汰。线程安全。
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxEntries;
+
+    private final long maxWeight;
+
+    private final long ttlMillis;
+
+    private final ToIntFunction<V> weigher;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record Entry<V>(V value, int weight, long expireAt) {
+    }
+
+    public BoundedCache(int maxEntries, long maxWeight, long ttlMillis, ToIntFunction<V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlMillis = ttlMillis;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Return the cached value or load it. The loader runs outside the lock, so two
+     * threads may load the same key at the same time; the later one wins.
+     */
+    public V get(K key, Function<K, V> loader) {
+        synchronized (this) {
+            var entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expireAt() > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return entry.value();
+                }
+                remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        var value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        var weight = Math.max(1, weigher.applyAsInt(value));
+        if (weight > maxWeight) {
+            remove(key);
+            return;
+        }
+        var previous = entries.put(key, new Entry<>(value, weight, System.currentTimeMillis() + ttlMillis));
+        if (previous != null) {
+            totalWeight -= previous.weight();
+        }
+        totalWeight += weight;
+        var iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && iterator.hasNext()) {
+            var eldest = iterator.next();
+            totalWeight -= eldest.getValue().weight();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+    }
+
+    public synchronized void invalidateAll(Collection<K> keys) {
+        if (keys != null) {
+            keys.forEach(this::remove);
+        }
+    }
+
+    /**
+     * Invalidate now and once more after the surrounding transaction commits, so a
+     * concurrent reader cannot put back the rows it read before the commit.
+     */
+    public void invalidateAfterCommit(Collection<K> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        var copy = List.copyOf(keys);
+        invalidateAll(copy);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAll(copy);
+                }
+            });
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public String stats() {
+        return "size=" + size() + ", weight=" + weight() + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount();
+    }
+
+    private void remove(K key) {
+        var removed = entries.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight();
+        }
+    }
+}
@@ -15,6 +15,7 @@ package com.wansenai.service.common;
 import com.wansenai.bo.FileDataBO;
 import com.wansenai.utils.response.Response;
 import com.wansenai.vo.CaptchaVO;
+import com.wansenai.vo.job.BackgroundJobVO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
@@ -29,6 +30,17 @@ public interface CommonService {
 
     Response<String> uploadExclsData(MultipartFile file);
 
+    /**
+     * Import the excel file in a background job, the result is the same response uploadExclsData returns.
+     * 在后台任务中导入Excel, 任务结果与 uploadExclsData 的返回一致
+     *
+     * @param file Excel file
+     *             Excel文件
+     * @return Returns the submitted job
+     *         返回提交的任务
+     */
+    Response<BackgroundJobVO> uploadExclsDataAsync(MultipartFile file);
+
     Response<String> productCoverUpload(MultipartFile file, Integer type);
 
     Response<List<String>> uploadOss(List<MultipartFile> files);
@@ -54,4 +66,13 @@ public interface CommonService {
     String getRelatedPersonName(Long relatedPersonId);
 
     String getAccountName(Long accountId);
+
+    /**
+     * Create a batch resolver for the dimension names of one report or page.
+     * 创建批量维度解析器, 用于报表/分页组装时按批次查询商品、仓库、会员等名称
+     *
+     * @return Returns a new resolver bound to the current tenant
+     *         返回新的解析器
+     */
+    DimensionResolver createDimensionResolver();
 }
@@ -25,16 +25,24 @@ import com.wansenai.entities.basic.Operator;
 import com.wansenai.entities.financial.FinancialAccount;
 import com.wansenai.entities.product.ProductCategory;
 import com.wansenai.entities.warehouse.Warehouse;
+import com.wansenai.entities.user.SysUser;
+import com.wansenai.mappers.product.ProductStockMapper;
 import com.wansenai.mappers.system.SysFileMapper;
+import com.wansenai.mappers.user.SysUserMapper;
 import com.wansenai.service.BaseService;
 import com.wansenai.service.basic.IOperatorService;
+import com.wansenai.service.job.BackgroundJob;
+import com.wansenai.service.job.BackgroundJobService;
 import com.wansenai.service.financial.IFinancialAccountService;
 import com.wansenai.service.product.ProductStockKeepUnitService;
-import com.wansenai.utils.FileUtil;
 import com.wansenai.utils.SnowflakeIdUtil;
 import com.wansenai.utils.constants.SecurityConstants;
 import com.wansenai.utils.constants.SmsConstants;
 import com.wansenai.utils.email.EmailUtils;
+import com.wansenai.utils.excel.ExcelBatchImporter;
+import com.wansenai.utils.excel.ExcelImportResult;
+import com.wansenai.utils.excel.ExcelImportRow;
+import com.wansenai.utils.excel.ExcelSaxReader;
 import com.wansenai.utils.enums.BaseCodeEnum;
 import com.wansenai.utils.enums.SupplierCodeEnum;
 import com.wansenai.utils.enums.MemberCodeEnum;
@@ -42,6 +50,7 @@ import com.wansenai.utils.enums.ProdcutCodeEnum;
 import com.wansenai.utils.enums.CustomerCodeEnum;
 import com.wansenai.utils.redis.RedisUtil;
 import com.wansenai.utils.response.Response;
+import com.wansenai.utils.tenant.TenantContextHolder;
 import com.wansenai.bo.SmsInfoBO;
 import com.wansenai.entities.basic.Customer;
 import com.wansenai.entities.basic.Member;
@@ -49,24 +58,23 @@ import com.wansenai.entities.basic.Supplier;
 import com.wansenai.entities.product.Product;
 import com.wansenai.entities.product.ProductStockKeepUnit;
 import com.wansenai.entities.product.ProductStock;
+import com.wansenai.entities.product.ProductUnit;
 import com.wansenai.entities.system.SysPlatformConfig;
-import com.wansenai.middleware.oss.TencentOSS;
+import com.wansenai.middleware.oss.ObjectStorageProvider;
 import com.wansenai.service.basic.CustomerService;
 import com.wansenai.service.basic.MemberService;
 import com.wansenai.service.basic.SupplierService;
 import com.wansenai.service.product.ProductCategoryService;
+import com.wansenai.service.product.ProductSearchService;
 import com.wansenai.service.product.ProductService;
 import com.wansenai.service.product.ProductStockService;
+import com.wansenai.service.product.ProductStockLedgerService;
+import com.wansenai.service.product.ProductUnitService;
 import com.wansenai.service.system.ISysPlatformConfigService;
+import com.wansenai.service.system.ISysSequenceService;
 import com.wansenai.service.warehouse.WarehouseService;
 import com.wansenai.vo.CaptchaVO;
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
+import com.wansenai.vo.job.BackgroundJobVO;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -80,13 +88,16 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.BiFunction;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -125,11 +136,27 @@ public class CommonServiceImpl implements CommonService{
 
     private final SysFileMapper fileMapper;
 
+    private final SysUserMapper userMapper;
+
     private final String NullString = "";
 
     private final TransactionTemplate transactionTemplate;
 
-    public CommonServiceImpl(RedisUtil redisUtil, Producer producer, SupplierService supplierService, CustomerService customerService, MemberService memberService, ISysPlatformConfigService platformConfigService, IFinancialAccountService accountService, ProductService productService, ProductStockKeepUnitService productStockKeepUnitService, ProductStockService productStockService, ProductCategoryService productCategoryService, WarehouseService warehouseService, BaseService baseService, IOperatorService operatorService, SysFileMapper fileMapper, PlatformTransactionManager transactionManager) {
+    private final ISysSequenceService sequenceService;
+
+    private final BackgroundJobService backgroundJobService;
+
+    private final ProductSearchService productSearchService;
+
+    private final ObjectStorageProvider objectStorageProvider;
+
+    private final ProductStockLedgerService productStockLedgerService;
+
+    private final ProductUnitService productUnitService;
+
+    private final ProductStockMapper productStockMapper;
+
+    public CommonServiceImpl(RedisUtil redisUtil, Producer producer, SupplierService supplierService, CustomerService customerService, MemberService memberService, ISysPlatformConfigService platformConfigService, IFinancialAccountService accountService, ProductService productService, ProductStockKeepUnitService productStockKeepUnitService, ProductStockService productStockService, ProductCategoryService productCategoryService, WarehouseService warehouseService, BaseService baseService, IOperatorService operatorService, SysFileMapper fileMapper, SysUserMapper userMapper, PlatformTransactionManager transactionManager, ISysSequenceService sequenceService, BackgroundJobService backgroundJobService, ProductSearchService productSearchService, ObjectStorageProvider objectStorageProvider, ProductStockLedgerService productStockLedgerService, ProductUnitService productUnitService, ProductStockMapper productStockMapper) {
         this.redisUtil = redisUtil;
         this.producer = producer;
         this.supplierService = supplierService;
@@ -145,7 +172,15 @@ public class CommonServiceImpl implements CommonService{
         this.baseService = baseService;
         this.operatorService = operatorService;
         this.fileMapper = fileMapper;
+        this.userMapper = userMapper;
         this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sequenceService = sequenceService;
+        this.backgroundJobService = backgroundJobService;
+        this.productSearchService = productSearchService;
+        this.objectStorageProvider = objectStorageProvider;
+        this.productStockLedgerService = productStockLedgerService;
+        this.productUnitService = productUnitService;
+        this.productStockMapper = productStockMapper;
     }
 
     private SmsInfoBO getSmsInfo() {
@@ -320,344 +355,358 @@ public class CommonServiceImpl implements CommonService{
     public Response<String> uploadExclsData(MultipartFile file) {
         var systemLanguage = baseService.getCurrentUserSystemLanguage();
         if(!file.isEmpty()) {
+            File excelFile = null;
             try {
                 String filename = file.getOriginalFilename();
                 if(filename == null || filename.isEmpty()) {
                     return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_NO_FILENAME_MATCH);
-
-                } else if (filename.contains("供应商") || filename.contains("supplier")) {
-                    var result = readSuppliersFromExcel(file);
-                    if(!result){
-                        if ("zh_CN".equals(systemLanguage)) {
-                            return Response.responseMsg(SupplierCodeEnum.ADD_SUPPLIER_ERROR);
-                        }
-                        return Response.responseMsg(SupplierCodeEnum.ADD_SUPPLIER_ERROR_EN);
-                    } else {
-                        if ("zh_CN".equals(systemLanguage)) {
-                            return Response.responseMsg(SupplierCodeEnum.ADD_SUPPLIER_SUCCESS);
-                        }
-                        return Response.responseMsg(SupplierCodeEnum.ADD_SUPPLIER_SUCCESS_EN);
-                    }
-                } else if (filename.contains("客户") || filename.contains("customer") || filename.contains("Customer")) {
-                    var result = readCustomerFromExcel(file);
-                    if(!result){
-                        return Response.responseMsg(CustomerCodeEnum.ADD_CUSTOMER_ERROR);
-                    }
-                    return Response.responseMsg(CustomerCodeEnum.ADD_CUSTOMER_SUCCESS);
-                } else if (filename.contains("会员") || filename.contains("member") || filename.contains("Member")) {
-                    var result = readMemberFromExcel(file);
-                    if(!result){
-                        return Response.responseMsg(MemberCodeEnum.ADD_MEMBER_ERROR);
-                    }
-                    return Response.responseMsg(MemberCodeEnum.ADD_MEMBER_SUCCESS);
-                } else if (filename.contains("商品") || filename.contains("product") || filename.contains("Product")
-                        || filename.contains("Commodity")) {
-                    var message = checkProductBarCodeExist(file);
-                    if (StringUtils.hasLength(message)) {
-                        return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_ERROR.getCode(), message);
-                    } else {
-                        var result = readProductFromExcel(file, 0);
-                        if(!result){
-                            return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_ERROR);
-                        }
-                        return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_SUCCESS);
-                    }
-                } else {
-                    log.warn("上传Excel文件失败: 文件名不匹配");
-                    return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_NO_FILENAME_MATCH);
                 }
+                excelFile = copyToTempFile(file);
+                return importExcelFile(filename, excelFile, systemLanguage);
             } catch (Exception e) {
                 log.error("上传Excel文件失败: " + e.getMessage());
                 return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_ERROR);
+            } finally {
+                deleteTempFile(excelFile);
             }
         }
         return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_ERROR);
     }
 
+    @Override
+    public Response<BackgroundJobVO> uploadExclsDataAsync(MultipartFile file) {
+        var systemLanguage = baseService.getCurrentUserSystemLanguage();
+        String filename = file.getOriginalFilename();
+        if (file.isEmpty()) {
+            return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_ERROR);
+        }
+        if (filename == null || filename.isEmpty()) {
+            return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_NO_FILENAME_MATCH);
+        }
+        try {
+            // 请求结束后上传的文件会被删除, 先复制到临时文件, 任务结束时删除
+            var excelFile = copyToTempFile(file);
+            var result = backgroundJobService.submitJob("uploadExclsData", response -> {
+                try {
+                    return importExcelFile(filename, excelFile, systemLanguage);
+                } finally {
+                    deleteTempFile(excelFile);
+                }
+            });
+            if (result.getData() == null) {
+                deleteTempFile(excelFile);
+            }
+            return result;
+        } catch (IOException e) {
+            log.error("上传Excel文件失败: " + e.getMessage());
+            return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_ERROR);
+        }
+    }
+
+    private Response<String> importExcelFile(String filename, File excelFile, String systemLanguage) throws IOException {
+        if (filename.contains("供应商") || filename.contains("supplier")) {
+            var result = readSuppliersFromExcel(excelFile);
+            if(result.hasErrors()){
+                if ("zh_CN".equals(systemLanguage)) {
+                    return Response.responseMsg(SupplierCodeEnum.ADD_SUPPLIER_ERROR.getCode(), result.getSummary());
+                }
+                return Response.responseMsg(SupplierCodeEnum.ADD_SUPPLIER_ERROR_EN.getCode(), result.getSummary());
+            } else {
+                if ("zh_CN".equals(systemLanguage)) {
+                    return Response.responseMsg(SupplierCodeEnum.ADD_SUPPLIER_SUCCESS);
+                }
+                return Response.responseMsg(SupplierCodeEnum.ADD_SUPPLIER_SUCCESS_EN);
+            }
+        } else if (filename.contains("客户") || filename.contains("customer") || filename.contains("Customer")) {
+            var result = readCustomerFromExcel(excelFile);
+            if(result.hasErrors()){
+                return Response.responseMsg(CustomerCodeEnum.ADD_CUSTOMER_ERROR.getCode(), result.getSummary());
+            }
+            return Response.responseMsg(CustomerCodeEnum.ADD_CUSTOMER_SUCCESS);
+        } else if (filename.contains("会员") || filename.contains("member") || filename.contains("Member")) {
+            var result = readMemberFromExcel(excelFile);
+            if(result.hasErrors()){
+                return Response.responseMsg(MemberCodeEnum.ADD_MEMBER_ERROR.getCode(), result.getSummary());
+            }
+            return Response.responseMsg(MemberCodeEnum.ADD_MEMBER_SUCCESS);
+        } else if (filename.contains("商品") || filename.contains("product") || filename.contains("Product")
+                || filename.contains("Commodity")) {
+            var message = checkProductBarCodeExist(excelFile);
+            if (StringUtils.hasLength(message)) {
+                return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_ERROR.getCode(), message);
+            } else {
+                var result = readProductFromExcel(excelFile, 0);
+                if(result.hasErrors()){
+                    return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_ERROR.getCode(), result.getSummary());
+                }
+                return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_SUCCESS);
+            }
+        } else {
+            log.warn("上传Excel文件失败: 文件名不匹配");
+            return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_NO_FILENAME_MATCH);
+        }
+    }
+
     @Override
     public Response<String> productCoverUpload(MultipartFile file, Integer type) {
+        File excelFile = null;
         try {
+            excelFile = copyToTempFile(file);
+            var importFile = excelFile;
             RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
 
-            CompletableFuture<Boolean> resultFuture = CompletableFuture.supplyAsync(() -> {
+            // 每批单独提交事务, 不再把整个文件放在一个事务里
+            CompletableFuture<ExcelImportResult> resultFuture = CompletableFuture.supplyAsync(TenantContextHolder.wrap(() -> {
                 RequestContextHolder.setRequestAttributes(requestAttributes, true);
                 try {
-                    // 这里启动新的事务
-                    return transactionTemplate.execute(status -> {
-                        try {
-                            var result = readProductFromExcel(file, type);
-                            log.info("Excel文件处理结果: " + result);
-                            return result;
-                        } catch (Exception e) {
-                            log.error("处理Excel文件时出错: " + e.getMessage(), e);
-                            status.setRollbackOnly();  // 回滚事务
-                            return false;
-                        }
-                    });
+                    return readProductFromExcel(importFile, type);
                 } catch (Exception e) {
-                    log.error("异步操作时出错: " + e.getMessage(), e);
-                    return false;
+                    log.error("处理Excel文件时出错: " + e.getMessage(), e);
+                    return null;
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
                 }
-            });
-
-            Boolean result = resultFuture.join();
-            log.info("异步操作结果: " + result);
+            }));
 
-            if (!result) {
+            var result = resultFuture.join();
+            if (result == null) {
                 return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_ERROR);
             }
-
+            log.info("Excel文件处理结果: " + result.getSummary());
+            if (result.hasErrors()) {
+                return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_ERROR.getCode(), result.getSummary());
+            }
             return Response.responseMsg(ProdcutCodeEnum.PRODUCT_ADD_SUCCESS);
         } catch (Exception e) {
             log.error("上传Excel文件失败: " + e.getMessage(), e);
             return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_ERROR);
+        } finally {
+            deleteTempFile(excelFile);
         }
     }
 
-    private boolean readSuppliersFromExcel(MultipartFile file) throws IOException {
-        List<Supplier> suppliers = new ArrayList<>();
-        InputStream inputStream = file.getInputStream();
-        Workbook workbook = WorkbookFactory.create(inputStream);
-        Sheet sheet = workbook.getSheetAt(0);
-        DataFormatter dataFormatter = new DataFormatter();
-
-        for (int i = 2; i <= sheet.getLastRowNum(); ++i) {
-            Row row = sheet.getRow(i);
-            var supplier = Supplier.builder()
-                    .supplierName(getCellValue(row.getCell(0), dataFormatter))
-                    .contact(getCellValue(row.getCell(1), dataFormatter))
-                    .phoneNumber(getCellValue(row.getCell(2), dataFormatter))
-                    .contactNumber(getCellValue(row.getCell(3), dataFormatter))
-                    .email(getCellValue(row.getCell(4), dataFormatter))
-                    .fax(getCellValue(row.getCell(5), dataFormatter))
-                    .firstQuarterAccountPayment(getNumericCellValue(row.getCell(6)))
-                    .secondQuarterAccountPayment(getNumericCellValue(row.getCell(7)))
-                    .thirdQuarterAccountPayment(getNumericCellValue(row.getCell(8)))
-                    .fourthQuarterAccountPayment(getNumericCellValue(row.getCell(9)))
-                    .taxNumber(getCellValue(row.getCell(10), dataFormatter))
-                    .taxRate(getNumericCellValue(row.getCell(11)))
-                    .bankName(getCellValue(row.getCell(12), dataFormatter))
-                    .accountNumber(getCellValue(row.getCell(13), dataFormatter))
-                    .address(getCellValue(row.getCell(14), dataFormatter))
-                    .remark(getCellValue(row.getCell(15), dataFormatter))
-                    .build();
-            suppliers.add(supplier);
-            workbook.close();
-        }
-        return supplierService.batchAddSupplier(suppliers);
-    }
-
-    private boolean readCustomerFromExcel(MultipartFile file) throws IOException {
-        List<Customer> customers = new ArrayList<>();
-        InputStream inputStream = file.getInputStream();
-        Workbook workbook = WorkbookFactory.create(inputStream);
-        Sheet sheet = workbook.getSheetAt(0);
-        DataFormatter dataFormatter = new DataFormatter();
-
-        for (int i = 2; i <= sheet.getLastRowNum(); ++i) {
-            Row row = sheet.getRow(i);
-            var customer = Customer.builder()
-                    .customerName(getCellValue(row.getCell(0), dataFormatter))
-                    .contact(getCellValue(row.getCell(1), dataFormatter))
-                    .phoneNumber(getCellValue(row.getCell(2), dataFormatter))
-                    .email(getCellValue(row.getCell(3), dataFormatter))
-                    .firstQuarterAccountReceivable(getNumericCellValue(row.getCell(4)))
-                    .secondQuarterAccountReceivable(getNumericCellValue(row.getCell(5)))
-                    .thirdQuarterAccountReceivable(getNumericCellValue(row.getCell(6)))
-                    .fourthQuarterAccountReceivable(getNumericCellValue(row.getCell(7)))
-                    .taxNumber(getCellValue(row.getCell(8), dataFormatter))
-                    .taxRate(getNumericCellValue(row.getCell(9)))
-                    .bankName(getCellValue(row.getCell(10), dataFormatter))
-                    .accountNumber(getCellValue(row.getCell(11), dataFormatter))
-                    .address(getCellValue(row.getCell(12), dataFormatter))
-                    .remark(getCellValue(row.getCell(13), dataFormatter))
-                    .build();
-            customers.add(customer);
-            workbook.close();
-        }
-        return customerService.batchAddCustomer(customers);
-    }
-
-    private boolean readMemberFromExcel(MultipartFile file) throws IOException {
-        List<Member> members = new ArrayList<>();
-        InputStream inputStream = file.getInputStream();
-        Workbook workbook = WorkbookFactory.create(inputStream);
-        Sheet sheet = workbook.getSheetAt(0);
-        DataFormatter dataFormatter = new DataFormatter();
-
-        for (int i = 2; i <= sheet.getLastRowNum(); ++i) {
-            Row row = sheet.getRow(i);
-            var member = Member.builder()
-                    .memberNumber(getCellValue(row.getCell(0), dataFormatter))
-                    .memberName(getCellValue(row.getCell(1), dataFormatter))
-                    .phoneNumber(getCellValue(row.getCell(2), dataFormatter))
-                    .email(getCellValue(row.getCell(3), dataFormatter))
-                    .advancePayment(getNumericCellValue(row.getCell(4)))
-                    .remark(getCellValue(row.getCell(5), dataFormatter))
-                    .build();
-            members.add(member);
-            workbook.close();
-        }
-        return memberService.batchAddMember(members);
-    }
-
-    private String checkProductBarCodeExist(MultipartFile file) throws IOException {
-        InputStream inputStream = file.getInputStream();
-        Workbook workbook = WorkbookFactory.create(inputStream);
-        Sheet sheet = workbook.getSheetAt(0);
-        DataFormatter dataFormatter = new DataFormatter();
-        var codeListMap = new ArrayList<Map<String, String>>();
-        for (int i = 2; i <= sheet.getLastRowNum(); ++i) {
-            Row row = sheet.getRow(i);
-            var productBarcode = getCellValue(row.getCell(1), dataFormatter);
-            var productName = getCellValue(row.getCell(0), dataFormatter);
-            if (StringUtils.hasLength(productBarcode)) {
-                var codeMap = new HashMap<String, String>();
-                codeMap.put("productBarcode", productBarcode);
-                codeMap.put("productName", productName);
-                codeListMap.add(codeMap);
-            }
-        }
-        var codeList = codeListMap.stream().map(item -> item.get("productBarcode")).toList();
-        var codeMap = new HashMap<String, Integer>();
-        for (var code : codeList) {
-            if (codeMap.containsKey(code)) {
-                codeMap.put(code, codeMap.get(code) + 1);
-            } else {
-                codeMap.put(code, 1);
-            }
-        }
-        var message = NullString;
-        JSONArray jsonArray = new JSONArray();
-        for (var entry : codeMap.entrySet()) {
-            if (entry.getValue() > 1) {
-                var jsonObject = new JSONObject();
-                jsonObject.put("productCode", entry.getKey());
-                var productNameList = codeListMap.stream().filter(item -> item.get("productBarcode").equals(entry.getKey())).map(item -> item.get("productName")).collect(Collectors.toList());
-                jsonObject.put("productName", productNameList);
-                jsonArray.add(jsonObject);
-                message = jsonArray.toJSONString();
+    /**
+     * 上传文件先落到临时文件, 再用SAX逐行读取, 避免整个工作簿加载到内存
+     */
+    private File copyToTempFile(MultipartFile file) throws IOException {
+        var tempFile = Files.createTempFile("eairp-import-", ".tmp");
+        file.transferTo(tempFile);
+        return tempFile.toFile();
+    }
+
+    private void deleteTempFile(File file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: " + file.getAbsolutePath());
             }
         }
-        if (StringUtils.hasLength(message)) {
-            workbook.close();
-            return message;
-        }
-        workbook.close();
-        return message;
     }
 
-    public Boolean readProductFromExcel(MultipartFile file, int type) {
-        try {
-            // 处理文件和数据库操作
-            List<Product> products = new ArrayList<>();
-            List<ProductStockKeepUnit> productStockKeepUnits = new ArrayList<>();
-            List<ProductStock> productStocks = new ArrayList<>();
-
-            InputStream inputStream = file.getInputStream();
-            Workbook workbook = WorkbookFactory.create(inputStream);
-            Sheet sheet = workbook.getSheetAt(0);
-            DataFormatter dataFormatter = new DataFormatter();
-
-            var warehouseId = warehouseService.getDefaultWarehouse().getData().getId();
-            var userId = baseService.getCurrentUserId();
-
-            // 读取表头以创建映射
-            Row headerRow = sheet.getRow(1);
-            Map<String, Integer> headerMap = new HashMap<>();
-            for (Cell cell : headerRow) {
-                String cellValue = dataFormatter.formatCellValue(cell);
-                if (cellValue != null) {
-                    headerMap.put(cellValue, cell.getColumnIndex());
-                }
+    private void logImportProgress(String name, ExcelImportResult result) {
+        BackgroundJob.reportProgress(result.getTotalRows(), result.getSummary());
+        log.info("{}导入进度: 已读取 {} 行, 成功 {} 行, 失败 {} 行", name, result.getTotalRows(), result.getSuccessRows(), result.getErrorRows());
+    }
+
+    private String requireCellValue(ExcelImportRow row, int column, String name) {
+        var value = row.get(column);
+        if (!StringUtils.hasLength(value)) {
+            throw new IllegalArgumentException(name + "不能为空");
+        }
+        return value;
+    }
+
+    private ExcelImportResult readSuppliersFromExcel(File file) throws IOException {
+        var importer = new ExcelBatchImporter<Supplier>(1, ExcelBatchImporter.DEFAULT_BATCH_SIZE,
+                row -> Supplier.builder()
+                        .supplierName(requireCellValue(row, 0, "供应商名称"))
+                        .contact(row.get(1))
+                        .phoneNumber(row.get(2))
+                        .contactNumber(row.get(3))
+                        .email(row.get(4))
+                        .fax(row.get(5))
+                        .firstQuarterAccountPayment(getNumericCellValue(row.get(6)))
+                        .secondQuarterAccountPayment(getNumericCellValue(row.get(7)))
+                        .thirdQuarterAccountPayment(getNumericCellValue(row.get(8)))
+                        .fourthQuarterAccountPayment(getNumericCellValue(row.get(9)))
+                        .taxNumber(row.get(10))
+                        .taxRate(getNumericCellValue(row.get(11)))
+                        .bankName(row.get(12))
+                        .accountNumber(row.get(13))
+                        .address(row.get(14))
+                        .remark(row.get(15))
+                        .build(),
+                suppliers -> {
+                    if (!supplierService.batchAddSupplier(suppliers)) {
+                        throw new IllegalStateException("保存供应商失败");
+                    }
+                },
+                result -> logImportProgress("供应商", result));
+        return importer.importFile(file);
+    }
+
+    private ExcelImportResult readCustomerFromExcel(File file) throws IOException {
+        var importer = new ExcelBatchImporter<Customer>(1, ExcelBatchImporter.DEFAULT_BATCH_SIZE,
+                row -> Customer.builder()
+                        .customerName(requireCellValue(row, 0, "客户名称"))
+                        .contact(row.get(1))
+                        .phoneNumber(row.get(2))
+                        .email(row.get(3))
+                        .firstQuarterAccountReceivable(getNumericCellValue(row.get(4)))
+                        .secondQuarterAccountReceivable(getNumericCellValue(row.get(5)))
+                        .thirdQuarterAccountReceivable(getNumericCellValue(row.get(6)))
+                        .fourthQuarterAccountReceivable(getNumericCellValue(row.get(7)))
+                        .taxNumber(row.get(8))
+                        .taxRate(getNumericCellValue(row.get(9)))
+                        .bankName(row.get(10))
+                        .accountNumber(row.get(11))
+                        .address(row.get(12))
+                        .remark(row.get(13))
+                        .build(),
+                customers -> {
+                    if (!customerService.batchAddCustomer(customers)) {
+                        throw new IllegalStateException("保存客户失败");
+                    }
+                },
+                result -> logImportProgress("客户", result));
+        return importer.importFile(file);
+    }
+
+    private ExcelImportResult readMemberFromExcel(File file) throws IOException {
+        var importer = new ExcelBatchImporter<Member>(1, ExcelBatchImporter.DEFAULT_BATCH_SIZE,
+                row -> Member.builder()
+                        .memberNumber(requireCellValue(row, 0, "会员编号"))
+                        .memberName(row.get(1))
+                        .phoneNumber(row.get(2))
+                        .email(row.get(3))
+                        .advancePayment(getNumericCellValue(row.get(4)))
+                        .remark(row.get(5))
+                        .build(),
+                members -> {
+                    if (!memberService.batchAddMember(members)) {
+                        throw new IllegalStateException("保存会员失败");
+                    }
+                },
+                result -> logImportProgress("会员", result));
+        return importer.importFile(file);
+    }
+
+    private String checkProductBarCodeExist(File file) throws IOException {
+        // 条码 -> 第一次出现的商品名称, 重复的条码才记录全部名称
+        var firstProductNames = new HashMap<String, String>();
+        var duplicateProductNames = new LinkedHashMap<String, List<String>>();
+        ExcelSaxReader.read(file, (rowIndex, cells) -> {
+            if (rowIndex < 2 || cells.size() < 2) {
+                return;
             }
-
-            BiFunction<String, Integer, String> getCellValueByName = (columnName, rowIndex) -> {
-                Integer columnIndex = headerMap.get(columnName);
-                if (columnIndex != null) {
-                    return getCellValue(sheet.getRow(rowIndex).getCell(columnIndex), dataFormatter);
-                }
-                return null;
-            };
-
-            Map<String, String[]> fieldMappings = createFieldMappings();
-
-            BiFunction<String, Integer, String> getFieldCellValue = (fieldName, rowIndex) -> {
-                String[] possibleNames = fieldMappings.get(fieldName);
-                if (possibleNames != null) {
-                    for (String name : possibleNames) {
-                        String value = getCellValueByName.apply(name, rowIndex);
-                        if (value != null) {
-                            return value;
+            var productBarcode = cells.get(1);
+            var productName = cells.get(0);
+            if (!StringUtils.hasLength(productBarcode)) {
+                return;
+            }
+            if (!firstProductNames.containsKey(productBarcode)) {
+                firstProductNames.put(productBarcode, productName);
+                return;
+            }
+            duplicateProductNames.computeIfAbsent(productBarcode, code -> new ArrayList<>(Collections.singletonList(firstProductNames.get(code))))
+                    .add(productName);
+        });
+        if (duplicateProductNames.isEmpty()) {
+            return NullString;
+        }
+        JSONArray jsonArray = new JSONArray();
+        duplicateProductNames.forEach((productCode, productNames) -> {
+            var jsonObject = new JSONObject();
+            jsonObject.put("productCode", productCode);
+            jsonObject.put("productName", productNames);
+            jsonArray.add(jsonObject);
+        });
+        return jsonArray.toJSONString();
+    }
+
+    /**
+     * 商品导入, type为1时文件内重复的条码只保留第一条。数据库中已存在的条码会被覆盖
+     */
+    public ExcelImportResult readProductFromExcel(File file, int type) throws IOException {
+        var warehouseId = warehouseService.getDefaultWarehouse().getData().getId();
+        var userId = baseService.getCurrentUserId();
+
+        // 一次加载全部分类, 不再逐行查询
+        var categoryMap = productCategoryService.list().stream()
+                .filter(category -> category.getCategoryName() != null)
+                .collect(Collectors.toMap(ProductCategory::getCategoryName, ProductCategory::getId, (first, second) -> first));
+        Map<String, String[]> fieldMappings = createFieldMappings();
+        var barCodes = new HashSet<String>();
+
+        var importer = new ExcelBatchImporter<ProductImportRow>(1, ExcelBatchImporter.DEFAULT_BATCH_SIZE,
+                row -> {
+                    Function<String, String> getFieldCellValue = fieldName -> row.get(fieldMappings.get(fieldName));
+                    var productCode = getFieldCellValue.apply("barCode");
+                    if (!StringUtils.hasLength(productCode)) {
+                        throw new IllegalArgumentException("条码不能为空");
+                    }
+                    Long productCategoryId = null;
+                    var categoryName = getFieldCellValue.apply("productCategory");
+                    if (categoryName != null) {
+                        productCategoryId = categoryMap.get(categoryName);
+                        if (productCategoryId == null) {
+                            throw new IllegalArgumentException("产品分类不存在: " + categoryName);
                         }
                     }
-                }
-                return null;
-            };
-            // 保存barCode 用于校验数据库进行覆盖
-            var barCodeList = new ArrayList<String>();
-
-            for (int i = 2; i <= sheet.getLastRowNum(); ++i) {
-                Row row = sheet.getRow(i);
-                if (row == null || isRowEmpty(row)) {
-                    continue;
-                }
-
-                var productCode = getFieldCellValue.apply("barCode", i);
-                barCodeList.add(productCode);
-                var productId = SnowflakeIdUtil.nextId();
-                Long productCategoryId = null;
-
-                if (getFieldCellValue.apply("productCategory", i) != null) {
-                    var productCategory = productCategoryService.getProductCategoryByName(getFieldCellValue.apply("productCategory", i));
-                    productCategoryId = productCategory.getId();
-                }
-
-                Product product = createProduct(getFieldCellValue, i, productId, productCategoryId, userId);
-                ProductStockKeepUnit productPrice = createProductStockKeepUnit(getFieldCellValue, i, productId, productCode, userId);
-                ProductStock productStock = createProductStock(getFieldCellValue, i, productPrice.getId(), warehouseId, userId);
-
-                products.add(product);
-                productStockKeepUnits.add(productPrice);
-                productStocks.add(productStock);
-            }
-            workbook.close();
+                    var productId = SnowflakeIdUtil.nextId();
+                    Product product = createProduct(getFieldCellValue, productId, productCategoryId, userId);
+                    ProductStockKeepUnit productPrice = createProductStockKeepUnit(getFieldCellValue, productId, productCode, userId);
+                    ProductStock productStock = createProductStock(getFieldCellValue, productPrice.getId(), warehouseId, userId);
+
+                    if (!barCodes.add(productCode)) {
+                        if (type == 1) {
+                            return null;
+                        }
+                        throw new IllegalArgumentException("条码重复: " + productCode);
+                    }
+                    return new ProductImportRow(product, productPrice, productStock);
+                },
+                rows -> transactionTemplate.executeWithoutResult(status -> saveProductBatch(rows)),
+                result -> logImportProgress("商品", result));
+        return importer.importFile(file);
+    }
 
-            log.info("产品数量: " + products.size());
-            log.info("产品库存单元数量: " + productStockKeepUnits.size());
-            log.info("产品库存数量: " + productStocks.size());
+    private void saveProductBatch(List<ProductImportRow> rows) {
+        // 覆盖数据库中条码相同的商品, 每批一次查询
+        var productSkus = productStockKeepUnitService.listByProductBarCodes(rows.stream().map(row -> row.productStockKeepUnit.getProductBarCode()).toList());
+        var changedProductIds = new ArrayList<Long>(rows.size() + productSkus.size());
+        if (!productSkus.isEmpty()) {
+            var productSkuIds = productSkus.stream().map(ProductStockKeepUnit::getId).toList();
+            var removedProductIds = productSkus.stream().map(ProductStockKeepUnit::getProductId).distinct().toList();
+            productStockKeepUnitService.removeByIds(productSkuIds);
+            productService.removeByIds(removedProductIds);
+            productStockService.removeBySkuIds(productSkuIds);
+            changedProductIds.addAll(removedProductIds);
+        }
+        productService.batchAddProduct(rows.stream().map(row -> row.product).toList());
+        productStockKeepUnitService.saveBatch(rows.stream().map(row -> row.productStockKeepUnit).toList());
+        productStockService.saveBatch(rows.stream().map(row -> row.productStock).toList());
+        productStockLedgerService.recordStockAdjustments(rows.stream().map(row -> row.productStock.getId()).toList());
+        rows.forEach(row -> changedProductIds.add(row.product.getId()));
+        productSearchService.refreshProducts(changedProductIds);
+    }
 
-            // 根据type选择不同的处理逻辑 目前1就是覆盖excel的数据
-            processProductsByType(type, products, productStockKeepUnits, productStocks);
+    private static class ProductImportRow {
 
-            removeCoverProductInDataBase(barCodeList);
+        private final Product product;
 
-            boolean addProductResult = productService.batchAddProduct(products);
-            boolean addProductPriceResult = productStockKeepUnitService.saveBatch(productStockKeepUnits);
-            boolean addProductStockResult = productStockService.saveBatch(productStocks);
+        private final ProductStockKeepUnit productStockKeepUnit;
 
-            return addProductResult && addProductPriceResult && addProductStockResult;
-        } catch (IOException e) {
-            log.error("处理 Excel 文件时出错", e);
-            return false;
-        }
-    }
+        private final ProductStock productStock;
 
-    private void removeCoverProductInDataBase(List<String> barCodeList) {
-        if (!barCodeList.isEmpty()) {
-            barCodeList.forEach(barCode -> {
-                var productSku = productStockKeepUnitService.getByProductBarCode(barCode);
-                if (productSku != null) {
-                    productStockKeepUnitService.removeById(productSku.getId());
-                    var productId = productSku.getProductId();
-                    productService.removeById(productId);
-                    productStockService.removeBySkuId(productSku.getId());
-                }
-            });
+        private ProductImportRow(Product product, ProductStockKeepUnit productStockKeepUnit, ProductStock productStock) {
+            this.product = product;
+            this.productStockKeepUnit = productStockKeepUnit;
+            this.productStock = productStock;
         }
     }
 
-
     private Map<String, String[]> createFieldMappings() {
         Map<String, String[]> fieldMappings = new HashMap<>();
         // Populate the mappings
@@ -688,104 +737,85 @@ public class CommonServiceImpl implements CommonService{
         return fieldMappings;
     }
 
-    private Product createProduct(BiFunction<String, Integer, String> getFieldCellValue, int rowIndex, Long productId, Long productCategoryId, Long userId) {
+    private Product createProduct(Function<String, String> getFieldCellValue, Long productId, Long productCategoryId, Long userId) {
         return Product.builder()
                 .id(productId)
-                .productName(getFieldCellValue.apply("productName", rowIndex))
-                .productStandard(getFieldCellValue.apply("productStandard", rowIndex))
-                .productModel(getFieldCellValue.apply("productModel", rowIndex))
-                .productColor(getFieldCellValue.apply("productColor", rowIndex))
+                .productName(getFieldCellValue.apply("productName"))
+                .productStandard(getFieldCellValue.apply("productStandard"))
+                .productModel(getFieldCellValue.apply("productModel"))
+                .productColor(getFieldCellValue.apply("productColor"))
                 .productCategoryId(productCategoryId)
-                .productWeight(getNumericCellValue(getFieldCellValue.apply("productWeight", rowIndex)))
-                .productExpiryNum(getIntegerCellValue(getFieldCellValue.apply("guaranteePeriod", rowIndex)))
-                .productUnit(getFieldCellValue.apply("productUnit", rowIndex))
-                .enableSerialNumber(getIntegerCellValue(getFieldCellValue.apply("serialNumber", rowIndex)))
-                .enableBatchNumber(getIntegerCellValue(getFieldCellValue.apply("batchNumber", rowIndex)))
-                .warehouseShelves(getFieldCellValue.apply("warehouseShelves", rowIndex))
-                .productManufacturer(getFieldCellValue.apply("productManufacturer", rowIndex))
-                .otherFieldOne(getFieldCellValue.apply("otherFieldOne", rowIndex))
-                .otherFieldTwo(getFieldCellValue.apply("otherFieldTwo", rowIndex))
-                .otherFieldThree(getFieldCellValue.apply("otherFieldThree", rowIndex))
+                .productWeight(getNumericCellValue(getFieldCellValue.apply("productWeight")))
+                .productExpiryNum(getIntegerCellValue(getFieldCellValue.apply("guaranteePeriod")))
+                .productUnit(getFieldCellValue.apply("productUnit"))
+                .enableSerialNumber(getIntegerCellValue(getFieldCellValue.apply("serialNumber")))
+                .enableBatchNumber(getIntegerCellValue(getFieldCellValue.apply("batchNumber")))
+                .warehouseShelves(getFieldCellValue.apply("warehouseShelves"))
+                .productManufacturer(getFieldCellValue.apply("productManufacturer"))
+                .otherFieldOne(getFieldCellValue.apply("otherFieldOne"))
+                .otherFieldTwo(getFieldCellValue.apply("otherFieldTwo"))
+                .otherFieldThree(getFieldCellValue.apply("otherFieldThree"))
                 .status(0)
-                .remark(getFieldCellValue.apply("remark", rowIndex))
+                .remark(getFieldCellValue.apply("remark"))
                 .createBy(userId)
                 .createTime(LocalDateTime.now())
                 .build();
     }
 
-    private ProductStockKeepUnit createProductStockKeepUnit(BiFunction<String, Integer, String> getFieldCellValue, int rowIndex, Long productId, String productCode, Long userId) {
+    private ProductStockKeepUnit createProductStockKeepUnit(Function<String, String> getFieldCellValue, Long productId, String productCode, Long userId) {
         return ProductStockKeepUnit.builder()
                 .id(SnowflakeIdUtil.nextId())
                 .productId(productId)
                 .productBarCode(productCode)
-                .multiAttribute(getFieldCellValue.apply("multiAttribute", rowIndex))
-                .purchasePrice(getNumericCellValue(getFieldCellValue.apply("purchasePrice", rowIndex)))
-                .retailPrice(getNumericCellValue(getFieldCellValue.apply("retailPrice", rowIndex)))
-                .salePrice(getNumericCellValue(getFieldCellValue.apply("salePrice", rowIndex)))
-                .lowPrice(getNumericCellValue(getFieldCellValue.apply("lowPrice", rowIndex)))
+                .multiAttribute(getFieldCellValue.apply("multiAttribute"))
+                .purchasePrice(getNumericCellValue(getFieldCellValue.apply("purchasePrice")))
+                .retailPrice(getNumericCellValue(getFieldCellValue.apply("retailPrice")))
+                .salePrice(getNumericCellValue(getFieldCellValue.apply("salePrice")))
+                .lowPrice(getNumericCellValue(getFieldCellValue.apply("lowPrice")))
                 .createBy(userId)
                 .createTime(LocalDateTime.now())
                 .build();
     }
 
-    private ProductStock createProductStock(BiFunction<String, Integer, String> getFieldCellValue, int rowIndex, Long productSkuId, Long warehouseId, Long userId) {
+    private ProductStock createProductStock(Function<String, String> getFieldCellValue, Long productSkuId, Long warehouseId, Long userId) {
         return ProductStock.builder()
                 .id(SnowflakeIdUtil.nextId())
                 .productSkuId(productSkuId)
                 .warehouseId(warehouseId)
-                .initStockQuantity(getNumericCellValue(getFieldCellValue.apply("initStockQuantity", rowIndex)))
-                .currentStockQuantity(getNumericCellValue(getFieldCellValue.apply("currentStockQuantity", rowIndex)))
+                .initStockQuantity(getNumericCellValue(getFieldCellValue.apply("initStockQuantity")))
+                .currentStockQuantity(getNumericCellValue(getFieldCellValue.apply("currentStockQuantity")))
                 .createBy(userId)
                 .createTime(LocalDateTime.now())
                 .build();
     }
 
-    private void processProductsByType(int type, List<Product> products, List<ProductStockKeepUnit> productStockKeepUnits, List<ProductStock> productStocks) {
-        if (type == 1) {
-            Set<String> existingBarcodes = new HashSet<>();
-            Iterator<ProductStockKeepUnit> iterator = productStockKeepUnits.iterator();
-            while (iterator.hasNext()) {
-                ProductStockKeepUnit productStockKeepUnit = iterator.next();
-                String barcode = productStockKeepUnit.getProductBarCode();
-                if (existingBarcodes.contains(barcode)) {
-                    iterator.remove();
-                    products.removeIf(product -> product.getId().equals(productStockKeepUnit.getProductId()));
-                    productStocks.removeIf(productStock -> productStock.getProductSkuId().equals(productStockKeepUnit.getId()));
-                } else {
-                    existingBarcodes.add(barcode);
-                }
-            }
-        }
-    }
-
-
     @Override
     public Response<List<String>> uploadOss(List<MultipartFile> files) {
-        var platform = platformConfigService.list().stream().filter(item -> item.getPlatformKey().startsWith("tencent_oss")).toList();
-        var ossInfoMap = platform.stream().collect(Collectors.toMap(SysPlatformConfig::getPlatformKey, SysPlatformConfig::getPlatformValue));
-
-        if (ossInfoMap.get("tencent_oss_secret_id") == null || ossInfoMap.get("tencent_oss_secret_key") == null
-                || ossInfoMap.get("tencent_oss_region") == null || ossInfoMap.get("tencent_oss_bucket") == null) {
+        var storage = objectStorageProvider.getStorage();
+        if (storage == null) {
             return Response.responseMsg(BaseCodeEnum.OSS_KEY_NOT_EXIST);
         }
-
-        TencentOSS.getInstance().setBucket(ossInfoMap.get("tencent_oss_bucket"));
-        TencentOSS.getInstance().setRegion(ossInfoMap.get("tencent_oss_region"));
-        TencentOSS.getInstance().setSecretid(ossInfoMap.get("tencent_oss_secret_id"));
-        TencentOSS.getInstance().setSecretkey(ossInfoMap.get("tencent_oss_secret_key"));
-        var instance = TencentOSS.getInstance();
-        if(instance == null) {
-            return Response.responseMsg(BaseCodeEnum.OSS_GET_INSTANCE_ERROR);
-        }
-        try {
-            List<String> keys = new ArrayList<>(files.size() + 2);
-            files.forEach(file -> {
-                keys.add("temp" + "_" + SnowflakeIdUtil.nextId() + "_" + file.getOriginalFilename());
-            });
-            var result = instance.uploadBatch(FileUtil.convertMultipartFilesToFiles(files), keys);
+        // 每个文件一个虚拟线程, 直接转发上传的输入流, 不落临时文件; 全部上传结束后释放存储客户端
+        try (storage; var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var uploads = new ArrayList<Future<String>>(files.size());
+            for (MultipartFile file : files) {
+                var key = "temp" + "_" + SnowflakeIdUtil.nextId() + "_" + file.getOriginalFilename();
+                uploads.add(executor.submit(() -> {
+                    try (var in = file.getInputStream()) {
+                        return storage.upload(key, in, file.getSize(), file.getContentType());
+                    }
+                }));
+            }
+            var result = new ArrayList<String>(uploads.size());
+            for (Future<String> upload : uploads) {
+                result.add(upload.get());
+            }
             log.info("上传文件信息: " + result);
             return Response.responseData(result);
-        }catch (Exception e) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_ERROR);
+        } catch (Exception e) {
             log.error("上传文件失败: " + e.getMessage());
             return Response.responseMsg(BaseCodeEnum.FILE_UPLOAD_ERROR);
         }
@@ -796,15 +826,6 @@ public class CommonServiceImpl implements CommonService{
         if (!StringUtils.hasText(type)) {
             return Response.responseMsg(BaseCodeEnum.SNOWFLAKE_ID_GENERATE_ERROR);
         }
-        var id = SnowflakeIdUtil.nextId();
-        StringBuilder idStr = new StringBuilder(String.valueOf(id));
-        var idLength = idStr.length();
-        if (idLength < 18) {
-            var zero = 18 - idLength;
-            for (int i = 0; i < zero; ++i) {
-                idStr.insert(0, "0");
-            }
-        }
         var idPrefix = switch (type) {
             case "供应商" -> "S";
             case "客户" -> "C";
@@ -840,7 +861,7 @@ public class CommonServiceImpl implements CommonService{
             case "收预付款" -> "ACD";
             default -> "";
         };
-        return Response.responseData(idPrefix + idStr);
+        return Response.responseData(sequenceService.nextNumber(idPrefix));
     }
 
     @Override
@@ -940,60 +961,51 @@ public class CommonServiceImpl implements CommonService{
                 .orElse(NullString);
     }
 
-    private String getCellValue(Cell cell, DataFormatter dataFormatter) {
-        if (cell != null) {
-            String value = dataFormatter.formatCellValue(cell);
-            if (value != null && !value.isEmpty()) {
-                return value;
-            }
-        }
-        return null;
-    }
-
-    private BigDecimal getNumericCellValue(Cell cell) {
-        if (cell != null) {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return BigDecimal.valueOf(cell.getNumericCellValue());
-            } else if (cell.getCellType() == CellType.STRING) {
-                try {
-                    return new BigDecimal(cell.getStringCellValue());
-                } catch (NumberFormatException e) {
-                    // Log and handle the number format exception if necessary
-                }
-            }
-        }
-        return BigDecimal.ZERO;
-    }
-
+    @Override
+    public DimensionResolver createDimensionResolver() {
+        return new DimensionResolver(
+                new DimensionCache<>(productService::listByIds, Product::getId),
+                new DimensionCache<>(productCategoryService::listByIds, ProductCategory::getId),
+                new DimensionCache<>(warehouseService::listByIds, Warehouse::getId),
+                new DimensionCache<>(memberService::listByIds, Member::getId),
+                new DimensionCache<>(customerService::listByIds, Customer::getId),
+                new DimensionCache<>(supplierService::listByIds, Supplier::getId),
+                new DimensionCache<>(operatorService::listByIds, Operator::getId),
+                new DimensionCache<>(userMapper::selectBatchIds, SysUser::getId),
+                new DimensionCache<>(accountService::listByIds, FinancialAccount::getId),
+                new DimensionCache<>(productUnitService::listByIds, ProductUnit::getId),
+                new DimensionCache<>(keys -> productStockMapper.getProductSkuByBarCodes(
+                        keys.stream().map(DimensionResolver.ProductStockKey::barCode).collect(Collectors.toSet()),
+                        keys.stream().map(DimensionResolver.ProductStockKey::warehouseId).collect(Collectors.toSet())),
+                        stock -> new DimensionResolver.ProductStockKey(stock.getBarCode(), stock.getWarehouseId())));
+    }
+
+    /**
+     * SAX读取到的是按单元格格式显示的文本, 去掉千分位, 百分比换算为小数
+     */
     private BigDecimal getNumericCellValue(String cellValue) {
-        if (cellValue != null) {
-            try {
-                return new BigDecimal(cellValue);
-            } catch (NumberFormatException e) {
-                // Log and handle the number format exception if necessary
+        if (!StringUtils.hasText(cellValue)) {
+            return BigDecimal.ZERO;
+        }
+        var value = cellValue.trim().replace(",", "");
+        try {
+            if (value.endsWith("%")) {
+                return new BigDecimal(value.substring(0, value.length() - 1)).movePointLeft(2);
             }
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("数值格式错误: " + cellValue);
         }
-        return BigDecimal.ZERO;
     }
 
     private Integer getIntegerCellValue(String cellValue) {
-        if (cellValue != null) {
-            try {
-                return Integer.valueOf(cellValue);
-            } catch (NumberFormatException e) {
-                // Log and handle the number format exception if necessary
-            }
+        if (!StringUtils.hasText(cellValue)) {
+            return 0;
         }
-        return 0;
-    }
-
-    private boolean isRowEmpty(Row row) {
-        for (int cellNum = row.getFirstCellNum(); cellNum < row.getLastCellNum(); cellNum++) {
-            Cell cell = row.getCell(cellNum);
-            if (cell != null && cell.getCellType() != CellType.BLANK) {
-                return false;
-            }
+        try {
+            return new BigDecimal(cellValue.trim().replace(",", "")).intValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("整数格式错误: " + cellValue);
         }
-        return true;
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.common;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Per-call cache for one kind of dimension data (product, warehouse, member ...).
+ * Ids are collected first and loaded in batches with a single IN query, instead of
+ * one getById per report row. Missing rows are remembered so they are not queried again.
+ * <p>
+ * 报表维度数据缓存, 先收集id再批量查询, 避免逐行查询。非线程安全, 只在一次调用内使用。
+ */
+public class DimensionCache<K, T> {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final Function<Collection<K>, ? extends Collection<T>> loader;
+
+    private final Function<T, K> idGetter;
+
+    private final Map<K, T> loaded = new HashMap<>();
+
+    private final Set<K> pending = new LinkedHashSet<>();
+
+    private int queryCount;
+
+    public DimensionCache(Function<Collection<K>, ? extends Collection<T>> loader, Function<T, K> idGetter) {
+        this.loader = loader;
+        this.idGetter = idGetter;
+    }
+
+    public DimensionCache<K, T> addIds(Collection<K> ids) {
+        if (ids != null) {
+            ids.stream()
+                    .filter(Objects::nonNull)
+                    .filter(id -> !loaded.containsKey(id))
+                    .forEach(pending::add);
+        }
+        return this;
+    }
+
+    public T get(K id) {
+        if (id == null) {
+            return null;
+        }
+        if (!loaded.containsKey(id)) {
+            pending.add(id);
+            load();
+        }
+        return loaded.get(id);
+    }
+
+    /**
+     * Load every collected id and return the rows found so far.
+     */
+    public Collection<T> values() {
+        if (!pending.isEmpty()) {
+            load();
+        }
+        return loaded.values().stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    private void load() {
+        var ids = new ArrayList<>(pending);
+        pending.clear();
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            var batch = ids.subList(i, Math.min(i + BATCH_SIZE, ids.size()));
+            queryCount++;
+            var rows = loader.apply(batch);
+            if (rows != null) {
+                rows.forEach(row -> loaded.put(idGetter.apply(row), row));
+            }
+            batch.forEach(id -> loaded.putIfAbsent(id, null));
+        }
+    }
+}
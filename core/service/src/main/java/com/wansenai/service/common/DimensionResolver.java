@@ -0,0 +1,287 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.common;
+
+import com.wansenai.entities.basic.Customer;
+import com.wansenai.entities.basic.Member;
+import com.wansenai.entities.basic.Operator;
+import com.wansenai.entities.basic.Supplier;
+import com.wansenai.entities.financial.FinancialAccount;
+import com.wansenai.entities.product.Product;
+import com.wansenai.entities.product.ProductCategory;
+import com.wansenai.entities.product.ProductUnit;
+import com.wansenai.entities.user.SysUser;
+import com.wansenai.entities.warehouse.Warehouse;
+import com.wansenai.utils.constants.CommonConstants;
+import com.wansenai.vo.product.ProductStockKeepUnitVO;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Batch resolver of the dimension data used by report and page builders.
+ * Create one per call with {@link CommonService#createDimensionResolver()}, register the ids
+ * of the rows being rendered with the add*Ids methods, then read the names row by row.
+ * Each kind of dimension is loaded with one IN query no matter how many rows reference it.
+ * <p>
+ * 报表维度数据批量解析器, 每次调用创建一个, 名称为空时与 CommonService 一样返回空字符串
+ */
+public class DimensionResolver {
+
+    private static final String NullString = "";
+
+    private final DimensionCache<Long, Product> products;
+
+    private final DimensionCache<Long, ProductCategory> productCategories;
+
+    private final DimensionCache<Long, Warehouse> warehouses;
+
+    private final DimensionCache<Long, Member> members;
+
+    private final DimensionCache<Long, Customer> customers;
+
+    private final DimensionCache<Long, Supplier> suppliers;
+
+    private final DimensionCache<Long, Operator> operators;
+
+    private final DimensionCache<Long, SysUser> users;
+
+    private final DimensionCache<Long, FinancialAccount> accounts;
+
+    private final DimensionCache<Long, ProductUnit> productUnits;
+
+    private final DimensionCache<ProductStockKey, ProductStockKeepUnitVO> productStocks;
+
+    /**
+     * Key of a product sku stock row: sku barcode and warehouse.
+     */
+    public record ProductStockKey(String barCode, Long warehouseId) {
+    }
+
+    public DimensionResolver(DimensionCache<Long, Product> products, DimensionCache<Long, ProductCategory> productCategories, DimensionCache<Long, Warehouse> warehouses, DimensionCache<Long, Member> members, DimensionCache<Long, Customer> customers, DimensionCache<Long, Supplier> suppliers, DimensionCache<Long, Operator> operators, DimensionCache<Long, SysUser> users, DimensionCache<Long, FinancialAccount> accounts, DimensionCache<Long, ProductUnit> productUnits, DimensionCache<ProductStockKey, ProductStockKeepUnitVO> productStocks) {
+        this.products = products;
+        this.productCategories = productCategories;
+        this.warehouses = warehouses;
+        this.members = members;
+        this.customers = customers;
+        this.suppliers = suppliers;
+        this.operators = operators;
+        this.users = users;
+        this.accounts = accounts;
+        this.productUnits = productUnits;
+        this.productStocks = productStocks;
+    }
+
+    public <E> DimensionResolver addProductIds(Collection<E> rows, Function<E, Long> idGetter) {
+        products.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addProductCategoryIds(Collection<E> rows, Function<E, Long> idGetter) {
+        productCategories.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    /**
+     * Collect the categories of all products collected so far, loading the products first.
+     */
+    public DimensionResolver addProductCategoryIdsOfProducts() {
+        productCategories.addIds(products.values().stream().map(Product::getProductCategoryId).toList());
+        return this;
+    }
+
+    /**
+     * Collect the multi units of all products collected so far, loading the products first.
+     */
+    public DimensionResolver addProductUnitIdsOfProducts() {
+        productUnits.addIds(products.values().stream().map(Product::getProductUnitId).toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addProductStockKeys(Collection<E> rows, Function<E, String> barCodeGetter, Function<E, Long> warehouseIdGetter) {
+        productStocks.addIds(rows.stream()
+                .filter(row -> barCodeGetter.apply(row) != null && warehouseIdGetter.apply(row) != null)
+                .map(row -> new ProductStockKey(barCodeGetter.apply(row), warehouseIdGetter.apply(row)))
+                .toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addWarehouseIds(Collection<E> rows, Function<E, Long> idGetter) {
+        warehouses.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addMemberIds(Collection<E> rows, Function<E, Long> idGetter) {
+        members.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addCustomerIds(Collection<E> rows, Function<E, Long> idGetter) {
+        customers.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addSupplierIds(Collection<E> rows, Function<E, Long> idGetter) {
+        suppliers.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addOperatorIds(Collection<E> rows, Function<E, Long> idGetter) {
+        operators.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addUserIds(Collection<E> rows, Function<E, Long> idGetter) {
+        users.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    public <E> DimensionResolver addAccountIds(Collection<E> rows, Function<E, Long> idGetter) {
+        accounts.addIds(rows.stream().map(idGetter).toList());
+        return this;
+    }
+
+    public Product getProduct(Long productId) {
+        return products.get(productId);
+    }
+
+    public String getProductName(Long productId) {
+        return Optional.ofNullable(products.get(productId))
+                .map(Product::getProductName)
+                .orElse(NullString);
+    }
+
+    /**
+     * 与商品详情一致: 多单位返回换算单位, 否则返回基本单位
+     */
+    public String getProductUnit(Long productId) {
+        var product = products.get(productId);
+        if (product == null) {
+            return null;
+        }
+        if (product.getProductUnitId() != null) {
+            return Optional.ofNullable(productUnits.get(product.getProductUnitId()))
+                    .filter(unit -> Objects.equals(unit.getDeleteFlag(), CommonConstants.NOT_DELETED))
+                    .map(ProductUnit::getComputeUnit)
+                    .orElse(null);
+        }
+        return StringUtils.hasLength(product.getProductUnit()) ? product.getProductUnit() : null;
+    }
+
+    public ProductStockKeepUnitVO getProductStock(String barCode, Long warehouseId) {
+        if (barCode == null || warehouseId == null) {
+            return null;
+        }
+        return productStocks.get(new ProductStockKey(barCode, warehouseId));
+    }
+
+    public String getProductCategoryName(Long productCategoryId) {
+        return Optional.ofNullable(productCategories.get(productCategoryId))
+                .map(ProductCategory::getCategoryName)
+                .orElse(NullString);
+    }
+
+    public String getWarehouseName(Long warehouseId) {
+        return Optional.ofNullable(warehouses.get(warehouseId))
+                .map(Warehouse::getWarehouseName)
+                .orElse(NullString);
+    }
+
+    public Member getMember(Long memberId) {
+        return members.get(memberId);
+    }
+
+    public String getMemberName(Long memberId) {
+        return Optional.ofNullable(members.get(memberId))
+                .map(Member::getMemberName)
+                .orElse(NullString);
+    }
+
+    public Customer getCustomer(Long customerId) {
+        return customers.get(customerId);
+    }
+
+    public String getCustomerName(Long customerId) {
+        return Optional.ofNullable(customers.get(customerId))
+                .map(Customer::getCustomerName)
+                .orElse(NullString);
+    }
+
+    public Supplier getSupplier(Long supplierId) {
+        return suppliers.get(supplierId);
+    }
+
+    public String getSupplierName(Long supplierId) {
+        return Optional.ofNullable(suppliers.get(supplierId))
+                .map(Supplier::getSupplierName)
+                .orElse(NullString);
+    }
+
+    public Operator getOperator(Long operatorId) {
+        return operators.get(operatorId);
+    }
+
+    public String getOperatorName(Long operatorId) {
+        return Optional.ofNullable(operators.get(operatorId))
+                .map(Operator::getName)
+                .orElse(NullString);
+    }
+
+    public SysUser getUser(Long userId) {
+        return users.get(userId);
+    }
+
+    public String getUserName(Long userId) {
+        return Optional.ofNullable(users.get(userId))
+                .map(SysUser::getName)
+                .orElse(NullString);
+    }
+
+    public String getAccountName(Long accountId) {
+        return Optional.ofNullable(accounts.get(accountId))
+                .map(FinancialAccount::getAccountName)
+                .orElse(NullString);
+    }
+
+    /**
+     * 查询供应商 客户 会员 哪一个不为空就返回哪一个
+     */
+    public String getRelatedPersonName(Long relatedPersonId) {
+        var member = members.get(relatedPersonId);
+        if (member != null) {
+            return member.getMemberName();
+        }
+        var customer = customers.get(relatedPersonId);
+        if (customer != null) {
+            return customer.getCustomerName();
+        }
+        var supplier = suppliers.get(relatedPersonId);
+        if (supplier != null) {
+            return supplier.getSupplierName();
+        }
+        return NullString;
+    }
+
+    /**
+     * Total number of SELECT statements issued by this resolver.
+     */
+    public int getQueryCount() {
+        return Stream.of(products, productCategories, warehouses, members, customers, suppliers, operators, users, accounts, productUnits, productStocks)
+                .mapToInt(DimensionCache::getQueryCount)
+                .sum();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out sequence values from ranges reserved in blocks. Each node reserves a block of
+ * {@code blockSize} values from a shared counter and issues them lock-free from memory; only the
+ * thread that exhausts a block goes back to the counter. Values are unique across nodes as long as
+ * the counter never hands out the same block twice, unused values of a block are lost on restart.
+ * <p>
+ * 号段分配器, 每次从共享计数器预留一段数值, 在内存中无锁发号, 用完再申请。多节点不重复, 允许跳号。
+ */
+public class SequenceBlockAllocator<K> {
+
+    @FunctionalInterface
+    public interface BlockSource<K> {
+
+        /**
+         * 预留一个新号段, 返回号段最大值, 号段为 (max - blockSize, max]
+         */
+        long reserve(K key, long blockSize);
+    }
+
+    private final long blockSize;
+
+    private final ConcurrentHashMap<K, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong reservations = new AtomicLong();
+
+    private record Block(AtomicLong next, long max) {
+    }
+
+    public SequenceBlockAllocator(long blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    public long next(K key, BlockSource<K> source) {
+        var holder = blocks.computeIfAbsent(key, k -> new AtomicReference<>());
+        while (true) {
+            var block = holder.get();
+            if (block != null) {
+                var value = block.next().getAndIncrement();
+                if (value <= block.max()) {
+                    return value;
+                }
+            }
+            // 号段用完, 只有一个线程去申请新号段
+            synchronized (holder) {
+                if (holder.get() == block) {
+                    var max = source.reserve(key, blockSize);
+                    reservations.incrementAndGet();
+                    holder.set(new Block(new AtomicLong(max - blockSize + 1), max));
+                }
+            }
+        }
+    }
+
+    /**
+     * 丢弃本节点未用完的号段, 下次发号重新申请
+     */
+    public void discard(K key) {
+        var holder = blocks.get(key);
+        if (holder != null) {
+            holder.set(null);
+        }
+    }
+
+    public long getReservationCount() {
+        return reservations.get();
+    }
+}
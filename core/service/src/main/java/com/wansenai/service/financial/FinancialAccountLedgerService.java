@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.financial;
+
+import com.wansenai.bo.financial.AccountChangeBO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * <p>
+ * 账户台账：所有单据对结算账户余额的增减都通过这里，使用相对更新保证并发安全，并记录余额流水
+ * </p>
+ */
+public interface FinancialAccountLedgerService {
+
+    /**
+     * Apply the balance changes of one receipt. Amounts are relative deltas (positive for collections,
+     * negative for payments). Changes to the same account are merged and all accounts are updated in a
+     * single statement, then one journal row is recorded per changed account. Unknown accounts are ignored.
+     * <p>
+     * 应用单据对账户余额的变动，金额为相对增减（收款为正，付款为负）。同一账户的变动先合并，一条语句原子更新所有账户，
+     * 并为每个账户写入余额流水。不存在的账户会被忽略。
+     *
+     * @param changes balance changes of one receipt
+     *                单据的账户余额变动
+     */
+    void applyAccountChanges(List<AccountChangeBO> changes);
+
+    /**
+     * Apply a single balance change, see {@link #applyAccountChanges(List)}.
+     * <p>
+     * 应用单个账户的余额变动
+     *
+     * @param accountId     account id
+     *                      账户id
+     * @param amount        relative amount, null or zero is ignored
+     *                      相对增减的金额，为空或0时忽略
+     * @param receiptMainId source receipt id
+     *                      来源单据主表id
+     */
+    void applyAccountChange(Long accountId, BigDecimal amount, Long receiptMainId);
+
+    /**
+     * Record the opening balance of a new account or a manual adjustment in the journal without changing
+     * the stored balance, so that replaying the journal gives the same balance.
+     * <p>
+     * 只记录期初余额或手工调整的流水，不修改账户余额，保证回放流水后余额一致。
+     *
+     * @param accountId account id
+     *                  账户id
+     * @param amount    opening amount or adjustment
+     *                  期初金额或调整金额
+     */
+    void recordOpeningBalance(Long accountId, BigDecimal amount);
+
+    /**
+     * Rebuild the balance of an account by replaying its journal.
+     * <p>
+     * 回放余额流水重算账户余额
+     *
+     * @param accountId account id
+     *                  账户id
+     * @return rebuilt balance, null if the account does not exist
+     *         重算后的余额，账户不存在时为空
+     */
+    BigDecimal rebuildBalance(Long accountId);
+}
@@ -17,6 +17,7 @@ import com.wansenai.service.BaseService;
 import com.wansenai.service.basic.IOperatorService;
 import com.wansenai.service.basic.MemberService;
 import com.wansenai.service.financial.FinancialSubService;
+import com.wansenai.service.common.CommonService;
 import com.wansenai.service.financial.IFinancialAccountService;
 import com.wansenai.service.financial.AdvanceChargeService;
 import com.wansenai.service.user.ISysUserService;
@@ -56,6 +57,7 @@ public class AdvanceChargeServiceImpl extends ServiceImpl<FinancialMainMapper, F
     private final ISysUserService userService;
     private final IFinancialAccountService accountService;
     private final SysFileMapper fileMapper;
+    private final CommonService commonService;
 
     public AdvanceChargeServiceImpl(
             BaseService baseService,
@@ -65,7 +67,8 @@ public class AdvanceChargeServiceImpl extends ServiceImpl<FinancialMainMapper, F
             IOperatorService operatorService,
             ISysUserService userService,
             IFinancialAccountService accountService,
-            SysFileMapper fileMapper) {
+            SysFileMapper fileMapper,
+            CommonService commonService) {
         this.baseService = baseService;
         this.financialSubService = financialSubService;
         this.financialMainMapper = financialMainMapper;
@@ -74,6 +77,7 @@ public class AdvanceChargeServiceImpl extends ServiceImpl<FinancialMainMapper, F
         this.userService = userService;
         this.accountService = accountService;
         this.fileMapper = fileMapper;
+        this.commonService = commonService;
     }
 
     @Transactional
@@ -232,10 +236,14 @@ public class AdvanceChargeServiceImpl extends ServiceImpl<FinancialMainMapper, F
             return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY);
         }
 
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(records, FinancialMain::getRelatedPersonId)
+                .addUserIds(records, FinancialMain::getCreateBy)
+                .addOperatorIds(records, FinancialMain::getOperatorId);
         var voList = records.stream().map(financialMain -> {
-            var member = memberService.getMemberById(financialMain.getRelatedPersonId());
-            var operator = userService.getById(financialMain.getCreateBy());
-            var financialPerson = operatorService.getOperatorById(financialMain.getOperatorId());
+            var member = resolver.getMember(financialMain.getRelatedPersonId());
+            var operator = resolver.getUser(financialMain.getCreateBy());
+            var financialPerson = resolver.getOperator(financialMain.getOperatorId());
 
             return toAdvanceChargeVO(financialMain, member, operator, financialPerson);
         }).collect(Collectors.toList());
@@ -323,10 +331,14 @@ public class AdvanceChargeServiceImpl extends ServiceImpl<FinancialMainMapper, F
                 .eq(FinancialMain::getDeleteFlag, CommonConstants.NOT_DELETED);
 
         var result = financialMainMapper.selectList(wrapper);
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(result, FinancialMain::getRelatedPersonId)
+                .addUserIds(result, FinancialMain::getCreateBy)
+                .addOperatorIds(result, FinancialMain::getOperatorId);
         return result.stream().map(financialMain -> {
-            var member = memberService.getMemberById(financialMain.getRelatedPersonId());
-            var operator = userService.getById(financialMain.getCreateBy());
-            var financialPerson = operatorService.getOperatorById(financialMain.getOperatorId());
+            var member = resolver.getMember(financialMain.getRelatedPersonId());
+            var operator = resolver.getUser(financialMain.getCreateBy());
+            var financialPerson = resolver.getOperator(financialMain.getOperatorId());
 
             return toAdvanceChargeBO(financialMain, member, operator, financialPerson);
         }).collect(Collectors.toList());
@@ -361,10 +373,14 @@ public class AdvanceChargeServiceImpl extends ServiceImpl<FinancialMainMapper, F
                 .eq(FinancialMain::getDeleteFlag, CommonConstants.NOT_DELETED);
 
         var result = financialMainMapper.selectList(wrapper);
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(result, FinancialMain::getRelatedPersonId)
+                .addUserIds(result, FinancialMain::getCreateBy)
+                .addOperatorIds(result, FinancialMain::getOperatorId);
         return result.stream().map(financialMain -> {
-            var member = memberService.getMemberById(financialMain.getRelatedPersonId());
-            var operator = userService.getById(financialMain.getCreateBy());
-            var financialPerson = operatorService.getOperatorById(financialMain.getOperatorId());
+            var member = resolver.getMember(financialMain.getRelatedPersonId());
+            var operator = resolver.getUser(financialMain.getCreateBy());
+            var financialPerson = resolver.getOperator(financialMain.getOperatorId());
 
             return toAdvanceChargeEnBO(financialMain, member, operator, financialPerson);
         }).collect(Collectors.toList());
@@ -383,11 +399,12 @@ public class AdvanceChargeServiceImpl extends ServiceImpl<FinancialMainMapper, F
                     .list();
 
             var tableData = new ArrayList<AdvanceChargeDataBO>();
+            var resolver = commonService.createDimensionResolver()
+                    .addAccountIds(subData, FinancialSub::getAccountId);
             for (var financialSub : subData) {
-                var account = accountService.getById(financialSub.getAccountId());
                 var record = new AdvanceChargeDataBO();
                 record.setAccountId(financialSub.getAccountId());
-                record.setAccountName(account != null ? account.getAccountName() : "");
+                record.setAccountName(resolver.getAccountName(financialSub.getAccountId()));
                 record.setAmount(financialSub.getSingleAmount());
                 record.setRemark(financialSub.getRemark());
                 tableData.add(record);
@@ -30,7 +30,7 @@ import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.service.common.CommonService;
 import com.wansenai.service.financial.CollectionReceiptService;
 import com.wansenai.service.financial.FinancialSubService;
-import com.wansenai.service.financial.IFinancialAccountService;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.SnowflakeIdUtil;
 import com.wansenai.utils.TimeUtil;
@@ -44,6 +44,7 @@ import com.wansenai.vo.financial.CollectionVO;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
@@ -66,14 +67,14 @@ public class CollectionReceiptServiceImpl extends ServiceImpl<FinancialMainMappe
 
     private final SysFileMapper fileMapper;
 
-    private final IFinancialAccountService accountService;
+    private final FinancialAccountLedgerService accountLedgerService;
 
-    public CollectionReceiptServiceImpl(FinancialSubService financialSubService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, IFinancialAccountService accountService) {
+    public CollectionReceiptServiceImpl(FinancialSubService financialSubService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, FinancialAccountLedgerService accountLedgerService) {
         this.financialSubService = financialSubService;
         this.commonService = commonService;
         this.userService = userService;
         this.fileMapper = fileMapper;
-        this.accountService = accountService;
+        this.accountLedgerService = accountLedgerService;
     }
 
     private ArrayList<Long> processFiles(List<FileDataBO> files, Long retailId) {
@@ -125,14 +126,18 @@ public class CollectionReceiptServiceImpl extends ServiceImpl<FinancialMainMappe
                 .page(page);
 
         var collectionVOList = new ArrayList<CollectionVO>(financialMainPage.getRecords().size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addCustomerIds(financialMainPage.getRecords(), FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainPage.getRecords(), FinancialMain::getOperatorId)
+                .addAccountIds(financialMainPage.getRecords(), FinancialMain::getAccountId);
         financialMainPage.getRecords().forEach(item -> {
             var collectionVo = CollectionVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .customerName(commonService.getCustomerName(item.getRelatedPersonId()))
+                    .customerName(resolver.getCustomerName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .collectionAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .collectionAccountName(resolver.getAccountName(item.getAccountId()))
                     .totalCollectionAmount(item.getTotalAmount())
                     .discountAmount(item.getDiscountAmount())
                     .actualCollectionAmount(item.getChangeAmount())
@@ -162,14 +167,18 @@ public class CollectionReceiptServiceImpl extends ServiceImpl<FinancialMainMappe
                 .list();
 
         var collectionExportBOList = new ArrayList<CollectionExportBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addCustomerIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var collectionExportBO = CollectionExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .customerName(commonService.getCustomerName(item.getRelatedPersonId()))
+                    .customerName(resolver.getCustomerName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .collectionAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .collectionAccountName(resolver.getAccountName(item.getAccountId()))
                     .totalCollectionAmount(item.getTotalAmount())
                     .discountAmount(item.getDiscountAmount())
                     .actualCollectionAmount(item.getChangeAmount())
@@ -197,14 +206,18 @@ public class CollectionReceiptServiceImpl extends ServiceImpl<FinancialMainMappe
                 .list();
 
         var collectionExportEnBOList = new ArrayList<CollectionExportEnBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addCustomerIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var collectionExportEnBO = CollectionExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .customerName(commonService.getCustomerName(item.getRelatedPersonId()))
+                    .customerName(resolver.getCustomerName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .collectionAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .collectionAccountName(resolver.getAccountName(item.getAccountId()))
                     .totalCollectionAmount(item.getTotalAmount())
                     .discountAmount(item.getDiscountAmount())
                     .actualCollectionAmount(item.getChangeAmount())
@@ -269,6 +282,7 @@ public class CollectionReceiptServiceImpl extends ServiceImpl<FinancialMainMappe
     }
 
     @Override
+    @Transactional
     public Response<String> addOrUpdateCollectionReceipt(AddOrUpdateCollectionDTO addOrUpdateCollectionDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
@@ -317,20 +331,12 @@ public class CollectionReceiptServiceImpl extends ServiceImpl<FinancialMainMappe
                     .set(FinancialMain::getUpdateTime, LocalDateTime.now())
                     .update();
 
-            var account = accountService.getById(addOrUpdateCollectionDTO.getCollectionAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = addOrUpdateCollectionDTO.getActualCollectionAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(FinancialSub::getSingleAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.subtract(beforeChangeAmount);
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.add(changeAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(FinancialSub::getSingleAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(addOrUpdateCollectionDTO.getActualCollectionAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(addOrUpdateCollectionDTO.getCollectionAccountId(), changeAmount.subtract(beforeChangeAmount), addOrUpdateCollectionDTO.getId());
 
             if (!updateSubResult || !updateFinancialMain) {
                 if ("zh_CN".equals(systemLanguage)) {
@@ -383,17 +389,10 @@ public class CollectionReceiptServiceImpl extends ServiceImpl<FinancialMainMappe
                     .collect(Collectors.toList());
             var saveSubResult = financialSubService.saveBatch(financialSub);
 
-            var account = accountService.getById(addOrUpdateCollectionDTO.getCollectionAccountId());
-            if (account != null) {
-                // 更新余额 收款账户增加金额
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = addOrUpdateCollectionDTO.getActualCollectionAmount();
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.add(changeAmount);
-                    account.setId(addOrUpdateCollectionDTO.getCollectionAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额 收款账户增加金额
+            var changeAmount = addOrUpdateCollectionDTO.getActualCollectionAmount();
+            if (changeAmount != null) {
+                accountLedgerService.applyAccountChange(addOrUpdateCollectionDTO.getCollectionAccountId(), changeAmount, id);
             }
 
             if (!saveResult || !saveSubResult) {
@@ -31,7 +31,7 @@ import com.wansenai.service.basic.IncomeExpenseService;
 import com.wansenai.service.common.CommonService;
 import com.wansenai.service.financial.ExpenseReceiptService;
 import com.wansenai.service.financial.FinancialSubService;
-import com.wansenai.service.financial.IFinancialAccountService;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.SnowflakeIdUtil;
 import com.wansenai.utils.TimeUtil;
@@ -45,6 +45,7 @@ import com.wansenai.vo.financial.ExpenseVO;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
@@ -52,6 +53,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -66,16 +68,16 @@ public class ExpenseReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
 
     private final SysFileMapper fileMapper;
 
-    private final IFinancialAccountService accountService;
+    private final FinancialAccountLedgerService accountLedgerService;
 
     private final IncomeExpenseService incomeExpenseService;
 
-    public ExpenseReceiptServiceImpl(FinancialSubService financialSubService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, IFinancialAccountService accountService, IncomeExpenseService incomeExpenseService) {
+    public ExpenseReceiptServiceImpl(FinancialSubService financialSubService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, FinancialAccountLedgerService accountLedgerService, IncomeExpenseService incomeExpenseService) {
         this.financialSubService = financialSubService;
         this.commonService = commonService;
         this.userService = userService;
         this.fileMapper = fileMapper;
-        this.accountService = accountService;
+        this.accountLedgerService = accountLedgerService;
         this.incomeExpenseService = incomeExpenseService;
     }
 
@@ -127,14 +129,20 @@ public class ExpenseReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .page(page);
 
         var expenseVOList = new ArrayList<ExpenseVO>(financialMainPage.getRecords().size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(financialMainPage.getRecords(), FinancialMain::getRelatedPersonId)
+                .addCustomerIds(financialMainPage.getRecords(), FinancialMain::getRelatedPersonId)
+                .addSupplierIds(financialMainPage.getRecords(), FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainPage.getRecords(), FinancialMain::getOperatorId)
+                .addAccountIds(financialMainPage.getRecords(), FinancialMain::getAccountId);
         financialMainPage.getRecords().forEach(item -> {
             var expenseVO = ExpenseVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .name(commonService.getRelatedPersonName(item.getRelatedPersonId()))
+                    .name(resolver.getRelatedPersonName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .expenseAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .expenseAccountName(resolver.getAccountName(item.getAccountId()))
                     .expenseAmount(item.getTotalAmount())
                     .status(item.getStatus())
                     .remark(item.getRemark())
@@ -161,14 +169,20 @@ public class ExpenseReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .list();
 
         var expenseExportBOList = new ArrayList<ExpenseExportBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addCustomerIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addSupplierIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var expenseExportBO = ExpenseExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .name(commonService.getRelatedPersonName(item.getRelatedPersonId()))
+                    .name(resolver.getRelatedPersonName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .expenseAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .expenseAccountName(resolver.getAccountName(item.getAccountId()))
                     .expenseAmount(item.getTotalAmount())
                     .status(item.getStatus())
                     .remark(item.getRemark())
@@ -193,14 +207,20 @@ public class ExpenseReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .list();
 
         var expenseExportEnBOList = new ArrayList<ExpenseExportEnBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addCustomerIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addSupplierIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var expenseExportEnBO = ExpenseExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .name(commonService.getRelatedPersonName(item.getRelatedPersonId()))
+                    .name(resolver.getRelatedPersonName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .expenseAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .expenseAccountName(resolver.getAccountName(item.getAccountId()))
                     .expenseAmount(item.getTotalAmount())
                     .status(item.getStatus())
                     .remark(item.getRemark())
@@ -259,6 +279,7 @@ public class ExpenseReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
     }
 
     @Override
+    @Transactional
     public Response<String> addOrUpdateExpenseReceipt(AddOrUpdateExpenseDTO addOrUpdateExpenseDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
@@ -304,20 +325,12 @@ public class ExpenseReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                     .set(addOrUpdateExpenseDTO.getStatus() != null, FinancialMain::getStatus, addOrUpdateExpenseDTO.getStatus())
                     .update();
 
-            var account = accountService.getById(addOrUpdateExpenseDTO.getExpenseAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = addOrUpdateExpenseDTO.getExpenseAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(FinancialSub::getSingleAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.add(beforeChangeAmount);
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.subtract(changeAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(FinancialSub::getSingleAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(addOrUpdateExpenseDTO.getExpenseAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(addOrUpdateExpenseDTO.getExpenseAccountId(), beforeChangeAmount.subtract(changeAmount), addOrUpdateExpenseDTO.getId());
 
             if (!updateSubResult || !updateFinancialMain) {
                 if ("zh_CN".equals(systemLanguage)) {
@@ -365,17 +378,10 @@ public class ExpenseReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                     .collect(Collectors.toList());
             var saveSubResult = financialSubService.saveBatch(financialSub);
 
-            var account = accountService.getById(addOrUpdateExpenseDTO.getExpenseAccountId());
-            if (account != null) {
-                // 更新余额 划扣相减
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = addOrUpdateExpenseDTO.getExpenseAmount();
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.subtract(changeAmount);
-                    account.setId(addOrUpdateExpenseDTO.getExpenseAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额 划扣相减
+            var changeAmount = addOrUpdateExpenseDTO.getExpenseAmount();
+            if (changeAmount != null) {
+                accountLedgerService.applyAccountChange(addOrUpdateExpenseDTO.getExpenseAccountId(), changeAmount.negate(), id);
             }
 
             if (!saveResult || !saveSubResult) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.financial.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.wansenai.bo.financial.AccountChangeBO;
+import com.wansenai.entities.financial.FinancialAccount;
+import com.wansenai.entities.financial.FinancialAccountJournal;
+import com.wansenai.mappers.financial.FinancialAccountJournalMapper;
+import com.wansenai.mappers.financial.FinancialAccountMapper;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
+import com.wansenai.utils.SnowflakeIdUtil;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class FinancialAccountLedgerServiceImpl implements FinancialAccountLedgerService {
+
+    private final FinancialAccountMapper accountMapper;
+
+    private final FinancialAccountJournalMapper accountJournalMapper;
+
+    public FinancialAccountLedgerServiceImpl(FinancialAccountMapper accountMapper, FinancialAccountJournalMapper accountJournalMapper) {
+        this.accountMapper = accountMapper;
+        this.accountJournalMapper = accountJournalMapper;
+    }
+
+    @Override
+    @Transactional
+    public void applyAccountChanges(List<AccountChangeBO> changes) {
+        var accountChanges = resolveAccounts(mergeChanges(changes));
+        if (accountChanges.isEmpty()) {
+            return;
+        }
+        // 按主键顺序加锁，避免并发单据之间死锁
+        accountChanges.sort(Comparator.comparing(AccountChangeBO::getAccountId));
+        accountMapper.increaseCurrentAmount(accountChanges);
+        insertJournal(accountChanges);
+    }
+
+    @Override
+    @Transactional
+    public void applyAccountChange(Long accountId, BigDecimal amount, Long receiptMainId) {
+        applyAccountChanges(List.of(AccountChangeBO.builder()
+                .accountId(accountId)
+                .amount(amount)
+                .receiptMainId(receiptMainId)
+                .build()));
+    }
+
+    @Override
+    @Transactional
+    public void recordOpeningBalance(Long accountId, BigDecimal amount) {
+        var accountChanges = resolveAccounts(mergeChanges(List.of(AccountChangeBO.builder()
+                .accountId(accountId)
+                .amount(amount)
+                .build())));
+        if (!accountChanges.isEmpty()) {
+            insertJournal(accountChanges);
+        }
+    }
+
+    @Override
+    @Transactional
+    public BigDecimal rebuildBalance(Long accountId) {
+        if (accountId == null || accountMapper.rebuildCurrentAmount(accountId) == 0) {
+            return null;
+        }
+        return accountMapper.selectById(accountId).getCurrentAmount();
+    }
+
+    // 同一单据中相同账户的变动先合并，每个账户只更新一次
+    private Map<Long, AccountChangeBO> mergeChanges(List<AccountChangeBO> changes) {
+        var mergedChanges = new LinkedHashMap<Long, AccountChangeBO>();
+        if (changes == null) {
+            return mergedChanges;
+        }
+        for (AccountChangeBO change : changes) {
+            if (change == null || change.getAccountId() == null || change.getAmount() == null) {
+                continue;
+            }
+            mergedChanges.merge(change.getAccountId(),
+                    AccountChangeBO.builder()
+                            .accountId(change.getAccountId())
+                            .amount(change.getAmount())
+                            .receiptMainId(change.getReceiptMainId())
+                            .build(),
+                    (merged, next) -> {
+                        merged.setAmount(merged.getAmount().add(next.getAmount()));
+                        return merged;
+                    });
+        }
+        mergedChanges.values().removeIf(change -> change.getAmount().compareTo(BigDecimal.ZERO) == 0);
+        return mergedChanges;
+    }
+
+    // 查询账户的租户，忽略不存在的账户
+    private List<AccountChangeBO> resolveAccounts(Map<Long, AccountChangeBO> mergedChanges) {
+        var accountChanges = new ArrayList<AccountChangeBO>();
+        if (mergedChanges.isEmpty()) {
+            return accountChanges;
+        }
+        var tenantMap = accountMapper.selectList(new LambdaQueryWrapper<FinancialAccount>()
+                        .select(FinancialAccount::getId, FinancialAccount::getTenantId)
+                        .in(FinancialAccount::getId, mergedChanges.keySet()))
+                .stream()
+                .collect(Collectors.toMap(FinancialAccount::getId, account -> account));
+        mergedChanges.forEach((accountId, change) -> {
+            var account = tenantMap.get(accountId);
+            if (account != null) {
+                change.setTenantId(account.getTenantId());
+                accountChanges.add(change);
+            }
+        });
+        return accountChanges;
+    }
+
+    private void insertJournal(List<AccountChangeBO> accountChanges) {
+        var now = LocalDateTime.now();
+        var ids = Arrays.stream(SnowflakeIdUtil.nextIds(accountChanges.size())).iterator();
+        var journalList = accountChanges.stream()
+                .map(change -> FinancialAccountJournal.builder()
+                        .id(ids.nextLong())
+                        .tenantId(change.getTenantId())
+                        .accountId(change.getAccountId())
+                        .changeAmount(change.getAmount())
+                        .receiptMainId(change.getReceiptMainId())
+                        .createTime(now)
+                        .build())
+                .toList();
+        accountJournalMapper.insertBatch(journalList);
+    }
+}
@@ -18,6 +18,7 @@ import com.wansenai.service.BaseService;
 import com.wansenai.utils.constants.CommonConstants;
 import com.wansenai.utils.enums.BaseCodeEnum;
 import com.wansenai.utils.enums.FinancialCodeEnum;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
 import com.wansenai.service.financial.IFinancialAccountService;
 import com.wansenai.utils.response.Response;
 import com.wansenai.dto.financial.AddOrUpdateAccountDTO;
@@ -31,9 +32,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class FinancialAccountServiceImpl extends ServiceImpl<FinancialAccountMapper, FinancialAccount> implements IFinancialAccountService {
@@ -42,9 +45,12 @@ public class FinancialAccountServiceImpl extends ServiceImpl<FinancialAccountMap
 
     private final FinancialAccountMapper accountMapper;
 
-    public FinancialAccountServiceImpl(BaseService baseService, FinancialAccountMapper accountMapper) {
+    private final FinancialAccountLedgerService accountLedgerService;
+
+    public FinancialAccountServiceImpl(BaseService baseService, FinancialAccountMapper accountMapper, FinancialAccountLedgerService accountLedgerService) {
         this.baseService = baseService;
         this.accountMapper = accountMapper;
+        this.accountLedgerService = accountLedgerService;
     }
 
 
@@ -91,6 +97,7 @@ public class FinancialAccountServiceImpl extends ServiceImpl<FinancialAccountMap
     }
 
     @Override
+    @Transactional
     public Response<String> addOrUpdateAccount(AddOrUpdateAccountDTO addOrUpdateAccountDTO) {
         var userId = baseService.getCurrentUserId();
         var systemLanguage = baseService.getCurrentUserSystemLanguage();
@@ -113,6 +120,8 @@ public class FinancialAccountServiceImpl extends ServiceImpl<FinancialAccountMap
                 }
                 return Response.responseMsg(FinancialCodeEnum.ADD_ACCOUNT_ERROR_EN);
             }
+            // 期初余额写入流水, 回放流水时从这里开始
+            accountLedgerService.recordOpeningBalance(account.getId(), account.getCurrentAmount());
             if(addOrUpdateAccountDTO.getIsDefault() == CommonConstants.IS_DEFAULT) {
                 updateDefaultAccount(account.getId());
             }
@@ -124,6 +133,15 @@ public class FinancialAccountServiceImpl extends ServiceImpl<FinancialAccountMap
             // Update Account
             var account = new FinancialAccount();
             BeanUtils.copyProperties(addOrUpdateAccountDTO, account);
+            // 手工修改余额按差额通过台账调整并记录流水, 不直接覆盖
+            if (addOrUpdateAccountDTO.getCurrentAmount() != null) {
+                var beforeAccount = accountMapper.selectById(addOrUpdateAccountDTO.getId());
+                if (beforeAccount != null) {
+                    var beforeAmount = Optional.ofNullable(beforeAccount.getCurrentAmount()).orElse(BigDecimal.ZERO);
+                    accountLedgerService.applyAccountChange(beforeAccount.getId(), addOrUpdateAccountDTO.getCurrentAmount().subtract(beforeAmount), null);
+                }
+                account.setCurrentAmount(null);
+            }
             account.setUpdateBy(userId);
             account.setUpdateTime(LocalDateTime.now());
             var updateResult = accountMapper.updateById(account);
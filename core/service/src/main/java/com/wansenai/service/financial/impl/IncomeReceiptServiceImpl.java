@@ -30,7 +30,7 @@ import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.service.basic.IncomeExpenseService;
 import com.wansenai.service.common.CommonService;
 import com.wansenai.service.financial.FinancialSubService;
-import com.wansenai.service.financial.IFinancialAccountService;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
 import com.wansenai.service.financial.IncomeReceiptService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.SnowflakeIdUtil;
@@ -45,6 +45,7 @@ import com.wansenai.vo.financial.IncomeVO;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
@@ -52,6 +53,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -66,16 +68,16 @@ public class IncomeReceiptServiceImpl extends ServiceImpl<FinancialMainMapper, F
 
     private final SysFileMapper fileMapper;
 
-    private final IFinancialAccountService accountService;
+    private final FinancialAccountLedgerService accountLedgerService;
 
     private final IncomeExpenseService incomeExpenseService;
 
-    public IncomeReceiptServiceImpl(FinancialSubService financialSubService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, IFinancialAccountService accountService, IncomeExpenseService incomeExpenseService) {
+    public IncomeReceiptServiceImpl(FinancialSubService financialSubService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, FinancialAccountLedgerService accountLedgerService, IncomeExpenseService incomeExpenseService) {
         this.financialSubService = financialSubService;
         this.commonService = commonService;
         this.userService = userService;
         this.fileMapper = fileMapper;
-        this.accountService = accountService;
+        this.accountLedgerService = accountLedgerService;
         this.incomeExpenseService = incomeExpenseService;
     }
 
@@ -128,14 +130,20 @@ public class IncomeReceiptServiceImpl extends ServiceImpl<FinancialMainMapper, F
                 .page(page);
 
         var incomeVOList = new ArrayList<IncomeVO>(financialMainPage.getRecords().size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(financialMainPage.getRecords(), FinancialMain::getRelatedPersonId)
+                .addCustomerIds(financialMainPage.getRecords(), FinancialMain::getRelatedPersonId)
+                .addSupplierIds(financialMainPage.getRecords(), FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainPage.getRecords(), FinancialMain::getOperatorId)
+                .addAccountIds(financialMainPage.getRecords(), FinancialMain::getAccountId);
         financialMainPage.getRecords().forEach(item -> {
             var incomeVO = IncomeVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .name(commonService.getRelatedPersonName(item.getRelatedPersonId()))
+                    .name(resolver.getRelatedPersonName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .incomeAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .incomeAccountName(resolver.getAccountName(item.getAccountId()))
                     .incomeAmount(item.getTotalAmount())
                     .status(item.getStatus())
                     .remark(item.getRemark())
@@ -163,14 +171,20 @@ public class IncomeReceiptServiceImpl extends ServiceImpl<FinancialMainMapper, F
                 .list();
 
         var incomeExportBOList = new ArrayList<IncomeExportBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addCustomerIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addSupplierIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var incomeExportBO = IncomeExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .name(commonService.getRelatedPersonName(item.getRelatedPersonId()))
+                    .name(resolver.getRelatedPersonName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .incomeAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .incomeAccountName(resolver.getAccountName(item.getAccountId()))
                     .incomeAmount(item.getTotalAmount())
                     .status(item.getStatus())
                     .remark(item.getRemark())
@@ -196,14 +210,20 @@ public class IncomeReceiptServiceImpl extends ServiceImpl<FinancialMainMapper, F
                 .list();
 
         var incomeExportEnBOList = new ArrayList<IncomeExportEnBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addCustomerIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addSupplierIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var incomeExportEnBO = IncomeExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .name(commonService.getRelatedPersonName(item.getRelatedPersonId()))
+                    .name(resolver.getRelatedPersonName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .incomeAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .incomeAccountName(resolver.getAccountName(item.getAccountId()))
                     .incomeAmount(item.getTotalAmount())
                     .status(item.getStatus())
                     .remark(item.getRemark())
@@ -262,6 +282,7 @@ public class IncomeReceiptServiceImpl extends ServiceImpl<FinancialMainMapper, F
     }
 
     @Override
+    @Transactional
     public Response<String> addOrUpdateIncomeReceipt(AddOrUpdateIncomeDTO addOrUpdateIncomeDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
@@ -307,20 +328,12 @@ public class IncomeReceiptServiceImpl extends ServiceImpl<FinancialMainMapper, F
                     .set(addOrUpdateIncomeDTO.getStatus() != null, FinancialMain::getStatus, addOrUpdateIncomeDTO.getStatus())
                     .update();
 
-            var account = accountService.getById(addOrUpdateIncomeDTO.getIncomeAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = addOrUpdateIncomeDTO.getIncomeAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(FinancialSub::getSingleAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.subtract(beforeChangeAmount);
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.add(changeAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(FinancialSub::getSingleAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(addOrUpdateIncomeDTO.getIncomeAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(addOrUpdateIncomeDTO.getIncomeAccountId(), changeAmount.subtract(beforeChangeAmount), addOrUpdateIncomeDTO.getId());
 
             if (!updateSubResult || !updateFinancialMain) {
                 if ("zh_CN".equals(systemLanguage)) {
@@ -368,17 +381,10 @@ public class IncomeReceiptServiceImpl extends ServiceImpl<FinancialMainMapper, F
                     .collect(Collectors.toList());
             var saveSubResult = financialSubService.saveBatch(financialSub);
 
-            var account = accountService.getById(addOrUpdateIncomeDTO.getIncomeAccountId());
-            if (account != null) {
-                // 更新余额
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = addOrUpdateIncomeDTO.getIncomeAmount();
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.add(changeAmount);
-                    account.setId(addOrUpdateIncomeDTO.getIncomeAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额
+            var changeAmount = addOrUpdateIncomeDTO.getIncomeAmount();
+            if (changeAmount != null) {
+                accountLedgerService.applyAccountChange(addOrUpdateIncomeDTO.getIncomeAccountId(), changeAmount, id);
             }
 
             if (!saveResult || !saveSubResult) {
@@ -121,14 +121,18 @@ public class PaymentReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .page(page);
 
         var paymentVOList = new ArrayList<PaymentVO>(financialMainPage.getRecords().size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addSupplierIds(financialMainPage.getRecords(), FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainPage.getRecords(), FinancialMain::getOperatorId)
+                .addAccountIds(financialMainPage.getRecords(), FinancialMain::getAccountId);
         financialMainPage.getRecords().forEach(item -> {
             var paymentVo = PaymentVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .supplierName(commonService.getSupplierName(item.getRelatedPersonId()))
+                    .supplierName(resolver.getSupplierName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .paymentAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .paymentAccountName(resolver.getAccountName(item.getAccountId()))
                     .totalPaymentAmount(item.getTotalAmount())
                     .discountAmount(item.getDiscountAmount())
                     .actualPaymentAmount(item.getChangeAmount())
@@ -158,14 +162,18 @@ public class PaymentReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .list();
 
         var paymentExportBOList = new ArrayList<PaymentExportBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addSupplierIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var paymentExportBO = PaymentExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .supplierName(commonService.getSupplierName(item.getRelatedPersonId()))
+                    .supplierName(resolver.getSupplierName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .paymentAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .paymentAccountName(resolver.getAccountName(item.getAccountId()))
                     .totalPaymentAmount(item.getTotalAmount())
                     .discountAmount(item.getDiscountAmount())
                     .actualPaymentAmount(item.getChangeAmount())
@@ -193,14 +201,18 @@ public class PaymentReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .list();
 
         var paymentExportEnBOList = new ArrayList<PaymentExportEnBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addSupplierIds(financialMainList, FinancialMain::getRelatedPersonId)
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var paymentExportEnBO = PaymentExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
-                    .supplierName(commonService.getSupplierName(item.getRelatedPersonId()))
+                    .supplierName(resolver.getSupplierName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
-                    .paymentAccountName(commonService.getAccountName(item.getAccountId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
+                    .paymentAccountName(resolver.getAccountName(item.getAccountId()))
                     .totalPaymentAmount(item.getTotalAmount())
                     .discountAmount(item.getDiscountAmount())
                     .actualPaymentAmount(item.getChangeAmount())
@@ -16,6 +16,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.bo.FileDataBO;
 import com.wansenai.bo.TransferAccountBO;
+import com.wansenai.bo.financial.AccountChangeBO;
 import com.wansenai.bo.financial.TransferAccountDataExportBO;
 import com.wansenai.bo.financial.TransferAccountDataExportEnBO;
 import com.wansenai.bo.financial.TransferExportBO;
@@ -29,7 +30,7 @@ import com.wansenai.mappers.financial.FinancialMainMapper;
 import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.service.common.CommonService;
 import com.wansenai.service.financial.FinancialSubService;
-import com.wansenai.service.financial.IFinancialAccountService;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
 import com.wansenai.service.financial.TransferReceiptService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.SnowflakeIdUtil;
@@ -44,6 +45,7 @@ import com.wansenai.vo.financial.TransferVO;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
@@ -51,6 +53,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -65,14 +68,14 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
 
     private final SysFileMapper fileMapper;
 
-    private final IFinancialAccountService accountService;
+    private final FinancialAccountLedgerService accountLedgerService;
 
-    public TransferReceiptServiceImpl(FinancialSubService financialSubService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, IFinancialAccountService accountService) {
+    public TransferReceiptServiceImpl(FinancialSubService financialSubService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, FinancialAccountLedgerService accountLedgerService) {
         this.financialSubService = financialSubService;
         this.commonService = commonService;
         this.userService = userService;
         this.fileMapper = fileMapper;
-        this.accountService = accountService;
+        this.accountLedgerService = accountLedgerService;
     }
 
     private ArrayList<Long> processFiles(List<FileDataBO> files, Long retailId) {
@@ -122,14 +125,17 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .page(page);
 
         var transferVOList = new ArrayList<TransferVO>(financialMainPage.getRecords().size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addOperatorIds(financialMainPage.getRecords(), FinancialMain::getOperatorId)
+                .addAccountIds(financialMainPage.getRecords(), FinancialMain::getAccountId);
         financialMainPage.getRecords().forEach(item -> {
             var transferVO = TransferVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
                     .paymentAmount(item.getTotalAmount())
-                    .paymentAccountName(commonService.getAccountName(item.getAccountId()))
+                    .paymentAccountName(resolver.getAccountName(item.getAccountId()))
                     .status(item.getStatus())
                     .remark(item.getRemark())
                     .build();
@@ -154,14 +160,17 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .list();
 
         var transferExportBOList = new ArrayList<TransferExportBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var transferExportBO = TransferExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
                     .paymentAmount(item.getTotalAmount())
-                    .paymentAccountName(commonService.getAccountName(item.getAccountId()))
+                    .paymentAccountName(resolver.getAccountName(item.getAccountId()))
                     .status(item.getStatus())
                     .remark(item.getRemark())
                     .build();
@@ -184,14 +193,17 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                 .list();
 
         var transferExportEnBOList = new ArrayList<TransferExportEnBO>(financialMainList.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addOperatorIds(financialMainList, FinancialMain::getOperatorId)
+                .addAccountIds(financialMainList, FinancialMain::getAccountId);
         financialMainList.forEach(item -> {
             var transferExportEnBO = TransferExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .receiptDate(item.getReceiptDate())
-                    .financialPerson(commonService.getOperatorName(item.getOperatorId()))
+                    .financialPerson(resolver.getOperatorName(item.getOperatorId()))
                     .paymentAmount(item.getTotalAmount())
-                    .paymentAccountName(commonService.getAccountName(item.getAccountId()))
+                    .paymentAccountName(resolver.getAccountName(item.getAccountId()))
                     .status(item.getStatus())
                     .remark(item.getRemark())
                     .build();
@@ -227,10 +239,12 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
 
             if (transferAccountBOList != null) {
                 var transferAccountBOVOList = new ArrayList<TransferAccountBO>(transferAccountBOList.size() + 1);
+                var resolver = commonService.createDimensionResolver()
+                        .addAccountIds(transferAccountBOList, FinancialSub::getAccountId);
                 transferAccountBOList.forEach(sub -> {
                     var transferAccountVO = TransferAccountBO.builder()
                             .accountId(sub.getAccountId())
-                            .accountName(commonService.getAccountName(sub.getAccountId()))
+                            .accountName(resolver.getAccountName(sub.getAccountId()))
                             .transferAmount(sub.getSingleAmount())
                             .remark(sub.getRemark())
                             .build();
@@ -246,6 +260,7 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
     }
 
     @Override
+    @Transactional
     public Response<String> addOrUpdateTransferReceipt(AddOrUpdateTransferDTO addOrUpdateTransferDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
@@ -254,6 +269,11 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
         var isUpdate = addOrUpdateTransferDTO.getId() != null;
 
         if (isUpdate) {
+            // 冲回时使用库中保存的付款账户和金额, 本次提交的可能已经修改
+            var beforeMain = getById(addOrUpdateTransferDTO.getId());
+            if (beforeMain == null) {
+                return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY);
+            }
             var beforeReceipt = financialSubService.lambdaQuery()
                     .eq(FinancialSub::getFinancialMainId, addOrUpdateTransferDTO.getId())
                     .list();
@@ -289,36 +309,16 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                     .set(addOrUpdateTransferDTO.getStatus() != null, FinancialMain::getStatus, addOrUpdateTransferDTO.getStatus())
                     .update();
 
-            var account = accountService.getById(addOrUpdateTransferDTO.getPaymentAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = addOrUpdateTransferDTO.getPaymentAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(FinancialSub::getSingleAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.add(beforeChangeAmount);
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.subtract(changeAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-
-                // 子表的的账户也需要更新金额
-                var subAccountIds = beforeReceipt.stream()
-                        .map(FinancialSub::getAccountId)
-                        .collect(Collectors.toList());
-                var subAccountList = accountService.listByIds(subAccountIds);
-                subAccountList.forEach(subAccount -> {
-                    var subAccountBalance = subAccount.getCurrentAmount();
-                    var subChangeAmount = beforeReceipt.stream()
-                            .filter(sub -> sub.getAccountId().equals(subAccount.getId()))
-                            .map(FinancialSub::getSingleAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    subAccountBalance = subAccountBalance.add(subChangeAmount);
-                    subAccount.setCurrentAmount(subAccountBalance);
-                });
-                accountService.updateBatchById(subAccountList);
-            }
+            // 冲回修改前的转账: 原付款账户加回原金额, 收款账户扣回; 再按本次转账记账, 同一单据一次批量记账
+            var accountChanges = new ArrayList<AccountChangeBO>();
+            accountChanges.add(accountChange(beforeMain.getAccountId(), beforeMain.getTotalAmount(), addOrUpdateTransferDTO.getId()));
+            beforeReceipt.forEach(sub -> accountChanges.add(accountChange(sub.getAccountId(), negate(sub.getSingleAmount()), addOrUpdateTransferDTO.getId())));
+            // 未提交的付款账户和金额保持不变, 与上面更新主表一致
+            var paymentAccountId = Optional.ofNullable(addOrUpdateTransferDTO.getPaymentAccountId()).orElse(beforeMain.getAccountId());
+            var paymentAmount = Optional.ofNullable(addOrUpdateTransferDTO.getPaymentAmount()).orElse(beforeMain.getTotalAmount());
+            accountChanges.add(accountChange(paymentAccountId, negate(paymentAmount), addOrUpdateTransferDTO.getId()));
+            financialSubList.forEach(item -> accountChanges.add(accountChange(item.getAccountId(), item.getTransferAmount(), addOrUpdateTransferDTO.getId())));
+            accountLedgerService.applyAccountChanges(accountChanges);
 
             if (!updateSubResult || !updateFinancialMain) {
                 if ("zh_CN".equals(systemLanguage)) {
@@ -364,33 +364,11 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
                     .collect(Collectors.toList());
             var saveSubResult = financialSubService.saveBatch(financialSub);
 
-            var account = accountService.getById(addOrUpdateTransferDTO.getPaymentAccountId());
-            if (account != null) {
-                // 更新余额
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = addOrUpdateTransferDTO.getPaymentAmount();
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.subtract(changeAmount);
-                    account.setId(addOrUpdateTransferDTO.getPaymentAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
-                // 子表的的账户也需要更新金额
-                var subAccountList = accountService.listByIds(financialSubList.stream()
-                        .map(TransferAccountBO::getAccountId)
-                        .collect(Collectors.toList()));
-                subAccountList.forEach(subAccount -> {
-                    var subAccountBalance = subAccount.getCurrentAmount();
-                    var subChangeAmount = financialSubList.stream()
-                            .filter(sub -> sub.getAccountId().equals(subAccount.getId()))
-                            .map(TransferAccountBO::getTransferAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    subAccountBalance = subAccountBalance.add(subChangeAmount);
-                    subAccount.setId(subAccount.getId());
-                    subAccount.setCurrentAmount(subAccountBalance);
-                });
-                accountService.updateBatchById(subAccountList);
-            }
+            // 更新余额 付款账户减少, 子表的收款账户增加
+            var accountChanges = new ArrayList<AccountChangeBO>();
+            accountChanges.add(accountChange(addOrUpdateTransferDTO.getPaymentAccountId(), negate(addOrUpdateTransferDTO.getPaymentAmount()), id));
+            financialSubList.forEach(item -> accountChanges.add(accountChange(item.getAccountId(), item.getTransferAmount(), id)));
+            accountLedgerService.applyAccountChanges(accountChanges);
 
             if (!saveResult || !saveSubResult) {
                 if ("zh_CN".equals(systemLanguage)) {
@@ -544,4 +522,16 @@ public class TransferReceiptServiceImpl extends ServiceImpl<FinancialMainMapper,
             }
         }
     }
+
+    private static AccountChangeBO accountChange(Long accountId, BigDecimal amount, Long receiptMainId) {
+        return AccountChangeBO.builder()
+                .accountId(accountId)
+                .amount(amount)
+                .receiptMainId(receiptMainId)
+                .build();
+    }
+
+    private static BigDecimal negate(BigDecimal amount) {
+        return amount == null ? null : amount.negate();
+    }
 }
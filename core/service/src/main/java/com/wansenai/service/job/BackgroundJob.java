@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.job;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.web.context.request.RequestAttributes;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.Future;
+
+/**
+ * 后台任务的运行状态, 只保存在当前节点内存中, 结果文件保存在本地磁盘
+ */
+@Getter
+@Setter
+public class BackgroundJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private static final ThreadLocal<BackgroundJob> CURRENT = new ThreadLocal<>();
+
+    private final String jobId;
+
+    private final String jobType;
+
+    private final Long tenantId;
+
+    private final Long userId;
+
+    /**
+     * 提交时请求的快照, 任务线程中 BaseService 通过它读取当前用户
+     */
+    private final RequestAttributes requestAttributes;
+
+    private final BackgroundJobTask task;
+
+    private final LocalDateTime createTime = LocalDateTime.now();
+
+    private final long createNanos = System.nanoTime();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile long progress;
+
+    private volatile boolean cancelRequested;
+
+    private volatile String resultCode;
+
+    private volatile String message;
+
+    private volatile Path resultFile;
+
+    private volatile String contentType;
+
+    private volatile String contentDisposition;
+
+    private volatile long fileSize;
+
+    private volatile LocalDateTime startTime;
+
+    private volatile long startNanos;
+
+    private volatile LocalDateTime finishTime;
+
+    private volatile Future<?> future;
+
+    public BackgroundJob(String jobId, String jobType, Long tenantId, Long userId,
+                         RequestAttributes requestAttributes, BackgroundJobTask task) {
+        this.jobId = jobId;
+        this.jobType = jobType;
+        this.tenantId = tenantId;
+        this.userId = userId;
+        this.requestAttributes = requestAttributes;
+        this.task = task;
+    }
+
+    /**
+     * 由任务执行器在任务线程开始和结束时调用
+     */
+    public static void setCurrent(BackgroundJob job) {
+        if (job == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(job);
+        }
+    }
+
+    /**
+     * 在后台任务中执行时更新进度, 同步调用时什么也不做
+     */
+    public static void reportProgress(long progress, String message) {
+        var job = CURRENT.get();
+        if (job != null) {
+            job.setProgress(progress);
+            job.setMessage(message);
+        }
+    }
+}
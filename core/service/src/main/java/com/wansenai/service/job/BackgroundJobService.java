@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.job;
+
+import com.wansenai.utils.response.Response;
+import com.wansenai.vo.job.BackgroundJobMetricsVO;
+import com.wansenai.vo.job.BackgroundJobVO;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface BackgroundJobService {
+
+    /**
+     * Queue a long-running export or import. Jobs of one tenant share a concurrency limit and the result is
+     * spooled to local disk until it expires.
+     * 提交耗时的导出或导入任务, 同一租户同时运行的任务数有上限, 结果保存在本地磁盘直到过期
+     *
+     * @param jobType Job type shown to the user, e.g. the export method name
+     *                任务类型, 例如导出方法名
+     * @param task    Task writing its result to the given response
+     *                任务, 结果写入传入的响应
+     * @return Returns the queued job or an error when the queue is full
+     *         返回排队中的任务, 队列已满时返回错误
+     */
+    Response<BackgroundJobVO> submitJob(String jobType, BackgroundJobTask task);
+
+    /**
+     * Get the status of a job of the current user.
+     * 查询当前用户的任务状态
+     *
+     * @param jobId Job id
+     *              任务id
+     * @return Returns the job status
+     *         返回任务状态
+     */
+    Response<BackgroundJobVO> getJob(String jobId);
+
+    /**
+     * List the jobs of the current user that have not expired, newest first.
+     * 查询当前用户未过期的任务, 按提交时间倒序
+     *
+     * @return Returns the job list
+     *         返回任务列表
+     */
+    Response<List<BackgroundJobVO>> getJobList();
+
+    /**
+     * Download the spooled result of a finished job.
+     * 下载已完成任务的结果文件
+     *
+     * @param jobId    Job id
+     *                 任务id
+     * @param response Response the result file is copied to
+     *                 结果文件写入的响应
+     */
+    void downloadJobResult(String jobId, HttpServletResponse response) throws IOException;
+
+    /**
+     * Cancel a queued or running job. A running job stops at its next row.
+     * 取消排队或运行中的任务, 运行中的任务在处理下一行时停止
+     *
+     * @param jobId Job id
+     *              任务id
+     * @return Returns the cancel result
+     *         返回取消结果
+     */
+    Response<String> cancelJob(String jobId);
+
+    /**
+     * Queue depth, run time and outcome counters of this node.
+     * 当前节点的队列长度, 运行时间和任务结果统计
+     *
+     * @return Returns the job metrics
+     *         返回任务统计
+     */
+    Response<BackgroundJobMetricsVO> getJobMetrics();
+}
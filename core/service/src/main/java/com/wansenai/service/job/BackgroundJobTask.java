@@ -0,0 +1,29 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.job;
+
+import com.wansenai.utils.response.Response;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 后台任务, 在任务线程中以提交时的用户和租户执行
+ */
+@FunctionalInterface
+public interface BackgroundJobTask {
+
+    /**
+     * @param response 写入该响应的内容保存为结果文件, 供之后下载
+     * @return 与同步调用一致的响应, 没有返回值的导出任务返回 null
+     */
+    Response<String> run(HttpServletResponse response) throws Exception;
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.job;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 提交任务时请求的快照。请求结束后容器会回收请求对象, 任务线程不能再读取原请求,
+ * 这里只保留认证所需的请求头, 请求属性保存在自己的 map 中
+ */
+public class DetachedHttpServletRequest extends HttpServletRequestWrapper {
+
+    private static final List<String> HEADER_NAMES = List.of("Authorization", "Accept-Language");
+
+    private final Map<String, String> headers = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private final Locale locale;
+
+    private DetachedHttpServletRequest(HttpServletRequest request) {
+        super(unsupported(HttpServletRequest.class));
+        if (request != null) {
+            for (String name : HEADER_NAMES) {
+                var value = request.getHeader(name);
+                if (value != null) {
+                    headers.put(name.toLowerCase(Locale.ROOT), value);
+                }
+            }
+        }
+        this.locale = request == null ? Locale.getDefault() : request.getLocale();
+    }
+
+    /**
+     * 复制当前请求, 不在请求线程中时返回空的请求
+     */
+    public static RequestAttributes snapshot() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        var request = attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+        return new ServletRequestAttributes(new DetachedHttpServletRequest(request));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        var value = getHeader(name);
+        return Collections.enumeration(value == null ? List.of() : List.of(value));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public String getParameter(String name) {
+        return null;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * 作为包装对象的委托, 调用未覆盖的方法时直接报错, 避免误读已回收的请求或响应
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T unsupported(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "(detached)";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not available in background jobs");
+        });
+    }
+}
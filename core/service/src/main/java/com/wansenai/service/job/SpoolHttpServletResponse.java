@@ -0,0 +1,309 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.job;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 后台任务使用的响应, 导出方法照常写入响应, 内容保存到本地结果文件
+ */
+public class SpoolHttpServletResponse extends HttpServletResponseWrapper implements Closeable {
+
+    private final Path file;
+
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+
+    private String contentType;
+
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+
+    private int status = SC_OK;
+
+    private Locale locale = Locale.getDefault();
+
+    private SpoolOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    public SpoolHttpServletResponse(Path file) {
+        super(DetachedHttpServletRequest.unsupported(HttpServletResponse.class));
+        this.file = file;
+    }
+
+    /**
+     * 已写入结果文件的字节数
+     */
+    public long getWrittenBytes() {
+        return outputStream == null ? 0 : outputStream.written;
+    }
+
+    public boolean hasContent() {
+        return getWrittenBytes() > 0;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        return openOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(openOutputStream(), Charset.forName(characterEncoding)));
+        }
+        return writer;
+    }
+
+    private SpoolOutputStream openOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new SpoolOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else if (outputStream != null) {
+            outputStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        } else if (outputStream != null) {
+            outputStream.close();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (getWrittenBytes() > 0) {
+            throw new IllegalStateException("Response content has already been spooled");
+        }
+    }
+
+    @Override
+    public void setContentType(String type) {
+        this.contentType = type;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        this.characterEncoding = charset;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+    }
+
+    @Override
+    public int getBufferSize() {
+        return 64 * 1024;
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        this.status = sc;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        var values = new ArrayList<String>();
+        values.add(value);
+        headers.put(name.toLowerCase(Locale.ROOT), values);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.computeIfAbsent(name.toLowerCase(Locale.ROOT), key -> new ArrayList<>()).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        var values = headers.get(name.toLowerCase(Locale.ROOT));
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return headers.getOrDefault(name.toLowerCase(Locale.ROOT), List.of());
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return headers.keySet();
+    }
+
+    private static class SpoolOutputStream extends ServletOutputStream {
+
+        private final OutputStream delegate;
+
+        private volatile long written;
+
+        private SpoolOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkInterrupted();
+            delegate.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkInterrupted();
+            delegate.write(b, off, len);
+            written += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+
+        private void checkInterrupted() throws InterruptedIOException {
+            // 任务被取消时停止写入
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("后台任务已取消");
+            }
+        }
+    }
+}
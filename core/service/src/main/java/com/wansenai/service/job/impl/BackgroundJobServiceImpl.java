@@ -0,0 +1,461 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.job.impl;
+
+import com.wansenai.service.BaseService;
+import com.wansenai.service.job.BackgroundJob;
+import com.wansenai.service.job.BackgroundJobService;
+import com.wansenai.service.job.BackgroundJobTask;
+import com.wansenai.service.job.DetachedHttpServletRequest;
+import com.wansenai.service.job.SpoolHttpServletResponse;
+import com.wansenai.utils.enums.JobCodeEnum;
+import com.wansenai.utils.response.Response;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import com.wansenai.vo.job.BackgroundJobMetricsVO;
+import com.wansenai.vo.job.BackgroundJobVO;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 任务先进入队列, 全局和单个租户运行中的任务数都未超过上限时才交给虚拟线程执行,
+ * 一个租户的大量导出不会占满全部名额。任务状态保存在当前节点内存中, 结果文件保存在本地磁盘
+ */
+@Slf4j
+@Service
+public class BackgroundJobServiceImpl implements BackgroundJobService {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BaseService baseService;
+
+    private final int maxRunningJobs;
+
+    private final int maxRunningJobsPerTenant;
+
+    private final int maxQueuedJobs;
+
+    private final Duration resultTtl;
+
+    private final Path spoolDir;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("background-job-", 0).factory());
+
+    private final Map<String, BackgroundJob> jobs = new ConcurrentHashMap<>();
+
+    // 以下三个字段由 this 加锁保护
+    private final Deque<BackgroundJob> queue = new ArrayDeque<>();
+
+    private final Map<Long, Integer> runningPerTenant = new HashMap<>();
+
+    private int runningJobs;
+
+    private final LongAdder submittedJobs = new LongAdder();
+
+    private final LongAdder succeededJobs = new LongAdder();
+
+    private final LongAdder failedJobs = new LongAdder();
+
+    private final LongAdder cancelledJobs = new LongAdder();
+
+    private final LongAdder rejectedJobs = new LongAdder();
+
+    private final LongAdder startedJobs = new LongAdder();
+
+    private final LongAdder totalQueueNanos = new LongAdder();
+
+    private final LongAdder finishedRuns = new LongAdder();
+
+    private final LongAdder totalRunNanos = new LongAdder();
+
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    public BackgroundJobServiceImpl(BaseService baseService,
+                                    @Value("${eairp.job.max-running:4}") int maxRunningJobs,
+                                    @Value("${eairp.job.max-running-per-tenant:2}") int maxRunningJobsPerTenant,
+                                    @Value("${eairp.job.max-queued:200}") int maxQueuedJobs,
+                                    @Value("${eairp.job.result-ttl-minutes:60}") long resultTtlMinutes,
+                                    @Value("${eairp.job.spool-dir:${java.io.tmpdir}/eairp-jobs}") String spoolDir) throws IOException {
+        this.baseService = baseService;
+        this.maxRunningJobs = maxRunningJobs;
+        this.maxRunningJobsPerTenant = maxRunningJobsPerTenant;
+        this.maxQueuedJobs = maxQueuedJobs;
+        this.resultTtl = Duration.ofMinutes(resultTtlMinutes);
+        this.spoolDir = Files.createDirectories(Path.of(spoolDir));
+        // 重启后内存中的任务已丢失, 清理上次遗留的结果文件
+        try (var files = Files.list(this.spoolDir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".job")).forEach(this::deleteFile);
+        }
+    }
+
+    private boolean isChinese() {
+        return "zh_CN".equals(baseService.getCurrentUserSystemLanguage());
+    }
+
+    private <T> Response<T> responseMsg(JobCodeEnum zh, JobCodeEnum en) {
+        return Response.responseMsg(isChinese() ? zh : en);
+    }
+
+    @Override
+    public Response<BackgroundJobVO> submitJob(String jobType, BackgroundJobTask task) {
+        var job = new BackgroundJob(UUID.randomUUID().toString().replace("-", ""), jobType,
+                TenantContextHolder.getTenantId(), baseService.getCurrentUserId(), DetachedHttpServletRequest.snapshot(), task);
+        synchronized (this) {
+            if (queue.size() >= maxQueuedJobs) {
+                rejectedJobs.increment();
+                log.warn("后台任务队列已满, 拒绝任务: {}", jobType);
+                return responseMsg(JobCodeEnum.JOB_QUEUE_FULL, JobCodeEnum.JOB_QUEUE_FULL_EN);
+            }
+            jobs.put(job.getJobId(), job);
+            queue.addLast(job);
+            submittedJobs.increment();
+            dispatch();
+        }
+        return Response.responseData(toVO(job));
+    }
+
+    /**
+     * 按提交顺序启动任务, 跳过已达上限的租户
+     */
+    private synchronized void dispatch() {
+        var iterator = queue.iterator();
+        while (runningJobs < maxRunningJobs && iterator.hasNext()) {
+            var job = iterator.next();
+            var tenantKey = tenantKey(job);
+            if (runningPerTenant.getOrDefault(tenantKey, 0) >= maxRunningJobsPerTenant) {
+                continue;
+            }
+            iterator.remove();
+            runningJobs++;
+            runningPerTenant.merge(tenantKey, 1, Integer::sum);
+            job.setStatus(BackgroundJob.Status.RUNNING);
+            job.setStartTime(LocalDateTime.now());
+            job.setStartNanos(System.nanoTime());
+            startedJobs.increment();
+            totalQueueNanos.add(job.getStartNanos() - job.getCreateNanos());
+            job.setFuture(executor.submit(() -> run(job)));
+        }
+    }
+
+    private static Long tenantKey(BackgroundJob job) {
+        return Objects.requireNonNullElse(job.getTenantId(), -1L);
+    }
+
+    private void run(BackgroundJob job) {
+        var resultFile = spoolDir.resolve(job.getJobId() + ".job");
+        var response = new SpoolHttpServletResponse(resultFile);
+        BackgroundJob.Status status;
+        RequestContextHolder.setRequestAttributes(job.getRequestAttributes());
+        BackgroundJob.setCurrent(job);
+        try {
+            var result = TenantContextHolder.callWithTenant(job.getTenantId(), () -> {
+                try {
+                    return job.getTask().run(response);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new JobFailedException(e);
+                }
+            });
+            response.close();
+            if (result != null) {
+                job.setResultCode(result.getCode());
+                job.setMessage(result.getMsg());
+            }
+            job.setContentType(response.getContentType());
+            job.setContentDisposition(response.getHeader("Content-Disposition"));
+            job.setFileSize(response.getWrittenBytes());
+            job.setResultFile(response.hasContent() ? resultFile : null);
+            status = BackgroundJob.Status.SUCCEEDED;
+        } catch (Throwable e) {
+            closeQuietly(response);
+            var cause = e instanceof JobFailedException ? e.getCause() : e;
+            if (job.isCancelRequested() || isCancellation(cause)) {
+                status = BackgroundJob.Status.CANCELLED;
+            } else {
+                log.error("后台任务执行失败: " + job.getJobType(), cause);
+                job.setMessage(cause.getMessage());
+                status = BackgroundJob.Status.FAILED;
+            }
+        } finally {
+            BackgroundJob.setCurrent(null);
+            RequestContextHolder.resetRequestAttributes();
+        }
+        if (job.isCancelRequested()) {
+            status = BackgroundJob.Status.CANCELLED;
+        }
+        if (status != BackgroundJob.Status.SUCCEEDED) {
+            job.setResultFile(null);
+            deleteFile(resultFile);
+        }
+        finish(job, status);
+    }
+
+    private static boolean isCancellation(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException || cause instanceof InterruptedException
+                    || cause instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void finish(BackgroundJob job, BackgroundJob.Status status) {
+        var runNanos = System.nanoTime() - job.getStartNanos();
+        finishedRuns.increment();
+        totalRunNanos.add(runNanos);
+        maxRunNanos.accumulateAndGet(runNanos, Math::max);
+        job.setFinishTime(LocalDateTime.now());
+        job.setStatus(status);
+        count(status);
+        log.info("后台任务 {} {} 结束: {}, 耗时 {} ms", job.getJobType(), job.getJobId(), status, runNanos / 1_000_000);
+        synchronized (this) {
+            runningJobs--;
+            runningPerTenant.computeIfPresent(tenantKey(job), (key, running) -> running > 1 ? running - 1 : null);
+            dispatch();
+        }
+    }
+
+    private void count(BackgroundJob.Status status) {
+        switch (status) {
+            case SUCCEEDED -> succeededJobs.increment();
+            case FAILED -> failedJobs.increment();
+            case CANCELLED -> cancelledJobs.increment();
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 只能查看自己提交的任务
+     */
+    private BackgroundJob getOwnJob(String jobId) {
+        var job = jobId == null ? null : jobs.get(jobId);
+        if (job == null || !Objects.equals(job.getUserId(), baseService.getCurrentUserId())
+                || !Objects.equals(job.getTenantId(), TenantContextHolder.getTenantId())) {
+            return null;
+        }
+        return job;
+    }
+
+    @Override
+    public Response<BackgroundJobVO> getJob(String jobId) {
+        var job = getOwnJob(jobId);
+        if (job == null) {
+            return responseMsg(JobCodeEnum.JOB_NOT_EXIST, JobCodeEnum.JOB_NOT_EXIST_EN);
+        }
+        return Response.responseData(toVO(job));
+    }
+
+    @Override
+    public Response<List<BackgroundJobVO>> getJobList() {
+        var userId = baseService.getCurrentUserId();
+        var tenantId = TenantContextHolder.getTenantId();
+        var jobList = jobs.values().stream()
+                .filter(job -> Objects.equals(job.getUserId(), userId) && Objects.equals(job.getTenantId(), tenantId))
+                .sorted(Comparator.comparing(BackgroundJob::getCreateTime).reversed())
+                .map(this::toVO)
+                .toList();
+        return Response.responseData(jobList);
+    }
+
+    @Override
+    public void downloadJobResult(String jobId, HttpServletResponse response) throws IOException {
+        var job = getOwnJob(jobId);
+        if (job == null) {
+            writeJson(response, responseMsg(JobCodeEnum.JOB_NOT_EXIST, JobCodeEnum.JOB_NOT_EXIST_EN));
+            return;
+        }
+        var resultFile = job.getResultFile();
+        if (job.getStatus() != BackgroundJob.Status.SUCCEEDED) {
+            writeJson(response, responseMsg(JobCodeEnum.JOB_NOT_FINISHED, JobCodeEnum.JOB_NOT_FINISHED_EN));
+            return;
+        }
+        if (resultFile == null || !Files.exists(resultFile)) {
+            writeJson(response, responseMsg(JobCodeEnum.JOB_NOT_EXIST, JobCodeEnum.JOB_NOT_EXIST_EN));
+            return;
+        }
+        response.setContentType(Objects.requireNonNullElse(job.getContentType(), "application/octet-stream"));
+        if (job.getContentDisposition() != null) {
+            response.setHeader("Content-Disposition", job.getContentDisposition());
+        }
+        response.setContentLengthLong(Files.size(resultFile));
+        Files.copy(resultFile, response.getOutputStream());
+        response.flushBuffer();
+    }
+
+    private void writeJson(HttpServletResponse response, Response<?> body) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().println(OBJECT_MAPPER.writeValueAsString(body));
+    }
+
+    @Override
+    public Response<String> cancelJob(String jobId) {
+        var job = getOwnJob(jobId);
+        if (job == null) {
+            return responseMsg(JobCodeEnum.JOB_NOT_EXIST, JobCodeEnum.JOB_NOT_EXIST_EN);
+        }
+        synchronized (this) {
+            if (job.getStatus() == BackgroundJob.Status.QUEUED && queue.remove(job)) {
+                job.setCancelRequested(true);
+                job.setFinishTime(LocalDateTime.now());
+                job.setStatus(BackgroundJob.Status.CANCELLED);
+                cancelledJobs.increment();
+                return responseMsg(JobCodeEnum.JOB_CANCEL_SUCCESS, JobCodeEnum.JOB_CANCEL_SUCCESS_EN);
+            }
+            if (job.getStatus() == BackgroundJob.Status.RUNNING) {
+                job.setCancelRequested(true);
+                // 中断任务线程, 导出和导入在处理下一行时停止
+                var future = job.getFuture();
+                if (future != null) {
+                    future.cancel(true);
+                }
+                return responseMsg(JobCodeEnum.JOB_CANCEL_SUCCESS, JobCodeEnum.JOB_CANCEL_SUCCESS_EN);
+            }
+        }
+        return responseMsg(JobCodeEnum.JOB_CANCEL_ERROR, JobCodeEnum.JOB_CANCEL_ERROR_EN);
+    }
+
+    @Override
+    public Response<BackgroundJobMetricsVO> getJobMetrics() {
+        int queued;
+        int running;
+        synchronized (this) {
+            queued = queue.size();
+            running = runningJobs;
+        }
+        var started = startedJobs.sum();
+        var finished = finishedRuns.sum();
+        var spoolBytes = jobs.values().stream()
+                .filter(job -> job.getResultFile() != null)
+                .mapToLong(BackgroundJob::getFileSize)
+                .sum();
+        var metrics = BackgroundJobMetricsVO.builder()
+                .queuedJobs(queued)
+                .runningJobs(running)
+                .maxRunningJobs(maxRunningJobs)
+                .maxRunningJobsPerTenant(maxRunningJobsPerTenant)
+                .submittedJobs(submittedJobs.sum())
+                .succeededJobs(succeededJobs.sum())
+                .failedJobs(failedJobs.sum())
+                .cancelledJobs(cancelledJobs.sum())
+                .rejectedJobs(rejectedJobs.sum())
+                .averageQueueMillis(started == 0 ? 0 : totalQueueNanos.sum() / started / 1_000_000)
+                .averageRunMillis(finished == 0 ? 0 : totalRunNanos.sum() / finished / 1_000_000)
+                .maxRunMillis(maxRunNanos.get() / 1_000_000)
+                .spoolBytes(spoolBytes)
+                .build();
+        return Response.responseData(metrics);
+    }
+
+    /**
+     * 删除过期的任务和结果文件
+     */
+    @Scheduled(fixedDelayString = "${eairp.job.cleanup-interval-millis:300000}")
+    public void removeExpiredJobs() {
+        var now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            var finishTime = job.getFinishTime();
+            if (job.getStatus().isFinished() && finishTime != null && finishTime.plus(resultTtl).isBefore(now)) {
+                var resultFile = job.getResultFile();
+                job.setResultFile(null);
+                if (resultFile != null) {
+                    deleteFile(resultFile);
+                }
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private BackgroundJobVO toVO(BackgroundJob job) {
+        var finishTime = job.getFinishTime();
+        return BackgroundJobVO.builder()
+                .jobId(job.getJobId())
+                .jobType(job.getJobType())
+                .status(job.getStatus().name())
+                .progress(job.getProgress())
+                .resultCode(job.getResultCode())
+                .message(job.getMessage())
+                .fileName(fileName(job.getContentDisposition()))
+                .fileSize(job.getFileSize())
+                .createTime(job.getCreateTime())
+                .startTime(job.getStartTime())
+                .finishTime(finishTime)
+                .expireTime(finishTime == null ? null : finishTime.plus(resultTtl))
+                .build();
+    }
+
+    private static String fileName(String contentDisposition) {
+        if (contentDisposition == null) {
+            return null;
+        }
+        var index = contentDisposition.indexOf("filename=");
+        return index < 0 ? null : contentDisposition.substring(index + "filename=".length()).replace("\"", "");
+    }
+
+    private static void closeQuietly(SpoolHttpServletResponse response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            log.warn("关闭任务结果文件失败", e);
+        }
+    }
+
+    private void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除任务结果文件失败: " + file);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class JobFailedException extends RuntimeException {
+
+        private JobFailedException(Exception cause) {
+            super(cause);
+        }
+    }
+}
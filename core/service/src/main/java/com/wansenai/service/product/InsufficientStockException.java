@@ -0,0 +1,32 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown when negative stock is rejected and a receipt would make some stock negative.
+ * 开启拒绝负库存时，单据会使库存变为负数
+ */
+@Getter
+public class InsufficientStockException extends IllegalStateException {
+
+    private final List<String> barCodes;
+
+    public InsufficientStockException(List<String> barCodes) {
+        super("Insufficient stock, the receipt would make the stock negative: " + barCodes);
+        this.barCodes = barCodes;
+    }
+}
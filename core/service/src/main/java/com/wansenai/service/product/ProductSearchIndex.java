@@ -0,0 +1,288 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the searchable text of one tenant's products and the
+ * barcodes of their SKUs. Text is split into single characters and character bigrams,
+ * so Chinese names need no word segmentation. A keyword is looked up through its
+ * rarest gram and every candidate is checked with a substring match, which gives the
+ * same hits as {@code LIKE '%keyword%'} without scanning the table. Barcodes are kept
+ * sorted and matched by prefix.
+ * <p>
+ * 单个租户的商品倒排索引, 文本按单字和双字切分, 用最少命中的片段取候选再做子串校验,
+ * 结果与 LIKE '%关键字%' 一致; 条码按前缀匹配。线程安全。
+ */
+public class ProductSearchIndex {
+
+    // 字段之间的分隔符, 关键字不会跨字段命中
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    // 删除的文档达到这个数量且多于存活文档时压缩
+    private static final int COMPACT_MIN_REMOVED = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    private final BitSet removedDocs = new BitSet();
+
+    private long[] docProductIds = new long[256];
+
+    private String[] docTexts = new String[256];
+
+    private int docCount;
+
+    // 条码 -> (skuId -> productId)
+    private final TreeMap<String, Map<Long, Long>> barcodes = new TreeMap<>();
+
+    private final Map<Long, Map<Long, String>> barcodesByProduct = new HashMap<>();
+
+    /**
+     * Add or replace a product with its searchable fields and the barcodes of its SKUs.
+     */
+    public void put(long productId, List<String> fields, Map<Long, String> skuBarcodes) {
+        var text = joinFields(fields);
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            if (!text.isEmpty()) {
+                addDoc(productId, text);
+            }
+            if (skuBarcodes != null && !skuBarcodes.isEmpty()) {
+                var productBarcodes = new HashMap<Long, String>();
+                skuBarcodes.forEach((skuId, barcode) -> {
+                    var key = normalize(barcode);
+                    if (skuId != null && !key.isEmpty()) {
+                        barcodes.computeIfAbsent(key, k -> new HashMap<>(2)).put(skuId, productId);
+                        productBarcodes.put(skuId, key);
+                    }
+                });
+                if (!productBarcodes.isEmpty()) {
+                    barcodesByProduct.put(productId, productBarcodes);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the products whose name, standard, model or color contains the keyword and the
+     * SKUs whose barcode starts with it. Stops and marks the result truncated once more
+     * than {@code limit} hits are found.
+     */
+    public ProductSearchResult search(String keywords, int limit) {
+        var result = new ProductSearchResult();
+        var keyword = normalize(keywords);
+        if (keyword.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            searchText(keyword, limit, result);
+            if (!result.isTruncated()) {
+                searchBarcodes(keyword, limit, result);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int barcodeSize() {
+        lock.readLock().lock();
+        try {
+            return barcodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void searchText(String keyword, int limit, ProductSearchResult result) {
+        IntList candidates = null;
+        var grams = keyword.length() == 1 ? new long[]{unigram(keyword.charAt(0))} : bigrams(keyword);
+        for (long gram : grams) {
+            var posting = gram < 0 ? null : postings.get(gram);
+            if (posting == null) {
+                return;
+            }
+            if (candidates == null || posting.size < candidates.size) {
+                candidates = posting;
+            }
+        }
+        if (candidates == null) {
+            return;
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            var doc = candidates.values[i];
+            if (removedDocs.get(doc) || !docTexts[doc].contains(keyword)) {
+                continue;
+            }
+            result.addProduct(docProductIds[doc]);
+            if (result.size() > limit) {
+                result.markTruncated();
+                return;
+            }
+        }
+    }
+
+    private void searchBarcodes(String keyword, int limit, ProductSearchResult result) {
+        for (var skus : barcodes.subMap(keyword, true, keyword + Character.MAX_VALUE, false).values()) {
+            for (var sku : skus.entrySet()) {
+                result.addSku(sku.getKey(), sku.getValue());
+                if (result.size() > limit) {
+                    result.markTruncated();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void removeLocked(long productId) {
+        var doc = docByProduct.remove(productId);
+        if (doc != null) {
+            removedDocs.set(doc);
+            docTexts[doc] = null;
+            var removed = removedDocs.cardinality();
+            if (removed >= COMPACT_MIN_REMOVED && removed > docByProduct.size()) {
+                compact();
+            }
+        }
+        var productBarcodes = barcodesByProduct.remove(productId);
+        if (productBarcodes != null) {
+            productBarcodes.forEach((skuId, barcode) -> {
+                var skus = barcodes.get(barcode);
+                if (skus != null) {
+                    skus.remove(skuId);
+                    if (skus.isEmpty()) {
+                        barcodes.remove(barcode);
+                    }
+                }
+            });
+        }
+    }
+
+    private void addDoc(long productId, String text) {
+        if (docCount == docTexts.length) {
+            docTexts = Arrays.copyOf(docTexts, docCount * 2);
+            docProductIds = Arrays.copyOf(docProductIds, docCount * 2);
+        }
+        var doc = docCount++;
+        docTexts[doc] = text;
+        docProductIds[doc] = productId;
+        docByProduct.put(productId, doc);
+
+        var grams = new HashSet<Long>(text.length() * 2);
+        for (int i = 0; i < text.length(); i++) {
+            var gram = unigram(text.charAt(i));
+            if (gram >= 0 && grams.add(gram)) {
+                postings.computeIfAbsent(gram, k -> new IntList()).add(doc);
+            }
+            if (i + 1 < text.length()) {
+                var pair = bigram(text.charAt(i), text.charAt(i + 1));
+                if (pair >= 0 && grams.add(pair)) {
+                    postings.computeIfAbsent(pair, k -> new IntList()).add(doc);
+                }
+            }
+        }
+    }
+
+    // 重新编号存活的文档, 丢掉已删除文档占用的倒排项
+    private void compact() {
+        var liveDocs = new TreeMap<Integer, Long>();
+        docByProduct.forEach((productId, doc) -> liveDocs.put(doc, productId));
+        var texts = docTexts;
+        docTexts = new String[Math.max(256, liveDocs.size() * 2)];
+        docProductIds = new long[docTexts.length];
+        docCount = 0;
+        docByProduct.clear();
+        postings.clear();
+        removedDocs.clear();
+        liveDocs.forEach((doc, productId) -> addDoc(productId, texts[doc]));
+    }
+
+    private static String joinFields(List<String> fields) {
+        var text = new StringBuilder();
+        if (fields != null) {
+            for (String field : fields) {
+                var value = normalize(field);
+                if (!value.isEmpty()) {
+                    if (!text.isEmpty()) {
+                        text.append(FIELD_SEPARATOR);
+                    }
+                    text.append(value);
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // 控制字符(包括字段分隔符)不参与索引
+    private static long unigram(char c) {
+        return c < ' ' ? -1 : c;
+    }
+
+    private static long bigram(char first, char second) {
+        return first < ' ' || second < ' ' ? -1 : (long) first << 16 | second;
+    }
+
+    private static long[] bigrams(String keyword) {
+        var grams = new long[keyword.length() - 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = bigram(keyword.charAt(i), keyword.charAt(i + 1));
+        }
+        return grams;
+    }
+
+    private static class IntList {
+
+        private int[] values = new int[4];
+
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product;
+
+import lombok.Getter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Products and SKUs matched by a keyword search. Text matches select every SKU of the
+ * product, barcode prefix matches select only the SKU carrying the barcode.
+ * <p>
+ * 关键字检索结果, 名称/规格/型号/颜色命中的是商品, 条码前缀命中的是SKU。
+ */
+@Getter
+public class ProductSearchResult {
+
+    private final Set<Long> productIds = new LinkedHashSet<>();
+
+    private final Set<Long> skuIds = new LinkedHashSet<>();
+
+    // 条码命中的SKU所属的商品
+    private final Set<Long> skuProductIds = new LinkedHashSet<>();
+
+    // 命中数超过上限, 结果不完整, 调用方应回退到数据库查询
+    private boolean truncated;
+
+    void addProduct(long productId) {
+        productIds.add(productId);
+    }
+
+    void addSku(long skuId, long productId) {
+        skuIds.add(skuId);
+        skuProductIds.add(productId);
+    }
+
+    void markTruncated() {
+        truncated = true;
+    }
+
+    public int size() {
+        return productIds.size() + skuIds.size();
+    }
+
+    public boolean isEmpty() {
+        return productIds.isEmpty() && skuIds.isEmpty();
+    }
+
+    /**
+     * Every product matched by text or by one of its barcodes.
+     */
+    public Set<Long> getAllProductIds() {
+        var ids = new LinkedHashSet<>(productIds);
+        ids.addAll(skuProductIds);
+        return ids;
+    }
+}
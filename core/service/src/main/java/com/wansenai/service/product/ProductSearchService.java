@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product;
+
+import java.util.Collection;
+
+public interface ProductSearchService {
+
+    /**
+     * Search the in-memory index of the current tenant by product name, standard, model, color
+     * and barcode prefix. The index of a tenant is loaded from the database on startup or on
+     * its first search.
+     * 在当前租户的内存索引中按名称/规格/型号/颜色和条码前缀检索商品, 索引在启动或首次检索时从数据库加载
+     *
+     * @param keywords Keyword entered in the product list or picker
+     *                 商品列表或选择框输入的关键字
+     * @return Returns the matched products and SKUs, or null when the index is not ready or the
+     *         keyword matches too many rows, the caller then queries the database with LIKE
+     *         返回命中的商品和SKU, 索引未就绪或命中过多时返回null, 由调用方回退到数据库 LIKE 查询
+     */
+    ProductSearchResult search(String keywords);
+
+    /**
+     * Reload the given products of the current tenant into the index after the surrounding
+     * transaction commits. Deleted products are dropped from the index.
+     * 事务提交后重新加载当前租户的这些商品到索引, 已删除的商品从索引中移除
+     *
+     * @param productIds Added, updated or deleted product ids
+     *                   新增, 修改或删除的商品id
+     */
+    void refreshProducts(Collection<Long> productIds);
+
+    /**
+     * Rebuild the index of a tenant from the database. The old index keeps serving searches
+     * until the new one is ready.
+     * 从数据库重建租户的索引, 新索引就绪前继续使用旧索引
+     *
+     * @param tenantId Tenant id
+     *                 租户id
+     */
+    void rebuildIndex(Long tenantId);
+}
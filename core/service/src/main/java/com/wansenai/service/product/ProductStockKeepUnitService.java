@@ -19,6 +19,7 @@ import com.wansenai.entities.product.ProductStockKeepUnit;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.wansenai.vo.product.ProductStockKeepUnitVO;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -33,4 +34,6 @@ public interface ProductStockKeepUnitService extends IService<ProductStockKeepUn
     Boolean checkProductCode(List<String> barCodes);
 
     ProductStockKeepUnit getByProductBarCode(String productBarCode);
+
+    List<ProductStockKeepUnit> listByProductBarCodes(Collection<String> productBarCodes);
 }
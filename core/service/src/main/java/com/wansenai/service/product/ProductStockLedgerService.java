@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product;
+
+import com.wansenai.bo.product.StockChangeBO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * 库存台账：所有单据对库存的增减都通过这里，使用相对更新保证并发安全
+ * </p>
+ */
+public interface ProductStockLedgerService {
+
+    /**
+     * Apply the stock changes of one receipt. Quantities are relative deltas (positive for storage,
+     * negative for shipments) and are applied atomically in a single statement, then one movement
+     * row is recorded per changed stock. A barcode without a stock row in the warehouse is logged and the
+     * whole receipt is rejected with an {@link IllegalStateException}. Negative stock is allowed unless
+     * {@code eairp.stock.reject-negative} is set.
+     * <p>
+     * 应用单据库存变动，数量为相对增减（入库为正，出库为负），一条语句原子更新，并为每条库存写入变动流水。
+     * 仓库中不存在库存记录的条码会记录日志并抛出 IllegalStateException，整张单据回滚。
+     * 是否允许负库存由 eairp.stock.reject-negative 配置，默认允许。
+     *
+     * @param changes stock changes of one receipt
+     *                单据的库存变动
+     */
+    void applyStockChanges(List<StockChangeBO> changes);
+
+    /**
+     * Same as {@link #applyStockChanges(List)}, optionally rejecting changes that would make any stock negative.
+     * The check uses the net change of the whole transaction and runs before commit, so updating a receipt
+     * (reverting the old rows, then applying the new ones) is judged by its net effect, and stock that only
+     * increases is never rejected. The changed rows stay locked until then, so concurrent receipts cannot both
+     * pass. When rejected an {@link InsufficientStockException} is thrown and the transaction rolls back.
+     * <p>
+     * 同上，rejectNegative 为 true 时按整个事务的净变动在提交前校验，净减少的库存变为负数时抛出
+     * InsufficientStockException 并整体回滚。修改单据时先冲回再应用按净结果校验，库存行在提交前被锁定，
+     * 并发单据不会同时通过。
+     *
+     * @param changes        stock changes of one receipt
+     *                       单据的库存变动
+     * @param rejectNegative whether to reject negative stock
+     *                       是否拒绝负库存
+     */
+    void applyStockChanges(List<StockChangeBO> changes, boolean rejectNegative);
+
+    /**
+     * Find the barcodes that have no stock row in their warehouse, so that a receipt can be rejected with an
+     * error code before anything is saved. Entries without a barcode or warehouse are ignored as in
+     * {@link #applyStockChanges(List)}.
+     * <p>
+     * 查询在所选仓库没有库存记录的条码，单据保存前校验并返回错误码。条码或仓库为空的记录与应用变动时一样忽略。
+     *
+     * @param changes bar code and warehouse of the receipt rows
+     *                单据明细的条码和仓库
+     * @return barcodes without a stock row, empty when all exist
+     *         没有库存记录的条码，全部存在时为空
+     */
+    List<String> getMissingStockBarCodes(List<StockChangeBO> changes);
+
+    /**
+     * Record the opening stock of new stock rows, or a stock quantity that was set directly, in the journal
+     * without changing the stored quantity, so that replaying the journal gives the same stock.
+     * <p>
+     * 只记录期初库存或直接设置的库存数量的流水，不修改库存，保证回放流水后库存一致。
+     *
+     * @param stockIds product stock ids
+     *                 产品库存id
+     */
+    void recordStockAdjustments(Collection<Long> stockIds);
+
+    /**
+     * Rebuild the current stock of the current tenant by replaying the journal.
+     * <p>
+     * 回放库存流水重算当前租户的库存
+     *
+     * @param warehouseId warehouse id, all warehouses when null
+     *                    仓库id，为空时重算全部仓库
+     * @return number of stock rows that were corrected
+     *         被修正的库存行数
+     */
+    int rebuildStock(Long warehouseId);
+}
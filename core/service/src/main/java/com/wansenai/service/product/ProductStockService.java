@@ -22,7 +22,9 @@ import com.wansenai.vo.product.ProductStockKeepUnitVO;
 import com.wansenai.vo.product.ProductStockVO;
 import com.wansenai.vo.report.ProductStockSkuVO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -37,7 +39,12 @@ public interface ProductStockService extends IService<ProductStock> {
 
    List<ProductStockVO> getProductStockList(Long productSukId);
 
+   // 按SKU分组的库存列表, 库存和仓库名称各查询一次
+   Map<Long, List<ProductStockVO>> getProductStockMap(Collection<Long> productSkuIds);
+
    Response<List<ProductStockSkuVO>> getProductStockSkuList();
 
    Boolean removeBySkuId(Long skuId);
+
+   Boolean removeBySkuIds(Collection<Long> skuIds);
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.wansenai.entities.tenant.SysTenant;
+import com.wansenai.mappers.tenant.SysTenantMapper;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * <p>
+ * 定时为每个租户生成前一天结束时的库存快照, 执行频率由 eairp.stock-snapshot.cron 决定
+ * </p>
+ */
+@Component
+@Slf4j
+public class ProductStockSnapshotJob {
+
+    private final ProductStockSnapshotService productStockSnapshotService;
+
+    private final SysTenantMapper sysTenantMapper;
+
+    public ProductStockSnapshotJob(ProductStockSnapshotService productStockSnapshotService, SysTenantMapper sysTenantMapper) {
+        this.productStockSnapshotService = productStockSnapshotService;
+        this.sysTenantMapper = sysTenantMapper;
+    }
+
+    @Scheduled(cron = "${eairp.stock-snapshot.cron:0 30 0 1 * *}")
+    public void createSnapshots() {
+        var snapshotDate = LocalDate.now().minusDays(1);
+        var tenantIds = sysTenantMapper.selectList(new LambdaQueryWrapper<SysTenant>().select(SysTenant::getTenantId))
+                .stream()
+                .map(SysTenant::getTenantId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        for (Long tenantId : tenantIds) {
+            try {
+                TenantContextHolder.runWithTenant(tenantId, () -> productStockSnapshotService.createSnapshot(snapshotDate));
+            } catch (RuntimeException e) {
+                // 单个租户失败不影响其他租户
+                log.error("Create stock snapshot of {} failed, tenant {}", snapshotDate, tenantId, e);
+            }
+        }
+    }
+}
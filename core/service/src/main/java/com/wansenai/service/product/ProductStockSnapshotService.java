@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.wansenai.dto.report.QueryProductStockDTO;
+import com.wansenai.entities.product.ProductStockSnapshot;
+import com.wansenai.vo.report.ProductStockSkuVO;
+
+import java.time.LocalDate;
+
+/**
+ * <p>
+ * 库存快照：按日期记录库存数量和金额，历史库存由最近的快照加上之后的库存流水得到
+ * </p>
+ */
+public interface ProductStockSnapshotService extends IService<ProductStockSnapshot> {
+
+    /**
+     * Write the stock snapshot of the current tenant at the end of the given date, replacing an existing
+     * snapshot of that date. The quantity is the current stock minus the journal entries whose receipt date is
+     * after that date, stock rows with zero quantity are not written.
+     * <p>
+     * 生成当前租户在指定日期结束时的库存快照，覆盖该日期已有的快照。数量为当前库存减去单据日期在该日期之后的库存流水，数量为0的行不记录。
+     *
+     * @param snapshotDate snapshot date
+     *                     快照日期
+     * @return number of snapshot rows written
+     *         写入的快照行数
+     */
+    int createSnapshot(LocalDate snapshotDate);
+
+    /**
+     * Query the stock of the current tenant at the end of the given date, from the nearest snapshot not
+     * after that date plus the journal entries dated after the snapshot. Receipts saved after the snapshot was
+     * written with an earlier receipt date are added as well.
+     * <p>
+     * 查询当前租户在指定日期结束时的库存，取不晚于该日期的最近快照加上单据日期在快照之后的库存流水，
+     * 快照生成后才补录的更早日期的单据也会累加。
+     *
+     * @param page                 page
+     *                             分页
+     * @param queryProductStockDTO query conditions
+     *                             查询条件
+     * @param stockDate            stock date
+     *                             库存日期
+     * @return stock page at the given date
+     *         指定日期的库存分页
+     */
+    IPage<ProductStockSkuVO> getProductStockAt(IPage<QueryProductStockDTO> page, QueryProductStockDTO queryProductStockDTO, LocalDate stockDate);
+}
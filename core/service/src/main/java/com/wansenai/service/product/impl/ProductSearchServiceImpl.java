@@ -0,0 +1,294 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.wansenai.entities.product.Product;
+import com.wansenai.entities.product.ProductStockKeepUnit;
+import com.wansenai.mappers.product.ProductMapper;
+import com.wansenai.mappers.product.ProductStockKeepUnitMapper;
+import com.wansenai.service.common.AfterCommitExecutor;
+import com.wansenai.service.product.ProductSearchIndex;
+import com.wansenai.service.product.ProductSearchResult;
+import com.wansenai.service.product.ProductSearchService;
+import com.wansenai.utils.constants.CommonConstants;
+import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 每个租户一份内存索引, 启动时后台按租户从数据库加载, 新租户在首次检索时加载。
+ * 商品新增, 修改, 删除和导入在事务提交后按商品id从数据库重新加载, 并通过redis频道通知其他实例重新加载这些商品
+ */
+@Slf4j
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService, MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "eairp:product-search:invalidate";
+
+    private static final int BATCH_SIZE = 1000;
+
+    // 区分本实例发出的通知, 本实例已在提交后重新加载
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ProductMapper productMapper;
+
+    private final ProductStockKeepUnitMapper productStockKeepUnitMapper;
+
+    private final AfterCommitExecutor afterCommitExecutor;
+
+    private final boolean enabled;
+
+    private final int maxResults;
+
+    private final RedisUtil redisUtil;
+
+    private final Map<Long, TenantIndex> tenantIndexes = new ConcurrentHashMap<>();
+
+    public ProductSearchServiceImpl(ProductMapper productMapper,
+                                    ProductStockKeepUnitMapper productStockKeepUnitMapper,
+                                    AfterCommitExecutor afterCommitExecutor,
+                                    @Value("${eairp.product-search.enabled:true}") boolean enabled,
+                                    @Value("${eairp.product-search.max-results:2000}") int maxResults,
+                                    RedisUtil redisUtil,
+                                    RedisMessageListenerContainer listenerContainer) {
+        this.productMapper = productMapper;
+        this.productStockKeepUnitMapper = productStockKeepUnitMapper;
+        this.afterCommitExecutor = afterCommitExecutor;
+        this.enabled = enabled;
+        this.maxResults = maxResults;
+        this.redisUtil = redisUtil;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("product-search-rebuild").start(() -> {
+            try {
+                productMapper.getProductTenantIds().forEach(this::rebuildIndex);
+            } catch (RuntimeException e) {
+                log.error("Load product search index failed, searches fall back to the database", e);
+            }
+        });
+    }
+
+    @Override
+    public ProductSearchResult search(String keywords) {
+        var tenantId = TenantContextHolder.getTenantId();
+        if (!enabled || tenantId == null) {
+            return null;
+        }
+        var state = tenantIndexes.computeIfAbsent(tenantId, id -> new TenantIndex());
+        ProductSearchIndex index;
+        synchronized (state) {
+            index = state.index;
+            if (index == null && !state.building) {
+                // 新租户, 后台加载, 这次先查数据库
+                state.building = true;
+                Thread.ofVirtual().name("product-search-" + tenantId).start(() -> build(tenantId, state));
+            }
+        }
+        if (index == null) {
+            return null;
+        }
+        var result = index.search(keywords, maxResults);
+        return result.isTruncated() ? null : result;
+    }
+
+    @Override
+    public void refreshProducts(Collection<Long> productIds) {
+        var tenantId = TenantContextHolder.getTenantId();
+        if (!enabled || tenantId == null || productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        var ids = productIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) {
+            return;
+        }
+        afterCommitExecutor.execute(() -> {
+            publish(tenantId, ids);
+            TenantContextHolder.runWithTenant(tenantId, () -> refresh(tenantId, ids));
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var value = redisUtil.deserializeValue(message.getBody());
+        if (!enabled || value == null) {
+            return;
+        }
+        // 实例id:租户id:商品id,商品id
+        var parts = value.toString().split(":", 3);
+        if (parts.length != 3) {
+            log.warn("忽略无效的商品索引刷新消息: {}", value);
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+        Long tenantId;
+        Set<Long> ids;
+        try {
+            tenantId = Long.valueOf(parts[1]);
+            ids = Arrays.stream(parts[2].split(","))
+                    .map(Long::valueOf)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的商品索引刷新消息: {}", value);
+            return;
+        }
+        // 不在监听线程中查询数据库
+        afterCommitExecutor.execute(() -> TenantContextHolder.runWithTenant(tenantId, () -> refresh(tenantId, ids)));
+    }
+
+    private void publish(Long tenantId, Set<Long> productIds) {
+        var ids = productIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisUtil.convertAndSend(INVALIDATE_CHANNEL, instanceId + ":" + tenantId + ":" + ids);
+        } catch (RuntimeException e) {
+            // 通知失败时其他实例在重启或重建索引前检索到的是旧数据
+            log.warn("商品索引刷新通知发送失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void rebuildIndex(Long tenantId) {
+        var state = tenantIndexes.computeIfAbsent(tenantId, id -> new TenantIndex());
+        synchronized (state) {
+            if (state.building) {
+                return;
+            }
+            state.building = true;
+        }
+        build(tenantId, state);
+    }
+
+    private void build(Long tenantId, TenantIndex state) {
+        var start = System.currentTimeMillis();
+        try {
+            var index = new ProductSearchIndex();
+            TenantContextHolder.runWithTenant(tenantId, () -> {
+                var products = productMapper.selectList(productQuery());
+                for (int i = 0; i < products.size(); i += BATCH_SIZE) {
+                    var batch = products.subList(i, Math.min(i + BATCH_SIZE, products.size()));
+                    putProducts(index, batch, batch.stream().map(Product::getId).toList());
+                }
+            });
+            Set<Long> pending;
+            synchronized (state) {
+                state.index = index;
+                state.building = false;
+                pending = new LinkedHashSet<>(state.pendingRefresh);
+                state.pendingRefresh.clear();
+            }
+            // 加载期间提交的修改
+            if (!pending.isEmpty()) {
+                TenantContextHolder.runWithTenant(tenantId, () -> refresh(tenantId, pending));
+            }
+            log.info("Product search index of tenant {} loaded, {} products, {} barcodes, {} ms",
+                    tenantId, index.size(), index.barcodeSize(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            synchronized (state) {
+                state.building = false;
+            }
+            log.error("Load product search index of tenant {} failed", tenantId, e);
+        }
+    }
+
+    private void refresh(Long tenantId, Set<Long> productIds) {
+        var state = tenantIndexes.get(tenantId);
+        if (state == null) {
+            // 还没有加载过的租户, 首次检索时会全量加载
+            return;
+        }
+        ProductSearchIndex index;
+        synchronized (state) {
+            if (state.building) {
+                state.pendingRefresh.addAll(productIds);
+            }
+            index = state.index;
+        }
+        if (index == null) {
+            return;
+        }
+        // 同一租户的刷新串行执行, 最后执行的一次读到的是最新提交的数据
+        state.refreshLock.lock();
+        try {
+            var ids = new ArrayList<>(productIds);
+            for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+                var batch = ids.subList(i, Math.min(i + BATCH_SIZE, ids.size()));
+                var products = productMapper.selectList(productQuery().in(Product::getId, batch));
+                putProducts(index, products, batch);
+            }
+        } finally {
+            state.refreshLock.unlock();
+        }
+    }
+
+    // 放入查到的商品, productIds中没有查到的(已删除)从索引移除
+    private void putProducts(ProductSearchIndex index, List<Product> products, List<Long> productIds) {
+        var barcodes = productStockKeepUnitMapper.selectList(new LambdaQueryWrapper<ProductStockKeepUnit>()
+                        .select(ProductStockKeepUnit::getId, ProductStockKeepUnit::getProductId, ProductStockKeepUnit::getProductBarCode)
+                        .in(ProductStockKeepUnit::getProductId, productIds)
+                        .eq(ProductStockKeepUnit::getDeleteFlag, CommonConstants.NOT_DELETED))
+                .stream()
+                .filter(sku -> sku.getProductBarCode() != null)
+                .collect(Collectors.groupingBy(ProductStockKeepUnit::getProductId,
+                        Collectors.toMap(ProductStockKeepUnit::getId, ProductStockKeepUnit::getProductBarCode, (a, b) -> a)));
+
+        var found = new HashSet<Long>(products.size() * 2);
+        for (Product product : products) {
+            found.add(product.getId());
+            index.put(product.getId(),
+                    Arrays.asList(product.getProductName(), product.getProductStandard(), product.getProductModel(), product.getProductColor()),
+                    barcodes.get(product.getId()));
+        }
+        productIds.stream()
+                .filter(id -> !found.contains(id))
+                .forEach(index::remove);
+    }
+
+    private LambdaQueryWrapper<Product> productQuery() {
+        return new LambdaQueryWrapper<Product>()
+                .select(Product::getId, Product::getProductName, Product::getProductStandard, Product::getProductModel, Product::getProductColor)
+                .eq(Product::getDeleteFlag, CommonConstants.NOT_DELETED);
+    }
+
+    private static class TenantIndex {
+
+        // 以下三个字段由 this 加锁保护, 加载中时旧索引继续提供检索
+        private ProductSearchIndex index;
+
+        private boolean building;
+
+        private final Set<Long> pendingRefresh = new HashSet<>();
+
+        private final ReentrantLock refreshLock = new ReentrantLock();
+    }
+}
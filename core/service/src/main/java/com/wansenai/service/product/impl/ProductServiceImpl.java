@@ -16,6 +16,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.wansenai.bo.product.ExportProductBO;
 import com.wansenai.bo.product.ExportProductEnBO;
+import com.wansenai.bo.product.ProductSummaryBO;
 import com.wansenai.service.BaseService;
 import com.wansenai.utils.SnowflakeIdUtil;
 import com.wansenai.dto.product.*;
@@ -54,6 +55,8 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> implements ProductService {
 
+    private static final int SUMMARY_BATCH_SIZE = 1000;
+
     private final ProductMapper productMapper;
 
     private final ProductStockKeepUnitService productStockKeepUnitService;
@@ -68,7 +71,11 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
 
     private final BaseService baseService;
 
-    public ProductServiceImpl(ProductMapper productMapper, ProductStockKeepUnitService productStockKeepUnitService, ProductStockService productStockService, ProductCategoryService productCategoryService, ProductImageService productImageService, ProductUnitService productUnitService, BaseService baseService) {
+    private final ProductSearchService productSearchService;
+
+    private final ProductStockLedgerService productStockLedgerService;
+
+    public ProductServiceImpl(ProductMapper productMapper, ProductStockKeepUnitService productStockKeepUnitService, ProductStockService productStockService, ProductCategoryService productCategoryService, ProductImageService productImageService, ProductUnitService productUnitService, BaseService baseService, ProductSearchService productSearchService, ProductStockLedgerService productStockLedgerService) {
         this.productMapper = productMapper;
         this.productStockKeepUnitService = productStockKeepUnitService;
         this.productStockService = productStockService;
@@ -76,6 +83,8 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
         this.productImageService = productImageService;
         this.productUnitService = productUnitService;
         this.baseService = baseService;
+        this.productSearchService = productSearchService;
+        this.productStockLedgerService = productStockLedgerService;
     }
 
     public String getStringValue(String str) {
@@ -239,6 +248,8 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
         }
         boolean addPriceResult = productStockKeepUnitService.saveBatch(productExtendPrices);
         boolean addStockResult = productStockService.saveOrUpdateBatch(productStocks);
+        // 期初库存和编辑后重置的库存写入库存流水
+        productStockLedgerService.recordStockAdjustments(productStocks.stream().map(ProductStock::getId).toList());
 
         // image
         if (!productDTO.getImageList().isEmpty()) {
@@ -268,6 +279,7 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
             }
             productImageService.saveBatch(imageList);
         }
+        productSearchService.refreshProducts(List.of(productId));
 
         if (productDTO.getProductId() == null) {
             if (addOrUpdateResult && addPriceResult && addStockResult) {
@@ -302,66 +314,31 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
         var productVos = new ArrayList<ProductVO>();
 
         Page<Product> productPage = new Page<>(queryProductDTO.getPage(), queryProductDTO.getPageSize());
-        // 关键字keywords 这里暂时不做处理
-        var wrapper = new LambdaQueryWrapper<Product>()
-                .like(StringUtils.hasLength(queryProductDTO.getProductColor()), Product::getProductColor, queryProductDTO.getProductColor())
-                .like(StringUtils.hasLength(queryProductDTO.getExtendInfo()), Product::getOtherFieldOne, queryProductDTO.getExtendInfo())
-                .like(StringUtils.hasLength(queryProductDTO.getRemark()), Product::getRemark, queryProductDTO.getRemark())
-                .like(StringUtils.hasLength(queryProductDTO.getWarehouseShelves()), Product::getWarehouseShelves, queryProductDTO.getWarehouseShelves())
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductName, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductStandard, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductModel, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductColor, queryProductDTO.getKeywords())
-                .eq(queryProductDTO.getProductCategoryId() != null, Product::getProductCategoryId, queryProductDTO.getProductCategoryId())
-                .eq(queryProductDTO.getStatus() != null, Product::getStatus, queryProductDTO.getStatus())
-                .eq(queryProductDTO.getEnableSerialNumber() != null, Product::getEnableSerialNumber, queryProductDTO.getEnableSerialNumber())
-                .eq(queryProductDTO.getEnableBatchNumber() != null, Product::getEnableBatchNumber, queryProductDTO.getEnableBatchNumber())
-                .eq(Product::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .orderByDesc(Product::getCreateTime);
+        var wrapper = getProductQueryWrapper(queryProductDTO);
+        if (wrapper == null) {
+            result.setRecords(productVos);
+            result.setSize(productPage.getSize());
+            return Response.responseData(result);
+        }
+        wrapper.orderByDesc(Product::getCreateTime);
 
         productMapper.selectPage(productPage, wrapper);
+        // 分类名称, 第一个SKU的价格和库存合计整页一次查出
+        var summaries = getProductSummaries(productPage.getRecords());
         productPage.getRecords().forEach(item -> {
             ProductVO productVO = new ProductVO();
             BeanUtils.copyProperties(item, productVO);
 
-            var productCategoryName = productCategoryService.lambdaQuery()
-                    .eq(ProductCategory::getId, item.getProductCategoryId())
-                    .eq(ProductCategory::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .oneOpt()
-                    .map(ProductCategory::getCategoryName)
-                    .orElse(null);
-            productVO.setProductCategoryName(productCategoryName);
-
-            // 查询价格 如果是多个结果获取第一个
-            var price = productStockKeepUnitService.lambdaQuery()
-                    .eq(ProductStockKeepUnit::getProductId, item.getId())
-                    .eq(ProductStockKeepUnit::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list()
-                    .stream()
-                    .findFirst()
-                    .orElse(null);
-
-            if (price != null) {
-                productVO.setProductBarcode(price.getProductBarCode());
-                productVO.setPurchasePrice(price.getPurchasePrice());
-                productVO.setRetailPrice(price.getRetailPrice());
-                productVO.setSalePrice(price.getSalePrice());
-                productVO.setLowPrice(price.getLowPrice());
-
-                // 查询库存如果不为空计算所有当前库存数量
-                var stock = productStockService.lambdaQuery()
-                        .eq(ProductStock::getProductSkuId, price.getId())
-                        .eq(ProductStock::getDeleteFlag, CommonConstants.NOT_DELETED)
-                        .list();
-                if (!stock.isEmpty()) {
-                    var currentStockQuantity = stock.stream()
-                            .map(ProductStock::getCurrentStockQuantity)
-                            .filter(Objects::nonNull)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    productVO.setProductStock(currentStockQuantity);
+            var summary = summaries.get(item.getId());
+            if (summary != null) {
+                productVO.setProductCategoryName(summary.getProductCategoryName());
+                if (summary.getProductSkuId() != null) {
+                    productVO.setProductBarcode(summary.getProductBarcode());
+                    productVO.setPurchasePrice(summary.getPurchasePrice());
+                    productVO.setRetailPrice(summary.getRetailPrice());
+                    productVO.setSalePrice(summary.getSalePrice());
+                    productVO.setLowPrice(summary.getLowPrice());
+                    productVO.setProductStock(summary.getProductStock());
                 }
             }
             productVos.add(productVO);
@@ -409,6 +386,7 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
 
         if (prices != null && !prices.isEmpty()) {
             var productPrices = new ArrayList<ProductPriceVO>();
+            var stockLists = productStockService.getProductStockMap(prices.stream().map(ProductStockKeepUnit::getId).toList());
             for (ProductStockKeepUnit price : prices) {
                 ProductPriceVO productPriceVO = ProductPriceVO.builder()
                         .productPriceId(price.getId())
@@ -419,7 +397,7 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
                         .salesPrice(price.getSalePrice())
                         .retailPrice(price.getRetailPrice())
                         .lowSalesPrice(price.getLowPrice())
-                        .stockList(productStockService.getProductStockList(price.getId()))
+                        .stockList(stockLists.getOrDefault(price.getId(), new ArrayList<>()))
                         .build();
                 productPrices.add(productPriceVO);
             }
@@ -486,6 +464,7 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
 
         // 物理删除商品信息
         var deleteProductResult = removeByIds(productIds);
+        productSearchService.refreshProducts(productIds);
         var systemLanguage = baseService.getCurrentUserSystemLanguage();
         if (deleteProductResult) {
             if ("zh_CN".equals(systemLanguage)) {
@@ -531,15 +510,9 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
         if (productDTO.getProductIds() == null || productDTO.getProductIds().isEmpty()) {
             return Response.responseMsg(BaseCodeEnum.PARAMETER_NULL);
         }
-        if (productDTO.getProductCategoryId() != null) {
-            lambdaUpdate()
-                    .set(Product::getProductCategoryId, productDTO.getProductCategoryId())
-                    .in(Product::getId, productDTO.getProductIds())
-                    .eq(Product::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .update();
-        }
 
         var updateResult = lambdaUpdate()
+                .set(productDTO.getProductCategoryId() != null, Product::getProductCategoryId, productDTO.getProductCategoryId())
                 .set(StringUtils.hasLength(productDTO.getProductColor()), Product::getProductColor, productDTO.getProductColor())
                 .set(productDTO.getProductWeight() != null, Product::getProductWeight, productDTO.getProductWeight())
                 .set(productDTO.getProductExpiryNum() != null, Product::getProductExpiryNum, productDTO.getProductExpiryNum())
@@ -549,6 +522,9 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
                 .in(Product::getId, productDTO.getProductIds())
                 .eq(Product::getDeleteFlag, CommonConstants.NOT_DELETED)
                 .update();
+        if (StringUtils.hasLength(productDTO.getProductColor())) {
+            productSearchService.refreshProducts(productDTO.getProductIds());
+        }
         var systemLanguage = baseService.getCurrentUserSystemLanguage();
         if (updateResult) {
             if ("zh_CN".equals(systemLanguage)) {
@@ -569,46 +545,69 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
         return saveBatch(productVos);
     }
 
-    private List<ExportProductBO> getProductList(QueryProductDTO queryProductDTO) {
-        var productExportBOList = new ArrayList<ExportProductBO>();
-        var queryWrapper = new LambdaQueryWrapper<Product>()
+    /**
+     * 商品列表和导出的查询条件, 关键字优先走内存索引, 索引未就绪或命中过多时回退到 LIKE。
+     * 关键字没有命中任何商品时返回null
+     */
+    private LambdaQueryWrapper<Product> getProductQueryWrapper(QueryProductDTO queryProductDTO) {
+        var wrapper = new LambdaQueryWrapper<Product>()
                 .like(StringUtils.hasLength(queryProductDTO.getProductColor()), Product::getProductColor, queryProductDTO.getProductColor())
                 .like(StringUtils.hasLength(queryProductDTO.getExtendInfo()), Product::getOtherFieldOne, queryProductDTO.getExtendInfo())
                 .like(StringUtils.hasLength(queryProductDTO.getRemark()), Product::getRemark, queryProductDTO.getRemark())
                 .like(StringUtils.hasLength(queryProductDTO.getWarehouseShelves()), Product::getWarehouseShelves, queryProductDTO.getWarehouseShelves())
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductName, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductStandard, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductModel, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductColor, queryProductDTO.getKeywords())
                 .eq(queryProductDTO.getProductCategoryId() != null, Product::getProductCategoryId, queryProductDTO.getProductCategoryId())
                 .eq(queryProductDTO.getStatus() != null, Product::getStatus, queryProductDTO.getStatus())
                 .eq(queryProductDTO.getEnableSerialNumber() != null, Product::getEnableSerialNumber, queryProductDTO.getEnableSerialNumber())
                 .eq(queryProductDTO.getEnableBatchNumber() != null, Product::getEnableBatchNumber, queryProductDTO.getEnableBatchNumber())
                 .eq(Product::getDeleteFlag, CommonConstants.NOT_DELETED);
 
+        var keywords = queryProductDTO.getKeywords();
+        if (StringUtils.hasLength(keywords)) {
+            var matches = productSearchService.search(keywords);
+            if (matches == null) {
+                wrapper.and(keyword -> keyword.like(Product::getProductName, keywords)
+                        .or().like(Product::getProductStandard, keywords)
+                        .or().like(Product::getProductModel, keywords)
+                        .or().like(Product::getProductColor, keywords));
+            } else if (matches.isEmpty()) {
+                return null;
+            } else {
+                wrapper.in(Product::getId, matches.getAllProductIds());
+            }
+        }
+        return wrapper;
+    }
+
+    // 每批一条SQL查出商品的分类名称, 第一个SKU和库存合计
+    private Map<Long, ProductSummaryBO> getProductSummaries(List<Product> products) {
+        var summaries = new HashMap<Long, ProductSummaryBO>(products.size() * 2);
+        for (int i = 0; i < products.size(); i += SUMMARY_BATCH_SIZE) {
+            var productIds = products.subList(i, Math.min(i + SUMMARY_BATCH_SIZE, products.size())).stream()
+                    .map(Product::getId)
+                    .toList();
+            productMapper.getProductSummaries(productIds).forEach(summary -> summaries.put(summary.getProductId(), summary));
+        }
+        return summaries;
+    }
+
+    private List<ExportProductBO> getProductList(QueryProductDTO queryProductDTO) {
+        var productExportBOList = new ArrayList<ExportProductBO>();
+        var queryWrapper = getProductQueryWrapper(queryProductDTO);
+        if (queryWrapper == null) {
+            return productExportBOList;
+        }
+
         var queryResult = list(queryWrapper);
+        var summaries = getProductSummaries(queryResult);
         queryResult.forEach(item -> {
-            var productSku = productStockKeepUnitService.lambdaQuery()
-                    .eq(ProductStockKeepUnit::getProductId, item.getId())
-                    .one();
-            var productStock = productStockService.lambdaQuery()
-                    .eq(ProductStock::getProductSkuId, productSku.getId())
-                    .one();
-
-            var productCategory = "";
-            if(item.getProductCategoryId() != null) {
-                var category = productCategoryService.getById(item.getProductCategoryId());
-                productCategory = category.getCategoryName();
-            }
+            var productSku = summaries.getOrDefault(item.getId(), new ProductSummaryBO());
+            var productCategory = Optional.ofNullable(productSku.getProductCategoryName()).orElse("");
 
             var productExportBO = ExportProductBO.builder()
                     .productName(item.getProductName())
-                    .productBarcode(productSku.getProductBarCode())
+                    .productBarcode(productSku.getProductBarcode())
                     .productUnit(item.getProductUnit())
-                    .stock(productStock.getCurrentStockQuantity())
+                    .stock(productSku.getProductStock())
                     .retailPrice(productSku.getRetailPrice())
                     .salesPrice(productSku.getSalePrice())
                     .purchasePrice(productSku.getPurchasePrice())
@@ -637,44 +636,22 @@ public class ProductServiceImpl extends ServiceImpl<ProductMapper, Product> impl
 
     private List<ExportProductEnBO> getProductEnList(QueryProductDTO queryProductDTO) {
         var productExportEnBOList = new ArrayList<ExportProductEnBO>();
-        var queryWrapper = new LambdaQueryWrapper<Product>()
-                .like(StringUtils.hasLength(queryProductDTO.getProductColor()), Product::getProductColor, queryProductDTO.getProductColor())
-                .like(StringUtils.hasLength(queryProductDTO.getExtendInfo()), Product::getOtherFieldOne, queryProductDTO.getExtendInfo())
-                .like(StringUtils.hasLength(queryProductDTO.getRemark()), Product::getRemark, queryProductDTO.getRemark())
-                .like(StringUtils.hasLength(queryProductDTO.getWarehouseShelves()), Product::getWarehouseShelves, queryProductDTO.getWarehouseShelves())
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductName, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductStandard, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductModel, queryProductDTO.getKeywords())
-                .or()
-                .like(StringUtils.hasLength(queryProductDTO.getKeywords()), Product::getProductColor, queryProductDTO.getKeywords())
-                .eq(queryProductDTO.getProductCategoryId() != null, Product::getProductCategoryId, queryProductDTO.getProductCategoryId())
-                .eq(queryProductDTO.getStatus() != null, Product::getStatus, queryProductDTO.getStatus())
-                .eq(queryProductDTO.getEnableSerialNumber() != null, Product::getEnableSerialNumber, queryProductDTO.getEnableSerialNumber())
-                .eq(queryProductDTO.getEnableBatchNumber() != null, Product::getEnableBatchNumber, queryProductDTO.getEnableBatchNumber())
-                .eq(Product::getDeleteFlag, CommonConstants.NOT_DELETED);
+        var queryWrapper = getProductQueryWrapper(queryProductDTO);
+        if (queryWrapper == null) {
+            return productExportEnBOList;
+        }
 
         var queryResult = list(queryWrapper);
+        var summaries = getProductSummaries(queryResult);
         queryResult.forEach(item -> {
-            var productSku = productStockKeepUnitService.lambdaQuery()
-                    .eq(ProductStockKeepUnit::getProductId, item.getId())
-                    .one();
-            var productStock = productStockService.lambdaQuery()
-                    .eq(ProductStock::getProductSkuId, productSku.getId())
-                    .one();
-
-            var productCategory = "";
-            if(item.getProductCategoryId() != null) {
-                var category = productCategoryService.getById(item.getProductCategoryId());
-                productCategory = category.getCategoryName();
-            }
+            var productSku = summaries.getOrDefault(item.getId(), new ProductSummaryBO());
+            var productCategory = Optional.ofNullable(productSku.getProductCategoryName()).orElse("");
 
             var productExportEnBO = ExportProductEnBO.builder()
                     .productName(item.getProductName())
-                    .productBarcode(productSku.getProductBarCode())
+                    .productBarcode(productSku.getProductBarcode())
                     .productUnit(item.getProductUnit())
-                    .stock(productStock.getCurrentStockQuantity())
+                    .stock(productSku.getProductStock())
                     .retailPrice(productSku.getRetailPrice())
                     .salesPrice(productSku.getSalePrice())
                     .purchasePrice(productSku.getPurchasePrice())
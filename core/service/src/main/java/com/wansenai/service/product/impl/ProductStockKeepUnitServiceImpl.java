@@ -16,6 +16,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.wansenai.dto.product.QueryProductStockKeepUnitDTO;
 import com.wansenai.service.product.ProductStockKeepUnitService;
+import com.wansenai.service.system.ISysSequenceService;
 import com.wansenai.utils.response.Response;
 import com.wansenai.entities.product.ProductStockKeepUnit;
 import com.wansenai.mappers.product.ProductStockKeepUnitMapper;
@@ -23,6 +24,8 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.vo.product.ProductStockKeepUnitVO;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -33,33 +36,36 @@ import java.util.List;
 @Service
 public class ProductStockKeepUnitServiceImpl extends ServiceImpl<ProductStockKeepUnitMapper, ProductStockKeepUnit> implements ProductStockKeepUnitService {
 
-    private final ProductStockKeepUnitMapper productSkuMapper;
+    private static final String BAR_CODE_SEQUENCE = "product_bar_code";
 
-    private static int currentBarcode = 1000;
+    private static final long FIRST_BAR_CODE = 1000L;
 
-    public ProductStockKeepUnitServiceImpl(ProductStockKeepUnitMapper productSkuMapper) {
-        this.productSkuMapper = productSkuMapper;
-    }
+    private static final int MAX_BAR_CODE_RETRIES = 3;
 
-    public static int generateBarcode() {
-        if (currentBarcode > 9999) {
-            throw new IllegalStateException("No more barcodes available.");
-        }
+    private final ProductStockKeepUnitMapper productSkuMapper;
+
+    private final ISysSequenceService sequenceService;
 
-        int barcode = currentBarcode;
-        currentBarcode++;
-        return barcode;
+    public ProductStockKeepUnitServiceImpl(ProductStockKeepUnitMapper productSkuMapper, ISysSequenceService sequenceService) {
+        this.productSkuMapper = productSkuMapper;
+        this.sequenceService = sequenceService;
     }
 
     @Override
     public Response<String> getProductCode() {
-        var data = lambdaQuery()
-                .orderByDesc(ProductStockKeepUnit::getProductBarCode)
-                .last("LIMIT 1").one();
-        if(data == null){
-            return Response.responseData("1000");
+        var barCode = String.valueOf(sequenceService.nextValue(BAR_CODE_SEQUENCE, this::nextFreeBarCode));
+        // 手工录入或导入的条码可能已占用序列中的值, 序列推进到当前最大条码之后再取
+        for (int retry = 0; retry < MAX_BAR_CODE_RETRIES && checkProductCode(List.of(barCode)); retry++) {
+            sequenceService.advanceTo(BAR_CODE_SEQUENCE, nextFreeBarCode());
+            barCode = String.valueOf(sequenceService.nextValue(BAR_CODE_SEQUENCE, this::nextFreeBarCode));
         }
-        return Response.responseData(String.valueOf(Integer.parseInt(data.getProductBarCode()) + 1));
+        return Response.responseData(barCode);
+    }
+
+    // 当前最大的数字条码之后的第一个值
+    private long nextFreeBarCode() {
+        var maxBarCode = productSkuMapper.getMaxNumericBarCode();
+        return maxBarCode == null ? FIRST_BAR_CODE : Math.max(maxBarCode + 1, FIRST_BAR_CODE);
     }
 
     @Override
@@ -71,4 +77,12 @@ public class ProductStockKeepUnitServiceImpl extends ServiceImpl<ProductStockKee
     public ProductStockKeepUnit getByProductBarCode(String productBarCode) {
         return lambdaQuery().eq(ProductStockKeepUnit::getProductBarCode, productBarCode).one();
     }
+
+    @Override
+    public List<ProductStockKeepUnit> listByProductBarCodes(Collection<String> productBarCodes) {
+        if (productBarCodes == null || productBarCodes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return lambdaQuery().in(ProductStockKeepUnit::getProductBarCode, productBarCodes).list();
+    }
 }
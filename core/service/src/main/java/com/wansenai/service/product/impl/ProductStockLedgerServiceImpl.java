@@ -0,0 +1,269 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product.impl;
+
+import com.wansenai.bo.product.StockChangeBO;
+import com.wansenai.entities.product.ProductStockMovement;
+import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.mappers.product.ProductStockMovementMapper;
+import com.wansenai.service.product.InsufficientStockException;
+import com.wansenai.service.product.ProductStockLedgerService;
+import com.wansenai.utils.SnowflakeIdUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ProductStockLedgerServiceImpl implements ProductStockLedgerService {
+
+    private final ProductStockMapper productStockMapper;
+
+    private final ProductStockMovementMapper productStockMovementMapper;
+
+    private final boolean rejectNegative;
+
+    public ProductStockLedgerServiceImpl(ProductStockMapper productStockMapper, ProductStockMovementMapper productStockMovementMapper,
+                                         @Value("${eairp.stock.reject-negative:false}") boolean rejectNegative) {
+        this.productStockMapper = productStockMapper;
+        this.productStockMovementMapper = productStockMovementMapper;
+        this.rejectNegative = rejectNegative;
+    }
+
+    @Override
+    @Transactional
+    public void applyStockChanges(List<StockChangeBO> changes) {
+        applyStockChanges(changes, rejectNegative);
+    }
+
+    @Override
+    @Transactional
+    public void applyStockChanges(List<StockChangeBO> changes, boolean rejectNegative) {
+        var mergedChanges = mergeChanges(changes);
+        if (mergedChanges.isEmpty()) {
+            return;
+        }
+
+        var stockMap = productStockMapper.getStockByBarCodes(new ArrayList<>(mergedChanges.values()))
+                .stream()
+                .collect(Collectors.toMap(stock -> stockKey(stock.getBarCode(), stock.getWarehouseId()), stock -> stock, (first, second) -> first));
+
+        var stockChanges = new ArrayList<StockChangeBO>();
+        var missingKeys = new ArrayList<String>();
+        mergedChanges.forEach((key, change) -> {
+            var stock = stockMap.get(key);
+            if (stock == null) {
+                missingKeys.add(key);
+                return;
+            }
+            change.setStockId(stock.getStockId());
+            change.setProductSkuId(stock.getProductSkuId());
+            change.setTenantId(stock.getTenantId());
+            stockChanges.add(change);
+        });
+        // 条码在仓库中没有库存行时不能静默跳过，否则单据与库存不一致，整张单据回滚
+        if (!missingKeys.isEmpty()) {
+            log.error("Stock rows not found for bar code-warehouse {}, receipt {}", missingKeys, changes.getFirst().getReceiptMainId());
+            throw new IllegalStateException("Stock rows not found for bar code-warehouse " + missingKeys);
+        }
+        // 单条 UPDATE ... WHERE id IN 按主键索引顺序加锁，与列表顺序无关；这里排序只是让流水按库存id顺序写入
+        stockChanges.sort(Comparator.comparing(StockChangeBO::getStockId));
+
+        productStockMapper.increaseStockQuantity(stockChanges);
+
+        // 库存行已被本事务锁定，此时读到的数量就是本次变动后的结存
+        var balanceMap = productStockMapper.getStockBalances(stockChanges.stream().map(StockChangeBO::getStockId).toList())
+                .stream()
+                .collect(Collectors.toMap(StockChangeBO::getStockId, StockChangeBO::getBalanceQuantity));
+        stockChanges.forEach(change -> change.setBalanceQuantity(balanceMap.get(change.getStockId())));
+        insertMovements(stockChanges, getReceiptDates(stockChanges));
+        if (rejectNegative) {
+            checkNegativeStock(stockChanges);
+        }
+    }
+
+    @Override
+    public List<String> getMissingStockBarCodes(List<StockChangeBO> changes) {
+        var keys = changes == null ? List.<StockChangeBO>of() : changes.stream()
+                .filter(change -> change.getBarCode() != null && change.getWarehouseId() != null)
+                .map(change -> StockChangeBO.builder().barCode(change.getBarCode()).warehouseId(change.getWarehouseId()).build())
+                .distinct()
+                .toList();
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        var stockKeys = productStockMapper.getStockByBarCodes(keys).stream()
+                .map(stock -> stockKey(stock.getBarCode(), stock.getWarehouseId()))
+                .collect(Collectors.toSet());
+        return keys.stream()
+                .filter(key -> !stockKeys.contains(stockKey(key.getBarCode(), key.getWarehouseId())))
+                .map(StockChangeBO::getBarCode)
+                .distinct()
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void recordStockAdjustments(Collection<Long> stockIds) {
+        if (stockIds == null || stockIds.isEmpty()) {
+            return;
+        }
+        var stockChanges = productStockMapper.getUnrecordedStockChanges(stockIds);
+        if (!stockChanges.isEmpty()) {
+            insertMovements(stockChanges, Map.of());
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuildStock(Long warehouseId) {
+        return productStockMapper.rebuildStockQuantity(warehouseId);
+    }
+
+    // 修改单据时先冲回原明细再应用新明细, 按同一事务内的净变动在提交前校验; 库存行在提交前一直被本事务锁定
+    private void checkNegativeStock(List<StockChangeBO> stockChanges) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            verifyNotNegative(mergeNetChanges(new LinkedHashMap<>(), stockChanges));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        var netChanges = (Map<Long, StockChangeBO>) TransactionSynchronizationManager.getResource(this);
+        if (netChanges == null) {
+            var transactionChanges = new LinkedHashMap<Long, StockChangeBO>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    verifyNotNegative(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductStockLedgerServiceImpl.this);
+                }
+            });
+            netChanges = transactionChanges;
+        }
+        mergeNetChanges(netChanges, stockChanges);
+    }
+
+    private static Map<Long, StockChangeBO> mergeNetChanges(Map<Long, StockChangeBO> netChanges, List<StockChangeBO> stockChanges) {
+        stockChanges.forEach(change -> netChanges.merge(change.getStockId(),
+                StockChangeBO.builder().stockId(change.getStockId()).barCode(change.getBarCode()).quantity(change.getQuantity()).build(),
+                (merged, next) -> {
+                    merged.setQuantity(merged.getQuantity().add(next.getQuantity()));
+                    return merged;
+                }));
+        return netChanges;
+    }
+
+    // 只校验净减少的库存, 入库不会因为原本就是负库存而被拒绝
+    private void verifyNotNegative(Map<Long, StockChangeBO> netChanges) {
+        var decreased = netChanges.values().stream()
+                .filter(change -> change.getQuantity().signum() < 0)
+                .collect(Collectors.toMap(StockChangeBO::getStockId, StockChangeBO::getBarCode));
+        if (decreased.isEmpty()) {
+            return;
+        }
+        var negativeBarCodes = productStockMapper.getStockBalances(decreased.keySet()).stream()
+                .filter(balance -> balance.getBalanceQuantity().signum() < 0)
+                .map(balance -> decreased.get(balance.getStockId()))
+                .toList();
+        if (!negativeBarCodes.isEmpty()) {
+            log.warn("Stock of bar code {} would become negative, the receipt is rejected", negativeBarCodes);
+            throw new InsufficientStockException(negativeBarCodes);
+        }
+    }
+
+    // 流水记录来源单据的单据日期, 历史库存和快照按单据日期统计; 单据主表在变动前已保存
+    private Map<Long, LocalDateTime> getReceiptDates(List<StockChangeBO> stockChanges) {
+        var receiptMainIds = stockChanges.stream()
+                .map(StockChangeBO::getReceiptMainId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        var receiptDates = new HashMap<Long, LocalDateTime>();
+        if (!receiptMainIds.isEmpty()) {
+            productStockMovementMapper.getReceiptDates(receiptMainIds).stream()
+                    .filter(receipt -> receipt.getReceiptDate() != null)
+                    .forEach(receipt -> receiptDates.putIfAbsent(receipt.getReceiptMainId(), receipt.getReceiptDate()));
+        }
+        return receiptDates;
+    }
+
+    private void insertMovements(List<StockChangeBO> stockChanges, Map<Long, LocalDateTime> receiptDates) {
+        var now = LocalDateTime.now();
+        var ids = Arrays.stream(SnowflakeIdUtil.nextIds(stockChanges.size())).iterator();
+        var movements = stockChanges.stream()
+                .map(change -> ProductStockMovement.builder()
+                        .id(ids.nextLong())
+                        .tenantId(change.getTenantId())
+                        .productStockId(change.getStockId())
+                        .productSkuId(change.getProductSkuId())
+                        .warehouseId(change.getWarehouseId())
+                        .changeQuantity(change.getQuantity())
+                        .balanceQuantity(change.getBalanceQuantity())
+                        .receiptMainId(change.getReceiptMainId())
+                        .receiptDate(change.getReceiptMainId() == null ? now : receiptDates.getOrDefault(change.getReceiptMainId(), now))
+                        .createTime(now)
+                        .build())
+                .toList();
+        productStockMovementMapper.insertBatch(movements);
+    }
+
+    // 同一单据中相同条码和仓库的变动先合并，每个库存只更新一次
+    private Map<String, StockChangeBO> mergeChanges(List<StockChangeBO> changes) {
+        var mergedChanges = new LinkedHashMap<String, StockChangeBO>();
+        if (changes == null) {
+            return mergedChanges;
+        }
+        for (StockChangeBO change : changes) {
+            if (change.getBarCode() == null || change.getWarehouseId() == null || change.getQuantity() == null) {
+                continue;
+            }
+            mergedChanges.merge(stockKey(change.getBarCode(), change.getWarehouseId()),
+                    StockChangeBO.builder()
+                            .barCode(change.getBarCode())
+                            .warehouseId(change.getWarehouseId())
+                            .quantity(change.getQuantity())
+                            .receiptMainId(change.getReceiptMainId())
+                            .build(),
+                    (merged, next) -> {
+                        merged.setQuantity(merged.getQuantity().add(next.getQuantity()));
+                        return merged;
+                    });
+        }
+        mergedChanges.values().removeIf(change -> change.getQuantity().compareTo(BigDecimal.ZERO) == 0);
+        return mergedChanges;
+    }
+
+    private static String stockKey(String barCode, Long warehouseId) {
+        return barCode + "-" + warehouseId;
+    }
+}
@@ -17,7 +17,9 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.dto.product.QueryProductStockKeepUnitDTO;
 import com.wansenai.entities.product.ProductStock;
+import com.wansenai.entities.warehouse.Warehouse;
 import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.service.product.ProductSearchService;
 import com.wansenai.service.product.ProductStockService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.service.warehouse.WarehouseService;
@@ -28,9 +30,15 @@ import com.wansenai.vo.product.ProductStockVO;
 import com.wansenai.vo.report.ProductStockSkuVO;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductStockServiceImpl extends ServiceImpl<ProductStockMapper, ProductStock> implements ProductStockService {
@@ -43,17 +51,28 @@ public class ProductStockServiceImpl extends ServiceImpl<ProductStockMapper, Pro
 
     private final ISysUserService userService;
 
-    public ProductStockServiceImpl(WarehouseService warehouseService, ProductStockMapper productStockMapper, RedisUtil redisUtil, ISysUserService userService) {
+    private final ProductSearchService productSearchService;
+
+    public ProductStockServiceImpl(WarehouseService warehouseService, ProductStockMapper productStockMapper, RedisUtil redisUtil, ISysUserService userService, ProductSearchService productSearchService) {
         this.warehouseService = warehouseService;
         this.productStockMapper = productStockMapper;
         this.redisUtil = redisUtil;
         this.userService = userService;
+        this.productSearchService = productSearchService;
     }
 
     @Override
     public IPage<ProductStockKeepUnitVO> getProductExtendPriceInfo(QueryProductStockKeepUnitDTO priceDTO) {
         var page = new Page<QueryProductStockKeepUnitDTO>(priceDTO.getPage(), priceDTO.getPageSize());
-        return productStockMapper.getProductSkuList(page, priceDTO);
+        // 关键字优先走内存索引, 返回null时由SQL按 LIKE 查询
+        var matches = StringUtils.hasLength(priceDTO.getKeywords()) ? productSearchService.search(priceDTO.getKeywords()) : null;
+        if (matches == null) {
+            return productStockMapper.getProductSkuList(page, priceDTO, null, null);
+        }
+        if (matches.isEmpty()) {
+            return new Page<>(priceDTO.getPage(), priceDTO.getPageSize());
+        }
+        return productStockMapper.getProductSkuList(page, priceDTO, matches.getProductIds(), matches.getSkuIds());
     }
 
     @Override
@@ -67,23 +86,37 @@ public class ProductStockServiceImpl extends ServiceImpl<ProductStockMapper, Pro
 
     @Override
     public List<ProductStockVO> getProductStockList(Long productSukId) {
-        var productStockVos = new ArrayList<ProductStockVO>();
+        return getProductStockMap(List.of(productSukId)).getOrDefault(productSukId, new ArrayList<>());
+    }
 
+    @Override
+    public Map<Long, List<ProductStockVO>> getProductStockMap(Collection<Long> productSkuIds) {
+        var productStockMap = new HashMap<Long, List<ProductStockVO>>();
+        if (productSkuIds == null || productSkuIds.isEmpty()) {
+            return productStockMap;
+        }
         var productStocks = lambdaQuery()
-                .eq(ProductStock::getProductSkuId, productSukId)
+                .in(ProductStock::getProductSkuId, productSkuIds)
                 .list();
+        if (productStocks.isEmpty()) {
+            return productStockMap;
+        }
+        var warehouseIds = productStocks.stream()
+                .map(ProductStock::getWarehouseId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        var warehouseNames = warehouseIds.isEmpty() ? Map.<Long, String>of() : warehouseService.listByIds(warehouseIds).stream()
+                .collect(Collectors.toMap(Warehouse::getId, Warehouse::getWarehouseName, (a, b) -> a));
+
         productStocks.forEach(productStock -> {
             ProductStockVO productStockVO = new ProductStockVO();
             productStockVO.setProductStockId(productStock.getId());
             BeanUtils.copyProperties(productStock, productStockVO);
-            productStockVos.add(productStockVO);
-
             // set warehouse name
-            var warehouse = warehouseService.getById(productStock.getWarehouseId());
-            productStockVO.setWarehouseName(warehouse.getWarehouseName());
+            productStockVO.setWarehouseName(warehouseNames.get(productStock.getWarehouseId()));
+            productStockMap.computeIfAbsent(productStock.getProductSkuId(), key -> new ArrayList<>()).add(productStockVO);
         });
-
-        return productStockVos;
+        return productStockMap;
     }
 
     @Override
@@ -106,4 +139,12 @@ public class ProductStockServiceImpl extends ServiceImpl<ProductStockMapper, Pro
     public Boolean removeBySkuId(Long skuId) {
         return lambdaUpdate().eq(ProductStock::getProductSkuId, skuId).remove();
     }
+
+    @Override
+    public Boolean removeBySkuIds(Collection<Long> skuIds) {
+        if (skuIds == null || skuIds.isEmpty()) {
+            return false;
+        }
+        return lambdaUpdate().in(ProductStock::getProductSkuId, skuIds).remove();
+    }
 }
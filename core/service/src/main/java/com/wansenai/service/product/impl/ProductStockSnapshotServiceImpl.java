@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.product.impl;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.wansenai.dto.report.QueryProductStockDTO;
+import com.wansenai.entities.product.ProductStockSnapshot;
+import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.mappers.product.ProductStockSnapshotMapper;
+import com.wansenai.service.product.ProductStockSnapshotService;
+import com.wansenai.utils.SnowflakeIdUtil;
+import com.wansenai.vo.report.ProductStockSkuVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+@Service
+@Slf4j
+public class ProductStockSnapshotServiceImpl extends ServiceImpl<ProductStockSnapshotMapper, ProductStockSnapshot> implements ProductStockSnapshotService {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final ProductStockSnapshotMapper productStockSnapshotMapper;
+
+    private final ProductStockMapper productStockMapper;
+
+    public ProductStockSnapshotServiceImpl(ProductStockSnapshotMapper productStockSnapshotMapper, ProductStockMapper productStockMapper) {
+        this.productStockSnapshotMapper = productStockSnapshotMapper;
+        this.productStockMapper = productStockMapper;
+    }
+
+    @Override
+    @Transactional
+    public int createSnapshot(LocalDate snapshotDate) {
+        var snapshots = productStockSnapshotMapper.getStockQuantitiesAt(snapshotDate.plusDays(1).atStartOfDay());
+        lambdaUpdate()
+                .eq(ProductStockSnapshot::getSnapshotDate, snapshotDate)
+                .remove();
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+
+        var now = LocalDateTime.now();
+        var ids = Arrays.stream(SnowflakeIdUtil.nextIds(snapshots.size())).iterator();
+        snapshots.forEach(item -> item.setId(ids.nextLong())
+                .setSnapshotDate(snapshotDate)
+                .setStockAmount(item.getStockQuantity().multiply(item.getUnitPrice()).setScale(2, RoundingMode.HALF_UP))
+                .setCreateTime(now));
+        for (int from = 0; from < snapshots.size(); from += INSERT_BATCH_SIZE) {
+            productStockSnapshotMapper.insertBatch(snapshots.subList(from, Math.min(from + INSERT_BATCH_SIZE, snapshots.size())));
+        }
+        log.info("Create stock snapshot of {}, {} rows", snapshotDate, snapshots.size());
+        return snapshots.size();
+    }
+
+    @Override
+    public IPage<ProductStockSkuVO> getProductStockAt(IPage<QueryProductStockDTO> page, QueryProductStockDTO queryProductStockDTO, LocalDate stockDate) {
+        var snapshotDate = productStockSnapshotMapper.getNearestSnapshotDate(stockDate);
+        // 累加单据日期在快照之后到查询日期结束的流水; 快照正好是查询日期时只累加快照生成后补录的单据
+        var startTime = snapshotDate == null ? null : snapshotDate.plusDays(1).atStartOfDay();
+        var endTime = stockDate.plusDays(1).atStartOfDay();
+        return productStockMapper.getProductStockAt(page, queryProductStockDTO, snapshotDate, startTime, endTime);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.receipt;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.wansenai.entities.receipt.ReceiptAccountAllocation;
+
+import java.util.List;
+
+public interface ReceiptAccountAllocationService extends IService<ReceiptAccountAllocation> {
+
+    /**
+     * Replace the split payment rows of a sale or purchase receipt, one row per account.
+     * Account ids and amounts are matched by position, a receipt without split payment keeps no rows.
+     * 替换销售或采购单据的多账户结算分摊, 每个账户一行, 账户和金额按位置对应, 未使用多账户时不保留分摊
+     *
+     * @param receiptCategory Receipt category (sales/purchase)
+     *                        单据类别（销售/采购）
+     * @param receiptMainId Primary key id of the receipt
+     *                      单据主键id
+     * @param accountIds Account ids of the split payment
+     *                   多账户id集合
+     * @param amounts Amounts of the split payment
+     *                多账户金额集合
+     */
+    void saveAllocations(String receiptCategory, Long receiptMainId, List<Long> accountIds, List<Long> amounts);
+}
@@ -63,6 +63,19 @@ public interface ReceiptRetailService extends IService<ReceiptRetailMain> {
      */
     Response<String> addOrUpdateRetailShipments(RetailShipmentsDTO shipmentsDTO);
 
+    /**
+     * POS checkout of a new retail shipment order. All barcodes are validated with one query, the receipt,
+     * stock changes and account change are written in one transaction, and the system message and
+     * statistics refresh run after commit.
+     * POS 收银结账: 一次查询校验全部条码, 单据, 库存和账户在同一事务中批量写入, 消息和统计在提交后异步执行
+     *
+     * @param shipmentsDTO Retail shipment order data
+     *                     零售出库单数据
+     * @return Returns the result of the checkout
+     *         返回结账结果
+     */
+    Response<String> checkoutRetailShipments(RetailShipmentsDTO shipmentsDTO);
+
     /**
      * Batch delete retail shipment orders.
      * 批量删除零售出库单
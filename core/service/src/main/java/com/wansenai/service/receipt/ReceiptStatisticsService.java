@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.receipt;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.wansenai.entities.receipt.ReceiptStatisticsDaily;
+import com.wansenai.utils.response.Response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReceiptStatisticsService extends IService<ReceiptStatisticsDaily> {
+
+    /**
+     * Recalculate the daily statistics buckets touched by the given receipts. Inside a transaction
+     * the buckets are recalculated once it commits.
+     * 重新汇总指定单据所在日期的统计数据, 在事务中调用时于事务提交后执行
+     *
+     * @param receiptCategory Receipt category (retail/sales/purchase)
+     *                        单据类别（零售/销售/采购）
+     * @param receiptIds Collection of primary key ids of the receipts
+     *                   单据主键id集合
+     */
+    void refreshStatistics(String receiptCategory, List<Long> receiptIds);
+
+    /**
+     * Rebuild all daily statistics buckets of the current tenant from the receipt tables.
+     * 根据单据表重建当前租户的全部日统计数据
+     *
+     * @return Returns the result of the rebuild
+     *         返回重建结果
+     */
+    Response<String> rebuildStatistics();
+
+    /**
+     * Query the daily statistics buckets of the current tenant between two dates (inclusive).
+     * 查询当前租户在日期区间内（包含首尾）的日统计数据
+     *
+     * @param startDate Start date
+     *                  开始日期
+     * @param endDate End date
+     *                结束日期
+     * @return Returns the daily statistics buckets
+     *         返回日统计数据
+     */
+    List<ReceiptStatisticsDaily> getDailyStatistics(LocalDate startDate, LocalDate endDate);
+}
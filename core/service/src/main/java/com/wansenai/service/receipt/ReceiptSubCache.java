@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.receipt;
+
+import com.wansenai.entities.receipt.ReceiptPurchaseSub;
+import com.wansenai.entities.receipt.ReceiptRetailSub;
+import com.wansenai.entities.receipt.ReceiptSaleSub;
+import com.wansenai.service.common.BoundedCache;
+import com.wansenai.utils.redis.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 单据明细(子表)缓存, 零售/销售/采购共用同一套上限和有效期
+ * 新增修改, 状态变更和删除单据时按主表id失效, 事务提交后再次失效并通过redis频道通知其他实例
+ */
+@Slf4j
+@Component
+public class ReceiptSubCache implements MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "eairp:receipt-sub:invalidate";
+
+    private static final String RETAIL = "retail";
+
+    private static final String SALE = "sale";
+
+    private static final String PURCHASE = "purchase";
+
+    private static final int MAX_RECEIPTS = 5_000;
+
+    // 按明细行数计算权重
+    private static final long MAX_LINE_ITEMS = 100_000L;
+
+    private static final long TTL_MILLIS = 10 * 60 * 1000L;
+
+    private final RedisUtil redisUtil;
+
+    private final BoundedCache<Long, List<ReceiptRetailSub>> retailSubs = new BoundedCache<>(MAX_RECEIPTS, MAX_LINE_ITEMS, TTL_MILLIS, List::size);
+
+    private final BoundedCache<Long, List<ReceiptSaleSub>> saleSubs = new BoundedCache<>(MAX_RECEIPTS, MAX_LINE_ITEMS, TTL_MILLIS, List::size);
+
+    private final BoundedCache<Long, List<ReceiptPurchaseSub>> purchaseSubs = new BoundedCache<>(MAX_RECEIPTS, MAX_LINE_ITEMS, TTL_MILLIS, List::size);
+
+    public ReceiptSubCache(RedisUtil redisUtil, RedisMessageListenerContainer listenerContainer) {
+        this.redisUtil = redisUtil;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    public BoundedCache<Long, List<ReceiptRetailSub>> retail() {
+        return retailSubs;
+    }
+
+    public BoundedCache<Long, List<ReceiptSaleSub>> sale() {
+        return saleSubs;
+    }
+
+    public BoundedCache<Long, List<ReceiptPurchaseSub>> purchase() {
+        return purchaseSubs;
+    }
+
+    public void invalidateRetail(Collection<Long> receiptMainIds) {
+        invalidateAfterCommit(RETAIL, receiptMainIds);
+    }
+
+    public void invalidateSale(Collection<Long> receiptMainIds) {
+        invalidateAfterCommit(SALE, receiptMainIds);
+    }
+
+    public void invalidatePurchase(Collection<Long> receiptMainIds) {
+        invalidateAfterCommit(PURCHASE, receiptMainIds);
+    }
+
+    public Map<String, String> stats() {
+        var stats = new LinkedHashMap<String, String>();
+        stats.put(RETAIL, retailSubs.stats());
+        stats.put(SALE, saleSubs.stats());
+        stats.put(PURCHASE, purchaseSubs.stats());
+        return stats;
+    }
+
+    /**
+     * 其他实例的失效通知, 消息格式为 类别:主表id,主表id
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var value = redisUtil.deserializeValue(message.getBody());
+        if (value == null) {
+            return;
+        }
+        var text = value.toString();
+        var separator = text.indexOf(':');
+        var cache = separator > 0 ? cache(text.substring(0, separator)) : null;
+        if (cache == null) {
+            log.warn("忽略无效的单据明细失效消息: {}", text);
+            return;
+        }
+        try {
+            cache.invalidateAll(Arrays.stream(text.substring(separator + 1).split(","))
+                    .map(Long::valueOf)
+                    .toList());
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的单据明细失效消息: {}", text);
+        }
+    }
+
+    private BoundedCache<Long, ?> cache(String category) {
+        return switch (category) {
+            case RETAIL -> retailSubs;
+            case SALE -> saleSubs;
+            case PURCHASE -> purchaseSubs;
+            default -> null;
+        };
+    }
+
+    private void invalidateAfterCommit(String category, Collection<Long> receiptMainIds) {
+        if (receiptMainIds == null || receiptMainIds.isEmpty()) {
+            return;
+        }
+        var cache = cache(category);
+        var ids = List.copyOf(receiptMainIds);
+        var message = category + ":" + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(ids);
+                    publish(message);
+                }
+            });
+        } else {
+            publish(message);
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            redisUtil.convertAndSend(INVALIDATE_CHANNEL, message);
+        } catch (RuntimeException e) {
+            // 通知失败时其他实例最多在有效期后刷新
+            log.warn("单据明细失效通知发送失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.receipt.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.wansenai.entities.receipt.ReceiptAccountAllocation;
+import com.wansenai.mappers.receipt.ReceiptAccountAllocationMapper;
+import com.wansenai.service.receipt.ReceiptAccountAllocationService;
+import com.wansenai.utils.SnowflakeIdUtil;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class ReceiptAccountAllocationServiceImpl extends ServiceImpl<ReceiptAccountAllocationMapper, ReceiptAccountAllocation> implements ReceiptAccountAllocationService {
+
+    @Override
+    public void saveAllocations(String receiptCategory, Long receiptMainId, List<Long> accountIds, List<Long> amounts) {
+        Objects.requireNonNull(receiptMainId, "receiptMainId must not be null");
+
+        lambdaUpdate()
+                .eq(ReceiptAccountAllocation::getReceiptMainId, receiptMainId)
+                .remove();
+        if (accountIds == null || accountIds.isEmpty()) {
+            return;
+        }
+
+        var ids = SnowflakeIdUtil.nextIds(accountIds.size());
+        var tenantId = TenantContextHolder.getTenantId();
+        var now = LocalDateTime.now();
+        var allocationList = new ArrayList<ReceiptAccountAllocation>(accountIds.size());
+        for (int i = 0; i < accountIds.size(); i++) {
+            if (accountIds.get(i) == null) {
+                continue;
+            }
+            var amount = amounts != null && i < amounts.size() && amounts.get(i) != null ? BigDecimal.valueOf(amounts.get(i)) : BigDecimal.ZERO;
+            allocationList.add(ReceiptAccountAllocation.builder()
+                    .id(ids[i])
+                    .tenantId(tenantId)
+                    .receiptCategory(receiptCategory)
+                    .receiptMainId(receiptMainId)
+                    .accountId(accountIds.get(i))
+                    .amount(amount)
+                    .createTime(now)
+                    .build());
+        }
+        if (!allocationList.isEmpty()) {
+            baseMapper.insertBatch(allocationList);
+        }
+    }
+}
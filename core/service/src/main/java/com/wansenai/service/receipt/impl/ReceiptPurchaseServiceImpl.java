@@ -12,13 +12,12 @@
  */
 package com.wansenai.service.receipt.impl;
 
-import com.alibaba.fastjson.JSONObject;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.bo.FileDataBO;
 import com.wansenai.bo.purchase.*;
+import com.wansenai.bo.product.StockChangeBO;
 import com.wansenai.dto.receipt.purchase.*;
 import com.wansenai.dto.system.SystemMessageDTO;
 import com.wansenai.entities.financial.FinancialMain;
@@ -27,16 +26,20 @@ import com.wansenai.entities.product.ProductStock;
 import com.wansenai.entities.receipt.ReceiptPurchaseMain;
 import com.wansenai.entities.receipt.ReceiptPurchaseSub;
 import com.wansenai.entities.system.SysFile;
-import com.wansenai.entities.system.SysMsg;
 import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.service.product.ProductStockLedgerService;
 import com.wansenai.mappers.receipt.ReceiptPurchaseMainMapper;
 import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.service.common.CommonService;
 import com.wansenai.service.financial.FinancialSubService;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
 import com.wansenai.service.financial.IFinancialAccountService;
 import com.wansenai.service.financial.PaymentReceiptService;
 import com.wansenai.service.receipt.ReceiptPurchaseService;
 import com.wansenai.service.receipt.ReceiptPurchaseSubService;
+import com.wansenai.service.receipt.ReceiptStatisticsService;
+import com.wansenai.service.receipt.ReceiptAccountAllocationService;
+import com.wansenai.service.receipt.ReceiptSubCache;
 import com.wansenai.service.system.ISysMsgService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.MessageUtil;
@@ -74,13 +77,24 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
     private final ReceiptPurchaseMainMapper receiptPurchaseMainMapper;
     private final ReceiptPurchaseSubService receiptPurchaseSubService;
     private final ProductStockMapper productStockMapper;
+
+    private final ProductStockLedgerService productStockLedgerService;
+
+    private final ReceiptSubCache receiptSubCache;
+
+    private final FinancialAccountLedgerService accountLedgerService;
+
+    private final ReceiptAccountAllocationService receiptAccountAllocationService;
+
     private final IFinancialAccountService accountService;
     private final PaymentReceiptService paymentReceiptService;
     private final FinancialSubService financialSubService;
     private final ISysMsgService messageService;
     private final RedisUtil redisUtil;
 
-    public ReceiptPurchaseServiceImpl(SysFileMapper fileMapper , CommonService commonService, ISysUserService userService, ReceiptPurchaseMainMapper receiptPurchaseMainMapper, ReceiptPurchaseSubService receiptPurchaseSubService, ProductStockMapper productStockMapper, IFinancialAccountService accountService, PaymentReceiptService paymentReceiptService, FinancialSubService financialSubService, ISysMsgService messageService, RedisUtil redisUtil) {
+    private final ReceiptStatisticsService receiptStatisticsService;
+
+    public ReceiptPurchaseServiceImpl(SysFileMapper fileMapper , CommonService commonService, ISysUserService userService, ReceiptPurchaseMainMapper receiptPurchaseMainMapper, ReceiptPurchaseSubService receiptPurchaseSubService, ProductStockMapper productStockMapper, IFinancialAccountService accountService, PaymentReceiptService paymentReceiptService, FinancialSubService financialSubService, ISysMsgService messageService, RedisUtil redisUtil, ReceiptStatisticsService receiptStatisticsService, ProductStockLedgerService productStockLedgerService, ReceiptSubCache receiptSubCache, FinancialAccountLedgerService accountLedgerService, ReceiptAccountAllocationService receiptAccountAllocationService) {
         this.fileMapper = fileMapper;
         this.commonService = commonService;
         this.userService = userService;
@@ -92,11 +106,14 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         this.financialSubService = financialSubService;
         this.messageService = messageService;
         this.redisUtil = redisUtil;
+        this.receiptStatisticsService = receiptStatisticsService;
+        this.productStockLedgerService = productStockLedgerService;
+        this.receiptSubCache = receiptSubCache;
+        this.accountLedgerService = accountLedgerService;
+        this.receiptAccountAllocationService = receiptAccountAllocationService;
     }
-    private final Map<Long, List<ReceiptPurchaseSub>> receiptSubListCache = new ConcurrentHashMap<>();
-
     private List<ReceiptPurchaseSub> getReceiptSubList (Long receiptPurchaseMainId) {
-        return receiptSubListCache.computeIfAbsent(receiptPurchaseMainId, id ->
+        return receiptSubCache.purchase().get(receiptPurchaseMainId, id ->
                 receiptPurchaseSubService.lambdaQuery()
                         .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, id)
                         .list()
@@ -210,6 +227,8 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                 .in(ReceiptPurchaseSub::getReceiptPurchaseMainId, ids)
                 .set(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.DELETED)
                 .update();
+        receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, ids);
+        receiptSubCache.invalidatePurchase(ids);
 
         if (updateStatusResult &&updateSubResult) {
             return Response.responseMsg(successEnum);
@@ -233,6 +252,8 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                 .in(ReceiptPurchaseMain::getId, ids)
                 .set(ReceiptPurchaseMain::getStatus, status)
                 .update();
+        receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, ids);
+        receiptSubCache.invalidatePurchase(ids);
         if (updateResult) {
             return Response.responseMsg(successEnum);
         } else {
@@ -240,36 +261,31 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         }
     }
 
+    // 保存前校验每个条码在所选仓库都有库存行, 避免保存到一半才失败
+    private Response<String> checkStockRows(List<PurchaseDataBO> tableData, String systemLanguage) {
+        var missingStockBarCodes = productStockLedgerService.getMissingStockBarCodes(Optional.ofNullable(tableData).orElse(List.of()).stream()
+                .map(item -> StockChangeBO.builder().barCode(item.getBarCode()).warehouseId(item.getWarehouseId()).build())
+                .toList());
+        if (missingStockBarCodes.isEmpty()) {
+            return null;
+        }
+        if ("zh_CN".equals(systemLanguage)) {
+            return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "条码在所选仓库没有库存记录,请检查仓库是否正确: " + String.join(",", missingStockBarCodes));
+        }
+        return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "No stock found in the selected warehouse for barcode: " + String.join(",", missingStockBarCodes));
+    }
+
     private void updateProductStock(List<ReceiptPurchaseSub> receiptSubList, int stockType) {
-        var stockMap = new ConcurrentHashMap<Long, Integer>();
-
-        receiptSubList.forEach(item -> {
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
-            if (stock != null) {
-                var stockNumber = stock.getStock();
-                var productNumber = item.getProductNumber();
-                if (stockType == 1) {
-                    stockNumber += productNumber;
-                } else if (stockType == 2) {
-                    stockNumber -= productNumber;
-                }
-                stockMap.put(stock.getId(), stockNumber);
-            }
-        });
-        receiptSubList.forEach(item2 -> {
-            stockMap.forEach((key, value) -> {
-                var stock = ProductStock.builder()
-                        .productSkuId(key)
-                        .warehouseId(item2.getWarehouseId())
-                        .currentStockQuantity(BigDecimal.valueOf(value))
-                        .build();
-                var wrapper = new LambdaUpdateWrapper<ProductStock>()
-                        .eq(ProductStock::getProductSkuId, stock.getProductSkuId())
-                        .eq(ProductStock::getWarehouseId, stock.getWarehouseId())
-                        .set(ProductStock::getCurrentStockQuantity, BigDecimal.valueOf(value));
-                productStockMapper.update(stock, wrapper);
-            });
-        });
+        var changes = receiptSubList.stream()
+                .filter(item -> item.getProductNumber() != null)
+                .map(item -> StockChangeBO.builder()
+                        .barCode(item.getProductBarcode())
+                        .warehouseId(item.getWarehouseId())
+                        .quantity(stockType == 1 ? BigDecimal.valueOf(item.getProductNumber()) : BigDecimal.valueOf(item.getProductNumber()).negate())
+                        .receiptMainId(item.getReceiptPurchaseMainId())
+                        .build())
+                .toList();
+        productStockLedgerService.applyStockChanges(changes);
     }
 
     @Override
@@ -293,9 +309,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectPage(page, queryWrapper);
 
         queryResult.getRecords().forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -342,9 +356,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectList(queryWrapper);
 
         queryResult.forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -386,9 +398,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectList(queryWrapper);
 
         queryResult.forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -505,6 +515,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var fid = processFiles(purchaseOrderDTO.getFiles(), purchaseOrderDTO.getId());
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
         if (isUpdate) {
+            receiptSubCache.invalidatePurchase(List.of(purchaseOrderDTO.getId()));
             var updateMainResult = lambdaUpdate()
                     .eq(ReceiptPurchaseMain::getId, purchaseOrderDTO.getId())
                     .set(purchaseOrderDTO.getSupplierId() != null, ReceiptPurchaseMain::getSupplierId, purchaseOrderDTO.getSupplierId())
@@ -523,6 +534,8 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     .set(ReceiptPurchaseMain::getUpdateBy, userId)
                     .set(ReceiptPurchaseMain::getUpdateTime, LocalDateTime.now())
                     .update();
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, List.of(purchaseOrderDTO.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, purchaseOrderDTO.getId(), purchaseOrderDTO.getMultipleAccountIds(), purchaseOrderDTO.getMultipleAccountAmounts());
 
             receiptPurchaseSubService.lambdaUpdate()
                     .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseOrderDTO.getId())
@@ -586,6 +599,8 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     .createTime(LocalDateTime.now())
                     .build();
             var saveMainResult = save(receiptMain);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, List.of(receiptMain.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, receiptMain.getId(), purchaseOrderDTO.getMultipleAccountIds(), purchaseOrderDTO.getMultipleAccountAmounts());
 
             var receiptSubList = purchaseOrderDTO.getTableData();
             var receiptList = receiptSubList.stream()
@@ -691,7 +706,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     if (!dataList.isEmpty()) {
                         var deleteMessageIds = new ArrayList<Long>();
                         dataList.forEach(item -> {
-                            var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+                            var msg = messageService.toSysMsg(item);
                             if(Objects.nonNull(msg) && msg.getDescription().contains(receiptPurchaseMain.getReceiptNumber())) {
                                 redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + operatorId, 1, item);
                                 deleteMessageIds.add(msg.getId());
@@ -778,9 +793,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectPage(page, queryWrapper);
 
         queryResult.getRecords().forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -832,9 +845,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectList(queryWrapper);
 
         queryResult.forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -878,9 +889,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectList(queryWrapper);
 
         queryResult.forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -1000,6 +1009,10 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
     public Response<String> addOrUpdatePurchaseStorage(PurchaseStorageDTO purchaseStorageDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
+        var stockError = checkStockRows(purchaseStorageDTO.getTableData(), systemLanguage);
+        if (stockError != null) {
+            return stockError;
+        }
         var isUpdate = purchaseStorageDTO.getId() != null;
 
         var operatorIds = parseIdsToString(purchaseStorageDTO.getOperatorIds());
@@ -1011,6 +1024,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
 
         if (isUpdate) {
+            receiptSubCache.invalidatePurchase(List.of(purchaseStorageDTO.getId()));
             var beforeReceipt = receiptPurchaseSubService.lambdaQuery()
                     .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseStorageDTO.getId())
                     .list();
@@ -1039,6 +1053,8 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     .set(ReceiptPurchaseMain::getUpdateBy, userId)
                     .set(ReceiptPurchaseMain::getUpdateTime, LocalDateTime.now())
                     .update();
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, List.of(purchaseStorageDTO.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, purchaseStorageDTO.getId(), purchaseStorageDTO.getMultipleAccountIds(), purchaseStorageDTO.getMultipleAccountAmounts());
 
             receiptPurchaseSubService.lambdaUpdate()
                     .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseStorageDTO.getId())
@@ -1066,20 +1082,12 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
             var updateSubResult = receiptPurchaseSubService.saveBatch(receiptPurchaseStorageList);
             updateProductStock(receiptPurchaseStorageList, 1);
 
-            var account = accountService.getById(purchaseStorageDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var thisPaymentAmount = purchaseStorageDTO.getThisPaymentAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(ReceiptPurchaseSub::getTotalAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.add(beforeChangeAmount);
-                if (thisPaymentAmount != null) {
-                    accountBalance = accountBalance.subtract(thisPaymentAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(ReceiptPurchaseSub::getTotalAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(purchaseStorageDTO.getThisPaymentAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(purchaseStorageDTO.getAccountId(), beforeChangeAmount.subtract(changeAmount), purchaseStorageDTO.getId());
 
             if (updateMainResult && updateSubResult) {
                 if ("zh_CN".equals(systemLanguage)) {
@@ -1121,6 +1129,8 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     .createTime(LocalDateTime.now())
                     .build();
             var saveMainResult = save(receiptMain);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, List.of(receiptMain.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, receiptMain.getId(), purchaseStorageDTO.getMultipleAccountIds(), purchaseStorageDTO.getMultipleAccountAmounts());
 
             var receiptSubList = purchaseStorageDTO.getTableData();
             var receiptList = receiptSubList.stream()
@@ -1143,16 +1153,10 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
 
             var saveSubResult = receiptPurchaseSubService.saveBatch(receiptList);
             updateProductStock(receiptList, 1);
-            var account = accountService.getById(purchaseStorageDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = purchaseStorageDTO.getThisPaymentAmount();
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.subtract(changeAmount);
-                    account.setId(purchaseStorageDTO.getAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额
+            var changeAmount = purchaseStorageDTO.getThisPaymentAmount();
+            if (changeAmount != null) {
+                accountLedgerService.applyAccountChange(purchaseStorageDTO.getAccountId(), changeAmount.negate(), id);
             }
 
             // send System Message
@@ -1229,7 +1233,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     if (!dataList.isEmpty()) {
                         var deleteMessageIds = new ArrayList<Long>();
                         dataList.forEach(item -> {
-                            var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+                            var msg = messageService.toSysMsg(item);
                             if(Objects.nonNull(msg) && msg.getDescription().contains(receiptPurchaseMain.getReceiptNumber())) {
                                 redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + operatorId, 1, item);
                                 deleteMessageIds.add(msg.getId());
@@ -1316,9 +1320,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectPage(page, queryWrapper);
 
         queryResult.getRecords().forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -1369,9 +1371,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectList(queryWrapper);
 
         queryResult.forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -1417,9 +1417,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var queryResult = receiptPurchaseMainMapper.selectList(queryWrapper);
 
         queryResult.forEach(item -> {
-            var receiptSubList = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var supplierName = commonService.getSupplierName(item.getSupplierId());
             var crateBy = getUserName(item.getCreateBy());
@@ -1535,6 +1533,10 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
     public Response<String> addOrUpdatePurchaseRefund(PurchaseRefundDTO purchaseRefundDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
+        var stockError = checkStockRows(purchaseRefundDTO.getTableData(), systemLanguage);
+        if (stockError != null) {
+            return stockError;
+        }
         var isUpdate = purchaseRefundDTO.getId() != null;
 
         var operatorIds = parseIdsToString(purchaseRefundDTO.getOperatorIds());
@@ -1546,6 +1548,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
 
         if (isUpdate) {
+            receiptSubCache.invalidatePurchase(List.of(purchaseRefundDTO.getId()));
             var beforeReceipt = receiptPurchaseSubService.lambdaQuery()
                     .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseRefundDTO.getId())
                     .list();
@@ -1573,6 +1576,8 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     .set(ReceiptPurchaseMain::getUpdateBy, userId)
                     .set(ReceiptPurchaseMain::getUpdateTime, LocalDateTime.now())
                     .update();
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, List.of(purchaseRefundDTO.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, purchaseRefundDTO.getId(), purchaseRefundDTO.getMultipleAccountIds(), purchaseRefundDTO.getMultipleAccountAmounts());
 
             receiptPurchaseSubService.lambdaUpdate()
                     .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseRefundDTO.getId())
@@ -1600,20 +1605,12 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
             var updateSubResult = receiptPurchaseSubService.saveBatch(receiptPurchaseRefundList);
             updateProductStock(receiptPurchaseRefundList, 2);
 
-            var account = accountService.getById(purchaseRefundDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var thisRefundAmount = purchaseRefundDTO.getThisRefundAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(ReceiptPurchaseSub::getTotalAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.subtract(thisRefundAmount);
-                if (thisRefundAmount != null) {
-                    accountBalance = accountBalance.add(beforeChangeAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额，退货款收回账户
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(ReceiptPurchaseSub::getTotalAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(purchaseRefundDTO.getThisRefundAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(purchaseRefundDTO.getAccountId(), changeAmount.subtract(beforeChangeAmount), purchaseRefundDTO.getId());
 
 
             if (updateMainResult && updateSubResult) {
@@ -1656,6 +1653,8 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     .createTime(LocalDateTime.now())
                     .build();
             var saveMainResult = save(receiptMain);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, List.of(receiptMain.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_PURCHASE, receiptMain.getId(), purchaseRefundDTO.getMultipleAccountIds(), purchaseRefundDTO.getMultipleAccountAmounts());
 
             var receiptSubList = purchaseRefundDTO.getTableData();
             var receiptList = receiptSubList.stream()
@@ -1678,16 +1677,10 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
 
             var saveSubResult = receiptPurchaseSubService.saveBatch(receiptList);
             updateProductStock(receiptList, 2);
-            var account = accountService.getById(purchaseRefundDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var thisRefundAmount = purchaseRefundDTO.getThisRefundAmount();
-                if (thisRefundAmount != null) {
-                    accountBalance = accountBalance.add(thisRefundAmount);
-                    account.setId(purchaseRefundDTO.getAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额
+            var thisRefundAmount = purchaseRefundDTO.getThisRefundAmount();
+            if (thisRefundAmount != null) {
+                accountLedgerService.applyAccountChange(purchaseRefundDTO.getAccountId(), thisRefundAmount, id);
             }
 
             // send System Message
@@ -1764,7 +1757,7 @@ public class ReceiptPurchaseServiceImpl extends ServiceImpl<ReceiptPurchaseMainM
                     if (!dataList.isEmpty()) {
                         var deleteMessageIds = new ArrayList<Long>();
                         dataList.forEach(item -> {
-                            var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+                            var msg = messageService.toSysMsg(item);
                             if (Objects.nonNull(msg) && msg.getDescription().contains(receiptPurchaseMain.getReceiptNumber())) {
                                 redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + operatorId, 1, item);
                                 deleteMessageIds.add(msg.getId());
@@ -12,9 +12,7 @@
  */
 package com.wansenai.service.receipt.impl;
 
-import com.alibaba.fastjson.JSONObject;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.bo.*;
@@ -22,6 +20,7 @@ import com.wansenai.bo.retail.RetailReturnExportBO;
 import com.wansenai.bo.retail.RetailReturnExportEnBO;
 import com.wansenai.bo.retail.RetailShipmentsExportBO;
 import com.wansenai.bo.retail.RetailShipmentsExportEnBO;
+import com.wansenai.bo.product.StockChangeBO;
 import com.wansenai.dto.receipt.retail.QueryRetailRefundDTO;
 import com.wansenai.dto.receipt.retail.QueryShipmentsDTO;
 import com.wansenai.dto.receipt.retail.RetailRefundDTO;
@@ -33,16 +32,20 @@ import com.wansenai.entities.product.ProductStockKeepUnit;
 import com.wansenai.entities.receipt.ReceiptRetailMain;
 import com.wansenai.entities.receipt.ReceiptRetailSub;
 import com.wansenai.entities.system.SysFile;
-import com.wansenai.entities.system.SysMsg;
 import com.wansenai.mappers.product.ProductStockKeepUnitMapper;
 import com.wansenai.mappers.product.ProductStockMapper;
 import com.wansenai.mappers.receipt.ReceiptRetailMainMapper;
 import com.wansenai.mappers.system.SysFileMapper;
+import com.wansenai.service.common.AfterCommitExecutor;
 import com.wansenai.service.common.CommonService;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
 import com.wansenai.service.financial.IFinancialAccountService;
+import com.wansenai.service.product.ProductStockLedgerService;
 import com.wansenai.service.product.ProductService;
 import com.wansenai.service.receipt.ReceiptRetailService;
 import com.wansenai.service.receipt.ReceiptRetailSubService;
+import com.wansenai.service.receipt.ReceiptStatisticsService;
+import com.wansenai.service.receipt.ReceiptSubCache;
 import com.wansenai.service.system.ISysMsgService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.MessageUtil;
@@ -62,6 +65,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
@@ -87,6 +91,14 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
 
     private final ProductStockMapper productStockMapper;
 
+    private final ProductStockLedgerService productStockLedgerService;
+
+    private final ReceiptSubCache receiptSubCache;
+
+    private final FinancialAccountLedgerService accountLedgerService;
+
+    private final AfterCommitExecutor afterCommitExecutor;
+
     private final ProductStockKeepUnitMapper productStockKeepUnitMapper;
 
     private final ProductService productService;
@@ -97,7 +109,9 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
 
     private final RedisUtil redisUtil;
 
-    public ReceiptRetailServiceImpl(ReceiptRetailMainMapper receiptRetailMainMapper, ReceiptRetailSubService receiptRetailSubService, IFinancialAccountService accountService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper, ProductStockKeepUnitMapper productStockKeepUnitMapper, ProductService productService, CommonService commonService, ISysMsgService messageService, RedisUtil redisUtil) {
+    private final ReceiptStatisticsService receiptStatisticsService;
+
+    public ReceiptRetailServiceImpl(ReceiptRetailMainMapper receiptRetailMainMapper, ReceiptRetailSubService receiptRetailSubService, IFinancialAccountService accountService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper, ProductStockKeepUnitMapper productStockKeepUnitMapper, ProductService productService, CommonService commonService, ISysMsgService messageService, RedisUtil redisUtil, ReceiptStatisticsService receiptStatisticsService, ProductStockLedgerService productStockLedgerService, ReceiptSubCache receiptSubCache, FinancialAccountLedgerService accountLedgerService, AfterCommitExecutor afterCommitExecutor) {
         this.receiptRetailMainMapper = receiptRetailMainMapper;
         this.receiptRetailSubService = receiptRetailSubService;
         this.accountService = accountService;
@@ -109,6 +123,11 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
         this.commonService = commonService;
         this.messageService = messageService;
         this.redisUtil = redisUtil;
+        this.receiptStatisticsService = receiptStatisticsService;
+        this.productStockLedgerService = productStockLedgerService;
+        this.receiptSubCache = receiptSubCache;
+        this.accountLedgerService = accountLedgerService;
+        this.afterCommitExecutor = afterCommitExecutor;
     }
 
     private String getAccountName(Long accountId) {
@@ -128,10 +147,8 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                 .sum();
     }
 
-    private final Map<Long, List<ReceiptRetailSub>> receiptSubListCache = new ConcurrentHashMap<>();
-
     private List<ReceiptRetailSub> getReceiptRetailList(Long receiptRetailMainId) {
-        return receiptSubListCache.computeIfAbsent(receiptRetailMainId, id ->
+        return receiptSubCache.retail().get(receiptRetailMainId, id ->
                 receiptRetailSubService.lambdaQuery()
                         .eq(ReceiptRetailSub::getReceiptMainId, id)
                         .list()
@@ -151,6 +168,8 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                 .in(ReceiptRetailSub::getReceiptMainId, ids)
                 .set(ReceiptRetailSub::getDeleteFlag, CommonConstants.DELETED)
                 .update();
+        receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, ids);
+        receiptSubCache.invalidateRetail(ids);
 
         if (updateStatusResult &&updateSubResult) {
             return Response.responseMsg(successEnum);
@@ -167,6 +186,8 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                 .in(ReceiptRetailMain::getId, ids)
                 .set(ReceiptRetailMain::getStatus, status)
                 .update();
+        receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, ids);
+        receiptSubCache.invalidateRetail(ids);
         if (updateResult) {
             return Response.responseMsg(successEnum);
         } else {
@@ -175,35 +196,16 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
     }
 
     private void updateProductStock(List<ReceiptRetailSub> receiptSubList, int stockType) {
-        var stockMap = new ConcurrentHashMap<Long, Integer>();
-
-        receiptSubList.forEach(item -> {
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
-            if (stock != null) {
-                var stockNumber = stock.getStock();
-                var productNumber = item.getProductNumber();
-                if (stockType == 1) {
-                    stockNumber += productNumber;
-                } else if (stockType == 2) {
-                    stockNumber -= productNumber;
-                }
-                stockMap.put(stock.getId(), stockNumber);
-            }
-        });
-        receiptSubList.forEach(item2 -> {
-            stockMap.forEach((key, value) -> {
-                var stock = ProductStock.builder()
-                        .productSkuId(key)
-                        .warehouseId(item2.getWarehouseId())
-                        .currentStockQuantity(BigDecimal.valueOf(value))
-                        .build();
-                var wrapper = new LambdaUpdateWrapper<ProductStock>()
-                        .eq(ProductStock::getProductSkuId, stock.getProductSkuId())
-                        .eq(ProductStock::getWarehouseId, stock.getWarehouseId())
-                        .set(ProductStock::getCurrentStockQuantity, BigDecimal.valueOf(value));
-                productStockMapper.update(stock, wrapper);
-            });
-        });
+        var changes = receiptSubList.stream()
+                .filter(item -> item.getProductNumber() != null)
+                .map(item -> StockChangeBO.builder()
+                        .barCode(item.getProductBarcode())
+                        .warehouseId(item.getWarehouseId())
+                        .quantity(stockType == 1 ? BigDecimal.valueOf(item.getProductNumber()) : BigDecimal.valueOf(item.getProductNumber()).negate())
+                        .receiptMainId(item.getReceiptMainId())
+                        .build())
+                .toList();
+        productStockLedgerService.applyStockChanges(changes);
     }
 
     private ShipmentsDataBO createShipmentsDataFromReceiptSub(ReceiptRetailSub item) {
@@ -232,6 +234,28 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
         return shipmentBo;
     }
 
+    private SystemMessageDTO createShipmentsMessage(Long userId, String systemLanguage, String receiptNumber) {
+        var title = "";
+        var message = "";
+        var description = "";
+        if ("zh_CN".equals(systemLanguage)) {
+            title = MessageUtil.RetailShipmentsZhCnSubject();
+            message = MessageUtil.RetailShipmentsZhCnTemplate(receiptNumber);
+            description = MessageUtil.RetailShipmentsZhCnDescription(receiptNumber);
+        } else if ("en_US".equals(systemLanguage)) {
+            title = MessageUtil.RetailShipmentsEnUsSubject();
+            message = MessageUtil.RetailShipmentsEnUsTemplate(receiptNumber);
+            description = MessageUtil.RetailShipmentsEnUsDescription(receiptNumber);
+        }
+        return SystemMessageDTO.builder()
+                .userId(userId)
+                .type("todo")
+                .msgTitle(title)
+                .msgContent(message)
+                .description(description)
+                .build();
+    }
+
     private ArrayList<Long> processFiles(List<FileDataBO> files, Long retailId) {
         var userId = userService.getCurrentUserId();
         var fid = new ArrayList<Long>();
@@ -284,9 +308,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
         var queryResult = receiptRetailMainMapper.selectPage(page, queryWrapper);
 
         queryResult.getRecords().forEach(item -> {
-            var receiptSubList = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptRetailList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
 
             var memberName = commonService.getMemberName(item.getMemberId());
@@ -335,9 +357,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
 
         var result = new ArrayList<RetailShipmentsVO>(query.size() + 2);
         for (ReceiptRetailMain receiptRetailMain : query) {
-            var receiptSubList = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, receiptRetailMain.getId())
-                    .list();
+            var receiptSubList = getReceiptRetailList(receiptRetailMain.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var memberName = commonService.getMemberName(receiptRetailMain.getMemberId());
             var crateBy = getUserName(receiptRetailMain.getCreateBy());
@@ -377,9 +397,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
 
         var result = new ArrayList<RetailShipmentsExportBO>(query.size() + 2);
         for (ReceiptRetailMain receiptRetailMain : query) {
-            var receiptSubList = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, receiptRetailMain.getId())
-                    .list();
+            var receiptSubList = getReceiptRetailList(receiptRetailMain.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var memberName = commonService.getMemberName(receiptRetailMain.getMemberId());
             var crateBy = getUserName(receiptRetailMain.getCreateBy());
@@ -419,9 +437,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
 
         var result = new ArrayList<RetailShipmentsExportEnBO>(query.size() + 2);
         for (ReceiptRetailMain receiptRetailMain : query) {
-            var receiptSubList = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, receiptRetailMain.getId())
-                    .list();
+            var receiptSubList = getReceiptRetailList(receiptRetailMain.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var memberName = commonService.getMemberName(receiptRetailMain.getMemberId());
             var crateBy = getUserName(receiptRetailMain.getCreateBy());
@@ -454,6 +470,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
 
         if (isUpdate) {
+            receiptSubCache.invalidateRetail(List.of(shipmentsDTO.getId()));
             var beforeReceipt = receiptRetailSubService.lambdaQuery()
                     .eq(ReceiptRetailSub::getReceiptMainId, shipmentsDTO.getId())
                     .list();
@@ -481,7 +498,6 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                             .build())
                     .collect(Collectors.toList());
             var updateSubResult = receiptRetailSubService.saveBatch(receiptList);
-            updateProductStock(receiptList, 2);
 
             var updateMainResult = lambdaUpdate()
                     .eq(ReceiptRetailMain::getId, shipmentsDTO.getId())
@@ -498,23 +514,18 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                     .set(ReceiptRetailMain::getUpdateBy, userId)
                     .set(ReceiptRetailMain::getUpdateTime, LocalDateTime.now())
                     .update();
+            // 主表保存后再记库存, 流水取修改后的单据日期
+            updateProductStock(receiptList, 2);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(shipmentsDTO.getId()));
 
             // 更新余额 如果之前已经修改过那么就需要减去之前的金额 再加上现在的金额 如果之前没有修改过那么就直接加上现在的金额
 
-            var account = accountService.getById(shipmentsDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = shipmentsDTO.getCollectAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(ReceiptRetailSub::getTotalAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.subtract(beforeChangeAmount);
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.add(changeAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(ReceiptRetailSub::getTotalAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(shipmentsDTO.getCollectAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(shipmentsDTO.getAccountId(), changeAmount.subtract(beforeChangeAmount), shipmentsDTO.getId());
             var systemLanguage = userService.getUserSystemLanguage(userId);
 
             if (updateMainResult && updateSubResult) {
@@ -558,6 +569,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                     .build();
 
             var saveMainResult = save(receiptMain);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(receiptMain.getId()));
 
             var receiptSubList = shipmentsDTO.getTableData();
             var receiptList = receiptSubList.stream()
@@ -577,40 +589,14 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
             var saveSubResult = receiptRetailSubService.saveBatch(receiptList);
             updateProductStock(receiptList, 2);
 
-            var account = accountService.getById(shipmentsDTO.getAccountId());
-            if (account != null) {
-                // 更新余额
-                var accountBalance = Optional.ofNullable(account.getCurrentAmount()).orElse(BigDecimal.ZERO);
-                var changeAmount = shipmentsDTO.getReceiptAmount();
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.add(changeAmount);
-                    account.setId(shipmentsDTO.getAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额
+            var changeAmount = shipmentsDTO.getReceiptAmount();
+            if (changeAmount != null) {
+                accountLedgerService.applyAccountChange(shipmentsDTO.getAccountId(), changeAmount, id);
             }
             // send System Message
             var systemLanguage = userService.getUserSystemLanguage(userId);
-            var title = "";
-            var message = "";
-            var description = "";
-            if ("zh_CN".equals(systemLanguage)) {
-                title = MessageUtil.RetailShipmentsZhCnSubject();
-                message = MessageUtil.RetailShipmentsZhCnTemplate(receiptMain.getReceiptNumber());
-                description = MessageUtil.RetailShipmentsZhCnDescription(receiptMain.getReceiptNumber());
-            } else if ("en_US".equals(systemLanguage)) {
-                title = MessageUtil.RetailShipmentsEnUsSubject();
-                message = MessageUtil.RetailShipmentsEnUsTemplate(receiptMain.getReceiptNumber());
-                description = MessageUtil.RetailShipmentsEnUsDescription(receiptMain.getReceiptNumber());
-            }
-            var messageDTO = SystemMessageDTO.builder()
-                    .userId(userId)
-                    .type("todo")
-                    .msgTitle(title)
-                    .msgContent(message)
-                    .description(description)
-                    .build();
-            messageService.insertMessage(messageDTO);
+            messageService.insertMessage(createShipmentsMessage(userId, systemLanguage, receiptMain.getReceiptNumber()));
 
             if (saveMainResult && saveSubResult) {
                 if ("zh_CN".equals(systemLanguage)) {
@@ -626,6 +612,125 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
         }
     }
 
+    @Override
+    @Transactional
+    public Response<String> checkoutRetailShipments(RetailShipmentsDTO shipmentsDTO) {
+        var userId = userService.getCurrentUserId();
+        var systemLanguage = userService.getUserSystemLanguage(userId);
+        var tableData = Optional.ofNullable(shipmentsDTO.getTableData()).orElse(List.of());
+        if (tableData.isEmpty()) {
+            return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY);
+        }
+
+        // 一次查询校验全部条码
+        var barCodes = tableData.stream()
+                .map(ShipmentsDataBO::getBarCode)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+        var productIdMap = barCodes.isEmpty() ? Map.<String, Long>of() : productStockKeepUnitMapper.selectList(new LambdaQueryWrapper<ProductStockKeepUnit>()
+                        .select(ProductStockKeepUnit::getProductBarCode, ProductStockKeepUnit::getProductId)
+                        .in(ProductStockKeepUnit::getProductBarCode, barCodes)
+                        .eq(ProductStockKeepUnit::getDeleteFlag, CommonConstants.NOT_DELETED))
+                .stream()
+                .collect(Collectors.toMap(ProductStockKeepUnit::getProductBarCode, ProductStockKeepUnit::getProductId, (first, second) -> first));
+        var unknownBarCodes = tableData.stream()
+                .map(ShipmentsDataBO::getBarCode)
+                .filter(barCode -> barCode == null || !productIdMap.containsKey(barCode))
+                .map(String::valueOf)
+                .distinct()
+                .toList();
+        if (!unknownBarCodes.isEmpty()) {
+            if ("zh_CN".equals(systemLanguage)) {
+                return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "条码没有找到对应的商品,请检查条码是否正确: " + String.join(",", unknownBarCodes));
+            }
+            return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "No product found for barcode: " + String.join(",", unknownBarCodes));
+        }
+
+        // 每个条码在所选仓库都要有库存行, 一次查询校验
+        var stockKeys = tableData.stream()
+                .map(item -> StockChangeBO.builder().barCode(item.getBarCode()).warehouseId(item.getWarehouseId()).build())
+                .distinct()
+                .toList();
+        var stockRows = productStockMapper.getStockByBarCodes(stockKeys).stream()
+                .map(stock -> stock.getBarCode() + "|" + stock.getWarehouseId())
+                .collect(Collectors.toSet());
+        var missingStockBarCodes = stockKeys.stream()
+                .filter(key -> key.getWarehouseId() == null || !stockRows.contains(key.getBarCode() + "|" + key.getWarehouseId()))
+                .map(StockChangeBO::getBarCode)
+                .distinct()
+                .toList();
+        if (!missingStockBarCodes.isEmpty()) {
+            if ("zh_CN".equals(systemLanguage)) {
+                return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "条码在所选仓库没有库存记录,请检查仓库是否正确: " + String.join(",", missingStockBarCodes));
+            }
+            return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "No stock found in the selected warehouse for barcode: " + String.join(",", missingStockBarCodes));
+        }
+
+        var now = LocalDateTime.now();
+        var id = SnowflakeIdUtil.nextId();
+        var fid = CollectionUtils.isEmpty(shipmentsDTO.getFiles()) ? List.<Long>of() : processFiles(shipmentsDTO.getFiles(), id);
+        var receiptMain = ReceiptRetailMain.builder()
+                .id(id)
+                .type(ReceiptConstants.RECEIPT_TYPE_SHIPMENT)
+                .subType(ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS)
+                .initReceiptNumber(shipmentsDTO.getReceiptNumber())
+                .receiptNumber(shipmentsDTO.getReceiptNumber())
+                .receiptDate(now)
+                .memberId(shipmentsDTO.getMemberId())
+                .accountId(shipmentsDTO.getAccountId())
+                .paymentType(shipmentsDTO.getPaymentType())
+                .changeAmount(shipmentsDTO.getCollectAmount())
+                .totalAmount(shipmentsDTO.getReceiptAmount())
+                .backAmount(shipmentsDTO.getBackAmount())
+                .remark(shipmentsDTO.getRemark())
+                .fileId(StringUtils.collectionToCommaDelimitedString(fid))
+                .status(shipmentsDTO.getStatus())
+                .createBy(userId)
+                .createTime(now)
+                .build();
+        var receiptList = tableData.stream()
+                .map(item -> ReceiptRetailSub.builder()
+                        .receiptMainId(id)
+                        .productId(productIdMap.get(item.getBarCode()))
+                        .productNumber(item.getProductNumber())
+                        .unitPrice(item.getUnitPrice())
+                        .totalAmount(item.getAmount())
+                        .productBarcode(item.getBarCode())
+                        .warehouseId(item.getWarehouseId())
+                        .createBy(userId)
+                        .createTime(now)
+                        .build())
+                .collect(Collectors.toList());
+
+        // 单据, 库存和账户在同一事务中各一次批量写入
+        var saveMainResult = save(receiptMain);
+        var saveSubResult = receiptRetailSubService.saveBatch(receiptList);
+        updateProductStock(receiptList, 2);
+        if (shipmentsDTO.getReceiptAmount() != null) {
+            accountLedgerService.applyAccountChange(shipmentsDTO.getAccountId(), shipmentsDTO.getReceiptAmount(), id);
+        }
+
+        // 统计和消息不在收银的关键路径上, 提交后执行
+        var messageDTO = createShipmentsMessage(userId, systemLanguage, receiptMain.getReceiptNumber());
+        afterCommitExecutor.execute(() -> {
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(id));
+            messageService.insertMessage(messageDTO);
+        });
+
+        if (saveMainResult && saveSubResult) {
+            if ("zh_CN".equals(systemLanguage)) {
+                return Response.responseMsg(RetailCodeEnum.ADD_RETAIL_SHIPMENTS_SUCCESS);
+            }
+            return Response.responseMsg(RetailCodeEnum.ADD_RETAIL_SHIPMENTS_SUCCESS_EN);
+        } else {
+            if ("zh_CN".equals(systemLanguage)) {
+                return Response.responseMsg(RetailCodeEnum.ADD_RETAIL_SHIPMENTS_ERROR);
+            }
+            return Response.responseMsg(RetailCodeEnum.ADD_RETAIL_SHIPMENTS_ERROR_EN);
+        }
+    }
+
     @Override
     public Response<String> deleteRetailShipments(List<Long> ids) {
         var systemLanguage = userService.getUserSystemLanguage(userService.getCurrentUserId());
@@ -707,7 +812,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                 if (!dataList.isEmpty()) {
                     var deleteMessageIds = new ArrayList<Long>();
                     dataList.forEach(item -> {
-                        var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+                        var msg = messageService.toSysMsg(item);
                         if(Objects.nonNull(msg) && msg.getDescription().contains(receiptRetailMain.getReceiptNumber())) {
                             redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + userId, 1, item);
                             deleteMessageIds.add(msg.getId());
@@ -795,9 +900,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
         var queryResult = receiptRetailMainMapper.selectPage(page, queryWrapper);
 
         queryResult.getRecords().forEach(item -> {
-            var receiptSubList = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptRetailList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var memberName = commonService.getMemberName(item.getMemberId());
             var crateBy = getUserName(item.getCreateBy());
@@ -842,9 +945,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                 .list();
 
         retailRefundList.forEach(item -> {
-            var receiptSubList = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptRetailList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var memberName = commonService.getMemberName(item.getMemberId());
             var crateBy = getUserName(item.getCreateBy());
@@ -885,9 +986,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                 .list();
 
         retailRefundList.forEach(item -> {
-            var receiptSubList = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptRetailList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var memberName = commonService.getMemberName(item.getMemberId());
             var crateBy = getUserName(item.getCreateBy());
@@ -921,6 +1020,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
 
         if (isUpdate) {
+            receiptSubCache.invalidateRetail(List.of(refundDTO.getId()));
             var beforeReceipt = receiptRetailSubService.lambdaQuery()
                     .eq(ReceiptRetailSub::getReceiptMainId, refundDTO.getId())
                     .list();
@@ -942,6 +1042,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                     .set(ReceiptRetailMain::getUpdateBy, userId)
                     .set(ReceiptRetailMain::getUpdateTime, LocalDateTime.now())
                     .update();
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(refundDTO.getId()));
 
             receiptRetailSubService.lambdaUpdate()
                     .eq(ReceiptRetailSub::getReceiptMainId, refundDTO.getId())
@@ -967,20 +1068,12 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
             updateProductStock(receiptList, 1);
 
             // 更新余额 如果之前已经修改过那么就需要加上之前的金额 然后再减去现在的金额 如果之前没有修改过那么就直接加上现在的金额 因为这个是退货 所以是负数
-            var account = accountService.getById(refundDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = refundDTO.getReceiptAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(ReceiptRetailSub::getTotalAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.add(beforeChangeAmount);
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.subtract(changeAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(ReceiptRetailSub::getTotalAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(refundDTO.getReceiptAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(refundDTO.getAccountId(), beforeChangeAmount.subtract(changeAmount), refundDTO.getId());
 
             var systemLanguage = userService.getUserSystemLanguage(userId);
             if (updateMainResult && updateSubResult) {
@@ -1024,6 +1117,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                     .build();
 
             var saveMainResult = save(receiptMain);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_RETAIL, List.of(receiptMain.getId()));
 
             var receiptSubList = refundDTO.getTableData();
             var receiptList = receiptSubList.stream()
@@ -1043,17 +1137,10 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
             var saveSubResult = receiptRetailSubService.saveBatch(receiptList);
             updateProductStock(receiptList, 1);
 
-            var account = accountService.getById(refundDTO.getAccountId());
-            if (account != null) {
-                // 更新余额
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = refundDTO.getReceiptAmount();
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.subtract(changeAmount);
-                    account.setId(refundDTO.getAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额
+            var changeAmount = refundDTO.getReceiptAmount();
+            if (changeAmount != null) {
+                accountLedgerService.applyAccountChange(refundDTO.getAccountId(), changeAmount.negate(), id);
             }
             // send System Message
             var systemLanguage = userService.getUserSystemLanguage(userId);
@@ -1216,7 +1303,7 @@ public class ReceiptRetailServiceImpl extends ServiceImpl<ReceiptRetailMainMappe
                 if (!dataList.isEmpty()) {
                     var deleteMessageIds = new ArrayList<Long>();
                     dataList.forEach(item -> {
-                        var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+                        var msg = messageService.toSysMsg(item);
                         if(Objects.nonNull(msg) && msg.getDescription().contains(receiptRetailMain.getReceiptNumber())) {
                             redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + userId, 1, item);
                             deleteMessageIds.add(msg.getId());
@@ -12,13 +12,12 @@
  */
 package com.wansenai.service.receipt.impl;
 
-import com.alibaba.fastjson.JSONObject;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.bo.*;
 import com.wansenai.bo.sale.*;
+import com.wansenai.bo.product.StockChangeBO;
 import com.wansenai.dto.receipt.sale.*;
 import com.wansenai.dto.system.SystemMessageDTO;
 import com.wansenai.entities.financial.FinancialMain;
@@ -27,17 +26,21 @@ import com.wansenai.entities.product.ProductStock;
 import com.wansenai.entities.receipt.ReceiptSaleMain;
 import com.wansenai.entities.receipt.ReceiptSaleSub;
 import com.wansenai.entities.system.SysFile;
-import com.wansenai.entities.system.SysMsg;
 import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.service.product.ProductStockLedgerService;
 import com.wansenai.mappers.receipt.ReceiptSaleMainMapper;
 import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.service.basic.CustomerService;
 import com.wansenai.service.common.CommonService;
 import com.wansenai.service.financial.CollectionReceiptService;
 import com.wansenai.service.financial.FinancialSubService;
+import com.wansenai.service.financial.FinancialAccountLedgerService;
 import com.wansenai.service.financial.IFinancialAccountService;
 import com.wansenai.service.receipt.ReceiptSaleService;
 import com.wansenai.service.receipt.ReceiptSaleSubService;
+import com.wansenai.service.receipt.ReceiptStatisticsService;
+import com.wansenai.service.receipt.ReceiptAccountAllocationService;
+import com.wansenai.service.receipt.ReceiptSubCache;
 import com.wansenai.service.system.ISysMsgService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.MessageUtil;
@@ -76,13 +79,24 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
     private final SysFileMapper fileMapper;
     private final CommonService commonService;
     private final ProductStockMapper productStockMapper;
+
+    private final ProductStockLedgerService productStockLedgerService;
+
+    private final ReceiptSubCache receiptSubCache;
+
+    private final FinancialAccountLedgerService accountLedgerService;
+
+    private final ReceiptAccountAllocationService receiptAccountAllocationService;
+
     private final IFinancialAccountService accountService;
     private final CollectionReceiptService collectionReceiptService;
     private final FinancialSubService financialSubService;
     private final ISysMsgService messageService;
     private final RedisUtil redisUtil;
 
-    public ReceiptSaleServiceImpl(ReceiptSaleMainMapper receiptSaleMainMapper, CustomerService customerService, ISysUserService userService, ReceiptSaleSubService receiptSaleSubService, SysFileMapper fileMapper, CommonService commonService, ProductStockMapper productStockMapper, IFinancialAccountService accountService, CollectionReceiptService collectionReceiptService, FinancialSubService financialSubService, ISysMsgService messageService, RedisUtil redisUtil) {
+    private final ReceiptStatisticsService receiptStatisticsService;
+
+    public ReceiptSaleServiceImpl(ReceiptSaleMainMapper receiptSaleMainMapper, CustomerService customerService, ISysUserService userService, ReceiptSaleSubService receiptSaleSubService, SysFileMapper fileMapper, CommonService commonService, ProductStockMapper productStockMapper, IFinancialAccountService accountService, CollectionReceiptService collectionReceiptService, FinancialSubService financialSubService, ISysMsgService messageService, RedisUtil redisUtil, ReceiptStatisticsService receiptStatisticsService, ProductStockLedgerService productStockLedgerService, ReceiptSubCache receiptSubCache, FinancialAccountLedgerService accountLedgerService, ReceiptAccountAllocationService receiptAccountAllocationService) {
         this.receiptSaleMainMapper = receiptSaleMainMapper;
         this.customerService = customerService;
         this.userService = userService;
@@ -95,12 +109,15 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         this.financialSubService = financialSubService;
         this.messageService = messageService;
         this.redisUtil = redisUtil;
+        this.receiptStatisticsService = receiptStatisticsService;
+        this.productStockLedgerService = productStockLedgerService;
+        this.receiptSubCache = receiptSubCache;
+        this.accountLedgerService = accountLedgerService;
+        this.receiptAccountAllocationService = receiptAccountAllocationService;
     }
 
-    private final Map<Long, List<ReceiptSaleSub>> receiptSubListCache = new ConcurrentHashMap<>();
-
     private List<ReceiptSaleSub> getReceiptSubList(Long receiptSaleMainId) {
-        return receiptSubListCache.computeIfAbsent(receiptSaleMainId, id ->
+        return receiptSubCache.sale().get(receiptSaleMainId, id ->
                 receiptSaleSubService.lambdaQuery()
                         .eq(ReceiptSaleSub::getReceiptSaleMainId, id)
                         .list()
@@ -233,6 +250,8 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                 .in(ReceiptSaleSub::getReceiptSaleMainId, ids)
                 .set(ReceiptSaleSub::getDeleteFlag, CommonConstants.DELETED)
                 .update();
+        receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_SALES, ids);
+        receiptSubCache.invalidateSale(ids);
 
         if (updateStatusResult && updateSubResult) {
             return Response.responseMsg(successEnum);
@@ -249,6 +268,8 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                 .in(ReceiptSaleMain::getId, ids)
                 .set(ReceiptSaleMain::getStatus, status)
                 .update();
+        receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_SALES, ids);
+        receiptSubCache.invalidateSale(ids);
         if (updateResult) {
             return Response.responseMsg(successEnum);
         } else {
@@ -256,36 +277,31 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         }
     }
 
+    // 保存前校验每个条码在所选仓库都有库存行, 避免保存到一半才失败
+    private Response<String> checkStockRows(List<SalesDataBO> tableData, String systemLanguage) {
+        var missingStockBarCodes = productStockLedgerService.getMissingStockBarCodes(Optional.ofNullable(tableData).orElse(List.of()).stream()
+                .map(item -> StockChangeBO.builder().barCode(item.getBarCode()).warehouseId(item.getWarehouseId()).build())
+                .toList());
+        if (missingStockBarCodes.isEmpty()) {
+            return null;
+        }
+        if ("zh_CN".equals(systemLanguage)) {
+            return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "条码在所选仓库没有库存记录,请检查仓库是否正确: " + String.join(",", missingStockBarCodes));
+        }
+        return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "No stock found in the selected warehouse for barcode: " + String.join(",", missingStockBarCodes));
+    }
+
     private void updateProductStock(List<ReceiptSaleSub> receiptSaleSubList, int stockType) {
-        var stockMap = new ConcurrentHashMap<Long, Integer>();
-
-        receiptSaleSubList.forEach(item -> {
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
-            if (stock != null) {
-                var stockNumber = stock.getStock();
-                var productNumber = item.getProductNumber();
-                if (stockType == 1) {
-                    stockNumber += productNumber;
-                } else if (stockType == 2) {
-                    stockNumber -= productNumber;
-                }
-                stockMap.put(stock.getId(), stockNumber);
-            }
-        });
-        receiptSaleSubList.forEach(item2 -> {
-            stockMap.forEach((key, value) -> {
-                var stock = ProductStock.builder()
-                        .productSkuId(key)
-                        .warehouseId(item2.getWarehouseId())
-                        .currentStockQuantity(BigDecimal.valueOf(value))
-                        .build();
-                var wrapper = new LambdaUpdateWrapper<ProductStock>()
-                        .eq(ProductStock::getProductSkuId, stock.getProductSkuId())
-                        .eq(ProductStock::getWarehouseId, stock.getWarehouseId())
-                        .set(ProductStock::getCurrentStockQuantity, BigDecimal.valueOf(value));
-                productStockMapper.update(stock, wrapper);
-            });
-        });
+        var changes = receiptSaleSubList.stream()
+                .filter(item -> item.getProductNumber() != null)
+                .map(item -> StockChangeBO.builder()
+                        .barCode(item.getProductBarcode())
+                        .warehouseId(item.getWarehouseId())
+                        .quantity(stockType == 1 ? BigDecimal.valueOf(item.getProductNumber()) : BigDecimal.valueOf(item.getProductNumber()).negate())
+                        .receiptMainId(item.getReceiptSaleMainId())
+                        .build())
+                .toList();
+        productStockLedgerService.applyStockChanges(changes);
     }
 
 
@@ -310,9 +326,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         var queryResult = receiptSaleMainMapper.selectPage(page, queryWrapper);
 
         queryResult.getRecords().forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
 
             var customerName = getCustomerName(item.getCustomerId());
@@ -361,9 +375,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                 .list();
 
         saleMains.forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
 
             var customerName = getCustomerName(item.getCustomerId());
@@ -406,9 +418,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                 .list();
 
         saleMains.forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
 
             var customerName = getCustomerName(item.getCustomerId());
@@ -524,6 +534,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
 
         if (isUpdate) {
+            receiptSubCache.invalidateSale(List.of(saleOrderDTO.getId()));
             var updateMainResult = lambdaUpdate()
                     .eq(ReceiptSaleMain::getId, saleOrderDTO.getId())
                     .set(saleOrderDTO.getCustomerId() != null, ReceiptSaleMain::getCustomerId, saleOrderDTO.getCustomerId())
@@ -542,6 +553,8 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     .set(ReceiptSaleMain::getUpdateBy, userId)
                     .set(ReceiptSaleMain::getUpdateTime, LocalDateTime.now())
                     .update();
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_SALES, List.of(saleOrderDTO.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_SALES, saleOrderDTO.getId(), saleOrderDTO.getMultipleAccountIds(), saleOrderDTO.getMultipleAccountAmounts());
 
             receiptSaleSubService.lambdaUpdate()
                     .eq(ReceiptSaleSub::getReceiptSaleMainId, saleOrderDTO.getId())
@@ -605,6 +618,8 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     .createTime(LocalDateTime.now())
                     .build();
             var saveMainResult = save(receiptMain);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_SALES, List.of(receiptMain.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_SALES, receiptMain.getId(), saleOrderDTO.getMultipleAccountIds(), saleOrderDTO.getMultipleAccountAmounts());
 
             var receiptSubList = saleOrderDTO.getTableData();
             var receiptList = receiptSubList.stream()
@@ -701,7 +716,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     if (!dataList.isEmpty()) {
                         var deleteMessageIds = new ArrayList<Long>();
                         dataList.forEach(item -> {
-                            var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+                            var msg = messageService.toSysMsg(item);
                             if (Objects.nonNull(msg) && msg.getDescription().contains(receiptSaleMain.getReceiptNumber())) {
                                 redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + operatorId, 1, item);
                                 deleteMessageIds.add(msg.getId());
@@ -789,9 +804,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         var queryResult = receiptSaleMainMapper.selectPage(page, queryWrapper);
 
         queryResult.getRecords().forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var customerName = getCustomerName(item.getCustomerId());
             var crateBy = getUserName(item.getCreateBy());
@@ -825,98 +838,6 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         return Response.responseData(result);
     }
 
-    private List<SaleShipmentsExportBO> getSaleShipmentsList(QuerySaleShipmentsDTO shipmentsDTO) {
-        var saleShipmentsExportBOList = new ArrayList<SaleShipmentsExportBO>();
-        var saleMains = lambdaQuery()
-                .eq(ReceiptSaleMain::getType, ReceiptConstants.RECEIPT_TYPE_SHIPMENT)
-                .in(ReceiptSaleMain::getSubType, ReceiptConstants.RECEIPT_SUB_TYPE_SALES_SHIPMENTS)
-                .eq(StringUtils.hasText(shipmentsDTO.getReceiptNumber()), ReceiptSaleMain::getReceiptNumber, shipmentsDTO.getReceiptNumber())
-                .like(StringUtils.hasText(shipmentsDTO.getRemark()), ReceiptSaleMain::getRemark, shipmentsDTO.getRemark())
-                .eq(shipmentsDTO.getCustomerId() != null, ReceiptSaleMain::getCustomerId, shipmentsDTO.getCustomerId())
-                .eq(shipmentsDTO.getOperatorId() != null, ReceiptSaleMain::getCreateBy, shipmentsDTO.getOperatorId())
-                .eq(shipmentsDTO.getStatus() != null, ReceiptSaleMain::getStatus, shipmentsDTO.getStatus())
-                .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .ge(StringUtils.hasText(shipmentsDTO.getStartDate()), ReceiptSaleMain::getCreateTime, shipmentsDTO.getStartDate())
-                .le(StringUtils.hasText(shipmentsDTO.getEndDate()), ReceiptSaleMain::getCreateTime, shipmentsDTO.getEndDate())
-                .list();
-
-        saleMains.forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
-            var productNumber = calculateProductNumber(receiptSubList);
-            var customerName = getCustomerName(item.getCustomerId());
-            var crateBy = getUserName(item.getCreateBy());
-            var totalAmount = calculateTotalAmount(receiptSubList, ReceiptSaleSub::getTotalAmount);
-            var taxRateTotalPrice = calculateTotalAmount(receiptSubList, ReceiptSaleSub::getTaxIncludedAmount);
-            var totalCollectAmount = item.getArrearsAmount().add(item.getChangeAmount());
-
-            var shipmentsExportBO = SaleShipmentsExportBO.builder()
-                    .id(item.getId())
-                    .customerName(customerName)
-                    .receiptNumber(item.getReceiptNumber())
-                    .receiptDate(item.getReceiptDate())
-                    .productInfo(item.getRemark())
-                    .operator(crateBy)
-                    .productNumber(productNumber)
-                    .totalAmount(totalAmount)
-                    .taxIncludedAmount(taxRateTotalPrice)
-                    .totalCollectAmount(totalCollectAmount)
-                    .thisCollectAmount(item.getChangeAmount())
-                    .thisArrearsAmount(item.getArrearsAmount())
-                    .status(item.getStatus())
-                    .build();
-            saleShipmentsExportBOList.add(shipmentsExportBO);
-        });
-        return saleShipmentsExportBOList;
-    }
-
-    private List<SaleShipmentsExportEnBO> getSaleShipmentsEnList(QuerySaleShipmentsDTO shipmentsDTO) {
-        var saleShipmentsExportBOEnList = new ArrayList<SaleShipmentsExportEnBO>();
-        var saleMains = lambdaQuery()
-                .eq(ReceiptSaleMain::getType, ReceiptConstants.RECEIPT_TYPE_SHIPMENT)
-                .in(ReceiptSaleMain::getSubType, ReceiptConstants.RECEIPT_SUB_TYPE_SALES_SHIPMENTS)
-                .eq(StringUtils.hasText(shipmentsDTO.getReceiptNumber()), ReceiptSaleMain::getReceiptNumber, shipmentsDTO.getReceiptNumber())
-                .like(StringUtils.hasText(shipmentsDTO.getRemark()), ReceiptSaleMain::getRemark, shipmentsDTO.getRemark())
-                .eq(shipmentsDTO.getCustomerId() != null, ReceiptSaleMain::getCustomerId, shipmentsDTO.getCustomerId())
-                .eq(shipmentsDTO.getOperatorId() != null, ReceiptSaleMain::getCreateBy, shipmentsDTO.getOperatorId())
-                .eq(shipmentsDTO.getStatus() != null, ReceiptSaleMain::getStatus, shipmentsDTO.getStatus())
-                .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .ge(StringUtils.hasText(shipmentsDTO.getStartDate()), ReceiptSaleMain::getCreateTime, shipmentsDTO.getStartDate())
-                .le(StringUtils.hasText(shipmentsDTO.getEndDate()), ReceiptSaleMain::getCreateTime, shipmentsDTO.getEndDate())
-                .list();
-
-        saleMains.forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
-            var productNumber = calculateProductNumber(receiptSubList);
-            var customerName = getCustomerName(item.getCustomerId());
-            var crateBy = getUserName(item.getCreateBy());
-            var totalAmount = calculateTotalAmount(receiptSubList, ReceiptSaleSub::getTotalAmount);
-            var taxRateTotalPrice = calculateTotalAmount(receiptSubList, ReceiptSaleSub::getTaxIncludedAmount);
-            var totalCollectAmount = item.getArrearsAmount().add(item.getChangeAmount());
-
-            var shipmentsExportEnBO = SaleShipmentsExportEnBO.builder()
-                    .id(item.getId())
-                    .customerName(customerName)
-                    .receiptNumber(item.getReceiptNumber())
-                    .receiptDate(item.getReceiptDate())
-                    .productInfo(item.getRemark())
-                    .operator(crateBy)
-                    .productNumber(productNumber)
-                    .totalAmount(totalAmount)
-                    .taxIncludedAmount(taxRateTotalPrice)
-                    .totalCollectAmount(totalCollectAmount)
-                    .thisCollectAmount(item.getChangeAmount())
-                    .thisArrearsAmount(item.getArrearsAmount())
-                    .status(item.getStatus())
-                    .build();
-            saleShipmentsExportBOEnList.add(shipmentsExportEnBO);
-        });
-        return saleShipmentsExportBOEnList;
-    }
-
     @Override
     public Response<SaleShipmentsDetailVO> getSaleShipmentsDetail(Long id) {
         if (id == null) {
@@ -1000,6 +921,10 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
     public Response<String> addOrUpdateSaleShipments(SaleShipmentsDTO shipmentsDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
+        var stockError = checkStockRows(shipmentsDTO.getTableData(), systemLanguage);
+        if (stockError != null) {
+            return stockError;
+        }
         var isUpdate = shipmentsDTO.getId() != null;
 
         var operatorIds = parseIdsToString(shipmentsDTO.getOperatorIds());
@@ -1011,6 +936,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
 
         if (isUpdate) {
+            receiptSubCache.invalidateSale(List.of(shipmentsDTO.getId()));
             var beforeReceipt = receiptSaleSubService.lambdaQuery()
                     .eq(ReceiptSaleSub::getReceiptSaleMainId, shipmentsDTO.getId())
                     .list();
@@ -1038,6 +964,8 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     .set(ReceiptSaleMain::getUpdateBy, userId)
                     .set(ReceiptSaleMain::getUpdateTime, LocalDateTime.now())
                     .update();
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_SALES, List.of(shipmentsDTO.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_SALES, shipmentsDTO.getId(), shipmentsDTO.getMultipleAccountIds(), shipmentsDTO.getMultipleAccountAmounts());
 
             receiptSaleSubService.lambdaUpdate()
                     .eq(ReceiptSaleSub::getReceiptSaleMainId, shipmentsDTO.getId())
@@ -1065,20 +993,12 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
             var updateSubResult = receiptSaleSubService.saveBatch(receiptSaleList);
             updateProductStock(receiptSaleList, 2);
 
-            var account = accountService.getById(shipmentsDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var thisCollectAmount = shipmentsDTO.getThisCollectAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(ReceiptSaleSub::getTotalAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.subtract(beforeChangeAmount);
-                if (thisCollectAmount != null) {
-                    accountBalance = accountBalance.add(thisCollectAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(ReceiptSaleSub::getTotalAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(shipmentsDTO.getThisCollectAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(shipmentsDTO.getAccountId(), changeAmount.subtract(beforeChangeAmount), shipmentsDTO.getId());
             if (updateMainResult && updateSubResult) {
                 if ("zh_CN".equals(systemLanguage)) {
                     return Response.responseMsg(SaleCodeEnum.UPDATE_SALE_SHIPMENTS_SUCCESS);
@@ -1119,6 +1039,8 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     .createTime(LocalDateTime.now())
                     .build();
             var saveMainResult = save(receiptSaleShipmentMain);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_SALES, List.of(receiptSaleShipmentMain.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_SALES, receiptSaleShipmentMain.getId(), shipmentsDTO.getMultipleAccountIds(), shipmentsDTO.getMultipleAccountAmounts());
 
             var receiptSubList = shipmentsDTO.getTableData();
             var receiptList = receiptSubList.stream()
@@ -1141,16 +1063,10 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
             var saveSubResult = receiptSaleSubService.saveBatch(receiptList);
             updateProductStock(receiptList, 2);
 
-            var account = accountService.getById(shipmentsDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var changeAmount = shipmentsDTO.getThisCollectAmount();
-                if (changeAmount != null) {
-                    accountBalance = accountBalance.add(changeAmount);
-                    account.setId(shipmentsDTO.getAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额
+            var changeAmount = shipmentsDTO.getThisCollectAmount();
+            if (changeAmount != null) {
+                accountLedgerService.applyAccountChange(shipmentsDTO.getAccountId(), changeAmount, id);
             }
 
             // send System Message
@@ -1218,7 +1134,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     if (!dataList.isEmpty()) {
                         var deleteMessageIds = new ArrayList<Long>();
                         dataList.forEach(item -> {
-                            var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+                            var msg = messageService.toSysMsg(item);
                             if (Objects.nonNull(msg) && msg.getDescription().contains(receiptSaleMain.getReceiptNumber())) {
                                 redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + operatorId, 1, item);
                                 deleteMessageIds.add(msg.getId());
@@ -1315,9 +1231,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         var queryResult = receiptSaleMainMapper.selectPage(page, queryWrapper);
 
         queryResult.getRecords().forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var customerName = getCustomerName(item.getCustomerId());
             var crateBy = getUserName(item.getCreateBy());
@@ -1367,9 +1281,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                 .list();
 
         saleMains.forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var customerName = getCustomerName(item.getCustomerId());
             var crateBy = getUserName(item.getCreateBy());
@@ -1414,9 +1326,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                 .list();
 
         saleMains.forEach(item -> {
-            var receiptSubList = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list();
+            var receiptSubList = getReceiptSubList(item.getId());
             var productNumber = calculateProductNumber(receiptSubList);
             var customerName = getCustomerName(item.getCustomerId());
             var crateBy = getUserName(item.getCreateBy());
@@ -1527,6 +1437,10 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
     public Response<String> addOrUpdateSaleRefund(SaleRefundDTO refundDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
+        var stockError = checkStockRows(refundDTO.getTableData(), systemLanguage);
+        if (stockError != null) {
+            return stockError;
+        }
         var isUpdate = refundDTO.getId() != null;
 
         var operatorIds = parseIdsToString(refundDTO.getOperatorIds());
@@ -1538,6 +1452,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
 
         if (isUpdate) {
+            receiptSubCache.invalidateSale(List.of(refundDTO.getId()));
             var beforeReceipt = receiptSaleSubService.lambdaQuery()
                     .eq(ReceiptSaleSub::getReceiptSaleMainId, refundDTO.getId())
                     .list();
@@ -1565,6 +1480,8 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     .set(ReceiptSaleMain::getUpdateBy, userId)
                     .set(ReceiptSaleMain::getUpdateTime, LocalDateTime.now())
                     .update();
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_SALES, List.of(refundDTO.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_SALES, refundDTO.getId(), refundDTO.getMultipleAccountIds(), refundDTO.getMultipleAccountAmounts());
 
             receiptSaleSubService.lambdaUpdate()
                     .eq(ReceiptSaleSub::getReceiptSaleMainId, refundDTO.getId())
@@ -1592,20 +1509,12 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
             var updateSubResult = receiptSaleSubService.saveBatch(receiptSaleList);
             updateProductStock(receiptSaleList, 1);
 
-            var account = accountService.getById(refundDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var thisRefundAmount = refundDTO.getThisRefundAmount();
-                var beforeChangeAmount = beforeReceipt.stream()
-                        .map(ReceiptSaleSub::getTotalAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                accountBalance = accountBalance.add(beforeChangeAmount);
-                if (thisRefundAmount != null) {
-                    accountBalance = accountBalance.subtract(thisRefundAmount);
-                }
-                account.setCurrentAmount(accountBalance);
-                accountService.updateById(account);
-            }
+            // 相对增减账户余额，先冲回修改前的金额
+            var beforeChangeAmount = beforeReceipt.stream()
+                    .map(ReceiptSaleSub::getTotalAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            var changeAmount = Optional.ofNullable(refundDTO.getThisRefundAmount()).orElse(BigDecimal.ZERO);
+            accountLedgerService.applyAccountChange(refundDTO.getAccountId(), beforeChangeAmount.subtract(changeAmount), refundDTO.getId());
 
             if (updateMainResult && updateSubResult) {
                 if ("zh_CN".equals(systemLanguage)) {
@@ -1647,6 +1556,8 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     .createTime(LocalDateTime.now())
                     .build();
             var saveMainResult = save(receiptSaleShipmentMain);
+            receiptStatisticsService.refreshStatistics(ReceiptConstants.RECEIPT_CATEGORY_SALES, List.of(receiptSaleShipmentMain.getId()));
+            receiptAccountAllocationService.saveAllocations(ReceiptConstants.RECEIPT_CATEGORY_SALES, receiptSaleShipmentMain.getId(), refundDTO.getMultipleAccountIds(), refundDTO.getMultipleAccountAmounts());
 
             var receiptSubList = refundDTO.getTableData();
             var receiptList = receiptSubList.stream()
@@ -1668,16 +1579,10 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
 
             var saveSubResult = receiptSaleSubService.saveBatch(receiptList);
             updateProductStock(receiptList, 1);
-            var account = accountService.getById(refundDTO.getAccountId());
-            if (account != null) {
-                var accountBalance = account.getCurrentAmount();
-                var thisRefundAmount = refundDTO.getThisRefundAmount();
-                if (thisRefundAmount != null) {
-                    accountBalance = accountBalance.subtract(thisRefundAmount);
-                    account.setId(refundDTO.getAccountId());
-                    account.setCurrentAmount(accountBalance);
-                    accountService.updateById(account);
-                }
+            // 更新余额
+            var thisRefundAmount = refundDTO.getThisRefundAmount();
+            if (thisRefundAmount != null) {
+                accountLedgerService.applyAccountChange(refundDTO.getAccountId(), thisRefundAmount.negate(), id);
             }
 
             // send System Message
@@ -1754,7 +1659,7 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
                     if (!dataList.isEmpty()) {
                         var deleteMessageIds = new ArrayList<Long>();
                         dataList.forEach(item -> {
-                            var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+                            var msg = messageService.toSysMsg(item);
                             if (Objects.nonNull(msg) && msg.getDescription().contains(receiptSaleMain.getReceiptNumber())) {
                                 redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + operatorId, 1, item);
                                 deleteMessageIds.add(msg.getId());
@@ -1999,79 +1904,26 @@ public class ReceiptSaleServiceImpl extends ServiceImpl<ReceiptSaleMainMapper, R
     @Override
     public void exportSaleShipmentsExcel(QuerySaleShipmentsDTO querySaleShipmentsDTO, HttpServletResponse response) {
         var systemLanguage = userService.getUserSystemLanguage(userService.getCurrentUserId());
-        var exportMap = new ConcurrentHashMap<String, List<List<Object>>>();
+        var exportDetail = Boolean.TRUE.equals(querySaleShipmentsDTO.getIsExportDetail());
+        // 单据和明细各一次流式查询, 依次写入两个 Sheet 页
         if ("zh_CN".equals(systemLanguage)) {
-            var mainData = getSaleShipmentsList(querySaleShipmentsDTO);
-            if (!mainData.isEmpty()) {
-                exportMap.put("销售出库", ExcelUtils.getSheetData(mainData));
-                if (querySaleShipmentsDTO.getIsExportDetail()) {
-                    var subData = new ArrayList<SalesDataExportBO>();
-                    for (SaleShipmentsExportBO shipmentsExportBO : mainData) {
-                        var detail = getSaleShipmentsDetail(shipmentsExportBO.getId()).getData().getTableData();
-                        detail.forEach(item -> {
-                            var saleDataBo = SalesDataExportBO.builder()
-                                    .customerName(shipmentsExportBO.getCustomerName())
-                                    .receiptNumber(shipmentsExportBO.getReceiptNumber())
-                                    .warehouseName(item.getWarehouseName())
-                                    .barCode(item.getBarCode())
-                                    .productName(item.getProductName())
-                                    .productStandard(item.getProductStandard())
-                                    .productModel(item.getProductModel())
-                                    .productColor(item.getProductColor())
-                                    .productNumber(item.getProductNumber())
-                                    .stock(item.getStock())
-                                    .productUnit(item.getProductUnit())
-                                    .unitPrice(item.getUnitPrice())
-                                    .amount(item.getAmount())
-                                    .taxRate(item.getTaxRate())
-                                    .taxAmount(item.getTaxAmount())
-                                    .taxTotalPrice(item.getTaxTotalPrice())
-                                    .remark(item.getRemark())
-                                    .build();
-
-                            subData.add(saleDataBo);
-                        });
-                    }
-                    exportMap.put("销售出库明细", ExcelUtils.getSheetData(subData));
+            ExcelUtils.exportStream(response, "销售出库", writer -> {
+                var mainSheet = writer.createSheet("销售出库", SaleShipmentsExportBO.class);
+                receiptSaleMainMapper.streamShipmentsExport(querySaleShipmentsDTO, context -> mainSheet.write(context.getResultObject()));
+                if (exportDetail) {
+                    var subSheet = writer.createSheet("销售出库明细", SalesDataExportBO.class);
+                    receiptSaleMainMapper.streamShipmentsDetailExport(querySaleShipmentsDTO, context -> subSheet.write(context.getResultObject()));
                 }
-                ExcelUtils.exportManySheet(response, "销售出库", exportMap);
-            }
+            });
         } else {
-            var mainEnData = getSaleShipmentsEnList(querySaleShipmentsDTO);
-            if (!mainEnData.isEmpty()) {
-                exportMap.put("Sales outbound", ExcelUtils.getSheetData(mainEnData));
-                if (querySaleShipmentsDTO.getIsExportDetail()) {
-                    var subEnData = new ArrayList<SalesDataExportEnBO>();
-                    for (SaleShipmentsExportEnBO shipmentsExportEnBO : mainEnData) {
-                        var detail = getSaleShipmentsDetail(shipmentsExportEnBO.getId()).getData().getTableData();
-                        detail.forEach(item -> {
-                            var saleDataBo = SalesDataExportEnBO.builder()
-                                    .customerName(shipmentsExportEnBO.getCustomerName())
-                                    .receiptNumber(shipmentsExportEnBO.getReceiptNumber())
-                                    .warehouseName(item.getWarehouseName())
-                                    .barCode(item.getBarCode())
-                                    .productName(item.getProductName())
-                                    .productStandard(item.getProductStandard())
-                                    .productModel(item.getProductModel())
-                                    .productColor(item.getProductColor())
-                                    .productNumber(item.getProductNumber())
-                                    .stock(item.getStock())
-                                    .productUnit(item.getProductUnit())
-                                    .unitPrice(item.getUnitPrice())
-                                    .amount(item.getAmount())
-                                    .taxRate(item.getTaxRate())
-                                    .taxAmount(item.getTaxAmount())
-                                    .taxTotalPrice(item.getTaxTotalPrice())
-                                    .remark(item.getRemark())
-                                    .build();
-
-                            subEnData.add(saleDataBo);
-                        });
-                    }
-                    exportMap.put("Sales Outbound Details", ExcelUtils.getSheetData(subEnData));
+            ExcelUtils.exportStream(response, "Sales Outbound", writer -> {
+                var mainSheet = writer.createSheet("Sales outbound", SaleShipmentsExportEnBO.class);
+                receiptSaleMainMapper.streamShipmentsEnExport(querySaleShipmentsDTO, context -> mainSheet.write(context.getResultObject()));
+                if (exportDetail) {
+                    var subSheet = writer.createSheet("Sales Outbound Details", SalesDataExportEnBO.class);
+                    receiptSaleMainMapper.streamShipmentsDetailEnExport(querySaleShipmentsDTO, context -> subSheet.write(context.getResultObject()));
                 }
-                ExcelUtils.exportManySheet(response, "Sales Outbound", exportMap);
-            }
+            });
         }
     }
 
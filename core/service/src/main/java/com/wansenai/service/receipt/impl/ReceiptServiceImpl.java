@@ -16,6 +16,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.wansenai.bo.XyAxisDataBO;
+import com.wansenai.bo.financial.AccountChangeBO;
 import com.wansenai.dto.receipt.QueryReceiptDTO;
 import com.wansenai.dto.report.*;
 import com.wansenai.entities.basic.Customer;
@@ -26,16 +27,18 @@ import com.wansenai.entities.financial.FinancialMain;
 import com.wansenai.entities.financial.FinancialSub;
 import com.wansenai.entities.product.Product;
 import com.wansenai.entities.receipt.*;
-import com.wansenai.entities.user.SysUser;
 import com.wansenai.mappers.financial.FinancialMainMapper;
 import com.wansenai.mappers.financial.FinancialSubMapper;
 import com.wansenai.mappers.product.ProductStockMapper;
+import com.wansenai.mappers.receipt.ReceiptReportMapper;
 import com.wansenai.service.basic.CustomerService;
 import com.wansenai.service.basic.MemberService;
 import com.wansenai.service.basic.SupplierService;
 import com.wansenai.service.common.CommonService;
+import com.wansenai.service.common.DimensionResolver;
 import com.wansenai.service.financial.IFinancialAccountService;
 import com.wansenai.service.product.ProductService;
+import com.wansenai.service.product.ProductStockSnapshotService;
 import com.wansenai.service.receipt.*;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.utils.constants.CommonConstants;
@@ -56,12 +59,12 @@ import org.springframework.util.StringUtils;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -99,7 +102,13 @@ public class ReceiptServiceImpl implements ReceiptService {
 
     private final FinancialSubMapper financialSubMapper;
 
-    public ReceiptServiceImpl(ReceiptRetailService receiptRetailService, ReceiptRetailSubService receiptRetailSubService, ReceiptSaleService receiptSaleService, ReceiptSaleSubService receiptSaleSubService, ReceiptPurchaseService receiptPurchaseService, ReceiptPurchaseSubService receiptPurchaseSubService, MemberService memberService, CustomerService customerService, SupplierService supplierService, ISysUserService userService, ProductService productService, ProductStockMapper productStockMapper, IFinancialAccountService accountService, CommonService commonService, FinancialMainMapper financialMainMapper, FinancialSubMapper financialSubMapper) {
+    private final ReceiptStatisticsService receiptStatisticsService;
+
+    private final ReceiptReportMapper receiptReportMapper;
+
+    private final ProductStockSnapshotService productStockSnapshotService;
+
+    public ReceiptServiceImpl(ReceiptRetailService receiptRetailService, ReceiptRetailSubService receiptRetailSubService, ReceiptSaleService receiptSaleService, ReceiptSaleSubService receiptSaleSubService, ReceiptPurchaseService receiptPurchaseService, ReceiptPurchaseSubService receiptPurchaseSubService, MemberService memberService, CustomerService customerService, SupplierService supplierService, ISysUserService userService, ProductService productService, ProductStockMapper productStockMapper, IFinancialAccountService accountService, CommonService commonService, FinancialMainMapper financialMainMapper, FinancialSubMapper financialSubMapper, ReceiptStatisticsService receiptStatisticsService, ReceiptReportMapper receiptReportMapper, ProductStockSnapshotService productStockSnapshotService) {
         this.receiptRetailService = receiptRetailService;
         this.receiptRetailSubService = receiptRetailSubService;
         this.receiptSaleService = receiptSaleService;
@@ -116,227 +125,82 @@ public class ReceiptServiceImpl implements ReceiptService {
         this.commonService = commonService;
         this.financialMainMapper = financialMainMapper;
         this.financialSubMapper = financialSubMapper;
+        this.receiptStatisticsService = receiptStatisticsService;
+        this.receiptReportMapper = receiptReportMapper;
+        this.productStockSnapshotService = productStockSnapshotService;
     }
 
     @Override
     public Response<StatisticalDataVO> getStatisticalData() {
-        var now = LocalDateTime.now();
-
-        var retailData = receiptRetailService.lambdaQuery()
-                .eq(ReceiptRetailMain::getType, ReceiptConstants.RECEIPT_TYPE_SHIPMENT)
-                .in(ReceiptRetailMain::getSubType, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS)
-                .eq(ReceiptRetailMain::getDeleteFlag, 0)
-                .list();
-        var retailRefundData = receiptRetailService.lambdaQuery()
-                .eq(ReceiptRetailMain::getType, ReceiptConstants.RECEIPT_TYPE_STORAGE)
-                .eq(ReceiptRetailMain::getSubType, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_REFUND)
-                .eq(ReceiptRetailMain::getDeleteFlag, 0)
-                .list();
-
-        var salesData = receiptSaleService.lambdaQuery()
-                .eq(ReceiptSaleMain::getType, ReceiptConstants.RECEIPT_TYPE_SHIPMENT)
-                .in(ReceiptSaleMain::getSubType, ReceiptConstants.RECEIPT_SUB_TYPE_SALES_SHIPMENTS)
-                .eq(ReceiptSaleMain::getDeleteFlag, 0)
-                .list();
-        var salesRefundData = receiptSaleService.lambdaQuery()
-                .eq(ReceiptSaleMain::getType, ReceiptConstants.RECEIPT_TYPE_STORAGE)
-                .eq(ReceiptSaleMain::getSubType, ReceiptConstants.RECEIPT_SUB_TYPE_SALES_REFUND)
-                .eq(ReceiptSaleMain::getDeleteFlag, 0)
-                .list();
-
-        var purchaseData = receiptPurchaseService.lambdaQuery()
-                .eq(ReceiptPurchaseMain::getType, ReceiptConstants.RECEIPT_TYPE_STORAGE)
-                .eq(ReceiptPurchaseMain::getSubType, ReceiptConstants.RECEIPT_SUB_TYPE_PURCHASE_STORAGE)
-                .eq(ReceiptPurchaseMain::getDeleteFlag, 0)
-                .list();
-        var purchaseRefundData = receiptPurchaseService.lambdaQuery()
-                .eq(ReceiptPurchaseMain::getType, ReceiptConstants.RECEIPT_TYPE_SHIPMENT)
-                .eq(ReceiptPurchaseMain::getSubType, ReceiptConstants.RECEIPT_SUB_TYPE_PURCHASE_REFUND)
-                .eq(ReceiptPurchaseMain::getDeleteFlag, 0)
-                .list();
-
-        var todayRetailSales = calculateRetailTotalPrice(retailData, retailRefundData, now.with(LocalTime.MIN), now.with(LocalTime.MAX));
-        var yesterdayRetailSales = calculateRetailTotalPrice(retailData, retailRefundData, now.minusDays(1).with(LocalTime.MIN), now.minusDays(1).with(LocalTime.MAX));
-        var monthRetailSales = calculateRetailTotalPrice(retailData, retailRefundData, now.withDayOfMonth(1).with(LocalTime.MIN), now.with(LocalTime.MAX));
-        var yearRetailSales = calculateRetailTotalPrice(retailData, retailRefundData, now.withDayOfYear(1).with(LocalTime.MIN), now.with(LocalTime.MAX));
-
-        var todaySales = calculateSaleTotalPrice(salesData, salesRefundData, now.with(LocalTime.MIN), now.with(LocalTime.MAX));
-        var yesterdaySales = calculateSaleTotalPrice(salesData, salesRefundData, now.minusDays(1).with(LocalTime.MIN), now.minusDays(1).with(LocalTime.MAX));
-        var monthSales = calculateSaleTotalPrice(salesData, salesRefundData, now.withDayOfMonth(1).with(LocalTime.MIN), now.with(LocalTime.MAX));
-        var yearSales = calculateSaleTotalPrice(salesData, salesRefundData, now.withDayOfYear(1).with(LocalTime.MIN), now.with(LocalTime.MAX));
-
-        var todayPurchase = calculatePurchaseTotalPrice(purchaseData, purchaseRefundData, now.with(LocalTime.MIN), now.with(LocalTime.MAX));
-        var yesterdayPurchase = calculatePurchaseTotalPrice(purchaseData, purchaseRefundData, now.minusDays(1).with(LocalTime.MIN), now.minusDays(1).with(LocalTime.MAX));
-        var monthPurchase = calculatePurchaseTotalPrice(purchaseData, purchaseRefundData, now.withDayOfMonth(1).with(LocalTime.MIN), now.with(LocalTime.MAX));
-        var yearPurchase = calculatePurchaseTotalPrice(purchaseData, purchaseRefundData, now.withDayOfYear(1).with(LocalTime.MIN), now.with(LocalTime.MAX));
-
-        var assembleAxisRetailData = calculateRetailAxisData(retailData, retailRefundData);
-        var assembleAxisSaleData = calculateSaleAxisData(salesData, salesRefundData);
-        var assembleAxisPurchaseData = calculatePurchaseAxisData(purchaseData, purchaseRefundData);
+        var today = LocalDate.now();
+        var yesterday = today.minusDays(1);
+        var monthStart = today.withDayOfMonth(1);
+        var yearStart = today.withDayOfYear(1);
+        var axisStart = monthStart.minusMonths(5);
+
+        // 首页统计读取按天预汇总的数据, 数据量只与天数相关
+        var statisticsList = receiptStatisticsService.getDailyStatistics(axisStart.isBefore(yearStart) ? axisStart : yearStart, today);
+
+        var retailData = groupStatisticsByDate(statisticsList, ReceiptConstants.RECEIPT_CATEGORY_RETAIL,
+                ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_SHIPMENTS, ReceiptConstants.RECEIPT_SUB_TYPE_RETAIL_REFUND);
+        var salesData = groupStatisticsByDate(statisticsList, ReceiptConstants.RECEIPT_CATEGORY_SALES,
+                ReceiptConstants.RECEIPT_SUB_TYPE_SALES_SHIPMENTS, ReceiptConstants.RECEIPT_SUB_TYPE_SALES_REFUND);
+        var purchaseData = groupStatisticsByDate(statisticsList, ReceiptConstants.RECEIPT_CATEGORY_PURCHASE,
+                ReceiptConstants.RECEIPT_SUB_TYPE_PURCHASE_STORAGE, ReceiptConstants.RECEIPT_SUB_TYPE_PURCHASE_REFUND);
 
         var retailStatisticalDataVO = StatisticalDataVO.builder()
-                .todayRetailSales(todayRetailSales)
-                .yesterdayRetailSales(yesterdayRetailSales)
-                .monthRetailSales(monthRetailSales)
-                .yearRetailSales(yearRetailSales)
-                .todaySales(todaySales)
-                .yesterdaySales(yesterdaySales)
-                .monthSales(monthSales)
-                .yearSales(yearSales)
-                .todayPurchase(todayPurchase)
-                .yesterdayPurchase(yesterdayPurchase)
-                .monthPurchase(monthPurchase)
-                .yearPurchase(yearPurchase)
-                .retailAxisStatisticalDataVO(assembleAxisRetailData)
-                .saleAxisStatisticalDataVO(assembleAxisSaleData)
-                .purchaseAxisStatisticalDataVO(assembleAxisPurchaseData)
+                .todayRetailSales(calculateTotalPrice(retailData, today, today))
+                .yesterdayRetailSales(calculateTotalPrice(retailData, yesterday, yesterday))
+                .monthRetailSales(calculateTotalPrice(retailData, monthStart, today))
+                .yearRetailSales(calculateTotalPrice(retailData, yearStart, today))
+                .todaySales(calculateTotalPrice(salesData, today, today))
+                .yesterdaySales(calculateTotalPrice(salesData, yesterday, yesterday))
+                .monthSales(calculateTotalPrice(salesData, monthStart, today))
+                .yearSales(calculateTotalPrice(salesData, yearStart, today))
+                .todayPurchase(calculateTotalPrice(purchaseData, today, today))
+                .yesterdayPurchase(calculateTotalPrice(purchaseData, yesterday, yesterday))
+                .monthPurchase(calculateTotalPrice(purchaseData, monthStart, today))
+                .yearPurchase(calculateTotalPrice(purchaseData, yearStart, today))
+                .retailAxisStatisticalDataVO(calculateAxisData(retailData, today))
+                .saleAxisStatisticalDataVO(calculateAxisData(salesData, today))
+                .purchaseAxisStatisticalDataVO(calculateAxisData(purchaseData, today))
                 .build();
 
         return Response.responseData(retailStatisticalDataVO);
     }
 
-    private BigDecimal calculateRetailTotalPrice(List<ReceiptRetailMain> data, List<ReceiptRetailMain> backData, LocalDateTime start, LocalDateTime end) {
-        var dataTotalPrice = data.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptRetailMain::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        var backDataTotalPrice = backData.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptRetailMain::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        return dataTotalPrice.add(backDataTotalPrice);
-    }
-
-    private BigDecimal calculateSaleTotalPrice(List<ReceiptSaleMain> data, List<ReceiptSaleMain> backData, LocalDateTime start, LocalDateTime end) {
-        var dataTotalPrice = data.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptSaleMain::getDiscountLastAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        var backDataTotalPrice = backData.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptSaleMain::getDiscountLastAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        return dataTotalPrice.add(backDataTotalPrice);
-    }
-
-    private BigDecimal calculatePurchaseTotalPrice(List<ReceiptPurchaseMain> data, List<ReceiptPurchaseMain> backData, LocalDateTime start, LocalDateTime end) {
-        var dataTotalPrice = data.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptPurchaseMain::getDiscountLastAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        var backDataTotalPrice = backData.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptPurchaseMain::getDiscountLastAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        return dataTotalPrice.add(backDataTotalPrice);
-    }
-
-    private List<XyAxisDataBO> calculateRetailAxisData(List<ReceiptRetailMain> data, List<ReceiptRetailMain> backData) {
-        LocalDateTime now = LocalDateTime.now();
-        var xyAxisDataBOList = new ArrayList<XyAxisDataBO>();
-        for (int i = 0; i < 6; i++) {
-            LocalDateTime previousMonth = now.minusMonths(i);
-            LocalDateTime start = now.minusMonths(i).with(TemporalAdjusters.firstDayOfMonth()).with(LocalTime.MIN);
-            LocalDateTime end = now.minusMonths(i).with(TemporalAdjusters.lastDayOfMonth()).with(LocalTime.MAX);
-            BigDecimal totalPrice = calculateRetailTotalPriceForRecentMonths(data, backData, start, end);
-            var xAxisData = previousMonth.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            var xyAxisDataBO = XyAxisDataBO.builder()
-                    .xAxisData(xAxisData)
-                    .yAxisData(totalPrice)
-                    .build();
-            xyAxisDataBOList.add(xyAxisDataBO);
-        }
-        Collections.reverse(xyAxisDataBOList);
-        return xyAxisDataBOList;
-    }
-
-    private BigDecimal calculateRetailTotalPriceForRecentMonths(List<ReceiptRetailMain> data, List<ReceiptRetailMain> backData, LocalDateTime start, LocalDateTime end) {
-        var dataTotalPrice = data.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptRetailMain::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        var backDataTotalPrice = backData.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptRetailMain::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        return dataTotalPrice.add(backDataTotalPrice);
+    private Map<LocalDate, BigDecimal> groupStatisticsByDate(List<ReceiptStatisticsDaily> statisticsList, String receiptCategory, String... subTypes) {
+        var subTypeList = List.of(subTypes);
+        return statisticsList.stream()
+                .filter(item -> receiptCategory.equals(item.getReceiptCategory()) && subTypeList.contains(item.getSubType()))
+                .collect(Collectors.toMap(ReceiptStatisticsDaily::getStatisticsDate,
+                        item -> Optional.ofNullable(item.getTotalAmount()).orElse(BigDecimal.ZERO),
+                        BigDecimal::add));
     }
 
-
-    private List<XyAxisDataBO> calculateSaleAxisData(List<ReceiptSaleMain> data, List<ReceiptSaleMain> backData) {
-        LocalDateTime now = LocalDateTime.now();
-        var xyAxisDataBOList = new ArrayList<XyAxisDataBO>();
-        for (int i = 0; i < 6; i++) {
-            LocalDateTime previousMonth = now.minusMonths(i);
-            LocalDateTime start = now.minusMonths(i).with(TemporalAdjusters.firstDayOfMonth()).with(LocalTime.MIN);
-            LocalDateTime end = now.minusMonths(i).with(TemporalAdjusters.lastDayOfMonth()).with(LocalTime.MAX);
-            BigDecimal totalPrice = calculateSaleTotalPriceForRecentMonths(data, backData, start, end);
-            var xAxisData = previousMonth.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            var xyAxisDataBO = XyAxisDataBO.builder()
-                    .xAxisData(xAxisData)
-                    .yAxisData(totalPrice)
-                    .build();
-            xyAxisDataBOList.add(xyAxisDataBO);
-        }
-        Collections.reverse(xyAxisDataBOList);
-        return xyAxisDataBOList;
-    }
-
-    private BigDecimal calculateSaleTotalPriceForRecentMonths(List<ReceiptSaleMain> data, List<ReceiptSaleMain> backData, LocalDateTime start, LocalDateTime end) {
-        var dataTotalPrice = data.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptSaleMain::getDiscountLastAmount)
+    private BigDecimal calculateTotalPrice(Map<LocalDate, BigDecimal> data, LocalDate start, LocalDate end) {
+        return data.entrySet().stream()
+                .filter(item -> !item.getKey().isBefore(start) && !item.getKey().isAfter(end))
+                .map(Map.Entry::getValue)
                 .reduce(BigDecimal.ZERO, BigDecimal::add)
                 .setScale(2, RoundingMode.HALF_UP);
-        var backDataTotalPrice = backData.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptSaleMain::getDiscountLastAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        return dataTotalPrice.add(backDataTotalPrice);
     }
 
-    private List<XyAxisDataBO> calculatePurchaseAxisData(List<ReceiptPurchaseMain> data, List<ReceiptPurchaseMain> backData) {
-        LocalDateTime now = LocalDateTime.now();
+    private List<XyAxisDataBO> calculateAxisData(Map<LocalDate, BigDecimal> data, LocalDate today) {
         var xyAxisDataBOList = new ArrayList<XyAxisDataBO>();
-        for (int i = 0; i < 6; i++) {
-            LocalDateTime previousMonth = now.minusMonths(i);
-            LocalDateTime start = now.minusMonths(i).with(TemporalAdjusters.firstDayOfMonth()).with(LocalTime.MIN);
-            LocalDateTime end = now.minusMonths(i).with(TemporalAdjusters.lastDayOfMonth()).with(LocalTime.MAX);
-            BigDecimal totalPrice = calculatePurchaseTotalPriceForRecentMonths(data, backData, start, end);
-            var xAxisData = previousMonth.format(DateTimeFormatter.ofPattern("yyyy-MM"));
+        for (int i = 5; i >= 0; i--) {
+            var previousMonth = today.minusMonths(i);
+            var start = previousMonth.with(TemporalAdjusters.firstDayOfMonth());
+            var end = previousMonth.with(TemporalAdjusters.lastDayOfMonth());
             var xyAxisDataBO = XyAxisDataBO.builder()
-                    .xAxisData(xAxisData)
-                    .yAxisData(totalPrice)
+                    .xAxisData(previousMonth.format(DateTimeFormatter.ofPattern("yyyy-MM")))
+                    .yAxisData(calculateTotalPrice(data, start, end))
                     .build();
             xyAxisDataBOList.add(xyAxisDataBO);
         }
-        Collections.reverse(xyAxisDataBOList);
         return xyAxisDataBOList;
     }
 
-    private BigDecimal calculatePurchaseTotalPriceForRecentMonths(List<ReceiptPurchaseMain> data, List<ReceiptPurchaseMain> backData, LocalDateTime start, LocalDateTime end) {
-        var dataTotalPrice = data.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptPurchaseMain::getDiscountLastAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        var backDataTotalPrice = backData.stream()
-                .filter(item -> item.getCreateTime().isAfter(start) && item.getCreateTime().isBefore(end))
-                .map(ReceiptPurchaseMain::getDiscountLastAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-        return dataTotalPrice.add(backDataTotalPrice);
-    }
-
     @Override
     public Response<Page<ReceiptVO>> otherReceipt(QueryReceiptDTO receiptDTO) {
         String type = receiptDTO.getType();
@@ -391,21 +255,22 @@ public class ReceiptServiceImpl implements ReceiptService {
             return null;
         }
 
+        var resolver = commonService.createDimensionResolver()
+                .addMemberIds(receiptRetailVOList.getRecords(), ReceiptRetailMain::getMemberId)
+                .addUserIds(receiptRetailVOList.getRecords(), ReceiptRetailMain::getCreateBy);
+        var productNumberMap = receiptRetailSubService.lambdaQuery()
+                .in(ReceiptRetailSub::getReceiptMainId, receiptRetailVOList.getRecords().stream().map(ReceiptRetailMain::getId).toList())
+                .list()
+                .stream()
+                .collect(Collectors.groupingBy(ReceiptRetailSub::getReceiptMainId, Collectors.summingInt(ReceiptRetailSub::getProductNumber)));
+
         var receiptVos = new ArrayList<ReceiptVO>(receiptRetailVOList.getRecords().size() + 2);
         receiptRetailVOList.getRecords().forEach(item -> {
-            Optional<Member> memberOptional = Optional.ofNullable(memberService.lambdaQuery()
-                    .eq(Member::getId, item.getMemberId())
-                    .eq(Member::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .one());
-            var memberName = memberOptional.map(Member::getMemberName).orElse("");
-            var operator = userService.getById(item.getCreateBy());
-
-            var productNumber = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, item.getId())
-                    .list()
-                    .stream()
-                    .mapToInt(ReceiptRetailSub::getProductNumber)
-                    .sum();
+            var memberName = Optional.ofNullable(resolver.getMember(item.getMemberId()))
+                    .filter(member -> Objects.equals(member.getDeleteFlag(), CommonConstants.NOT_DELETED))
+                    .map(Member::getMemberName)
+                    .orElse("");
+            var productNumber = productNumberMap.getOrDefault(item.getId(), 0);
 
             ReceiptVO receiptVO = ReceiptVO.builder()
                     .id(item.getId())
@@ -413,7 +278,7 @@ public class ReceiptServiceImpl implements ReceiptService {
                     .uid(item.getMemberId())
                     .receiptNumber(item.getReceiptNumber())
                     .receiptDate(item.getReceiptDate())
-                    .operator(Optional.ofNullable(operator.getName()).orElse(""))
+                    .operator(resolver.getUserName(item.getCreateBy()))
                     .productNumber(productNumber)
                     .totalAmount(item.getTotalAmount())
                     .status(item.getStatus())
@@ -442,23 +307,28 @@ public class ReceiptServiceImpl implements ReceiptService {
             return null;
         }
 
+        var resolver = commonService.createDimensionResolver()
+                .addCustomerIds(receiptSaleVOList.getRecords(), ReceiptSaleMain::getCustomerId)
+                .addUserIds(receiptSaleVOList.getRecords().stream()
+                        .flatMap(item -> parseOperatorIds(item.getOperatorId()).stream())
+                        .toList(), id -> id);
+        var productNumberMap = receiptSaleSubService.lambdaQuery()
+                .in(ReceiptSaleSub::getReceiptSaleMainId, receiptSaleVOList.getRecords().stream().map(ReceiptSaleMain::getId).toList())
+                .list()
+                .stream()
+                .collect(Collectors.groupingBy(ReceiptSaleSub::getReceiptSaleMainId, Collectors.summingInt(ReceiptSaleSub::getProductNumber)));
+
         var receiptVos = new ArrayList<ReceiptVO>(receiptSaleVOList.getRecords().size() + 2);
         receiptSaleVOList.getRecords().forEach(item -> {
-            var customer = customerService.lambdaQuery()
-                    .eq(Customer::getId, item.getCustomerId())
-                    .eq(Customer::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .one();
-
-            var productNumber = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .list()
-                    .stream()
-                    .mapToInt(ReceiptSaleSub::getProductNumber)
-                    .sum();
+            var customerName = Optional.ofNullable(resolver.getCustomer(item.getCustomerId()))
+                    .filter(customer -> Objects.equals(customer.getDeleteFlag(), CommonConstants.NOT_DELETED))
+                    .map(Customer::getCustomerName)
+                    .orElse("");
+            var productNumber = productNumberMap.getOrDefault(item.getId(), 0);
 
             ReceiptVO receiptSaleVO = ReceiptVO.builder()
                     .id(item.getId())
-                    .name(Optional.ofNullable(customer.getCustomerName()).orElse(""))
+                    .name(customerName)
                     .uid(item.getCustomerId())
                     .receiptNumber(item.getReceiptNumber())
                     .receiptDate(item.getReceiptDate())
@@ -470,19 +340,8 @@ public class ReceiptServiceImpl implements ReceiptService {
                     .build();
 
             // 查询操作员
-            var operatorIds = item.getOperatorId();
-            if (StringUtils.hasLength(operatorIds)) {
-                var operatorIdList = Arrays.asList(operatorIds.split(","));
-                var operatorList = userService.lambdaQuery()
-                        .in(SysUser::getId, operatorIdList)
-                        .list();
-                var operatorVOList = operatorList.stream()
-                        .map(operator -> OperatorVO.builder()
-                                .id(operator.getId())
-                                .name(operator.getName())
-                                .build())
-                        .toList();
-                receiptSaleVO.setOperatorIds(operatorVOList);
+            if (StringUtils.hasLength(item.getOperatorId())) {
+                receiptSaleVO.setOperatorIds(getOperatorList(resolver, item.getOperatorId()));
             }
 
             receiptVos.add(receiptSaleVO);
@@ -509,23 +368,28 @@ public class ReceiptServiceImpl implements ReceiptService {
             return null;
         }
 
+        var resolver = commonService.createDimensionResolver()
+                .addSupplierIds(receiptPurchaseVOList.getRecords(), ReceiptPurchaseMain::getSupplierId)
+                .addUserIds(receiptPurchaseVOList.getRecords().stream()
+                        .flatMap(item -> parseOperatorIds(item.getOperatorId()).stream())
+                        .toList(), id -> id);
+        var productNumberMap = receiptPurchaseSubService.lambdaQuery()
+                .in(ReceiptPurchaseSub::getReceiptPurchaseMainId, receiptPurchaseVOList.getRecords().stream().map(ReceiptPurchaseMain::getId).toList())
+                .list()
+                .stream()
+                .collect(Collectors.groupingBy(ReceiptPurchaseSub::getReceiptPurchaseMainId, Collectors.summingInt(ReceiptPurchaseSub::getProductNumber)));
+
         var receiptVos = new ArrayList<ReceiptVO>(receiptPurchaseVOList.getRecords().size() + 2);
         receiptPurchaseVOList.getRecords().forEach(item -> {
-            var supplier = supplierService.lambdaQuery()
-                    .eq(Supplier::getId, item.getSupplierId())
-                    .eq(Supplier::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .one();
-
-            var productNumber = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .list()
-                    .stream()
-                    .mapToInt(ReceiptPurchaseSub::getProductNumber)
-                    .sum();
+            var supplierName = Optional.ofNullable(resolver.getSupplier(item.getSupplierId()))
+                    .filter(supplier -> Objects.equals(supplier.getDeleteFlag(), CommonConstants.NOT_DELETED))
+                    .map(Supplier::getSupplierName)
+                    .orElse("");
+            var productNumber = productNumberMap.getOrDefault(item.getId(), 0);
 
             ReceiptVO receiptVO = ReceiptVO.builder()
                     .id(item.getId())
-                    .name(Optional.ofNullable(supplier.getSupplierName()).orElse(""))
+                    .name(supplierName)
                     .uid(item.getSupplierId())
                     .receiptNumber(item.getReceiptNumber())
                     .receiptDate(item.getReceiptDate())
@@ -537,19 +401,8 @@ public class ReceiptServiceImpl implements ReceiptService {
                     .build();
 
             // 查询操作员
-            var operatorIds = item.getOperatorId();
-            if (StringUtils.hasLength(operatorIds)) {
-                var operatorIdList = Arrays.asList(operatorIds.split(","));
-                var operatorList = userService.lambdaQuery()
-                        .in(SysUser::getId, operatorIdList)
-                        .list();
-                var operatorVOList = operatorList.stream()
-                        .map(operator -> OperatorVO.builder()
-                                .id(operator.getId())
-                                .name(operator.getName())
-                                .build())
-                        .toList();
-                receiptVO.setOperatorIds(operatorVOList);
+            if (StringUtils.hasLength(item.getOperatorId())) {
+                receiptVO.setOperatorIds(getOperatorList(resolver, item.getOperatorId()));
             }
             receiptVos.add(receiptVO);
         });
@@ -562,6 +415,28 @@ public class ReceiptServiceImpl implements ReceiptService {
         return result;
     }
 
+    private List<Long> parseOperatorIds(String operatorIds) {
+        if (!StringUtils.hasLength(operatorIds)) {
+            return List.of();
+        }
+        return Arrays.stream(operatorIds.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasLength)
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    private List<OperatorVO> getOperatorList(DimensionResolver resolver, String operatorIds) {
+        return parseOperatorIds(operatorIds).stream()
+                .map(resolver::getUser)
+                .filter(Objects::nonNull)
+                .map(operator -> OperatorVO.builder()
+                        .id(operator.getId())
+                        .name(operator.getName())
+                        .build())
+                .toList();
+    }
+
     private Page<ReceiptDetailVO> getReceiptRetailDetailVOList(QueryReceiptDTO receiptDTO) {
         var result = new Page<ReceiptDetailVO>();
         var pageData = new Page<ReceiptRetailSub>(receiptDTO.getPage(), receiptDTO.getPageSize());
@@ -574,6 +449,10 @@ public class ReceiptServiceImpl implements ReceiptService {
             return null;
         }
 
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(receiptRetailDetails.getRecords(), ReceiptRetailSub::getProductId)
+                .addProductUnitIdsOfProducts()
+                .addProductStockKeys(receiptRetailDetails.getRecords(), ReceiptRetailSub::getProductBarcode, ReceiptRetailSub::getWarehouseId);
         var receiptDetailVos = new ArrayList<ReceiptDetailVO>(receiptRetailDetails.getRecords().size() + 2);
         receiptRetailDetails.getRecords().forEach(item -> {
 
@@ -588,15 +467,15 @@ public class ReceiptServiceImpl implements ReceiptService {
                     .remark(item.getRemark())
                     .build();
 
-            var productVO = productService.getProductInfoDetail(item.getProductId()).getData();
-            if (productVO != null) {
-                receiptDetailVO.setProductName(productVO.getProductName());
-                receiptDetailVO.setProductStandard(productVO.getProductStandard());
-                receiptDetailVO.setProductModel(productVO.getProductModel());
-                receiptDetailVO.setUnit(productVO.getProductUnit());
+            var product = resolver.getProduct(item.getProductId());
+            if (product != null) {
+                receiptDetailVO.setProductName(product.getProductName());
+                receiptDetailVO.setProductStandard(product.getProductStandard());
+                receiptDetailVO.setProductModel(product.getProductModel());
+                receiptDetailVO.setUnit(resolver.getProductUnit(item.getProductId()));
             }
             // 查询库存
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
+            var stock = resolver.getProductStock(item.getProductBarcode(), item.getWarehouseId());
             if (stock != null) {
                 receiptDetailVO.setStock(stock.getStock());
             }
@@ -625,6 +504,10 @@ public class ReceiptServiceImpl implements ReceiptService {
             return null;
         }
 
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(receiptSaleDetails.getRecords(), ReceiptSaleSub::getProductId)
+                .addProductUnitIdsOfProducts()
+                .addProductStockKeys(receiptSaleDetails.getRecords(), ReceiptSaleSub::getProductBarcode, ReceiptSaleSub::getWarehouseId);
         var receiptDetailVos = new ArrayList<ReceiptDetailVO>(receiptSaleDetails.getRecords().size() + 2);
         receiptSaleDetails.getRecords().forEach(item -> {
             var receiptDetailVO = ReceiptDetailVO.builder()
@@ -641,15 +524,15 @@ public class ReceiptServiceImpl implements ReceiptService {
                     .remark(item.getRemark())
                     .build();
 
-            var productVO = productService.getProductInfoDetail(item.getProductId()).getData();
-            if (productVO != null) {
-                receiptDetailVO.setProductName(productVO.getProductName());
-                receiptDetailVO.setProductStandard(productVO.getProductStandard());
-                receiptDetailVO.setProductModel(productVO.getProductModel());
-                receiptDetailVO.setUnit(productVO.getProductUnit());
+            var product = resolver.getProduct(item.getProductId());
+            if (product != null) {
+                receiptDetailVO.setProductName(product.getProductName());
+                receiptDetailVO.setProductStandard(product.getProductStandard());
+                receiptDetailVO.setProductModel(product.getProductModel());
+                receiptDetailVO.setUnit(resolver.getProductUnit(item.getProductId()));
             }
             // 查询库存
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
+            var stock = resolver.getProductStock(item.getProductBarcode(), item.getWarehouseId());
             if (stock != null) {
                 receiptDetailVO.setStock(stock.getStock());
             }
@@ -677,6 +560,10 @@ public class ReceiptServiceImpl implements ReceiptService {
             return null;
         }
 
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(receiptPurchaseDetails.getRecords(), ReceiptPurchaseSub::getProductId)
+                .addProductUnitIdsOfProducts()
+                .addProductStockKeys(receiptPurchaseDetails.getRecords(), ReceiptPurchaseSub::getProductBarcode, ReceiptPurchaseSub::getWarehouseId);
         var receiptDetailVos = new ArrayList<ReceiptDetailVO>(receiptPurchaseDetails.getRecords().size() + 2);
         receiptPurchaseDetails.getRecords().forEach(item -> {
             var receiptDetailVO = ReceiptDetailVO.builder()
@@ -692,15 +579,15 @@ public class ReceiptServiceImpl implements ReceiptService {
                     .taxIncludedAmount(item.getTaxIncludedAmount())
                     .remark(item.getRemark())
                     .build();
-            var productVO = productService.getProductInfoDetail(item.getProductId()).getData();
-            if (productVO != null) {
-                receiptDetailVO.setProductName(productVO.getProductName());
-                receiptDetailVO.setProductStandard(productVO.getProductStandard());
-                receiptDetailVO.setProductModel(productVO.getProductModel());
-                receiptDetailVO.setUnit(productVO.getProductUnit());
+            var product = resolver.getProduct(item.getProductId());
+            if (product != null) {
+                receiptDetailVO.setProductName(product.getProductName());
+                receiptDetailVO.setProductStandard(product.getProductStandard());
+                receiptDetailVO.setProductModel(product.getProductModel());
+                receiptDetailVO.setUnit(resolver.getProductUnit(item.getProductId()));
             }
             // 查询库存
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
+            var stock = resolver.getProductStock(item.getProductBarcode(), item.getWarehouseId());
             if (stock != null) {
                 receiptDetailVO.setStock(stock.getStock());
             }
@@ -723,126 +610,51 @@ public class ReceiptServiceImpl implements ReceiptService {
 //        if(warehouse.getData() != null) {
 //            queryProductStock.setWarehouseId(warehouse.getData().getId());
 //        }
+        // 历史日期从库存快照加上之后的流水计算, 当天及以后仍读取当前库存
+        if (StringUtils.hasLength(queryProductStockDTO.getStockDate())) {
+            var stockDate = LocalDate.parse(queryProductStockDTO.getStockDate());
+            if (stockDate.isBefore(LocalDate.now())) {
+                return Response.responseData(productStockSnapshotService.getProductStockAt(page, queryProductStockDTO, stockDate));
+            }
+        }
         var result = productStockMapper.getProductStock(page, queryProductStockDTO);
         return Response.responseData(result);
     }
 
     @Override
     public Response<Page<StockFlowVO>> getStockFlow(QueryStockFlowDTO queryStockFlowDTO) {
-        var systemLanguage = userService.getUserSystemLanguage(userService.getCurrentUserId());
-        var retailData = receiptRetailSubService.lambdaQuery()
-                .eq(ReceiptRetailSub::getWarehouseId, queryStockFlowDTO.getWarehouseId())
-                .eq(ReceiptRetailSub::getProductBarcode, queryStockFlowDTO.getProductBarcode())
-                .eq(ReceiptRetailSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .ge(StringUtils.hasLength(queryStockFlowDTO.getStartDate()), ReceiptRetailSub::getCreateTime, queryStockFlowDTO.getStartDate())
-                .le(StringUtils.hasLength(queryStockFlowDTO.getEndDate()), ReceiptRetailSub::getCreateTime, queryStockFlowDTO.getEndDate())
-                .list();
-        var salesData = receiptSaleSubService.lambdaQuery()
-                .eq(ReceiptSaleSub::getWarehouseId, queryStockFlowDTO.getWarehouseId())
-                .eq(ReceiptSaleSub::getProductBarcode, queryStockFlowDTO.getProductBarcode())
-                .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .ge(StringUtils.hasLength(queryStockFlowDTO.getStartDate()), ReceiptSaleSub::getCreateTime, queryStockFlowDTO.getStartDate())
-                .le(StringUtils.hasLength(queryStockFlowDTO.getEndDate()), ReceiptSaleSub::getCreateTime, queryStockFlowDTO.getEndDate())
-                .list();
-        var purchaseData = receiptPurchaseSubService.lambdaQuery()
-                .eq(ReceiptPurchaseSub::getWarehouseId, queryStockFlowDTO.getWarehouseId())
-                .eq(ReceiptPurchaseSub::getProductBarcode, queryStockFlowDTO.getProductBarcode())
-                .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .ge(StringUtils.hasLength(queryStockFlowDTO.getStartDate()), ReceiptPurchaseSub::getCreateTime, queryStockFlowDTO.getStartDate())
-                .le(StringUtils.hasLength(queryStockFlowDTO.getEndDate()), ReceiptPurchaseSub::getCreateTime, queryStockFlowDTO.getEndDate())
-                .list();
-
-        List<StockFlowVO> stockFlowVos = new ArrayList<StockFlowVO>(retailData.size() + salesData.size() + purchaseData.size());
-        retailData.forEach(item -> {
-            var receiptRetailMain = receiptRetailService.lambdaQuery()
-                    .eq(ReceiptRetailMain::getId, item.getReceiptMainId())
-                    .eq(ReceiptRetailMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .eq(StringUtils.hasLength(queryStockFlowDTO.getReceiptNumber()), ReceiptRetailMain::getReceiptNumber, queryStockFlowDTO.getReceiptNumber())
-                    .one();
-            if (receiptRetailMain != null) {
-                var stockFlowVO = StockFlowVO.builder()
-                        .receiptNumber(receiptRetailMain.getReceiptNumber())
-                        .receiptDate(receiptRetailMain.getReceiptDate())
-                        .type(receiptRetailMain.getType())
-                        .productNumber(item.getProductNumber())
-                        .productBarcode(item.getProductBarcode())
-                        .productName(commonService.getProductName(item.getProductId()))
-                        .warehouseName(commonService.getWarehouseName(item.getWarehouseId()))
-                        .build();
+        // 带游标时从上一页最后一条之后继续读取, 不再统计总数也不跳过前面的行
+        var page = queryStockFlowDTO.getLastId() == null
+                ? new Page<StockFlowVO>(queryStockFlowDTO.getPage(), queryStockFlowDTO.getPageSize())
+                : new Page<StockFlowVO>(1, queryStockFlowDTO.getPageSize(), false);
+        var result = receiptReportMapper.getStockFlow(page, queryStockFlowDTO);
 
-                stockFlowVos.add(stockFlowVO);
-            }
-        });
-        salesData.forEach(item -> {
-            var receiptSaleMain = receiptSaleService.lambdaQuery()
-                    .eq(ReceiptSaleMain::getId, item.getReceiptSaleMainId())
-                    .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .eq(StringUtils.hasLength(queryStockFlowDTO.getReceiptNumber()), ReceiptSaleMain::getReceiptNumber, queryStockFlowDTO.getReceiptNumber())
-                    .one();
-            if (receiptSaleMain != null) {
-                var stockFlowVO = StockFlowVO.builder()
-                        .receiptNumber(receiptSaleMain.getReceiptNumber())
-                        .receiptDate(receiptSaleMain.getReceiptDate())
-                        .productNumber(item.getProductNumber())
-                        .productBarcode(item.getProductBarcode())
-                        .productName(commonService.getProductName(item.getProductId()))
-                        .warehouseName(commonService.getWarehouseName(item.getWarehouseId()))
-                        .build();
+        var systemLanguage = userService.getUserSystemLanguage(userService.getCurrentUserId());
+        if (!"zh_CN".equals(systemLanguage)) {
+            result.getRecords().forEach(this::translateStockFlowType);
+        }
+        return Response.responseData(result);
+    }
 
-                if ("zh_CN".equals(systemLanguage)) {
-                    stockFlowVO.setType(receiptSaleMain.getSubType());
-                } else {
-                    if("销售订单".equals(receiptSaleMain.getSubType())) {
-                        stockFlowVO.setType("Sales Order");
-                    } else if("销售出库".equals(receiptSaleMain.getSubType())) {
-                        stockFlowVO.setType("Sales Outbound");
-                    } else {
-                        stockFlowVO.setType("Sales Return");
-                    }
-                }
-                stockFlowVos.add(stockFlowVO);
-            }
-        });
-        purchaseData.forEach(item -> {
-            var receiptPurchaseMain = receiptPurchaseService.lambdaQuery()
-                    .eq(ReceiptPurchaseMain::getId, item.getReceiptPurchaseMainId())
-                    .eq(ReceiptPurchaseMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .eq(StringUtils.hasLength(queryStockFlowDTO.getReceiptNumber()), ReceiptPurchaseMain::getReceiptNumber, queryStockFlowDTO.getReceiptNumber())
-                    .one();
-            if (receiptPurchaseMain != null) {
-                var stockFlowVO = StockFlowVO.builder()
-                        .receiptNumber(receiptPurchaseMain.getReceiptNumber())
-                        .receiptDate(receiptPurchaseMain.getReceiptDate())
-                        .productNumber(item.getProductNumber())
-                        .productBarcode(item.getProductBarcode())
-                        .productName(commonService.getProductName(item.getProductId()))
-                        .warehouseName(commonService.getWarehouseName(item.getWarehouseId()))
-                        .build();
-                if ("zh_CN".equals(systemLanguage)) {
-                    stockFlowVO.setType(receiptPurchaseMain.getSubType());
-                } else {
-                    if("采购订单".equals(receiptPurchaseMain.getSubType())) {
-                        stockFlowVO.setType("Purchase Order");
-                    } else if("采购入库".equals(receiptPurchaseMain.getSubType())) {
-                        stockFlowVO.setType("Purchase Inbound");
-                    } else {
-                        stockFlowVO.setType("Purchase Return");
-                    }
-                }
-                stockFlowVos.add(stockFlowVO);
+    private void translateStockFlowType(StockFlowVO stockFlowVO) {
+        switch (Optional.ofNullable(stockFlowVO.getType()).orElse("")) {
+            case "销售订单" -> stockFlowVO.setType("Sales Order");
+            case "销售出库" -> stockFlowVO.setType("Sales Outbound");
+            case "销售退货" -> stockFlowVO.setType("Sales Return");
+            case "采购订单" -> stockFlowVO.setType("Purchase Order");
+            case "采购入库" -> stockFlowVO.setType("Purchase Inbound");
+            case "采购退货" -> stockFlowVO.setType("Purchase Return");
+            case "零售出库" -> stockFlowVO.setType("Retail Outbound");
+            case "零售退货" -> stockFlowVO.setType("Retail Return");
+            case "其他入库" -> stockFlowVO.setType("Other Inbound");
+            case "其他出库" -> stockFlowVO.setType("Other Outbound");
+            case "调拨出库" -> stockFlowVO.setType("Transfer Outbound");
+            case "组装单" -> stockFlowVO.setType("Assembly");
+            case "拆卸单" -> stockFlowVO.setType("Disassembly");
+            case "库存调整" -> stockFlowVO.setType("Stock Adjustment");
+            default -> {
             }
-        });
-        stockFlowVos.sort(Comparator.comparing(StockFlowVO::getReceiptDate).reversed());
-        var page = new Page<StockFlowVO>(queryStockFlowDTO.getPage(), queryStockFlowDTO.getPageSize());
-
-        int startIndex = (int) ((page.getCurrent() - 1) * page.getSize());
-        int endIndex = (int) Math.min(startIndex + page.getSize(), stockFlowVos.size());
-        startIndex = Math.min(startIndex, endIndex);
-        List<StockFlowVO> pagedStockFlowVos = new ArrayList<>(stockFlowVos.subList(startIndex, endIndex));
-        page.setRecords(pagedStockFlowVos);
-        page.setTotal(stockFlowVos.size());
-        return Response.responseData(page);
-
+        }
     }
 
     @Override
@@ -860,91 +672,16 @@ public class ReceiptServiceImpl implements ReceiptService {
             return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY);
         }
 
+        // 本月变动金额按账户分组一次查询, 多账户结算按分摊金额计入
+        var accountIds = accountPage.getRecords().stream().map(FinancialAccount::getId).toList();
+        var startDate = LocalDateTime.now().withDayOfMonth(1).with(LocalTime.MIN);
+        var endDate = LocalDateTime.now().with(LocalTime.MAX);
+        var changeAmounts = receiptReportMapper.getAccountChangeAmounts(accountIds, startDate, endDate).stream()
+                .collect(Collectors.toMap(AccountChangeBO::getAccountId, change -> Optional.ofNullable(change.getAmount()).orElse(BigDecimal.ZERO)));
+
         var accountVos = new ArrayList<AccountStatisticsVO>();
         accountPage.getRecords().forEach(item -> {
-            var retailData = receiptRetailService.lambdaQuery()
-                    .eq(ReceiptRetailMain::getAccountId, item.getId())
-                    .eq(ReceiptRetailMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-
-            var retailChangeAmount = BigDecimal.ZERO;
-            var saleChangeAmount = BigDecimal.ZERO;
-            var purchaseChangeAmount = BigDecimal.ZERO;
-
-            if (!retailData.isEmpty()) {
-                retailChangeAmount = retailData.stream()
-                        .filter(receiptRetailMain -> receiptRetailMain.getReceiptDate().isAfter(LocalDateTime.now().withDayOfMonth(1).with(LocalTime.MIN)))
-                        .filter(receiptRetailMain -> receiptRetailMain.getReceiptDate().isBefore(LocalDateTime.now().with(LocalTime.MAX)))
-                        .toList()
-                        .stream()
-                        .map(receipt -> Optional.ofNullable(receipt.getChangeAmount()).orElse(BigDecimal.ZERO))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add)
-                        .setScale(2, RoundingMode.HALF_UP);
-            }
-
-            var salesData = receiptSaleService.lambdaQuery()
-                    .eq(ReceiptSaleMain::getAccountId, item.getId())
-                    .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            if (!salesData.isEmpty()) {
-                saleChangeAmount = salesData.stream()
-                        .filter(receiptSaleMain -> receiptSaleMain.getReceiptDate().isAfter(LocalDateTime.now().withDayOfMonth(1).with(LocalTime.MIN)))
-                        .filter(receiptSaleMain -> receiptSaleMain.getReceiptDate().isBefore(LocalDateTime.now().with(LocalTime.MAX)))
-                        .toList()
-                        .stream()
-                        .map(receipt -> Optional.ofNullable(receipt.getChangeAmount()).orElse(BigDecimal.ZERO))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add)
-                        .setScale(2, RoundingMode.HALF_UP);
-            }
-
-            var purchaseData = receiptPurchaseService.lambdaQuery()
-                    .eq(ReceiptPurchaseMain::getAccountId, item.getId())
-                    .eq(ReceiptPurchaseMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            if (!purchaseData.isEmpty()) {
-                purchaseChangeAmount = purchaseData.stream()
-                        .filter(receiptPurchaseMain -> receiptPurchaseMain.getReceiptDate().isAfter(LocalDateTime.now().withDayOfMonth(1).with(LocalTime.MIN)))
-                        .filter(receiptPurchaseMain -> receiptPurchaseMain.getReceiptDate().isBefore(LocalDateTime.now().with(LocalTime.MAX)))
-                        .toList()
-                        .stream()
-                        .map(receipt -> Optional.ofNullable(receipt.getChangeAmount()).orElse(BigDecimal.ZERO))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add)
-                        .setScale(2, RoundingMode.HALF_UP);
-            }
-            // Calculate the amount of multiple accounts
-            var saleAccountMultipleData = receiptSaleService.lambdaQuery()
-                    .in(ReceiptSaleMain::getMultipleAccount, item.getId())
-                    .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list()
-                    .stream()
-                    .filter(receiptSaleMain -> receiptSaleMain.getReceiptDate().isAfter(LocalDateTime.now().withDayOfMonth(1).with(LocalTime.MIN)))
-                    .filter(receiptSaleMain -> receiptSaleMain.getReceiptDate().isBefore(LocalDateTime.now().with(LocalTime.MAX)))
-                    .toList();
-
-            if (!saleAccountMultipleData.isEmpty()) {
-                for (ReceiptSaleMain saleAccountMultiple : saleAccountMultipleData) {
-                    var saleAccountMultipleChangeAmount = saleAccountMultiple.getChangeAmount();
-                    purchaseChangeAmount = purchaseChangeAmount.add(Optional.ofNullable(saleAccountMultipleChangeAmount).orElse(BigDecimal.ZERO));
-                }
-            }
-
-            var purchaseAccountMultipleData = receiptPurchaseService.lambdaQuery()
-                    .in(ReceiptPurchaseMain::getMultipleAccount, item.getId())
-                    .eq(ReceiptPurchaseMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list()
-                    .stream()
-                    .filter(ReceiptPurchaseMain -> ReceiptPurchaseMain.getReceiptDate().isAfter(LocalDateTime.now().withDayOfMonth(1).with(LocalTime.MIN)))
-                    .filter(ReceiptPurchaseMain -> ReceiptPurchaseMain.getReceiptDate().isBefore(LocalDateTime.now().with(LocalTime.MAX)))
-                    .toList();
-
-            if (!purchaseAccountMultipleData.isEmpty()) {
-                for (ReceiptPurchaseMain purchaseAccountMultiple : purchaseAccountMultipleData) {
-                    var purchaseAccountMultipleChangeAmount = purchaseAccountMultiple.getChangeAmount();
-                    purchaseChangeAmount = purchaseChangeAmount.add(Optional.ofNullable(purchaseAccountMultipleChangeAmount).orElse(BigDecimal.ZERO));
-                }
-            }
-
-            var thisMonthChangeAmount = retailChangeAmount.add(saleChangeAmount).add(purchaseChangeAmount);
+            var thisMonthChangeAmount = changeAmounts.getOrDefault(item.getId(), BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
 
             var accountVo = AccountStatisticsVO.builder()
                     .accountId(item.getId())
@@ -971,81 +708,17 @@ public class ReceiptServiceImpl implements ReceiptService {
             return Response.responseMsg(BaseCodeEnum.PARAMETER_NULL);
         }
         var account = accountService.getById(accountId);
-        var retailData = receiptRetailService.lambdaQuery()
-                .eq(ReceiptRetailMain::getAccountId, accountId)
-                .eq(ReceiptRetailMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .list();
-
-        var balance = new AtomicReference<>(account.getInitialAmount());
-
-        var accountFlowVos = new ArrayList<AccountFlowVO>();
-        if (!retailData.isEmpty()) {
-            retailData.forEach(retail -> {
-                var accountFlowVO = AccountFlowVO.builder()
-                        .receiptNumber(retail.getReceiptNumber())
-                        .receiptDate(retail.getReceiptDate())
-                        .subType(retail.getSubType())
-                        .useType("会员")
-                        .name(commonService.getMemberName(retail.getMemberId()))
-                        .amount(retail.getChangeAmount() == null ? BigDecimal.ZERO : retail.getChangeAmount())
-                        .build();
-                accountFlowVos.add(accountFlowVO);
-            });
-        }
-
-        var salesData = receiptSaleService.lambdaQuery()
-                .eq(ReceiptSaleMain::getAccountId, accountId)
-                .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .list();
-        if (!salesData.isEmpty()) {
-            salesData.forEach(sale -> {
-                var accountFlowVO = AccountFlowVO.builder()
-                        .receiptNumber(sale.getReceiptNumber())
-                        .receiptDate(sale.getReceiptDate())
-                        .subType(sale.getSubType())
-                        .useType("客户")
-                        .name(commonService.getCustomerName(sale.getCustomerId()))
-                        .amount(sale.getChangeAmount() == null ? BigDecimal.ZERO : sale.getChangeAmount())
-                        .build();
-                accountFlowVos.add(accountFlowVO);
-            });
-        }
-
-        var purchaseData = receiptPurchaseService.lambdaQuery()
-                .eq(ReceiptPurchaseMain::getAccountId, accountId)
-                .eq(ReceiptPurchaseMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .list();
-        if (!purchaseData.isEmpty()) {
-            purchaseData.forEach(purchase -> {
-                var accountFlowVO = AccountFlowVO.builder()
-                        .receiptNumber(purchase.getReceiptNumber())
-                        .receiptDate(purchase.getReceiptDate())
-                        .subType(purchase.getSubType())
-                        .useType("供应商")
-                        .name(commonService.getSupplierName(purchase.getSupplierId()))
-                        .amount(purchase.getChangeAmount() == null ? BigDecimal.ZERO : purchase.getChangeAmount())
-                        .build();
-                accountFlowVos.add(accountFlowVO);
-            });
-        }
-        accountFlowVos.sort(Comparator.comparing(AccountFlowVO::getReceiptDate).reversed());
-        // 进行余额计算
-        accountFlowVos.forEach(item -> {
-            balance.updateAndGet(v -> (v != null) ? v.add(item.getAmount()) : item.getAmount());
-            item.setBalance(balance.get());
-        });
-
-        var result = new Page<AccountFlowVO>(page, pageSize);
-        int startIndex = (int) ((result.getCurrent() - 1) * result.getSize());
-        int endIndex = (int) Math.min(startIndex + result.getSize(), accountFlowVos.size());
-        startIndex = Math.min(startIndex, endIndex);
-        List<AccountFlowVO> pageAccountFlowVos = new ArrayList<>(accountFlowVos.subList(startIndex, endIndex));
-        result.setRecords(pageAccountFlowVos);
-        result.setTotal(accountFlowVos.size());
-
+        var initialAmount = account == null ? BigDecimal.ZERO : account.getInitialAmount();
+        // 余额在数据库中按单据日期倒序累加
+        var result = receiptReportMapper.getAccountFlow(new Page<>(page, pageSize), accountId, initialAmount);
         return Response.responseData(result);
     }
 
+    // 报表汇总的key: 商品条码 + 仓库id
+    private static String summaryKey(String productBarcode, Long warehouseId) {
+        return productBarcode + "|" + warehouseId;
+    }
+
     @Override
     public Response<Page<RetailReportVO>> getRetailStatistics(QueryRetailReportDTO queryRetailReportDTO) {
         var result = new Page<RetailReportVO>();
@@ -1057,21 +730,29 @@ public class ReceiptServiceImpl implements ReceiptService {
                 .le(queryRetailReportDTO.getEndDate() != null, ReceiptRetailMain::getReceiptDate, queryRetailReportDTO.getEndDate())
                 .page(page);
 
-        var retailVos = new ArrayList<RetailReportVO>();
+        var retailSubList = retailPage.getRecords().isEmpty() ? List.<ReceiptRetailSub>of() : receiptRetailSubService.lambdaQuery()
+                .in(ReceiptRetailSub::getReceiptMainId, retailPage.getRecords().stream().map(ReceiptRetailMain::getId).toList())
+                .eq(queryRetailReportDTO.getWarehouseId() != null, ReceiptRetailSub::getWarehouseId, queryRetailReportDTO.getWarehouseId())
+                .eq(ReceiptRetailSub::getDeleteFlag, CommonConstants.NOT_DELETED)
+                .list();
+        var retailSubMap = retailSubList.stream().collect(Collectors.groupingBy(ReceiptRetailSub::getReceiptMainId));
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(retailSubList, ReceiptRetailSub::getProductId)
+                .addWarehouseIds(retailSubList, ReceiptRetailSub::getWarehouseId)
+                .addMemberIds(retailPage.getRecords(), ReceiptRetailMain::getMemberId);
+
+        // 按商品条码和仓库汇总
+        var retailVoMap = new LinkedHashMap<String, RetailReportVO>();
         retailPage.getRecords().forEach(item -> {
-            var retailSubs = receiptRetailSubService.lambdaQuery()
-                    .eq(ReceiptRetailSub::getReceiptMainId, item.getId())
-                    .eq(queryRetailReportDTO.getWarehouseId() != null, ReceiptRetailSub::getWarehouseId, queryRetailReportDTO.getWarehouseId())
-                    .eq(ReceiptRetailSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
+            var retailSubs = retailSubMap.getOrDefault(item.getId(), List.of());
 
             for (ReceiptRetailSub retailSub : retailSubs) {
                 var retailVo = RetailReportVO.builder()
                         .productBarcode(retailSub.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(retailSub.getWarehouseId()))
+                        .warehouseName(resolver.getWarehouseName(retailSub.getWarehouseId()))
                         .build();
 
-                var product = productService.getById(retailSub.getProductId());
+                var product = resolver.getProduct(retailSub.getProductId());
                 if (product != null) {
                     String productExtendInfo = product.getProductManufacturer() +
                             "|" +
@@ -1086,49 +767,40 @@ public class ReceiptServiceImpl implements ReceiptService {
                     retailVo.setProductUnit(product.getProductUnit());
                     retailVo.setProductExtendInfo(productExtendInfo);
                 }
-                retailVo.setMember(commonService.getMemberName(item.getMemberId()));
-                // 如果是相同的商品条码和仓库名称和会员 则不进行重复添加
-                if (retailVos.stream().noneMatch(matchRetailVo -> retailVo.getProductBarcode().equals(matchRetailVo.getProductBarcode())
-                        && retailVo.getWarehouseName().equals(matchRetailVo.getWarehouseName()))) {
-                    retailVos.add(retailVo);
+                retailVo.setMember(resolver.getMemberName(item.getMemberId()));
+                // 如果是相同的商品条码和仓库 则不进行重复添加
+                var matchRetailVo = retailVoMap.computeIfAbsent(summaryKey(retailSub.getProductBarcode(), retailSub.getWarehouseId()), key -> retailVo);
+                // 将数据进行组装 计算重复商品的出库和退货数量以及金额 匹配商品条码和仓库
+                if (item.getSubType().equals("零售出库")) {
+                    matchRetailVo.setRetailAmount(Optional.ofNullable(matchRetailVo.getRetailAmount()).orElse(BigDecimal.ZERO)
+                            .add(Optional.ofNullable(retailSub.getTotalAmount()).orElse(BigDecimal.ZERO)));
+                    matchRetailVo.setRetailNumber(Optional.ofNullable(matchRetailVo.getRetailNumber()).orElse(0)
+                            + Optional.ofNullable(retailSub.getProductNumber()).orElse(0));
+                } else if (item.getSubType().equals("零售退货")) {
+                    matchRetailVo.setRetailRefundAmount(Optional.ofNullable(matchRetailVo.getRetailRefundAmount()).orElse(BigDecimal.ZERO)
+                            .add(Optional.ofNullable(retailSub.getTotalAmount()).orElse(BigDecimal.ZERO)));
+                    matchRetailVo.setRetailRefundNumber(Optional.ofNullable(matchRetailVo.getRetailRefundNumber()).orElse(0)
+                            + Optional.ofNullable(retailSub.getProductNumber()).orElse(0));
                 }
-                // 将数据进行组装 计算重复商品的出库和退货数量以及金额 匹配商品条码和仓库名称
-                if (retailVo.getProductBarcode() != null && retailVo.getWarehouseName() != null) {
-                    retailVos.forEach(matchRetailVo -> {
-                        if (retailVo.getProductBarcode().equals(matchRetailVo.getProductBarcode())
-                                && retailVo.getWarehouseName().equals(matchRetailVo.getWarehouseName())) {
-                            if (item.getSubType().equals("零售出库")) {
-                                matchRetailVo.setRetailAmount(Optional.ofNullable(matchRetailVo.getRetailAmount()).orElse(BigDecimal.ZERO)
-                                        .add(Optional.ofNullable(retailSub.getTotalAmount()).orElse(BigDecimal.ZERO)));
-                                matchRetailVo.setRetailNumber(Optional.ofNullable(matchRetailVo.getRetailNumber()).orElse(0)
-                                        + Optional.ofNullable(retailSub.getProductNumber()).orElse(0));
-                            } else if (item.getSubType().equals("零售退货")) {
-                                matchRetailVo.setRetailRefundAmount(Optional.ofNullable(matchRetailVo.getRetailRefundAmount()).orElse(BigDecimal.ZERO)
-                                        .add(Optional.ofNullable(retailSub.getTotalAmount()).orElse(BigDecimal.ZERO)));
-                                matchRetailVo.setRetailRefundNumber(Optional.ofNullable(matchRetailVo.getRetailRefundNumber()).orElse(0)
-                                        + Optional.ofNullable(retailSub.getProductNumber()).orElse(0));
-                            }
-                            // 如果没有值 则归0处理
-                            if (matchRetailVo.getRetailAmount() == null) {
-                                matchRetailVo.setRetailAmount(BigDecimal.ZERO);
-                            }
-                            if (matchRetailVo.getRetailRefundAmount() == null) {
-                                matchRetailVo.setRetailRefundAmount(BigDecimal.ZERO);
-                            }
-                            if (matchRetailVo.getRetailNumber() == null) {
-                                matchRetailVo.setRetailNumber(0);
-                            }
-                            if (matchRetailVo.getRetailRefundNumber() == null) {
-                                matchRetailVo.setRetailRefundNumber(0);
-                            }
-
-                            matchRetailVo.setRetailLastAmount(Optional.ofNullable(matchRetailVo.getRetailAmount()).orElse(BigDecimal.ZERO)
-                                    .subtract(Optional.ofNullable(matchRetailVo.getRetailRefundAmount()).orElse(BigDecimal.ZERO)));
-                        }
-                    });
+                // 如果没有值 则归0处理
+                if (matchRetailVo.getRetailAmount() == null) {
+                    matchRetailVo.setRetailAmount(BigDecimal.ZERO);
+                }
+                if (matchRetailVo.getRetailRefundAmount() == null) {
+                    matchRetailVo.setRetailRefundAmount(BigDecimal.ZERO);
+                }
+                if (matchRetailVo.getRetailNumber() == null) {
+                    matchRetailVo.setRetailNumber(0);
+                }
+                if (matchRetailVo.getRetailRefundNumber() == null) {
+                    matchRetailVo.setRetailRefundNumber(0);
                 }
+
+                matchRetailVo.setRetailLastAmount(Optional.ofNullable(matchRetailVo.getRetailAmount()).orElse(BigDecimal.ZERO)
+                        .subtract(Optional.ofNullable(matchRetailVo.getRetailRefundAmount()).orElse(BigDecimal.ZERO)));
             }
         });
+        var retailVos = new ArrayList<>(retailVoMap.values());
         result.setRecords(retailVos);
         result.setPages(retailPage.getPages());
         result.setSize(retailPage.getSize());
@@ -1149,21 +821,29 @@ public class ReceiptServiceImpl implements ReceiptService {
                 .le(queryPurchaseReportDTO.getEndDate() != null, ReceiptPurchaseMain::getReceiptDate, queryPurchaseReportDTO.getEndDate())
                 .page(page);
 
-        var purchaseVos = new ArrayList<PurchaseReportVO>();
+        var purchaseSubList = purchasePage.getRecords().isEmpty() ? List.<ReceiptPurchaseSub>of() : receiptPurchaseSubService.lambdaQuery()
+                .in(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchasePage.getRecords().stream().map(ReceiptPurchaseMain::getId).toList())
+                .eq(queryPurchaseReportDTO.getWarehouseId() != null, ReceiptPurchaseSub::getWarehouseId, queryPurchaseReportDTO.getWarehouseId())
+                .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
+                .list();
+        var purchaseSubMap = purchaseSubList.stream().collect(Collectors.groupingBy(ReceiptPurchaseSub::getReceiptPurchaseMainId));
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(purchaseSubList, ReceiptPurchaseSub::getProductId)
+                .addWarehouseIds(purchaseSubList, ReceiptPurchaseSub::getWarehouseId)
+                .addSupplierIds(purchasePage.getRecords(), ReceiptPurchaseMain::getSupplierId);
+
+        // 按商品条码和仓库汇总
+        var purchaseVoMap = new LinkedHashMap<String, PurchaseReportVO>();
         purchasePage.getRecords().forEach(item -> {
-            var purchaseSub = receiptPurchaseSubService.lambdaQuery()
-                    .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, item.getId())
-                    .eq(queryPurchaseReportDTO.getWarehouseId() != null, ReceiptPurchaseSub::getWarehouseId, queryPurchaseReportDTO.getWarehouseId())
-                    .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
+            var purchaseSub = purchaseSubMap.getOrDefault(item.getId(), List.of());
 
             for (ReceiptPurchaseSub receiptPurchaseSub : purchaseSub) {
                 var purchaseVo = PurchaseReportVO.builder()
                         .productBarcode(receiptPurchaseSub.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(receiptPurchaseSub.getWarehouseId()))
+                        .warehouseName(resolver.getWarehouseName(receiptPurchaseSub.getWarehouseId()))
                         .build();
 
-                var product = productService.getById(receiptPurchaseSub.getProductId());
+                var product = resolver.getProduct(receiptPurchaseSub.getProductId());
                 if (product != null) {
                     String productExtendInfo = product.getProductManufacturer() +
                             "|" +
@@ -1178,48 +858,39 @@ public class ReceiptServiceImpl implements ReceiptService {
                     purchaseVo.setProductUnit(product.getProductUnit());
                     purchaseVo.setProductExtendInfo(productExtendInfo);
                 }
-                purchaseVo.setSupplier(commonService.getSupplierName(item.getSupplierId()));
+                purchaseVo.setSupplier(resolver.getSupplierName(item.getSupplierId()));
                 purchaseVo.setCreateTime(receiptPurchaseSub.getCreateTime());
-                if (purchaseVos.stream().noneMatch(matchPurchaseVo -> purchaseVo.getProductBarcode().equals(matchPurchaseVo.getProductBarcode())
-                        && purchaseVo.getWarehouseName().equals(matchPurchaseVo.getWarehouseName()))) {
-                    purchaseVos.add(purchaseVo);
+                var matchPurchaseVo = purchaseVoMap.computeIfAbsent(summaryKey(receiptPurchaseSub.getProductBarcode(), receiptPurchaseSub.getWarehouseId()), key -> purchaseVo);
+
+                if (item.getSubType().equals("采购入库")) {
+                    matchPurchaseVo.setPurchaseAmount(Optional.ofNullable(matchPurchaseVo.getPurchaseAmount()).orElse(BigDecimal.ZERO)
+                            .add(Optional.ofNullable(receiptPurchaseSub.getTaxIncludedAmount()).orElse(BigDecimal.ZERO)));
+                    matchPurchaseVo.setPurchaseNumber(Optional.ofNullable(matchPurchaseVo.getPurchaseNumber()).orElse(0)
+                            + Optional.ofNullable(receiptPurchaseSub.getProductNumber()).orElse(0));
+                } else if (item.getSubType().equals("采购退货")) {
+                    matchPurchaseVo.setPurchaseRefundAmount(Optional.ofNullable(matchPurchaseVo.getPurchaseRefundAmount()).orElse(BigDecimal.ZERO)
+                            .add(Optional.ofNullable(receiptPurchaseSub.getTaxIncludedAmount()).orElse(BigDecimal.ZERO)));
+                    matchPurchaseVo.setPurchaseRefundNumber(Optional.ofNullable(matchPurchaseVo.getPurchaseRefundNumber()).orElse(0)
+                            + Optional.ofNullable(receiptPurchaseSub.getProductNumber()).orElse(0));
                 }
-
-                if (purchaseVo.getProductBarcode() != null && purchaseVo.getWarehouseName() != null) {
-                    purchaseVos.forEach(matchPurchaseVo -> {
-                        if (purchaseVo.getProductBarcode().equals(matchPurchaseVo.getProductBarcode())
-                                && purchaseVo.getWarehouseName().equals(matchPurchaseVo.getWarehouseName())) {
-                            if (item.getSubType().equals("采购入库")) {
-                                matchPurchaseVo.setPurchaseAmount(Optional.ofNullable(matchPurchaseVo.getPurchaseAmount()).orElse(BigDecimal.ZERO)
-                                        .add(Optional.ofNullable(receiptPurchaseSub.getTaxIncludedAmount()).orElse(BigDecimal.ZERO)));
-                                matchPurchaseVo.setPurchaseNumber(Optional.ofNullable(matchPurchaseVo.getPurchaseNumber()).orElse(0)
-                                        + Optional.ofNullable(receiptPurchaseSub.getProductNumber()).orElse(0));
-                            } else if (item.getSubType().equals("采购退货")) {
-                                matchPurchaseVo.setPurchaseRefundAmount(Optional.ofNullable(matchPurchaseVo.getPurchaseRefundAmount()).orElse(BigDecimal.ZERO)
-                                        .add(Optional.ofNullable(receiptPurchaseSub.getTaxIncludedAmount()).orElse(BigDecimal.ZERO)));
-                                matchPurchaseVo.setPurchaseRefundNumber(Optional.ofNullable(matchPurchaseVo.getPurchaseRefundNumber()).orElse(0)
-                                        + Optional.ofNullable(receiptPurchaseSub.getProductNumber()).orElse(0));
-                            }
-                            if (matchPurchaseVo.getPurchaseAmount() == null) {
-                                matchPurchaseVo.setPurchaseAmount(BigDecimal.ZERO);
-                            }
-                            if (matchPurchaseVo.getPurchaseRefundAmount() == null) {
-                                matchPurchaseVo.setPurchaseRefundAmount(BigDecimal.ZERO);
-                            }
-                            if (matchPurchaseVo.getPurchaseNumber() == null) {
-                                matchPurchaseVo.setPurchaseNumber(0);
-                            }
-                            if (matchPurchaseVo.getPurchaseRefundNumber() == null) {
-                                matchPurchaseVo.setPurchaseRefundNumber(0);
-                            }
-
-                            matchPurchaseVo.setPurchaseLastAmount(Optional.ofNullable(matchPurchaseVo.getPurchaseAmount()).orElse(BigDecimal.ZERO)
-                                    .subtract(Optional.ofNullable(matchPurchaseVo.getPurchaseRefundAmount()).orElse(BigDecimal.ZERO)));
-                        }
-                    });
+                if (matchPurchaseVo.getPurchaseAmount() == null) {
+                    matchPurchaseVo.setPurchaseAmount(BigDecimal.ZERO);
+                }
+                if (matchPurchaseVo.getPurchaseRefundAmount() == null) {
+                    matchPurchaseVo.setPurchaseRefundAmount(BigDecimal.ZERO);
+                }
+                if (matchPurchaseVo.getPurchaseNumber() == null) {
+                    matchPurchaseVo.setPurchaseNumber(0);
+                }
+                if (matchPurchaseVo.getPurchaseRefundNumber() == null) {
+                    matchPurchaseVo.setPurchaseRefundNumber(0);
                 }
+
+                matchPurchaseVo.setPurchaseLastAmount(Optional.ofNullable(matchPurchaseVo.getPurchaseAmount()).orElse(BigDecimal.ZERO)
+                        .subtract(Optional.ofNullable(matchPurchaseVo.getPurchaseRefundAmount()).orElse(BigDecimal.ZERO)));
             }
         });
+        var purchaseVos = new ArrayList<>(purchaseVoMap.values());
         result.setRecords(purchaseVos);
         result.setPages(purchasePage.getPages());
         result.setSize(purchasePage.getSize());
@@ -1240,21 +911,29 @@ public class ReceiptServiceImpl implements ReceiptService {
                 .le(querySalesReportDTO.getEndDate() != null, ReceiptSaleMain::getReceiptDate, querySalesReportDTO.getEndDate())
                 .page(page);
 
-        var saleVos = new ArrayList<SalesReportVO>();
+        var saleSubList = salePage.getRecords().isEmpty() ? List.<ReceiptSaleSub>of() : receiptSaleSubService.lambdaQuery()
+                .in(ReceiptSaleSub::getReceiptSaleMainId, salePage.getRecords().stream().map(ReceiptSaleMain::getId).toList())
+                .eq(querySalesReportDTO.getWarehouseId() != null, ReceiptSaleSub::getWarehouseId, querySalesReportDTO.getWarehouseId())
+                .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
+                .list();
+        var saleSubMap = saleSubList.stream().collect(Collectors.groupingBy(ReceiptSaleSub::getReceiptSaleMainId));
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(saleSubList, ReceiptSaleSub::getProductId)
+                .addWarehouseIds(saleSubList, ReceiptSaleSub::getWarehouseId)
+                .addCustomerIds(salePage.getRecords(), ReceiptSaleMain::getCustomerId);
+
+        // 按商品条码和仓库汇总
+        var saleVoMap = new LinkedHashMap<String, SalesReportVO>();
         salePage.getRecords().forEach(item -> {
-            var saleSubs = receiptSaleSubService.lambdaQuery()
-                    .eq(ReceiptSaleSub::getReceiptSaleMainId, item.getId())
-                    .eq(querySalesReportDTO.getWarehouseId() != null, ReceiptSaleSub::getWarehouseId, querySalesReportDTO.getWarehouseId())
-                    .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
+            var saleSubs = saleSubMap.getOrDefault(item.getId(), List.of());
 
             for (ReceiptSaleSub saleSub : saleSubs) {
                 var saleVo = SalesReportVO.builder()
                         .productBarcode(saleSub.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(saleSub.getWarehouseId()))
+                        .warehouseName(resolver.getWarehouseName(saleSub.getWarehouseId()))
                         .build();
 
-                var product = productService.getById(saleSub.getProductId());
+                var product = resolver.getProduct(saleSub.getProductId());
                 if (product != null) {
                     String productExtendInfo = product.getProductManufacturer() +
                             "|" +
@@ -1269,48 +948,39 @@ public class ReceiptServiceImpl implements ReceiptService {
                     saleVo.setProductUnit(product.getProductUnit());
                     saleVo.setProductExtendInfo(productExtendInfo);
                 }
-                saleVo.setCustomer(commonService.getCustomerName(item.getCustomerId()));
-
-                if (saleVos.stream().noneMatch(matchSaleVo -> saleVo.getProductBarcode().equals(matchSaleVo.getProductBarcode())
-                        && saleVo.getWarehouseName().equals(matchSaleVo.getWarehouseName()))) {
-                    saleVos.add(saleVo);
+                saleVo.setCustomer(resolver.getCustomerName(item.getCustomerId()));
+
+                var matchSaleVo = saleVoMap.computeIfAbsent(summaryKey(saleSub.getProductBarcode(), saleSub.getWarehouseId()), key -> saleVo);
+
+                if (item.getSubType().equals("销售出库")) {
+                    matchSaleVo.setSalesAmount(Optional.ofNullable(matchSaleVo.getSalesAmount()).orElse(BigDecimal.ZERO)
+                            .add(Optional.ofNullable(saleSub.getTaxIncludedAmount()).orElse(BigDecimal.ZERO)));
+                    matchSaleVo.setSalesNumber(Optional.ofNullable(matchSaleVo.getSalesNumber()).orElse(0)
+                            + Optional.ofNullable(saleSub.getProductNumber()).orElse(0));
+                } else if (item.getSubType().equals("销售退货")) {
+                    matchSaleVo.setSalesRefundAmount(Optional.ofNullable(matchSaleVo.getSalesRefundAmount()).orElse(BigDecimal.ZERO)
+                            .add(Optional.ofNullable(saleSub.getTaxIncludedAmount()).orElse(BigDecimal.ZERO)));
+                    matchSaleVo.setSalesRefundNumber(Optional.ofNullable(matchSaleVo.getSalesRefundNumber()).orElse(0)
+                            + Optional.ofNullable(saleSub.getProductNumber()).orElse(0));
                 }
-
-                if (saleVo.getProductBarcode() != null && saleVo.getWarehouseName() != null) {
-                    saleVos.forEach(matchSaleVo -> {
-                        if (saleVo.getProductBarcode().equals(matchSaleVo.getProductBarcode())
-                                && saleVo.getWarehouseName().equals(matchSaleVo.getWarehouseName())) {
-                            if (item.getSubType().equals("销售出库")) {
-                                matchSaleVo.setSalesAmount(Optional.ofNullable(matchSaleVo.getSalesAmount()).orElse(BigDecimal.ZERO)
-                                        .add(Optional.ofNullable(saleSub.getTaxIncludedAmount()).orElse(BigDecimal.ZERO)));
-                                matchSaleVo.setSalesNumber(Optional.ofNullable(matchSaleVo.getSalesNumber()).orElse(0)
-                                        + Optional.ofNullable(saleSub.getProductNumber()).orElse(0));
-                            } else if (item.getSubType().equals("销售退货")) {
-                                matchSaleVo.setSalesRefundAmount(Optional.ofNullable(matchSaleVo.getSalesRefundAmount()).orElse(BigDecimal.ZERO)
-                                        .add(Optional.ofNullable(saleSub.getTaxIncludedAmount()).orElse(BigDecimal.ZERO)));
-                                matchSaleVo.setSalesRefundNumber(Optional.ofNullable(matchSaleVo.getSalesRefundNumber()).orElse(0)
-                                        + Optional.ofNullable(saleSub.getProductNumber()).orElse(0));
-                            }
-                            if (saleVo.getSalesAmount() == null) {
-                                saleVo.setSalesAmount(BigDecimal.ZERO);
-                            }
-                            if (saleVo.getSalesRefundAmount() == null) {
-                                saleVo.setSalesRefundAmount(BigDecimal.ZERO);
-                            }
-                            if (saleVo.getSalesNumber() == null) {
-                                saleVo.setSalesNumber(0);
-                            }
-                            if (saleVo.getSalesRefundNumber() == null) {
-                                saleVo.setSalesRefundNumber(0);
-                            }
-
-                            matchSaleVo.setSalesLastAmount(Optional.ofNullable(matchSaleVo.getSalesAmount()).orElse(BigDecimal.ZERO)
-                                    .subtract(Optional.ofNullable(matchSaleVo.getSalesRefundAmount()).orElse(BigDecimal.ZERO)));
-                        }
-                    });
+                if (saleVo.getSalesAmount() == null) {
+                    saleVo.setSalesAmount(BigDecimal.ZERO);
+                }
+                if (saleVo.getSalesRefundAmount() == null) {
+                    saleVo.setSalesRefundAmount(BigDecimal.ZERO);
+                }
+                if (saleVo.getSalesNumber() == null) {
+                    saleVo.setSalesNumber(0);
+                }
+                if (saleVo.getSalesRefundNumber() == null) {
+                    saleVo.setSalesRefundNumber(0);
                 }
+
+                matchSaleVo.setSalesLastAmount(Optional.ofNullable(matchSaleVo.getSalesAmount()).orElse(BigDecimal.ZERO)
+                        .subtract(Optional.ofNullable(matchSaleVo.getSalesRefundAmount()).orElse(BigDecimal.ZERO)));
             }
         });
+        var saleVos = new ArrayList<>(saleVoMap.values());
         result.setRecords(saleVos);
         result.setPages(salePage.getPages());
         result.setSize(salePage.getSize());
@@ -1321,613 +991,29 @@ public class ReceiptServiceImpl implements ReceiptService {
 
     @Override
     public Response<Page<ShipmentsDetailVO>> getShipmentsDetail(QueryShipmentsDetailDTO queryShipmentsDetailDTO) {
-        var result = new Page<ShipmentsDetailVO>(queryShipmentsDetailDTO.getPage(), queryShipmentsDetailDTO.getPageSize());
-        var retailDetailVos = new ArrayList<ShipmentsDetailVO>();
-        var retailData = receiptRetailService.lambdaQuery()
-                .eq(StringUtils.hasLength(queryShipmentsDetailDTO.getReceiptNumber()), ReceiptRetailMain::getReceiptNumber, queryShipmentsDetailDTO.getReceiptNumber())
-                .eq(queryShipmentsDetailDTO.getOperatorId() != null, ReceiptRetailMain::getCreateBy, queryShipmentsDetailDTO.getOperatorId())
-                .eq(queryShipmentsDetailDTO.getRelatedPersonId() != null, ReceiptRetailMain::getMemberId, queryShipmentsDetailDTO.getRelatedPersonId())
-                .eq(ReceiptRetailMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptRetailMain::getSubType, "零售出库")
-                .like(StringUtils.hasLength(queryShipmentsDetailDTO.getRemark()), ReceiptRetailMain::getRemark, queryShipmentsDetailDTO.getRemark())
-                .ge(queryShipmentsDetailDTO.getStartDate() != null, ReceiptRetailMain::getCreateTime, queryShipmentsDetailDTO.getStartDate())
-                .le(queryShipmentsDetailDTO.getEndDate() != null, ReceiptRetailMain::getCreateTime, queryShipmentsDetailDTO.getEndDate())
-                .list();
-
-        var salesData = receiptSaleService.lambdaQuery()
-                .eq(StringUtils.hasLength(queryShipmentsDetailDTO.getReceiptNumber()), ReceiptSaleMain::getReceiptNumber, queryShipmentsDetailDTO.getReceiptNumber())
-                .eq(queryShipmentsDetailDTO.getOperatorId() != null, ReceiptSaleMain::getCreateBy, queryShipmentsDetailDTO.getOperatorId())
-                .eq(queryShipmentsDetailDTO.getRelatedPersonId() != null, ReceiptSaleMain::getCustomerId, queryShipmentsDetailDTO.getRelatedPersonId())
-                .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptSaleMain::getSubType, "销售出库")
-                .like(StringUtils.hasLength(queryShipmentsDetailDTO.getRemark()), ReceiptSaleMain::getRemark, queryShipmentsDetailDTO.getRemark())
-                .ge(queryShipmentsDetailDTO.getStartDate() != null, ReceiptSaleMain::getCreateTime, queryShipmentsDetailDTO.getStartDate())
-                .le(queryShipmentsDetailDTO.getEndDate() != null, ReceiptSaleMain::getCreateTime, queryShipmentsDetailDTO.getEndDate())
-                .list();
-
-        var purchaseData = receiptPurchaseService.lambdaQuery()
-                .eq(StringUtils.hasLength(queryShipmentsDetailDTO.getReceiptNumber()), ReceiptPurchaseMain::getReceiptNumber, queryShipmentsDetailDTO.getReceiptNumber())
-                .eq(queryShipmentsDetailDTO.getOperatorId() != null, ReceiptPurchaseMain::getCreateBy, queryShipmentsDetailDTO.getOperatorId())
-                .eq(queryShipmentsDetailDTO.getRelatedPersonId() != null, ReceiptPurchaseMain::getSupplierId, queryShipmentsDetailDTO.getRelatedPersonId())
-                .eq(ReceiptPurchaseMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptPurchaseMain::getSubType, "采购退货")
-                .like(StringUtils.hasLength(queryShipmentsDetailDTO.getRemark()), ReceiptPurchaseMain::getRemark, queryShipmentsDetailDTO.getRemark())
-                .ge(queryShipmentsDetailDTO.getStartDate() != null, ReceiptPurchaseMain::getCreateTime, queryShipmentsDetailDTO.getStartDate())
-                .le(queryShipmentsDetailDTO.getEndDate() != null, ReceiptPurchaseMain::getCreateTime, queryShipmentsDetailDTO.getEndDate())
-                .list();
-
-        if (!retailData.isEmpty()) {
-            var retailSubs = receiptRetailSubService.lambdaQuery()
-                    .in(ReceiptRetailSub::getReceiptMainId, retailData.stream().map(ReceiptRetailMain::getId).toList())
-                    .eq(queryShipmentsDetailDTO.getWarehouseId() != null, ReceiptRetailSub::getWarehouseId, queryShipmentsDetailDTO.getWarehouseId())
-                    .eq(ReceiptRetailSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptRetailSub retailSubData : retailSubs) {
-                var product = productService.getById(retailSubData.getProductId());
-                var retailDetailVo = ShipmentsDetailVO.builder()
-                        .productName(product.getProductName())
-                        .productStandard(product.getProductStandard())
-                        .productModel(product.getProductModel())
-                        .productUnit(product.getProductUnit())
-                        .productBarcode(retailSubData.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(retailSubData.getWarehouseId()))
-                        .productNumber(retailSubData.getProductNumber())
-                        .unitPrice(retailSubData.getUnitPrice())
-                        .amount(retailSubData.getTotalAmount())
-                        .taxRate(BigDecimal.ZERO)
-                        .taxAmount(BigDecimal.ZERO)
-                        .build();
-
-                for (ReceiptRetailMain retail : retailData) {
-                    if (retail.getId().equals(retailSubData.getReceiptMainId())) {
-                        retailDetailVo.setReceiptNumber(retail.getReceiptNumber());
-                        retailDetailVo.setCreateTime(retail.getCreateTime());
-                        retailDetailVo.setType("会员");
-                        retailDetailVo.setName(commonService.getMemberName(retail.getMemberId()));
-                    }
-                }
-                retailDetailVos.add(retailDetailVo);
-            }
-        }
-
-        if (!salesData.isEmpty()) {
-            var salesSubs = receiptSaleSubService.lambdaQuery()
-                    .in(ReceiptSaleSub::getReceiptSaleMainId, salesData.stream().map(ReceiptSaleMain::getId).toList())
-                    .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptSaleSub salesSubData : salesSubs) {
-                var product = productService.getById(salesSubData.getProductId());
-                var saleDetailVo = ShipmentsDetailVO.builder()
-                        .productName(product.getProductName())
-                        .productStandard(product.getProductStandard())
-                        .productModel(product.getProductModel())
-                        .productUnit(product.getProductUnit())
-                        .productBarcode(salesSubData.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(salesSubData.getWarehouseId()))
-                        .productNumber(salesSubData.getProductNumber())
-                        .unitPrice(salesSubData.getUnitPrice())
-                        .amount(salesSubData.getTotalAmount())
-                        .taxRate(salesSubData.getTaxRate())
-                        .taxAmount(salesSubData.getTaxAmount())
-                        .build();
-
-                for (ReceiptSaleMain sale : salesData) {
-                    if (sale.getId().equals(salesSubData.getReceiptSaleMainId())) {
-                        saleDetailVo.setReceiptNumber(sale.getReceiptNumber());
-                        saleDetailVo.setCreateTime(sale.getCreateTime());
-                        saleDetailVo.setType("客户");
-                        saleDetailVo.setName(commonService.getCustomerName(sale.getCustomerId()));
-                    }
-                }
-                retailDetailVos.add(saleDetailVo);
-            }
-        }
-        if (!purchaseData.isEmpty()) {
-            var purchaseSubs = receiptPurchaseSubService.lambdaQuery()
-                    .in(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseData.stream().map(ReceiptPurchaseMain::getId).toList())
-                    .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptPurchaseSub purchaseSubData : purchaseSubs) {
-                var product = productService.getById(purchaseSubData.getProductId());
-                var purchaseDetailVo = ShipmentsDetailVO.builder()
-                        .productName(product.getProductName())
-                        .productStandard(product.getProductStandard())
-                        .productModel(product.getProductModel())
-                        .productUnit(product.getProductUnit())
-                        .productBarcode(purchaseSubData.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(purchaseSubData.getWarehouseId()))
-                        .productNumber(purchaseSubData.getProductNumber())
-                        .unitPrice(purchaseSubData.getUnitPrice())
-                        .amount(purchaseSubData.getTotalAmount())
-                        .taxRate(purchaseSubData.getTaxRate())
-                        .taxAmount(purchaseSubData.getTaxAmount())
-                        .build();
-
-                for (ReceiptPurchaseMain purchase : purchaseData) {
-                    if (purchase.getId().equals(purchaseSubData.getReceiptPurchaseMainId())) {
-                        purchaseDetailVo.setReceiptNumber(purchase.getReceiptNumber());
-                        purchaseDetailVo.setCreateTime(purchase.getCreateTime());
-                        purchaseDetailVo.setType("供应商");
-                        purchaseDetailVo.setName(commonService.getSupplierName(purchase.getSupplierId()));
-                    }
-                }
-                retailDetailVos.add(purchaseDetailVo);
-            }
-        }
-        // 进行手动分页
-        int startIndex = (int) ((result.getCurrent() - 1) * result.getSize());
-        int endIndex = (int) Math.min(startIndex + result.getSize(), retailDetailVos.size());
-        startIndex = Math.min(startIndex, endIndex);
-
-        List<ShipmentsDetailVO> pageRetailDetailVos = new ArrayList<>(retailDetailVos.subList(startIndex, endIndex));
-        result.setRecords(pageRetailDetailVos);
-        result.setTotal(retailDetailVos.size());
+        var page = new Page<ShipmentsDetailVO>(queryShipmentsDetailDTO.getPage(), queryShipmentsDetailDTO.getPageSize());
+        var result = receiptReportMapper.getShipmentsDetail(page, queryShipmentsDetailDTO);
         return Response.responseData(result);
     }
 
     @Override
     public Response<Page<StorageDetailVO>> getStorageDetail(QueryStorageDetailDTO queryStorageDetailDTO) {
-        var result = new Page<StorageDetailVO>(queryStorageDetailDTO.getPage(), queryStorageDetailDTO.getPageSize());
-        var storageDetailVos = new ArrayList<StorageDetailVO>();
-        var retailData = receiptRetailService.lambdaQuery()
-                .eq(StringUtils.hasLength(queryStorageDetailDTO.getReceiptNumber()), ReceiptRetailMain::getReceiptNumber, queryStorageDetailDTO.getReceiptNumber())
-                .eq(queryStorageDetailDTO.getOperatorId() != null, ReceiptRetailMain::getCreateBy, queryStorageDetailDTO.getOperatorId())
-                .eq(queryStorageDetailDTO.getRelatedPersonId() != null, ReceiptRetailMain::getMemberId, queryStorageDetailDTO.getRelatedPersonId())
-                .eq(ReceiptRetailMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptRetailMain::getSubType, "零售退货")
-                .like(StringUtils.hasLength(queryStorageDetailDTO.getRemark()), ReceiptRetailMain::getRemark, queryStorageDetailDTO.getRemark())
-                .ge(queryStorageDetailDTO.getStartDate() != null, ReceiptRetailMain::getCreateTime, queryStorageDetailDTO.getStartDate())
-                .le(queryStorageDetailDTO.getEndDate() != null, ReceiptRetailMain::getCreateTime, queryStorageDetailDTO.getEndDate())
-                .list();
-
-        var salesData = receiptSaleService.lambdaQuery()
-                .eq(StringUtils.hasLength(queryStorageDetailDTO.getReceiptNumber()), ReceiptSaleMain::getReceiptNumber, queryStorageDetailDTO.getReceiptNumber())
-                .eq(queryStorageDetailDTO.getOperatorId() != null, ReceiptSaleMain::getCreateBy, queryStorageDetailDTO.getOperatorId())
-                .eq(queryStorageDetailDTO.getRelatedPersonId() != null, ReceiptSaleMain::getCustomerId, queryStorageDetailDTO.getRelatedPersonId())
-                .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptSaleMain::getSubType, "销售退货")
-                .like(StringUtils.hasLength(queryStorageDetailDTO.getRemark()), ReceiptSaleMain::getRemark, queryStorageDetailDTO.getRemark())
-                .ge(queryStorageDetailDTO.getStartDate() != null, ReceiptSaleMain::getCreateTime, queryStorageDetailDTO.getStartDate())
-                .le(queryStorageDetailDTO.getEndDate() != null, ReceiptSaleMain::getCreateTime, queryStorageDetailDTO.getEndDate())
-                .list();
-
-        var purchaseData = receiptPurchaseService.lambdaQuery()
-                .eq(StringUtils.hasLength(queryStorageDetailDTO.getReceiptNumber()), ReceiptPurchaseMain::getReceiptNumber, queryStorageDetailDTO.getReceiptNumber())
-                .eq(queryStorageDetailDTO.getOperatorId() != null, ReceiptPurchaseMain::getCreateBy, queryStorageDetailDTO.getOperatorId())
-                .eq(queryStorageDetailDTO.getRelatedPersonId() != null, ReceiptPurchaseMain::getSupplierId, queryStorageDetailDTO.getRelatedPersonId())
-                .eq(ReceiptPurchaseMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptPurchaseMain::getSubType, "采购入库")
-                .like(StringUtils.hasLength(queryStorageDetailDTO.getRemark()), ReceiptPurchaseMain::getRemark, queryStorageDetailDTO.getRemark())
-                .ge(queryStorageDetailDTO.getStartDate() != null, ReceiptPurchaseMain::getCreateTime, queryStorageDetailDTO.getStartDate())
-                .le(queryStorageDetailDTO.getEndDate() != null, ReceiptPurchaseMain::getCreateTime, queryStorageDetailDTO.getEndDate())
-                .list();
-
-        if (!retailData.isEmpty()) {
-            var retailSubs = receiptRetailSubService.lambdaQuery()
-                    .in(ReceiptRetailSub::getReceiptMainId, retailData.stream().map(ReceiptRetailMain::getId).toList())
-                    .eq(queryStorageDetailDTO.getWarehouseId() != null, ReceiptRetailSub::getWarehouseId, queryStorageDetailDTO.getWarehouseId())
-                    .eq(ReceiptRetailSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptRetailSub retailSubData : retailSubs) {
-                var product = productService.getById(retailSubData.getProductId());
-                var retailDetailVo = StorageDetailVO.builder()
-                        .productName(product.getProductName())
-                        .productStandard(product.getProductStandard())
-                        .productModel(product.getProductModel())
-                        .productUnit(product.getProductUnit())
-                        .productBarcode(retailSubData.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(retailSubData.getWarehouseId()))
-                        .productNumber(retailSubData.getProductNumber())
-                        .unitPrice(retailSubData.getUnitPrice())
-                        .amount(retailSubData.getTotalAmount())
-                        .taxRate(BigDecimal.ZERO)
-                        .taxAmount(BigDecimal.ZERO)
-                        .build();
-
-                for (ReceiptRetailMain retail : retailData) {
-                    if (retail.getId().equals(retailSubData.getReceiptMainId())) {
-                        retailDetailVo.setReceiptNumber(retail.getReceiptNumber());
-                        retailDetailVo.setCreateTime(retail.getCreateTime());
-                        retailDetailVo.setType("会员");
-                        retailDetailVo.setName(commonService.getMemberName(retail.getMemberId()));
-                    }
-                }
-                storageDetailVos.add(retailDetailVo);
-            }
-        }
-
-        if (!salesData.isEmpty()) {
-            var salesSubs = receiptSaleSubService.lambdaQuery()
-                    .in(ReceiptSaleSub::getReceiptSaleMainId, salesData.stream().map(ReceiptSaleMain::getId).toList())
-                    .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptSaleSub salesSubData : salesSubs) {
-                var product = productService.getById(salesSubData.getProductId());
-                var saleDetailVo = StorageDetailVO.builder()
-                        .productName(product.getProductName())
-                        .productStandard(product.getProductStandard())
-                        .productModel(product.getProductModel())
-                        .productUnit(product.getProductUnit())
-                        .productBarcode(salesSubData.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(salesSubData.getWarehouseId()))
-                        .productNumber(salesSubData.getProductNumber())
-                        .unitPrice(salesSubData.getUnitPrice())
-                        .amount(salesSubData.getTotalAmount())
-                        .taxRate(salesSubData.getTaxRate())
-                        .taxAmount(salesSubData.getTaxAmount())
-                        .build();
-
-                for (ReceiptSaleMain sale : salesData) {
-                    if (sale.getId().equals(salesSubData.getReceiptSaleMainId())) {
-                        saleDetailVo.setReceiptNumber(sale.getReceiptNumber());
-                        saleDetailVo.setCreateTime(sale.getCreateTime());
-                        saleDetailVo.setType("客户");
-                        saleDetailVo.setName(commonService.getCustomerName(sale.getCustomerId()));
-                    }
-                }
-                storageDetailVos.add(saleDetailVo);
-            }
-        }
-        if (!purchaseData.isEmpty()) {
-            var purchaseSubs = receiptPurchaseSubService.lambdaQuery()
-                    .in(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseData.stream().map(ReceiptPurchaseMain::getId).toList())
-                    .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptPurchaseSub purchaseSubData : purchaseSubs) {
-                var product = productService.getById(purchaseSubData.getProductId());
-                var purchaseDetailVo = StorageDetailVO.builder()
-                        .productName(product.getProductName())
-                        .productStandard(product.getProductStandard())
-                        .productModel(product.getProductModel())
-                        .productUnit(product.getProductUnit())
-                        .productBarcode(purchaseSubData.getProductBarcode())
-                        .warehouseName(commonService.getWarehouseName(purchaseSubData.getWarehouseId()))
-                        .productNumber(purchaseSubData.getProductNumber())
-                        .unitPrice(purchaseSubData.getUnitPrice())
-                        .amount(purchaseSubData.getTotalAmount())
-                        .taxRate(purchaseSubData.getTaxRate())
-                        .taxAmount(purchaseSubData.getTaxAmount())
-                        .build();
-
-                for (ReceiptPurchaseMain purchase : purchaseData) {
-                    if (purchase.getId().equals(purchaseSubData.getReceiptPurchaseMainId())) {
-                        purchaseDetailVo.setReceiptNumber(purchase.getReceiptNumber());
-                        purchaseDetailVo.setCreateTime(purchase.getCreateTime());
-                        purchaseDetailVo.setType("供应商");
-                        purchaseDetailVo.setName(commonService.getSupplierName(purchase.getSupplierId()));
-                    }
-                }
-                storageDetailVos.add(purchaseDetailVo);
-            }
-        }
-        // 进行手动分页
-        int startIndex = (int) ((result.getCurrent() - 1) * result.getSize());
-        int endIndex = (int) Math.min(startIndex + result.getSize(), storageDetailVos.size());
-        startIndex = Math.min(startIndex, endIndex);
-
-        List<StorageDetailVO> pageStorageDetailVos = new ArrayList<>(storageDetailVos.subList(startIndex, endIndex));
-        result.setRecords(pageStorageDetailVos);
-        result.setTotal(storageDetailVos.size());
+        var page = new Page<StorageDetailVO>(queryStorageDetailDTO.getPage(), queryStorageDetailDTO.getPageSize());
+        var result = receiptReportMapper.getStorageDetail(page, queryStorageDetailDTO);
         return Response.responseData(result);
     }
 
     @Override
     public Response<Page<ShipmentsSummaryVO>> getShipmentsSummary(QueryShipmentsSummaryDTO queryShipmentsSummaryDTO) {
-        var result = new Page<ShipmentsSummaryVO>(queryShipmentsSummaryDTO.getPage(), queryShipmentsSummaryDTO.getPageSize());
-        var shipmentsSummaryVos = new ArrayList<ShipmentsSummaryVO>();
-        var retailData = receiptRetailService.lambdaQuery()
-                .eq(queryShipmentsSummaryDTO.getRelatedPersonId() != null, ReceiptRetailMain::getMemberId, queryShipmentsSummaryDTO.getRelatedPersonId())
-                .eq(ReceiptRetailMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptRetailMain::getSubType, "零售出库")
-                .ge(queryShipmentsSummaryDTO.getStartDate() != null, ReceiptRetailMain::getCreateTime, queryShipmentsSummaryDTO.getStartDate())
-                .le(queryShipmentsSummaryDTO.getEndDate() != null, ReceiptRetailMain::getCreateTime, queryShipmentsSummaryDTO.getEndDate())
-                .list();
-
-        var salesData = receiptSaleService.lambdaQuery()
-                .eq(queryShipmentsSummaryDTO.getRelatedPersonId() != null, ReceiptSaleMain::getCustomerId, queryShipmentsSummaryDTO.getRelatedPersonId())
-                .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptSaleMain::getSubType, "销售出库")
-                .ge(queryShipmentsSummaryDTO.getStartDate() != null, ReceiptSaleMain::getCreateTime, queryShipmentsSummaryDTO.getStartDate())
-                .le(queryShipmentsSummaryDTO.getEndDate() != null, ReceiptSaleMain::getCreateTime, queryShipmentsSummaryDTO.getEndDate())
-                .list();
-
-        var purchaseData = receiptPurchaseService.lambdaQuery()
-                .eq(queryShipmentsSummaryDTO.getRelatedPersonId() != null, ReceiptPurchaseMain::getSupplierId, queryShipmentsSummaryDTO.getRelatedPersonId())
-                .eq(ReceiptPurchaseMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptPurchaseMain::getSubType, "采购退货")
-                .ge(queryShipmentsSummaryDTO.getStartDate() != null, ReceiptPurchaseMain::getCreateTime, queryShipmentsSummaryDTO.getStartDate())
-                .le(queryShipmentsSummaryDTO.getEndDate() != null, ReceiptPurchaseMain::getCreateTime, queryShipmentsSummaryDTO.getEndDate())
-                .list();
-
-        if (!retailData.isEmpty()) {
-            var retailSubs = receiptRetailSubService.lambdaQuery()
-                    .in(ReceiptRetailSub::getReceiptMainId, retailData.stream().map(ReceiptRetailMain::getId).toList())
-                    .eq(queryShipmentsSummaryDTO.getWarehouseId() != null, ReceiptRetailSub::getWarehouseId, queryShipmentsSummaryDTO.getWarehouseId())
-                    .eq(ReceiptRetailSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptRetailSub retailSubData : retailSubs) {
-                if (shipmentsSummaryVos.stream().noneMatch(matchShipmentsSummaryVo -> retailSubData.getProductBarcode().equals(matchShipmentsSummaryVo.getProductBarcode())
-                        && commonService.getWarehouseName(retailSubData.getWarehouseId())
-                        .equals(matchShipmentsSummaryVo.getWarehouseName()))) {
-                    var product = productService.getById(retailSubData.getProductId());
-
-                    var shipmentsSummaryVo = ShipmentsSummaryVO.builder()
-                            .productBarcode(retailSubData.getProductBarcode())
-                            .warehouseName(commonService.getWarehouseName(retailSubData.getWarehouseId()))
-                            .productName(product.getProductName())
-                            .productStandard(product.getProductStandard())
-                            .productModel(product.getProductModel())
-                            .productUnit(product.getProductUnit())
-                            .productCategoryName(commonService.getProductCategoryName(product.getProductCategoryId()))
-                            .shipmentsAmount(retailSubData.getTotalAmount())
-                            .shipmentsNumber(retailSubData.getProductNumber())
-                            .createTime(retailSubData.getCreateTime())
-                            .build();
-                    shipmentsSummaryVos.add(shipmentsSummaryVo);
-                } else {
-                    shipmentsSummaryVos.forEach(matchShipmentsSummaryVo -> {
-                        if (retailSubData.getProductBarcode().equals(matchShipmentsSummaryVo.getProductBarcode())
-                                && commonService.getWarehouseName(retailSubData.getWarehouseId())
-                                .equals(matchShipmentsSummaryVo.getWarehouseName())) {
-                            matchShipmentsSummaryVo.setShipmentsAmount(Optional.ofNullable(matchShipmentsSummaryVo.getShipmentsAmount()).orElse(BigDecimal.ZERO)
-                                    .add(Optional.ofNullable(retailSubData.getTotalAmount()).orElse(BigDecimal.ZERO)));
-                            matchShipmentsSummaryVo.setShipmentsNumber(Optional.ofNullable(matchShipmentsSummaryVo.getShipmentsNumber()).orElse(0)
-                                    + Optional.ofNullable(retailSubData.getProductNumber()).orElse(0));
-                        }
-                    });
-                }
-            }
-        }
-
-        if (!salesData.isEmpty()) {
-            var salesSubs = receiptSaleSubService.lambdaQuery()
-                    .in(ReceiptSaleSub::getReceiptSaleMainId, salesData.stream().map(ReceiptSaleMain::getId).toList())
-                    .eq(queryShipmentsSummaryDTO.getWarehouseId() != null, ReceiptSaleSub::getWarehouseId, queryShipmentsSummaryDTO.getWarehouseId())
-                    .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-
-            for (ReceiptSaleSub salesSubData : salesSubs) {
-                if (shipmentsSummaryVos.stream().noneMatch(matchShipmentsSummaryVo -> salesSubData.getProductBarcode()
-                        .equals(matchShipmentsSummaryVo.getProductBarcode())
-                        && commonService.getWarehouseName(salesSubData.getWarehouseId())
-                        .equals(matchShipmentsSummaryVo.getWarehouseName()))) {
-
-                    var product = productService.getById(salesSubData.getProductId());
-                    var shipmentsSummaryVo = ShipmentsSummaryVO.builder()
-                            .productBarcode(salesSubData.getProductBarcode())
-                            .warehouseName(commonService.getWarehouseName(salesSubData.getWarehouseId()))
-                            .productName(product.getProductName())
-                            .productStandard(product.getProductStandard())
-                            .productModel(product.getProductModel())
-                            .productUnit(product.getProductUnit())
-                            .productCategoryName(commonService.getProductCategoryName(product.getProductCategoryId()))
-                            .shipmentsAmount(salesSubData.getTotalAmount())
-                            .shipmentsNumber(salesSubData.getProductNumber())
-                            .createTime(salesSubData.getCreateTime())
-                            .build();
-                    shipmentsSummaryVos.add(shipmentsSummaryVo);
-                } else {
-                    shipmentsSummaryVos.forEach(matchShipmentsSummaryVo -> {
-                        if (salesSubData.getProductBarcode().equals(matchShipmentsSummaryVo.getProductBarcode())
-                                && commonService.getWarehouseName(salesSubData.getWarehouseId())
-                                .equals(matchShipmentsSummaryVo.getWarehouseName())) {
-                            matchShipmentsSummaryVo.setShipmentsAmount(Optional.ofNullable(matchShipmentsSummaryVo.getShipmentsAmount()).orElse(BigDecimal.ZERO)
-                                    .add(Optional.ofNullable(salesSubData.getTotalAmount()).orElse(BigDecimal.ZERO)));
-                            matchShipmentsSummaryVo.setShipmentsNumber(Optional.ofNullable(matchShipmentsSummaryVo.getShipmentsNumber()).orElse(0)
-                                    + Optional.ofNullable(salesSubData.getProductNumber()).orElse(0));
-                        }
-                    });
-                }
-            }
-        }
-        if (!purchaseData.isEmpty()) {
-            var purchaseSubs = receiptPurchaseSubService.lambdaQuery()
-                    .in(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseData.stream().map(ReceiptPurchaseMain::getId).toList())
-                    .eq(queryShipmentsSummaryDTO.getWarehouseId() != null, ReceiptPurchaseSub::getWarehouseId, queryShipmentsSummaryDTO.getWarehouseId())
-                    .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptPurchaseSub purchaseSubData : purchaseSubs) {
-                if (shipmentsSummaryVos.stream().noneMatch(matchShipmentsSummaryVo -> purchaseSubData.getProductBarcode()
-                        .equals(matchShipmentsSummaryVo.getProductBarcode())
-                        && commonService.getWarehouseName(purchaseSubData.getWarehouseId())
-                        .equals(matchShipmentsSummaryVo.getWarehouseName()))) {
-
-                    var product = productService.getById(purchaseSubData.getProductId());
-                    var shipmentsSummaryVo = ShipmentsSummaryVO.builder()
-                            .productBarcode(purchaseSubData.getProductBarcode())
-                            .warehouseName(commonService.getWarehouseName(purchaseSubData.getWarehouseId()))
-                            .productName(product.getProductName())
-                            .productStandard(product.getProductStandard())
-                            .productModel(product.getProductModel())
-                            .productUnit(product.getProductUnit())
-                            .productCategoryName(commonService.getProductCategoryName(product.getProductCategoryId()))
-                            .shipmentsAmount(purchaseSubData.getTotalAmount())
-                            .shipmentsNumber(purchaseSubData.getProductNumber())
-                            .createTime(purchaseSubData.getCreateTime())
-                            .build();
-                    shipmentsSummaryVos.add(shipmentsSummaryVo);
-                } else {
-                    shipmentsSummaryVos.forEach(matchShipmentsSummaryVo -> {
-                        if (purchaseSubData.getProductBarcode().equals(matchShipmentsSummaryVo.getProductBarcode())
-                                && commonService.getWarehouseName(purchaseSubData.getWarehouseId())
-                                .equals(matchShipmentsSummaryVo.getWarehouseName())) {
-                            matchShipmentsSummaryVo.setShipmentsAmount(Optional.ofNullable(matchShipmentsSummaryVo.getShipmentsAmount()).orElse(BigDecimal.ZERO)
-                                    .add(Optional.ofNullable(purchaseSubData.getTotalAmount()).orElse(BigDecimal.ZERO)));
-                            matchShipmentsSummaryVo.setShipmentsNumber(Optional.ofNullable(matchShipmentsSummaryVo.getShipmentsNumber()).orElse(0)
-                                    + Optional.ofNullable(purchaseSubData.getProductNumber()).orElse(0));
-                        }
-                    });
-                }
-            }
-        }
-        // 进行手动分页
-        int startIndex = (int) ((result.getCurrent() - 1) * result.getSize());
-        int endIndex = (int) Math.min(startIndex + result.getSize(), shipmentsSummaryVos.size());
-        startIndex = Math.min(startIndex, endIndex);
-
-        List<ShipmentsSummaryVO> shipmentsSummaryVOS = new ArrayList<>(shipmentsSummaryVos.subList(startIndex, endIndex));
-        result.setRecords(shipmentsSummaryVOS);
-        result.setTotal(shipmentsSummaryVos.size());
+        var page = new Page<ShipmentsSummaryVO>(queryShipmentsSummaryDTO.getPage(), queryShipmentsSummaryDTO.getPageSize());
+        var result = receiptReportMapper.getShipmentsSummary(page, queryShipmentsSummaryDTO);
         return Response.responseData(result);
     }
 
     @Override
     public Response<Page<StorageSummaryVO>> getStorageSummary(QueryStorageSummaryDTO queryStorageSummaryDTO) {
-        var result = new Page<StorageSummaryVO>(queryStorageSummaryDTO.getPage(), queryStorageSummaryDTO.getPageSize());
-        var storageSummaryVos = new ArrayList<StorageSummaryVO>();
-        var retailData = receiptRetailService.lambdaQuery()
-                .eq(queryStorageSummaryDTO.getRelatedPersonId() != null, ReceiptRetailMain::getMemberId, queryStorageSummaryDTO.getRelatedPersonId())
-                .eq(ReceiptRetailMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptRetailMain::getSubType, "零售退货")
-                .ge(queryStorageSummaryDTO.getStartDate() != null, ReceiptRetailMain::getCreateTime, queryStorageSummaryDTO.getStartDate())
-                .le(queryStorageSummaryDTO.getEndDate() != null, ReceiptRetailMain::getCreateTime, queryStorageSummaryDTO.getEndDate())
-                .list();
-
-        var salesData = receiptSaleService.lambdaQuery()
-                .eq(queryStorageSummaryDTO.getRelatedPersonId() != null, ReceiptSaleMain::getCustomerId, queryStorageSummaryDTO.getRelatedPersonId())
-                .eq(ReceiptSaleMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptSaleMain::getSubType, "销售退货")
-                .ge(queryStorageSummaryDTO.getStartDate() != null, ReceiptSaleMain::getCreateTime, queryStorageSummaryDTO.getStartDate())
-                .le(queryStorageSummaryDTO.getEndDate() != null, ReceiptSaleMain::getCreateTime, queryStorageSummaryDTO.getEndDate())
-                .list();
-
-        var purchaseData = receiptPurchaseService.lambdaQuery()
-                .eq(queryStorageSummaryDTO.getRelatedPersonId() != null, ReceiptPurchaseMain::getSupplierId, queryStorageSummaryDTO.getRelatedPersonId())
-                .eq(ReceiptPurchaseMain::getDeleteFlag, CommonConstants.NOT_DELETED)
-                .eq(ReceiptPurchaseMain::getSubType, "采购入库")
-                .ge(queryStorageSummaryDTO.getStartDate() != null, ReceiptPurchaseMain::getCreateTime, queryStorageSummaryDTO.getStartDate())
-                .le(queryStorageSummaryDTO.getEndDate() != null, ReceiptPurchaseMain::getCreateTime, queryStorageSummaryDTO.getEndDate())
-                .list();
-
-        if (!retailData.isEmpty()) {
-            var retailSubs = receiptRetailSubService.lambdaQuery()
-                    .in(ReceiptRetailSub::getReceiptMainId, retailData.stream().map(ReceiptRetailMain::getId).toList())
-                    .eq(queryStorageSummaryDTO.getWarehouseId() != null, ReceiptRetailSub::getWarehouseId, queryStorageSummaryDTO.getWarehouseId())
-                    .eq(ReceiptRetailSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptRetailSub retailSubData : retailSubs) {
-                if (storageSummaryVos.stream().noneMatch(matchShipmentsSummaryVo -> retailSubData.getProductBarcode().equals(matchShipmentsSummaryVo.getProductBarcode())
-                        && commonService.getWarehouseName(retailSubData.getWarehouseId())
-                        .equals(matchShipmentsSummaryVo.getWarehouseName()))) {
-                    var product = productService.getById(retailSubData.getProductId());
-
-                    var storageSummaryVo = StorageSummaryVO.builder()
-                            .productBarcode(retailSubData.getProductBarcode())
-                            .warehouseName(commonService.getWarehouseName(retailSubData.getWarehouseId()))
-                            .productName(product.getProductName())
-                            .productStandard(product.getProductStandard())
-                            .productModel(product.getProductModel())
-                            .productUnit(product.getProductUnit())
-                            .productCategoryName(commonService.getProductCategoryName(product.getProductCategoryId()))
-                            .storageAmount(retailSubData.getTotalAmount())
-                            .storageNumber(retailSubData.getProductNumber())
-                            .createTime(retailSubData.getCreateTime())
-                            .build();
-                    storageSummaryVos.add(storageSummaryVo);
-                } else {
-                    storageSummaryVos.forEach(matchShipmentsSummaryVo -> {
-                        if (retailSubData.getProductBarcode().equals(matchShipmentsSummaryVo.getProductBarcode())
-                                && commonService.getWarehouseName(retailSubData.getWarehouseId())
-                                .equals(matchShipmentsSummaryVo.getWarehouseName())) {
-                            matchShipmentsSummaryVo.setStorageAmount(Optional.ofNullable(matchShipmentsSummaryVo.getStorageAmount()).orElse(BigDecimal.ZERO)
-                                    .add(Optional.ofNullable(retailSubData.getTotalAmount()).orElse(BigDecimal.ZERO)));
-                            matchShipmentsSummaryVo.setStorageNumber(Optional.ofNullable(matchShipmentsSummaryVo.getStorageNumber()).orElse(0)
-                                    + Optional.ofNullable(retailSubData.getProductNumber()).orElse(0));
-                        }
-                    });
-                }
-            }
-        }
-
-        if (!salesData.isEmpty()) {
-            var salesSubs = receiptSaleSubService.lambdaQuery()
-                    .in(ReceiptSaleSub::getReceiptSaleMainId, salesData.stream().map(ReceiptSaleMain::getId).toList())
-                    .eq(queryStorageSummaryDTO.getWarehouseId() != null, ReceiptSaleSub::getWarehouseId, queryStorageSummaryDTO.getWarehouseId())
-                    .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-
-            for (ReceiptSaleSub salesSubData : salesSubs) {
-                if (storageSummaryVos.stream().noneMatch(matchShipmentsSummaryVo -> salesSubData.getProductBarcode()
-                        .equals(matchShipmentsSummaryVo.getProductBarcode())
-                        && commonService.getWarehouseName(salesSubData.getWarehouseId())
-                        .equals(matchShipmentsSummaryVo.getWarehouseName()))) {
-
-                    var product = productService.getById(salesSubData.getProductId());
-                    var storageSummaryVo = StorageSummaryVO.builder()
-                            .productBarcode(salesSubData.getProductBarcode())
-                            .warehouseName(commonService.getWarehouseName(salesSubData.getWarehouseId()))
-                            .productName(product.getProductName())
-                            .productStandard(product.getProductStandard())
-                            .productModel(product.getProductModel())
-                            .productUnit(product.getProductUnit())
-                            .productCategoryName(commonService.getProductCategoryName(product.getProductCategoryId()))
-                            .storageAmount(salesSubData.getTotalAmount())
-                            .storageNumber(salesSubData.getProductNumber())
-                            .createTime(salesSubData.getCreateTime())
-                            .build();
-                    storageSummaryVos.add(storageSummaryVo);
-                } else {
-                    storageSummaryVos.forEach(matchShipmentsSummaryVo -> {
-                        if (salesSubData.getProductBarcode().equals(matchShipmentsSummaryVo.getProductBarcode())
-                                && commonService.getWarehouseName(salesSubData.getWarehouseId())
-                                .equals(matchShipmentsSummaryVo.getWarehouseName())) {
-                            matchShipmentsSummaryVo.setStorageAmount(Optional.ofNullable(matchShipmentsSummaryVo.getStorageAmount()).orElse(BigDecimal.ZERO)
-                                    .add(Optional.ofNullable(salesSubData.getTotalAmount()).orElse(BigDecimal.ZERO)));
-                            matchShipmentsSummaryVo.setStorageNumber(Optional.ofNullable(matchShipmentsSummaryVo.getStorageNumber()).orElse(0)
-                                    + Optional.ofNullable(salesSubData.getProductNumber()).orElse(0));
-                        }
-                    });
-                }
-            }
-        }
-        if (!purchaseData.isEmpty()) {
-            var purchaseSubs = receiptPurchaseSubService.lambdaQuery()
-                    .in(ReceiptPurchaseSub::getReceiptPurchaseMainId, purchaseData.stream().map(ReceiptPurchaseMain::getId).toList())
-                    .eq(queryStorageSummaryDTO.getWarehouseId() != null, ReceiptPurchaseSub::getWarehouseId, queryStorageSummaryDTO.getWarehouseId())
-                    .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
-            for (ReceiptPurchaseSub purchaseSubData : purchaseSubs) {
-                if (storageSummaryVos.stream().noneMatch(matchShipmentsSummaryVo -> purchaseSubData.getProductBarcode()
-                        .equals(matchShipmentsSummaryVo.getProductBarcode())
-                        && commonService.getWarehouseName(purchaseSubData.getWarehouseId())
-                        .equals(matchShipmentsSummaryVo.getWarehouseName()))) {
-
-                    var product = productService.getById(purchaseSubData.getProductId());
-                    var storageSummaryVo = StorageSummaryVO.builder()
-                            .productBarcode(purchaseSubData.getProductBarcode())
-                            .warehouseName(commonService.getWarehouseName(purchaseSubData.getWarehouseId()))
-                            .productName(product.getProductName())
-                            .productStandard(product.getProductStandard())
-                            .productModel(product.getProductModel())
-                            .productUnit(product.getProductUnit())
-                            .productCategoryName(commonService.getProductCategoryName(product.getProductCategoryId()))
-                            .storageAmount(purchaseSubData.getTotalAmount())
-                            .storageNumber(purchaseSubData.getProductNumber())
-                            .createTime(purchaseSubData.getCreateTime())
-                            .build();
-                    storageSummaryVos.add(storageSummaryVo);
-                } else {
-                    storageSummaryVos.forEach(matchShipmentsSummaryVo -> {
-                        if (purchaseSubData.getProductBarcode().equals(matchShipmentsSummaryVo.getProductBarcode())
-                                && commonService.getWarehouseName(purchaseSubData.getWarehouseId())
-                                .equals(matchShipmentsSummaryVo.getWarehouseName())) {
-                            matchShipmentsSummaryVo.setStorageAmount(Optional.ofNullable(matchShipmentsSummaryVo.getStorageAmount()).orElse(BigDecimal.ZERO)
-                                    .add(Optional.ofNullable(purchaseSubData.getTotalAmount()).orElse(BigDecimal.ZERO)));
-                            matchShipmentsSummaryVo.setStorageNumber(Optional.ofNullable(matchShipmentsSummaryVo.getStorageNumber()).orElse(0)
-                                    + Optional.ofNullable(purchaseSubData.getProductNumber()).orElse(0));
-                        }
-                    });
-                }
-            }
-        }
-        // 进行手动分页
-        int startIndex = (int) ((result.getCurrent() - 1) * result.getSize());
-        int endIndex = (int) Math.min(startIndex + result.getSize(), storageSummaryVos.size());
-        startIndex = Math.min(startIndex, endIndex);
-
-        List<StorageSummaryVO> storageSummaryVOS = new ArrayList<>(storageSummaryVos.subList(startIndex, endIndex));
-        result.setRecords(storageSummaryVOS);
-        result.setTotal(storageSummaryVos.size());
+        var page = new Page<StorageSummaryVO>(queryStorageSummaryDTO.getPage(), queryStorageSummaryDTO.getPageSize());
+        var result = receiptReportMapper.getStorageSummary(page, queryStorageSummaryDTO);
         return Response.responseData(result);
     }
 
@@ -1984,8 +1070,10 @@ public class ReceiptServiceImpl implements ReceiptService {
         var result = new Page<CustomerBillVO>();
         if (!queryData.getRecords().isEmpty()) {
             var customerBillVos = new ArrayList<CustomerBillVO>();
+            var resolver = commonService.createDimensionResolver()
+                    .addCustomerIds(queryData.getRecords(), ReceiptSaleMain::getCustomerId);
             for (ReceiptSaleMain record : queryData.getRecords()) {
-                var customer = customerService.getById(record.getCustomerId());
+                var customer = resolver.getCustomer(record.getCustomerId());
                 var customerBillVo = CustomerBillVO.builder()
                         .customerId(record.getCustomerId())
                         .customerName(customer.getCustomerName())
@@ -2061,63 +1149,40 @@ public class ReceiptServiceImpl implements ReceiptService {
         var result = new Page<CustomerBillDetailVO>();
         if (!queryDataPage.getRecords().isEmpty()) {
             var customerBillDetailVos = new ArrayList<CustomerBillDetailVO>();
+            var resolver = commonService.createDimensionResolver()
+                    .addCustomerIds(queryDataPage.getRecords(), ReceiptSaleMain::getCustomerId)
+                    .addUserIds(queryDataPage.getRecords(), ReceiptSaleMain::getCreateBy);
+            // 明细行、商品和收款单按整页一次查询, 不再逐行查询
+            var subsByReceipt = receiptSaleSubService.lambdaQuery()
+                    .in(ReceiptSaleSub::getReceiptSaleMainId, queryDataPage.getRecords().stream().map(ReceiptSaleMain::getId).toList())
+                    .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
+                    .list()
+                    .stream()
+                    .collect(Collectors.groupingBy(ReceiptSaleSub::getReceiptSaleMainId));
+            resolver.addProductIds(subsByReceipt.values().stream().flatMap(List::stream).toList(), ReceiptSaleSub::getProductId);
+            var financialSubsByPerson = getFinancialSubsByRelatedPerson(
+                    queryDataPage.getRecords().stream().map(ReceiptSaleMain::getCustomerId).toList(), "收款");
             for (ReceiptSaleMain record : queryDataPage.getRecords()) {
                 var operatorName = "";
-                var operator = userService.getById(record.getCreateBy());
+                var operator = resolver.getUser(record.getCreateBy());
                 if (operator != null) {
                     operatorName = operator.getName();
                 }
                 var customerBillVo = CustomerBillDetailVO.builder()
-                        .customerName(commonService.getCustomerName(record.getCustomerId()))
+                        .customerName(resolver.getCustomerName(record.getCustomerId()))
                         .receiptNumber(record.getReceiptNumber())
                         .receiptDate(record.getReceiptDate())
                         .operator(operatorName)
                         .thisReceiptArrears(record.getArrearsAmount())
                         .build();
 
-                var receiptSaleSub = receiptSaleSubService.lambdaQuery()
-                        .eq(ReceiptSaleSub::getReceiptSaleMainId, record.getId())
-                        .eq(ReceiptSaleSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                        .list();
-                var productInfo = "";
-                if(!receiptSaleSub.isEmpty()) {
-                    var productIds = receiptSaleSub.stream().map(ReceiptSaleSub::getProductId).toList();
-                    var products = productService.lambdaQuery()
-                            .in(Product::getId, productIds)
-                            .eq(Product::getDeleteFlag, CommonConstants.NOT_DELETED)
-                            .like(StringUtils.hasLength(queryCustomerBillDetailDTO.getProductInfo()), Product::getProductName, queryCustomerBillDetailDTO.getProductInfo())
-                            .list();
-                    if (!products.isEmpty()) {
-                        productInfo = products.stream().map(Product::getProductName).collect(Collectors.joining("|"));
-                    }
-                }
-                customerBillVo.setProductInfo(productInfo);
-                var queryWrapper = new QueryWrapper<FinancialMain>();
-                queryWrapper.eq("related_person_id", record.getCustomerId());
-                queryWrapper.eq("type", "收款");
-                var financialMains = financialMainMapper.selectList(queryWrapper);
-                if (!financialMains.isEmpty()) {
-                    var financialSubs = financialSubMapper.selectList(new QueryWrapper<FinancialSub>()
-                            .in("financial_main_id",
-                                    financialMains.stream().map(FinancialMain::getId).toList()));
-                    if(!financialSubs.isEmpty()) {
-                        var totalAmount = BigDecimal.ZERO;
-                        for (FinancialSub customerPayment : financialSubs) {
-                            if(customerPayment.getOtherReceipt().equals(record.getReceiptNumber())) {
-                                totalAmount = customerPayment.getReceivedPrepaidArrears();
-                            }
-                            customerBillVo.setReceivedArrears(totalAmount);
-                            // 计算待收欠款 = 本次欠款 - 已收欠款
-                            customerBillVo.setReceivableArrears(record.getArrearsAmount().subtract(totalAmount));
-                        }
-                    } else {
-                        customerBillVo.setReceivedArrears(BigDecimal.ZERO);
-                        customerBillVo.setReceivableArrears(record.getArrearsAmount());
-                    }
-                } else {
-                    customerBillVo.setReceivedArrears(BigDecimal.ZERO);
-                    customerBillVo.setReceivableArrears(record.getArrearsAmount());
-                }
+                customerBillVo.setProductInfo(getBillProductInfo(resolver,
+                        subsByReceipt.getOrDefault(record.getId(), List.of()).stream().map(ReceiptSaleSub::getProductId).toList(),
+                        queryCustomerBillDetailDTO.getProductInfo()));
+                var settledArrears = getSettledArrears(financialSubsByPerson.getOrDefault(record.getCustomerId(), List.of()), record.getReceiptNumber());
+                customerBillVo.setReceivedArrears(settledArrears);
+                // 计算待收欠款 = 本次欠款 - 已收欠款
+                customerBillVo.setReceivableArrears(record.getArrearsAmount().subtract(settledArrears));
 
                 customerBillDetailVos.add(customerBillVo);
             }
@@ -2141,8 +1206,10 @@ public class ReceiptServiceImpl implements ReceiptService {
         var result = new Page<SupplierBillVO>();
         if (!queryData.getRecords().isEmpty()) {
             var supplierBillVos = new ArrayList<SupplierBillVO>();
+            var resolver = commonService.createDimensionResolver()
+                    .addSupplierIds(queryData.getRecords(), ReceiptPurchaseMain::getSupplierId);
             for (ReceiptPurchaseMain record : queryData.getRecords()) {
-                var supplier = supplierService.getById(record.getSupplierId());
+                var supplier = resolver.getSupplier(record.getSupplierId());
                 var supplierBillVo = SupplierBillVO.builder()
                         .supplierId(supplier.getId())
                         .supplierName(supplier.getSupplierName())
@@ -2217,63 +1284,40 @@ public class ReceiptServiceImpl implements ReceiptService {
         var result = new Page<SupplierBillDetailVO>();
         if (!queryDataPage.getRecords().isEmpty()) {
             var supplierBillDetailVos = new ArrayList<SupplierBillDetailVO>();
+            var resolver = commonService.createDimensionResolver()
+                    .addSupplierIds(queryDataPage.getRecords(), ReceiptPurchaseMain::getSupplierId)
+                    .addUserIds(queryDataPage.getRecords(), ReceiptPurchaseMain::getCreateBy);
+            // 明细行、商品和付款单按整页一次查询, 不再逐行查询
+            var subsByReceipt = receiptPurchaseSubService.lambdaQuery()
+                    .in(ReceiptPurchaseSub::getReceiptPurchaseMainId, queryDataPage.getRecords().stream().map(ReceiptPurchaseMain::getId).toList())
+                    .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
+                    .list()
+                    .stream()
+                    .collect(Collectors.groupingBy(ReceiptPurchaseSub::getReceiptPurchaseMainId));
+            resolver.addProductIds(subsByReceipt.values().stream().flatMap(List::stream).toList(), ReceiptPurchaseSub::getProductId);
+            var financialSubsByPerson = getFinancialSubsByRelatedPerson(
+                    queryDataPage.getRecords().stream().map(ReceiptPurchaseMain::getSupplierId).toList(), "付款");
             for (ReceiptPurchaseMain record : queryDataPage.getRecords()) {
                 var operatorName = "";
-                var operator = userService.getById(record.getCreateBy());
+                var operator = resolver.getUser(record.getCreateBy());
                 if (operator != null) {
                     operatorName = operator.getName();
                 }
                 var supplierBillVo = SupplierBillDetailVO.builder()
-                        .supplierName(commonService.getSupplierName(record.getSupplierId()))
+                        .supplierName(resolver.getSupplierName(record.getSupplierId()))
                         .receiptNumber(record.getReceiptNumber())
                         .receiptDate(record.getReceiptDate())
                         .operator(operatorName)
                         .thisReceiptArrears(record.getArrearsAmount())
                         .build();
 
-                var receiptPurchaseSub = receiptPurchaseSubService.lambdaQuery()
-                        .eq(ReceiptPurchaseSub::getReceiptPurchaseMainId, record.getId())
-                        .eq(ReceiptPurchaseSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                        .list();
-                var productInfo = "";
-                if(!receiptPurchaseSub.isEmpty()) {
-                    var productIds = receiptPurchaseSub.stream().map(ReceiptPurchaseSub::getProductId).toList();
-                    var products = productService.lambdaQuery()
-                            .in(Product::getId, productIds)
-                            .eq(Product::getDeleteFlag, CommonConstants.NOT_DELETED)
-                            .like(StringUtils.hasLength(querySupplierBillDetailDTO.getProductInfo()), Product::getProductName, querySupplierBillDetailDTO.getProductInfo())
-                            .list();
-                    if (!products.isEmpty()) {
-                        productInfo = products.stream().map(Product::getProductName).collect(Collectors.joining("|"));
-                    }
-                }
-                supplierBillVo.setProductInfo(productInfo);
-                var queryWrapper = new QueryWrapper<FinancialMain>();
-                queryWrapper.eq("related_person_id", record.getSupplierId());
-                queryWrapper.eq("type", "付款");
-                var financialMains = financialMainMapper.selectList(queryWrapper);
-                if (!financialMains.isEmpty()) {
-                    var financialSubs = financialSubMapper.selectList(new QueryWrapper<FinancialSub>()
-                            .in("financial_main_id",
-                                    financialMains.stream().map(FinancialMain::getId).toList()));
-                    if(!financialSubs.isEmpty()) {
-                        var totalAmount = BigDecimal.ZERO;
-                        for (FinancialSub purchasePayment : financialSubs) {
-                            if(purchasePayment.getOtherReceipt().equals(record.getReceiptNumber())) {
-                                totalAmount = purchasePayment.getReceivedPrepaidArrears();
-                            }
-                            supplierBillVo.setPrepaidArrears(totalAmount);
-                            // 计算待付欠款 = 本次付款 - 已付欠款
-                            supplierBillVo.setPaymentArrears(record.getArrearsAmount().subtract(totalAmount));
-                        }
-                    } else {
-                        supplierBillVo.setPrepaidArrears(BigDecimal.ZERO);
-                        supplierBillVo.setPaymentArrears(record.getArrearsAmount());
-                    }
-                } else {
-                    supplierBillVo.setPrepaidArrears(BigDecimal.ZERO);
-                    supplierBillVo.setPaymentArrears(record.getArrearsAmount());
-                }
+                supplierBillVo.setProductInfo(getBillProductInfo(resolver,
+                        subsByReceipt.getOrDefault(record.getId(), List.of()).stream().map(ReceiptPurchaseSub::getProductId).toList(),
+                        querySupplierBillDetailDTO.getProductInfo()));
+                var settledArrears = getSettledArrears(financialSubsByPerson.getOrDefault(record.getSupplierId(), List.of()), record.getReceiptNumber());
+                supplierBillVo.setPrepaidArrears(settledArrears);
+                // 计算待付欠款 = 本次欠款 - 已付欠款
+                supplierBillVo.setPaymentArrears(record.getArrearsAmount().subtract(settledArrears));
 
                 supplierBillDetailVos.add(supplierBillVo);
             }
@@ -2284,6 +1328,48 @@ public class ReceiptServiceImpl implements ReceiptService {
         return Response.responseData(result);
     }
 
+    // 按往来单位一次查询收付款单及其明细, 按往来单位分组
+    private Map<Long, List<FinancialSub>> getFinancialSubsByRelatedPerson(List<Long> relatedPersonIds, String type) {
+        var personIds = relatedPersonIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (personIds.isEmpty()) {
+            return Map.of();
+        }
+        var financialMains = financialMainMapper.selectList(new QueryWrapper<FinancialMain>()
+                .in("related_person_id", personIds)
+                .eq("type", type));
+        if (financialMains.isEmpty()) {
+            return Map.of();
+        }
+        var personByMainId = financialMains.stream()
+                .collect(Collectors.toMap(FinancialMain::getId, FinancialMain::getRelatedPersonId));
+        return financialSubMapper.selectList(new QueryWrapper<FinancialSub>()
+                        .in("financial_main_id", personByMainId.keySet()))
+                .stream()
+                .collect(Collectors.groupingBy(sub -> personByMainId.get(sub.getFinancialMainId())));
+    }
+
+    // 取最后一条关联本单据的收付款明细金额, 没有则为0
+    private BigDecimal getSettledArrears(List<FinancialSub> financialSubs, String receiptNumber) {
+        var settledArrears = BigDecimal.ZERO;
+        for (FinancialSub financialSub : financialSubs) {
+            if (Objects.equals(financialSub.getOtherReceipt(), receiptNumber)) {
+                settledArrears = financialSub.getReceivedPrepaidArrears();
+            }
+        }
+        return settledArrears;
+    }
+
+    private String getBillProductInfo(DimensionResolver resolver, List<Long> productIds, String productName) {
+        return productIds.stream()
+                .distinct()
+                .map(resolver::getProduct)
+                .filter(product -> product != null && Objects.equals(product.getDeleteFlag(), CommonConstants.NOT_DELETED))
+                .filter(product -> !StringUtils.hasLength(productName)
+                        || (product.getProductName() != null && product.getProductName().contains(productName)))
+                .map(Product::getProductName)
+                .collect(Collectors.joining("|"));
+    }
+
     @Override
     public void exportProductStockExcel(QueryProductStockDTO queryProductStockDTO, HttpServletResponse response) {
         var queryData = productStockMapper.getProductStockListByTerms(queryProductStockDTO);
@@ -2305,13 +1391,9 @@ public class ReceiptServiceImpl implements ReceiptService {
 
     @Override
     public void exportRetailStatisticsExcel(QueryRetailReportDTO queryRetailReportDTO, HttpServletResponse response) {
-        // 最大传递分页参数为1 - 9999
-        queryRetailReportDTO.setPage(1);
-        queryRetailReportDTO.setPageSize(9999);
-        var queryData = getRetailStatistics(queryRetailReportDTO);
-        if (!queryData.getData().getRecords().isEmpty()) {
-            ExcelUtils.export(response, "零售统计报表", ExcelUtils.getSheetData(queryData.getData().getRecords()));
-        }
+        // 在数据库按商品条码和仓库汇总, 逐行写入不限制条数
+        ExcelUtils.exportStream(response, "零售统计报表", RetailReportVO.class, sheet ->
+                receiptReportMapper.streamRetailStatistics(queryRetailReportDTO, context -> sheet.accept(context.getResultObject())));
     }
 
     @Override
@@ -2336,42 +1418,26 @@ public class ReceiptServiceImpl implements ReceiptService {
 
     @Override
     public void exportShipmentsDetailExcel(QueryShipmentsDetailDTO queryShipmentsDetailDTO, HttpServletResponse response) {
-        queryShipmentsDetailDTO.setPage(1);
-        queryShipmentsDetailDTO.setPageSize(10000);
-        var queryData = getShipmentsDetail(queryShipmentsDetailDTO);
-        if (!queryData.getData().getRecords().isEmpty()) {
-            ExcelUtils.export(response, "出库明细报表", ExcelUtils.getSheetData(queryData.getData().getRecords()));
-        }
+        ExcelUtils.exportStream(response, "出库明细报表", ShipmentsDetailVO.class, sheet ->
+                receiptReportMapper.streamShipmentsDetail(queryShipmentsDetailDTO, context -> sheet.accept(context.getResultObject())));
     }
 
     @Override
     public void exportStorageDetailExcel(QueryStorageDetailDTO queryStorageDetailDTO, HttpServletResponse response) {
-        queryStorageDetailDTO.setPage(1);
-        queryStorageDetailDTO.setPageSize(10000);
-        var queryData = getStorageDetail(queryStorageDetailDTO);
-        if (!queryData.getData().getRecords().isEmpty()) {
-            ExcelUtils.export(response, "入库明细报表", ExcelUtils.getSheetData(queryData.getData().getRecords()));
-        }
+        ExcelUtils.exportStream(response, "入库明细报表", StorageDetailVO.class, sheet ->
+                receiptReportMapper.streamStorageDetail(queryStorageDetailDTO, context -> sheet.accept(context.getResultObject())));
     }
 
     @Override
     public void exportShipmentsSummaryExcel(QueryShipmentsSummaryDTO queryShipmentsSummaryDTO, HttpServletResponse response) {
-        queryShipmentsSummaryDTO.setPage(1);
-        queryShipmentsSummaryDTO.setPageSize(10000);
-        var queryData = getShipmentsSummary(queryShipmentsSummaryDTO);
-        if (!queryData.getData().getRecords().isEmpty()) {
-            ExcelUtils.export(response, "出库汇总报表", ExcelUtils.getSheetData(queryData.getData().getRecords()));
-        }
+        ExcelUtils.exportStream(response, "出库汇总报表", ShipmentsSummaryVO.class, sheet ->
+                receiptReportMapper.streamShipmentsSummary(queryShipmentsSummaryDTO, context -> sheet.accept(context.getResultObject())));
     }
 
     @Override
     public void exportStorageSummaryExcel(QueryStorageSummaryDTO queryStorageSummaryDTO, HttpServletResponse response) {
-        queryStorageSummaryDTO.setPage(1);
-        queryStorageSummaryDTO.setPageSize(10000);
-        var queryData = getStorageSummary(queryStorageSummaryDTO);
-        if (!queryData.getData().getRecords().isEmpty()) {
-            ExcelUtils.export(response, "入库汇总报表", ExcelUtils.getSheetData(queryData.getData().getRecords()));
-        }
+        ExcelUtils.exportStream(response, "入库汇总报表", StorageSummaryVO.class, sheet ->
+                receiptReportMapper.streamStorageSummary(queryStorageSummaryDTO, context -> sheet.accept(context.getResultObject())));
     }
 
     @Override
@@ -2396,12 +1462,15 @@ public class ReceiptServiceImpl implements ReceiptService {
 
     @Override
     public void exportProductStockFlowExcel(QueryStockFlowDTO queryStockFlowDTO, HttpServletResponse response) {
-        queryStockFlowDTO.setPage(1);
-        queryStockFlowDTO.setPageSize(10000);
-        var queryData = getStockFlow(queryStockFlowDTO);
-        if (!queryData.getData().getRecords().isEmpty()) {
-            ExcelUtils.export(response, "商品库存流水报表", ExcelUtils.getSheetData(queryData.getData().getRecords()));
-        }
+        var translate = !"zh_CN".equals(userService.getUserSystemLanguage(userService.getCurrentUserId()));
+        ExcelUtils.exportStream(response, "商品库存流水报表", StockFlowVO.class, sheet ->
+                receiptReportMapper.streamStockFlow(queryStockFlowDTO, context -> {
+                    var stockFlowVO = context.getResultObject();
+                    if (translate) {
+                        translateStockFlowType(stockFlowVO);
+                    }
+                    sheet.accept(stockFlowVO);
+                }));
     }
 
     @Override
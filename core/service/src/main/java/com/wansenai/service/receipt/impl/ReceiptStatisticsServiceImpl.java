@@ -0,0 +1,211 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.receipt.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.wansenai.entities.receipt.ReceiptPurchaseMain;
+import com.wansenai.entities.receipt.ReceiptRetailMain;
+import com.wansenai.entities.receipt.ReceiptSaleMain;
+import com.wansenai.entities.receipt.ReceiptStatisticsDaily;
+import com.wansenai.mappers.receipt.ReceiptPurchaseMainMapper;
+import com.wansenai.mappers.receipt.ReceiptRetailMainMapper;
+import com.wansenai.mappers.receipt.ReceiptSaleMainMapper;
+import com.wansenai.mappers.receipt.ReceiptStatisticsDailyMapper;
+import com.wansenai.service.receipt.ReceiptStatisticsService;
+import com.wansenai.utils.SnowflakeIdUtil;
+import com.wansenai.utils.constants.ReceiptConstants;
+import com.wansenai.utils.enums.BaseCodeEnum;
+import com.wansenai.utils.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class ReceiptStatisticsServiceImpl extends ServiceImpl<ReceiptStatisticsDailyMapper, ReceiptStatisticsDaily> implements ReceiptStatisticsService {
+
+    private static final List<String> RECEIPT_CATEGORIES = List.of(
+            ReceiptConstants.RECEIPT_CATEGORY_RETAIL,
+            ReceiptConstants.RECEIPT_CATEGORY_SALES,
+            ReceiptConstants.RECEIPT_CATEGORY_PURCHASE);
+
+    private static final int MAX_REFRESH_ATTEMPTS = 3;
+
+    private final ReceiptStatisticsDailyMapper receiptStatisticsDailyMapper;
+
+    private final ReceiptRetailMainMapper receiptRetailMainMapper;
+
+    private final ReceiptSaleMainMapper receiptSaleMainMapper;
+
+    private final ReceiptPurchaseMainMapper receiptPurchaseMainMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ReceiptStatisticsServiceImpl(ReceiptStatisticsDailyMapper receiptStatisticsDailyMapper, ReceiptRetailMainMapper receiptRetailMainMapper, ReceiptSaleMainMapper receiptSaleMainMapper, ReceiptPurchaseMainMapper receiptPurchaseMainMapper, PlatformTransactionManager transactionManager) {
+        this.receiptStatisticsDailyMapper = receiptStatisticsDailyMapper;
+        this.receiptRetailMainMapper = receiptRetailMainMapper;
+        this.receiptSaleMainMapper = receiptSaleMainMapper;
+        this.receiptPurchaseMainMapper = receiptPurchaseMainMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void refreshStatistics(String receiptCategory, List<Long> receiptIds) {
+        if (receiptIds == null || receiptIds.isEmpty()) {
+            return;
+        }
+        // 删除的单据同样需要重新汇总, 所以这里不过滤删除标记
+        var createTimes = switch (receiptCategory) {
+            case ReceiptConstants.RECEIPT_CATEGORY_RETAIL -> receiptRetailMainMapper.selectList(new LambdaQueryWrapper<ReceiptRetailMain>()
+                            .select(ReceiptRetailMain::getCreateTime)
+                            .in(ReceiptRetailMain::getId, receiptIds))
+                    .stream()
+                    .map(ReceiptRetailMain::getCreateTime);
+            case ReceiptConstants.RECEIPT_CATEGORY_SALES -> receiptSaleMainMapper.selectList(new LambdaQueryWrapper<ReceiptSaleMain>()
+                            .select(ReceiptSaleMain::getCreateTime)
+                            .in(ReceiptSaleMain::getId, receiptIds))
+                    .stream()
+                    .map(ReceiptSaleMain::getCreateTime);
+            case ReceiptConstants.RECEIPT_CATEGORY_PURCHASE -> receiptPurchaseMainMapper.selectList(new LambdaQueryWrapper<ReceiptPurchaseMain>()
+                            .select(ReceiptPurchaseMain::getCreateTime)
+                            .in(ReceiptPurchaseMain::getId, receiptIds))
+                    .stream()
+                    .map(ReceiptPurchaseMain::getCreateTime);
+            default -> Stream.<LocalDateTime>empty();
+        };
+        var days = createTimes.filter(Objects::nonNull)
+                .map(LocalDateTime::toLocalDate)
+                .distinct()
+                .toList();
+        if (days.isEmpty()) {
+            return;
+        }
+
+        // 调用方事务的快照可能早于其他单据的提交, 所以提交后在独立事务中先锁统计行再汇总
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshDays(receiptCategory, days);
+                }
+            });
+        } else {
+            refreshDays(receiptCategory, days);
+        }
+    }
+
+    @Override
+    public Response<String> rebuildStatistics() {
+        var earliestTime = Stream.of(
+                        getEarliestCreateTime(receiptRetailMainMapper.selectOne(new QueryWrapper<ReceiptRetailMain>()
+                                .select("MIN(create_time) AS create_time")), ReceiptRetailMain::getCreateTime),
+                        getEarliestCreateTime(receiptSaleMainMapper.selectOne(new QueryWrapper<ReceiptSaleMain>()
+                                .select("MIN(create_time) AS create_time")), ReceiptSaleMain::getCreateTime),
+                        getEarliestCreateTime(receiptPurchaseMainMapper.selectOne(new QueryWrapper<ReceiptPurchaseMain>()
+                                .select("MIN(create_time) AS create_time")), ReceiptPurchaseMain::getCreateTime))
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .orElse(LocalDateTime.now());
+
+        var startDate = earliestTime.toLocalDate().withDayOfMonth(1);
+        var endDate = LocalDate.now().plusDays(1);
+
+        // 清理早于最早单据的残留统计数据, 其余日期按月分段, 每段一个事务重新汇总
+        transactionTemplate.executeWithoutResult(status -> receiptStatisticsDailyMapper.deleteBefore(startDate));
+        for (var monthStart = startDate; monthStart.isBefore(endDate); monthStart = monthStart.plusMonths(1)) {
+            var monthEnd = monthStart.plusMonths(1).isBefore(endDate) ? monthStart.plusMonths(1) : endDate;
+            for (String receiptCategory : RECEIPT_CATEGORIES) {
+                refreshWithRetry(receiptCategory, monthStart, monthEnd);
+            }
+        }
+        log.info("Rebuild receipt daily statistics from {} to {}", startDate, endDate);
+        return Response.responseMsg(BaseCodeEnum.SUCCESS);
+    }
+
+    @Override
+    public List<ReceiptStatisticsDaily> getDailyStatistics(LocalDate startDate, LocalDate endDate) {
+        return receiptStatisticsDailyMapper.getDailyStatistics(startDate, endDate);
+    }
+
+    private <T> LocalDateTime getEarliestCreateTime(T receipt, Function<T, LocalDateTime> createTime) {
+        return receipt == null ? null : createTime.apply(receipt);
+    }
+
+    private void refreshDays(String receiptCategory, List<LocalDate> days) {
+        try {
+            days.forEach(day -> refreshWithRetry(receiptCategory, day, day.plusDays(1)));
+        } catch (RuntimeException e) {
+            // 单据已提交, 统计失败不影响单据, 可通过重建接口修复
+            log.error("Refresh receipt daily statistics failed, category: {}, days: {}", receiptCategory, days, e);
+        }
+    }
+
+    // 两个事务同时汇总一段没有统计行的日期时只能拿到间隙锁, 插入时会死锁, 回滚的一方重试即可
+    private void refreshWithRetry(String receiptCategory, LocalDate startDate, LocalDate endDate) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refreshStatistics(receiptCategory, startDate, endDate));
+                return;
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= MAX_REFRESH_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Refresh receipt daily statistics conflicted, retry {}: {} [{}, {})", attempt, receiptCategory, startDate, endDate);
+            }
+        }
+    }
+
+    /**
+     * 重新汇总 [startDate, endDate) 区间内指定单据类别的日统计数据。
+     * 必须在新事务中调用: 先清零并锁住区间内的统计行, 之后的汇总查询才建立读视图,
+     * 能看到所有在拿到锁之前提交的单据, 同一区间的并发汇总因此串行执行, 后提交的结果不会被旧数据覆盖。
+     */
+    private void refreshStatistics(String receiptCategory, LocalDate startDate, LocalDate endDate) {
+        receiptStatisticsDailyMapper.resetDaily(receiptCategory, startDate, endDate);
+
+        var startTime = startDate.atStartOfDay();
+        var endTime = endDate.atStartOfDay();
+        var statisticsList = switch (receiptCategory) {
+            case ReceiptConstants.RECEIPT_CATEGORY_RETAIL -> receiptStatisticsDailyMapper.aggregateRetailDaily(startTime, endTime);
+            case ReceiptConstants.RECEIPT_CATEGORY_SALES -> receiptStatisticsDailyMapper.aggregateSaleDaily(startTime, endTime);
+            case ReceiptConstants.RECEIPT_CATEGORY_PURCHASE -> receiptStatisticsDailyMapper.aggregatePurchaseDaily(startTime, endTime);
+            default -> List.<ReceiptStatisticsDaily>of();
+        };
+
+        if (!statisticsList.isEmpty()) {
+            var now = LocalDateTime.now();
+            var ids = Arrays.stream(SnowflakeIdUtil.nextIds(statisticsList.size())).iterator();
+            statisticsList.forEach(item -> item.setId(ids.nextLong())
+                    .setReceiptCategory(receiptCategory)
+                    .setCreateTime(now)
+                    .setUpdateTime(now));
+            receiptStatisticsDailyMapper.upsertBatch(statisticsList);
+        }
+    }
+}
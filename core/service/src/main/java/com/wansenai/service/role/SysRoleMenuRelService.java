@@ -2,9 +2,24 @@ package com.wansenai.service.role;
 
 import com.wansenai.entities.role.SysRoleMenuRel;
 import com.baomidou.mybatisplus.extension.service.IService;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface SysRoleMenuRelService extends IService<SysRoleMenuRel> {
 
     List<SysRoleMenuRel> listByRoleId(Long roleId);
-}
\ No newline at end of file
+
+    /**
+     * Grant menus to a role, one row per menu. Menus the role already has are skipped.
+     * <p>
+     * 给角色分配菜单, 每个菜单一行, 角色已有的菜单跳过
+     *
+     * @param tenantId 租户id
+     * @param roleId 角色id
+     * @param menuIds 菜单id
+     * @param createBy 创建人
+     * @return 是否成功
+     */
+    boolean saveRoleMenus(Long tenantId, Long roleId, Collection<Integer> menuIds, Long createBy);
+}
@@ -4,7 +4,13 @@ import com.wansenai.mappers.role.SysRoleMenuRelMapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.entities.role.SysRoleMenuRel;
 import com.wansenai.service.role.SysRoleMenuRelService;
+import com.wansenai.utils.SnowflakeIdUtil;
 import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.List;
 
@@ -19,4 +25,35 @@ public class SysRoleMenuRelServiceImpl extends ServiceImpl<SysRoleMenuRelMapper,
                 .eq(SysRoleMenuRel::getRoleId, roleId)
                 .list();
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean saveRoleMenus(Long tenantId, Long roleId, Collection<Integer> menuIds, Long createBy) {
+        Objects.requireNonNull(roleId, "roleId must not be null");
+        if (menuIds == null || menuIds.isEmpty()) {
+            return true;
+        }
+
+        var newMenuIds = new LinkedHashSet<>(menuIds);
+        newMenuIds.remove(null);
+        listByRoleId(roleId).forEach(rel -> newMenuIds.remove(rel.getMenuId()));
+        if (newMenuIds.isEmpty()) {
+            return true;
+        }
+
+        var ids = SnowflakeIdUtil.nextIds(newMenuIds.size());
+        var now = LocalDateTime.now();
+        var roleMenuRelList = new ArrayList<SysRoleMenuRel>(newMenuIds.size());
+        var index = 0;
+        for (var menuId : newMenuIds) {
+            roleMenuRelList.add(SysRoleMenuRel.builder()
+                    .id(ids[index++])
+                    .tenantId(tenantId)
+                    .roleId(roleId)
+                    .menuId(menuId)
+                    .createTime(now)
+                    .createBy(createBy)
+                    .build());
+        }
+        return baseMapper.insertBatch(roleMenuRelList) == roleMenuRelList.size();
+    }
+}
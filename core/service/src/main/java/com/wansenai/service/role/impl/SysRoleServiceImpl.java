@@ -13,19 +13,21 @@ import com.wansenai.mappers.role.SysRoleMenuRelMapper;
 import com.wansenai.service.BaseService;
 import com.wansenai.service.role.SysRoleService;
 import com.wansenai.service.role.SysRoleMenuRelService;
+import com.wansenai.service.system.RoleMenuCache;
 import com.wansenai.utils.SnowflakeIdUtil;
 import com.wansenai.utils.constants.CommonConstants;
 import com.wansenai.utils.enums.BaseCodeEnum;
 import com.wansenai.utils.enums.RoleCodeEnum;
 import com.wansenai.utils.response.Response;
+import com.wansenai.utils.tenant.TenantContextHolder;
 import com.wansenai.vo.RoleVO;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,16 +37,19 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
     private final SysRoleMapper roleMapper;
     private final SysRoleMenuRelMapper roleMenuRelMapper;
     private final SysRoleMenuRelService roleMenuRelService;
+    private final RoleMenuCache roleMenuCache;
 
     public SysRoleServiceImpl(
             BaseService baseService,
             SysRoleMapper roleMapper,
             SysRoleMenuRelMapper roleMenuRelMapper,
-            SysRoleMenuRelService roleMenuRelService) {
+            SysRoleMenuRelService roleMenuRelService,
+            RoleMenuCache roleMenuCache) {
         this.baseService = baseService;
         this.roleMapper = roleMapper;
         this.roleMenuRelMapper = roleMenuRelMapper;
         this.roleMenuRelService = roleMenuRelService;
+        this.roleMenuCache = roleMenuCache;
     }
 
     @Override
@@ -100,24 +105,13 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
             listVo.add(vo);
         }
 
-        // Process menu IDs for each role
+        // 一次查询当前页所有角色的菜单
+        var roleMenuIds = roleMenuRelMapper.listByRoleId(listVo.stream().map(RoleVO::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(SysRoleMenuRel::getRoleId,
+                        Collectors.mapping(SysRoleMenuRel::getMenuId, Collectors.toList())));
         for (var roleVo : listVo) {
-            var roleMenuRelList = roleMenuRelMapper.selectList(
-                    new LambdaQueryWrapper<SysRoleMenuRel>()
-                            .eq(SysRoleMenuRel::getRoleId, roleVo.getId())
-            );
-
-            var menuList = new ArrayList<Integer>();
-            for (var roleMenuRel : roleMenuRelList) {
-                var menuId = roleMenuRel.getMenuId();
-                var pattern = Pattern.compile("\\d+");
-                var matcher = pattern.matcher(menuId);
-
-                while (matcher.find()) {
-                    menuList.add(Integer.parseInt(matcher.group()));
-                }
-            }
-            roleVo.setMenuIds(menuList);
+            roleVo.setMenuIds(new ArrayList<>(roleMenuIds.getOrDefault(roleVo.getId(), List.of())));
         }
 
         var resultVoPage = new Page<RoleVO>();
@@ -243,6 +237,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         }
     }
 
+    @Transactional
     @Override
     public Response<String> rolePermission(RolePermissionDTO rolePermissionDTO) {
         var roleId = rolePermissionDTO.getId();
@@ -257,14 +252,8 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
                 .eq(SysRoleMenuRel::getRoleId, roleId)
                 .remove();
 
-        var roleMenuRel = new SysRoleMenuRel();
-        var menuIdStr = menuIds.stream()
-                .map(id -> "[" + id + "]")
-                .collect(Collectors.joining(""));
-        roleMenuRel.setMenuId(menuIdStr);
-        roleMenuRel.setRoleId(roleId);
-
-        var saveBatchResult = roleMenuRelService.saveOrUpdate(roleMenuRel);
+        var saveBatchResult = roleMenuRelService.saveRoleMenus(TenantContextHolder.getTenantId(), roleId, menuIds, baseService.getCurrentUserId());
+        roleMenuCache.invalidate(roleId);
         var systemLanguage = baseService.getCurrentUserSystemLanguage();
 
         if (saveBatchResult) {
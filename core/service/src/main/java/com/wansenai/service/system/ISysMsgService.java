@@ -37,4 +37,12 @@ public interface ISysMsgService extends IService<SysMsg> {
     Response<List<SystemMessageVO>> getMessagePageList();
 
     Response<String> updateMessageStatus(UpdateSystemMessageDTO updateSystemMessageDTO);
+
+    /**
+     * 读取redis中用户消息列表的元素, 兼容旧版本写入的fastjson字符串和当前序列化方式读取后的Map
+     *
+     * @param item redis消息列表中的元素
+     * @return 消息
+     */
+    SysMsg toSysMsg(Object item);
 }
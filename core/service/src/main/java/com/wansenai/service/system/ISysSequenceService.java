@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.system;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.wansenai.entities.system.SysSequence;
+
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * 序列服务：按租户分号段发号，用于商品条码和单据编号
+ * </p>
+ */
+public interface ISysSequenceService extends IService<SysSequence> {
+
+    /**
+     * Next value of a sequence of the current tenant. Values are unique across application nodes and
+     * increase per node, but may have gaps. The sequence row is created on first use starting at
+     * {@code initialValue}, which is only evaluated once per tenant and sequence.
+     * <p>
+     * 获取当前租户某个序列的下一个值，多节点不重复，允许跳号。序列首次使用时从 initialValue 开始。
+     *
+     * @param sequenceName name of the sequence
+     *                     序列名称
+     * @param initialValue first value when the sequence does not exist yet
+     *                     序列不存在时的初始值
+     * @return Returns the next value
+     *         返回下一个值
+     */
+    long nextValue(String sequenceName, LongSupplier initialValue);
+
+    /**
+     * Move a sequence of the current tenant forward so that newly reserved values are at least
+     * {@code minValue}, for values that were taken outside the sequence. The sequence never moves
+     * backwards, and the unused block of this node is dropped.
+     * <p>
+     * 推进当前租户的序列，之后预留的值不小于 minValue，用于序列外已占用的值。序列不会回退，本节点未用完的号段被丢弃。
+     *
+     * @param sequenceName name of the sequence
+     *                     序列名称
+     * @param minValue     smallest value to issue next
+     *                     下一次发号的最小值
+     */
+    void advanceTo(String sequenceName, long minValue);
+
+    /**
+     * Next document number for the prefix, the prefix followed by an 18 digit zero padded value.
+     * New sequences start at the current snowflake id so they never repeat earlier snowflake numbers.
+     * <p>
+     * 获取前缀对应的下一个编号，格式为前缀加18位数字。新序列从当前雪花id开始，不会与之前的编号重复。
+     *
+     * @param prefix number prefix, such as LSCK
+     *               编号前缀，如 LSCK
+     * @return Returns the next number
+     *         返回下一个编号
+     */
+    String nextNumber(String prefix);
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.system;
+
+import com.wansenai.service.common.BoundedCache;
+import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.vo.MenuVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 每个角色的菜单缓存, 缓存已经构建好的MenuVO(含meta), 加载用户菜单时只需合并用户的各个角色
+ * 菜单新增修改删除和角色授权变更时在事务提交后失效, 并通过redis频道通知其他实例
+ */
+@Slf4j
+@Component
+public class RoleMenuCache implements MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "eairp:role-menu:invalidate";
+
+    private static final String ALL_ROLES = "*";
+
+    private static final int MAX_ROLES = 2_000;
+
+    // 按菜单数计算权重
+    private static final long MAX_MENUS = 200_000L;
+
+    private static final long TTL_MILLIS = 30 * 60 * 1000L;
+
+    private static final Comparator<MenuVO> MENU_ORDER = Comparator.comparingInt(MenuVO::getSort);
+
+    private final RedisUtil redisUtil;
+
+    private final BoundedCache<Long, List<MenuVO>> roleMenus = new BoundedCache<>(MAX_ROLES, MAX_MENUS, TTL_MILLIS, List::size);
+
+    public RoleMenuCache(RedisUtil redisUtil, RedisMessageListenerContainer listenerContainer) {
+        this.redisUtil = redisUtil;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 合并多个角色的菜单, 按菜单id去重后按sort排序
+     *
+     * @param roleIds 用户的角色id
+     * @param loader  缓存未命中时加载单个角色的菜单
+     * @return 菜单列表
+     */
+    public List<MenuVO> getMenus(Collection<Long> roleIds, Function<Long, List<MenuVO>> loader) {
+        var menus = new LinkedHashMap<Integer, MenuVO>();
+        for (var roleId : roleIds) {
+            for (var menu : roleMenus.get(roleId, loader)) {
+                menus.putIfAbsent(menu.getId(), menu);
+            }
+        }
+        var result = new ArrayList<>(menus.values());
+        result.sort(MENU_ORDER);
+        return result;
+    }
+
+    public void invalidate(Long roleId) {
+        if (roleId != null) {
+            invalidateAfterCommit(String.valueOf(roleId));
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateAfterCommit(ALL_ROLES);
+    }
+
+    public String stats() {
+        return roleMenus.stats();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var value = redisUtil.deserializeValue(message.getBody());
+        if (value != null) {
+            evict(value.toString());
+        }
+    }
+
+    private void invalidateAfterCommit(String key) {
+        evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(key);
+                    publish(key);
+                }
+            });
+        } else {
+            publish(key);
+        }
+    }
+
+    private void evict(String key) {
+        if (ALL_ROLES.equals(key)) {
+            roleMenus.clear();
+        } else {
+            try {
+                roleMenus.invalidate(Long.valueOf(key));
+            } catch (NumberFormatException e) {
+                log.warn("忽略无效的角色菜单失效消息: {}", key);
+            }
+        }
+    }
+
+    private void publish(String key) {
+        try {
+            redisUtil.convertAndSend(INVALIDATE_CHANNEL, key);
+        } catch (RuntimeException e) {
+            // 通知失败时其他实例最多在有效期后刷新
+            log.warn("角色菜单失效通知发送失败: {}", e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.wansenai.service.system.impl;
 
 import com.alibaba.fastjson.JSONObject;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.dto.basic.AddOrUpdateMenuDTO;
 import com.wansenai.entities.role.SysRoleMenuRel;
@@ -10,6 +9,7 @@ import com.wansenai.entities.user.SysUserRoleRel;
 import com.wansenai.mappers.role.SysRoleMenuRelMapper;
 import com.wansenai.mappers.system.SysMenuMapper;
 import com.wansenai.service.role.SysRoleMenuRelService;
+import com.wansenai.service.system.RoleMenuCache;
 import com.wansenai.service.system.SysMenuService;
 import com.wansenai.service.user.ISysUserRoleRelService;
 import com.wansenai.service.user.ISysUserService;
@@ -22,8 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.regex.Pattern;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,16 +32,19 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
     private final ISysUserRoleRelService userRoleRelService;
     private final ISysUserService userService;
     private final SysRoleMenuRelMapper roleMenuRelMapper;
+    private final RoleMenuCache roleMenuCache;
 
     public SysMenuServiceImpl(
             SysRoleMenuRelService roleMenuRelService,
             ISysUserRoleRelService userRoleRelService,
             ISysUserService userService,
-            SysRoleMenuRelMapper roleMenuRelMapper) {
+            SysRoleMenuRelMapper roleMenuRelMapper,
+            RoleMenuCache roleMenuCache) {
         this.roleMenuRelService = roleMenuRelService;
         this.userRoleRelService = userRoleRelService;
         this.userService = userService;
         this.roleMenuRelMapper = roleMenuRelMapper;
+        this.roleMenuCache = roleMenuCache;
     }
 
     @Transactional
@@ -73,17 +75,8 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
                 return Response.responseMsg(MenuCodeEnum.ADD_MENU_ERROR);
             } else {
                 // Add this menu to the administrator by default
-                var adminRoleMenuRel = roleMenuRelService.getById(0L);
-                var menuIds = new StringBuilder();
-                if (adminRoleMenuRel != null) {
-                    menuIds.append(adminRoleMenuRel.getMenuId());
-                }
-                menuIds.append("[").append(menu.getId()).append("]");
-
-                var updateResult = roleMenuRelService.lambdaUpdate()
-                        .eq(SysRoleMenuRel::getRoleId, 0L)
-                        .set(SysRoleMenuRel::getMenuId, menuIds.toString())
-                        .update();
+                var updateResult = roleMenuRelService.saveRoleMenus(0L, 0L, List.of(menu.getId()), null);
+                roleMenuCache.invalidate(0L);
 
                 if (updateResult) {
                     return Response.responseMsg(MenuCodeEnum.ADD_MENU_SUCCESS);
@@ -110,6 +103,7 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
                     .set(SysMenu::getUpdateTime, LocalDateTime.now());
 
             var updateResult = updateWrapper.update();
+            roleMenuCache.invalidateAll();
 
             if (!updateResult) {
                 return Response.responseMsg(MenuCodeEnum.UPDATE_MENU_ERROR);
@@ -129,6 +123,7 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
                 .eq(SysMenu::getId, id)
                 .set(SysMenu::getDeleteFlag, CommonConstants.DELETED)
                 .update();
+        roleMenuCache.invalidateAll();
 
         if (deleteResult) {
             return Response.responseMsg(MenuCodeEnum.DELETE_MENU_SUCCESS);
@@ -140,7 +135,6 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
     @Override
     public Response<JSONObject> menuList() {
         var menuData = new JSONObject();
-        var menuVos = new ArrayList<MenuVO>();
 
         var userId = userService.getCurrentUserId();
         if (userId == null) {
@@ -153,67 +147,58 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
                 .collect(Collectors.toList());
 
         if (!roleIds.isEmpty()) {
-            var menusReals = roleMenuRelMapper.listByRoleId(roleIds);
-            if (!menusReals.isEmpty()) {
-                var numberList = menusReals.stream()
-                        .map(SysRoleMenuRel::getMenuId)
-                        .flatMap(item -> {
-                            var pattern = Pattern.compile("\\d+");
-                            var matcher = pattern.matcher(item);
-                            var numbers = new ArrayList<String>();
-                            while (matcher.find()) {
-                                numbers.add(matcher.group());
-                            }
-                            return numbers.stream();
-                        })
-                        .distinct()
-                        .collect(Collectors.toList());
-
-                var menus = lambdaQuery()
-                        .in(SysMenu::getId, numberList)
-                        .eq(SysMenu::getDeleteFlag, CommonConstants.NOT_DELETED)
-                        .list();
-
-                if (!menus.isEmpty()) {
-                    for (var menu : menus) {
-                        var meta = getMetaJsonObject(menu);
-                        var menuVoBuilder = MenuVO.builder()
-                                .id(menu.getId())
-                                .name(menu.getName())
-                                .title(menu.getTitle())
-                                .titleEnglish(menu.getTitleEnglish())
-                                .menuType(menu.getMenuType())
-                                .path(menu.getPath())
-                                .component(menu.getComponent())
-                                .icon(menu.getIcon())
-                                .sort(menu.getSort())
-                                .redirect(menu.getRedirect())
-                                .createTime(menu.getCreateTime())
-                                .status(menu.getStatus())
-                                .hideMenu(menu.getHideMenu())
-                                .blank(menu.getBlank())
-                                .ignoreKeepAlive(menu.getIgnoreKeepAlive())
-                                .meta(meta);
-
-                        if (menu.getParentId() != null) {
-                            menuVoBuilder.parentId(menu.getParentId());
-                        }
-
-                        var menuVo = menuVoBuilder.build();
-                        menuVos.add(menuVo);
-                    }
-
-                    menuVos.sort(Comparator.comparingInt(MenuVO::getSort));
-                }
-
-                menuData.put("total", menuVos.size());
-                menuData.put("data", menuVos);
-            }
+            // 每个角色的菜单从缓存读取, 这里只做合并
+            var menuVos = roleMenuCache.getMenus(roleIds, this::loadRoleMenus);
+            menuData.put("total", menuVos.size());
+            menuData.put("data", menuVos);
         }
 
         return Response.responseData(menuData);
     }
 
+    private List<MenuVO> loadRoleMenus(Long roleId) {
+        var menuIds = roleMenuRelMapper.listByRoleId(List.of(roleId))
+                .stream()
+                .map(SysRoleMenuRel::getMenuId)
+                .toList();
+        if (menuIds.isEmpty()) {
+            return List.of();
+        }
+
+        var menus = lambdaQuery()
+                .in(SysMenu::getId, menuIds)
+                .eq(SysMenu::getDeleteFlag, CommonConstants.NOT_DELETED)
+                .list();
+
+        var menuVos = new ArrayList<MenuVO>(menus.size());
+        for (var menu : menus) {
+            var meta = getMetaJsonObject(menu);
+            var menuVoBuilder = MenuVO.builder()
+                    .id(menu.getId())
+                    .name(menu.getName())
+                    .title(menu.getTitle())
+                    .titleEnglish(menu.getTitleEnglish())
+                    .menuType(menu.getMenuType())
+                    .path(menu.getPath())
+                    .component(menu.getComponent())
+                    .icon(menu.getIcon())
+                    .sort(menu.getSort())
+                    .redirect(menu.getRedirect())
+                    .createTime(menu.getCreateTime())
+                    .status(menu.getStatus())
+                    .hideMenu(menu.getHideMenu())
+                    .blank(menu.getBlank())
+                    .ignoreKeepAlive(menu.getIgnoreKeepAlive())
+                    .meta(meta);
+
+            if (menu.getParentId() != null) {
+                menuVoBuilder.parentId(menu.getParentId());
+            }
+            menuVos.add(menuVoBuilder.build());
+        }
+        return List.copyOf(menuVos);
+    }
+
     private JSONObject getMetaJsonObject(SysMenu menu) {
         var meta = new JSONObject();
         meta.put("title", menu.getTitle());
@@ -33,6 +33,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -73,8 +74,7 @@ public class SysMsgServiceImpl extends ServiceImpl<SysMsgMapper, SysMsg> impleme
         sysMsg.setType(systemMessageDTO.getType());
         sysMsg.setStatus(MessageConstants.SYSTEM_MESSAGE_UNREAD);
         sysMsg.setCreateTime(LocalDateTime.now());
-        var msg = JSONObject.toJSONString(sysMsg);
-        redisUtil.lSet(MessageConstants.SYSTEM_MESSAGE_PREFIX + sysMsg.getUserId(), msg, MessageConstants.SYSTEM_EXPIRE_DATE);
+        redisUtil.lSet(MessageConstants.SYSTEM_MESSAGE_PREFIX + sysMsg.getUserId(), sysMsg, MessageConstants.SYSTEM_EXPIRE_DATE);
         save(sysMsg);
     }
 
@@ -85,9 +85,10 @@ public class SysMsgServiceImpl extends ServiceImpl<SysMsgMapper, SysMsg> impleme
             return;
         }
         List<SysMsg> msgList = new ArrayList<>();
+        var ids = Arrays.stream(SnowflakeIdUtil.nextIds(systemMessageDTOList.size())).iterator();
         systemMessageDTOList.forEach(item -> {
             SysMsg sysMsg = new SysMsg();
-            sysMsg.setId(SnowflakeIdUtil.nextId());
+            sysMsg.setId(ids.nextLong());
             sysMsg.setUserId(item.getUserId());
             sysMsg.setMsgTitle(item.getMsgTitle());
             sysMsg.setMsgContent(item.getMsgContent());
@@ -95,8 +96,7 @@ public class SysMsgServiceImpl extends ServiceImpl<SysMsgMapper, SysMsg> impleme
             sysMsg.setType(item.getType());
             sysMsg.setStatus(MessageConstants.SYSTEM_MESSAGE_UNREAD);
             sysMsg.setCreateTime(LocalDateTime.now());
-            var msg = JSONObject.toJSONString(sysMsg);
-            redisUtil.lSet(MessageConstants.SYSTEM_MESSAGE_PREFIX + sysMsg.getUserId(), msg, MessageConstants.SYSTEM_EXPIRE_DATE);
+            redisUtil.lSet(MessageConstants.SYSTEM_MESSAGE_PREFIX + sysMsg.getUserId(), sysMsg, MessageConstants.SYSTEM_EXPIRE_DATE);
             msgList.add(sysMsg);
 
         });
@@ -133,12 +133,7 @@ public class SysMsgServiceImpl extends ServiceImpl<SysMsgMapper, SysMsg> impleme
 
         var messageVo = new SystemMessageVO();
         data.forEach(item -> {
-            SysMsg msg;
-            if (item instanceof SysMsg) {
-                msg = (SysMsg) item;
-            } else {
-                msg = JSONObject.parseObject(item.toString(), SysMsg.class);
-            }
+            var msg = toSysMsg(item);
             if(Objects.nonNull(msg)) {
                 var vo = new SystemMessageItemVO();
                 vo.setId(msg.getId());
@@ -206,11 +201,20 @@ public class SysMsgServiceImpl extends ServiceImpl<SysMsgMapper, SysMsg> impleme
         // remove redis message data
         var dataList = redisUtil.lGet(MessageConstants.SYSTEM_MESSAGE_PREFIX + updateSystemMessageDTO.getUserId(), 0, -1);
         dataList.forEach(item -> {
-            var msg = JSONObject.parseObject(item.toString(), SysMsg.class);
+            var msg = toSysMsg(item);
             if(Objects.nonNull(msg) && msg.getId().equals(updateSystemMessageDTO.getId())) {
                 redisUtil.lRemove(MessageConstants.SYSTEM_MESSAGE_PREFIX + updateSystemMessageDTO.getUserId(), 1, item);
             }
         });
         return Response.success();
     }
+
+    @Override
+    public SysMsg toSysMsg(Object item) {
+        // 旧版本以fastjson字符串写入
+        if (item instanceof String json) {
+            return JSONObject.parseObject(json, SysMsg.class);
+        }
+        return redisUtil.convertValue(item, SysMsg.class);
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.service.system.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.wansenai.entities.system.SysSequence;
+import com.wansenai.mappers.system.SysSequenceMapper;
+import com.wansenai.service.common.SequenceBlockAllocator;
+import com.wansenai.service.system.ISysSequenceService;
+import com.wansenai.utils.SnowflakeIdUtil;
+import com.wansenai.utils.tenant.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * 序列服务实现类
+ * </p>
+ */
+@Service
+public class SysSequenceServiceImpl extends ServiceImpl<SysSequenceMapper, SysSequence> implements ISysSequenceService {
+
+    private static final String NUMBER_SEQUENCE_PREFIX = "number:";
+
+    private final SysSequenceMapper sequenceMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SequenceBlockAllocator<SequenceKey> allocator;
+
+    private record SequenceKey(Long tenantId, String sequenceName) {
+    }
+
+    public SysSequenceServiceImpl(SysSequenceMapper sequenceMapper, PlatformTransactionManager transactionManager,
+                                  @Value("${eairp.sequence.block-size:50}") long blockSize) {
+        this.sequenceMapper = sequenceMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.allocator = new SequenceBlockAllocator<>(blockSize);
+    }
+
+    @Override
+    public long nextValue(String sequenceName, LongSupplier initialValue) {
+        return allocator.next(new SequenceKey(currentTenantId(), sequenceName), (key, blockSize) -> reserveBlock(key, blockSize, initialValue));
+    }
+
+    @Override
+    public void advanceTo(String sequenceName, long minValue) {
+        var key = new SequenceKey(currentTenantId(), sequenceName);
+        transactionTemplate.executeWithoutResult(status -> sequenceMapper.raiseCurrentValue(key.tenantId(), key.sequenceName(), minValue - 1));
+        allocator.discard(key);
+    }
+
+    @Override
+    public String nextNumber(String prefix) {
+        var value = nextValue(NUMBER_SEQUENCE_PREFIX + prefix, SnowflakeIdUtil::nextId);
+        return prefix + "%018d".formatted(value);
+    }
+
+    private Long currentTenantId() {
+        var tenantId = TenantContextHolder.getTenantId();
+        if (tenantId == null) {
+            throw new IllegalStateException("No tenant bound to the current thread");
+        }
+        return tenantId;
+    }
+
+    // 独立事务中预留号段，行锁保证各节点拿到的号段不重叠
+    private long reserveBlock(SequenceKey key, long blockSize, LongSupplier initialValue) {
+        return transactionTemplate.execute(status -> {
+            if (sequenceMapper.increaseCurrentValue(key.tenantId(), key.sequenceName(), blockSize) == 0) {
+                var now = LocalDateTime.now();
+                sequenceMapper.insertIgnore(SysSequence.builder()
+                        .id(SnowflakeIdUtil.nextId())
+                        .tenantId(key.tenantId())
+                        .sequenceName(key.sequenceName())
+                        .currentValue(initialValue.getAsLong() - 1)
+                        .createTime(now)
+                        .updateTime(now)
+                        .build());
+                sequenceMapper.increaseCurrentValue(key.tenantId(), key.sequenceName(), blockSize);
+            }
+            return sequenceMapper.getCurrentValue(key.tenantId(), key.sequenceName());
+        });
+    }
+}
@@ -204,15 +204,19 @@ public class SysTenantServiceImpl extends ServiceImpl<SysTenantMapper, SysTenant
                     .build();
             var saveUserRoleRealResult = userRoleRelService.save(userRoleRel);
 
-            var roleMenuRel = SysRoleMenuRel.builder()
-                    .id(SnowflakeIdUtil.nextId())
-                    .tenantId(tenantId)
-                    .roleId(role.getId())
-                    .menuId(MenuConstants.DEFAULT_TENANT_ROLE_MENU)
-                    .createBy(tenantId)
-                    .createTime(LocalDateTime.now())
-                    .build();
-            roleMenuRelMapper.insert(roleMenuRel);
+            var menuRelIds = SnowflakeIdUtil.nextIds(MenuConstants.DEFAULT_TENANT_ROLE_MENU.size());
+            var roleMenuRelList = new ArrayList<SysRoleMenuRel>(menuRelIds.length);
+            for (int i = 0; i < menuRelIds.length; i++) {
+                roleMenuRelList.add(SysRoleMenuRel.builder()
+                        .id(menuRelIds[i])
+                        .tenantId(tenantId)
+                        .roleId(role.getId())
+                        .menuId(MenuConstants.DEFAULT_TENANT_ROLE_MENU.get(i))
+                        .createBy(tenantId)
+                        .createTime(LocalDateTime.now())
+                        .build());
+            }
+            roleMenuRelMapper.insertBatch(roleMenuRelList);
 
             var department = SysDepartment.builder()
                     .id(SnowflakeIdUtil.nextId())
@@ -59,6 +59,12 @@ public interface ISysUserService extends IService<SysUser> {
 
     Response<List<UserRoleVO>> userRole();
 
+    /**
+     * Whether the current user is the platform administrator or holds a role covering all data.
+     * 当前用户是否为平台管理员或拥有全部数据权限的角色
+     */
+    boolean isCurrentUserAdmin();
+
     Response<String> userLogout();
 
     Response<Page<UserListVO>> userList(UserListDTO pageDto);
@@ -14,16 +14,13 @@ package com.wansenai.service.user.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
-import com.wansenai.entities.system.SysPlatformConfig;
 import com.wansenai.entities.tenant.SysTenant;
 import com.wansenai.entities.warehouse.Warehouse;
 import com.wansenai.mappers.tenant.SysTenantMapper;
 import com.wansenai.mappers.warehouse.WarehouseMapper;
-import com.wansenai.middleware.oss.TencentOSS;
-import com.wansenai.service.system.ISysPlatformConfigService;
+import com.wansenai.middleware.oss.ObjectStorageProvider;
 import com.wansenai.utils.CommonTools;
 import com.wansenai.utils.CryptoUtils;
-import com.wansenai.utils.FileUtil;
 import com.wansenai.utils.SnowflakeIdUtil;
 import com.wansenai.dto.user.*;
 import com.wansenai.utils.constants.*;
@@ -31,6 +28,7 @@ import com.wansenai.utils.enums.BaseCodeEnum;
 import com.wansenai.utils.enums.TenantCodeEnum;
 import com.wansenai.utils.enums.UserCodeEnum;
 import com.wansenai.utils.redis.RedisUtil;
+import com.wansenai.utils.redis.TokenSessionCache;
 import com.wansenai.utils.response.Response;
 import com.wansenai.middleware.security.JWTUtil;
 import com.wansenai.service.user.ISysUserDeptRelService;
@@ -38,7 +36,6 @@ import com.wansenai.service.user.ISysUserRoleRelService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.entities.SysDepartment;
 import com.wansenai.entities.role.SysRole;
-import com.wansenai.entities.role.SysRoleMenuRel;
 import com.wansenai.entities.system.SysMenu;
 import com.wansenai.entities.user.SysUser;
 import com.wansenai.entities.user.SysUserDeptRel;
@@ -64,7 +61,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -98,12 +94,14 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
 
     private final WarehouseMapper warehouseMapper;
 
-    private final ISysPlatformConfigService platformConfigService;
-
     private final SysTenantMapper tenantMapper;
 
+    private final TokenSessionCache tokenSessionCache;
+
+    private final ObjectStorageProvider objectStorageProvider;
+
     public SysUserServiceImpl(SysUserMapper userMapper, RedisUtil redisUtil, JWTUtil jwtUtil, ISysUserRoleRelService userRoleRelService,
-                              ISysUserDeptRelService userDeptRelService, SysRoleMapper roleMapper, SysDepartmentMapper departmentMapper, SysMenuMapper menuMapper, SysRoleMenuRelService roleMenuRelService, WarehouseMapper warehouseMapper, ISysPlatformConfigService platformConfigService, SysTenantMapper tenantMapper) {
+                              ISysUserDeptRelService userDeptRelService, SysRoleMapper roleMapper, SysDepartmentMapper departmentMapper, SysMenuMapper menuMapper, SysRoleMenuRelService roleMenuRelService, WarehouseMapper warehouseMapper, SysTenantMapper tenantMapper, TokenSessionCache tokenSessionCache, ObjectStorageProvider objectStorageProvider) {
         this.userMapper = userMapper;
         this.redisUtil = redisUtil;
         this.jwtUtil = jwtUtil;
@@ -114,8 +112,9 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         this.menuMapper = menuMapper;
         this.roleMenuRelService = roleMenuRelService;
         this.warehouseMapper = warehouseMapper;
-        this.platformConfigService = platformConfigService;
         this.tenantMapper = tenantMapper;
+        this.tokenSessionCache = tokenSessionCache;
+        this.objectStorageProvider = objectStorageProvider;
     }
 
 
@@ -214,15 +213,6 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
                 .map(SysMenu::getId)
                 .filter(id -> id != 15)
                 .toList();
-        var menuIdStr = menuIds.toString().replaceAll(",\\s*", "][");
-        var roleMenuRel = SysRoleMenuRel.builder()
-                .id(SnowflakeIdUtil.nextId())
-                .tenantId(userId)
-                .roleId(role.getId())
-                .menuId(menuIdStr)
-                .createTime(LocalDateTime.now())
-                .createBy(userId)
-                .build();
         // 2023-12-05 默认分配仓库
         var warehouse = Warehouse.builder()
                 .id(SnowflakeIdUtil.nextId())
@@ -252,7 +242,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         var departmentResult = departmentMapper.insert(department);
         var userRoleResult = userRoleRelService.save(userRoleRel);
         var userDepartmentResult = userDeptRelService.save(userDepartmentRel);
-        var roleMenuResult = roleMenuRelService.save(roleMenuRel);
+        var roleMenuResult = roleMenuRelService.saveRoleMenus(userId, role.getId(), menuIds, userId);
         var tenantResult = tenantMapper.insert(tenant);
 
         if (!userResult && roleResult!=0 && departmentResult!=0 && !userRoleResult && !userDepartmentResult && !roleMenuResult && tenantResult!=0) {
@@ -315,6 +305,8 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             redisUtil.set(token + ":userName", user.getUserName(), 86400);
             redisUtil.set(token + ":userId", String.valueOf(user.getId()), 86400);
             redisUtil.set(token + ":tenantId", String.valueOf(user.getTenantId()), 86400);
+            // 重新登录, 通知各实例清理该用户旧的本地会话
+            tokenSessionCache.invalidate(user.getUserName());
         }
 
         return Response.responseData(UserInfoVO.builder()
@@ -370,6 +362,8 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             redisUtil.set(token + ":userName", user.getUserName(), 86400);
             redisUtil.set(token + ":userId", userId, 86400);
             redisUtil.set(token + ":tenantId", tenantId, 86400);
+            // 重新登录, 通知各实例清理该用户旧的本地会话
+            tokenSessionCache.invalidate(user.getUserName());
         }
 
         return Response.responseData(UserInfoVO.builder()
@@ -427,6 +421,8 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             redisUtil.set(token + ":userName", user.getUserName(), 86400);
             redisUtil.set(token + ":userId", userId, 86400);
             redisUtil.set(token + ":tenantId", tenantId, 86400);
+            // 重新登录, 通知各实例清理该用户旧的本地会话
+            tokenSessionCache.invalidate(user.getUserName());
         }
 
         return Response.responseData(UserInfoVO.builder()
@@ -559,7 +555,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
     public UserInfoVO getCurrentUser() {
         var token = httpServletRequestContextToken();
         if (StringUtils.hasText(token)) {
-            var userId = Long.parseLong(redisUtil.getString(token + ":userId"));
+            var userId = tokenSessionCache.getSession(token).getUserId();
             var user = userMapper.selectById(userId);
             if (user != null) {
                 return UserInfoVO.builder()
@@ -581,19 +577,19 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
     @Override
     public Long getCurrentUserId() {
         var token = httpServletRequestContextToken();
-        return Long.parseLong(redisUtil.getString(token + ":userId"));
+        return tokenSessionCache.getSession(token).getUserId();
     }
 
     @Override
     public Long getCurrentTenantId() {
         var token = httpServletRequestContextToken();
-        return Long.parseLong(redisUtil.getString(token + ":tenantId"));
+        return tokenSessionCache.getSession(token).getTenantId();
     }
 
     @Override
     public String getCurrentUserName() {
         var token = httpServletRequestContextToken();
-        return redisUtil.getString(token + ":userName");
+        return tokenSessionCache.getSession(token).getUserName();
     }
 
     @Override
@@ -625,10 +621,23 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         return Response.responseData(userRoleVos);
     }
 
+    @Override
+    public boolean isCurrentUserAdmin() {
+        if (BusinessConstants.DEFAULT_MANAGER.equals(getCurrentUserName())) {
+            return true;
+        }
+        var ids = userRoleRelService.queryByUserId(getCurrentUserId()).stream()
+                .map(SysUserRoleRel::getRoleId).toList();
+        return !ids.isEmpty() && roleMapper.selectBatchIds(ids).stream()
+                .anyMatch(role -> RoleConstants.ROLE_TYPE_ALL_DATA.equals(role.getType()));
+    }
+
     @Override
     public Response<String> userLogout() {
         var token = httpServletRequestContextToken();
         redisUtil.del(token + ":userId", token + ":userName", getCurrentUserName() + ":token");
+        tokenSessionCache.invalidate(token);
+        jwtUtil.evict(token);
         return Response.responseMsg(UserCodeEnum.USER_LOGOUT);
     }
 
@@ -829,26 +838,18 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         if (userId == null) {
             return Response.responseMsg(BaseCodeEnum.PARAMETER_NULL);
         }
-        var platform = platformConfigService.list().stream().filter(item -> item.getPlatformKey().startsWith("tencent_oss")).toList();
-        var ossInfoMap = platform.stream().collect(Collectors.toMap(SysPlatformConfig::getPlatformKey, SysPlatformConfig::getPlatformValue));
-
-        if (ossInfoMap.get("tencent_oss_secret_id") == null || ossInfoMap.get("tencent_oss_secret_key") == null
-                || ossInfoMap.get("tencent_oss_region") == null || ossInfoMap.get("tencent_oss_bucket") == null) {
+        var systemLanguage = getUserSystemLanguage(getCurrentUserId());
+        var storage = objectStorageProvider.getStorage();
+        if (storage == null) {
             return Response.responseMsg(BaseCodeEnum.OSS_KEY_NOT_EXIST);
         }
-
-        TencentOSS.getInstance().setBucket(ossInfoMap.get("tencent_oss_bucket"));
-        TencentOSS.getInstance().setRegion(ossInfoMap.get("tencent_oss_region"));
-        TencentOSS.getInstance().setSecretid(ossInfoMap.get("tencent_oss_secret_id"));
-        TencentOSS.getInstance().setSecretkey(ossInfoMap.get("tencent_oss_secret_key"));
-        var instance = TencentOSS.getInstance();
-        if(instance == null) {
-            return Response.responseMsg(BaseCodeEnum.OSS_GET_INSTANCE_ERROR);
-        }
-        var systemLanguage = getUserSystemLanguage(getCurrentUserId());
         try {
             var key = "temp" + "_" + SnowflakeIdUtil.nextId() + "_" + name;
-            var result = instance.upload(FileUtil.convertMultipartFilesToFile(file), key);
+            String result;
+            // 上传结束后释放存储客户端
+            try (storage; var in = file.getInputStream()) {
+                result = storage.upload(key, in, file.getSize(), file.getContentType());
+            }
             log.info("上传文件信息: " + result);
 
             var updateResult = lambdaUpdate()
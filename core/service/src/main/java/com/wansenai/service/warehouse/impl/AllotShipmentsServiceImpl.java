@@ -13,7 +13,6 @@
 package com.wansenai.service.warehouse.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.bo.AllotStockBO;
@@ -22,6 +21,7 @@ import com.wansenai.bo.FileDataBO;
 import com.wansenai.bo.warehouse.AllotReceiptExportBO;
 import com.wansenai.bo.warehouse.AllotReceiptExportEnBO;
 import com.wansenai.bo.warehouse.AllotStockDataExportEnBO;
+import com.wansenai.bo.product.StockChangeBO;
 import com.wansenai.dto.warehouse.AllotReceiptDTO;
 import com.wansenai.dto.warehouse.QueryAllotReceiptDTO;
 import com.wansenai.entities.product.ProductStock;
@@ -34,6 +34,7 @@ import com.wansenai.mappers.product.ProductStockMapper;
 import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.mappers.warehouse.WarehouseReceiptMainMapper;
 import com.wansenai.service.common.CommonService;
+import com.wansenai.service.product.ProductStockLedgerService;
 import com.wansenai.service.product.ProductService;
 import com.wansenai.service.product.ProductStockKeepUnitService;
 import com.wansenai.service.product.ProductStockService;
@@ -70,10 +71,12 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
     private final ISysUserService userService;
     private final SysFileMapper fileMapper;
     private final ProductStockMapper productStockMapper;
+
+    private final ProductStockLedgerService productStockLedgerService;
     private final ProductStockKeepUnitService productStockKeepUnitService;
     private final ProductStockService productStockService;
 
-    public AllotShipmentsServiceImpl(WarehouseReceiptSubService warehouseReceiptSubService, ProductService productService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper, ProductStockKeepUnitService productStockKeepUnitService, ProductStockService productStockService) {
+    public AllotShipmentsServiceImpl(WarehouseReceiptSubService warehouseReceiptSubService, ProductService productService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper, ProductStockKeepUnitService productStockKeepUnitService, ProductStockService productStockService, ProductStockLedgerService productStockLedgerService) {
         this.warehouseReceiptSubService = warehouseReceiptSubService;
         this.productService = productService;
         this.commonService = commonService;
@@ -82,6 +85,7 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
         this.productStockMapper = productStockMapper;
         this.productStockKeepUnitService = productStockKeepUnitService;
         this.productStockService = productStockService;
+        this.productStockLedgerService = productStockLedgerService;
     }
 
     private ArrayList<Long> processFiles(List<FileDataBO> files, Long retailId) {
@@ -113,37 +117,17 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
         return fid;
     }
 
-    @Transactional
     public void updateProductStock(List<WarehouseReceiptSub> receiptSubList, int stockType) {
-        var stockMap = new ConcurrentHashMap<Long, Integer>();
-
-        receiptSubList.forEach(item -> {
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
-            if (stock != null) {
-                var stockNumber = stock.getStock();
-                var productNumber = item.getProductNumber();
-                if (stockType == 1) {
-                    stockNumber += productNumber;
-                } else if (stockType == 2) {
-                    stockNumber -= productNumber;
-                }
-                stockMap.put(stock.getId(), stockNumber);
-            }
-        });
-        receiptSubList.forEach(item2 -> {
-            stockMap.forEach((key, value) -> {
-                var stock = ProductStock.builder()
-                        .productSkuId(key)
-                        .warehouseId(item2.getWarehouseId())
-                        .currentStockQuantity(BigDecimal.valueOf(value))
-                        .build();
-                var wrapper = new LambdaUpdateWrapper<ProductStock>()
-                        .eq(ProductStock::getProductSkuId, stock.getProductSkuId())
-                        .eq(ProductStock::getWarehouseId, stock.getWarehouseId())
-                        .set(ProductStock::getCurrentStockQuantity, BigDecimal.valueOf(value));
-                productStockMapper.update(stock, wrapper);
-            });
-        });
+        var changes = receiptSubList.stream()
+                .filter(item -> item.getProductNumber() != null)
+                .map(item -> StockChangeBO.builder()
+                        .barCode(item.getProductBarcode())
+                        .warehouseId(item.getWarehouseId())
+                        .quantity(stockType == 1 ? BigDecimal.valueOf(item.getProductNumber()) : BigDecimal.valueOf(item.getProductNumber()).negate())
+                        .receiptMainId(item.getWarehouseReceiptMainId())
+                        .build())
+                .toList();
+        productStockLedgerService.applyStockChanges(changes);
     }
 
     @Override
@@ -164,16 +148,24 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                 .page(page);
 
         var allotReceiptVOList = new ArrayList<AllotReceiptVO>(wrapperMainMapper.getRecords().size() + 1);
+        // 整页的调拨明细一次查询, 按单据分组
+        Map<Long, List<WarehouseReceiptSub>> receiptSubs = wrapperMainMapper.getRecords().isEmpty() ? Map.of() :
+                warehouseReceiptSubService.lambdaQuery()
+                        .in(WarehouseReceiptSub::getWarehouseReceiptMainId, wrapperMainMapper.getRecords().stream().map(WarehouseReceiptMain::getId).toList())
+                        .eq(WarehouseReceiptSub::getDeleteFlag, CommonConstants.NOT_DELETED)
+                        .list()
+                        .stream()
+                        .collect(Collectors.groupingBy(WarehouseReceiptSub::getWarehouseReceiptMainId));
+        var resolver = commonService.createDimensionResolver()
+                .addUserIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getCreateBy)
+                .addProductIds(receiptSubs.values().stream().flatMap(List::stream).toList(), WarehouseReceiptSub::getProductId);
         wrapperMainMapper.getRecords().forEach(item -> {
 
-            var receiptSub = warehouseReceiptSubService.lambdaQuery()
-                    .eq(WarehouseReceiptSub::getWarehouseReceiptMainId, item.getId())
-                    .eq(WarehouseReceiptSub::getDeleteFlag, CommonConstants.NOT_DELETED)
-                    .list();
+            var receiptSub = receiptSubs.getOrDefault(item.getId(), List.of());
 
             StringBuilder productInfo = new StringBuilder();
             for (WarehouseReceiptSub warehouseReceiptSub : receiptSub) {
-                var product = productService.getById(warehouseReceiptSub.getProductId());
+                var product = resolver.getProduct(warehouseReceiptSub.getProductId());
                 if (product != null) {
                     // 如果product的某个值是null就不拼接该值
                     if (product.getProductName() != null) {
@@ -191,7 +183,7 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                 }
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var allotReceiptVO = AllotReceiptVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
@@ -223,15 +215,18 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                 .list();
 
         var allotReceiptExportBOList = new ArrayList<AllotReceiptExportBO>(wrapperMainMapper.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper, WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper, WarehouseReceiptMain::getCreateBy);
         wrapperMainMapper.forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if (product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var allotReceiptExportBO = AllotReceiptExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
@@ -261,15 +256,18 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                 .list();
 
         var allotReceiptExportBOEnList = new ArrayList<AllotReceiptExportEnBO>(wrapperMainMapper.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper, WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper, WarehouseReceiptMain::getCreateBy);
         wrapperMainMapper.forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if (product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var allotReceiptExportEnBO = AllotReceiptExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
@@ -310,15 +308,19 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                     .list();
             if (!warehouseSubs.isEmpty()) {
                 var tableData = new ArrayList<AllotStockBO>(warehouseSubs.size() + 1);
+                var resolver = commonService.createDimensionResolver()
+                        .addProductStockKeys(warehouseSubs, WarehouseReceiptSub::getProductBarcode, WarehouseReceiptSub::getWarehouseId)
+                        .addWarehouseIds(warehouseSubs, WarehouseReceiptSub::getWarehouseId)
+                        .addWarehouseIds(warehouseSubs, WarehouseReceiptSub::getOtherWarehouseId);
                 warehouseSubs.forEach(warehouseReceiptSub -> {
-                    var product = productStockMapper.getProductSkuByBarCode(warehouseReceiptSub.getProductBarcode(), warehouseReceiptSub.getWarehouseId());
+                    var product = resolver.getProductStock(warehouseReceiptSub.getProductBarcode(), warehouseReceiptSub.getWarehouseId());
 
                     var allotStockBO = AllotStockBO.builder()
                             .id(warehouseReceiptSub.getId())
                             .warehouseId(warehouseReceiptSub.getWarehouseId())
-                            .warehouseName(commonService.getWarehouseName(warehouseReceiptSub.getWarehouseId()))
+                            .warehouseName(resolver.getWarehouseName(warehouseReceiptSub.getWarehouseId()))
                             .otherWarehouseId(warehouseReceiptSub.getOtherWarehouseId())
-                            .otherWarehouseName(commonService.getWarehouseName(warehouseReceiptSub.getOtherWarehouseId()))
+                            .otherWarehouseName(resolver.getWarehouseName(warehouseReceiptSub.getOtherWarehouseId()))
                             .barCode(warehouseReceiptSub.getProductBarcode())
                             .salePrice(warehouseReceiptSub.getUnitPrice())
                             .productId(warehouseReceiptSub.getProductId())
@@ -371,6 +373,7 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                     if (warehouseReceiptSub.getOtherWarehouseId() != null) {
                         // 调入方的仓库id setting 到 warehouseId barCode并没有变化（同barCode不同仓库）
                         var otherWarehouseStock = WarehouseReceiptSub.builder()
+                                .warehouseReceiptMainId(warehouseReceiptSub.getWarehouseReceiptMainId())
                                 .warehouseId(warehouseReceiptSub.getOtherWarehouseId())
                                 .productBarcode(warehouseReceiptSub.getProductBarcode())
                                 .productNumber(warehouseReceiptSub.getProductNumber())
@@ -422,6 +425,7 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
             for (WarehouseReceiptSub warehouseStock : shipmentStock) {
                 if (warehouseStock.getOtherWarehouseId() != null) {
                     var otherWarehouseStock = WarehouseReceiptSub.builder()
+                            .warehouseReceiptMainId(warehouseStock.getWarehouseReceiptMainId())
                             .warehouseId(warehouseStock.getOtherWarehouseId())
                             .productBarcode(warehouseStock.getProductBarcode())
                             .productNumber(warehouseStock.getProductNumber())
@@ -493,14 +497,7 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                     // 如果出现重复的productSku数据就不添加到List
                     var productStock = productStockMapper.getProductSkuByBarCode(shipmentStock.getProductBarcode(), shipmentStock.getOtherWarehouseId());
                     if (productStock != null) {
-                        var stockNumber = productStock.getStock();
-                        var productNumber = shipmentStock.getProductNumber();
-                        stockNumber += productNumber;
-                        var stock = ProductStock.builder()
-                                .id(productStock.getId())
-                                .currentStockQuantity(BigDecimal.valueOf(stockNumber))
-                                .build();
-                        productStockMapper.updateById(stock);
+                        // 调入方库存在下面统一通过库存台账累加
                         // 修改价格
                         var productSku = ProductStockKeepUnit.builder()
                                 .id(productStock.getId())
@@ -536,7 +533,8 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                                 .initStockQuantity(BigDecimal.ZERO)
                                 .lowStockQuantity(BigDecimal.ZERO)
                                 .highStockQuantity(BigDecimal.ZERO)
-                                .currentStockQuantity(BigDecimal.valueOf(shipmentStock.getProductNumber()))
+                                // 调入数量在保存后统一通过库存台账累加, 保证写入库存流水
+                                .currentStockQuantity(BigDecimal.ZERO)
                                 .createTime(LocalDateTime.now())
                                 .createBy(userId)
                                 .updateBy(userId)
@@ -553,6 +551,7 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
             for (WarehouseReceiptSub warehouseStock : shipmentSubList) {
                 if (warehouseStock.getOtherWarehouseId() != null) {
                     var otherWarehouseStock = WarehouseReceiptSub.builder()
+                            .warehouseReceiptMainId(warehouseStock.getWarehouseReceiptMainId())
                             .warehouseId(warehouseStock.getOtherWarehouseId())
                             .productBarcode(warehouseStock.getProductBarcode())
                             .productNumber(warehouseStock.getProductNumber())
@@ -561,10 +560,6 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                 }
             }
 
-            if (!otherSubtractWarehouseReceipts.isEmpty()) {
-                updateProductStock(otherSubtractWarehouseReceipts, 1);
-            }
-
             var saveSubResult = warehouseReceiptSubService.saveBatch(shipmentSubList);
             if (!otherWarehouseSkuList.isEmpty()) {
                 productStockKeepUnitService.saveBatch(otherWarehouseSkuList);
@@ -572,6 +567,9 @@ public class AllotShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
             if (!otherWarehouseStockList.isEmpty()) {
                 productStockService.saveBatch(otherWarehouseStockList);
             }
+            if (!otherSubtractWarehouseReceipts.isEmpty()) {
+                updateProductStock(otherSubtractWarehouseReceipts, 1);
+            }
             updateProductStock(shipmentSubList, 2);
 
             if (saveSubResult && saveMainResult) {
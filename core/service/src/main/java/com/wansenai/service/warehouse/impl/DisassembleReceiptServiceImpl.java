@@ -12,7 +12,6 @@
  */
 package com.wansenai.service.warehouse.impl;
 
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.bo.AssembleStockBO;
@@ -21,6 +20,7 @@ import com.wansenai.bo.FileDataBO;
 import com.wansenai.bo.warehouse.AssembleStockDataExportEnBO;
 import com.wansenai.bo.warehouse.DisassembleReceiptExportBO;
 import com.wansenai.bo.warehouse.DisassembleReceiptExportEnBO;
+import com.wansenai.bo.product.StockChangeBO;
 import com.wansenai.dto.warehouse.DisassembleReceiptDTO;
 import com.wansenai.dto.warehouse.QueryDisassembleReceiptDTO;
 import com.wansenai.entities.product.ProductStock;
@@ -32,6 +32,7 @@ import com.wansenai.mappers.product.ProductStockMapper;
 import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.mappers.warehouse.WarehouseReceiptMainMapper;
 import com.wansenai.service.common.CommonService;
+import com.wansenai.service.product.ProductStockLedgerService;
 import com.wansenai.service.product.ProductService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.service.warehouse.DisassembleReceiptService;
@@ -70,13 +71,16 @@ public class DisassembleReceiptServiceImpl extends ServiceImpl<WarehouseReceiptM
     private final SysFileMapper fileMapper;
     private final ProductStockMapper productStockMapper;
 
-    public DisassembleReceiptServiceImpl(WarehouseReceiptSubService warehouseReceiptSubService, ProductService productService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper) {
+    private final ProductStockLedgerService productStockLedgerService;
+
+    public DisassembleReceiptServiceImpl(WarehouseReceiptSubService warehouseReceiptSubService, ProductService productService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper, ProductStockLedgerService productStockLedgerService) {
         this.warehouseReceiptSubService = warehouseReceiptSubService;
         this.productService = productService;
         this.commonService = commonService;
         this.userService = userService;
         this.fileMapper = fileMapper;
         this.productStockMapper = productStockMapper;
+        this.productStockLedgerService = productStockLedgerService;
     }
 
     private ArrayList<Long> processFiles(List<FileDataBO> files, Long retailId) {
@@ -108,37 +112,17 @@ public class DisassembleReceiptServiceImpl extends ServiceImpl<WarehouseReceiptM
         return fid;
     }
 
-    @Transactional
     public void updateProductStock(List<WarehouseReceiptSub> receiptSubList, int stockType) {
-        var stockMap = new ConcurrentHashMap<Long, Integer>();
-
-        receiptSubList.forEach(item -> {
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
-            if (stock != null) {
-                var stockNumber = stock.getStock();
-                var productNumber = item.getProductNumber();
-                if (stockType == 1) {
-                    stockNumber += productNumber;
-                } else if (stockType == 2) {
-                    stockNumber -= productNumber;
-                }
-                stockMap.put(stock.getId(), stockNumber);
-            }
-        });
-        receiptSubList.forEach(item2 -> {
-            stockMap.forEach((key, value) -> {
-                var stock = ProductStock.builder()
-                        .productSkuId(key)
-                        .warehouseId(item2.getWarehouseId())
-                        .currentStockQuantity(BigDecimal.valueOf(value))
-                        .build();
-                var wrapper = new LambdaUpdateWrapper<ProductStock>()
-                        .eq(ProductStock::getProductSkuId, stock.getProductSkuId())
-                        .eq(ProductStock::getWarehouseId, stock.getWarehouseId())
-                        .set(ProductStock::getCurrentStockQuantity, BigDecimal.valueOf(value));
-                productStockMapper.update(stock, wrapper);
-            });
-        });
+        var changes = receiptSubList.stream()
+                .filter(item -> item.getProductNumber() != null)
+                .map(item -> StockChangeBO.builder()
+                        .barCode(item.getProductBarcode())
+                        .warehouseId(item.getWarehouseId())
+                        .quantity(stockType == 1 ? BigDecimal.valueOf(item.getProductNumber()) : BigDecimal.valueOf(item.getProductNumber()).negate())
+                        .receiptMainId(item.getWarehouseReceiptMainId())
+                        .build())
+                .toList();
+        productStockLedgerService.applyStockChanges(changes);
     }
 
     @Override
@@ -159,15 +143,18 @@ public class DisassembleReceiptServiceImpl extends ServiceImpl<WarehouseReceiptM
                 .page(page);
 
         var disAssembleReceiptVOList = new ArrayList<DisassembleReceiptVO>(wrapperMainMapper.getRecords().size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getCreateBy);
         wrapperMainMapper.getRecords().forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if (product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var disAssembleReceiptVO = DisassembleReceiptVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
@@ -199,15 +186,18 @@ public class DisassembleReceiptServiceImpl extends ServiceImpl<WarehouseReceiptM
                 .list();
 
         var disassembleReceiptExportBOList = new ArrayList<DisassembleReceiptExportBO>(wrapperMainMapper.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper, WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper, WarehouseReceiptMain::getCreateBy);
         wrapperMainMapper.forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if (product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var disassembleReceiptExportBO = DisassembleReceiptExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
@@ -237,15 +227,18 @@ public class DisassembleReceiptServiceImpl extends ServiceImpl<WarehouseReceiptM
                 .list();
 
         var disassembleReceiptExportEnBOList = new ArrayList<DisassembleReceiptExportEnBO>(wrapperMainMapper.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper, WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper, WarehouseReceiptMain::getCreateBy);
         wrapperMainMapper.forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if (product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var disassembleReceiptExportEnBO = DisassembleReceiptExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
@@ -286,13 +279,16 @@ public class DisassembleReceiptServiceImpl extends ServiceImpl<WarehouseReceiptM
                     .list();
             if (!warehouseSubs.isEmpty()) {
                 var tableData = new ArrayList<AssembleStockBO>(warehouseSubs.size() + 1);
+                var resolver = commonService.createDimensionResolver()
+                        .addProductStockKeys(warehouseSubs, WarehouseReceiptSub::getProductBarcode, WarehouseReceiptSub::getWarehouseId)
+                        .addWarehouseIds(warehouseSubs, WarehouseReceiptSub::getWarehouseId);
                 warehouseSubs.forEach(warehouseReceiptSub -> {
-                    var product = productStockMapper.getProductSkuByBarCode(warehouseReceiptSub.getProductBarcode(), warehouseReceiptSub.getWarehouseId());
+                    var product = resolver.getProductStock(warehouseReceiptSub.getProductBarcode(), warehouseReceiptSub.getWarehouseId());
 
                     var assembleStockBO = AssembleStockBO.builder()
                             .id(warehouseReceiptSub.getId())
                             .warehouseId(warehouseReceiptSub.getWarehouseId())
-                            .warehouseName(commonService.getWarehouseName(warehouseReceiptSub.getWarehouseId()))
+                            .warehouseName(resolver.getWarehouseName(warehouseReceiptSub.getWarehouseId()))
                             .barCode(warehouseReceiptSub.getProductBarcode())
                             .productId(warehouseReceiptSub.getProductId())
                             .productName(product.getProductName())
@@ -12,7 +12,6 @@
  */
 package com.wansenai.service.warehouse.impl;
 
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.bo.*;
@@ -20,6 +19,7 @@ import com.wansenai.bo.warehouse.OtherShipmentExportBO;
 import com.wansenai.bo.warehouse.OtherShipmentExportEnBO;
 import com.wansenai.bo.warehouse.StorageShipmentStockExportBO;
 import com.wansenai.bo.warehouse.StorageShipmentStockExportEnBO;
+import com.wansenai.bo.product.StockChangeBO;
 import com.wansenai.dto.warehouse.OtherShipmentDTO;
 import com.wansenai.dto.warehouse.QueryOtherShipmentDTO;
 import com.wansenai.entities.product.ProductStock;
@@ -31,6 +31,7 @@ import com.wansenai.mappers.product.ProductStockMapper;
 import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.mappers.warehouse.WarehouseReceiptMainMapper;
 import com.wansenai.service.common.CommonService;
+import com.wansenai.service.product.ProductStockLedgerService;
 import com.wansenai.service.product.ProductService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.service.warehouse.OtherShipmentsService;
@@ -47,6 +48,7 @@ import com.wansenai.vo.warehouse.OtherShipmentVO;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
@@ -68,13 +70,16 @@ public class OtherShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
     private final SysFileMapper fileMapper;
     private final ProductStockMapper productStockMapper;
 
-    public OtherShipmentsServiceImpl(WarehouseReceiptSubService warehouseReceiptSubService, ProductService productService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper) {
+    private final ProductStockLedgerService productStockLedgerService;
+
+    public OtherShipmentsServiceImpl(WarehouseReceiptSubService warehouseReceiptSubService, ProductService productService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper, ProductStockLedgerService productStockLedgerService) {
         this.warehouseReceiptSubService = warehouseReceiptSubService;
         this.productService = productService;
         this.commonService = commonService;
         this.userService = userService;
         this.fileMapper = fileMapper;
         this.productStockMapper = productStockMapper;
+        this.productStockLedgerService = productStockLedgerService;
     }
 
     private ArrayList<Long> processFiles(List<FileDataBO> files, Long retailId) {
@@ -107,35 +112,16 @@ public class OtherShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
     }
 
     private void updateProductStock(List<WarehouseReceiptSub> receiptSubList, int stockType) {
-        var stockMap = new ConcurrentHashMap<Long, Integer>();
-
-        receiptSubList.forEach(item -> {
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
-            if (stock != null) {
-                var stockNumber = stock.getStock();
-                var productNumber = item.getProductNumber();
-                if (stockType == 1) {
-                    stockNumber += productNumber;
-                } else if (stockType == 2) {
-                    stockNumber -= productNumber;
-                }
-                stockMap.put(stock.getId(), stockNumber);
-            }
-        });
-        receiptSubList.forEach(item2 -> {
-            stockMap.forEach((key, value) -> {
-                var stock = ProductStock.builder()
-                        .productSkuId(key)
-                        .warehouseId(item2.getWarehouseId())
-                        .currentStockQuantity(BigDecimal.valueOf(value))
-                        .build();
-                var wrapper = new LambdaUpdateWrapper<ProductStock>()
-                        .eq(ProductStock::getProductSkuId, stock.getProductSkuId())
-                        .eq(ProductStock::getWarehouseId, stock.getWarehouseId())
-                        .set(ProductStock::getCurrentStockQuantity, BigDecimal.valueOf(value));
-                productStockMapper.update(stock, wrapper);
-            });
-        });
+        var changes = receiptSubList.stream()
+                .filter(item -> item.getProductNumber() != null)
+                .map(item -> StockChangeBO.builder()
+                        .barCode(item.getProductBarcode())
+                        .warehouseId(item.getWarehouseId())
+                        .quantity(stockType == 1 ? BigDecimal.valueOf(item.getProductNumber()) : BigDecimal.valueOf(item.getProductNumber()).negate())
+                        .receiptMainId(item.getWarehouseReceiptMainId())
+                        .build())
+                .toList();
+        productStockLedgerService.applyStockChanges(changes);
     }
 
     @Override
@@ -158,20 +144,24 @@ public class OtherShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                 .page(page);
 
         var otherShipmentVOList = new ArrayList<OtherShipmentVO>(wrapperMainMapper.getRecords().size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getCreateBy)
+                .addCustomerIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getRelatedPersonId);
         wrapperMainMapper.getRecords().forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if(product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var otherShipmentVO = OtherShipmentVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .productInfo(productInfo)
-                    .customerName(commonService.getCustomerName(item.getRelatedPersonId()))
+                    .customerName(resolver.getCustomerName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
                     .operator(Optional.ofNullable(operator).map(SysUser::getName).orElse(""))
                     .productNumber(item.getTotalProductNumber())
@@ -201,20 +191,24 @@ public class OtherShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                 .list();
 
         var otherShipmentExportBOList = new ArrayList<OtherShipmentExportBO>(wrapperMainMapper.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper, WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper, WarehouseReceiptMain::getCreateBy)
+                .addCustomerIds(wrapperMainMapper, WarehouseReceiptMain::getRelatedPersonId);
         wrapperMainMapper.forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if(product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var otherShipmentExportBO = OtherShipmentExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .productInfo(productInfo)
-                    .customerName(commonService.getCustomerName(item.getRelatedPersonId()))
+                    .customerName(resolver.getCustomerName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
                     .operator(Optional.ofNullable(operator).map(SysUser::getName).orElse(""))
                     .productNumber(item.getTotalProductNumber())
@@ -242,20 +236,24 @@ public class OtherShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                 .list();
 
         var otherShipmentExportBOEnList = new ArrayList<OtherShipmentExportEnBO>(wrapperMainMapper.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper, WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper, WarehouseReceiptMain::getCreateBy)
+                .addCustomerIds(wrapperMainMapper, WarehouseReceiptMain::getRelatedPersonId);
         wrapperMainMapper.forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if(product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var otherShipmentExportEnBO = OtherShipmentExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .productInfo(productInfo)
-                    .customerName(commonService.getCustomerName(item.getRelatedPersonId()))
+                    .customerName(resolver.getCustomerName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
                     .operator(Optional.ofNullable(operator).map(SysUser::getName).orElse(""))
                     .productNumber(item.getTotalProductNumber())
@@ -294,13 +292,16 @@ public class OtherShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
                     .list();
             if (!warehouseSubs.isEmpty()) {
                 var tableData = new ArrayList<StorageShipmentStockBO>(warehouseSubs.size() + 1);
+                var resolver = commonService.createDimensionResolver()
+                        .addProductStockKeys(warehouseSubs, WarehouseReceiptSub::getProductBarcode, WarehouseReceiptSub::getWarehouseId)
+                        .addWarehouseIds(warehouseSubs, WarehouseReceiptSub::getWarehouseId);
                 warehouseSubs.forEach(warehouseReceiptSub -> {
-                    var product = productStockMapper.getProductSkuByBarCode(warehouseReceiptSub.getProductBarcode(), warehouseReceiptSub.getWarehouseId());
+                    var product = resolver.getProductStock(warehouseReceiptSub.getProductBarcode(), warehouseReceiptSub.getWarehouseId());
 
                     var storageShipmentStockBO = StorageShipmentStockBO.builder()
                             .id(warehouseReceiptSub.getId())
                             .warehouseId(warehouseReceiptSub.getWarehouseId())
-                            .warehouseName(commonService.getWarehouseName(warehouseReceiptSub.getWarehouseId()))
+                            .warehouseName(resolver.getWarehouseName(warehouseReceiptSub.getWarehouseId()))
                             .barCode(warehouseReceiptSub.getProductBarcode())
                             .productId(warehouseReceiptSub.getProductId())
                             .productName(product.getProductName())
@@ -326,9 +327,22 @@ public class OtherShipmentsServiceImpl extends ServiceImpl<WarehouseReceiptMainM
     }
 
     @Override
+    @Transactional
     public Response<String> addOrUpdateOtherShipments(OtherShipmentDTO otherShipmentsDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
+
+        // 保存前校验每个条码在所选仓库都有库存行
+        var missingStockBarCodes = productStockLedgerService.getMissingStockBarCodes(Optional.ofNullable(otherShipmentsDTO.getTableData()).orElse(List.of()).stream()
+                .map(item -> StockChangeBO.builder().barCode(item.getBarCode()).warehouseId(item.getWarehouseId()).build())
+                .toList());
+        if (!missingStockBarCodes.isEmpty()) {
+            if ("zh_CN".equals(systemLanguage)) {
+                return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "条码在所选仓库没有库存记录,请检查仓库是否正确: " + String.join(",", missingStockBarCodes));
+            }
+            return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "No stock found in the selected warehouse for barcode: " + String.join(",", missingStockBarCodes));
+        }
+
         var fid = processFiles(otherShipmentsDTO.getFiles(), otherShipmentsDTO.getId());
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
         var isUpdate = otherShipmentsDTO.getId() != null;
@@ -12,7 +12,6 @@
  */
 package com.wansenai.service.warehouse.impl;
 
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.wansenai.bo.*;
@@ -20,6 +19,7 @@ import com.wansenai.bo.warehouse.OtherStorageExportBO;
 import com.wansenai.bo.warehouse.OtherStorageExportEnBO;
 import com.wansenai.bo.warehouse.StorageShipmentStockExportBO;
 import com.wansenai.bo.warehouse.StorageShipmentStockExportEnBO;
+import com.wansenai.bo.product.StockChangeBO;
 import com.wansenai.dto.warehouse.OtherStorageDTO;
 import com.wansenai.dto.warehouse.QueryOtherStorageDTO;
 import com.wansenai.entities.product.ProductStock;
@@ -31,6 +31,7 @@ import com.wansenai.mappers.product.ProductStockMapper;
 import com.wansenai.mappers.system.SysFileMapper;
 import com.wansenai.mappers.warehouse.WarehouseReceiptMainMapper;
 import com.wansenai.service.common.CommonService;
+import com.wansenai.service.product.ProductStockLedgerService;
 import com.wansenai.service.product.ProductService;
 import com.wansenai.service.user.ISysUserService;
 import com.wansenai.service.warehouse.OtherStorageService;
@@ -47,6 +48,7 @@ import com.wansenai.vo.warehouse.OtherStorageVO;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
@@ -68,13 +70,16 @@ public class OtherStorageServiceImpl extends ServiceImpl<WarehouseReceiptMainMap
     private final SysFileMapper fileMapper;
     private final ProductStockMapper productStockMapper;
 
-    public OtherStorageServiceImpl(WarehouseReceiptSubService warehouseReceiptSubService, ProductService productService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper) {
+    private final ProductStockLedgerService productStockLedgerService;
+
+    public OtherStorageServiceImpl(WarehouseReceiptSubService warehouseReceiptSubService, ProductService productService, CommonService commonService, ISysUserService userService, SysFileMapper fileMapper, ProductStockMapper productStockMapper, ProductStockLedgerService productStockLedgerService) {
         this.warehouseReceiptSubService = warehouseReceiptSubService;
         this.productService = productService;
         this.commonService = commonService;
         this.userService = userService;
         this.fileMapper = fileMapper;
         this.productStockMapper = productStockMapper;
+        this.productStockLedgerService = productStockLedgerService;
     }
 
     private ArrayList<Long> processFiles(List<FileDataBO> files, Long retailId) {
@@ -107,35 +112,16 @@ public class OtherStorageServiceImpl extends ServiceImpl<WarehouseReceiptMainMap
     }
 
     private void updateProductStock(List<WarehouseReceiptSub> receiptSubList, int stockType) {
-        var stockMap = new ConcurrentHashMap<Long, Integer>();
-
-        receiptSubList.forEach(item -> {
-            var stock = productStockMapper.getProductSkuByBarCode(item.getProductBarcode(), item.getWarehouseId());
-            if (stock != null) {
-                var stockNumber = stock.getStock();
-                var productNumber = item.getProductNumber();
-                if (stockType == 1) {
-                    stockNumber += productNumber;
-                } else if (stockType == 2) {
-                    stockNumber -= productNumber;
-                }
-                stockMap.put(stock.getId(), stockNumber);
-            }
-        });
-        receiptSubList.forEach(item2 -> {
-            stockMap.forEach((key, value) -> {
-                var stock = ProductStock.builder()
-                        .productSkuId(key)
-                        .warehouseId(item2.getWarehouseId())
-                        .currentStockQuantity(BigDecimal.valueOf(value))
-                        .build();
-                var wrapper = new LambdaUpdateWrapper<ProductStock>()
-                        .eq(ProductStock::getProductSkuId, stock.getProductSkuId())
-                        .eq(ProductStock::getWarehouseId, stock.getWarehouseId())
-                        .set(ProductStock::getCurrentStockQuantity, BigDecimal.valueOf(value));
-                productStockMapper.update(stock, wrapper);
-            });
-        });
+        var changes = receiptSubList.stream()
+                .filter(item -> item.getProductNumber() != null)
+                .map(item -> StockChangeBO.builder()
+                        .barCode(item.getProductBarcode())
+                        .warehouseId(item.getWarehouseId())
+                        .quantity(stockType == 1 ? BigDecimal.valueOf(item.getProductNumber()) : BigDecimal.valueOf(item.getProductNumber()).negate())
+                        .receiptMainId(item.getWarehouseReceiptMainId())
+                        .build())
+                .toList();
+        productStockLedgerService.applyStockChanges(changes);
     }
 
     @Override
@@ -158,20 +144,24 @@ public class OtherStorageServiceImpl extends ServiceImpl<WarehouseReceiptMainMap
                 .page(page);
 
         var otherStorageVOList = new ArrayList<OtherStorageVO>(wrapperMainMapper.getRecords().size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getCreateBy)
+                .addSupplierIds(wrapperMainMapper.getRecords(), WarehouseReceiptMain::getRelatedPersonId);
         wrapperMainMapper.getRecords().forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if(product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var otherStorageVO = OtherStorageVO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .productInfo(productInfo)
-                    .supplierName(commonService.getSupplierName(item.getRelatedPersonId()))
+                    .supplierName(resolver.getSupplierName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
                     .operator(Optional.ofNullable(operator).map(SysUser::getName).orElse(""))
                     .productNumber(item.getTotalProductNumber())
@@ -201,20 +191,24 @@ public class OtherStorageServiceImpl extends ServiceImpl<WarehouseReceiptMainMap
                 .list();
 
         var otherStorageExportBOList = new ArrayList<OtherStorageExportBO>(wrapperMainMapper.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper, WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper, WarehouseReceiptMain::getCreateBy)
+                .addSupplierIds(wrapperMainMapper, WarehouseReceiptMain::getRelatedPersonId);
         wrapperMainMapper.forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if(product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var otherStorageExportBO = OtherStorageExportBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .productInfo(productInfo)
-                    .supplierName(commonService.getSupplierName(item.getRelatedPersonId()))
+                    .supplierName(resolver.getSupplierName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
                     .operator(Optional.ofNullable(operator).map(SysUser::getName).orElse(""))
                     .productNumber(item.getTotalProductNumber())
@@ -242,20 +236,24 @@ public class OtherStorageServiceImpl extends ServiceImpl<WarehouseReceiptMainMap
                 .list();
 
         var otherStorageExportEnBOList = new ArrayList<OtherStorageExportEnBO>(wrapperMainMapper.size() + 1);
+        var resolver = commonService.createDimensionResolver()
+                .addProductIds(wrapperMainMapper, WarehouseReceiptMain::getProductId)
+                .addUserIds(wrapperMainMapper, WarehouseReceiptMain::getCreateBy)
+                .addSupplierIds(wrapperMainMapper, WarehouseReceiptMain::getRelatedPersonId);
         wrapperMainMapper.forEach(item -> {
 
-            var product = productService.getById(item.getProductId());
+            var product = resolver.getProduct(item.getProductId());
             var productInfo = "";
             if(product != null) {
                 productInfo = product.getProductName() + "|" + product.getProductStandard() + "|" + product.getProductModel() + "|" + product.getProductUnit();
             }
 
-            var operator = userService.getById(item.getCreateBy());
+            var operator = resolver.getUser(item.getCreateBy());
             var otherStorageExportEnBO = OtherStorageExportEnBO.builder()
                     .id(item.getId())
                     .receiptNumber(item.getReceiptNumber())
                     .productInfo(productInfo)
-                    .supplierName(commonService.getSupplierName(item.getRelatedPersonId()))
+                    .supplierName(resolver.getSupplierName(item.getRelatedPersonId()))
                     .receiptDate(item.getReceiptDate())
                     .operator(Optional.ofNullable(operator).map(SysUser::getName).orElse(""))
                     .productNumber(item.getTotalProductNumber())
@@ -294,13 +292,16 @@ public class OtherStorageServiceImpl extends ServiceImpl<WarehouseReceiptMainMap
                     .list();
             if (!warehouseSubs.isEmpty()) {
                 var tableData = new ArrayList<StorageShipmentStockBO>(warehouseSubs.size() + 1);
+                var resolver = commonService.createDimensionResolver()
+                        .addProductStockKeys(warehouseSubs, WarehouseReceiptSub::getProductBarcode, WarehouseReceiptSub::getWarehouseId)
+                        .addWarehouseIds(warehouseSubs, WarehouseReceiptSub::getWarehouseId);
                 warehouseSubs.forEach(warehouseReceiptSub -> {
-                    var product = productStockMapper.getProductSkuByBarCode(warehouseReceiptSub.getProductBarcode(), warehouseReceiptSub.getWarehouseId());
+                    var product = resolver.getProductStock(warehouseReceiptSub.getProductBarcode(), warehouseReceiptSub.getWarehouseId());
 
                     var storageShipmentStockBO = StorageShipmentStockBO.builder()
                             .id(warehouseReceiptSub.getId())
                             .warehouseId(warehouseReceiptSub.getWarehouseId())
-                            .warehouseName(commonService.getWarehouseName(warehouseReceiptSub.getWarehouseId()))
+                            .warehouseName(resolver.getWarehouseName(warehouseReceiptSub.getWarehouseId()))
                             .barCode(warehouseReceiptSub.getProductBarcode())
                             .productId(warehouseReceiptSub.getProductId())
                             .productName(product.getProductName())
@@ -326,9 +327,22 @@ public class OtherStorageServiceImpl extends ServiceImpl<WarehouseReceiptMainMap
     }
 
     @Override
+    @Transactional
     public Response<String> addOrUpdateOtherStorage(OtherStorageDTO otherStorageDTO) {
         var userId = userService.getCurrentUserId();
         var systemLanguage = userService.getUserSystemLanguage(userId);
+
+        // 保存前校验每个条码在所选仓库都有库存行
+        var missingStockBarCodes = productStockLedgerService.getMissingStockBarCodes(Optional.ofNullable(otherStorageDTO.getTableData()).orElse(List.of()).stream()
+                .map(item -> StockChangeBO.builder().barCode(item.getBarCode()).warehouseId(item.getWarehouseId()).build())
+                .toList());
+        if (!missingStockBarCodes.isEmpty()) {
+            if ("zh_CN".equals(systemLanguage)) {
+                return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "条码在所选仓库没有库存记录,请检查仓库是否正确: " + String.join(",", missingStockBarCodes));
+            }
+            return Response.responseMsg(BaseCodeEnum.QUERY_DATA_EMPTY.getCode(), "No stock found in the selected warehouse for barcode: " + String.join(",", missingStockBarCodes));
+        }
+
         var fid = processFiles(otherStorageDTO.getFiles(), otherStorageDTO.getId());
         var fileIds = StringUtils.collectionToCommaDelimitedString(fid);
         var isUpdate = otherStorageDTO.getId() != null;
@@ -12,160 +12,45 @@
  */
 package com.wansenai.utils;
 
+import com.wansenai.utils.snowflake.SnowflakeIdGenerator;
+
 /**
  * Snowflake Algorithm
+ * <p>
+ * 全局发号入口, 实际由 {@link SnowflakeIdGenerator} 无锁生成。启动时按配置或 Redis 租约设置机器id,
+ * 设置之前使用机器id 0。
  */
 public class SnowflakeIdUtil {
 
-    // ==============================Fields===========================================
-    /**
-     * 开始时间截 (2015-01-01)
-     */
-    private final static long starTimeCutoff = 1420041600000L;
-
-    /**
-     * 机器id所占的位数
-     */
-    private final static long workerIdBits = 5L;
-
-    /**
-     * 数据标识id所占的位数
-     */
-    private final static long datacenterIdBits = 5L;
-
-    /**
-     * 支持的最大机器id，结果是31 (这个移位算法可以很快的计算出几位二进制数所能表示的最大十进制数)
-     */
-    private final static long maxWorkerId = ~(-1L << workerIdBits);
-
-    /**
-     * 支持的最大数据标识id，结果是31
-     */
-    private final static long maxDatacenterId = ~(-1L << datacenterIdBits);
-
-    /**
-     * 序列在id中占的位数
-     */
-    private final static long sequenceBits = 12L;
-
-    /**
-     * 机器ID向左移12位
-     */
-    private final static long workerIdShift = sequenceBits;
-
-    /**
-     * 数据标识id向左移17位(12+5)
-     */
-    private final static long datacenterIdShift = sequenceBits + workerIdBits;
-
-    /**
-     * 时间截向左移22位(5+5+12)
-     */
-    private final static long timestampLeftShift = sequenceBits + workerIdBits + datacenterIdBits;
-
-    /**
-     * 生成序列的掩码，这里为4095 (0b111111111111=0xfff=4095)
-     */
-    private final static long sequenceMask = ~(-1L << sequenceBits);
-
-    /**
-     * 工作机器ID(0~31)
-     */
-    private static long workerId;
-
-    /**
-     * 数据中心ID(0~31)
-     */
-    private static long datacenterId;
-
-    /**
-     * 毫秒内序列(0~4095)
-     */
-    private static long sequence = 0L;
-
-    /**
-     * 上次生成ID的时间截
-     */
-    private static long lastTimestamp = -1L;
+    private static volatile SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 0);
 
-    //==============================Constructors=====================================
-
-    /**
-     * 构造函数
-     *
-     * @param workerId     工作ID (0~31)
-     * @param datacenterId 数据中心ID (0~31)
-     */
-    public SnowflakeIdUtil(long workerId, long datacenterId) {
-        if (workerId > maxWorkerId || workerId < 0) {
-            throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", maxWorkerId));
-        }
-        if (datacenterId > maxDatacenterId || datacenterId < 0) {
-            throw new IllegalArgumentException(String.format("datacenter Id can't be greater than %d or less than 0", maxDatacenterId));
-        }
-        SnowflakeIdUtil.workerId = workerId;
-        SnowflakeIdUtil.datacenterId = datacenterId;
+    private SnowflakeIdUtil() {
     }
 
-    // ==============================Methods==========================================
-
     /**
      * 获得下一个ID (该方法是线程安全的)
      *
      * @return SnowflakeId
      */
-    public synchronized static long nextId() {
-        long timestamp = timeGen();
-
-        //如果当前时间小于上一次ID生成的时间戳，说明系统时钟回退过这个时候应当抛出异常
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", lastTimestamp - timestamp));
-        }
-
-        //如果是同一时间生成的，则进行毫秒内序列
-        if (lastTimestamp == timestamp) {
-            sequence = (sequence + 1) & sequenceMask;
-            //毫秒内序列溢出
-            if (sequence == 0) {
-                //阻塞到下一个毫秒,获得新的时间戳
-                timestamp = tilNextMillis(lastTimestamp);
-            }
-        }
-        //时间戳改变，毫秒内序列重置
-        else {
-            sequence = 0L;
-        }
-
-        //上次生成ID的时间截
-        lastTimestamp = timestamp;
-
-        //移位并通过或运算拼到一起组成64位的ID
-        return ((timestamp - starTimeCutoff) << timestampLeftShift)
-                | (datacenterId << datacenterIdShift)
-                | (workerId << workerIdShift)
-                | sequence;
+    public static long nextId() {
+        return generator.nextId();
     }
 
     /**
-     * 阻塞到下一个毫秒，直到获得新的时间戳
+     * 一次获得多个ID, 用于批量插入
      *
-     * @param lastTimestamp 上次生成ID的时间截
-     * @return 当前时间戳
+     * @param count ID数量
+     * @return SnowflakeId数组
      */
-    protected static long tilNextMillis(long lastTimestamp) {
-        long timestamp = timeGen();
-        while (timestamp <= lastTimestamp) {
-            timestamp = timeGen();
-        }
-        return timestamp;
+    public static long[] nextIds(int count) {
+        return generator.nextIds(count);
     }
 
-    /**
-     * 返回以毫秒为单位的当前时间
-     *
-     * @return 当前时间(毫秒)
-     */
-    protected static long timeGen() {
-        return System.currentTimeMillis();
+    public static SnowflakeIdGenerator getGenerator() {
+        return generator;
+    }
+
+    public static void setGenerator(SnowflakeIdGenerator snowflakeIdGenerator) {
+        generator = snowflakeIdGenerator;
     }
 }
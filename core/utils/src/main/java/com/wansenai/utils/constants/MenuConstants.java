@@ -1,8 +1,10 @@
 package com.wansenai.utils.constants;
 
+import java.util.List;
+
 public interface MenuConstants {
 
-    String DEFAULT_TENANT_ROLE_MENU = "[1][3][4][5][6][7][8][9][10][11][12][13][14][16][17][18][19][20][21][22][23]" +
-            "[24][25][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305]" +
-            "[306][307][308][309][310][311][312][313][314][315][316][317][319][320][321][322]";
+    List<Integer> DEFAULT_TENANT_ROLE_MENU = List.of(1, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 18, 19, 20, 21, 22, 23,
+            24, 25, 287, 288, 289, 290, 291, 292, 293, 294, 295, 296, 297, 298, 299, 300, 301, 302, 303, 304, 305,
+            306, 307, 308, 309, 310, 311, 312, 313, 314, 315, 316, 317, 319, 320, 321, 322);
 }
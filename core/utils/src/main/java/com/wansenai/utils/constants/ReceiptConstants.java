@@ -39,4 +39,10 @@ public interface ReceiptConstants {
     String RECEIPT_SUB_TYPE_PURCHASE_STORAGE = "采购入库";
 
     String RECEIPT_SUB_TYPE_PURCHASE_REFUND = "采购退货";
+
+    String RECEIPT_CATEGORY_RETAIL = "零售";
+
+    String RECEIPT_CATEGORY_SALES = "销售";
+
+    String RECEIPT_CATEGORY_PURCHASE = "采购";
 }
@@ -63,7 +63,11 @@ public enum BaseCodeEnum {
 
     FREQUENT_SYSTEM_ACCESS("B0010", "系统请求过于频繁，请稍后再试"),
 
-    SYSTEM_BUSY("B0020", "系统繁忙，请稍后再试");
+    SYSTEM_BUSY("B0020", "系统繁忙，请稍后再试"),
+
+    STOCK_INSUFFICIENT("A0600", "库存不足，单据会使库存变为负数"),
+
+    STOCK_INSUFFICIENT_EN("A0600", "Insufficient stock, the receipt would make the stock negative");
 
     /**
      * 响应状态码
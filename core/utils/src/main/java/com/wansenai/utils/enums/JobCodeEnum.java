@@ -0,0 +1,58 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum JobCodeEnum {
+
+    JOB_SUBMIT_SUCCESS("J0001", "任务已提交，请在后台任务中查看进度"),
+
+    JOB_SUBMIT_SUCCESS_EN("J0001", "The job has been submitted, check its progress in background jobs"),
+
+    JOB_CANCEL_SUCCESS("J0002", "任务已取消"),
+
+    JOB_CANCEL_SUCCESS_EN("J0002", "The job has been cancelled"),
+
+    JOB_NOT_EXIST("J0404", "任务不存在或已过期"),
+
+    JOB_NOT_EXIST_EN("J0404", "The job does not exist or has expired"),
+
+    JOB_NOT_FINISHED("J0409", "任务尚未完成"),
+
+    JOB_NOT_FINISHED_EN("J0409", "The job has not finished yet"),
+
+    JOB_QUEUE_FULL("J0500", "后台任务过多，请稍后再试"),
+
+    JOB_QUEUE_FULL_EN("J0500", "Too many background jobs, please try again later"),
+
+    JOB_CANCEL_ERROR("J0501", "任务已结束，无法取消"),
+
+    JOB_CANCEL_ERROR_EN("J0501", "The job has already finished and cannot be cancelled");
+
+    /**
+     * 响应状态码
+     */
+    private final String code;
+
+    /**
+     * 响应提示
+     */
+    private final String msg;
+
+    JobCodeEnum(String code, String msg) {
+        this.code = code;
+        this.msg = msg;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 流式分批导入: 逐行解析, 每满 batchSize 行交给 batchWriter 写入一次。
+ * 解析抛出 IllegalArgumentException 记为该行错误, batchWriter 抛出异常记为整批错误, 都不中断导入
+ */
+public class ExcelBatchImporter<T> implements ExcelSaxReader.RowHandler {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final int headerRowIndex;
+
+    private final int batchSize;
+
+    private final Function<ExcelImportRow, T> rowParser;
+
+    private final Consumer<List<T>> batchWriter;
+
+    private final Consumer<ExcelImportResult> progressListener;
+
+    private final ExcelImportResult result = new ExcelImportResult();
+
+    private final List<T> batch = new ArrayList<>();
+
+    private final List<Integer> batchRowNumbers = new ArrayList<>();
+
+    private Map<String, Integer> headerMap = Map.of();
+
+    /**
+     * @param headerRowIndex   表头所在行下标, 之后的行为数据行
+     * @param batchSize        每批写入的行数
+     * @param rowParser        解析一行, 返回 null 表示跳过该行
+     * @param batchWriter      写入一批数据, 每批单独提交事务
+     * @param progressListener 每批写入后回调当前进度
+     */
+    public ExcelBatchImporter(int headerRowIndex, int batchSize, Function<ExcelImportRow, T> rowParser,
+                              Consumer<List<T>> batchWriter, Consumer<ExcelImportResult> progressListener) {
+        this.headerRowIndex = headerRowIndex;
+        this.batchSize = batchSize;
+        this.rowParser = rowParser;
+        this.batchWriter = batchWriter;
+        this.progressListener = progressListener;
+    }
+
+    public ExcelImportResult importFile(File file) throws IOException {
+        ExcelSaxReader.read(file, this);
+        flush();
+        return result;
+    }
+
+    @Override
+    public void handle(int rowIndex, List<String> cells) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("导入已取消");
+        }
+        if (rowIndex < headerRowIndex) {
+            return;
+        }
+        if (rowIndex == headerRowIndex) {
+            var header = new HashMap<String, Integer>();
+            for (int i = 0; i < cells.size(); i++) {
+                if (cells.get(i) != null) {
+                    header.putIfAbsent(cells.get(i).trim(), i);
+                }
+            }
+            headerMap = header;
+            return;
+        }
+        var row = new ExcelImportRow(rowIndex + 1, cells, headerMap);
+        if (row.isEmpty()) {
+            return;
+        }
+        result.increaseTotalRows();
+        try {
+            var value = rowParser.apply(row);
+            if (value == null) {
+                result.increaseSkippedRows();
+                return;
+            }
+            batch.add(value);
+            batchRowNumbers.add(row.getRowNumber());
+        } catch (IllegalArgumentException e) {
+            result.addError(row.getRowNumber(), e.getMessage());
+            return;
+        }
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            batchWriter.accept(batch);
+            result.increaseSuccessRows(batch.size());
+        } catch (RuntimeException e) {
+            var message = "写入失败: " + e.getMessage();
+            batchRowNumbers.forEach(rowNumber -> result.addError(rowNumber, message));
+        }
+        batch.clear();
+        batchRowNumbers.clear();
+        progressListener.accept(result);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.excel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 导入结果: 行数统计和行级错误, 错误明细最多保留 MAX_ERRORS 条
+ */
+@Getter
+public class ExcelImportResult {
+
+    public static final int MAX_ERRORS = 200;
+
+    /** 读取的数据行数, 不含表头和空行 */
+    private int totalRows;
+
+    /** 成功写入的行数 */
+    private int successRows;
+
+    /** 跳过的行数, 例如覆盖导入时文件内重复的条码 */
+    private int skippedRows;
+
+    /** 错误行数 */
+    private int errorRows;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+
+        private final int rowNumber;
+
+        private final String message;
+    }
+
+    void increaseTotalRows() {
+        totalRows++;
+    }
+
+    void increaseSkippedRows() {
+        skippedRows++;
+    }
+
+    void increaseSuccessRows(int rows) {
+        successRows += rows;
+    }
+
+    public void addError(int rowNumber, String message) {
+        errorRows++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(rowNumber, message));
+        }
+    }
+
+    public boolean hasErrors() {
+        return errorRows > 0;
+    }
+
+    /**
+     * 返回给前端的提示, 只展示前 10 条错误
+     */
+    public String getSummary() {
+        var summary = "导入 " + totalRows + " 行, 成功 " + successRows + " 行, 失败 " + errorRows + " 行";
+        if (errors.isEmpty()) {
+            return summary;
+        }
+        return summary + ": " + errors.stream()
+                .limit(10)
+                .map(error -> "第" + error.getRowNumber() + "行 " + error.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+}
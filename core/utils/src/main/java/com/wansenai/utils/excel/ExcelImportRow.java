@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.excel;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导入的一行数据, 可按列号或表头名称取值
+ */
+public class ExcelImportRow {
+
+    private final int rowNumber;
+
+    private final List<String> cells;
+
+    private final Map<String, Integer> headerMap;
+
+    public ExcelImportRow(int rowNumber, List<String> cells, Map<String, Integer> headerMap) {
+        this.rowNumber = rowNumber;
+        this.cells = cells;
+        this.headerMap = headerMap;
+    }
+
+    /**
+     * Excel 中显示的行号, 从 1 开始
+     */
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public String get(int column) {
+        return column < cells.size() ? cells.get(column) : null;
+    }
+
+    /**
+     * 按表头名称取值, 依次尝试中英文等多个名称
+     */
+    public String get(String... headerNames) {
+        for (String headerName : headerNames) {
+            var column = headerMap.get(headerName);
+            if (column != null) {
+                var value = get(column);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return cells.stream().allMatch(cell -> cell == null || cell.isBlank());
+    }
+}
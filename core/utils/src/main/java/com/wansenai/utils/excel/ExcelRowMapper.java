@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.excel;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 导出行映射: 每个类只解析一次表头和字段访问器, 之后每行只按列读取字段值
+ */
+public final class ExcelRowMapper<T> {
+
+    private static final Map<Class<?>, ExcelRowMapper<?>> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final List<Object> headList;
+
+    private final MethodHandle[] getters;
+
+    private final LinkedHashMap<String, String>[] kvMaps;
+
+    @SuppressWarnings("unchecked")
+    private ExcelRowMapper(Class<T> clazz) {
+        var classFieldList = ExcelUtils.getExcelClassFieldList(clazz);
+        var head = new ArrayList<Object>(classFieldList.size());
+        getters = new MethodHandle[classFieldList.size()];
+        kvMaps = new LinkedHashMap[classFieldList.size()];
+        for (int i = 0; i < classFieldList.size(); i++) {
+            var classField = classFieldList.get(i);
+            head.add(classField.getName());
+            getters[i] = getter(clazz, classField.getFieldName());
+            kvMaps[i] = classField.getKvMap();
+        }
+        headList = Collections.unmodifiableList(head);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ExcelRowMapper<T> of(Class<T> clazz) {
+        return (ExcelRowMapper<T>) CACHE.computeIfAbsent(clazz, key -> new ExcelRowMapper<>(key));
+    }
+
+    private static MethodHandle getter(Class<?> clazz, String fieldName) {
+        try {
+            Field field = clazz.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            var handle = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(GETTER_TYPE);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access excel field " + clazz.getName() + "." + fieldName, e);
+        }
+    }
+
+    public List<Object> getHeadList() {
+        return headList;
+    }
+
+    public int getColumnCount() {
+        return getters.length;
+    }
+
+    public List<Object> toRow(T t) {
+        var rowList = new ArrayList<Object>(getters.length);
+        for (int i = 0; i < getters.length; i++) {
+            rowList.add(toCellValue(read(getters[i], t), kvMaps[i]));
+        }
+        return rowList;
+    }
+
+    private static Object read(MethodHandle getter, Object t) {
+        try {
+            return (Object) getter.invokeExact(t);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object toCellValue(Object data, LinkedHashMap<String, String> kvMap) {
+        if (data == null) {
+            return "";
+        }
+        // 判断是否有映射关系
+        Object value = data;
+        if (kvMap != null && !kvMap.isEmpty()) {
+            String val = kvMap.get(data.toString());
+            if (val == null) {
+                return "";
+            }
+            value = ExcelUtils.isNumeric(val) ? Double.valueOf(val) : val;
+        }
+        var number = value.toString();
+        // 判断是否为数字 如果是数字则将负数转为正数 如果不是数字则不做处理
+        if (number.startsWith("-")) {
+            return number.replace("-", "");
+        }
+        return value;
+    }
+}
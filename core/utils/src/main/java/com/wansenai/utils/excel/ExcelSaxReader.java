@@ -0,0 +1,134 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.excel;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 逐行读取第一个 Sheet 页: xlsx 使用 SAX 事件模型, 内存只保留当前行;
+ * xls 最多 65536 行, 仍使用用户模型读取
+ */
+public final class ExcelSaxReader {
+
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * @param rowIndex 行下标, 从 0 开始
+         * @param cells    单元格格式化后的值, 空单元格为 null
+         */
+        void handle(int rowIndex, List<String> cells);
+    }
+
+    private ExcelSaxReader() {
+    }
+
+    public static void read(File file, RowHandler handler) throws IOException {
+        if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+            readXlsx(file, handler);
+        } else {
+            readXls(file, handler);
+        }
+    }
+
+    private static void readXlsx(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            var strings = new ReadOnlySharedStringsTable(pkg, false);
+            var reader = new XSSFReader(pkg);
+            var sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                        new RowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("读取Excel文件失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static void readXls(File file, RowHandler handler) throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            var dataFormatter = new DataFormatter();
+            for (Row row : workbook.getSheetAt(0)) {
+                var cells = new ArrayList<String>(Math.max(row.getLastCellNum(), 0));
+                for (int i = 0; i < row.getLastCellNum(); i++) {
+                    var cell = row.getCell(i);
+                    cells.add(cell == null ? null : emptyToNull(dataFormatter.formatCellValue(cell)));
+                }
+                handler.handle(row.getRowNum(), cells);
+            }
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+
+        private final List<String> cells = new ArrayList<>();
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.handle(rowNum, new ArrayList<>(cells));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // 空单元格不会触发事件, 按列号补齐
+            int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(emptyToNull(formattedValue));
+        }
+    }
+}
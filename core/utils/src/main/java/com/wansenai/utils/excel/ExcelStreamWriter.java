@@ -0,0 +1,216 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.excel;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+/**
+ * 流式写入 Excel: 内存中只保留窗口内的行, 超出窗口的行写入压缩临时文件,
+ * 合并单元格按列记录进行中的区间, 不再需要整表的合并矩阵
+ */
+public class ExcelStreamWriter implements Closeable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 200;
+
+    private final SXSSFWorkbook book;
+
+    private final CellStyle headStyle;
+
+    private final CellStyle rowStyle;
+
+    private final List<SheetWriter<?>> sheets = new ArrayList<>();
+
+    public ExcelStreamWriter() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public ExcelStreamWriter(int windowSize) {
+        book = new SXSSFWorkbook(windowSize);
+        book.setCompressTempFiles(true);
+        // 设置表头背景色（灰色）
+        headStyle = book.createCellStyle();
+        headStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        headStyle.setAlignment(HorizontalAlignment.CENTER);
+        headStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.index);
+        // 设置表身背景色（默认色）
+        rowStyle = book.createCellStyle();
+        rowStyle.setAlignment(HorizontalAlignment.CENTER);
+        rowStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+    }
+
+    /**
+     * 创建 Sheet 页并写入表头, 数据行按导出类的注解映射
+     */
+    public <T> SheetWriter<T> createSheet(String sheetName, Class<T> clazz) {
+        var rowMapper = ExcelRowMapper.of(clazz);
+        var sheet = createSheet(sheetName, rowMapper::toRow);
+        sheet.writeRow(rowMapper.getHeadList());
+        return sheet;
+    }
+
+    /**
+     * 创建 Sheet 页, 第一行写入的数据作为表头
+     */
+    public SheetWriter<List<Object>> createSheet(String sheetName) {
+        return createSheet(sheetName, Function.identity());
+    }
+
+    private <T> SheetWriter<T> createSheet(String sheetName, Function<T, List<Object>> rowMapper) {
+        var sheet = new SheetWriter<>(book.createSheet(sheetName), rowMapper);
+        sheets.add(sheet);
+        return sheet;
+    }
+
+    public void write(OutputStream out) throws IOException {
+        sheets.forEach(SheetWriter::finish);
+        book.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // 删除临时文件
+        book.dispose();
+        book.close();
+    }
+
+    public final class SheetWriter<T> {
+
+        private final Sheet sheet;
+
+        private final Function<T, List<Object>> rowMapper;
+
+        // 每列进行中的纵向合并起始行, -1 表示没有
+        private int[] rowMergeStart = new int[0];
+
+        private Drawing<?> patriarch;
+
+        private Map<Integer, List<String>> selectMap;
+
+        private int rowIndex;
+
+        private boolean finished;
+
+        private SheetWriter(Sheet sheet, Function<T, List<Object>> rowMapper) {
+            this.sheet = sheet;
+            this.rowMapper = rowMapper;
+            // 设置表格列宽度（默认为15个字节）
+            sheet.setDefaultColumnWidth(15);
+        }
+
+        public void write(T t) {
+            // 后台任务被取消时线程会被中断, 及时停止导出
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("导出已取消");
+            }
+            writeRow(rowMapper.apply(t));
+        }
+
+        /**
+         * 已写入的行数, 包含表头
+         */
+        public int getRowCount() {
+            return rowIndex;
+        }
+
+        public void setSelect(Map<Integer, List<String>> selectMap) {
+            this.selectMap = selectMap;
+        }
+
+        private void writeRow(List<Object> rowList) {
+            int x = rowIndex++;
+            Row row = sheet.createRow(x);
+            if (rowMergeStart.length < rowList.size()) {
+                int length = rowMergeStart.length;
+                rowMergeStart = Arrays.copyOf(rowMergeStart, rowList.size());
+                Arrays.fill(rowMergeStart, length, rowMergeStart.length, -1);
+            }
+            int columnMergeStart = -1;
+            for (int y = 0; y < rowList.size(); y++) {
+                Object o = rowList.get(y);
+                int v = ExcelUtils.CELL_OTHER;
+                if (o instanceof URL url) {
+                    // 如果要导出图片的话, 链接需要传递 URL 对象
+                    if (patriarch == null) {
+                        patriarch = sheet.createDrawingPatriarch();
+                    }
+                    ExcelUtils.setCellPicture(book, row, patriarch, x, y, url);
+                } else {
+                    // 第一行为表头行，采用灰色底背景, 其他行为数据行，默认白底色
+                    v = ExcelUtils.setCellValue(row.createCell(y), o, x == 0 ? headStyle : rowStyle);
+                }
+                // 横向合并
+                if (v == ExcelUtils.CELL_COLUMN_MERGE) {
+                    if (columnMergeStart < 0) {
+                        columnMergeStart = y;
+                    }
+                } else {
+                    mergeColumns(x, columnMergeStart, y - 1);
+                    columnMergeStart = -1;
+                }
+                // 纵向合并
+                if (v == ExcelUtils.CELL_ROW_MERGE) {
+                    if (rowMergeStart[y] < 0) {
+                        rowMergeStart[y] = x;
+                    }
+                } else {
+                    mergeRows(y, rowMergeStart[y], x - 1);
+                    rowMergeStart[y] = -1;
+                }
+            }
+            mergeColumns(x, columnMergeStart, rowList.size() - 1);
+            // 当前行没有的列同样结束纵向合并
+            for (int y = rowList.size(); y < rowMergeStart.length; y++) {
+                mergeRows(y, rowMergeStart[y], x - 1);
+                rowMergeStart[y] = -1;
+            }
+        }
+
+        private void mergeColumns(int x, int start, int end) {
+            if (start > 0) {
+                sheet.addMergedRegion(new CellRangeAddress(x, x, start - 1, end));
+            }
+        }
+
+        private void mergeRows(int y, int start, int end) {
+            if (start > 0) {
+                sheet.addMergedRegion(new CellRangeAddress(start - 1, end, y, y));
+            }
+        }
+
+        private void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            for (int y = 0; y < rowMergeStart.length; y++) {
+                mergeRows(y, rowMergeStart[y], rowIndex - 1);
+            }
+            // 设置下拉列表
+            ExcelUtils.setSelect(sheet, selectMap);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 @SuppressWarnings("unused")
@@ -43,9 +44,9 @@ public class ExcelUtils {
     private static final String ROW_NUM = "rowNum";
     private static final String ROW_DATA = "rowData";
     private static final String ROW_TIPS = "rowTips";
-    private static final int CELL_OTHER = 0;
-    private static final int CELL_ROW_MERGE = 1;
-    private static final int CELL_COLUMN_MERGE = 2;
+    static final int CELL_OTHER = 0;
+    static final int CELL_ROW_MERGE = 1;
+    static final int CELL_COLUMN_MERGE = 2;
     private static final int IMG_HEIGHT = 30;
     private static final int IMG_WIDTH = 30;
     private static final char LEAN_LINE = '/';
@@ -619,58 +620,16 @@ public class ExcelUtils {
         return file;
     }
 
+    @SuppressWarnings("unchecked")
     public static <T> List<List<Object>> getSheetData(List<T> list) {
-        // 获取表头字段
-        List<ExcelClassField> excelClassFieldList = getExcelClassFieldList(list.get(0).getClass());
-        List<String> headFieldList = new ArrayList<>();
-        List<Object> headList = new ArrayList<>();
-        Map<String, ExcelClassField> headFieldMap = new HashMap<>();
-        for (ExcelClassField each : excelClassFieldList) {
-            String fieldName = each.getFieldName();
-            headFieldList.add(fieldName);
-            headFieldMap.put(fieldName, each);
-            headList.add(each.getName());
-        }
+        // 表头和字段访问器按类缓存
+        ExcelRowMapper<T> rowMapper = ExcelRowMapper.of((Class<T>) list.get(0).getClass());
         // 添加表头名称
-        List<List<Object>> sheetDataList = new ArrayList<>();
-        sheetDataList.add(headList);
+        List<List<Object>> sheetDataList = new ArrayList<>(list.size() + 1);
+        sheetDataList.add(new ArrayList<>(rowMapper.getHeadList()));
         // 获取表数据
         for (T t : list) {
-            Map<String, Object> fieldDataMap = getFieldDataMap(t);
-            Set<String> fieldDataKeys = fieldDataMap.keySet();
-            List<Object> rowList = new ArrayList<>();
-            for (String headField : headFieldList) {
-                if (!fieldDataKeys.contains(headField)) {
-                    continue;
-                }
-                Object data = fieldDataMap.get(headField);
-                if (data == null) {
-                    rowList.add("");
-                    continue;
-                }
-                ExcelClassField cf = headFieldMap.get(headField);
-                // 判断是否有映射关系
-                LinkedHashMap<String, String> kvMap = cf.getKvMap();
-                if (kvMap == null || kvMap.isEmpty()) {
-                    rowList.add(data);
-                    continue;
-                }
-                String val = kvMap.get(data.toString());
-                if (isNumeric(val)) {
-                    rowList.add(Double.valueOf(val));
-                } else {
-                    rowList.add(val);
-                }
-            }
-            for (Object o : rowList) {
-                var number = o.toString();
-                // 判断是否为数字 如果是数字则将负数转为正数 如果不是数字则不做处理
-                if (number.startsWith("-")) {
-                    number = number.replace("-", "");
-                    rowList.set(rowList.indexOf(o), number);
-                }
-            }
-            sheetDataList.add(rowList);
+            sheetDataList.add(rowMapper.toRow(t));
         }
         return sheetDataList;
     }
@@ -746,82 +705,56 @@ public class ExcelUtils {
     public static File export(HttpServletResponse response, File file, String fileName,
                                Map<String, List<List<Object>>> sheetMap, Map<Integer, List<String>> selectMap) {
         // 整个 Excel 表格 book 对象
-        SXSSFWorkbook book = new SXSSFWorkbook();
-        // 每个 Sheet 页
-        Set<Entry<String, List<List<Object>>>> entries = sheetMap.entrySet();
-        for (Entry<String, List<List<Object>>> entry : entries) {
-            List<List<Object>> sheetDataList = entry.getValue();
-            Sheet sheet = book.createSheet(entry.getKey());
-            Drawing<?> patriarch = sheet.createDrawingPatriarch();
-            // 设置表头背景色（灰色）
-            CellStyle headStyle = book.createCellStyle();
-            headStyle.setFillForegroundColor(IndexedColors.GREY_80_PERCENT.index);
-            headStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headStyle.setAlignment(HorizontalAlignment.CENTER);
-            headStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.index);
-            // 设置表身背景色（默认色）
-            CellStyle rowStyle = book.createCellStyle();
-            rowStyle.setAlignment(HorizontalAlignment.CENTER);
-            rowStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-            // 设置表格列宽度（默认为15个字节）
-            sheet.setDefaultColumnWidth(15);
-            // 创建合并算法数组
-            int rowLength = sheetDataList.size();
-            int columnLength = sheetDataList.get(0).size();
-            int[][] mergeArray = new int[rowLength][columnLength];
-            for (int i = 0; i < sheetDataList.size(); i++) {
-                // 每个 Sheet 页中的行数据
-                Row row = sheet.createRow(i);
-                List<Object> rowList = sheetDataList.get(i);
-                for (int j = 0; j < rowList.size(); j++) {
-                    // 每个行数据中的单元格数据
-                    Object o = rowList.get(j);
-                    int v = 0;
-                    if (o instanceof URL) {
-                        // 如果要导出图片的话, 链接需要传递 URL 对象
-                        setCellPicture(book, row, patriarch, i, j, (URL) o);
-                    } else {
-                        Cell cell = row.createCell(j);
-                        if (i == 0) {
-                            // 第一行为表头行，采用灰色底背景
-                            v = setCellValue(cell, o, headStyle);
-                        } else {
-                            // 其他行为数据行，默认白底色
-                            v = setCellValue(cell, o, rowStyle);
-                        }
-                    }
-                    mergeArray[i][j] = v;
-                }
-            }
-            // 合并单元格
-            mergeCells(sheet, mergeArray);
-            // 设置下拉列表
-            setSelect(sheet, selectMap);
-        }
-        // 写数据
-        if (response != null) {
-            // 前端导出
-            try {
-                write(response, book, fileName);
-                return null;
-            } catch (IOException e) {
-                e.printStackTrace();
+        try (ExcelStreamWriter writer = new ExcelStreamWriter()) {
+            // 每个 Sheet 页
+            for (Entry<String, List<List<Object>>> entry : sheetMap.entrySet()) {
+                ExcelStreamWriter.SheetWriter<List<Object>> sheet = writer.createSheet(entry.getKey());
+                entry.getValue().forEach(sheet::write);
+                sheet.setSelect(selectMap);
+            }
+            // 写数据
+            if (response != null) {
+                // 前端导出
+                write(response, writer, fileName);
                 return null;
             }
-        } else {
             // 本地导出
-            FileOutputStream fos;
-            try {
-                fos = new FileOutputStream(file);
-                ByteArrayOutputStream ops = new ByteArrayOutputStream();
-                book.write(ops);
-                fos.write(ops.toByteArray());
-                fos.close();
-                return file;
-            } catch (Exception e) {
-                e.printStackTrace();
-                return null;
+            try (FileOutputStream fos = new FileOutputStream(file)) {
+                writer.write(fos);
             }
+            return file;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 流式导出单个 Sheet 页, 数据由 rows 逐行推送, 不在内存中保留整表数据
+     *
+     * @param response 响应对象
+     * @param fileName 文件名称（不带尾缀）
+     * @param clazz    导出类, 按 ExcelExport 注解生成表头
+     * @param rows     数据来源, 例如 Mapper 的 ResultHandler 查询
+     */
+    public static <T> void exportStream(HttpServletResponse response, String fileName, Class<T> clazz,
+                                        Consumer<Consumer<T>> rows) {
+        exportStream(response, fileName, writer -> rows.accept(writer.createSheet(fileName, clazz)::write));
+    }
+
+    /**
+     * 流式导出多个 Sheet 页, Sheet 页按创建顺序依次写入
+     *
+     * @param response 响应对象
+     * @param fileName 文件名称（不带尾缀）
+     * @param sheets   在 writer 上创建 Sheet 页并写入数据
+     */
+    public static void exportStream(HttpServletResponse response, String fileName, Consumer<ExcelStreamWriter> sheets) {
+        try (ExcelStreamWriter writer = new ExcelStreamWriter()) {
+            sheets.accept(writer);
+            write(response, writer, fileName);
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
 
@@ -889,18 +822,17 @@ public class ExcelUtils {
         }
     }
 
-    private static void write(HttpServletResponse response, SXSSFWorkbook book, String fileName) throws IOException {
+    private static void write(HttpServletResponse response, ExcelStreamWriter writer, String fileName) throws IOException {
         response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
         response.setCharacterEncoding("utf-8");
         String name = new String(fileName.getBytes("GBK"), "ISO8859_1") + XLSX;
         response.addHeader("Content-Disposition", "attachment;filename=" + name);
         ServletOutputStream out = response.getOutputStream();
-        book.write(out);
-        out.flush();
+        writer.write(out);
         out.close();
     }
 
-    private static int setCellValue(Cell cell, Object o, CellStyle style) {
+    static int setCellValue(Cell cell, Object o, CellStyle style) {
         // 设置样式
         cell.setCellStyle(style);
         // 数据为空时
@@ -959,7 +891,7 @@ public class ExcelUtils {
         return CELL_OTHER;
     }
 
-    private static void setCellPicture(SXSSFWorkbook wb, Row sr, Drawing<?> patriarch, int x, int y, URL url) {
+    static void setCellPicture(SXSSFWorkbook wb, Row sr, Drawing<?> patriarch, int x, int y, URL url) {
         // 设置图片宽高
         sr.setHeight((short) (IMG_WIDTH * IMG_HEIGHT));
         // （jdk1.7版本try中定义流可自动关闭）
@@ -987,7 +919,7 @@ public class ExcelUtils {
         return format.format(date);
     }
 
-    private static void setSelect(Sheet sheet, Map<Integer, List<String>> selectMap) {
+    static void setSelect(Sheet sheet, Map<Integer, List<String>> selectMap) {
         if (selectMap == null || selectMap.isEmpty()) {
             return;
         }
@@ -1016,7 +948,7 @@ public class ExcelUtils {
         }
     }
 
-    private static boolean isNumeric(String str) {
+    static boolean isNumeric(String str) {
         if (Objects.nonNull(str) && "0.0".equals(str)) {
             return true;
         }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.redis;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis value serializer writing compact JSON or binary Smile, optionally compressed
+ * above a size threshold. Reading detects the format of every payload, so values written
+ * by an earlier mode (including the old indented JSON) stay readable after switching.
+ * <p>
+ * Redis 值序列化器, 支持紧凑JSON和Smile二进制格式, 超过阈值时压缩。读取时按内容识别格式, 切换配置后旧数据仍可读取。
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 压缩数据的头部, JSON文本和Smile都不会以0x00开头
+     */
+    static final byte[] COMPRESSED_HEADER = {0x00, 'Z'};
+
+    /**
+     * Smile 格式默认写入的头部 ":)\n"
+     */
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private final RedisSerializationFormat format;
+
+    private final ObjectMapper jsonMapper;
+
+    private final ObjectMapper smileMapper;
+
+    private final int compressThreshold;
+
+    /**
+     * @param format            写入格式
+     * @param jsonMapper        JSON mapper
+     * @param smileMapper       Smile mapper
+     * @param compressThreshold 超过该字节数时压缩, 小于等于0不压缩
+     */
+    public CompactRedisSerializer(RedisSerializationFormat format, ObjectMapper jsonMapper, ObjectMapper smileMapper, int compressThreshold) {
+        this.format = format;
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            var mapper = format == RedisSerializationFormat.SMILE ? smileMapper : jsonMapper;
+            var bytes = mapper.writeValueAsBytes(value);
+            if (compressThreshold > 0 && bytes.length > compressThreshold) {
+                return compress(bytes);
+            }
+            return bytes;
+        } catch (JacksonException e) {
+            throw new SerializationException("Could not write value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            var source = startsWith(bytes, COMPRESSED_HEADER) ? decompress(bytes) : bytes;
+            var mapper = startsWith(source, SMILE_HEADER) ? smileMapper : jsonMapper;
+            return mapper.readValue(source, Object.class);
+        } catch (JacksonException e) {
+            throw new SerializationException("Could not read value: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 未带类型信息的值读取后是Map/List, 按目标类型转换
+     */
+    public <T> T convertValue(Object value, Class<T> type) {
+        if (value == null || type.isInstance(value)) {
+            return type.cast(value);
+        }
+        return jsonMapper.convertValue(value, type);
+    }
+
+    public RedisSerializationFormat getFormat() {
+        return format;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] header) {
+        return bytes.length >= header.length && Arrays.equals(bytes, 0, header.length, header, 0, header.length);
+    }
+
+    // 头部 + 原始长度(4字节) + deflate数据
+    private static byte[] compress(byte[] bytes) {
+        var deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            var output = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            output.write(COMPRESSED_HEADER, 0, COMPRESSED_HEADER.length);
+            output.write(ByteBuffer.allocate(4).putInt(bytes.length).array(), 0, 4);
+            var buffer = new byte[4096];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] bytes) {
+        var offset = COMPRESSED_HEADER.length;
+        var length = ByteBuffer.wrap(bytes, offset, 4).getInt();
+        var inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, offset + 4, bytes.length - offset - 4);
+            var result = new byte[length];
+            var read = 0;
+            while (read < length && !inflater.finished()) {
+                var count = inflater.inflate(result, read, length - read);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length) {
+                throw new SerializationException("Corrupted compressed value, expected " + length + " bytes but got " + read);
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Could not decompress value: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
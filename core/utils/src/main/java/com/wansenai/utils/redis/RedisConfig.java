@@ -2,28 +2,51 @@ package com.wansenai.utils.redis;
 
 import tools.jackson.databind.DeserializationFeature;
 import tools.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import tools.jackson.databind.SerializationFeature;
 import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
 import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
 @Configuration
 public class RedisConfig extends CachingConfigurerSupport {
 
+    /**
+     * 写入格式和压缩阈值可配置, 读取时自动识别格式, 旧的JSON数据仍可读取
+     */
     @Bean
-    public RedisTemplate<Object, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public CompactRedisSerializer redisValueSerializer(@Value("${eairp.redis.serializer:smile}") String format,
+                                                       @Value("${eairp.redis.compress-threshold:1024}") int compressThreshold) {
+        return new CompactRedisSerializer(RedisSerializationFormat.valueOf(format.trim().toUpperCase()),
+                buildMapper(JsonMapper.builder()), buildMapper(SmileMapper.builder()), compressThreshold);
+    }
+
+    @Bean
+    public RedisTemplate<Object, Object> redisTemplate(RedisConnectionFactory connectionFactory, CompactRedisSerializer redisValueSerializer) {
         RedisTemplate<Object, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        // 创建 ObjectMapper 并配置
-        ObjectMapper mapper = JsonMapper.builder()
-                .enable(SerializationFeature.INDENT_OUTPUT)
+        template.setValueSerializer(redisValueSerializer);
+        template.setHashValueSerializer(redisValueSerializer);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    // JSON 和 Smile 使用相同的配置
+    private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> M buildMapper(B builder) {
+        return builder
                 // to allow serialization of "empty" POJOs (no properties to serialize)
                 // (without this setting, an exception is thrown in those cases)
                 .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
@@ -35,16 +58,16 @@ public class RedisConfig extends CachingConfigurerSupport {
                 // to allow coercion of JSON empty String ("") to null Object value:
                 .enable(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT)
                 .build();
+    }
 
-        // 使用 GenericJackson2JsonRedisSerializer
-        GenericJacksonJsonRedisSerializer serializer = new GenericJacksonJsonRedisSerializer(mapper);
-
-        template.setValueSerializer(serializer);
-        template.setHashValueSerializer(serializer);
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setHashKeySerializer(new StringRedisSerializer());
-
-        template.afterPropertiesSet();
-        return template;
+    /**
+     * token会话失效通知, 每个实例订阅后清理本地缓存
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory, TokenSessionCache tokenSessionCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tokenSessionCache, new ChannelTopic(TokenSessionCache.INVALIDATE_CHANNEL));
+        return container;
     }
-}
\ No newline at end of file
+}
@@ -14,6 +14,7 @@ package com.wansenai.utils.redis;
 
 import jakarta.annotation.Resource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -29,6 +30,9 @@ public class RedisUtil {
     @Resource
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Resource
+    private CompactRedisSerializer redisValueSerializer;
+
     /**
      * 指定缓存失效时间
      *
@@ -104,6 +108,16 @@ public class RedisUtil {
         return key == null ? null : String.valueOf(redisTemplate.opsForValue().get(key));
     }
 
+    /**
+     * 批量获取, 一次往返
+     *
+     * @param keys 键
+     * @return 值列表, 与键顺序一致, 不存在的键为null
+     */
+    public List<Object> multiGet(Collection<String> keys) {
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+
     /**
      * 普通缓存放入
      *
@@ -144,6 +158,44 @@ public class RedisUtil {
         }
     }
 
+    /**
+     * 键不存在时放入并设置时间, 用于租约
+     *
+     * @param key   键
+     * @param value 值
+     * @param time  时间(秒)
+     * @return true 放入成功 false 键已存在
+     */
+    public boolean setIfAbsent(String key, Object value, long time) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, time, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 值仍为 value 时续期, 原子执行
+     *
+     * @param key   键
+     * @param value 期望的值
+     * @param time  时间(秒)
+     * @return true 续期成功 false 键已过期或被其他人持有
+     */
+    public boolean compareAndExpire(String key, Object value, long time) {
+        var script = new DefaultRedisScript<>("if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('expire', KEYS[1], "
+                + time + ") else return 0 end", Long.class);
+        return Long.valueOf(1L).equals(redisTemplate.execute(script, List.of(key), value));
+    }
+
+    /**
+     * 值仍为 value 时删除, 原子执行
+     *
+     * @param key   键
+     * @param value 期望的值
+     * @return true 删除成功
+     */
+    public boolean compareAndDelete(String key, Object value) {
+        var script = new DefaultRedisScript<>("if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+        return Long.valueOf(1L).equals(redisTemplate.execute(script, List.of(key), value));
+    }
+
     /**
      * 递增
      *
@@ -577,4 +629,37 @@ public class RedisUtil {
         }
     }
 
+    // ===============================pub/sub=================================
+
+    /**
+     * 发布消息
+     *
+     * @param channel 频道
+     * @param message 消息
+     */
+    public void convertAndSend(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 按value序列化方式反序列化订阅到的消息
+     *
+     * @param body 消息体
+     * @return 消息
+     */
+    public Object deserializeValue(byte[] body) {
+        return redisTemplate.getValueSerializer().deserialize(body);
+    }
+
+    /**
+     * 缓存中的对象读取后是Map, 转换为指定类型
+     *
+     * @param value 缓存值
+     * @param type  目标类型
+     * @return 转换后的对象
+     */
+    public <T> T convertValue(Object value, Class<T> type) {
+        return redisValueSerializer.convertValue(value, type);
+    }
+
 }
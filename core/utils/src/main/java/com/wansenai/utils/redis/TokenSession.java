@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 登录token对应的会话信息, 来自redis中的 token:userId token:tenantId token:userName 和 userName:token
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenSession {
+
+    private String token;
+
+    private Long userId;
+
+    private Long tenantId;
+
+    private String userName;
+
+    // userName:token 中当前有效的token, 未校验时为null
+    private String activeToken;
+
+    public boolean isActive() {
+        return token != null && token.equals(activeToken);
+    }
+}
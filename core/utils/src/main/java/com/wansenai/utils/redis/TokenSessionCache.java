@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * token会话的本地缓存, 放在redis前面
+ * 同一个请求内只解析一次(请求属性), 跨请求使用短有效期的本地缓存,
+ * 退出登录和重新登录时通过redis频道通知所有实例失效
+ */
+@Slf4j
+@Component
+public class TokenSessionCache implements MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "eairp:token:invalidate";
+
+    private static final String REQUEST_ATTRIBUTE = TokenSessionCache.class.getName() + ".session";
+
+    // 本地缓存有效期, 消息丢失时最多延迟这么久失效
+    private static final long TTL_MILLIS = 30_000L;
+
+    private static final int MAX_SIZE = 10_000;
+
+    private final RedisUtil redisUtil;
+
+    private final ConcurrentHashMap<String, CacheEntry> sessions = new ConcurrentHashMap<>();
+
+    private record CacheEntry(TokenSession session, long expireAt) {
+    }
+
+    public TokenSessionCache(RedisUtil redisUtil) {
+        this.redisUtil = redisUtil;
+    }
+
+    /**
+     * 校验token并返回会话, 本地缓存未命中时一次MGET读取四个key
+     *
+     * @param token    请求头中的token
+     * @param userName token中的用户名
+     * @return 会话, 通过 {@link TokenSession#isActive()} 判断token是否仍然有效
+     */
+    public TokenSession getActiveSession(String token, String userName) {
+        var session = getCachedSession(token);
+        if (session != null && session.isActive()) {
+            return session;
+        }
+        var values = load(List.of(token + ":userId", token + ":tenantId", token + ":userName", userName + ":token"));
+        session = toSession(token, values);
+        session.setActiveToken(valueOf(values.get(3)));
+        if (session.isActive()) {
+            put(session);
+        }
+        return session;
+    }
+
+    /**
+     * 获取token对应的会话, 不校验 userName:token
+     *
+     * @param token 请求头中的token
+     * @return 会话, redis中不存在时返回null
+     */
+    public TokenSession getSession(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        var session = getCachedSession(token);
+        if (session != null) {
+            return session;
+        }
+        var values = load(List.of(token + ":userId", token + ":tenantId", token + ":userName"));
+        session = toSession(token, values);
+        if (session.getUserId() == null) {
+            return null;
+        }
+        setRequestSession(session);
+        return session;
+    }
+
+    /**
+     * 使token或者用户名对应的本地会话失效, 并通知其他实例
+     *
+     * @param tokenOrUserName token或者用户名
+     */
+    public void invalidate(String tokenOrUserName) {
+        evict(tokenOrUserName);
+        redisUtil.convertAndSend(INVALIDATE_CHANNEL, tokenOrUserName);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var value = redisUtil.deserializeValue(message.getBody());
+        if (value != null) {
+            evict(value.toString());
+        }
+    }
+
+    private TokenSession getCachedSession(String token) {
+        var requestSession = getRequestSession();
+        if (requestSession != null && token.equals(requestSession.getToken())) {
+            return requestSession;
+        }
+        var entry = sessions.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt() < System.currentTimeMillis()) {
+            sessions.remove(token, entry);
+            return null;
+        }
+        setRequestSession(entry.session());
+        return entry.session();
+    }
+
+    private void put(TokenSession session) {
+        if (sessions.size() >= MAX_SIZE) {
+            var now = System.currentTimeMillis();
+            sessions.values().removeIf(entry -> entry.expireAt() < now);
+            if (sessions.size() >= MAX_SIZE) {
+                sessions.clear();
+            }
+        }
+        sessions.put(session.getToken(), new CacheEntry(session, System.currentTimeMillis() + TTL_MILLIS));
+        setRequestSession(session);
+    }
+
+    private void evict(String tokenOrUserName) {
+        var removed = new ArrayList<String>();
+        sessions.forEach((token, entry) -> {
+            if (token.equals(tokenOrUserName) || tokenOrUserName.equals(entry.session().getUserName())) {
+                removed.add(token);
+            }
+        });
+        removed.forEach(sessions::remove);
+        var requestSession = getRequestSession();
+        if (requestSession != null && (tokenOrUserName.equals(requestSession.getToken()) || tokenOrUserName.equals(requestSession.getUserName()))) {
+            RequestContextHolder.currentRequestAttributes().removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+        log.debug("token会话失效: {}, 本地移除 {} 条", tokenOrUserName, removed.size());
+    }
+
+    private TokenSession getRequestSession() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : (TokenSession) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private void setRequestSession(TokenSession session) {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, session, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private List<Object> load(List<String> keys) {
+        var values = redisUtil.multiGet(keys);
+        if (values == null) {
+            values = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        }
+        return values;
+    }
+
+    private static TokenSession toSession(String token, List<Object> values) {
+        var userId = valueOf(values.get(0));
+        var tenantId = valueOf(values.get(1));
+        return TokenSession.builder()
+                .token(token)
+                .userId(userId == null ? null : Long.parseLong(userId))
+                .tenantId(tenantId == null ? null : Long.parseLong(tenantId))
+                .userName(valueOf(values.get(2)))
+                .build();
+    }
+
+    private static String valueOf(Object value) {
+        return value == null ? null : String.valueOf(value);
+    }
+}
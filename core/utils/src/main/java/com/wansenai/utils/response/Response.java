@@ -208,6 +208,13 @@ public class Response<T> implements Serializable {
         return baseResponse;
     }
 
+    public static <T> Response<T> responseMsg(JobCodeEnum jobCodeEnum) {
+        Response<T> baseResponse = new Response<T>();
+        baseResponse.setCode(jobCodeEnum.getCode());
+        baseResponse.setMsg(jobCodeEnum.getMsg());
+        return baseResponse;
+    }
+
     public static <T> Response<T> responseMsg(String code, String msg) {
         Response<T> baseResponse = new Response<T>();
         baseResponse.setCode(code);
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.snowflake;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free snowflake id generator. The last issued timestamp and sequence are packed into one
+ * {@link AtomicLong} and advanced with compare-and-set, so concurrent callers never block each other.
+ * Id layout is unchanged: 41 bits of milliseconds since 2015-01-01, 5 bits datacenter id, 5 bits
+ * worker id and 12 bits sequence.
+ * <p>
+ * When the clock moves backwards by at most {@code maxBackwardMillis}, or more than 4096 ids are
+ * requested within one millisecond, ids keep being issued from a logical clock slightly ahead of the
+ * wall clock. Beyond that the caller waits for the wall clock to catch up, and a rollback longer than
+ * {@link #MAX_WAIT_MILLIS} fails.
+ * <p>
+ * 无锁雪花算法, 时间戳和序列压缩在一个 AtomicLong 中用 CAS 推进。小幅时钟回拨时沿用逻辑时钟继续发号, 不再抛异常。
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 开始时间截 (2015-01-01)
+     */
+    public static final long EPOCH = 1420041600000L;
+
+    public static final long MAX_WORKER_ID = 31L;
+
+    public static final long MAX_DATACENTER_ID = 31L;
+
+    public static final long MAX_WAIT_MILLIS = 5000L;
+
+    private static final long SEQUENCE_BITS = 12L;
+
+    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
+
+    private static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + 5L;
+
+    private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + 10L;
+
+    private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
+
+    private final long workerId;
+
+    private final long datacenterId;
+
+    private final long nodeBits;
+
+    private final long maxBackwardMillis;
+
+    private final LongSupplier clock;
+
+    // 高位为相对时间戳, 低12位为毫秒内序列, 序列溢出时自然进位到下一毫秒
+    private final AtomicLong state;
+
+    public SnowflakeIdGenerator(long workerId, long datacenterId) {
+        this(workerId, datacenterId, 10L, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(long workerId, long datacenterId, long maxBackwardMillis, LongSupplier clock) {
+        this(workerId, datacenterId, maxBackwardMillis, clock, new AtomicLong());
+    }
+
+    private SnowflakeIdGenerator(long workerId, long datacenterId, long maxBackwardMillis, LongSupplier clock, AtomicLong state) {
+        if (workerId > MAX_WORKER_ID || workerId < 0) {
+            throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", MAX_WORKER_ID));
+        }
+        if (datacenterId > MAX_DATACENTER_ID || datacenterId < 0) {
+            throw new IllegalArgumentException(String.format("datacenter Id can't be greater than %d or less than 0", MAX_DATACENTER_ID));
+        }
+        if (maxBackwardMillis < 0) {
+            throw new IllegalArgumentException("maxBackwardMillis can't be less than 0");
+        }
+        this.workerId = workerId;
+        this.datacenterId = datacenterId;
+        this.nodeBits = (datacenterId << DATACENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT);
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+        this.state = state;
+    }
+
+    /**
+     * Node id in 0~1023, datacenter id in the high 5 bits and worker id in the low 5 bits.
+     * 节点id(0~1023), 高5位为数据中心id, 低5位为机器id
+     */
+    public static SnowflakeIdGenerator ofNodeId(long nodeId, long maxBackwardMillis) {
+        return new SnowflakeIdGenerator(nodeId & MAX_WORKER_ID, nodeId >> 5, maxBackwardMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Same generator for another node id, continuing from the last issued timestamp so that switching
+     * node ids at runtime (lease lost and re-acquired) never goes back in time.
+     * 切换节点id, 沿用当前的时间戳和序列, 保证运行中更换机器id也不会回退
+     */
+    public SnowflakeIdGenerator withNodeId(long nodeId) {
+        return new SnowflakeIdGenerator(nodeId & MAX_WORKER_ID, nodeId >> 5, maxBackwardMillis, clock, state);
+    }
+
+    public long nextId() {
+        return compose(reserve(1));
+    }
+
+    /**
+     * Reserve {@code count} ids for batch inserts, one CAS per millisecond of sequence (4096 ids).
+     * Larger batches are reserved chunk by chunk, so the logical clock never runs more than one
+     * millisecond ahead per reservation and any batch size completes.
+     * 批量预留id, 每次 CAS 最多预留一毫秒的序列(4096个), 更大的批量分段预留
+     */
+    public long[] nextIds(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count can't be less than 0");
+        }
+        var ids = new long[count];
+        var filled = 0;
+        while (filled < count) {
+            var chunk = (int) Math.min(count - filled, SEQUENCE_MASK + 1);
+            var first = reserve(chunk) - chunk + 1;
+            for (int i = 0; i < chunk; i++) {
+                ids[filled + i] = compose(first + i);
+            }
+            filled += chunk;
+        }
+        return ids;
+    }
+
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    public long getDatacenterId() {
+        return datacenterId;
+    }
+
+    // 返回本次预留的最后一个状态
+    private long reserve(int count) {
+        while (true) {
+            var now = clock.getAsLong() - EPOCH;
+            var previous = state.get();
+            var first = (previous >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : previous + 1;
+            var last = first + count - 1;
+            var ahead = (last >>> SEQUENCE_BITS) - now;
+            if (ahead > maxBackwardMillis) {
+                if (ahead - maxBackwardMillis > MAX_WAIT_MILLIS) {
+                    throw new IllegalStateException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", ahead));
+                }
+                // 超出容忍范围, 等待时钟追上
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ahead - maxBackwardMillis));
+                continue;
+            }
+            if (state.compareAndSet(previous, last)) {
+                return last;
+            }
+        }
+    }
+
+    private long compose(long value) {
+        return ((value >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | nodeBits | (value & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.snowflake;
+
+import com.wansenai.utils.SnowflakeIdUtil;
+import com.wansenai.utils.redis.RedisUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动时确定本节点的雪花机器id并安装到 {@link SnowflakeIdUtil}
+ * <p>
+ * config: 使用配置的 worker-id 和 datacenter-id, 每个节点需要配置不同的值
+ * redis: 从 Redis 租约中抢占一个空闲的节点id(0~1023), 定时续期, 续期失败时重新抢占
+ */
+@Slf4j
+@Component
+public class SnowflakeWorkerIdLease {
+
+    private static final String LEASE_KEY_PREFIX = "snowflake:node:";
+
+    private static final int NODE_COUNT = 1024;
+
+    private final RedisUtil redisUtil;
+
+    private final String source;
+
+    private final long workerId;
+
+    private final long datacenterId;
+
+    private final long maxBackwardMillis;
+
+    private final long leaseSeconds;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private ScheduledExecutorService renewExecutor;
+
+    private volatile long nodeId = -1;
+
+    public SnowflakeWorkerIdLease(RedisUtil redisUtil,
+                                  @Value("${eairp.snowflake.worker-id-source:redis}") String source,
+                                  @Value("${eairp.snowflake.worker-id:0}") long workerId,
+                                  @Value("${eairp.snowflake.datacenter-id:0}") long datacenterId,
+                                  @Value("${eairp.snowflake.max-backward-millis:10}") long maxBackwardMillis,
+                                  @Value("${eairp.snowflake.lease-seconds:60}") long leaseSeconds) {
+        this.redisUtil = redisUtil;
+        this.source = source;
+        this.workerId = workerId;
+        this.datacenterId = datacenterId;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @PostConstruct
+    public void init() {
+        var generator = new SnowflakeIdGenerator(workerId, datacenterId, maxBackwardMillis, System::currentTimeMillis);
+        if ("redis".equalsIgnoreCase(source)) {
+            nodeId = acquire();
+            generator = generator.withNodeId(nodeId);
+            renewExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "snowflake-lease");
+                thread.setDaemon(true);
+                return thread;
+            });
+            var period = Math.max(leaseSeconds / 3, 1);
+            renewExecutor.scheduleAtFixedRate(this::renew, period, period, TimeUnit.SECONDS);
+        }
+        SnowflakeIdUtil.setGenerator(generator);
+        log.info("Snowflake id generator uses datacenter id {} and worker id {} ({})", generator.getDatacenterId(), generator.getWorkerId(), source);
+    }
+
+    private long acquire() {
+        var start = ThreadLocalRandom.current().nextInt(NODE_COUNT);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            var candidate = (start + i) % NODE_COUNT;
+            if (redisUtil.setIfAbsent(LEASE_KEY_PREFIX + candidate, instanceId, leaseSeconds)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No free snowflake node id, all " + NODE_COUNT + " leases are taken");
+    }
+
+    private void renew() {
+        try {
+            if (redisUtil.compareAndExpire(LEASE_KEY_PREFIX + nodeId, instanceId, leaseSeconds)) {
+                return;
+            }
+            // 租约已过期或被其他节点抢占, 换一个节点id继续发号
+            var previous = nodeId;
+            nodeId = acquire();
+            SnowflakeIdUtil.setGenerator(SnowflakeIdUtil.getGenerator().withNodeId(nodeId));
+            log.warn("Snowflake node id lease {} was lost, switched to {}", previous, nodeId);
+        } catch (RuntimeException e) {
+            log.error("Failed to renew snowflake node id lease {}", nodeId, e);
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (renewExecutor == null) {
+            return;
+        }
+        renewExecutor.shutdownNow();
+        try {
+            redisUtil.compareAndDelete(LEASE_KEY_PREFIX + nodeId, instanceId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release snowflake node id lease {}", nodeId, e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.tenant;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的租户id, 请求进入时解析一次, 多租户插件每条sql从这里读取
+ * 异步或者批处理任务通过 wrap 方法把租户带到其他线程
+ */
+public final class TenantContextHolder {
+
+    private static final ThreadLocal<Long> TENANT_ID = new ThreadLocal<>();
+
+    // 从上下文读取租户id的次数, 即节省的redis调用次数
+    private static final AtomicLong CONTEXT_HITS = new AtomicLong();
+
+    // 上下文中没有租户id, 回退到token会话读取的次数
+    private static final AtomicLong CONTEXT_MISSES = new AtomicLong();
+
+    private TenantContextHolder() {
+    }
+
+    public static Long getTenantId() {
+        return TENANT_ID.get();
+    }
+
+    public static void setTenantId(Long tenantId) {
+        if (tenantId == null) {
+            TENANT_ID.remove();
+        } else {
+            TENANT_ID.set(tenantId);
+        }
+    }
+
+    public static void clear() {
+        TENANT_ID.remove();
+    }
+
+    public static void recordHit() {
+        CONTEXT_HITS.incrementAndGet();
+    }
+
+    public static void recordMiss() {
+        CONTEXT_MISSES.incrementAndGet();
+    }
+
+    public static long getRedisCallsSaved() {
+        return CONTEXT_HITS.get();
+    }
+
+    public static long getContextMisses() {
+        return CONTEXT_MISSES.get();
+    }
+
+    /**
+     * 在指定租户下执行, 执行完恢复原来的租户, 用于定时任务和批处理
+     */
+    public static <T> T callWithTenant(Long tenantId, Supplier<T> supplier) {
+        var previous = TENANT_ID.get();
+        setTenantId(tenantId);
+        try {
+            return supplier.get();
+        } finally {
+            setTenantId(previous);
+        }
+    }
+
+    public static void runWithTenant(Long tenantId, Runnable runnable) {
+        callWithTenant(tenantId, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 捕获当前线程的租户, 在执行线程中恢复
+     */
+    public static Runnable wrap(Runnable runnable) {
+        var tenantId = TENANT_ID.get();
+        return () -> runWithTenant(tenantId, runnable);
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> supplier) {
+        var tenantId = TENANT_ID.get();
+        return () -> callWithTenant(tenantId, supplier);
+    }
+}
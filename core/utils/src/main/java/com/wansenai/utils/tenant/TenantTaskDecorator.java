@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023-2025 EAIRP Team, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://opensource.wansenai.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.wansenai.utils.tenant;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 线程池任务装饰器, 把提交线程的租户和请求上下文传递到执行线程
+ */
+public class TenantTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        var tenantRunnable = TenantContextHolder.wrap(runnable);
+        return () -> {
+            var previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                tenantRunnable.run();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+import com.wansenai.utils.excel.ExcelBatchImporter;
+import com.wansenai.utils.excel.ExcelStreamWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+public class ExcelBatchImporterTest {
+
+    private File writeProducts(int rows) throws IOException {
+        var file = Files.createTempFile("import-test-", ".xlsx").toFile();
+        try (var writer = new ExcelStreamWriter(); var out = new FileOutputStream(file)) {
+            var sheet = writer.createSheet("商品");
+            sheet.write(List.of("商品信息"));
+            sheet.write(List.of("商品名称", "条码", "零售价格"));
+            for (int i = 0; i < rows; i++) {
+                sheet.write(List.of("商品" + i, "690" + i, i % 1_000 == 999 ? "abc" : String.valueOf(i)));
+                if (i == 10) {
+                    sheet.write(List.of("", "", ""));
+                }
+            }
+            writer.write(out);
+        }
+        return file;
+    }
+
+    @Test
+    public void testImportInBatches() throws IOException {
+        // -Deairp.excel.rows=200000 验证大文件导入
+        var rows = Integer.getInteger("eairp.excel.rows", 5_000);
+        var file = writeProducts(rows);
+        try {
+            var batchSizes = new ArrayList<Integer>();
+            var total = new BigDecimal[]{BigDecimal.ZERO};
+            var importer = new ExcelBatchImporter<BigDecimal>(1, 1_000,
+                    row -> {
+                        Assertions.assertTrue(row.get("Bar code", "条码").startsWith("690"));
+                        try {
+                            return new BigDecimal(row.get("Retail price", "零售价格"));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("零售价格格式错误");
+                        }
+                    },
+                    batch -> {
+                        batchSizes.add(batch.size());
+                        batch.forEach(price -> total[0] = total[0].add(price));
+                    },
+                    progress -> Assertions.assertTrue(progress.getTotalRows() <= rows));
+            var result = importer.importFile(file);
+
+            var errorRows = rows / 1_000;
+            Assertions.assertEquals(rows, result.getTotalRows());
+            Assertions.assertEquals(rows - errorRows, result.getSuccessRows());
+            Assertions.assertEquals(errorRows, result.getErrorRows());
+            Assertions.assertTrue(batchSizes.stream().allMatch(size -> size <= 1_000));
+            Assertions.assertEquals(rows - errorRows, batchSizes.stream().mapToInt(Integer::intValue).sum());
+            Assertions.assertTrue(result.getSummary().contains("零售价格格式错误"));
+            log.info("{}", result.getSummary().substring(0, 40));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testFailedBatchIsReportedPerRow() throws IOException {
+        var file = writeProducts(25);
+        try {
+            var importer = new ExcelBatchImporter<String>(1, 10,
+                    row -> row.get(1),
+                    batch -> {
+                        if (batch.contains("69015")) {
+                            throw new IllegalStateException("duplicate key");
+                        }
+                    },
+                    progress -> {
+                    });
+            var result = importer.importFile(file);
+            Assertions.assertEquals(25, result.getTotalRows());
+            Assertions.assertEquals(15, result.getSuccessRows());
+            Assertions.assertEquals(10, result.getErrorRows());
+            Assertions.assertTrue(result.getErrors().get(0).getMessage().contains("duplicate key"));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import com.wansenai.utils.excel.ExcelExport;
+import com.wansenai.utils.excel.ExcelStreamWriter;
+import com.wansenai.utils.excel.ExcelUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+public class ExcelStreamWriterTest {
+
+    public static class ReportRow {
+
+        @ExcelExport(value = "单据编号", sort = 1)
+        private String receiptNumber;
+
+        @ExcelExport(value = "金额", sort = 2)
+        private BigDecimal amount;
+
+        @ExcelExport(value = "状态", sort = 3, kv = "0-未审核;1-已审核")
+        private Integer status;
+
+        private String remark;
+
+        public ReportRow(String receiptNumber, BigDecimal amount, Integer status) {
+            this.receiptNumber = receiptNumber;
+            this.amount = amount;
+            this.status = status;
+        }
+    }
+
+    @Test
+    public void testSheetDataMapping() {
+        var sheetData = ExcelUtils.getSheetData(List.of(
+                new ReportRow("XSCK001", new BigDecimal("-12.50"), 1),
+                new ReportRow(null, new BigDecimal("-12.50"), 0)));
+
+        Assertions.assertEquals(List.of("单据编号", "金额", "状态"), sheetData.get(0));
+        // 负数转为正数, 相同的值每列都要处理
+        Assertions.assertEquals(List.of("XSCK001", "12.50", "已审核"), sheetData.get(1));
+        Assertions.assertEquals(List.of("", "12.50", "未审核"), sheetData.get(2));
+    }
+
+    @Test
+    public void testMergeAndReadBack() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var writer = new ExcelStreamWriter(10)) {
+            var sheet = writer.createSheet("合并");
+            sheet.write(List.of("商品", "仓库", "数量"));
+            for (int i = 0; i < 100; i++) {
+                sheet.write(List.of("商品" + i, i % 50 == 0 ? "默认仓库" : ExcelUtils.ROW_MERGE, i));
+            }
+            sheet.write(List.of("合计", ExcelUtils.COLUMN_MERGE, 4950));
+
+            var beanSheet = writer.createSheet("单据", ReportRow.class);
+            for (int i = 0; i < 1_000; i++) {
+                beanSheet.write(new ReportRow("XSCK" + i, BigDecimal.valueOf(i), i % 2));
+            }
+            Assertions.assertEquals(1_001, beanSheet.getRowCount());
+            writer.write(out);
+        }
+
+        try (var book = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            var merged = book.getSheet("合并").getMergedRegions().stream().map(Object::toString).sorted().toList();
+            Assertions.assertEquals(3, merged.size(), merged.toString());
+            var sheet = book.getSheet("单据");
+            Assertions.assertEquals(1_000, sheet.getLastRowNum());
+            Assertions.assertEquals("XSCK999", sheet.getRow(1_000).getCell(0).getStringCellValue());
+            Assertions.assertEquals("已审核", sheet.getRow(1_000).getCell(2).getStringCellValue());
+        }
+    }
+
+    // GC 之后仍被引用的内存
+    private static long retainedMemory() {
+        var runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    public void testLargeExportInFlatMemory() throws IOException {
+        // -Deairp.excel.rows=1000000 验证百万行导出
+        var rows = Integer.getInteger("eairp.excel.rows", 200_000);
+        var retained = new ArrayList<Long>();
+        var counter = new CountingOutputStream();
+        var start = System.nanoTime();
+        try (var writer = new ExcelStreamWriter()) {
+            var sheet = writer.createSheet("单据", ReportRow.class);
+            for (int i = 0; i < rows; i++) {
+                if (i % 100_000 == 0) {
+                    retained.add(retainedMemory());
+                }
+                sheet.write(new ReportRow("XSCK" + i, BigDecimal.valueOf(i, 2), i % 2));
+            }
+            retained.add(retainedMemory());
+            Assertions.assertEquals(rows, sheet.getRowCount() - 1);
+            writer.write(counter);
+        }
+        var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        var growth = retained.getLast() - retained.getFirst();
+        log.info("rows={} bytes={} retained={}MB growth={}KB elapsed={}ms", rows, counter.count,
+                retained.getLast() / 1024 / 1024, growth / 1024, elapsedMillis);
+
+        Assertions.assertTrue(counter.count > 0);
+        // 写入的行刷到临时文件, 内存不随行数增长
+        Assertions.assertTrue(growth < 64L * 1024 * 1024, "retained memory grew by " + growth / 1024 + "KB over " + rows + " rows");
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import com.wansenai.utils.snowflake.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the CAS generator against the previous synchronized implementation at 1/8/32 threads.
+ * <pre>
+ * mvn -pl core/utils test -Dtest=SnowflakeIdBenchmark -Deairp.benchmark=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowflakeIdBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 1);
+
+    private final SynchronizedSnowflake synchronizedGenerator = new SynchronizedSnowflake();
+
+    @Benchmark
+    public long casNextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public long[] casNextIds() {
+        return generator.nextIds(32);
+    }
+
+    @Benchmark
+    public long synchronizedNextId() {
+        return synchronizedGenerator.nextId();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "eairp.benchmark", matches = "true")
+    public void runBenchmark() throws RunnerException {
+        for (int threads : new int[]{1, 8, 32}) {
+            new Runner(new OptionsBuilder()
+                    .include(SnowflakeIdBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+
+    /**
+     * 旧实现: 全局锁, 时钟回拨直接抛异常
+     */
+    static class SynchronizedSnowflake {
+
+        private long sequence;
+
+        private long lastTimestamp = -1L;
+
+        synchronized long nextId() {
+            long timestamp = System.currentTimeMillis();
+            if (timestamp < lastTimestamp) {
+                throw new IllegalStateException("Clock moved backwards");
+            }
+            if (lastTimestamp == timestamp) {
+                sequence = (sequence + 1) & 4095;
+                if (sequence == 0) {
+                    while (timestamp <= lastTimestamp) {
+                        timestamp = System.currentTimeMillis();
+                    }
+                }
+            } else {
+                sequence = 0L;
+            }
+            lastTimestamp = timestamp;
+            return ((timestamp - SnowflakeIdGenerator.EPOCH) << 22) | (1L << 17) | (1L << 12) | sequence;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import com.wansenai.utils.snowflake.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    public void testUniqueAcrossNodes() throws InterruptedException {
+        // 4个节点, 每个节点8个线程, 混合单个和批量发号
+        var nodes = new ArrayList<SnowflakeIdGenerator>();
+        for (long nodeId : new long[]{0, 1, 31, 1023}) {
+            nodes.add(SnowflakeIdGenerator.ofNodeId(nodeId, 10));
+        }
+        var ids = ConcurrentHashMap.<Long>newKeySet();
+        var duplicates = new AtomicInteger();
+        var threads = nodes.size() * 8;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            var generator = nodes.get(t % nodes.size());
+            var batch = t % 2 == 0;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2_000; i++) {
+                    var issued = batch ? generator.nextIds(25) : new long[]{generator.nextId()};
+                    for (long id : issued) {
+                        if (!ids.add(id)) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        Assertions.assertEquals(0, duplicates.get());
+        Assertions.assertEquals(threads / 2 * 2_000 * 25 + threads / 2 * 2_000, ids.size());
+    }
+
+    @Test
+    public void testIdsIncreaseWithinOneGenerator() {
+        var generator = new SnowflakeIdGenerator(3, 4);
+        var previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            var batch = generator.nextIds(7);
+            for (long id : batch) {
+                Assertions.assertTrue(id > previous);
+                previous = id;
+            }
+        }
+        // 节点信息保持不变
+        Assertions.assertEquals(3, (previous >> 12) & 31);
+        Assertions.assertEquals(4, (previous >> 17) & 31);
+    }
+
+    @Test
+    public void testLargeBatchCompletes() {
+        // 超过 4096 * (maxBackwardMillis + 1) 的批量分段预留, 不会一直等待时钟
+        var generator = new SnowflakeIdGenerator(2, 2);
+        var ids = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> generator.nextIds(150_000));
+        Assertions.assertEquals(150_000, ids.length);
+        for (int i = 1; i < ids.length; i++) {
+            Assertions.assertTrue(ids[i] > ids[i - 1]);
+        }
+        Assertions.assertTrue(generator.nextId() > ids[ids.length - 1]);
+    }
+
+    @Test
+    public void testSmallClockRollbackIsTolerated() {
+        var clock = new AtomicLong(1_800_000_000_000L);
+        var generator = new SnowflakeIdGenerator(1, 1, 10, clock::get);
+        var before = generator.nextId();
+
+        // 回拨5毫秒, 在容忍范围内继续发号且不重复
+        clock.addAndGet(-5);
+        var after = generator.nextId();
+        Assertions.assertTrue(after > before);
+
+        // 回拨超过等待上限直接失败
+        clock.addAndGet(-SnowflakeIdGenerator.MAX_WAIT_MILLIS - 100);
+        Assertions.assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    public void testSwitchingNodeIdContinuesTimeline() {
+        var clock = new AtomicLong(1_800_000_000_000L);
+        var generator = new SnowflakeIdGenerator(1, 0, 10, clock::get);
+        var before = generator.nextIds(100);
+        var switched = generator.withNodeId(1);
+        Assertions.assertTrue(switched.nextId() > before[before.length - 1]);
+    }
+}
@@ -1,4 +1,4 @@
-import com.wansenai.utils.SnowflakeIdUtil;
+import com.wansenai.utils.snowflake.SnowflakeIdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 
@@ -8,7 +8,7 @@ public class SnowflakeIdTest {
     @Test
     public void generateId() {
         long start = System.currentTimeMillis();
-        SnowflakeIdUtil idWorker = new SnowflakeIdUtil(5, 9);
+        SnowflakeIdGenerator idWorker = new SnowflakeIdGenerator(5, 9);
         for (int i = 0; i < 50; i++) {
             long id = idWorker.nextId();
             log.info(String.valueOf(id));
@@ -103,6 +103,35 @@ LOCK TABLES `financial_account` WRITE;
 /*!40000 ALTER TABLE `financial_account` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `financial_account_journal`
+--
+
+DROP TABLE IF EXISTS `financial_account_journal`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `financial_account_journal` (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint DEFAULT NULL COMMENT '租户id',
+  `account_id` bigint NOT NULL COMMENT '账户id',
+  `change_amount` decimal(12,2) NOT NULL COMMENT '变动金额，收款为正数，付款为负数',
+  `receipt_main_id` bigint DEFAULT NULL COMMENT '来源单据主表id，期初余额和手工调整为空',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_account_journal_account` (`account_id`,`create_time`) USING BTREE,
+  KEY `idx_account_journal_receipt` (`receipt_main_id`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='账户余额流水';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `financial_account_journal`
+--
+
+LOCK TABLES `financial_account_journal` WRITE;
+/*!40000 ALTER TABLE `financial_account_journal` DISABLE KEYS */;
+/*!40000 ALTER TABLE `financial_account_journal` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `financial_main`
 --
@@ -134,7 +163,9 @@ CREATE TABLE `financial_main` (
   PRIMARY KEY (`id`) USING BTREE,
   KEY `FK9F4C0D8DB610FC06` (`related_person_id`) USING BTREE,
   KEY `FK9F4C0D8DAAE50527` (`account_id`) USING BTREE,
-  KEY `FK9F4C0D8DC4170B37` (`operator_id`) USING BTREE
+  KEY `FK9F4C0D8DC4170B37` (`operator_id`) USING BTREE,
+  KEY `idx_financial_main_type` (`tenant_id`,`type`,`delete_flag`,`create_time`) USING BTREE,
+  KEY `idx_financial_main_number` (`tenant_id`,`receipt_number`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='财务主表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -626,7 +657,9 @@ CREATE TABLE `product_sku` (
   `create_by` bigint DEFAULT NULL COMMENT '创建人',
   `update_by` bigint DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) DEFAULT '0' COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_sku_bar_code` (`tenant_id`,`product_bar_code`) USING BTREE,
+  KEY `idx_sku_product` (`product_id`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=COMPACT COMMENT='产品价格扩展';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -660,7 +693,8 @@ CREATE TABLE `product_stock` (
   `create_by` bigint DEFAULT NULL COMMENT '创建人',
   `update_by` bigint DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) DEFAULT '0' COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_stock_sku_warehouse` (`tenant_id`,`product_sku_id`,`warehouse_id`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=COMPACT COMMENT='产品初始库存';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -673,6 +707,73 @@ LOCK TABLES `product_stock` WRITE;
 /*!40000 ALTER TABLE `product_stock` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `product_stock_movement`
+--
+
+DROP TABLE IF EXISTS `product_stock_movement`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `product_stock_movement` (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint DEFAULT NULL COMMENT '租户id',
+  `product_stock_id` bigint NOT NULL COMMENT '产品库存id',
+  `product_sku_id` bigint DEFAULT NULL COMMENT '产品扩展id',
+  `warehouse_id` bigint DEFAULT NULL COMMENT '仓库id',
+  `change_quantity` decimal(12,2) NOT NULL COMMENT '变动数量，入库为正数，出库为负数',
+  `balance_quantity` decimal(12,2) DEFAULT NULL COMMENT '变动后结存数量',
+  `receipt_main_id` bigint DEFAULT NULL COMMENT '来源单据主表id，期初库存和手工调整为空',
+  `receipt_date` datetime DEFAULT NULL COMMENT '业务日期，来源单据的单据日期，没有单据时为创建时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_stock_movement_stock` (`product_stock_id`,`create_time`) USING BTREE,
+  KEY `idx_stock_movement_receipt` (`receipt_main_id`) USING BTREE,
+  KEY `idx_stock_movement_time` (`tenant_id`,`create_time`) USING BTREE,
+  KEY `idx_stock_movement_receipt_date` (`tenant_id`,`receipt_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='库存变动流水';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `product_stock_movement`
+--
+
+LOCK TABLES `product_stock_movement` WRITE;
+/*!40000 ALTER TABLE `product_stock_movement` DISABLE KEYS */;
+/*!40000 ALTER TABLE `product_stock_movement` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `product_stock_snapshot`
+--
+
+DROP TABLE IF EXISTS `product_stock_snapshot`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `product_stock_snapshot` (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint DEFAULT NULL COMMENT '租户id',
+  `product_stock_id` bigint NOT NULL COMMENT '产品库存id',
+  `product_sku_id` bigint DEFAULT NULL COMMENT '产品扩展id',
+  `warehouse_id` bigint DEFAULT NULL COMMENT '仓库id',
+  `snapshot_date` date NOT NULL COMMENT '快照日期，记录当天结束时的库存',
+  `stock_quantity` decimal(12,2) NOT NULL COMMENT '库存数量',
+  `unit_price` decimal(12,2) DEFAULT NULL COMMENT '估值单价（零售价）',
+  `stock_amount` decimal(16,2) DEFAULT NULL COMMENT '库存金额',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_stock_snapshot` (`tenant_id`,`snapshot_date`,`product_stock_id`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='库存快照，库存为0的行不记录';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `product_stock_snapshot`
+--
+
+LOCK TABLES `product_stock_snapshot` WRITE;
+/*!40000 ALTER TABLE `product_stock_snapshot` DISABLE KEYS */;
+/*!40000 ALTER TABLE `product_stock_snapshot` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `product_unit`
 --
@@ -710,6 +811,36 @@ LOCK TABLES `product_unit` WRITE;
 /*!40000 ALTER TABLE `product_unit` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `receipt_account_allocation`
+--
+
+DROP TABLE IF EXISTS `receipt_account_allocation`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `receipt_account_allocation` (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint DEFAULT NULL COMMENT '租户id',
+  `receipt_category` varchar(20) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL COMMENT '单据类别（销售/采购）',
+  `receipt_main_id` bigint NOT NULL COMMENT '单据主表id',
+  `account_id` bigint NOT NULL COMMENT '结算账户id',
+  `amount` decimal(12,2) NOT NULL DEFAULT '0.00' COMMENT '分摊金额',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_allocation_account` (`account_id`,`receipt_main_id`) USING BTREE,
+  KEY `idx_allocation_receipt` (`receipt_main_id`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='单据多账户结算分摊';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `receipt_account_allocation`
+--
+
+LOCK TABLES `receipt_account_allocation` WRITE;
+/*!40000 ALTER TABLE `receipt_account_allocation` DISABLE KEYS */;
+/*!40000 ALTER TABLE `receipt_account_allocation` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `receipt_main`
 --
@@ -802,7 +933,11 @@ CREATE TABLE `receipt_purchase_main` (
   `create_by` bigint DEFAULT NULL COMMENT '创建人',
   `update_by` bigint DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) DEFAULT '0' COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_purchase_main_sub_type` (`tenant_id`,`sub_type`,`delete_flag`,`create_time`) USING BTREE,
+  KEY `idx_purchase_main_number` (`tenant_id`,`receipt_number`) USING BTREE,
+  KEY `idx_purchase_main_supplier` (`supplier_id`) USING BTREE,
+  KEY `idx_purchase_main_account` (`account_id`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=DYNAMIC;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -841,7 +976,9 @@ CREATE TABLE `receipt_purchase_sub` (
   `create_by` bigint DEFAULT NULL COMMENT '创建人',
   `update_by` bigint DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) DEFAULT '0' COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_purchase_sub_main` (`receipt_purchase_main_id`) USING BTREE,
+  KEY `idx_purchase_sub_barcode` (`tenant_id`,`product_barcode`,`warehouse_id`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=DYNAMIC;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -888,7 +1025,9 @@ CREATE TABLE `receipt_retail_main` (
   `delete_flag` tinyint(1) DEFAULT '0' COMMENT '删除标记，0未删除，1删除',
   PRIMARY KEY (`id`) USING BTREE,
   KEY `FK2A80F214B610FC06` (`member_id`) USING BTREE,
-  KEY `FK2A80F214AAE50527` (`account_id`) USING BTREE
+  KEY `FK2A80F214AAE50527` (`account_id`) USING BTREE,
+  KEY `idx_retail_main_sub_type` (`tenant_id`,`sub_type`,`delete_flag`,`create_time`) USING BTREE,
+  KEY `idx_retail_main_number` (`tenant_id`,`receipt_number`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='单据主表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -928,7 +1067,8 @@ CREATE TABLE `receipt_retail_sub` (
   PRIMARY KEY (`id`) USING BTREE,
   KEY `FK2A819F475D61CCF7` (`product_id`) USING BTREE,
   KEY `FK2A819F474BB6190E` (`receipt_main_id`) USING BTREE,
-  KEY `FK2A819F479485B3F5` (`warehouse_id`) USING BTREE
+  KEY `FK2A819F479485B3F5` (`warehouse_id`) USING BTREE,
+  KEY `idx_retail_sub_barcode` (`tenant_id`,`product_barcode`,`warehouse_id`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='单据子表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -979,7 +1119,11 @@ CREATE TABLE `receipt_sale_main` (
   `create_by` bigint DEFAULT NULL COMMENT '创建人',
   `update_by` bigint DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) DEFAULT '0' COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_sale_main_sub_type` (`tenant_id`,`sub_type`,`delete_flag`,`create_time`) USING BTREE,
+  KEY `idx_sale_main_number` (`tenant_id`,`receipt_number`) USING BTREE,
+  KEY `idx_sale_main_customer` (`customer_id`) USING BTREE,
+  KEY `idx_sale_main_account` (`account_id`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=DYNAMIC;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -1018,7 +1162,9 @@ CREATE TABLE `receipt_sale_sub` (
   `create_by` bigint DEFAULT NULL COMMENT '创建人',
   `update_by` bigint DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) DEFAULT '0' COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_sale_sub_main` (`receipt_sale_main_id`) USING BTREE,
+  KEY `idx_sale_sub_barcode` (`tenant_id`,`product_barcode`,`warehouse_id`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=DYNAMIC;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -1031,6 +1177,39 @@ LOCK TABLES `receipt_sale_sub` WRITE;
 /*!40000 ALTER TABLE `receipt_sale_sub` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `receipt_statistics_daily`
+--
+
+DROP TABLE IF EXISTS `receipt_statistics_daily`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `receipt_statistics_daily` (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint DEFAULT NULL COMMENT '租户id',
+  `receipt_category` varchar(20) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL COMMENT '单据类别（零售/销售/采购）',
+  `type` varchar(50) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci DEFAULT NULL COMMENT '主类型 (出库/入库/订单)',
+  `sub_type` varchar(50) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci DEFAULT NULL COMMENT '子类型（零售出库/销售出库/采购入库等）',
+  `statistics_date` date NOT NULL COMMENT '统计日期',
+  `total_amount` decimal(16,2) DEFAULT '0.00' COMMENT '合计金额',
+  `receipt_count` int DEFAULT '0' COMMENT '单据数量',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_statistics_daily` (`tenant_id`,`receipt_category`,`type`,`sub_type`,`statistics_date`) USING BTREE,
+  KEY `idx_statistics_date` (`tenant_id`,`statistics_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='单据日统计表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `receipt_statistics_daily`
+--
+
+LOCK TABLES `receipt_statistics_daily` WRITE;
+/*!40000 ALTER TABLE `receipt_statistics_daily` DISABLE KEYS */;
+/*!40000 ALTER TABLE `receipt_statistics_daily` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `receipt_sub`
 --
@@ -1419,13 +1598,15 @@ DROP TABLE IF EXISTS `sys_role_menu_rel`;
 CREATE TABLE `sys_role_menu_rel` (
   `id` bigint NOT NULL COMMENT '主键',
   `tenant_id` bigint DEFAULT NULL COMMENT '租户id',
-  `role_id` bigint DEFAULT NULL COMMENT '角色id',
-  `menu_id` text CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci COMMENT '菜单资源id []分割',
+  `role_id` bigint NOT NULL COMMENT '角色id',
+  `menu_id` int NOT NULL COMMENT '菜单id',
   `create_time` datetime DEFAULT NULL COMMENT '创建时间',
   `update_time` datetime DEFAULT NULL COMMENT '修改时间',
   `create_by` bigint DEFAULT NULL COMMENT '创建人',
   `update_by` bigint DEFAULT NULL COMMENT '修改人',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_role_menu` (`role_id`,`menu_id`) USING BTREE,
+  KEY `idx_role_menu_menu` (`menu_id`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=DYNAMIC COMMENT='角色菜单关系表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -1435,10 +1616,38 @@ CREATE TABLE `sys_role_menu_rel` (
 
 LOCK TABLES `sys_role_menu_rel` WRITE;
 /*!40000 ALTER TABLE `sys_role_menu_rel` DISABLE KEYS */;
-INSERT INTO `sys_role_menu_rel` VALUES (0,0,0,'[1][2][3][4][5][6][7][8][9][10][11][12][13][14][16][17][18][19][20][21][22][23][24][25][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305][306][307][308][309][310][311][312][313][314][315][316][317][319][320][327]','2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(1805963490696818689,NULL,1,'[1][2][3][4][5][6][7][8][9][10][11][12][13][14][16][17][18][19][20][21][22][23][24][25][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305][306][307][308][309][310][311][312][313][314][315][316][317][319][320]',NULL,NULL,NULL,NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (1,0,0,1,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(2,0,0,2,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(3,0,0,3,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(4,0,0,4,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(5,0,0,5,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(6,0,0,6,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(7,0,0,7,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(8,0,0,8,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(9,0,0,9,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(10,0,0,10,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(11,0,0,11,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(12,0,0,12,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(13,0,0,13,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(14,0,0,14,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(15,0,0,16,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(16,0,0,17,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(17,0,0,18,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(18,0,0,19,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(19,0,0,20,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(20,0,0,21,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(21,0,0,22,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(22,0,0,23,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(23,0,0,24,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(24,0,0,25,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(25,0,0,287,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(26,0,0,288,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(27,0,0,289,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(28,0,0,290,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(29,0,0,291,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(30,0,0,292,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(31,0,0,293,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(32,0,0,294,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(33,0,0,295,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(34,0,0,296,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(35,0,0,297,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(36,0,0,298,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(37,0,0,299,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(38,0,0,300,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(39,0,0,301,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(40,0,0,302,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(41,0,0,303,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(42,0,0,304,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(43,0,0,305,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(44,0,0,306,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(45,0,0,307,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(46,0,0,308,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(47,0,0,309,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(48,0,0,310,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(49,0,0,311,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(50,0,0,312,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(51,0,0,313,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(52,0,0,314,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(53,0,0,315,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(54,0,0,316,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(55,0,0,317,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(56,0,0,319,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(57,0,0,320,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(58,0,0,327,'2024-06-19 12:18:20',NULL,1253081454145961984,NULL),(59,NULL,1,1,NULL,NULL,NULL,NULL),(60,NULL,1,2,NULL,NULL,NULL,NULL),(61,NULL,1,3,NULL,NULL,NULL,NULL),(62,NULL,1,4,NULL,NULL,NULL,NULL),(63,NULL,1,5,NULL,NULL,NULL,NULL),(64,NULL,1,6,NULL,NULL,NULL,NULL),(65,NULL,1,7,NULL,NULL,NULL,NULL),(66,NULL,1,8,NULL,NULL,NULL,NULL),(67,NULL,1,9,NULL,NULL,NULL,NULL),(68,NULL,1,10,NULL,NULL,NULL,NULL),(69,NULL,1,11,NULL,NULL,NULL,NULL),(70,NULL,1,12,NULL,NULL,NULL,NULL),(71,NULL,1,13,NULL,NULL,NULL,NULL),(72,NULL,1,14,NULL,NULL,NULL,NULL),(73,NULL,1,16,NULL,NULL,NULL,NULL),(74,NULL,1,17,NULL,NULL,NULL,NULL),(75,NULL,1,18,NULL,NULL,NULL,NULL),(76,NULL,1,19,NULL,NULL,NULL,NULL),(77,NULL,1,20,NULL,NULL,NULL,NULL),(78,NULL,1,21,NULL,NULL,NULL,NULL),(79,NULL,1,22,NULL,NULL,NULL,NULL),(80,NULL,1,23,NULL,NULL,NULL,NULL),(81,NULL,1,24,NULL,NULL,NULL,NULL),(82,NULL,1,25,NULL,NULL,NULL,NULL),(83,NULL,1,287,NULL,NULL,NULL,NULL),(84,NULL,1,288,NULL,NULL,NULL,NULL),(85,NULL,1,289,NULL,NULL,NULL,NULL),(86,NULL,1,290,NULL,NULL,NULL,NULL),(87,NULL,1,291,NULL,NULL,NULL,NULL),(88,NULL,1,292,NULL,NULL,NULL,NULL),(89,NULL,1,293,NULL,NULL,NULL,NULL),(90,NULL,1,294,NULL,NULL,NULL,NULL),(91,NULL,1,295,NULL,NULL,NULL,NULL),(92,NULL,1,296,NULL,NULL,NULL,NULL),(93,NULL,1,297,NULL,NULL,NULL,NULL),(94,NULL,1,298,NULL,NULL,NULL,NULL),(95,NULL,1,299,NULL,NULL,NULL,NULL),(96,NULL,1,300,NULL,NULL,NULL,NULL),(97,NULL,1,301,NULL,NULL,NULL,NULL),(98,NULL,1,302,NULL,NULL,NULL,NULL),(99,NULL,1,303,NULL,NULL,NULL,NULL),(100,NULL,1,304,NULL,NULL,NULL,NULL),(101,NULL,1,305,NULL,NULL,NULL,NULL),(102,NULL,1,306,NULL,NULL,NULL,NULL),(103,NULL,1,307,NULL,NULL,NULL,NULL),(104,NULL,1,308,NULL,NULL,NULL,NULL),(105,NULL,1,309,NULL,NULL,NULL,NULL),(106,NULL,1,310,NULL,NULL,NULL,NULL),(107,NULL,1,311,NULL,NULL,NULL,NULL),(108,NULL,1,312,NULL,NULL,NULL,NULL),(109,NULL,1,313,NULL,NULL,NULL,NULL),(110,NULL,1,314,NULL,NULL,NULL,NULL),(111,NULL,1,315,NULL,NULL,NULL,NULL),(112,NULL,1,316,NULL,NULL,NULL,NULL),(113,NULL,1,317,NULL,NULL,NULL,NULL),(114,NULL,1,319,NULL,NULL,NULL,NULL),(115,NULL,1,320,NULL,NULL,NULL,NULL);
 /*!40000 ALTER TABLE `sys_role_menu_rel` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `sys_sequence`
+--
+
+DROP TABLE IF EXISTS `sys_sequence`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `sys_sequence` (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NOT NULL COMMENT '租户id',
+  `sequence_name` varchar(64) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL COMMENT '序列名称',
+  `current_value` bigint NOT NULL DEFAULT '0' COMMENT '已分配出去的最大值',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_sequence_tenant_name` (`tenant_id`,`sequence_name`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 ROW_FORMAT=DYNAMIC COMMENT='序列表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `sys_sequence`
+--
+
+LOCK TABLES `sys_sequence` WRITE;
+/*!40000 ALTER TABLE `sys_sequence` DISABLE KEYS */;
+/*!40000 ALTER TABLE `sys_sequence` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `sys_serial_number`
 --
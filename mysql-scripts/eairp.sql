@@ -95,6 +95,27 @@ CREATE TABLE `financial_account`  (
 INSERT INTO `financial_account` VALUES (1810341847370792962, 0, '微信支付', 'WX00005', 0.00, 59602.60, NULL, 0, NULL, 0, '2024-07-08 23:55:06', NULL, 0, NULL, 0);
 INSERT INTO `financial_account` VALUES (1819297562890321922, 1255645635676209152, 'Visa中国银行', NULL, 0.00, 0.00, NULL, 0, NULL, 0, '2024-08-02 17:01:55', NULL, 1255645635676209152, NULL, 0);
 
+-- ----------------------------
+-- Table structure for financial_account_journal
+-- ----------------------------
+DROP TABLE IF EXISTS `financial_account_journal`;
+CREATE TABLE `financial_account_journal`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `account_id` bigint NOT NULL COMMENT '账户id',
+  `change_amount` decimal(12, 2) NOT NULL COMMENT '变动金额，收款为正数，付款为负数',
+  `receipt_main_id` bigint NULL DEFAULT NULL COMMENT '来源单据主表id，期初余额和手工调整为空',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_account_journal_account`(`account_id` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_account_journal_receipt`(`receipt_main_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '账户余额流水' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of financial_account_journal
+-- ----------------------------
+INSERT INTO `financial_account_journal` VALUES (1810341847370792962, 0, 1810341847370792962, 59602.60, NULL, '2024-07-08 23:55:06');
+
 -- ----------------------------
 -- Table structure for financial_main
 -- ----------------------------
@@ -123,7 +144,9 @@ CREATE TABLE `financial_main`  (
   PRIMARY KEY (`id`) USING BTREE,
   INDEX `FK9F4C0D8DB610FC06`(`related_person_id` ASC) USING BTREE,
   INDEX `FK9F4C0D8DAAE50527`(`account_id` ASC) USING BTREE,
-  INDEX `FK9F4C0D8DC4170B37`(`operator_id` ASC) USING BTREE
+  INDEX `FK9F4C0D8DC4170B37`(`operator_id` ASC) USING BTREE,
+  INDEX `idx_financial_main_type`(`tenant_id` ASC, `type` ASC, `delete_flag` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_financial_main_number`(`tenant_id` ASC, `receipt_number` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '财务主表' ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -1430,7 +1453,9 @@ CREATE TABLE `product_sku`  (
   `create_by` bigint NULL DEFAULT NULL COMMENT '创建人',
   `update_by` bigint NULL DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) NULL DEFAULT 0 COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_sku_bar_code`(`tenant_id` ASC, `product_bar_code` ASC) USING BTREE,
+  INDEX `idx_sku_product`(`product_id` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '产品价格扩展' ROW_FORMAT = COMPACT;
 
 -- ----------------------------
@@ -2365,7 +2390,8 @@ CREATE TABLE `product_stock`  (
   `create_by` bigint NULL DEFAULT NULL COMMENT '创建人',
   `update_by` bigint NULL DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) NULL DEFAULT 0 COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_stock_sku_warehouse`(`tenant_id` ASC, `product_sku_id` ASC, `warehouse_id` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '产品初始库存' ROW_FORMAT = COMPACT;
 
 -- ----------------------------
@@ -3282,6 +3308,55 @@ INSERT INTO `product_stock` VALUES (1274350363557756935, 0, 1274350363557756934,
 INSERT INTO `product_stock` VALUES (1274350363561951234, 0, 1274350363561951233, 1260020894927945728, 0.00, NULL, NULL, 0.00, '2024-08-17 12:53:23', NULL, 0, NULL, 0);
 INSERT INTO `product_stock` VALUES (1274350363561951237, 0, 1274350363561951236, 1260020894927945728, 0.00, NULL, NULL, 0.00, '2024-08-17 12:53:23', NULL, 0, NULL, 0);
 
+-- ----------------------------
+-- Table structure for product_stock_snapshot
+-- ----------------------------
+DROP TABLE IF EXISTS `product_stock_snapshot`;
+CREATE TABLE `product_stock_snapshot`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `product_stock_id` bigint NOT NULL COMMENT '产品库存id',
+  `product_sku_id` bigint NULL DEFAULT NULL COMMENT '产品扩展id',
+  `warehouse_id` bigint NULL DEFAULT NULL COMMENT '仓库id',
+  `snapshot_date` date NOT NULL COMMENT '快照日期，记录当天结束时的库存',
+  `stock_quantity` decimal(12, 2) NOT NULL COMMENT '库存数量',
+  `unit_price` decimal(12, 2) NULL DEFAULT NULL COMMENT '估值单价（零售价）',
+  `stock_amount` decimal(16, 2) NULL DEFAULT NULL COMMENT '库存金额',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_stock_snapshot`(`tenant_id` ASC, `snapshot_date` ASC, `product_stock_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '库存快照，库存为0的行不记录' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of product_stock_snapshot
+-- ----------------------------
+
+-- ----------------------------
+-- Table structure for product_stock_movement
+-- ----------------------------
+DROP TABLE IF EXISTS `product_stock_movement`;
+CREATE TABLE `product_stock_movement`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `product_stock_id` bigint NOT NULL COMMENT '产品库存id',
+  `product_sku_id` bigint NULL DEFAULT NULL COMMENT '产品扩展id',
+  `warehouse_id` bigint NULL DEFAULT NULL COMMENT '仓库id',
+  `change_quantity` decimal(12, 2) NOT NULL COMMENT '变动数量，入库为正数，出库为负数',
+  `balance_quantity` decimal(12, 2) NULL DEFAULT NULL COMMENT '变动后结存数量',
+  `receipt_main_id` bigint NULL DEFAULT NULL COMMENT '来源单据主表id，期初库存和手工调整为空',
+  `receipt_date` datetime NULL DEFAULT NULL COMMENT '业务日期，来源单据的单据日期，没有单据时为创建时间',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_stock_movement_stock`(`product_stock_id` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_stock_movement_receipt`(`receipt_main_id` ASC) USING BTREE,
+  INDEX `idx_stock_movement_time`(`tenant_id` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_stock_movement_receipt_date`(`tenant_id` ASC, `receipt_date` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '库存变动流水' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of product_stock_movement
+-- ----------------------------
+
 -- ----------------------------
 -- Table structure for product_unit
 -- ----------------------------
@@ -3310,6 +3385,27 @@ CREATE TABLE `product_unit`  (
 -- Records of product_unit
 -- ----------------------------
 
+-- ----------------------------
+-- Table structure for receipt_account_allocation
+-- ----------------------------
+DROP TABLE IF EXISTS `receipt_account_allocation`;
+CREATE TABLE `receipt_account_allocation`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `receipt_category` varchar(20) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL COMMENT '单据类别（销售/采购）',
+  `receipt_main_id` bigint NOT NULL COMMENT '单据主表id',
+  `account_id` bigint NOT NULL COMMENT '结算账户id',
+  `amount` decimal(12, 2) NOT NULL DEFAULT 0.00 COMMENT '分摊金额',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_allocation_account`(`account_id` ASC, `receipt_main_id` ASC) USING BTREE,
+  INDEX `idx_allocation_receipt`(`receipt_main_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '单据多账户结算分摊' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of receipt_account_allocation
+-- ----------------------------
+
 -- ----------------------------
 -- Table structure for receipt_main
 -- ----------------------------
@@ -3390,7 +3486,11 @@ CREATE TABLE `receipt_purchase_main`  (
   `create_by` bigint NULL DEFAULT NULL COMMENT '创建人',
   `update_by` bigint NULL DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) NULL DEFAULT 0 COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_purchase_main_sub_type`(`tenant_id` ASC, `sub_type` ASC, `delete_flag` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_purchase_main_number`(`tenant_id` ASC, `receipt_number` ASC) USING BTREE,
+  INDEX `idx_purchase_main_supplier`(`supplier_id` ASC) USING BTREE,
+  INDEX `idx_purchase_main_account`(`account_id` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -3421,7 +3521,9 @@ CREATE TABLE `receipt_purchase_sub`  (
   `create_by` bigint NULL DEFAULT NULL COMMENT '创建人',
   `update_by` bigint NULL DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) NULL DEFAULT 0 COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_purchase_sub_main`(`receipt_purchase_main_id` ASC) USING BTREE,
+  INDEX `idx_purchase_sub_barcode`(`tenant_id` ASC, `product_barcode` ASC, `warehouse_id` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -3460,7 +3562,9 @@ CREATE TABLE `receipt_retail_main`  (
   `delete_flag` tinyint(1) NULL DEFAULT 0 COMMENT '删除标记，0未删除，1删除',
   PRIMARY KEY (`id`) USING BTREE,
   INDEX `FK2A80F214B610FC06`(`member_id` ASC) USING BTREE,
-  INDEX `FK2A80F214AAE50527`(`account_id` ASC) USING BTREE
+  INDEX `FK2A80F214AAE50527`(`account_id` ASC) USING BTREE,
+  INDEX `idx_retail_main_sub_type`(`tenant_id` ASC, `sub_type` ASC, `delete_flag` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_retail_main_number`(`tenant_id` ASC, `receipt_number` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '单据主表' ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -3491,7 +3595,8 @@ CREATE TABLE `receipt_retail_sub`  (
   PRIMARY KEY (`id`) USING BTREE,
   INDEX `FK2A819F475D61CCF7`(`product_id` ASC) USING BTREE,
   INDEX `FK2A819F474BB6190E`(`receipt_main_id` ASC) USING BTREE,
-  INDEX `FK2A819F479485B3F5`(`warehouse_id` ASC) USING BTREE
+  INDEX `FK2A819F479485B3F5`(`warehouse_id` ASC) USING BTREE,
+  INDEX `idx_retail_sub_barcode`(`tenant_id` ASC, `product_barcode` ASC, `warehouse_id` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '单据子表' ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -3533,7 +3638,11 @@ CREATE TABLE `receipt_sale_main`  (
   `create_by` bigint NULL DEFAULT NULL COMMENT '创建人',
   `update_by` bigint NULL DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) NULL DEFAULT 0 COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_sale_main_sub_type`(`tenant_id` ASC, `sub_type` ASC, `delete_flag` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_sale_main_number`(`tenant_id` ASC, `receipt_number` ASC) USING BTREE,
+  INDEX `idx_sale_main_customer`(`customer_id` ASC) USING BTREE,
+  INDEX `idx_sale_main_account`(`account_id` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -3569,7 +3678,9 @@ CREATE TABLE `receipt_sale_sub`  (
   `create_by` bigint NULL DEFAULT NULL COMMENT '创建人',
   `update_by` bigint NULL DEFAULT NULL COMMENT '修改人',
   `delete_flag` tinyint(1) NULL DEFAULT 0 COMMENT '删除标记，0未删除，1删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_sale_sub_main`(`receipt_sale_main_id` ASC) USING BTREE,
+  INDEX `idx_sale_sub_barcode`(`tenant_id` ASC, `product_barcode` ASC, `warehouse_id` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -3582,6 +3693,44 @@ INSERT INTO `receipt_sale_sub` VALUES (1820601294412304385, 1270280820929593344,
 INSERT INTO `receipt_sale_sub` VALUES (1820601665402687490, 1270281191919976448, 0, 1270266121567600641, 1270273213959503872, '110141', 10, 6.60, 66.00, 0.00, 0.00, 66.00, NULL, '2024-08-06 07:23:57', NULL, 0, NULL, 0);
 INSERT INTO `receipt_sale_sub` VALUES (1824706887149449217, 1274386413537722368, 0, 1274386204590080000, 1260020894927945728, '10001', 1, 11.00, 11.00, 0.00, 0.00, 11.00, NULL, '2024-08-17 15:16:38', NULL, 0, NULL, 0);
 
+-- ----------------------------
+-- Table structure for receipt_statistics_daily
+-- ----------------------------
+DROP TABLE IF EXISTS `receipt_statistics_daily`;
+CREATE TABLE `receipt_statistics_daily`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `receipt_category` varchar(20) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL COMMENT '单据类别（零售/销售/采购）',
+  `type` varchar(50) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NULL DEFAULT NULL COMMENT '主类型 (出库/入库/订单)',
+  `sub_type` varchar(50) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NULL DEFAULT NULL COMMENT '子类型（零售出库/销售出库/采购入库等）',
+  `statistics_date` date NOT NULL COMMENT '统计日期',
+  `total_amount` decimal(16, 2) NULL DEFAULT 0.00 COMMENT '合计金额',
+  `receipt_count` int NULL DEFAULT 0 COMMENT '单据数量',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime NULL DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_statistics_daily`(`tenant_id` ASC, `receipt_category` ASC, `type` ASC, `sub_type` ASC, `statistics_date` ASC) USING BTREE,
+  INDEX `idx_statistics_date`(`tenant_id` ASC, `statistics_date` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '单据日统计表' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of receipt_statistics_daily
+-- ----------------------------
+INSERT INTO `receipt_statistics_daily` (`id`, `tenant_id`, `receipt_category`, `type`, `sub_type`, `statistics_date`, `total_amount`, `receipt_count`, `create_time`, `update_time`)
+SELECT UUID_SHORT(), t.* FROM (
+  SELECT `tenant_id`, '零售', `type`, `sub_type`, DATE(`create_time`), IFNULL(SUM(`total_amount`), 0), COUNT(`id`), NOW(), NOW()
+  FROM `receipt_retail_main` WHERE `delete_flag` = 0 AND `create_time` IS NOT NULL
+  GROUP BY `tenant_id`, `type`, `sub_type`, DATE(`create_time`)
+  UNION ALL
+  SELECT `tenant_id`, '销售', `type`, `sub_type`, DATE(`create_time`), IFNULL(SUM(`discount_last_amount`), 0), COUNT(`id`), NOW(), NOW()
+  FROM `receipt_sale_main` WHERE `delete_flag` = 0 AND `create_time` IS NOT NULL
+  GROUP BY `tenant_id`, `type`, `sub_type`, DATE(`create_time`)
+  UNION ALL
+  SELECT `tenant_id`, '采购', `type`, `sub_type`, DATE(`create_time`), IFNULL(SUM(`discount_last_amount`), 0), COUNT(`id`), NOW(), NOW()
+  FROM `receipt_purchase_main` WHERE `delete_flag` = 0 AND `create_time` IS NOT NULL
+  GROUP BY `tenant_id`, `type`, `sub_type`, DATE(`create_time`)
+) AS t;
+
 -- ----------------------------
 -- Table structure for receipt_sub
 -- ----------------------------
@@ -4023,29 +4172,483 @@ DROP TABLE IF EXISTS `sys_role_menu_rel`;
 CREATE TABLE `sys_role_menu_rel`  (
   `id` bigint NOT NULL COMMENT '主键',
   `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
-  `role_id` bigint NULL DEFAULT NULL COMMENT '角色id',
-  `menu_id` text CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL COMMENT '菜单资源id []分割',
+  `role_id` bigint NOT NULL COMMENT '角色id',
+  `menu_id` int NOT NULL COMMENT '菜单id',
   `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
   `update_time` datetime NULL DEFAULT NULL COMMENT '修改时间',
   `create_by` bigint NULL DEFAULT NULL COMMENT '创建人',
   `update_by` bigint NULL DEFAULT NULL COMMENT '修改人',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_role_menu`(`role_id` ASC, `menu_id` ASC) USING BTREE,
+  INDEX `idx_role_menu_menu`(`menu_id` ASC) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = '角色菜单关系表' ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
 -- Records of sys_role_menu_rel
 -- ----------------------------
-INSERT INTO `sys_role_menu_rel` VALUES (0, 0, 0, '[1][2][3][4][5][6][7][8][9][10][11][12][13][14][15][16][17][18][19][20][21][22][23][24][25][26][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305][306][307][308][309][310][311][312][313][314][315][316][317][318][319][320][321][322][327]', '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1255645289419636736, 1255645289390276608, 1255645289411248128, '[1][3][287][289][6][290][291][292][5][293][294][295][10][16][17][18][19][7][311][312][313][314][315][8][306][307][308][309][310][288][11][20][320][21][22][23][24][25][305][9][296][297][298][299][300][301][302][303][304][316][317][12][13][14][319][15]', '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1255654126289682432, 1255654126172241920, 1255654126260322304, '[1][3][4][5][6][7][8][9][10][11][12][13][14][16][17][18][19][20][21][22][23][24][25][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305][306][307][308][309][310][311][312][313][314][315][316][317][319][320][321][322]', '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1255654855570096128, 1255654855423295488, 1255654855519764480, '[1][3][4][5][6][7][8][9][10][11][12][13][14][16][17][18][19][20][21][22][23][24][25][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305][306][307][308][309][310][311][312][313][314][315][316][317][319][320][321][322]', '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1805963490696818689, NULL, 1, '[1][3][4][5][6][7][8][9][10][11][12][13][14][16][17][18][19][20][21][22][23][24][25][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305][306][307][308][309][310][311][312][313][314][315][316][317][319][320][321][322]', NULL, NULL, NULL, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1805964172170555393, NULL, 1255642163648135168, '[1][3][4][5][6][7][8][9][10][11][12][13][14][16][17][18][19][20][21][22][23][24][25][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305][306][307][308][309][310][311][312][313][314][315][316][317][319][320][321][322]', NULL, NULL, NULL, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1810223083262300162, NULL, 1259902383282978816, '[1][6][290][291][292][300][301][303][316]', NULL, NULL, NULL, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1810223172483534850, NULL, 1259902322260049920, '[5][293][294][295][1][299][302][304][317]', NULL, NULL, NULL, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1810344565447557122, NULL, 1260023997328785408, '[1][6][290][291][292][300][301][316]', NULL, NULL, NULL, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1810722407737958401, NULL, 1260401860854939648, '[1][5][293][294][295][299][302][317][304]', NULL, NULL, NULL, NULL);
-INSERT INTO `sys_role_menu_rel` VALUES (1819088721841905665, NULL, 1255645635781066752, '[1][3][4][5][6][7][8][9][10][11][12][13][14][16][17][18][19][20][21][22][23][24][25][287][288][289][290][291][292][293][294][295][296][297][298][299][300][301][302][303][304][305][306][307][308][309][310][311][312][313][314][315][316][317][319][320][321][322]', NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (1, 0, 0, 1, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (2, 0, 0, 2, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (3, 0, 0, 3, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (4, 0, 0, 4, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (5, 0, 0, 5, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (6, 0, 0, 6, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (7, 0, 0, 7, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (8, 0, 0, 8, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (9, 0, 0, 9, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (10, 0, 0, 10, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (11, 0, 0, 11, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (12, 0, 0, 12, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (13, 0, 0, 13, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (14, 0, 0, 14, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (15, 0, 0, 15, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (16, 0, 0, 16, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (17, 0, 0, 17, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (18, 0, 0, 18, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (19, 0, 0, 19, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (20, 0, 0, 20, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (21, 0, 0, 21, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (22, 0, 0, 22, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (23, 0, 0, 23, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (24, 0, 0, 24, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (25, 0, 0, 25, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (26, 0, 0, 26, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (27, 0, 0, 287, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (28, 0, 0, 288, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (29, 0, 0, 289, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (30, 0, 0, 290, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (31, 0, 0, 291, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (32, 0, 0, 292, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (33, 0, 0, 293, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (34, 0, 0, 294, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (35, 0, 0, 295, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (36, 0, 0, 296, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (37, 0, 0, 297, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (38, 0, 0, 298, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (39, 0, 0, 299, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (40, 0, 0, 300, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (41, 0, 0, 301, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (42, 0, 0, 302, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (43, 0, 0, 303, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (44, 0, 0, 304, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (45, 0, 0, 305, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (46, 0, 0, 306, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (47, 0, 0, 307, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (48, 0, 0, 308, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (49, 0, 0, 309, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (50, 0, 0, 310, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (51, 0, 0, 311, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (52, 0, 0, 312, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (53, 0, 0, 313, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (54, 0, 0, 314, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (55, 0, 0, 315, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (56, 0, 0, 316, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (57, 0, 0, 317, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (58, 0, 0, 318, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (59, 0, 0, 319, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (60, 0, 0, 320, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (61, 0, 0, 321, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (62, 0, 0, 322, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (63, 0, 0, 327, '2024-06-19 12:18:20', NULL, 1253081454145961984, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (64, 1255645289390276608, 1255645289411248128, 1, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (65, 1255645289390276608, 1255645289411248128, 3, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (66, 1255645289390276608, 1255645289411248128, 287, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (67, 1255645289390276608, 1255645289411248128, 289, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (68, 1255645289390276608, 1255645289411248128, 6, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (69, 1255645289390276608, 1255645289411248128, 290, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (70, 1255645289390276608, 1255645289411248128, 291, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (71, 1255645289390276608, 1255645289411248128, 292, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (72, 1255645289390276608, 1255645289411248128, 5, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (73, 1255645289390276608, 1255645289411248128, 293, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (74, 1255645289390276608, 1255645289411248128, 294, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (75, 1255645289390276608, 1255645289411248128, 295, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (76, 1255645289390276608, 1255645289411248128, 10, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (77, 1255645289390276608, 1255645289411248128, 16, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (78, 1255645289390276608, 1255645289411248128, 17, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (79, 1255645289390276608, 1255645289411248128, 18, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (80, 1255645289390276608, 1255645289411248128, 19, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (81, 1255645289390276608, 1255645289411248128, 7, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (82, 1255645289390276608, 1255645289411248128, 311, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (83, 1255645289390276608, 1255645289411248128, 312, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (84, 1255645289390276608, 1255645289411248128, 313, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (85, 1255645289390276608, 1255645289411248128, 314, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (86, 1255645289390276608, 1255645289411248128, 315, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (87, 1255645289390276608, 1255645289411248128, 8, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (88, 1255645289390276608, 1255645289411248128, 306, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (89, 1255645289390276608, 1255645289411248128, 307, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (90, 1255645289390276608, 1255645289411248128, 308, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (91, 1255645289390276608, 1255645289411248128, 309, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (92, 1255645289390276608, 1255645289411248128, 310, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (93, 1255645289390276608, 1255645289411248128, 288, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (94, 1255645289390276608, 1255645289411248128, 11, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (95, 1255645289390276608, 1255645289411248128, 20, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (96, 1255645289390276608, 1255645289411248128, 320, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (97, 1255645289390276608, 1255645289411248128, 21, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (98, 1255645289390276608, 1255645289411248128, 22, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (99, 1255645289390276608, 1255645289411248128, 23, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (100, 1255645289390276608, 1255645289411248128, 24, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (101, 1255645289390276608, 1255645289411248128, 25, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (102, 1255645289390276608, 1255645289411248128, 305, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (103, 1255645289390276608, 1255645289411248128, 9, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (104, 1255645289390276608, 1255645289411248128, 296, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (105, 1255645289390276608, 1255645289411248128, 297, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (106, 1255645289390276608, 1255645289411248128, 298, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (107, 1255645289390276608, 1255645289411248128, 299, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (108, 1255645289390276608, 1255645289411248128, 300, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (109, 1255645289390276608, 1255645289411248128, 301, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (110, 1255645289390276608, 1255645289411248128, 302, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (111, 1255645289390276608, 1255645289411248128, 303, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (112, 1255645289390276608, 1255645289411248128, 304, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (113, 1255645289390276608, 1255645289411248128, 316, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (114, 1255645289390276608, 1255645289411248128, 317, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (115, 1255645289390276608, 1255645289411248128, 12, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (116, 1255645289390276608, 1255645289411248128, 13, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (117, 1255645289390276608, 1255645289411248128, 14, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (118, 1255645289390276608, 1255645289411248128, 319, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (119, 1255645289390276608, 1255645289411248128, 15, '2024-06-26 22:06:06', NULL, 1255645289390276608, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (120, 1255654126172241920, 1255654126260322304, 1, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (121, 1255654126172241920, 1255654126260322304, 3, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (122, 1255654126172241920, 1255654126260322304, 4, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (123, 1255654126172241920, 1255654126260322304, 5, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (124, 1255654126172241920, 1255654126260322304, 6, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (125, 1255654126172241920, 1255654126260322304, 7, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (126, 1255654126172241920, 1255654126260322304, 8, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (127, 1255654126172241920, 1255654126260322304, 9, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (128, 1255654126172241920, 1255654126260322304, 10, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (129, 1255654126172241920, 1255654126260322304, 11, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (130, 1255654126172241920, 1255654126260322304, 12, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (131, 1255654126172241920, 1255654126260322304, 13, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (132, 1255654126172241920, 1255654126260322304, 14, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (133, 1255654126172241920, 1255654126260322304, 16, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (134, 1255654126172241920, 1255654126260322304, 17, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (135, 1255654126172241920, 1255654126260322304, 18, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (136, 1255654126172241920, 1255654126260322304, 19, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (137, 1255654126172241920, 1255654126260322304, 20, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (138, 1255654126172241920, 1255654126260322304, 21, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (139, 1255654126172241920, 1255654126260322304, 22, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (140, 1255654126172241920, 1255654126260322304, 23, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (141, 1255654126172241920, 1255654126260322304, 24, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (142, 1255654126172241920, 1255654126260322304, 25, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (143, 1255654126172241920, 1255654126260322304, 287, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (144, 1255654126172241920, 1255654126260322304, 288, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (145, 1255654126172241920, 1255654126260322304, 289, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (146, 1255654126172241920, 1255654126260322304, 290, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (147, 1255654126172241920, 1255654126260322304, 291, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (148, 1255654126172241920, 1255654126260322304, 292, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (149, 1255654126172241920, 1255654126260322304, 293, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (150, 1255654126172241920, 1255654126260322304, 294, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (151, 1255654126172241920, 1255654126260322304, 295, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (152, 1255654126172241920, 1255654126260322304, 296, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (153, 1255654126172241920, 1255654126260322304, 297, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (154, 1255654126172241920, 1255654126260322304, 298, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (155, 1255654126172241920, 1255654126260322304, 299, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (156, 1255654126172241920, 1255654126260322304, 300, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (157, 1255654126172241920, 1255654126260322304, 301, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (158, 1255654126172241920, 1255654126260322304, 302, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (159, 1255654126172241920, 1255654126260322304, 303, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (160, 1255654126172241920, 1255654126260322304, 304, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (161, 1255654126172241920, 1255654126260322304, 305, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (162, 1255654126172241920, 1255654126260322304, 306, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (163, 1255654126172241920, 1255654126260322304, 307, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (164, 1255654126172241920, 1255654126260322304, 308, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (165, 1255654126172241920, 1255654126260322304, 309, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (166, 1255654126172241920, 1255654126260322304, 310, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (167, 1255654126172241920, 1255654126260322304, 311, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (168, 1255654126172241920, 1255654126260322304, 312, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (169, 1255654126172241920, 1255654126260322304, 313, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (170, 1255654126172241920, 1255654126260322304, 314, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (171, 1255654126172241920, 1255654126260322304, 315, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (172, 1255654126172241920, 1255654126260322304, 316, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (173, 1255654126172241920, 1255654126260322304, 317, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (174, 1255654126172241920, 1255654126260322304, 319, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (175, 1255654126172241920, 1255654126260322304, 320, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (176, 1255654126172241920, 1255654126260322304, 321, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (177, 1255654126172241920, 1255654126260322304, 322, '2024-06-26 22:41:13', NULL, 1255654126172241920, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (178, 1255654855423295488, 1255654855519764480, 1, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (179, 1255654855423295488, 1255654855519764480, 3, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (180, 1255654855423295488, 1255654855519764480, 4, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (181, 1255654855423295488, 1255654855519764480, 5, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (182, 1255654855423295488, 1255654855519764480, 6, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (183, 1255654855423295488, 1255654855519764480, 7, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (184, 1255654855423295488, 1255654855519764480, 8, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (185, 1255654855423295488, 1255654855519764480, 9, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (186, 1255654855423295488, 1255654855519764480, 10, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (187, 1255654855423295488, 1255654855519764480, 11, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (188, 1255654855423295488, 1255654855519764480, 12, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (189, 1255654855423295488, 1255654855519764480, 13, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (190, 1255654855423295488, 1255654855519764480, 14, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (191, 1255654855423295488, 1255654855519764480, 16, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (192, 1255654855423295488, 1255654855519764480, 17, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (193, 1255654855423295488, 1255654855519764480, 18, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (194, 1255654855423295488, 1255654855519764480, 19, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (195, 1255654855423295488, 1255654855519764480, 20, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (196, 1255654855423295488, 1255654855519764480, 21, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (197, 1255654855423295488, 1255654855519764480, 22, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (198, 1255654855423295488, 1255654855519764480, 23, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (199, 1255654855423295488, 1255654855519764480, 24, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (200, 1255654855423295488, 1255654855519764480, 25, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (201, 1255654855423295488, 1255654855519764480, 287, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (202, 1255654855423295488, 1255654855519764480, 288, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (203, 1255654855423295488, 1255654855519764480, 289, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (204, 1255654855423295488, 1255654855519764480, 290, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (205, 1255654855423295488, 1255654855519764480, 291, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (206, 1255654855423295488, 1255654855519764480, 292, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (207, 1255654855423295488, 1255654855519764480, 293, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (208, 1255654855423295488, 1255654855519764480, 294, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (209, 1255654855423295488, 1255654855519764480, 295, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (210, 1255654855423295488, 1255654855519764480, 296, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (211, 1255654855423295488, 1255654855519764480, 297, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (212, 1255654855423295488, 1255654855519764480, 298, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (213, 1255654855423295488, 1255654855519764480, 299, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (214, 1255654855423295488, 1255654855519764480, 300, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (215, 1255654855423295488, 1255654855519764480, 301, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (216, 1255654855423295488, 1255654855519764480, 302, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (217, 1255654855423295488, 1255654855519764480, 303, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (218, 1255654855423295488, 1255654855519764480, 304, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (219, 1255654855423295488, 1255654855519764480, 305, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (220, 1255654855423295488, 1255654855519764480, 306, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (221, 1255654855423295488, 1255654855519764480, 307, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (222, 1255654855423295488, 1255654855519764480, 308, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (223, 1255654855423295488, 1255654855519764480, 309, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (224, 1255654855423295488, 1255654855519764480, 310, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (225, 1255654855423295488, 1255654855519764480, 311, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (226, 1255654855423295488, 1255654855519764480, 312, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (227, 1255654855423295488, 1255654855519764480, 313, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (228, 1255654855423295488, 1255654855519764480, 314, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (229, 1255654855423295488, 1255654855519764480, 315, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (230, 1255654855423295488, 1255654855519764480, 316, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (231, 1255654855423295488, 1255654855519764480, 317, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (232, 1255654855423295488, 1255654855519764480, 319, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (233, 1255654855423295488, 1255654855519764480, 320, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (234, 1255654855423295488, 1255654855519764480, 321, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (235, 1255654855423295488, 1255654855519764480, 322, '2024-06-26 22:44:07', NULL, 1255654855423295488, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (236, NULL, 1, 1, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (237, NULL, 1, 3, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (238, NULL, 1, 4, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (239, NULL, 1, 5, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (240, NULL, 1, 6, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (241, NULL, 1, 7, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (242, NULL, 1, 8, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (243, NULL, 1, 9, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (244, NULL, 1, 10, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (245, NULL, 1, 11, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (246, NULL, 1, 12, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (247, NULL, 1, 13, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (248, NULL, 1, 14, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (249, NULL, 1, 16, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (250, NULL, 1, 17, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (251, NULL, 1, 18, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (252, NULL, 1, 19, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (253, NULL, 1, 20, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (254, NULL, 1, 21, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (255, NULL, 1, 22, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (256, NULL, 1, 23, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (257, NULL, 1, 24, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (258, NULL, 1, 25, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (259, NULL, 1, 287, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (260, NULL, 1, 288, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (261, NULL, 1, 289, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (262, NULL, 1, 290, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (263, NULL, 1, 291, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (264, NULL, 1, 292, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (265, NULL, 1, 293, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (266, NULL, 1, 294, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (267, NULL, 1, 295, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (268, NULL, 1, 296, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (269, NULL, 1, 297, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (270, NULL, 1, 298, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (271, NULL, 1, 299, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (272, NULL, 1, 300, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (273, NULL, 1, 301, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (274, NULL, 1, 302, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (275, NULL, 1, 303, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (276, NULL, 1, 304, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (277, NULL, 1, 305, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (278, NULL, 1, 306, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (279, NULL, 1, 307, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (280, NULL, 1, 308, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (281, NULL, 1, 309, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (282, NULL, 1, 310, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (283, NULL, 1, 311, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (284, NULL, 1, 312, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (285, NULL, 1, 313, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (286, NULL, 1, 314, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (287, NULL, 1, 315, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (288, NULL, 1, 316, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (289, NULL, 1, 317, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (290, NULL, 1, 319, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (291, NULL, 1, 320, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (292, NULL, 1, 321, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (293, NULL, 1, 322, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (294, NULL, 1255642163648135168, 1, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (295, NULL, 1255642163648135168, 3, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (296, NULL, 1255642163648135168, 4, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (297, NULL, 1255642163648135168, 5, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (298, NULL, 1255642163648135168, 6, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (299, NULL, 1255642163648135168, 7, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (300, NULL, 1255642163648135168, 8, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (301, NULL, 1255642163648135168, 9, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (302, NULL, 1255642163648135168, 10, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (303, NULL, 1255642163648135168, 11, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (304, NULL, 1255642163648135168, 12, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (305, NULL, 1255642163648135168, 13, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (306, NULL, 1255642163648135168, 14, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (307, NULL, 1255642163648135168, 16, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (308, NULL, 1255642163648135168, 17, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (309, NULL, 1255642163648135168, 18, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (310, NULL, 1255642163648135168, 19, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (311, NULL, 1255642163648135168, 20, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (312, NULL, 1255642163648135168, 21, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (313, NULL, 1255642163648135168, 22, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (314, NULL, 1255642163648135168, 23, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (315, NULL, 1255642163648135168, 24, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (316, NULL, 1255642163648135168, 25, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (317, NULL, 1255642163648135168, 287, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (318, NULL, 1255642163648135168, 288, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (319, NULL, 1255642163648135168, 289, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (320, NULL, 1255642163648135168, 290, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (321, NULL, 1255642163648135168, 291, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (322, NULL, 1255642163648135168, 292, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (323, NULL, 1255642163648135168, 293, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (324, NULL, 1255642163648135168, 294, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (325, NULL, 1255642163648135168, 295, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (326, NULL, 1255642163648135168, 296, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (327, NULL, 1255642163648135168, 297, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (328, NULL, 1255642163648135168, 298, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (329, NULL, 1255642163648135168, 299, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (330, NULL, 1255642163648135168, 300, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (331, NULL, 1255642163648135168, 301, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (332, NULL, 1255642163648135168, 302, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (333, NULL, 1255642163648135168, 303, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (334, NULL, 1255642163648135168, 304, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (335, NULL, 1255642163648135168, 305, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (336, NULL, 1255642163648135168, 306, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (337, NULL, 1255642163648135168, 307, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (338, NULL, 1255642163648135168, 308, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (339, NULL, 1255642163648135168, 309, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (340, NULL, 1255642163648135168, 310, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (341, NULL, 1255642163648135168, 311, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (342, NULL, 1255642163648135168, 312, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (343, NULL, 1255642163648135168, 313, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (344, NULL, 1255642163648135168, 314, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (345, NULL, 1255642163648135168, 315, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (346, NULL, 1255642163648135168, 316, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (347, NULL, 1255642163648135168, 317, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (348, NULL, 1255642163648135168, 319, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (349, NULL, 1255642163648135168, 320, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (350, NULL, 1255642163648135168, 321, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (351, NULL, 1255642163648135168, 322, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (352, NULL, 1259902383282978816, 1, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (353, NULL, 1259902383282978816, 6, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (354, NULL, 1259902383282978816, 290, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (355, NULL, 1259902383282978816, 291, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (356, NULL, 1259902383282978816, 292, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (357, NULL, 1259902383282978816, 300, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (358, NULL, 1259902383282978816, 301, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (359, NULL, 1259902383282978816, 303, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (360, NULL, 1259902383282978816, 316, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (361, NULL, 1259902322260049920, 5, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (362, NULL, 1259902322260049920, 293, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (363, NULL, 1259902322260049920, 294, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (364, NULL, 1259902322260049920, 295, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (365, NULL, 1259902322260049920, 1, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (366, NULL, 1259902322260049920, 299, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (367, NULL, 1259902322260049920, 302, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (368, NULL, 1259902322260049920, 304, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (369, NULL, 1259902322260049920, 317, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (370, NULL, 1260023997328785408, 1, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (371, NULL, 1260023997328785408, 6, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (372, NULL, 1260023997328785408, 290, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (373, NULL, 1260023997328785408, 291, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (374, NULL, 1260023997328785408, 292, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (375, NULL, 1260023997328785408, 300, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (376, NULL, 1260023997328785408, 301, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (377, NULL, 1260023997328785408, 316, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (378, NULL, 1260401860854939648, 1, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (379, NULL, 1260401860854939648, 5, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (380, NULL, 1260401860854939648, 293, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (381, NULL, 1260401860854939648, 294, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (382, NULL, 1260401860854939648, 295, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (383, NULL, 1260401860854939648, 299, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (384, NULL, 1260401860854939648, 302, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (385, NULL, 1260401860854939648, 317, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (386, NULL, 1260401860854939648, 304, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (387, NULL, 1255645635781066752, 1, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (388, NULL, 1255645635781066752, 3, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (389, NULL, 1255645635781066752, 4, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (390, NULL, 1255645635781066752, 5, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (391, NULL, 1255645635781066752, 6, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (392, NULL, 1255645635781066752, 7, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (393, NULL, 1255645635781066752, 8, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (394, NULL, 1255645635781066752, 9, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (395, NULL, 1255645635781066752, 10, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (396, NULL, 1255645635781066752, 11, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (397, NULL, 1255645635781066752, 12, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (398, NULL, 1255645635781066752, 13, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (399, NULL, 1255645635781066752, 14, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (400, NULL, 1255645635781066752, 16, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (401, NULL, 1255645635781066752, 17, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (402, NULL, 1255645635781066752, 18, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (403, NULL, 1255645635781066752, 19, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (404, NULL, 1255645635781066752, 20, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (405, NULL, 1255645635781066752, 21, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (406, NULL, 1255645635781066752, 22, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (407, NULL, 1255645635781066752, 23, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (408, NULL, 1255645635781066752, 24, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (409, NULL, 1255645635781066752, 25, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (410, NULL, 1255645635781066752, 287, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (411, NULL, 1255645635781066752, 288, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (412, NULL, 1255645635781066752, 289, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (413, NULL, 1255645635781066752, 290, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (414, NULL, 1255645635781066752, 291, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (415, NULL, 1255645635781066752, 292, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (416, NULL, 1255645635781066752, 293, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (417, NULL, 1255645635781066752, 294, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (418, NULL, 1255645635781066752, 295, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (419, NULL, 1255645635781066752, 296, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (420, NULL, 1255645635781066752, 297, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (421, NULL, 1255645635781066752, 298, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (422, NULL, 1255645635781066752, 299, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (423, NULL, 1255645635781066752, 300, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (424, NULL, 1255645635781066752, 301, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (425, NULL, 1255645635781066752, 302, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (426, NULL, 1255645635781066752, 303, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (427, NULL, 1255645635781066752, 304, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (428, NULL, 1255645635781066752, 305, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (429, NULL, 1255645635781066752, 306, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (430, NULL, 1255645635781066752, 307, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (431, NULL, 1255645635781066752, 308, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (432, NULL, 1255645635781066752, 309, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (433, NULL, 1255645635781066752, 310, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (434, NULL, 1255645635781066752, 311, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (435, NULL, 1255645635781066752, 312, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (436, NULL, 1255645635781066752, 313, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (437, NULL, 1255645635781066752, 314, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (438, NULL, 1255645635781066752, 315, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (439, NULL, 1255645635781066752, 316, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (440, NULL, 1255645635781066752, 317, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (441, NULL, 1255645635781066752, 319, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (442, NULL, 1255645635781066752, 320, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (443, NULL, 1255645635781066752, 321, NULL, NULL, NULL, NULL);
+INSERT INTO `sys_role_menu_rel` VALUES (444, NULL, 1255645635781066752, 322, NULL, NULL, NULL, NULL);
+
+-- ----------------------------
+-- Table structure for sys_sequence
+-- ----------------------------
+DROP TABLE IF EXISTS `sys_sequence`;
+CREATE TABLE `sys_sequence`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NOT NULL COMMENT '租户id',
+  `sequence_name` varchar(64) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL COMMENT '序列名称',
+  `current_value` bigint NOT NULL DEFAULT 0 COMMENT '已分配出去的最大值',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime NULL DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_sequence_tenant_name`(`tenant_id` ASC, `sequence_name` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '序列表' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of sys_sequence
+-- ----------------------------
 
 -- ----------------------------
 -- Table structure for sys_serial_number
@@ -0,0 +1,20 @@
+-- ----------------------------
+-- Upgrade: business date on the stock movement journal
+-- Apply to databases created from an earlier eairp.sql. Historical stock and snapshots are
+-- bounded by the receipt date of the source receipt rather than the time the entry was
+-- written, so back-dated receipts land in the right period. Existing entries take the date
+-- of their receipt, entries without a receipt keep their create time.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+ALTER TABLE `product_stock_movement`
+  ADD COLUMN `receipt_date` datetime NULL DEFAULT NULL COMMENT '业务日期，来源单据的单据日期，没有单据时为创建时间' AFTER `receipt_main_id`,
+  ADD INDEX `idx_stock_movement_receipt_date`(`tenant_id` ASC, `receipt_date` ASC) USING BTREE;
+
+UPDATE `product_stock_movement` AS movement
+LEFT JOIN `receipt_retail_main` AS rm ON rm.`id` = movement.`receipt_main_id`
+LEFT JOIN `receipt_sale_main` AS sm ON sm.`id` = movement.`receipt_main_id`
+LEFT JOIN `receipt_purchase_main` AS pm ON pm.`id` = movement.`receipt_main_id`
+LEFT JOIN `warehouse_receipt_main` AS wm ON wm.`id` = movement.`receipt_main_id`
+SET movement.`receipt_date` = COALESCE(rm.`receipt_date`, sm.`receipt_date`, pm.`receipt_date`, wm.`receipt_date`, movement.`create_time`)
+WHERE movement.`receipt_date` IS NULL;
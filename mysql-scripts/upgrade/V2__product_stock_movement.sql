@@ -0,0 +1,19 @@
+-- ----------------------------
+-- Upgrade: append-only stock movement journal written by the stock ledger
+-- Apply to databases created from an earlier eairp.sql.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS `product_stock_movement`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `product_stock_id` bigint NOT NULL COMMENT '产品库存id',
+  `product_sku_id` bigint NULL DEFAULT NULL COMMENT '产品扩展id',
+  `warehouse_id` bigint NULL DEFAULT NULL COMMENT '仓库id',
+  `change_quantity` decimal(12, 2) NOT NULL COMMENT '变动数量，入库为正数，出库为负数',
+  `receipt_main_id` bigint NULL DEFAULT NULL COMMENT '来源单据主表id',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_stock_movement_stock`(`product_stock_id` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_stock_movement_receipt`(`receipt_main_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '库存变动流水' ROW_FORMAT = DYNAMIC;
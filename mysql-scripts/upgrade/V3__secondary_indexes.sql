@@ -0,0 +1,47 @@
+-- ----------------------------
+-- Upgrade: secondary indexes for the receipt, stock and financial hot queries
+-- Every query carries tenant_id from the tenant interceptor, so composite
+-- indexes lead with tenant_id followed by the equality columns and then the
+-- range column (create_time). The receipt reports bind sub_type but not type, and
+-- sub_type already implies type, so the receipt main indexes start with sub_type.
+-- Apply to databases created from an earlier eairp.sql.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+ALTER TABLE `financial_main`
+  ADD INDEX `idx_financial_main_type`(`tenant_id` ASC, `type` ASC, `delete_flag` ASC, `create_time` ASC) USING BTREE,
+  ADD INDEX `idx_financial_main_number`(`tenant_id` ASC, `receipt_number` ASC) USING BTREE;
+
+ALTER TABLE `product_sku`
+  ADD INDEX `idx_sku_bar_code`(`tenant_id` ASC, `product_bar_code` ASC) USING BTREE,
+  ADD INDEX `idx_sku_product`(`product_id` ASC) USING BTREE;
+
+ALTER TABLE `product_stock`
+  ADD INDEX `idx_stock_sku_warehouse`(`tenant_id` ASC, `product_sku_id` ASC, `warehouse_id` ASC) USING BTREE;
+
+ALTER TABLE `receipt_purchase_main`
+  ADD INDEX `idx_purchase_main_sub_type`(`tenant_id` ASC, `sub_type` ASC, `delete_flag` ASC, `create_time` ASC) USING BTREE,
+  ADD INDEX `idx_purchase_main_number`(`tenant_id` ASC, `receipt_number` ASC) USING BTREE,
+  ADD INDEX `idx_purchase_main_supplier`(`supplier_id` ASC) USING BTREE,
+  ADD INDEX `idx_purchase_main_account`(`account_id` ASC) USING BTREE;
+
+ALTER TABLE `receipt_purchase_sub`
+  ADD INDEX `idx_purchase_sub_main`(`receipt_purchase_main_id` ASC) USING BTREE,
+  ADD INDEX `idx_purchase_sub_barcode`(`tenant_id` ASC, `product_barcode` ASC, `warehouse_id` ASC) USING BTREE;
+
+ALTER TABLE `receipt_retail_main`
+  ADD INDEX `idx_retail_main_sub_type`(`tenant_id` ASC, `sub_type` ASC, `delete_flag` ASC, `create_time` ASC) USING BTREE,
+  ADD INDEX `idx_retail_main_number`(`tenant_id` ASC, `receipt_number` ASC) USING BTREE;
+
+ALTER TABLE `receipt_retail_sub`
+  ADD INDEX `idx_retail_sub_barcode`(`tenant_id` ASC, `product_barcode` ASC, `warehouse_id` ASC) USING BTREE;
+
+ALTER TABLE `receipt_sale_main`
+  ADD INDEX `idx_sale_main_sub_type`(`tenant_id` ASC, `sub_type` ASC, `delete_flag` ASC, `create_time` ASC) USING BTREE,
+  ADD INDEX `idx_sale_main_number`(`tenant_id` ASC, `receipt_number` ASC) USING BTREE,
+  ADD INDEX `idx_sale_main_customer`(`customer_id` ASC) USING BTREE,
+  ADD INDEX `idx_sale_main_account`(`account_id` ASC) USING BTREE;
+
+ALTER TABLE `receipt_sale_sub`
+  ADD INDEX `idx_sale_sub_main`(`receipt_sale_main_id` ASC) USING BTREE,
+  ADD INDEX `idx_sale_sub_barcode`(`tenant_id` ASC, `product_barcode` ASC, `warehouse_id` ASC) USING BTREE;
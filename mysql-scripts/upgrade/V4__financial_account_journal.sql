@@ -0,0 +1,25 @@
+-- ----------------------------
+-- Upgrade: append-only account balance journal written by the account ledger
+-- Apply to databases created from an earlier eairp.sql. The current balance of every
+-- existing account is recorded as its opening entry so that replaying the journal
+-- reproduces today's balances.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS `financial_account_journal`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `account_id` bigint NOT NULL COMMENT '账户id',
+  `change_amount` decimal(12, 2) NOT NULL COMMENT '变动金额，收款为正数，付款为负数',
+  `receipt_main_id` bigint NULL DEFAULT NULL COMMENT '来源单据主表id，期初余额和手工调整为空',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_account_journal_account`(`account_id` ASC, `create_time` ASC) USING BTREE,
+  INDEX `idx_account_journal_receipt`(`receipt_main_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '账户余额流水' ROW_FORMAT = DYNAMIC;
+
+INSERT INTO `financial_account_journal` (`id`, `tenant_id`, `account_id`, `change_amount`, `receipt_main_id`, `create_time`)
+SELECT UUID_SHORT(), account.`tenant_id`, account.`id`, IFNULL(account.`current_amount`, 0), NULL, NOW()
+FROM `financial_account` AS account
+WHERE IFNULL(account.`current_amount`, 0) <> 0
+  AND NOT EXISTS (SELECT 1 FROM `financial_account_journal` AS journal WHERE journal.`account_id` = account.`id`);
@@ -0,0 +1,17 @@
+-- ----------------------------
+-- Upgrade: per tenant sequences used to issue product barcodes and document numbers in blocks
+-- Apply to databases created from an earlier eairp.sql. Rows are created on first use, the
+-- barcode sequence starts after the largest numeric barcode of the tenant.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS `sys_sequence`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NOT NULL COMMENT '租户id',
+  `sequence_name` varchar(64) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL COMMENT '序列名称',
+  `current_value` bigint NOT NULL DEFAULT 0 COMMENT '已分配出去的最大值',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime NULL DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_sequence_tenant_name`(`tenant_id` ASC, `sequence_name` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '序列表' ROW_FORMAT = DYNAMIC;
@@ -0,0 +1,37 @@
+-- ----------------------------
+-- Upgrade: one row per role and menu in sys_role_menu_rel instead of a '[1][2][3]' string
+-- Apply once to databases created from an earlier eairp.sql (MySQL 8.0+). The old table is kept
+-- as sys_role_menu_rel_legacy and can be dropped after the upgrade has been verified.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+RENAME TABLE `sys_role_menu_rel` TO `sys_role_menu_rel_legacy`;
+
+CREATE TABLE `sys_role_menu_rel`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `role_id` bigint NOT NULL COMMENT '角色id',
+  `menu_id` int NOT NULL COMMENT '菜单id',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime NULL DEFAULT NULL COMMENT '修改时间',
+  `create_by` bigint NULL DEFAULT NULL COMMENT '创建人',
+  `update_by` bigint NULL DEFAULT NULL COMMENT '修改人',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_role_menu`(`role_id` ASC, `menu_id` ASC) USING BTREE,
+  INDEX `idx_role_menu_menu`(`menu_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = '角色菜单关系表' ROW_FORMAT = DYNAMIC;
+
+-- '[1][2][3]' -> JSON数组 '[1,2,3]' 后展开为行, 同一角色重复的菜单只保留一条
+INSERT INTO `sys_role_menu_rel` (`id`, `tenant_id`, `role_id`, `menu_id`, `create_time`, `update_time`, `create_by`, `update_by`)
+SELECT UUID_SHORT(), rel.`tenant_id`, rel.`role_id`, rel.`menu_id`,
+       rel.`create_time`, rel.`update_time`, rel.`create_by`, rel.`update_by`
+FROM (
+    SELECT legacy.`role_id`, menus.`menu_id`, MAX(legacy.`tenant_id`) AS `tenant_id`, MIN(legacy.`create_time`) AS `create_time`,
+           MAX(legacy.`update_time`) AS `update_time`, MIN(legacy.`create_by`) AS `create_by`, MAX(legacy.`update_by`) AS `update_by`
+    FROM `sys_role_menu_rel_legacy` AS legacy,
+         JSON_TABLE(CONCAT('[', REPLACE(REPLACE(REPLACE(legacy.`menu_id`, '][', ','), '[', ''), ']', ''), ']'),
+                    '$[*]' COLUMNS (`menu_id` int PATH '$')) AS menus
+    WHERE legacy.`role_id` IS NOT NULL
+      AND legacy.`menu_id` REGEXP '^(\\[[0-9]+\\])+$'
+    GROUP BY legacy.`role_id`, menus.`menu_id`
+) AS rel;
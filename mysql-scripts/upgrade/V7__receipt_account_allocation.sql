@@ -0,0 +1,42 @@
+-- ----------------------------
+-- Upgrade: split payments of sale and purchase receipts as one row per account
+-- Apply to databases created from an earlier eairp.sql (MySQL 8.0+). The comma separated
+-- multiple_account / multiple_account_amount columns are expanded into rows, receipts that
+-- already have allocation rows are skipped.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS `receipt_account_allocation`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `receipt_category` varchar(20) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL COMMENT '单据类别（销售/采购）',
+  `receipt_main_id` bigint NOT NULL COMMENT '单据主表id',
+  `account_id` bigint NOT NULL COMMENT '结算账户id',
+  `amount` decimal(12, 2) NOT NULL DEFAULT 0.00 COMMENT '分摊金额',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_allocation_account`(`account_id` ASC, `receipt_main_id` ASC) USING BTREE,
+  INDEX `idx_allocation_receipt`(`receipt_main_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '单据多账户结算分摊' ROW_FORMAT = DYNAMIC;
+
+-- 账户和金额按逗号分隔, 按位置一一对应
+INSERT INTO `receipt_account_allocation` (`id`, `tenant_id`, `receipt_category`, `receipt_main_id`, `account_id`, `amount`, `create_time`)
+SELECT UUID_SHORT(), t.* FROM (
+  SELECT m.`tenant_id`, '销售', m.`id`, accounts.`account_id`, IFNULL(amounts.`amount`, 0), NOW()
+  FROM `receipt_sale_main` AS m
+  CROSS JOIN JSON_TABLE(CONCAT('[', m.`multiple_account`, ']'), '$[*]' COLUMNS (`seq` FOR ORDINALITY, `account_id` bigint PATH '$')) AS accounts
+  LEFT JOIN JSON_TABLE(CONCAT('[', m.`multiple_account_amount`, ']'), '$[*]' COLUMNS (`seq` FOR ORDINALITY, `amount` decimal(12, 2) PATH '$')) AS amounts
+         ON amounts.`seq` = accounts.`seq`
+  WHERE m.`multiple_account` REGEXP '^[0-9]+(,[0-9]+)*$'
+    AND (m.`multiple_account_amount` IS NULL OR m.`multiple_account_amount` = '' OR m.`multiple_account_amount` REGEXP '^-?[0-9.]+(,-?[0-9.]+)*$')
+    AND NOT EXISTS (SELECT 1 FROM `receipt_account_allocation` AS a WHERE a.`receipt_main_id` = m.`id`)
+  UNION ALL
+  SELECT m.`tenant_id`, '采购', m.`id`, accounts.`account_id`, IFNULL(amounts.`amount`, 0), NOW()
+  FROM `receipt_purchase_main` AS m
+  CROSS JOIN JSON_TABLE(CONCAT('[', m.`multiple_account`, ']'), '$[*]' COLUMNS (`seq` FOR ORDINALITY, `account_id` bigint PATH '$')) AS accounts
+  LEFT JOIN JSON_TABLE(CONCAT('[', m.`multiple_account_amount`, ']'), '$[*]' COLUMNS (`seq` FOR ORDINALITY, `amount` decimal(12, 2) PATH '$')) AS amounts
+         ON amounts.`seq` = accounts.`seq`
+  WHERE m.`multiple_account` REGEXP '^[0-9]+(,[0-9]+)*$'
+    AND (m.`multiple_account_amount` IS NULL OR m.`multiple_account_amount` = '' OR m.`multiple_account_amount` REGEXP '^-?[0-9.]+(,-?[0-9.]+)*$')
+    AND NOT EXISTS (SELECT 1 FROM `receipt_account_allocation` AS a WHERE a.`receipt_main_id` = m.`id`)
+) AS t;
@@ -0,0 +1,77 @@
+-- ----------------------------
+-- Upgrade: running balance on the stock movement journal
+-- Apply to databases created from an earlier eairp.sql. Receipts saved before the journal
+-- existed are first written to the journal from their sub tables, dated by the receipt date.
+-- What is still unexplained (initial stock, direct edits) gets an opening entry for the
+-- difference, so that replaying the journal reproduces today's stock, then the running
+-- balance of every entry is filled in.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+ALTER TABLE `product_stock_movement`
+  ADD COLUMN `balance_quantity` decimal(12, 2) NULL DEFAULT NULL COMMENT '变动后结存数量' AFTER `change_quantity`,
+  MODIFY COLUMN `receipt_main_id` bigint NULL DEFAULT NULL COMMENT '来源单据主表id，期初库存和手工调整为空';
+
+-- 流水表建立前保存的单据, 按明细补写流水(同一单据同一库存合并为一行), 删除单据不会冲回库存所以也计入
+INSERT INTO `product_stock_movement` (`id`, `tenant_id`, `product_stock_id`, `product_sku_id`, `warehouse_id`, `change_quantity`, `receipt_main_id`, `create_time`)
+SELECT UUID_SHORT(), stock.`tenant_id`, stock.`id`, stock.`product_sku_id`, stock.`warehouse_id`,
+       SUM(receipt.`quantity`), receipt.`receipt_main_id`, MIN(receipt.`receipt_date`)
+FROM (SELECT main.`tenant_id`, main.`id` AS `receipt_main_id`, IFNULL(main.`receipt_date`, main.`create_time`) AS `receipt_date`,
+             sub.`warehouse_id`, sub.`product_barcode`,
+             IF(main.`sub_type` = '零售退货', 1, -1) * IFNULL(sub.`product_number`, 0) AS `quantity`
+      FROM `receipt_retail_main` AS main
+      INNER JOIN `receipt_retail_sub` AS sub ON sub.`receipt_main_id` = main.`id`
+      WHERE main.`sub_type` IN ('零售出库', '零售退货')
+      UNION ALL
+      SELECT main.`tenant_id`, main.`id`, IFNULL(main.`receipt_date`, main.`create_time`), sub.`warehouse_id`, sub.`product_barcode`,
+             IF(main.`sub_type` = '销售退货', 1, -1) * IFNULL(sub.`product_number`, 0)
+      FROM `receipt_sale_main` AS main
+      INNER JOIN `receipt_sale_sub` AS sub ON sub.`receipt_sale_main_id` = main.`id`
+      WHERE main.`sub_type` IN ('销售出库', '销售退货')
+      UNION ALL
+      SELECT main.`tenant_id`, main.`id`, IFNULL(main.`receipt_date`, main.`create_time`), sub.`warehouse_id`, sub.`product_barcode`,
+             IF(main.`sub_type` = '采购入库', 1, -1) * IFNULL(sub.`product_number`, 0)
+      FROM `receipt_purchase_main` AS main
+      INNER JOIN `receipt_purchase_sub` AS sub ON sub.`receipt_purchase_main_id` = main.`id`
+      WHERE main.`sub_type` IN ('采购入库', '采购退货')
+      UNION ALL
+      -- 其他入库/其他出库, 调拨出库的调出仓库, 组装单的组合件入库子件出库, 拆卸单相反
+      SELECT main.`tenant_id`, main.`id`, IFNULL(main.`receipt_date`, main.`create_time`), sub.`warehouse_id`, sub.`product_barcode`,
+             CASE
+                 WHEN main.`type` = '其他入库' THEN 1
+                 WHEN main.`type` = '组装单' AND sub.`type` = '组合件' THEN 1
+                 WHEN main.`type` = '拆卸单' AND sub.`type` = '普通子件' THEN 1
+                 ELSE -1
+             END * IFNULL(sub.`product_number`, 0)
+      FROM `warehouse_receipt_main` AS main
+      INNER JOIN `warehouse_receipt_sub` AS sub ON sub.`warehouse_receipt_main_id` = main.`id`
+      WHERE main.`type` IN ('其他入库', '其他出库', '调拨出库', '组装单', '拆卸单')
+      UNION ALL
+      -- 调拨出库的调入仓库
+      SELECT main.`tenant_id`, main.`id`, IFNULL(main.`receipt_date`, main.`create_time`), sub.`other_warehouse_id`, sub.`product_barcode`,
+             IFNULL(sub.`product_number`, 0)
+      FROM `warehouse_receipt_main` AS main
+      INNER JOIN `warehouse_receipt_sub` AS sub ON sub.`warehouse_receipt_main_id` = main.`id`
+      WHERE main.`type` = '调拨出库' AND sub.`other_warehouse_id` IS NOT NULL) AS receipt
+INNER JOIN `product_sku` AS sku ON sku.`product_bar_code` = receipt.`product_barcode` AND sku.`tenant_id` <=> receipt.`tenant_id`
+INNER JOIN `product_stock` AS stock ON stock.`product_sku_id` = sku.`id` AND stock.`warehouse_id` = receipt.`warehouse_id`
+WHERE NOT EXISTS (SELECT 1 FROM `product_stock_movement` AS movement WHERE movement.`receipt_main_id` = receipt.`receipt_main_id`)
+GROUP BY stock.`id`, receipt.`receipt_main_id`
+HAVING SUM(receipt.`quantity`) <> 0;
+
+-- 仍对不上的部分(期初库存, 直接修改)记为期初流水, 时间在该库存第一条流水之前
+INSERT INTO `product_stock_movement` (`id`, `tenant_id`, `product_stock_id`, `product_sku_id`, `warehouse_id`, `change_quantity`, `receipt_main_id`, `create_time`)
+SELECT UUID_SHORT(), stock.`tenant_id`, stock.`id`, stock.`product_sku_id`, stock.`warehouse_id`,
+       IFNULL(stock.`current_stock_quantity`, 0) - IFNULL(journal.`total_quantity`, 0), NULL,
+       IFNULL(journal.`first_time` - INTERVAL 1 SECOND, IFNULL(stock.`create_time`, NOW()))
+FROM `product_stock` AS stock
+LEFT JOIN (SELECT `product_stock_id`, SUM(`change_quantity`) AS `total_quantity`, MIN(`create_time`) AS `first_time`
+           FROM `product_stock_movement`
+           GROUP BY `product_stock_id`) AS journal ON journal.`product_stock_id` = stock.`id`
+WHERE IFNULL(stock.`current_stock_quantity`, 0) - IFNULL(journal.`total_quantity`, 0) <> 0;
+
+UPDATE `product_stock_movement` AS movement
+INNER JOIN (SELECT `id`, SUM(`change_quantity`) OVER (PARTITION BY `product_stock_id` ORDER BY `create_time`, `id`) AS `balance_quantity`
+            FROM `product_stock_movement`) AS balance ON balance.`id` = movement.`id`
+SET movement.`balance_quantity` = balance.`balance_quantity`
+WHERE movement.`balance_quantity` IS NULL;
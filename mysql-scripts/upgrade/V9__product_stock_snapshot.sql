@@ -0,0 +1,24 @@
+-- ----------------------------
+-- Upgrade: point-in-time stock snapshots for historical stock and valuation reports
+-- Apply to databases created from an earlier eairp.sql. Snapshots are written by the scheduled
+-- job (eairp.stock-snapshot.cron, month end by default). Past month ends can be filled in with
+-- POST /report/productStock/snapshot?snapshotDate=yyyy-MM-dd for the current tenant.
+-- ----------------------------
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS `product_stock_snapshot`  (
+  `id` bigint NOT NULL COMMENT '主键',
+  `tenant_id` bigint NULL DEFAULT NULL COMMENT '租户id',
+  `product_stock_id` bigint NOT NULL COMMENT '产品库存id',
+  `product_sku_id` bigint NULL DEFAULT NULL COMMENT '产品扩展id',
+  `warehouse_id` bigint NULL DEFAULT NULL COMMENT '仓库id',
+  `snapshot_date` date NOT NULL COMMENT '快照日期，记录当天结束时的库存',
+  `stock_quantity` decimal(12, 2) NOT NULL COMMENT '库存数量',
+  `unit_price` decimal(12, 2) NULL DEFAULT NULL COMMENT '估值单价（零售价）',
+  `stock_amount` decimal(16, 2) NULL DEFAULT NULL COMMENT '库存金额',
+  `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_stock_snapshot`(`tenant_id` ASC, `snapshot_date` ASC, `product_stock_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb3 COLLATE = utf8mb3_general_ci COMMENT = '库存快照，库存为0的行不记录' ROW_FORMAT = DYNAMIC;
+
+ALTER TABLE `product_stock_movement` ADD INDEX `idx_stock_movement_time`(`tenant_id` ASC, `create_time` ASC) USING BTREE;